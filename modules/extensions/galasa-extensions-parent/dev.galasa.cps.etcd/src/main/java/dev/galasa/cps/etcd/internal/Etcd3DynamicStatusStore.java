@@ -576,6 +576,8 @@ public class Etcd3DynamicStatusStore extends Etcd3Store implements IDynamicStatu
 
         @Override
         public void onError(Throwable throwable) {
+            // Events may have been missed, so let the watcher know it can no longer rely on them
+            watcher.watchInterrupted(throwable);
         }
 
         @Override
@@ -7,17 +7,26 @@ package dev.galasa.extensions.common.couchdb;
 
 import static dev.galasa.extensions.common.Errors.*;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.CopyOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.ParseException;
@@ -33,6 +42,7 @@ import org.apache.hc.core5.net.URIBuilder;
 
 import dev.galasa.extensions.common.api.HttpClientFactory;
 import dev.galasa.extensions.common.api.HttpRequestFactory;
+import dev.galasa.extensions.common.couchdb.pojos.BulkDocsResult;
 import dev.galasa.extensions.common.couchdb.pojos.IdRev;
 import dev.galasa.extensions.common.couchdb.pojos.PutPostResponse;
 import dev.galasa.extensions.common.couchdb.pojos.UpResponse;
@@ -226,6 +236,50 @@ public abstract class CouchdbStore {
         }
     }
 
+    /**
+     * Opens a stream that reads an attachment straight from the CouchDB response,
+     * without copying it to a file first. The response is released when the stream
+     * is closed, so the caller must always close it.
+     *
+     * @param URI the URI of the attachment to read
+     * @return a stream of the attachment's content
+     * @throws CouchdbException if the attachment could not be requested
+     */
+    protected InputStream openArtifactStreamFromDatabase(String URI) throws CouchdbException {
+        HttpGet httpGet = httpRequestFactory.getHttpGetRequest(URI);
+        CloseableHttpResponse response = null;
+        try {
+            response = httpClient.execute(httpGet);
+            if (response.getCode() != HttpStatus.SC_OK) {
+                String errorMessage = ERROR_URI_IS_INVALID.getMessage(URI);
+                throw new CouchdbException(errorMessage);
+            }
+
+            // Once the content has been read to the end the connection goes back to the pool,
+            // and closing the response before then throws the connection away
+            CloseableHttpResponse openResponse = response;
+            return new FilterInputStream(response.getEntity().getContent()) {
+                @Override
+                public void close() throws IOException {
+                    openResponse.close();
+                }
+            };
+        } catch (Exception e) {
+            if (response != null) {
+                try {
+                    response.close();
+                } catch (IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+
+            if (e instanceof CouchdbException) {
+                throw (CouchdbException) e;
+            }
+            throw new CouchdbException("Unable to retrieve artifact", e);
+        }
+    }
+
     /**
      * Deletes a document from a given database using its document ID by sending a
      * DELETE /{db}/{docid} request to the CouchDB server.
@@ -268,6 +322,86 @@ public abstract class CouchdbStore {
         }
     }
 
+    /**
+     * Gets the current revisions of a set of documents in a given database by sending a
+     * POST /{db}/_all_docs request to the CouchDB server with the document IDs as keys.
+     *
+     * @param dbName      the name of the database containing the documents
+     * @param documentIds the CouchDB IDs of the documents
+     * @return a map of document IDs to their current revisions. Documents that don't exist,
+     *         or have already been deleted, are not included.
+     * @throws CouchdbException if there was a problem accessing the CouchDB store
+     *                          or its response
+     */
+    public Map<String, String> getDocumentRevisions(String dbName, List<String> documentIds) throws CouchdbException {
+        Map<String, String> revisions = new HashMap<>();
+        if (!documentIds.isEmpty()) {
+            JsonObject requestBody = new JsonObject();
+            requestBody.add("keys", gson.toJsonTree(documentIds));
+
+            HttpPost getRevisionsRequest = httpRequestFactory.getHttpPostRequest(storeUri + "/" + dbName + "/_all_docs");
+            getRevisionsRequest.setEntity(new StringEntity(gson.toJson(requestBody), StandardCharsets.UTF_8));
+            String responseEntity = sendHttpRequest(getRevisionsRequest, HttpStatus.SC_OK);
+
+            ViewResponse allDocs = gson.fromJson(responseEntity, ViewResponse.class);
+            if (allDocs == null || allDocs.rows == null) {
+                String errorMessage = ERROR_FAILED_TO_GET_DOCUMENT_REVISIONS_FROM_DATABASE.getMessage(dbName);
+                throw new CouchdbException(errorMessage);
+            }
+
+            // Rows for documents that don't exist have an error instead of an ID and value
+            for (ViewRow row : allDocs.rows) {
+                if (row.id != null && row.value instanceof Map) {
+                    Map<?, ?> value = (Map<?, ?>) row.value;
+                    Object revision = value.get("rev");
+                    if (revision != null && !Boolean.TRUE.equals(value.get("deleted"))) {
+                        revisions.put(row.id, revision.toString());
+                    }
+                }
+            }
+        }
+        return revisions;
+    }
+
+    /**
+     * Deletes a set of documents from a given database in one request by sending a
+     * POST /{db}/_bulk_docs request to the CouchDB server, marking each document as deleted.
+     *
+     * @param dbName    the name of the database to delete the documents from
+     * @param documents the IDs and current revisions of the documents to delete
+     * @return the result for each document, in the same order as the given documents.
+     *         A document that could not be deleted has an error in its result.
+     * @throws CouchdbException if there was a problem accessing the CouchDB store
+     *                          or its response
+     */
+    public List<BulkDocsResult> deleteDocumentsFromDatabase(String dbName, List<IdRev> documents) throws CouchdbException {
+        List<BulkDocsResult> results = new ArrayList<>();
+        if (!documents.isEmpty()) {
+            JsonArray docs = new JsonArray();
+            for (IdRev document : documents) {
+                JsonObject deletedDoc = new JsonObject();
+                deletedDoc.addProperty("_id", document._id);
+                deletedDoc.addProperty("_rev", document._rev);
+                deletedDoc.addProperty("_deleted", true);
+                docs.add(deletedDoc);
+            }
+            JsonObject requestBody = new JsonObject();
+            requestBody.add("docs", docs);
+
+            HttpPost bulkDeleteRequest = httpRequestFactory.getHttpPostRequest(storeUri + "/" + dbName + "/_bulk_docs");
+            bulkDeleteRequest.setEntity(new StringEntity(gson.toJson(requestBody), StandardCharsets.UTF_8));
+            String responseEntity = sendHttpRequest(bulkDeleteRequest, HttpStatus.SC_CREATED, HttpStatus.SC_ACCEPTED);
+
+            BulkDocsResult[] bulkResults = gson.fromJson(responseEntity, BulkDocsResult[].class);
+            if (bulkResults == null) {
+                String errorMessage = ERROR_FAILED_TO_DELETE_DOCUMENTS_FROM_DATABASE.getMessage(dbName);
+                throw new CouchdbException(errorMessage);
+            }
+            results = Arrays.asList(bulkResults);
+        }
+        return results;
+    }
+
     /**
      * Sends a given HTTP request to the CouchDB server and returns the response
      * body as a string.
@@ -0,0 +1,17 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.extensions.common.couchdb.pojos;
+
+/**
+ * The result for one document in the response to a POST /{db}/_bulk_docs request
+ */
+public class BulkDocsResult {
+    public String id;
+    public boolean ok;
+    public String rev;
+    public String error;
+    public String reason;
+}
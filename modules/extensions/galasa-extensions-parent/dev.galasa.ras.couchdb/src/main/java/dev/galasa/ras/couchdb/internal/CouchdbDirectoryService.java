@@ -48,6 +48,7 @@ import dev.galasa.extensions.common.couchdb.pojos.Row;
 import dev.galasa.extensions.common.couchdb.pojos.ViewResponse;
 import dev.galasa.extensions.common.couchdb.pojos.ViewRow;
 import dev.galasa.extensions.common.api.HttpRequestFactory;
+import dev.galasa.ras.couchdb.internal.operations.CouchdbDeleteRunService;
 import dev.galasa.ras.couchdb.internal.pojos.Find;
 import dev.galasa.ras.couchdb.internal.pojos.FoundRuns;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
@@ -66,6 +67,7 @@ public class CouchdbDirectoryService implements IResultArchiveStoreDirectoryServ
     private final GalasaGson gson;
 
     private final CouchdbRasQueryBuilder rasQueryBuilder = new CouchdbRasQueryBuilder();
+    private final CouchdbDeleteRunService deleteRunService;
 
     public CouchdbDirectoryService(CouchdbRasStore store, LogFactory logFactory, HttpRequestFactory requestFactory) {
         this.store = store;
@@ -73,6 +75,7 @@ public class CouchdbDirectoryService implements IResultArchiveStoreDirectoryServ
         this.logger = logFactory.getLog(getClass());
         this.requestFactory = requestFactory;
         this.gson = store.getGson();
+        this.deleteRunService = new CouchdbDeleteRunService(store);
     }
 
     @Override
@@ -448,6 +451,15 @@ public class CouchdbDirectoryService implements IResultArchiveStoreDirectoryServ
         return runsPage;
     }
 
+    @Override
+    public int discardRuns(@NotNull List<IRunResult> runs) throws ResultArchiveStoreException {
+        List<TestStructureCouchdb> runTestStructures = new ArrayList<>();
+        for (IRunResult run : runs) {
+            runTestStructures.add((TestStructureCouchdb) run.getTestStructure());
+        }
+        return deleteRunService.discardRuns(runTestStructures);
+    }
+
     private JsonArray buildQuerySortJson(@NotNull RasSortField primarySort) {
         JsonArray sort = new JsonArray();
 
@@ -6,6 +6,7 @@
 package dev.galasa.ras.couchdb.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.AccessMode;
@@ -104,13 +105,7 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
             return new CouchdbRasWriteByteChannel(this, this.couchdbRasStore, absolute, contentType, passThroughOptions,
                     attrs, this.logFactory );
         } else {
-            CouchdbArtifactPath cdbPath = (CouchdbArtifactPath) path;
-
-            for (CouchdbArtifactPath artifactPath : paths) {
-                if (artifactPath.toString().equals(path.toString())) {
-                    cdbPath = artifactPath;
-                }
-            }
+            CouchdbArtifactPath cdbPath = getKnownPath(path);
 
             Path cachePath = Files.createTempFile("galasa_couchdb", "temp");
             try {
@@ -122,6 +117,36 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
         }
     }
 
+    /**
+     * Reads an artifact straight from CouchDB as the stream is consumed, rather than
+     * copying the whole artifact to a temporary file first as a byte channel has to.
+     */
+    @Override
+    public InputStream newInputStream(Path path, OpenOption... options) throws IOException {
+        for (OpenOption option : options) {
+            if (option == StandardOpenOption.APPEND || option == StandardOpenOption.WRITE) {
+                throw new UnsupportedOperationException("'" + option + "' not allowed");
+            }
+        }
+
+        try {
+            return couchdbRasStore.openArtifact(getKnownPath(path));
+        } catch (CouchdbException e) {
+            throw new IOException("Unable to retrieve artifact", e);
+        }
+    }
+
+    private CouchdbArtifactPath getKnownPath(Path path) {
+        CouchdbArtifactPath cdbPath = (CouchdbArtifactPath) path;
+
+        for (CouchdbArtifactPath artifactPath : paths) {
+            if (artifactPath.toString().equals(path.toString())) {
+                cdbPath = artifactPath;
+            }
+        }
+        return cdbPath;
+    }
+
     public Path getRoot() {
         return new CouchdbArtifactPath(this.getActualFileSystem(), "/");
     }
@@ -6,16 +6,29 @@
 package dev.galasa.ras.couchdb.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.validation.constraints.NotNull;
 import org.apache.commons.logging.Log;
 import org.apache.hc.core5.http.HttpStatus;
@@ -24,6 +37,10 @@ import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.net.URIBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
 import dev.galasa.framework.spi.IResultArchiveStoreService;
@@ -49,6 +66,7 @@ import dev.galasa.extensions.common.api.HttpRequestFactory;
 import dev.galasa.extensions.common.impl.LogFactoryImpl;
 import dev.galasa.ras.couchdb.internal.pojos.Artifacts;
 import dev.galasa.ras.couchdb.internal.pojos.LogLines;
+import dev.galasa.ras.couchdb.internal.pojos.LogLinesRows;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
 public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStoreService {
@@ -69,6 +87,26 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
     public static final String COUCHDB_RUN_ID_PREFIX = "cdb-";
 
+    // Ordered log document ids look like <run document id>-log-0000000001
+    public static final String LOG_DOCUMENT_ID_INFIX = "-log-";
+    private static final String LOG_DOCUMENT_ORDER_FORMAT = "%010d";
+    // Sorts after every ordered log document id for a run in a range query
+    private static final String LOG_DOCUMENT_ID_RANGE_END = "\ufff0";
+
+    // How many log documents are fetched in each request when reading a run log
+    private static final int LOG_PAGE_SIZE = 50;
+    // How many log document ids are fetched in each request when finding all of a run's log documents
+    private static final int LOG_ID_PAGE_SIZE = 1000;
+    // How many pages of log documents can be fetched ahead of the page being written out
+    private static final int LOG_PAGE_READ_AHEAD = 4;
+    // How many log pages can be fetched at the same time across all the run logs being read
+    private static final int LOG_PAGE_THREADS = 8;
+    private static final int LOG_PAGE_MAX_QUEUED = 256;
+
+    // Log pages are fetched with blocking calls to CouchDB, so they have their own threads
+    // rather than tying up the common fork-join pool
+    private static final ExecutorService logPageExecutor = createLogPageExecutor();
+
     private final Log                          logger            ;
 
     private final IFramework                   framework;                                         // NOSONAR
@@ -88,6 +126,8 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
     private final ArrayList<String>            logCache           = new ArrayList<>(100);
 
     private ArrayList<String>                  logIds             = new ArrayList<>();
+    private boolean                            isOrderedLogDocumentIds = false;
+    private int                                logIdsInRunDocument = 0;
     private ArrayList<String>                  artifactDocumentId = new ArrayList<>();;
     private String                             artifactDocumentRev;
 
@@ -128,6 +168,12 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
         // *** If this is a run, ensure we can create/update the run document
         if (this.run != null) {
+            try {
+                this.isOrderedLogDocumentIds = CpsPropertyDef.ORDERED_LOG_DOCUMENT_IDS.getCpsBooleanValue(logger,
+                    this.framework.getConfigurationPropertyService(CpsPropertyDef.ORDERED_LOG_DOCUMENT_IDS.getNamespace()));
+            } catch (ConfigurationPropertyStoreException | CouchdbRasException e) {
+                throw new CouchdbException("Unable to read the CouchDB RAS settings from the CPS", e);
+            }
             initialiseRunDocument();
         }
 
@@ -146,6 +192,11 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
             IdRev runDocIdRev = getDocumentFromDatabase(RUNS_DB, runDocumentId, IdRev.class);
             this.runDocumentRevision = runDocIdRev._rev;
+
+            // Carry on from the last log document written for this run, so we don't reuse its id
+            if (isOrderedLogDocumentIds) {
+                this.logOrder = getLastLogDocumentOrder(runDocumentId);
+            }
         }
 
         try {
@@ -211,7 +262,12 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
         String jsonStructure = gson.toJson(logLines);
 
-        HttpPost request = httpRequestFactory.getHttpPostRequest(this.storeUri + "/"+LOG_DB);
+        HttpUriRequestBase request;
+        if (isOrderedLogDocumentIds) {
+            request = httpRequestFactory.getHttpPutRequest(this.storeUri + "/"+LOG_DB+"/" + getLogDocumentId(this.runDocumentId, logLines.order));
+        } else {
+            request = httpRequestFactory.getHttpPostRequest(this.storeUri + "/"+LOG_DB);
+        }
         request.setEntity(new StringEntity(jsonStructure, StandardCharsets.UTF_8));
 
         try{
@@ -221,8 +277,15 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
                 throw new CouchdbException("Unable to store the test structure - Invalid JSON response");
             }
 
-            this.logIds.add(putPostResponse.id);
-            this.updateTestStructure(lastTestStructure);
+            synchronized (this) {
+                this.logIds.add(putPostResponse.id);
+            }
+
+            // Ordered log documents can be found without the run document, so it is left to be
+            // updated at the next point in the test's lifecycle
+            if (!isOrderedLogDocumentIds) {
+                this.updateTestStructure(lastTestStructure);
+            }
         } catch (CouchdbException e) {
             throw new ResultArchiveStoreException(e);
         } catch (Exception e) {
@@ -342,7 +405,7 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         this.lastTestStructure.setLogSize(Long.valueOf(this.runLogSizeBytes));
         this.lastTestStructure.normalise();
 
-        String jsonStructure = gson.toJson(testStructure);
+        String jsonStructure = toRunDocumentJson(testStructure);
 
         HttpUriRequestBase request;
         if (runDocumentId == null) {
@@ -361,12 +424,38 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
                 }
                 this.runDocumentId = putPostResponse.id;
                 this.runDocumentRevision = putPostResponse.rev;
+                this.logIdsInRunDocument = this.logIds.size();
         } catch (CouchdbException e){
             throw new ResultArchiveStoreException(e);
         }
     }
 
+    private String toRunDocumentJson(TestStructure testStructure) {
+        String jsonStructure;
+        if (isOrderedLogDocumentIds) {
+            // Tell readers to find the log documents by their ids, as the run document does not list them all until the run ends
+            JsonObject runDocument = gson.toJsonTree(testStructure).getAsJsonObject();
+            runDocument.addProperty(TestStructureCouchdb.ORDERED_LOG_DOCUMENT_IDS_FIELD, true);
+            jsonStructure = gson.toJson(runDocument);
+        } else {
+            jsonStructure = gson.toJson(testStructure);
+        }
+        return jsonStructure;
+    }
+
     public void retrieveArtifact(CouchdbArtifactPath path, Path cachePath) throws CouchdbException {
+        retrieveArtifactFromDatabase(getArtifactUri(path), cachePath,StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Opens a stream of an artifact's content that is read directly from CouchDB as it is consumed.
+     * The caller must close the stream.
+     */
+    public InputStream openArtifact(CouchdbArtifactPath path) throws CouchdbException {
+        return openArtifactStreamFromDatabase(getArtifactUri(path));
+    }
+
+    private String getArtifactUri(CouchdbArtifactPath path) throws CouchdbException {
         String artifactRecordId = path.getArtifactRecordId();
         String encodedPath;
         try {
@@ -375,53 +464,31 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
             throw new CouchdbException("Problem encoding artifact path", e);
         }
 
-        String artifactURI= this.storeUri + "/"+ARTIFACTS_DB+"/" + artifactRecordId + "/" + encodedPath;
-        retrieveArtifactFromDatabase(artifactURI, cachePath,StandardCopyOption.REPLACE_EXISTING);
-    }
-
-    /**
-     * Fetch a log document from CouchDB and return the parsed LogLines object.
-     *
-     * @param logRecordId The ID of the log document to fetch
-     * @return The parsed LogLines object
-     * @throws ResultArchiveStoreException if there's an error fetching or parsing the document
-     */
-    private LogLines fetchLogDocument(String logRecordId) throws ResultArchiveStoreException {
-    	HttpGet httpGet = httpRequestFactory.getHttpGetRequest(this.storeUri + "/"+LOG_DB+"/" + logRecordId);
-
-    	try {
-    		String entity = sendHttpRequest(httpGet, HttpStatus.SC_OK);
-    		LogLines logLines = gson.fromJson(entity, LogLines.class);
-    		return logLines;
-    	} catch (CouchdbException e) {
-    		throw new ResultArchiveStoreException(e);
-    	} catch (Exception e) {
-            throw new ResultArchiveStoreException("Unable to fetch log", e);
-        }
+        return this.storeUri + "/"+ARTIFACTS_DB+"/" + artifactRecordId + "/" + encodedPath;
     }
 
     public String getLog(TestStructure ts) throws ResultArchiveStoreException {
         StringBuilder sb = new StringBuilder();
 
-        for (String logRecordId : ts.getLogRecordIds()) {
-            LogLines logLines = fetchLogDocument(logRecordId);
-
-            if (logLines.lines != null) {
-                for (String line : logLines.lines) {
-                    if (sb.length() > 0) {
-                        sb.append("\n");
+        processLogDocuments(ts, logLinesPage -> {
+            for (LogLines logLines : logLinesPage) {
+                if (logLines.lines != null) {
+                    for (String line : logLines.lines) {
+                        if (sb.length() > 0) {
+                            sb.append("\n");
+                        }
+                        sb.append(line);
                     }
-                    sb.append(line);
                 }
             }
-        }
+        });
         return sb.toString();
     }
 
     /**
      * Stream the run log content directly to an OutputStream.
-     * This method processes log documents one at a time and writes directly to the stream,
-     * avoiding the need to load the entire log into memory.
+     * Log documents are fetched a page at a time and each page is written and flushed to the stream
+     * as soon as it arrives, avoiding the need to load the entire log into memory.
      *
      * @param ts The test structure containing log record IDs
      * @param outputStream The stream to write log content to
@@ -429,30 +496,32 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
      */
     public void streamLog(TestStructure ts, OutputStream outputStream) throws ResultArchiveStoreException {
 
-    	boolean isFirstLine = true;
-
-    	for (String logRecordId : ts.getLogRecordIds()) {
-    		LogLines logLines = fetchLogDocument(logRecordId);
-
-    		if (logLines.lines != null && !logLines.lines.isEmpty()) {
-    			StringBuilder documentContent = new StringBuilder();
-
-    			for (String line : logLines.lines) {
-    				if (!isFirstLine) {
-    					documentContent.append('\n');
+    	boolean[] isFirstLine = { true };
+
+    	processLogDocuments(ts, logLinesPage -> {
+    		StringBuilder pageContent = new StringBuilder();
+    		for (LogLines logLines : logLinesPage) {
+    			if (logLines.lines != null) {
+    				for (String line : logLines.lines) {
+    					if (!isFirstLine[0]) {
+    						pageContent.append('\n');
+    					}
+    					pageContent.append(line);
+    					isFirstLine[0] = false;
     				}
-    				documentContent.append(line);
-    				isFirstLine = false;
     			}
+    		}
 
-    			// Write the entire document's content in one operation
+    		// Write the entire page's content in one operation, so the client sees it straight away
+    		if (pageContent.length() > 0) {
     			try {
-    				outputStream.write(documentContent.toString().getBytes(StandardCharsets.UTF_8));
+    				outputStream.write(pageContent.toString().getBytes(StandardCharsets.UTF_8));
+    				outputStream.flush();
     			} catch (IOException e) {
     				throw new ResultArchiveStoreException("Unable to stream log", e);
     			}
     		}
-    	}
+    	});
 
     	try {
     		outputStream.flush();
@@ -461,6 +530,376 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
     	}
     }
 
+    /**
+     * Stream the last few lines of the run log directly to an OutputStream.
+     * Log documents are fetched a page at a time from the end of the log, until enough lines have been found.
+     *
+     * @param ts The test structure containing log record IDs
+     * @param outputStream The stream to write log content to
+     * @param lineCount The number of lines to write from the end of the log
+     * @throws ResultArchiveStoreException if there's an error accessing the log
+     */
+    public void streamLogTail(TestStructure ts, OutputStream outputStream, int lineCount) throws ResultArchiveStoreException {
+        LogPageSource logPageSource = createLogPageSource(ts, true);
+        if (logPageSource == null || lineCount <= 0) {
+            return;
+        }
+
+        ArrayDeque<String> tailLines = new ArrayDeque<>(Math.min(lineCount, 10000));
+        List<LogLines> logLinesPage = logPageSource.fetchNextPage();
+        while (logLinesPage != null && tailLines.size() < lineCount) {
+            // The page holds the log documents latest first
+            for (LogLines logLines : logLinesPage) {
+                if (logLines.lines != null) {
+                    for (int i = logLines.lines.size() - 1; i >= 0 && tailLines.size() < lineCount; i--) {
+                        tailLines.addFirst(logLines.lines.get(i));
+                    }
+                }
+            }
+
+            if (tailLines.size() < lineCount) {
+                logLinesPage = logPageSource.fetchNextPage();
+            }
+        }
+
+        try {
+            outputStream.write(String.join("\n", tailLines).getBytes(StandardCharsets.UTF_8));
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new ResultArchiveStoreException("Unable to stream log", e);
+        }
+    }
+
+    private interface LogLinesPageProcessor {
+        void process(List<LogLines> logLinesPage) throws ResultArchiveStoreException;
+    }
+
+    private interface LogPageSource {
+        /**
+         * Fetch the next page of a run's log documents from CouchDB.
+         * Calls must not overlap, as each page carries on from where the last one finished.
+         *
+         * @return The next page of log documents, or null if there are no more
+         * @throws ResultArchiveStoreException if there's an error fetching the documents
+         */
+        List<LogLines> fetchNextPage() throws ResultArchiveStoreException;
+    }
+
+    /**
+     * Passes each page of a run's log documents, in order, to the given processor.
+     *
+     * The next few pages are fetched in the background while the processor deals with the current one.
+     * Each page is only requested once the page before it has arrived, so the requests to CouchDB are
+     * still made one at a time and in order, but they overlap with the processing of earlier pages.
+     */
+    private void processLogDocuments(TestStructure ts, LogLinesPageProcessor processor) throws ResultArchiveStoreException {
+        LogPageSource logPageSource = createLogPageSource(ts, false);
+        if (logPageSource == null) {
+            return;
+        }
+
+        AtomicBoolean isCancelled = new AtomicBoolean(false);
+        ArrayDeque<CompletableFuture<List<LogLines>>> pages = new ArrayDeque<>(LOG_PAGE_READ_AHEAD);
+        pages.add(CompletableFuture.supplyAsync(() -> fetchNextLogPage(logPageSource, isCancelled), logPageExecutor));
+        try {
+            boolean isFinished = false;
+            while (!isFinished) {
+                while (pages.size() < LOG_PAGE_READ_AHEAD) {
+                    pages.add(pages.getLast().thenApplyAsync(previousPage -> {
+                        List<LogLines> nextPage = null;
+                        if (previousPage != null) {
+                            nextPage = fetchNextLogPage(logPageSource, isCancelled);
+                        }
+                        return nextPage;
+                    }, logPageExecutor));
+                }
+
+                List<LogLines> logLinesPage = pages.removeFirst().join();
+                if (logLinesPage == null) {
+                    isFinished = true;
+                } else {
+                    processor.process(logLinesPage);
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ResultArchiveStoreException) {
+                throw (ResultArchiveStoreException) e.getCause();
+            }
+            throw new ResultArchiveStoreException("Unable to fetch log", e.getCause());
+        } finally {
+            // Stop fetching pages that will never be processed
+            isCancelled.set(true);
+        }
+    }
+
+    private static ExecutorService createLogPageExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "galasa-couchdb-ras-log-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // Idle threads are allowed to end, as the pool is shared by every store and is never shut down
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(LOG_PAGE_THREADS, LOG_PAGE_THREADS, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(LOG_PAGE_MAX_QUEUED), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private List<LogLines> fetchNextLogPage(LogPageSource logPageSource, AtomicBoolean isCancelled) {
+        List<LogLines> logLinesPage = null;
+        if (!isCancelled.get()) {
+            try {
+                logLinesPage = logPageSource.fetchNextPage();
+            } catch (ResultArchiveStoreException e) {
+                throw new CompletionException(e);
+            }
+        }
+        return logLinesPage;
+    }
+
+    /**
+     * Runs whose log documents have ordered ids are read with range queries, which also find any log
+     * documents written since the run document was last updated, so the log of a run that is still
+     * going can be read. Otherwise the log documents listed in the run document are fetched in bulk.
+     *
+     * @param ts The test structure containing log record IDs
+     * @param isLatestFirst true to read the log from the end, with the latest log document first in each page
+     * @return A source of pages of log documents, or null if the run has no log
+     */
+    private LogPageSource createLogPageSource(TestStructure ts, boolean isLatestFirst) {
+        LogPageSource logPageSource = null;
+        if (ts instanceof TestStructureCouchdb && isOrderedLogDocumentIds((TestStructureCouchdb) ts)) {
+            logPageSource = new OrderedLogPageSource(((TestStructureCouchdb) ts)._id, isLatestFirst);
+        } else {
+            List<String> logRecordIds = ts.getLogRecordIds();
+            if (logRecordIds != null && !logRecordIds.isEmpty()) {
+                logPageSource = new LogRecordIdsPageSource(logRecordIds, isLatestFirst);
+            }
+        }
+        return logPageSource;
+    }
+
+    public static boolean isOrderedLogDocumentIds(TestStructureCouchdb runTestStructure) {
+        return runTestStructure._id != null && Boolean.TRUE.equals(runTestStructure.orderedLogDocumentIds);
+    }
+
+    /**
+     * Find the ids of all of a run's ordered log documents with range queries, including those written
+     * since the run document was last updated.
+     *
+     * @param runDocumentId The ID of the run document the log belongs to
+     * @return The IDs of the run's log documents, in order
+     * @throws ResultArchiveStoreException if there's an error fetching the IDs
+     */
+    public List<String> getOrderedLogDocumentIds(String runDocumentId) throws ResultArchiveStoreException {
+        List<String> logDocumentIds = new ArrayList<>();
+        String startKey = getLogDocumentIdPrefix(runDocumentId);
+        while (startKey != null) {
+            // Ask for one more id than we need, so we know where the next page starts
+            List<LogLinesRows.Row> rows = fetchOrderedLogDocuments(runDocumentId, startKey, false, false, LOG_ID_PAGE_SIZE + 1);
+            if (rows.size() > LOG_ID_PAGE_SIZE) {
+                startKey = rows.get(LOG_ID_PAGE_SIZE).id;
+                rows = rows.subList(0, LOG_ID_PAGE_SIZE);
+            } else {
+                startKey = null;
+            }
+
+            for (LogLinesRows.Row row : rows) {
+                logDocumentIds.add(row.id);
+            }
+        }
+        return logDocumentIds;
+    }
+
+    /**
+     * Pages through the log documents whose ids start with the run document id, using the id of
+     * the first document on the next page as the start key of the next range query.
+     */
+    private class OrderedLogPageSource implements LogPageSource {
+
+        private final String runDocumentId;
+        private final boolean isDescending;
+        private String startKey;
+
+        OrderedLogPageSource(String runDocumentId, boolean isDescending) {
+            this.runDocumentId = runDocumentId;
+            this.isDescending = isDescending;
+            this.startKey = getLogDocumentIdPrefix(runDocumentId);
+            if (isDescending) {
+                this.startKey += LOG_DOCUMENT_ID_RANGE_END;
+            }
+        }
+
+        @Override
+        public List<LogLines> fetchNextPage() throws ResultArchiveStoreException {
+            if (startKey == null) {
+                return null;
+            }
+
+            // Ask for one more document than we need, so we know where the next page starts
+            List<LogLinesRows.Row> rows = fetchOrderedLogDocuments(runDocumentId, startKey, isDescending, true, LOG_PAGE_SIZE + 1);
+            if (rows.size() > LOG_PAGE_SIZE) {
+                startKey = rows.get(LOG_PAGE_SIZE).id;
+                rows = rows.subList(0, LOG_PAGE_SIZE);
+            } else {
+                startKey = null;
+            }
+
+            List<LogLines> logLinesPage = new ArrayList<>(rows.size());
+            for (LogLinesRows.Row row : rows) {
+                if (row.doc != null) {
+                    logLinesPage.add(row.doc);
+                }
+            }
+            return logLinesPage;
+        }
+    }
+
+    /**
+     * Pages through the log documents listed in a run document, fetching each page in a single bulk request.
+     */
+    private class LogRecordIdsPageSource implements LogPageSource {
+
+        private final List<String> logRecordIds;
+        private final boolean isLatestFirst;
+        private int fetchedCount = 0;
+
+        LogRecordIdsPageSource(List<String> logRecordIds, boolean isLatestFirst) {
+            this.logRecordIds = logRecordIds;
+            this.isLatestFirst = isLatestFirst;
+        }
+
+        @Override
+        public List<LogLines> fetchNextPage() throws ResultArchiveStoreException {
+            int remainingCount = logRecordIds.size() - fetchedCount;
+            if (remainingCount <= 0) {
+                return null;
+            }
+
+            int pageSize = Math.min(LOG_PAGE_SIZE, remainingCount);
+            List<String> pageIds;
+            if (isLatestFirst) {
+                pageIds = logRecordIds.subList(remainingCount - pageSize, remainingCount);
+            } else {
+                pageIds = logRecordIds.subList(fetchedCount, fetchedCount + pageSize);
+            }
+            fetchedCount += pageSize;
+
+            List<LogLines> logLinesPage = fetchLogDocuments(pageIds);
+            if (isLatestFirst) {
+                Collections.reverse(logLinesPage);
+            }
+            return logLinesPage;
+        }
+    }
+
+    /**
+     * Fetch a batch of log documents from CouchDB with a single bulk request.
+     *
+     * @param logRecordIds The IDs of the log documents to fetch
+     * @return The log documents that were found, in the same order as their IDs
+     * @throws ResultArchiveStoreException if there's an error fetching or parsing the documents
+     */
+    private List<LogLines> fetchLogDocuments(List<String> logRecordIds) throws ResultArchiveStoreException {
+        HttpPost httpPost = httpRequestFactory.getHttpPostRequest(this.storeUri + "/" + LOG_DB + "/_all_docs?include_docs=true");
+
+        JsonObject keys = new JsonObject();
+        JsonArray keysArray = new JsonArray();
+        for (String logRecordId : logRecordIds) {
+            keysArray.add(logRecordId);
+        }
+        keys.add("keys", keysArray);
+        httpPost.setEntity(new StringEntity(gson.toJson(keys), StandardCharsets.UTF_8));
+
+        try {
+            String entity = sendHttpRequest(httpPost, HttpStatus.SC_OK);
+            LogLinesRows logLinesRows = gson.fromJson(entity, LogLinesRows.class);
+            if (logLinesRows == null || logLinesRows.rows == null) {
+                throw new CouchdbException("Unable to fetch log - Invalid JSON response");
+            }
+
+            List<LogLines> logLinesList = new ArrayList<>(logLinesRows.rows.size());
+            for (LogLinesRows.Row row : logLinesRows.rows) {
+                if (row.doc != null) {
+                    logLinesList.add(row.doc);
+                } else {
+                    logger.warn("Unable to fetch log document " + row.key + " - " + row.error);
+                }
+            }
+            return logLinesList;
+        } catch (CouchdbException e) {
+            throw new ResultArchiveStoreException(e);
+        }
+    }
+
+    /**
+     * Fetch a run's ordered log documents from CouchDB with a range query on their ids.
+     *
+     * @param runDocumentId The ID of the run document the log belongs to
+     * @param startKey The ID to start the range query from
+     * @param isDescending true to fetch the last log document first
+     * @param isIncludingDocs true to fetch the log documents, false to only fetch their IDs
+     * @param limit The maximum number of log documents to fetch, or 0 to fetch them all
+     * @return The rows returned by CouchDB
+     * @throws ResultArchiveStoreException if there's an error fetching or parsing the documents
+     */
+    private List<LogLinesRows.Row> fetchOrderedLogDocuments(String runDocumentId, String startKey, boolean isDescending,
+            boolean isIncludingDocs, int limit) throws ResultArchiveStoreException {
+        String firstId = getLogDocumentIdPrefix(runDocumentId);
+        String lastId = firstId + LOG_DOCUMENT_ID_RANGE_END;
+        try {
+            URIBuilder uriBuilder = new URIBuilder(this.storeUri + "/" + LOG_DB + "/_all_docs");
+            // CouchDB requires the values for the key parameters to be quoted
+            uriBuilder.addParameter("startkey", '"' + startKey + '"');
+            uriBuilder.addParameter("endkey", '"' + (isDescending ? firstId : lastId) + '"');
+            if (isDescending) {
+                uriBuilder.addParameter("descending", "true");
+            }
+            if (isIncludingDocs) {
+                uriBuilder.addParameter("include_docs", "true");
+            }
+            if (limit > 0) {
+                uriBuilder.addParameter("limit", Integer.toString(limit));
+            }
+
+            HttpGet httpGet = httpRequestFactory.getHttpGetRequest(uriBuilder.build().toString());
+            String entity = sendHttpRequest(httpGet, HttpStatus.SC_OK);
+            LogLinesRows logLinesRows = gson.fromJson(entity, LogLinesRows.class);
+            if (logLinesRows == null || logLinesRows.rows == null) {
+                throw new CouchdbException("Unable to fetch log - Invalid JSON response");
+            }
+            return logLinesRows.rows;
+        } catch (CouchdbException e) {
+            throw new ResultArchiveStoreException(e);
+        } catch (URISyntaxException e) {
+            throw new ResultArchiveStoreException("Unable to fetch log", e);
+        }
+    }
+
+    private long getLastLogDocumentOrder(String runDocumentId) throws CouchdbException {
+        long lastOrder = 0;
+        try {
+            String startKey = getLogDocumentIdPrefix(runDocumentId) + LOG_DOCUMENT_ID_RANGE_END;
+            List<LogLinesRows.Row> rows = fetchOrderedLogDocuments(runDocumentId, startKey, true, false, 1);
+            if (!rows.isEmpty()) {
+                lastOrder = Long.parseLong(rows.get(0).id.substring(getLogDocumentIdPrefix(runDocumentId).length()));
+            }
+        } catch (ResultArchiveStoreException | NumberFormatException e) {
+            throw new CouchdbException("Unable to find the last log document written for the run", e);
+        }
+        return lastOrder;
+    }
+
+    static String getLogDocumentIdPrefix(String runDocumentId) {
+        return runDocumentId + LOG_DOCUMENT_ID_INFIX;
+    }
+
+    static String getLogDocumentId(String runDocumentId, long order) {
+        return getLogDocumentIdPrefix(runDocumentId) + String.format(LOG_DOCUMENT_ORDER_FORMAT, order);
+    }
+
     @Override
     public Path getStoredArtifactsRoot() {
         if (this.run == null) {
@@ -483,6 +922,11 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         this.shutdown = true;
         try {
             flushLogCache();
+
+            // Make sure the run document lists every ordered log document that has been written
+            if (isOrderedLogDocumentIds && this.run != null && logIds.size() > logIdsInRunDocument) {
+                updateTestStructure(lastTestStructure);
+            }
         } catch (ResultArchiveStoreException e) {
             logger.error("Error with shutdown flush", e);
         }
@@ -59,6 +59,11 @@ public class CouchdbRunResult implements IRunResult {
         this.store.streamLog(this.testStructure, outputStream);
     }
 
+    @Override
+    public void streamLogTail(OutputStream outputStream, int lineCount) throws ResultArchiveStoreException {
+        this.store.streamLogTail(this.testStructure, outputStream, lineCount);
+    }
+
     @Override
     public long getLogSize() throws ResultArchiveStoreException {
         Long logSize = this.testStructure.getLogSize();
@@ -19,7 +19,13 @@ public enum CpsPropertyDef {
     // If true, then couchdb puts the data inline. ie: Within a json property inside the json document.
     // Default value is 0, ie: No in-lining of attachments.
     // Only applicable when ONE_ARTIFACT_PER_DOCUMENT feature flag is enabled.
-    INLINE_ARTIFACT_MAX_SIZE("couchdb","inline.artifact.max.size")
+    INLINE_ARTIFACT_MAX_SIZE("couchdb","inline.artifact.max.size"),
+
+    // If true, then run log documents are given ids made up of the run document id and the
+    // order of the log document, so the log can be read back with a single range query, and
+    // the run document is not updated every time a log document is written.
+    // Default value is false.
+    ORDERED_LOG_DOCUMENT_IDS("couchdb","log.ordered.document.ids")
     ;
 
     private String namespace;
@@ -64,4 +70,30 @@ public enum CpsPropertyDef {
         return value;
     }
 
+    public boolean getCpsBooleanValue(org.apache.commons.logging.Log logger, IConfigurationPropertyStoreService cps) throws CouchdbRasException {
+        String featurePropertyName = this.getPropertyName();
+        int firstDotIndex = featurePropertyName.indexOf('.');
+        String prefix = featurePropertyName.substring(0, firstDotIndex);
+        String suffix = featurePropertyName.substring(firstDotIndex+1);
+        String valueStr ;
+        try {
+            valueStr = cps.getProperty(prefix, suffix);
+        } catch( ConfigurationPropertyStoreException ex) {
+            throw new CouchdbRasException(
+                MessageFormat.format("Failed to get the value of property {0} from the cps.",featurePropertyName),
+                ex
+            );
+        }
+
+        boolean value ;
+        if (valueStr == null) {
+            logger.trace(MessageFormat.format("Couchdb setting {0} is not set. Defaulting.",this.getPropertyName()));
+            value = false;
+        } else {
+            value = Boolean.parseBoolean(valueStr.trim());
+        }
+
+        return value;
+    }
+
 }
@@ -8,15 +8,23 @@ package dev.galasa.ras.couchdb.internal.operations;
 import static dev.galasa.ras.couchdb.internal.CouchdbRasStore.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.hc.core5.http.HttpStatus;
 
 import dev.galasa.extensions.common.couchdb.CouchdbException;
+import dev.galasa.extensions.common.couchdb.pojos.BulkDocsResult;
 import dev.galasa.extensions.common.couchdb.pojos.IdRev;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.ras.couchdb.internal.CouchdbRasException;
@@ -25,6 +33,13 @@ import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
 public class CouchdbDeleteRunService {
 
+    // The most documents that are read or deleted in one bulk request to CouchDB
+    private static final int MAX_DOCUMENTS_PER_BULK_REQUEST = 1000;
+
+    private static final String BULK_DOCS_NOT_FOUND_ERROR = "not_found";
+
+    private final Log logger = LogFactory.getLog(getClass());
+
     private final CouchdbRasStore store;
 
     public CouchdbDeleteRunService(CouchdbRasStore store) {
@@ -34,7 +49,7 @@ public class CouchdbDeleteRunService {
     public void discardRun(@NotNull TestStructureCouchdb runTestStructure) throws ResultArchiveStoreException {
         try {
             // Build a list of discard operation futures
-            List<CompletableFuture<Void>> futures = discardRecords(LOG_DB, runTestStructure.getLogRecordIds());
+            List<CompletableFuture<Void>> futures = discardRecords(LOG_DB, getLogRecordIds(runTestStructure));
             futures.addAll(discardRecords(ARTIFACTS_DB, runTestStructure.getArtifactRecordIds()));
 
             // Wait for all the discard operations to finish before deleting the run document
@@ -46,6 +61,134 @@ public class CouchdbDeleteRunService {
         }
     }
 
+    /**
+     * Discards a batch of runs using as few requests to CouchDB as possible. The log and artifact
+     * documents of all the runs are deleted in bulk first, and then the run documents of the runs
+     * whose log and artifact documents were all deleted are deleted in bulk. Runs that could not
+     * be fully deleted are left in place so they can be discarded again later.
+     *
+     * @param runTestStructures the runs to discard
+     * @return the number of runs that were discarded
+     * @throws ResultArchiveStoreException if CouchDB could not be accessed
+     */
+    public int discardRuns(@NotNull List<TestStructureCouchdb> runTestStructures) throws ResultArchiveStoreException {
+        int discardedCount = 0;
+        try {
+            List<String> logRecordIds = new ArrayList<>();
+            List<String> artifactRecordIds = new ArrayList<>();
+            Map<String, List<String>> runLogRecordIds = new HashMap<>();
+            for (TestStructureCouchdb runTestStructure : runTestStructures) {
+                List<String> ids = getLogRecordIds(runTestStructure);
+                runLogRecordIds.put(runTestStructure._id, ids);
+                logRecordIds.addAll(ids);
+                addAll(artifactRecordIds, runTestStructure.getArtifactRecordIds());
+            }
+
+            CompletableFuture<Set<String>> failedLogRecordIds = bulkDiscardRecords(LOG_DB, logRecordIds);
+            CompletableFuture<Set<String>> failedArtifactRecordIds = bulkDiscardRecords(ARTIFACTS_DB, artifactRecordIds);
+
+            Set<String> failedRecordIds = new HashSet<>(failedLogRecordIds.join());
+            failedRecordIds.addAll(failedArtifactRecordIds.join());
+
+            List<IdRev> runDocuments = new ArrayList<>();
+            for (TestStructureCouchdb runTestStructure : runTestStructures) {
+                if (isEveryRecordDiscarded(runTestStructure, runLogRecordIds.get(runTestStructure._id), failedRecordIds)) {
+                    runDocuments.add(createIdRev(runTestStructure._id, runTestStructure._rev));
+                } else {
+                    logger.error("Unable to discard all the log and artifact records of run " + runTestStructure._id);
+                }
+            }
+
+            for (List<IdRev> runDocumentsChunk : chunk(runDocuments)) {
+                for (BulkDocsResult result : store.deleteDocumentsFromDatabase(RUNS_DB, runDocumentsChunk)) {
+                    if (isDeleted(result)) {
+                        discardedCount++;
+                    } else {
+                        logger.error("Unable to discard run " + result.id + ". Reason: " + result.error + " " + result.reason);
+                    }
+                }
+            }
+        } catch (CompletionException e) {
+            throw new ResultArchiveStoreException("Failed to discard " + runTestStructures.size() + " runs", e.getCause());
+        } catch (CouchdbException e) {
+            throw new ResultArchiveStoreException("Failed to discard " + runTestStructures.size() + " runs", e);
+        }
+        return discardedCount;
+    }
+
+    /**
+     * @return the IDs of the records that could not be deleted
+     */
+    private CompletableFuture<Set<String>> bulkDiscardRecords(String databaseName, List<String> ids) {
+        return CompletableFuture.supplyAsync(() -> {
+            Set<String> failedIds = new HashSet<>();
+            try {
+                for (List<String> idsChunk : chunk(ids)) {
+                    // Records that aren't found have already been deleted
+                    List<IdRev> documents = new ArrayList<>();
+                    for (Map.Entry<String, String> revision : store.getDocumentRevisions(databaseName, idsChunk).entrySet()) {
+                        documents.add(createIdRev(revision.getKey(), revision.getValue()));
+                    }
+
+                    for (BulkDocsResult result : store.deleteDocumentsFromDatabase(databaseName, documents)) {
+                        if (!isDeleted(result)) {
+                            failedIds.add(result.id);
+                        }
+                    }
+                }
+            } catch (CouchdbException e) {
+                throw new CompletionException(e);
+            }
+            return failedIds;
+        });
+    }
+
+    /**
+     * The run document does not list the ordered log documents written since it was last updated,
+     * so they are found by their ids instead.
+     */
+    private List<String> getLogRecordIds(TestStructureCouchdb runTestStructure) throws ResultArchiveStoreException {
+        List<String> logRecordIds;
+        if (isOrderedLogDocumentIds(runTestStructure)) {
+            logRecordIds = store.getOrderedLogDocumentIds(runTestStructure._id);
+        } else {
+            logRecordIds = new ArrayList<>();
+            addAll(logRecordIds, runTestStructure.getLogRecordIds());
+        }
+        return logRecordIds;
+    }
+
+    private boolean isEveryRecordDiscarded(TestStructureCouchdb runTestStructure, List<String> logRecordIds, Set<String> failedRecordIds) {
+        List<String> recordIds = new ArrayList<>(logRecordIds);
+        addAll(recordIds, runTestStructure.getArtifactRecordIds());
+        return Collections.disjoint(recordIds, failedRecordIds);
+    }
+
+    private boolean isDeleted(BulkDocsResult result) {
+        return result.ok || BULK_DOCS_NOT_FOUND_ERROR.equals(result.error);
+    }
+
+    private IdRev createIdRev(String id, String revision) {
+        IdRev idRev = new IdRev();
+        idRev._id = id;
+        idRev._rev = revision;
+        return idRev;
+    }
+
+    private void addAll(List<String> allIds, List<String> ids) {
+        if (ids != null) {
+            allIds.addAll(ids);
+        }
+    }
+
+    private <T> List<List<T>> chunk(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += MAX_DOCUMENTS_PER_BULK_REQUEST) {
+            chunks.add(items.subList(start, Math.min(start + MAX_DOCUMENTS_PER_BULK_REQUEST, items.size())));
+        }
+        return chunks;
+    }
+
     private List<CompletableFuture<Void>> discardRecords(String databaseName, List<String> ids) throws ResultArchiveStoreException {
         List<CompletableFuture<Void>> futures = new ArrayList<>();
         for (String id : ids) {
@@ -0,0 +1,21 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal.pojos;
+
+import java.util.List;
+
+// The response to an _all_docs query on the log database
+public class LogLinesRows {
+
+    public List<Row> rows; // NOSONAR
+
+    public static class Row {
+        public String   id;    // NOSONAR
+        public String   key;   // NOSONAR
+        public String   error; // NOSONAR
+        public LogLines doc;   // NOSONAR
+    }
+}
@@ -9,7 +9,13 @@ import dev.galasa.framework.spi.teststructure.TestStructure;
 
 public class TestStructureCouchdb extends TestStructure {
 
+    public static final String ORDERED_LOG_DOCUMENT_IDS_FIELD = "orderedLogDocumentIds";
+
     public String _id;  // NOSONAR
     public String _rev; // NOSONAR
 
+    // True if the run's log documents have ordered ids, so they are found with range queries on their ids,
+    // as logRecordIds does not list the log documents written since the run document was last updated
+    public Boolean orderedLogDocumentIds; // NOSONAR
+
 }
@@ -8,6 +8,8 @@ package dev.galasa.ras.couchdb.internal;
 import static org.assertj.core.api.Assertions.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -24,6 +26,9 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import com.google.gson.JsonObject;
+
+import dev.galasa.framework.spi.ras.ResultArchiveStoreFileStore;
 import dev.galasa.framework.spi.utils.GalasaGson;
 import dev.galasa.ras.couchdb.internal.mocks.CouchdbTestFixtures;
 import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
@@ -104,6 +109,90 @@ public class CouchdbRasFileSystemProviderTest {
 
 
 
+    public static class GetArtifactInteraction extends BaseHttpInteraction {
+
+        private String encodedArtifactPath;
+        private String artifactContent;
+        private int statusCode;
+        public boolean isResponseClosed = false;
+
+        public GetArtifactInteraction(String rasUriStr, String artifactDocumentId, String encodedArtifactPath, int statusCode, String artifactContent) {
+            super(rasUriStr, artifactDocumentId, null);
+            this.encodedArtifactPath = encodedArtifactPath;
+            this.artifactContent = artifactContent;
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            assertThat(request.getMethod()).isEqualTo("GET");
+            assertThat(host.toURI() + request.getRequestUri()).isEqualTo(getRasUriStr() + "/galasa_artifacts/" + getDocumentId() + "/" + encodedArtifactPath);
+        }
+
+        @Override
+        public MockCloseableHttpResponse getResponse() {
+            MockCloseableHttpResponse response = new MockCloseableHttpResponse() {
+                @Override
+                public void close() throws IOException {
+                    isResponseClosed = true;
+                }
+            };
+            response.setCode(statusCode);
+            response.setEntity(new MockHttpEntity(artifactContent));
+            return response;
+        }
+    }
+
+    private CouchdbArtifactPath createStoredArtifactPath(CouchdbRasStore couchdbStore, String artifactDocumentId) {
+        CouchdbRasFileSystemProvider provider = new CouchdbRasFileSystemProvider(new ResultArchiveStoreFileStore(), couchdbStore, new MockLogFactory());
+        JsonObject artifactDetails = new JsonObject();
+        artifactDetails.addProperty("content_type", "text/plain");
+        artifactDetails.addProperty("length", CouchdbTestFixtures.ATTACHMENT_CONTENT1.length());
+        return new CouchdbArtifactPath(provider.getActualFileSystem(), "/term/screen1.txt", artifactDetails, artifactDocumentId);
+    }
+
+    @Test
+    public void testNewInputStreamReadsArtifactFromCouchDBWithoutTempFile() throws Exception {
+        // Given...
+        GetArtifactInteraction getArtifactInteraction = new GetArtifactInteraction(CouchdbTestFixtures.rasUriStr,
+            CouchdbTestFixtures.ARTIFACT_DOCUMENT_ID_1, "%2Fterm%2Fscreen1.txt", HttpStatus.SC_OK, CouchdbTestFixtures.ATTACHMENT_CONTENT1);
+        List<HttpInteraction> interactions = new ArrayList<HttpInteraction>();
+        interactions.add(getArtifactInteraction);
+
+        CouchdbRasStore couchdbStore = fixtures.createCouchdbRasStore(interactions, new MockLogFactory());
+        Path artifactPath = createStoredArtifactPath(couchdbStore, CouchdbTestFixtures.ARTIFACT_DOCUMENT_ID_1);
+
+        // When...
+        String content;
+        try (InputStream inStream = Files.newInputStream(artifactPath)) {
+            content = new String(inStream.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(getArtifactInteraction.isResponseClosed).isFalse();
+        }
+
+        // Then...
+        assertThat(content).isEqualTo(CouchdbTestFixtures.ATTACHMENT_CONTENT1);
+        assertThat(getArtifactInteraction.isResponseClosed).isTrue();
+    }
+
+    @Test
+    public void testNewInputStreamForMissingArtifactThrowsError() throws Exception {
+        // Given...
+        GetArtifactInteraction getArtifactInteraction = new GetArtifactInteraction(CouchdbTestFixtures.rasUriStr,
+            CouchdbTestFixtures.ARTIFACT_DOCUMENT_ID_1, "%2Fterm%2Fscreen1.txt", HttpStatus.SC_NOT_FOUND, "{\"error\":\"not_found\"}");
+        List<HttpInteraction> interactions = new ArrayList<HttpInteraction>();
+        interactions.add(getArtifactInteraction);
+
+        CouchdbRasStore couchdbStore = fixtures.createCouchdbRasStore(interactions, new MockLogFactory());
+        Path artifactPath = createStoredArtifactPath(couchdbStore, CouchdbTestFixtures.ARTIFACT_DOCUMENT_ID_1);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> Files.newInputStream(artifactPath));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(IOException.class).hasMessage("Unable to retrieve artifact");
+        assertThat(getArtifactInteraction.isResponseClosed).isTrue();
+    }
+
     @Test 
     public void testFileCloseCausesCouchDBArtifactToBeSaved() throws Exception {
 
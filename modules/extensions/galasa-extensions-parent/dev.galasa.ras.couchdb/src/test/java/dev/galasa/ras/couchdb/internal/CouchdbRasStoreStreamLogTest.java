@@ -8,32 +8,95 @@ package dev.galasa.ras.couchdb.internal;
 import static org.assertj.core.api.Assertions.*;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.junit.Test;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
 import dev.galasa.extensions.common.mocks.BaseHttpInteraction;
 import dev.galasa.extensions.common.mocks.HttpInteraction;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.ras.couchdb.internal.mocks.CouchdbTestFixtures;
 import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
 import dev.galasa.ras.couchdb.internal.pojos.LogLines;
+import dev.galasa.ras.couchdb.internal.pojos.LogLinesRows;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
 public class CouchdbRasStoreStreamLogTest {
 
     CouchdbTestFixtures fixtures = new CouchdbTestFixtures();
 
-    class GetLogDocumentInteraction extends BaseHttpInteraction {
+    class BulkGetLogDocumentsInteraction extends BaseHttpInteraction {
+
+        private List<String> expectedLogIds;
+
+        public BulkGetLogDocumentsInteraction(List<String> expectedLogIds, int statusCode, LogLines... logLines) {
+            super("http://my.uri/" + CouchdbRasStore.LOG_DB + "/_all_docs?include_docs=true", statusCode);
+            this.expectedLogIds = expectedLogIds;
+
+            LogLinesRows logLinesRows = new LogLinesRows();
+            logLinesRows.rows = new ArrayList<>();
+            for (int i = 0; i < expectedLogIds.size(); i++) {
+                LogLinesRows.Row row = new LogLinesRows.Row();
+                row.key = expectedLogIds.get(i);
+                if (i < logLines.length && logLines[i] != null) {
+                    row.id = expectedLogIds.get(i);
+                    row.doc = logLines[i];
+                } else {
+                    row.error = "not_found";
+                }
+                logLinesRows.rows.add(row);
+            }
+            setResponsePayload(logLinesRows);
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            super.validateRequest(host, request);
+            assertThat(request.getMethod()).isEqualTo("POST");
+            try {
+                String requestBody = EntityUtils.toString(((HttpPost) request).getEntity());
+                JsonObject keys = JsonParser.parseString(requestBody).getAsJsonObject();
+                List<String> requestedLogIds = new ArrayList<>();
+                keys.getAsJsonArray("keys").forEach(key -> requestedLogIds.add(key.getAsString()));
+                assertThat(requestedLogIds).containsExactlyElementsOf(expectedLogIds);
+            } catch (IOException | ParseException ex) {
+                fail("Failed to parse POST request body");
+            }
+        }
+    }
+
+    class GetOrderedLogDocumentsInteraction extends BaseHttpInteraction {
+
+        public GetOrderedLogDocumentsInteraction(String runDocumentId, LogLines... logLines) {
+            this("%22" + runDocumentId + "-log-%22", runDocumentId, false, logLines);
+        }
 
-        public GetLogDocumentInteraction(String expectedUri, int statusCode, LogLines logLines) {
-            super(expectedUri, statusCode);
-            setResponsePayload(logLines);
+        public GetOrderedLogDocumentsInteraction(String encodedStartKey, String runDocumentId, boolean isDescending, LogLines... logLines) {
+            super("http://my.uri/" + CouchdbRasStore.LOG_DB + "/_all_docs?startkey=" + encodedStartKey
+                + "&endkey=%22" + runDocumentId + (isDescending ? "-log-%22&descending=true" : "-log-%EF%BF%B0%22")
+                + "&include_docs=true&limit=51", HttpStatus.SC_OK);
+
+            LogLinesRows logLinesRows = new LogLinesRows();
+            logLinesRows.rows = new ArrayList<>();
+            for (LogLines logLinesDoc : logLines) {
+                LogLinesRows.Row row = new LogLinesRows.Row();
+                row.id = CouchdbRasStore.getLogDocumentId(runDocumentId, logLinesDoc.order);
+                row.doc = logLinesDoc;
+                logLinesRows.rows.add(row);
+            }
+            setResponsePayload(logLinesRows);
         }
 
         @Override
@@ -52,6 +115,12 @@ public class CouchdbRasStoreStreamLogTest {
         return testStructure;
     }
 
+    private TestStructureCouchdb createTestStructureWithOrderedLogIds(List<String> logIds) {
+        TestStructureCouchdb testStructure = createTestStructureWithLogIds(logIds);
+        testStructure.orderedLogDocumentIds = true;
+        return testStructure;
+    }
+
     private LogLines createLogLines(String runId, String runName, long order, String... lines) {
         LogLines logLines = new LogLines();
         logLines.runId = runId;
@@ -95,10 +164,9 @@ public class CouchdbRasStoreStreamLogTest {
             "Line 3 of log"
         );
 
-        String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId1, HttpStatus.SC_OK, logLines1)
+            new BulkGetLogDocumentsInteraction(List.of(logId1), HttpStatus.SC_OK, logLines1)
         );
 
         CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
@@ -125,12 +193,9 @@ public class CouchdbRasStoreStreamLogTest {
         LogLines logLines2 = createLogLines("test-run-id", "TestRun", 2, "Second document line 1");
         LogLines logLines3 = createLogLines("test-run-id", "TestRun", 3, "Third document line 1", "Third document line 2", "Third document line 3");
 
-        String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId1, HttpStatus.SC_OK, logLines1),
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId2, HttpStatus.SC_OK, logLines2),
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId3, HttpStatus.SC_OK, logLines3)
+            new BulkGetLogDocumentsInteraction(List.of(logId1, logId2, logId3), HttpStatus.SC_OK, logLines1, logLines2, logLines3)
         );
 
         CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
@@ -165,11 +230,9 @@ public class CouchdbRasStoreStreamLogTest {
         logLines2.order = 2;
         logLines2.lines = null; // Null lines
 
-        String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId1, HttpStatus.SC_OK, logLines1),
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId2, HttpStatus.SC_OK, logLines2)
+            new BulkGetLogDocumentsInteraction(List.of(logId1, logId2), HttpStatus.SC_OK, logLines1, logLines2)
         );
 
         CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
@@ -198,11 +261,9 @@ public class CouchdbRasStoreStreamLogTest {
         logLines2.order = 2;
         logLines2.lines = new ArrayList<>();
 
-        String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId1, HttpStatus.SC_OK, logLines1),
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId2, HttpStatus.SC_OK, logLines2)
+            new BulkGetLogDocumentsInteraction(List.of(logId1, logId2), HttpStatus.SC_OK, logLines1, logLines2)
         );
 
         CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
@@ -223,10 +284,9 @@ public class CouchdbRasStoreStreamLogTest {
         List<String> logIds = List.of(logId1);
         TestStructureCouchdb testStructure = createTestStructureWithLogIds(logIds);
 
-        String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId1, HttpStatus.SC_INTERNAL_SERVER_ERROR, null)
+            new BulkGetLogDocumentsInteraction(List.of(logId1), HttpStatus.SC_INTERNAL_SERVER_ERROR)
         );
 
         CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
@@ -257,10 +317,9 @@ public class CouchdbRasStoreStreamLogTest {
             "Line with brackets: [square] {curly} <angle>"
         );
 
-        String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
-            new GetLogDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId1, HttpStatus.SC_OK, logLines1)
+            new BulkGetLogDocumentsInteraction(List.of(logId1), HttpStatus.SC_OK, logLines1)
         );
 
         CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
@@ -275,4 +334,245 @@ public class CouchdbRasStoreStreamLogTest {
         assertThat(result).contains("\"double\" and 'single'");
         assertThat(result).contains("[square] {curly} <angle>");
     }
+
+    @Test
+    public void testStreamLogWithOrderedLogDocumentIdsUsesASingleRangeQuery() throws Exception {
+        // Given...
+        // The run document only knows about the first log document, the second was written after it was last updated
+        List<String> logIds = List.of("test-run-id-log-0000000001");
+        TestStructureCouchdb testStructure = createTestStructureWithOrderedLogIds(logIds);
+
+        LogLines logLines1 = createLogLines("test-run-id", "TestRun", 1, "First document line 1", "First document line 2");
+        LogLines logLines2 = createLogLines("test-run-id", "TestRun", 2, "Second document line 1");
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new GetOrderedLogDocumentsInteraction("test-run-id", logLines1, logLines2)
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLog(testStructure, outputStream);
+
+        // Then...
+        String result = outputStream.toString(StandardCharsets.UTF_8);
+        assertThat(result).isEqualTo("First document line 1\nFirst document line 2\nSecond document line 1");
+    }
+
+    @Test
+    public void testStreamLogFetchesLogDocumentsOnTheLogPageThreads() throws Exception {
+        // Given...
+        List<String> logIds = List.of("test-run-id-log-0000000001");
+        TestStructureCouchdb testStructure = createTestStructureWithOrderedLogIds(logIds);
+
+        LogLines logLines1 = createLogLines("test-run-id", "TestRun", 1, "First document line 1");
+
+        List<String> requestThreadNames = new ArrayList<>();
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new GetOrderedLogDocumentsInteraction("test-run-id", logLines1) {
+                @Override
+                public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+                    super.validateRequest(host, request);
+                    requestThreadNames.add(Thread.currentThread().getName());
+                }
+            }
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLog(testStructure, outputStream);
+
+        // Then...
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("First document line 1");
+        assertThat(requestThreadNames).singleElement().asString().startsWith("galasa-couchdb-ras-log-");
+    }
+
+    @Test
+    public void testGetLogWithOrderedLogDocumentIdsUsesASingleRangeQuery() throws Exception {
+        // Given...
+        List<String> logIds = List.of("test-run-id-log-0000000001", "test-run-id-log-0000000002");
+        TestStructureCouchdb testStructure = createTestStructureWithOrderedLogIds(logIds);
+
+        LogLines logLines1 = createLogLines("test-run-id", "TestRun", 1, "Line 1");
+        LogLines logLines2 = createLogLines("test-run-id", "TestRun", 2, "Line 2", "Line 3");
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new GetOrderedLogDocumentsInteraction("test-run-id", logLines1, logLines2)
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+
+        // When...
+        String log = rasStore.getLog(testStructure);
+
+        // Then...
+        assertThat(log).isEqualTo("Line 1\nLine 2\nLine 3");
+    }
+
+    @Test
+    public void testStreamLogOfARunningRunWithOrderedLogDocumentIdsFindsTheLogDocumentsByTheirIds() throws Exception {
+        // Given...
+        // The run document has not listed any log documents yet, as the run is still going
+        TestStructureCouchdb testStructure = createTestStructureWithOrderedLogIds(new ArrayList<>());
+
+        LogLines logLines1 = createLogLines("test-run-id", "TestRun", 1, "Line 1");
+        LogLines logLines2 = createLogLines("test-run-id", "TestRun", 2, "Line 2");
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new GetOrderedLogDocumentsInteraction("test-run-id", logLines1, logLines2)
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLog(testStructure, outputStream);
+
+        // Then...
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("Line 1\nLine 2");
+    }
+
+    @Test
+    public void testStreamLogFetchesLogDocumentsInPagesOfBulkRequests() throws Exception {
+        // Given...
+        List<String> logIds = new ArrayList<>();
+        List<LogLines> logLinesDocs = new ArrayList<>();
+        for (int order = 1; order <= 60; order++) {
+            logIds.add("log-doc-" + order);
+            logLinesDocs.add(createLogLines("test-run-id", "TestRun", order, "Line " + order));
+        }
+        TestStructureCouchdb testStructure = createTestStructureWithLogIds(logIds);
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new BulkGetLogDocumentsInteraction(logIds.subList(0, 50), HttpStatus.SC_OK, logLinesDocs.subList(0, 50).toArray(new LogLines[0])),
+            new BulkGetLogDocumentsInteraction(logIds.subList(50, 60), HttpStatus.SC_OK, logLinesDocs.subList(50, 60).toArray(new LogLines[0]))
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLog(testStructure, outputStream);
+
+        // Then...
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(60);
+        assertThat(lines[0]).isEqualTo("Line 1");
+        assertThat(lines[49]).isEqualTo("Line 50");
+        assertThat(lines[59]).isEqualTo("Line 60");
+    }
+
+    @Test
+    public void testStreamLogSkipsLogDocumentsThatAreNotFound() throws Exception {
+        // Given...
+        List<String> logIds = List.of("log-doc-1", "log-doc-2", "log-doc-3");
+        TestStructureCouchdb testStructure = createTestStructureWithLogIds(logIds);
+
+        LogLines logLines1 = createLogLines("test-run-id", "TestRun", 1, "Line 1");
+        LogLines logLines3 = createLogLines("test-run-id", "TestRun", 3, "Line 3");
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new BulkGetLogDocumentsInteraction(logIds, HttpStatus.SC_OK, logLines1, null, logLines3)
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLog(testStructure, outputStream);
+
+        // Then...
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("Line 1\nLine 3");
+    }
+
+    @Test
+    public void testStreamLogWithOrderedLogDocumentIdsPagesThroughTheRange() throws Exception {
+        // Given...
+        List<String> logIds = List.of("test-run-id-log-0000000001");
+        TestStructureCouchdb testStructure = createTestStructureWithOrderedLogIds(logIds);
+
+        // The first page holds one more document than the page size, which starts the second page
+        List<LogLines> firstPageDocs = new ArrayList<>();
+        for (int order = 1; order <= 51; order++) {
+            firstPageDocs.add(createLogLines("test-run-id", "TestRun", order, "Line " + order));
+        }
+        LogLines logLines52 = createLogLines("test-run-id", "TestRun", 52, "Line 52");
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new GetOrderedLogDocumentsInteraction("test-run-id", firstPageDocs.toArray(new LogLines[0])),
+            new GetOrderedLogDocumentsInteraction("%22test-run-id-log-0000000051%22", "test-run-id", false, firstPageDocs.get(50), logLines52)
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLog(testStructure, outputStream);
+
+        // Then...
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(52);
+        assertThat(lines[50]).isEqualTo("Line 51");
+        assertThat(lines[51]).isEqualTo("Line 52");
+    }
+
+    @Test
+    public void testStreamLogTailWithOrderedLogDocumentIdsReadsFromTheEndOfTheLog() throws Exception {
+        // Given...
+        List<String> logIds = List.of("test-run-id-log-0000000001");
+        TestStructureCouchdb testStructure = createTestStructureWithOrderedLogIds(logIds);
+
+        LogLines logLines2 = createLogLines("test-run-id", "TestRun", 2, "Line 3", "Line 4");
+        LogLines logLines3 = createLogLines("test-run-id", "TestRun", 3, "Line 5");
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new GetOrderedLogDocumentsInteraction("%22test-run-id-log-%EF%BF%B0%22", "test-run-id", true, logLines3, logLines2)
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLogTail(testStructure, outputStream, 2);
+
+        // Then...
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("Line 4\nLine 5");
+    }
+
+    @Test
+    public void testStreamLogTailOnlyFetchesTheLastLogDocuments() throws Exception {
+        // Given...
+        List<String> logIds = new ArrayList<>();
+        List<LogLines> logLinesDocs = new ArrayList<>();
+        for (int order = 1; order <= 60; order++) {
+            logIds.add("log-doc-" + order);
+            logLinesDocs.add(createLogLines("test-run-id", "TestRun", order, "Line " + order));
+        }
+        TestStructureCouchdb testStructure = createTestStructureWithLogIds(logIds);
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new BulkGetLogDocumentsInteraction(logIds.subList(10, 60), HttpStatus.SC_OK, logLinesDocs.subList(10, 60).toArray(new LogLines[0]))
+        );
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When...
+        rasStore.streamLogTail(testStructure, outputStream, 3);
+
+        // Then...
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("Line 58\nLine 59\nLine 60");
+    }
 }
@@ -328,6 +328,97 @@ public class CouchdbRasStoreTest {
         assertThat(rasStore.retrieveRunLogLineCount()).isEqualTo(desiredRunLogLineCount);
     }
 
+    @Test
+    public void testWriteLogWithOrderedLogDocumentIdsDoesNotUpdateRunDocument() throws Exception {
+        // Given...
+        List<String> runLogLines = new ArrayList<String>();
+        for (int i = 1; i <= 101; i++) {
+            runLogLines.add("This is run log line number " + i);
+        }
+
+        String docId = "run1";
+        String revision = "my-revision";
+        String logDocId = "run1-log-0000000001";
+
+        PutPostResponse mockPutResponse = new PutPostResponse();
+        mockPutResponse.id = docId;
+        mockPutResponse.rev = revision;
+        mockPutResponse.ok = true;
+
+        PutPostResponse mockLogPutResponse = new PutPostResponse();
+        mockLogPutResponse.id = logDocId;
+        mockLogPutResponse.rev = revision;
+        mockLogPutResponse.ok = true;
+
+        String baseUri = "http://my.uri";
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            // Create the run document, which tells readers the log document ids are ordered
+            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB, HttpStatus.SC_CREATED, mockPutResponse,
+                "\"orderedLogDocumentIds\": true"),
+            // Create the artifacts document
+            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.ARTIFACTS_DB, HttpStatus.SC_CREATED, mockPutResponse),
+            // Create the run log document with an id made from the run document id and its order,
+            // the run document is not updated afterwards
+            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logDocId, HttpStatus.SC_CREATED, mockLogPutResponse,
+                "\"order\": 1")
+        );
+
+        Map<String,String> inputProps = new HashMap<String,String>();
+        inputProps.put("log.ordered.document.ids", "true");
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(inputProps, interactions, mockLogFactory);
+
+        // When...
+        rasStore.writeLog(runLogLines);
+
+        // Then...
+        assertThat(rasStore.retrieveRunLogLineCount()).isEqualTo(101);
+    }
+
+    @Test
+    public void testShutdownWithOrderedLogDocumentIdsUpdatesRunDocumentWithTheLogDocumentIds() throws Exception {
+        // Given...
+        String docId = "run1";
+        String revision = "my-revision";
+        String logDocId = "run1-log-0000000001";
+
+        PutPostResponse mockPutResponse = new PutPostResponse();
+        mockPutResponse.id = docId;
+        mockPutResponse.rev = revision;
+        mockPutResponse.ok = true;
+
+        PutPostResponse mockLogPutResponse = new PutPostResponse();
+        mockLogPutResponse.id = logDocId;
+        mockLogPutResponse.rev = revision;
+        mockLogPutResponse.ok = true;
+
+        String baseUri = "http://my.uri";
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        List<HttpInteraction> interactions = List.of(
+            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB, HttpStatus.SC_CREATED, mockPutResponse),
+            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.ARTIFACTS_DB, HttpStatus.SC_CREATED, mockPutResponse),
+            // The log cache is flushed on shutdown...
+            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logDocId, HttpStatus.SC_CREATED, mockLogPutResponse),
+            // ...and then the run document is updated to list the log document
+            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB + "/" + docId, HttpStatus.SC_CREATED, mockPutResponse,
+                logDocId)
+        );
+
+        Map<String,String> inputProps = new HashMap<String,String>();
+        inputProps.put("log.ordered.document.ids", "true");
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(inputProps, interactions, mockLogFactory);
+        rasStore.writeLog("a single line");
+
+        // When...
+        rasStore.shutdown();
+
+        // Then...
+        // None of the interaction assertions should have failed.
+        assertThat(rasStore.retrieveRunLogLineCount()).isEqualTo(1);
+    }
+
     @Test
     public void testCreateTestStructureWritesNewDocumentWithGivenID() throws Exception {
         // Given...
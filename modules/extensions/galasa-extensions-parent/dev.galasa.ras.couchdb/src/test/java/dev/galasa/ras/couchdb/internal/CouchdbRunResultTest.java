@@ -55,12 +55,11 @@ public class CouchdbRunResultTest {
             "Line 2 from CouchdbRunResult"
         );
 
-        String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
-            new CouchdbRasStoreStreamLogTest().new GetLogDocumentInteraction(
-                baseUri + "/" + CouchdbRasStore.LOG_DB + "/" + logId1, 
-                HttpStatus.SC_OK, 
+            new CouchdbRasStoreStreamLogTest().new BulkGetLogDocumentsInteraction(
+                logIds,
+                HttpStatus.SC_OK,
                 logLines1
             )
         );
@@ -7,14 +7,23 @@ package dev.galasa.ras.couchdb.internal.operations;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.hc.core5.http.HttpEntityContainer;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.junit.Test;
 
+import dev.galasa.extensions.common.couchdb.pojos.BulkDocsResult;
 import dev.galasa.extensions.common.couchdb.pojos.IdRev;
+import dev.galasa.extensions.common.couchdb.pojos.ViewResponse;
+import dev.galasa.extensions.common.couchdb.pojos.ViewRow;
 import dev.galasa.extensions.common.mocks.BaseHttpInteraction;
 import dev.galasa.extensions.common.mocks.HttpInteraction;
 import dev.galasa.extensions.common.mocks.MockAsyncCloseableHttpClient;
@@ -23,6 +32,7 @@ import dev.galasa.ras.couchdb.internal.BaseCouchdbOperationTest;
 import dev.galasa.ras.couchdb.internal.CouchdbRasStore;
 import dev.galasa.ras.couchdb.internal.mocks.CouchdbTestFixtures;
 import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
+import dev.galasa.ras.couchdb.internal.pojos.LogLinesRows;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
 public class CouchdbDeleteRunServiceTest extends BaseCouchdbOperationTest {
@@ -56,6 +66,246 @@ public class CouchdbDeleteRunServiceTest extends BaseCouchdbOperationTest {
         }
     }
 
+    class PostToCouchdbInteraction extends BaseHttpInteraction {
+
+        private String requestBody;
+
+        public PostToCouchdbInteraction(String expectedUri, int statusCode, Object responsePayload) {
+            super(expectedUri, responsePayload, statusCode);
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            super.validateRequest(host,request);
+            assertThat(request.getMethod()).isEqualTo("POST");
+            try {
+                requestBody = EntityUtils.toString(((HttpEntityContainer) request).getEntity());
+            } catch (IOException | ParseException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        public String getRequestBody() {
+            return requestBody;
+        }
+    }
+
+    class GetOrderedLogDocumentIdsInteraction extends BaseHttpInteraction {
+
+        public GetOrderedLogDocumentIdsInteraction(String runDocumentId, String... logDocumentIds) {
+            super("http://my.uri/" + CouchdbRasStore.LOG_DB + "/_all_docs?startkey=%22" + runDocumentId + "-log-%22"
+                + "&endkey=%22" + runDocumentId + "-log-%EF%BF%B0%22&limit=1001", HttpStatus.SC_OK);
+
+            LogLinesRows logLinesRows = new LogLinesRows();
+            logLinesRows.rows = new ArrayList<>();
+            for (String logDocumentId : logDocumentIds) {
+                LogLinesRows.Row row = new LogLinesRows.Row();
+                row.id = logDocumentId;
+                row.key = logDocumentId;
+                logLinesRows.rows.add(row);
+            }
+            setResponsePayload(logLinesRows);
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            super.validateRequest(host,request);
+            assertThat(request.getMethod()).isEqualTo("GET");
+        }
+    }
+
+    private ViewResponse createAllDocsResponse(String... ids) {
+        ViewResponse response = new ViewResponse();
+        response.rows = new ArrayList<>();
+        for (String id : ids) {
+            ViewRow row = new ViewRow();
+            row.id = id;
+            row.key = id;
+            row.value = Map.of("rev", "rev-" + id);
+            response.rows.add(row);
+        }
+        return response;
+    }
+
+    private BulkDocsResult createBulkDocsResult(String id, String error) {
+        BulkDocsResult result = new BulkDocsResult();
+        result.id = id;
+        result.ok = (error == null);
+        result.error = error;
+        return result;
+    }
+
+    @Test
+    public void testDiscardRunsDeletesAllRunsInBulkOk() throws Exception {
+        // Given...
+        TestStructureCouchdb mockRun1 = createRunTestStructure("run1-id", "run1", "none");
+        mockRun1.setLogRecordIds(List.of("log1"));
+        mockRun1.setArtifactRecordIds(List.of("artifact1"));
+
+        TestStructureCouchdb mockRun2 = createRunTestStructure("run2-id", "run2", "none");
+        mockRun2.setLogRecordIds(List.of("log2"));
+        mockRun2.setArtifactRecordIds(List.of("artifact2"));
+
+        String baseUri = "http://my.uri";
+        String runsDbUri = baseUri + "/" + CouchdbRasStore.RUNS_DB;
+        String artifactsDbUri = baseUri + "/" + CouchdbRasStore.ARTIFACTS_DB;
+        String logsDbUri = baseUri + "/" + CouchdbRasStore.LOG_DB;
+
+        PostToCouchdbInteraction deleteLogsInteraction = new PostToCouchdbInteraction(logsDbUri + "/_bulk_docs", HttpStatus.SC_CREATED,
+            List.of(createBulkDocsResult("log1", null), createBulkDocsResult("log2", null)));
+        PostToCouchdbInteraction deleteRunsInteraction = new PostToCouchdbInteraction(runsDbUri + "/_bulk_docs", HttpStatus.SC_CREATED,
+            List.of(createBulkDocsResult("run1-id", null), createBulkDocsResult("run2-id", null)));
+
+        List<HttpInteraction> interactions = List.of(
+            // Get the revisions of all the runs' log and artifact records, and delete them in one request for each database
+            new PostToCouchdbInteraction(logsDbUri + "/_all_docs", HttpStatus.SC_OK, createAllDocsResponse("log1", "log2")),
+            deleteLogsInteraction,
+            new PostToCouchdbInteraction(artifactsDbUri + "/_all_docs", HttpStatus.SC_OK, createAllDocsResponse("artifact1", "artifact2")),
+            new PostToCouchdbInteraction(artifactsDbUri + "/_bulk_docs", HttpStatus.SC_CREATED,
+                List.of(createBulkDocsResult("artifact1", null), createBulkDocsResult("artifact2", null))),
+
+            // Delete the records of the runs
+            deleteRunsInteraction
+        );
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        MockAsyncCloseableHttpClient httpClient = new MockAsyncCloseableHttpClient(interactions);
+        CouchdbRasStore mockRasStore = fixtures.createCouchdbRasStore(mockLogFactory, httpClient);
+        CouchdbDeleteRunService deleteRunOperation = new CouchdbDeleteRunService(mockRasStore);
+
+        // When...
+        int discardedCount = deleteRunOperation.discardRuns(List.of(mockRun1, mockRun2));
+
+        // Then...
+        assertThat(discardedCount).isEqualTo(2);
+        assertThat(deleteLogsInteraction.getRequestBody()).contains(
+            "\"_id\": \"log1\"", "\"_rev\": \"rev-log1\"", "\"_id\": \"log2\"", "\"_deleted\": true");
+        assertThat(deleteRunsInteraction.getRequestBody()).contains(
+            "\"_id\": \"run1-id\"", "\"_id\": \"run2-id\"", "\"_rev\": \"this-is-a-revision\"", "\"_deleted\": true");
+    }
+
+    @Test
+    public void testDiscardRunsWithFailedArtifactDeletionOnlyDeletesOtherRunsOk() throws Exception {
+        // Given...
+        TestStructureCouchdb mockRun1 = createRunTestStructure("run1-id", "run1", "none");
+        mockRun1.setArtifactRecordIds(List.of("artifact1"));
+
+        TestStructureCouchdb mockRun2 = createRunTestStructure("run2-id", "run2", "none");
+        mockRun2.setArtifactRecordIds(List.of("artifact2"));
+
+        String baseUri = "http://my.uri";
+        String runsDbUri = baseUri + "/" + CouchdbRasStore.RUNS_DB;
+        String artifactsDbUri = baseUri + "/" + CouchdbRasStore.ARTIFACTS_DB;
+
+        PostToCouchdbInteraction deleteRunsInteraction = new PostToCouchdbInteraction(runsDbUri + "/_bulk_docs", HttpStatus.SC_CREATED,
+            List.of(createBulkDocsResult("run1-id", null)));
+
+        List<HttpInteraction> interactions = List.of(
+            new PostToCouchdbInteraction(artifactsDbUri + "/_all_docs", HttpStatus.SC_OK, createAllDocsResponse("artifact1", "artifact2")),
+            new PostToCouchdbInteraction(artifactsDbUri + "/_bulk_docs", HttpStatus.SC_CREATED,
+                List.of(createBulkDocsResult("artifact1", null), createBulkDocsResult("artifact2", "conflict"))),
+
+            // The second run's document should not be deleted, as one of its artifacts was not deleted
+            deleteRunsInteraction
+        );
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        MockAsyncCloseableHttpClient httpClient = new MockAsyncCloseableHttpClient(interactions);
+        CouchdbRasStore mockRasStore = fixtures.createCouchdbRasStore(mockLogFactory, httpClient);
+        CouchdbDeleteRunService deleteRunOperation = new CouchdbDeleteRunService(mockRasStore);
+
+        // When...
+        int discardedCount = deleteRunOperation.discardRuns(List.of(mockRun1, mockRun2));
+
+        // Then...
+        assertThat(discardedCount).isEqualTo(1);
+        assertThat(deleteRunsInteraction.getRequestBody()).contains("\"_id\": \"run1-id\"");
+        assertThat(deleteRunsInteraction.getRequestBody()).doesNotContain("run2-id");
+    }
+
+    @Test
+    public void testDiscardRunsWithOrderedLogDocumentIdsDeletesEveryLogDocumentInTheRange() throws Exception {
+        // Given...
+        // The run document only lists the first log document, the second was written after it was last updated
+        TestStructureCouchdb mockRun1 = createRunTestStructure("run1-id", "run1", "none");
+        mockRun1.orderedLogDocumentIds = true;
+        mockRun1.setLogRecordIds(List.of("run1-id-log-0000000001"));
+
+        String baseUri = "http://my.uri";
+        String runsDbUri = baseUri + "/" + CouchdbRasStore.RUNS_DB;
+        String logsDbUri = baseUri + "/" + CouchdbRasStore.LOG_DB;
+
+        PostToCouchdbInteraction deleteLogsInteraction = new PostToCouchdbInteraction(logsDbUri + "/_bulk_docs", HttpStatus.SC_CREATED,
+            List.of(createBulkDocsResult("run1-id-log-0000000001", null), createBulkDocsResult("run1-id-log-0000000002", null)));
+
+        List<HttpInteraction> interactions = List.of(
+            // Find the run's log documents by their ids
+            new GetOrderedLogDocumentIdsInteraction("run1-id", "run1-id-log-0000000001", "run1-id-log-0000000002"),
+            new PostToCouchdbInteraction(logsDbUri + "/_all_docs", HttpStatus.SC_OK,
+                createAllDocsResponse("run1-id-log-0000000001", "run1-id-log-0000000002")),
+            deleteLogsInteraction,
+
+            // Delete the record of the run
+            new PostToCouchdbInteraction(runsDbUri + "/_bulk_docs", HttpStatus.SC_CREATED, List.of(createBulkDocsResult("run1-id", null)))
+        );
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        MockAsyncCloseableHttpClient httpClient = new MockAsyncCloseableHttpClient(interactions);
+        CouchdbRasStore mockRasStore = fixtures.createCouchdbRasStore(mockLogFactory, httpClient);
+        CouchdbDeleteRunService deleteRunOperation = new CouchdbDeleteRunService(mockRasStore);
+
+        // When...
+        int discardedCount = deleteRunOperation.discardRuns(List.of(mockRun1));
+
+        // Then...
+        assertThat(discardedCount).isEqualTo(1);
+        assertThat(deleteLogsInteraction.getRequestBody()).contains(
+            "\"_id\": \"run1-id-log-0000000001\"", "\"_id\": \"run1-id-log-0000000002\"");
+    }
+
+    @Test
+    public void testDiscardRunWithOrderedLogDocumentIdsDeletesEveryLogDocumentInTheRange() throws Exception {
+        // Given...
+        // The run is still going, so the run document does not list any log documents yet
+        String runId = "ABC123";
+        TestStructureCouchdb mockRun1 = createRunTestStructure(runId, "run1", "none");
+        mockRun1.orderedLogDocumentIds = true;
+
+        IdRev mockIdRev = new IdRev();
+        String revision = "this-is-a-revision";
+        mockIdRev._id = "this-is-an-id";
+        mockIdRev._rev = revision;
+
+        String logId1 = runId + "-log-0000000001";
+        String logId2 = runId + "-log-0000000002";
+
+        String baseUri = "http://my.uri";
+        String runDbUri = baseUri + "/" + CouchdbRasStore.RUNS_DB + "/" + runId;
+        String logsDbUri = baseUri + "/" + CouchdbRasStore.LOG_DB;
+        List<HttpInteraction> interactions = List.of(
+            // Find the run's log documents by their ids, and discard them
+            new GetOrderedLogDocumentIdsInteraction(runId, logId1, logId2),
+            new GetDocumentByIdFromCouchdbInteraction(logsDbUri + "/" + logId1, HttpStatus.SC_OK, mockIdRev),
+            new DeleteDocumentFromCouchdbInteraction(logsDbUri + "/" + logId1 + "?rev=" + revision, HttpStatus.SC_OK),
+            new GetDocumentByIdFromCouchdbInteraction(logsDbUri + "/" + logId2, HttpStatus.SC_OK, mockIdRev),
+            new DeleteDocumentFromCouchdbInteraction(logsDbUri + "/" + logId2 + "?rev=" + revision, HttpStatus.SC_OK),
+
+            // Delete the record of the run
+            new DeleteDocumentFromCouchdbInteraction(runDbUri + "?rev=" + mockRun1._rev, HttpStatus.SC_OK)
+        );
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        MockAsyncCloseableHttpClient httpClient = new MockAsyncCloseableHttpClient(interactions);
+        CouchdbRasStore mockRasStore = fixtures.createCouchdbRasStore(mockLogFactory, httpClient);
+        CouchdbDeleteRunService deleteRunOperation = new CouchdbDeleteRunService(mockRasStore);
+
+        // When...
+        deleteRunOperation.discardRun(mockRun1);
+
+        // Then...
+        // The assertions in the interactions should not have failed
+    }
+
     @Test
     public void testDiscardRunDeletesRunOk() throws Exception {
         // Given...
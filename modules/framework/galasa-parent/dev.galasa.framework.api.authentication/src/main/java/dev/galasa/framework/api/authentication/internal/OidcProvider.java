@@ -18,15 +18,30 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Base64.Decoder;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
@@ -36,6 +51,7 @@ import org.apache.commons.logging.LogFactory;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.JWTVerifier.BaseVerification;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
@@ -65,8 +81,52 @@ public class OidcProvider implements IOidcProvider {
     private static final String BEARER_TOKEN_SCOPE = "openid offline_access profile";
     private static final int JWK_REFRESH_INTERVAL_MINUTES = 10;
 
-    private JsonArray jsonWebKeys;
-    private Instant nextJwkRefresh = Instant.EPOCH;
+    // The most JWTs that are remembered as having been verified, so a client that keeps
+    // sending the same JWT doesn't have its signature checked on every request
+    private static final int MAX_VERIFIED_JWTS = 1000;
+
+    // Refreshes the JSON Web Keys in the background once they are out of date, so requests
+    // can carry on verifying JWTs with the keys we already have until the new ones arrive
+    private static final Executor DEFAULT_JWK_REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "galasa-jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The JSON Web Keys retrieved from the issuer, along with the public keys built from them.
+     * The keys in a snapshot never change once it has been created, so it can be read by any number of
+     * requests at once, and is replaced as a whole when the keys are refreshed.
+     */
+    private static class JsonWebKeySnapshot {
+        private final Map<String, JsonWebKey> keysById;
+        private final Map<String, RSAPublicKey> publicKeysById = new ConcurrentHashMap<>();
+        private final Instant nextRefresh;
+
+        private JsonWebKeySnapshot(Map<String, JsonWebKey> keysById, Instant nextRefresh) {
+            this.keysById = keysById;
+            this.nextRefresh = nextRefresh;
+        }
+    }
+
+    private final AtomicReference<JsonWebKeySnapshot> jsonWebKeys = new AtomicReference<>();
+    private final AtomicBoolean isJwkRefreshInProgress = new AtomicBoolean(false);
+    private final Object jwkRefreshLock = new Object();
+    private final Executor jwkRefreshExecutor;
+
+    // The SHA-256 hashes of JWTs that have been verified, mapped to the JWT's key ID and expiry time
+    private final Map<String, VerifiedJwt> verifiedJwts = new ConcurrentHashMap<>();
+
+    private static class VerifiedJwt {
+        private final String keyId;
+        private final Instant expiresAt;
+
+        private VerifiedJwt(String keyId, Instant expiresAt) {
+            this.keyId = keyId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
     private ITimeService timeService;
 
     private URI issuerUrl;
@@ -77,6 +137,11 @@ public class OidcProvider implements IOidcProvider {
     private HttpClient httpClient = HttpClient.newHttpClient();
 
     public OidcProvider(String issuerUrl, HttpClient httpClient, ITimeService timeService) throws ServletException {
+        this(issuerUrl, httpClient, timeService, DEFAULT_JWK_REFRESH_EXECUTOR);
+    }
+
+    public OidcProvider(String issuerUrl, HttpClient httpClient, ITimeService timeService, Executor jwkRefreshExecutor) throws ServletException {
+        this.jwkRefreshExecutor = jwkRefreshExecutor;
         try {
             this.issuerUrl = new URI(issuerUrl);
             this.httpClient = httpClient;
@@ -233,23 +298,14 @@ public class OidcProvider implements IOidcProvider {
     /**
      * Gets a JSON Web Key with a given key ID ('kid') from an OpenID connect issuer's /keys endpoint, returned as a JSON object
      */
-    public synchronized JsonWebKey getJsonWebKeyByKeyId(String keyId) throws IOException, InterruptedException {
-        // Check if it is time to refresh the cached JSON web keys
-        if (jsonWebKeys == null || nextJwkRefresh.isBefore(timeService.now())) {
-            logger.info("Refreshing cached JSON Web Keys");
-            refreshJsonWebKeys();
+    public JsonWebKey getJsonWebKeyByKeyId(String keyId) throws IOException, InterruptedException {
+        JsonWebKeySnapshot snapshot = getJsonWebKeySnapshot();
+        JsonWebKey key = snapshot.keysById.get(keyId);
+        if (key == null && isOutOfDate(snapshot)) {
+            // The key may have been added since the cached keys were retrieved, so don't wait for the background refresh
+            key = refreshJsonWebKeys(snapshot).keysById.get(keyId);
         }
-
-        // Iterate over the JSON array of JWKs, finding the one that matches the given key ID
-        JsonWebKey matchingKey = null;
-        for (JsonElement keyElement : jsonWebKeys) {
-            JsonWebKey key = gson.fromJson(keyElement.toString(), JsonWebKey.class);
-            if (key.getKeyId().equals(keyId)) {
-                matchingKey = key;
-                break;
-            }
-        }
-        return matchingKey;
+        return key;
     }
 
     /**
@@ -258,16 +314,25 @@ public class OidcProvider implements IOidcProvider {
     public boolean isJwtValid(String jwt) throws NoSuchAlgorithmException, InvalidKeySpecException, IOException, InterruptedException {
         boolean isValid = false;
         try {
-            DecodedJWT decodedJwt = JWT.decode(jwt);
-
-            // Try to get the public key used to sign this JWT
-            RSAPublicKey publicKey = getRSAPublicKeyFromIssuer(decodedJwt.getKeyId());
-            if (publicKey != null) {
-                Algorithm algorithm = Algorithm.RSA256(publicKey, null);
-                JWTVerifier verifier = JWT.require(algorithm).withIssuer(issuerUrl.toString()).build();
-
-                decodedJwt = verifier.verify(jwt);
-                isValid = (decodedJwt != null);
+            String jwtHash = getJwtHash(jwt);
+            if (isJwtAlreadyVerified(jwtHash)) {
+                isValid = true;
+            } else {
+                DecodedJWT decodedJwt = JWT.decode(jwt);
+
+                // Try to get the public key used to sign this JWT
+                RSAPublicKey publicKey = getRSAPublicKeyFromIssuer(decodedJwt.getKeyId());
+                if (publicKey != null) {
+                    Algorithm algorithm = Algorithm.RSA256(publicKey, null);
+                    BaseVerification verification = (BaseVerification) JWT.require(algorithm).withIssuer(issuerUrl.toString());
+                    JWTVerifier verifier = verification.build(new TimeServiceClock(timeService));
+
+                    decodedJwt = verifier.verify(jwt);
+                    isValid = (decodedJwt != null);
+                    if (isValid) {
+                        rememberVerifiedJwt(jwtHash, decodedJwt);
+                    }
+                }
             }
 
         } catch (JWTVerificationException e) {
@@ -277,6 +342,57 @@ public class OidcProvider implements IOidcProvider {
         return isValid;
     }
 
+    /**
+     * A JWT that has already been verified is still valid as long as it hasn't expired,
+     * and the key that signed it is still one of the issuer's keys
+     */
+    private boolean isJwtAlreadyVerified(String jwtHash) throws IOException, InterruptedException {
+        boolean isVerified = false;
+        VerifiedJwt verifiedJwt = verifiedJwts.get(jwtHash);
+        if (verifiedJwt != null) {
+            if (verifiedJwt.expiresAt.isAfter(timeService.now())
+                && getJsonWebKeySnapshot().keysById.containsKey(verifiedJwt.keyId)) {
+                isVerified = true;
+            } else {
+                verifiedJwts.remove(jwtHash, verifiedJwt);
+            }
+        }
+        return isVerified;
+    }
+
+    private void rememberVerifiedJwt(String jwtHash, DecodedJWT decodedJwt) {
+        // JWTs that never expire are always checked in full
+        Instant expiresAt = decodedJwt.getExpiresAtAsInstant();
+        if (expiresAt != null) {
+            if (verifiedJwts.size() >= MAX_VERIFIED_JWTS) {
+                removeVerifiedJwtsToMakeSpace();
+            }
+            verifiedJwts.put(jwtHash, new VerifiedJwt(decodedJwt.getKeyId(), expiresAt));
+        }
+    }
+
+    private void removeVerifiedJwtsToMakeSpace() {
+        Instant now = timeService.now();
+        verifiedJwts.values().removeIf(verifiedJwt -> !verifiedJwt.expiresAt.isAfter(now));
+
+        // If none have expired, forget the JWTs that will expire soonest
+        Iterator<Map.Entry<String, VerifiedJwt>> iterator = verifiedJwts.entrySet().stream()
+            .sorted(Comparator.comparing(entry -> entry.getValue().expiresAt))
+            .iterator();
+        while (verifiedJwts.size() >= MAX_VERIFIED_JWTS && iterator.hasNext()) {
+            Map.Entry<String, VerifiedJwt> entry = iterator.next();
+            verifiedJwts.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Only a hash of each verified JWT is kept, so the JWTs themselves are not held in memory
+     */
+    private String getJwtHash(String jwt) throws NoSuchAlgorithmException {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
     // Constructs an RSA public key from a JSON Web Key (JWK) that contains the provided key ID
     // A JWK contains the following fields:
     // {
@@ -291,11 +407,12 @@ public class OidcProvider implements IOidcProvider {
             throws IOException, InterruptedException, NoSuchAlgorithmException, InvalidKeySpecException {
 
         // Get the JWK with the given key ID
-        JsonWebKey matchingJwk = getJsonWebKeyByKeyId(keyId);
+        JsonWebKeySnapshot snapshot = getJsonWebKeySnapshot();
+        JsonWebKey matchingJwk = snapshot.keysById.get(keyId);
         if (matchingJwk == null) {
-            // Force the cached keys to be refreshed and try again
-            nextJwkRefresh = Instant.EPOCH;
-            matchingJwk = getJsonWebKeyByKeyId(keyId);
+            // The issuer may have a new key that we don't know about yet, so refresh the cached keys and try again
+            snapshot = refreshJsonWebKeys(snapshot);
+            matchingJwk = snapshot.keysById.get(keyId);
 
             // If we still failed to get a matching key, then this must be a bad key ID
             if (matchingJwk == null) {
@@ -304,6 +421,16 @@ public class OidcProvider implements IOidcProvider {
             }
         }
 
+        // Public keys are only built once for each set of keys that is retrieved from the issuer
+        RSAPublicKey publicKey = snapshot.publicKeysById.get(keyId);
+        if (publicKey == null) {
+            publicKey = buildRSAPublicKey(matchingJwk);
+            snapshot.publicKeysById.put(keyId, publicKey);
+        }
+        return publicKey;
+    }
+
+    private RSAPublicKey buildRSAPublicKey(JsonWebKey matchingJwk) throws NoSuchAlgorithmException, InvalidKeySpecException {
         // A JWK contains an 'n' field to represent the key's modulus, and an 'e' field to represent the key's exponent, both are Base64URL-encoded
         Decoder decoder = Base64.getUrlDecoder();
         BigInteger modulus = new BigInteger(1, decoder.decode(matchingJwk.getRsaModulus()));
@@ -354,14 +481,101 @@ public class OidcProvider implements IOidcProvider {
     }
 
 
+    /**
+     * Gets the cached JSON Web Keys. The keys are retrieved from the issuer the first time they are
+     * needed. After that, once the refresh interval has passed, they are refreshed in the background
+     * and the keys we already have are used until the refresh completes.
+     */
+    private JsonWebKeySnapshot getJsonWebKeySnapshot() throws IOException, InterruptedException {
+        JsonWebKeySnapshot snapshot = jsonWebKeys.get();
+        if (snapshot == null) {
+            snapshot = refreshJsonWebKeys(null);
+        } else if (isOutOfDate(snapshot)) {
+            refreshJsonWebKeysInBackground();
+            snapshot = jsonWebKeys.get();
+        }
+        return snapshot;
+    }
+
+    private boolean isOutOfDate(JsonWebKeySnapshot snapshot) {
+        return snapshot.nextRefresh.isBefore(timeService.now());
+    }
+
+    private void refreshJsonWebKeysInBackground() {
+        // Only one background refresh is run at a time
+        if (isJwkRefreshInProgress.compareAndSet(false, true)) {
+            try {
+                jwkRefreshExecutor.execute(() -> {
+                    try {
+                        refreshJsonWebKeys(jsonWebKeys.get());
+                    } catch (IOException | RuntimeException e) {
+                        logger.error("Unable to refresh the cached JSON Web Keys, the existing keys will be used", e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        isJwkRefreshInProgress.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                isJwkRefreshInProgress.set(false);
+                logger.error("Unable to start a refresh of the cached JSON Web Keys", e);
+            }
+        }
+    }
+
     /**
      * Refreshes the cached JSON Web Keys used to verify the signature of JWTs
+     *
+     * @param staleSnapshot the snapshot the caller found to be out of date. If another thread has
+     *                      already replaced it, the keys are not retrieved again.
+     * @return the latest snapshot of the keys
+     */
+    private JsonWebKeySnapshot refreshJsonWebKeys(JsonWebKeySnapshot staleSnapshot) throws IOException, InterruptedException {
+        synchronized (jwkRefreshLock) {
+            JsonWebKeySnapshot snapshot = jsonWebKeys.get();
+            if (snapshot == staleSnapshot) {
+                logger.info("Refreshing cached JSON Web Keys");
+                Map<String, JsonWebKey> keysById = new HashMap<>();
+                for (JsonElement keyElement : getJsonWebKeysFromIssuer()) {
+                    JsonWebKey key = gson.fromJson(keyElement.toString(), JsonWebKey.class);
+                    if (key.getKeyId() != null) {
+                        keysById.put(key.getKeyId(), key);
+                    }
+                }
+
+                // Update the next refresh time by the refresh interval
+                Instant nextRefresh = timeService.now().plus(JWK_REFRESH_INTERVAL_MINUTES, ChronoUnit.MINUTES);
+                snapshot = new JsonWebKeySnapshot(Collections.unmodifiableMap(keysById), nextRefresh);
+                jsonWebKeys.set(snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Lets the JWT verifier check expiry times against the time service
      */
-    private void refreshJsonWebKeys() throws IOException, InterruptedException {
-        jsonWebKeys = getJsonWebKeysFromIssuer();
+    private static class TimeServiceClock extends Clock {
+        private final ITimeService timeService;
 
-        // Update the next refresh time by the refresh interval
-        nextJwkRefresh = Instant.now().plus(JWK_REFRESH_INTERVAL_MINUTES, ChronoUnit.MINUTES);
+        private TimeServiceClock(ITimeService timeService) {
+            this.timeService = timeService;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return timeService.now();
+        }
     }
 
     /**
@@ -22,6 +22,10 @@ import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.Base64.Encoder;
 import java.util.function.BiPredicate;
 
@@ -543,6 +547,136 @@ public class OidcProviderTest {
         assertThat(result).isTrue();
     }
 
+    @Test
+    public void testIsJwtValidCalledConcurrentlyOnlyGetsKeysFromIssuerOnce() throws Exception {
+        // Given...
+        String issuer = "http://dummy-issuer";
+        String keyId = "mock-key";
+
+        KeyPair mockKeyPair = generateMockRsaKeyPair();
+        RSAPublicKey mockPublicKey =  (RSAPublicKey) mockKeyPair.getPublic();
+        RSAPrivateKey mockPrivateKey =  (RSAPrivateKey) mockKeyPair.getPrivate();
+
+        HttpResponse<Object> mockJwkResponse = createMockJwksResponse(createMockJwkObject(keyId, mockPublicKey));
+
+        String validJwt = JWT.create()
+            .withIssuer(issuer)
+            .withKeyId(keyId)
+            .withExpiresAt(Instant.MAX)
+            .sign(Algorithm.RSA256(mockPublicKey, mockPrivateKey));
+
+        MockHttpClient mockHttpClient = new MockHttpClient(createMockOidcDiscoveryResponse());
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        OidcProvider oidcProvider = new OidcProvider(issuer, mockHttpClient, mockTimeService);
+
+        mockHttpClient.setMockResponse(mockJwkResponse);
+        int requestsBeforeValidating = mockHttpClient.getSendCount();
+
+        int threadCount = 8;
+        int callsPerThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Callable<Integer>> callers = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            callers.add(() -> {
+                int validCount = 0;
+                for (int call = 0; call < callsPerThread; call++) {
+                    if (oidcProvider.isJwtValid(validJwt)) {
+                        validCount++;
+                    }
+                }
+                return validCount;
+            });
+        }
+
+        // When...
+        int totalValidCount = 0;
+        try {
+            for (Future<Integer> result : executor.invokeAll(callers)) {
+                totalValidCount += result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then...
+        assertThat(totalValidCount).isEqualTo(threadCount * callsPerThread);
+        assertThat(mockHttpClient.getSendCount() - requestsBeforeValidating).isEqualTo(1);
+    }
+
+    @Test
+    public void testIsJwtValidWithPreviouslyValidJwtThatHasNowExpiredReturnsFalse() throws Exception {
+        // Given...
+        String issuer = "http://dummy-issuer";
+        String keyId = "mock-key";
+
+        KeyPair mockKeyPair = generateMockRsaKeyPair();
+        RSAPublicKey mockPublicKey =  (RSAPublicKey) mockKeyPair.getPublic();
+        RSAPrivateKey mockPrivateKey =  (RSAPrivateKey) mockKeyPair.getPrivate();
+
+        HttpResponse<Object> mockJwkResponse = createMockJwksResponse(createMockJwkObject(keyId, mockPublicKey));
+
+        Instant now = Instant.now();
+        String jwt = JWT.create()
+            .withIssuer(issuer)
+            .withKeyId(keyId)
+            .withExpiresAt(now.plus(1, ChronoUnit.HOURS))
+            .sign(Algorithm.RSA256(mockPublicKey, mockPrivateKey));
+
+        MockHttpClient mockHttpClient = new MockHttpClient(createMockOidcDiscoveryResponse());
+        MockTimeService mockTimeService = new MockTimeService(now);
+        OidcProvider oidcProvider = new OidcProvider(issuer, mockHttpClient, mockTimeService, Runnable::run);
+
+        mockHttpClient.setMockResponse(mockJwkResponse);
+
+        // When...
+        boolean isValidBeforeExpiry = oidcProvider.isJwtValid(jwt);
+
+        mockTimeService.setCurrentTime(now.plus(2, ChronoUnit.HOURS));
+        boolean isValidAfterExpiry = oidcProvider.isJwtValid(jwt);
+
+        // Then...
+        assertThat(isValidBeforeExpiry).isTrue();
+        assertThat(isValidAfterExpiry).isFalse();
+    }
+
+    @Test
+    public void testIsJwtValidWithPreviouslyValidJwtWhoseKeyIsNoLongerUsedReturnsFalse() throws Exception {
+        // Given...
+        String issuer = "http://dummy-issuer";
+        String keyId = "mock-key";
+
+        KeyPair mockKeyPair = generateMockRsaKeyPair();
+        RSAPublicKey mockPublicKey =  (RSAPublicKey) mockKeyPair.getPublic();
+        RSAPrivateKey mockPrivateKey =  (RSAPrivateKey) mockKeyPair.getPrivate();
+
+        HttpResponse<Object> mockJwkResponse = createMockJwksResponse(createMockJwkObject(keyId, mockPublicKey));
+
+        Instant now = Instant.now();
+        String jwt = JWT.create()
+            .withIssuer(issuer)
+            .withKeyId(keyId)
+            .withExpiresAt(now.plus(1, ChronoUnit.DAYS))
+            .sign(Algorithm.RSA256(mockPublicKey, mockPrivateKey));
+
+        MockHttpClient mockHttpClient = new MockHttpClient(createMockOidcDiscoveryResponse());
+        MockTimeService mockTimeService = new MockTimeService(now);
+        OidcProvider oidcProvider = new OidcProvider(issuer, mockHttpClient, mockTimeService, Runnable::run);
+
+        mockHttpClient.setMockResponse(mockJwkResponse);
+
+        // When...
+        boolean isValidBeforeKeyRemoved = oidcProvider.isJwtValid(jwt);
+
+        // The issuer stops using the key, and the cached keys are refreshed once the refresh interval has passed
+        mockHttpClient.setMockResponse(createMockJwksResponse("a-new-key"));
+        mockTimeService.setCurrentTime(now.plus(1, ChronoUnit.HOURS));
+        boolean isValidAfterKeyRemoved = oidcProvider.isJwtValid(jwt);
+
+        // Then...
+        assertThat(isValidBeforeKeyRemoved).isTrue();
+        assertThat(isValidAfterKeyRemoved).isFalse();
+    }
+
     @Test
     public void testGetOpenIdConfigurationReturnsValidConfig() throws Exception {
         // Given...
@@ -45,4 +45,9 @@ public class EnvironmentVariables {
      * Kubernetes resources, like deployments for monitors, that are available in its namespace.
      */
     public static final String GALASA_KUBERNETES_NAMESPACE = "NAMESPACE";
+
+    /**
+     * The maximum time, in milliseconds, that the API server will wait for the RAS stores when querying for runs.
+     */
+    public static final String GALASA_RAS_QUERY_TIMEOUT_MILLIS = "GALASA_RAS_QUERY_TIMEOUT_MILLIS";
 }
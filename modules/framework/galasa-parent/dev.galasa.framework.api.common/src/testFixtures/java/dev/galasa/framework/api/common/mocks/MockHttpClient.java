@@ -18,13 +18,15 @@ import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
 
 public class MockHttpClient extends HttpClient {
 
-    private HttpResponse<?> mockResponse;
+    private volatile HttpResponse<?> mockResponse;
+    private AtomicInteger sendCount = new AtomicInteger();
 
     public MockHttpClient(HttpResponse<?> mockResponse) {
         this.mockResponse = mockResponse;
@@ -34,12 +36,17 @@ public class MockHttpClient extends HttpClient {
         this.mockResponse = mockResponse;
     }
 
+    public int getSendCount() {
+        return sendCount.get();
+    }
+
     // Casting to HttpResponse<T> is safe since we're returning a mock response of the
     // same type in our tests, so let's suppress the type safety warning
     @SuppressWarnings("unchecked")
     @Override
     public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> responseBodyHandler)
             throws IOException, InterruptedException {
+        sendCount.incrementAndGet();
         return (HttpResponse<T>) mockResponse;
     }
 
@@ -50,6 +50,11 @@ public class MockIFrameworkRuns implements IFrameworkRuns{
         throw new UnsupportedOperationException("Unimplemented method 'getAllRuns'");
     }
 
+    @Override
+    public @NotNull List<IRun> getRunsByStatus(@NotNull TestRunLifecycleStatus... statuses) throws FrameworkException {
+        throw new UnsupportedOperationException("Unimplemented method 'getRunsByStatus'");
+    }
+
     @Override
     public @NotNull List<IRun> getAllGroupedRuns(@NotNull String groupName) throws FrameworkException {
         if(groupName.equals("invalid")){
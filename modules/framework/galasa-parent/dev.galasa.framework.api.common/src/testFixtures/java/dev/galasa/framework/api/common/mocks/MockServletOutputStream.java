@@ -32,6 +32,10 @@ public class MockServletOutputStream extends ServletOutputStream {
         this.outputStream.write(b);
     }
 
+    public byte[] toByteArray() {
+        return outputStream.toByteArray();
+    }
+
     @Override
     public String toString() {
         return outputStream.toString();
@@ -15,6 +15,7 @@ import dev.galasa.framework.FileSystem;
 import dev.galasa.framework.IFileSystem;
 import dev.galasa.framework.api.ras.internal.routes.RasHealthRoute;
 import dev.galasa.framework.api.ras.internal.routes.RequestorRoute;
+import dev.galasa.framework.api.ras.internal.routes.RunArchiveRoute;
 import dev.galasa.framework.api.ras.internal.routes.ResultNamesRoute;
 import dev.galasa.framework.api.ras.internal.routes.RunArtifactsDownloadRoute;
 import dev.galasa.framework.api.ras.internal.routes.RunArtifactsListRoute;
@@ -68,6 +69,7 @@ public class RasServlet extends BaseServlet {
 			addRoute(new RunArtifactsListRoute(getResponseBuilder(), fileSystem, framework));
 			addRoute(new RunQueryRoute(getResponseBuilder(), framework, env));
 			addRoute(new RunArtifactsDownloadRoute(getResponseBuilder(), fileSystem, framework));
+			addRoute(new RunArchiveRoute(getResponseBuilder(), fileSystem, framework));
 			addRoute(new ResultNamesRoute(getResponseBuilder(), framework));
 			addRoute(new RequestorRoute(getResponseBuilder(), framework));
 			addRoute(new TestClassesRoute(getResponseBuilder(), framework));
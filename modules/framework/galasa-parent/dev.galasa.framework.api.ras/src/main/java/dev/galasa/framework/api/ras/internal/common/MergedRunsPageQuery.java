@@ -0,0 +1,255 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.google.gson.JsonParseException;
+
+import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.IRasSearchCriteria;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSortField;
+import dev.galasa.framework.spi.utils.GalasaGson;
+import dev.galasa.framework.spi.utils.GalasaGsonBuilder;
+
+/**
+ * <p>
+ * Gets a page of runs from several RAS stores at once, merging the pages each store
+ * returns into a single page sorted by the requested sort field.
+ * </p>
+ *
+ * <p>
+ * Each store can only continue from the cursors it hands out, which point to the end of
+ * the page it returned, but the merged page may not use all of the runs on a store's page.
+ * So the cursor for the next merged page holds, for each store, the cursor of the page the
+ * store's next run is on and how many runs of that page have already been returned. Stores
+ * that have no more runs are left out of the cursor and are not asked for any more pages.
+ * </p>
+ */
+public class MergedRunsPageQuery {
+
+    public static final String CURSOR_PREFIX = "merged:";
+
+    private static final GalasaGson gson = new GalasaGson();
+    static {
+        gson.setGsonBuilder(new GalasaGsonBuilder(false));
+    }
+
+    private final int maxResults;
+    private final RasSortField primarySort;
+    private final Comparator<Comparable<?>> sortKeyComparator;
+    private final IRasSearchCriteria[] searchCriteria;
+
+    static class StoreCursor {
+        String store;
+        String cursor;
+        int skip;
+    }
+
+    static class MergedCursor {
+        List<StoreCursor> stores = new ArrayList<>();
+    }
+
+    /**
+     * The runs a store returned that may go on the merged page, with the value each run has for
+     * the sort field, the cursor of the store's page each run came from and the run's position on
+     * that page
+     */
+    public static class StorePage {
+        private final String storeName;
+        private final List<IRunResult> runs = new ArrayList<>();
+        private final List<Comparable<?>> sortKeys = new ArrayList<>();
+        private final List<String> runPageCursors = new ArrayList<>();
+        private final List<Integer> runPageOffsets = new ArrayList<>();
+        private String nextCursor;
+
+        StorePage(String storeName) {
+            this.storeName = storeName;
+        }
+    }
+
+    public MergedRunsPageQuery(int maxResults, RasSortField primarySort, IRasSearchCriteria... searchCriteria) {
+        this.maxResults = maxResults;
+        this.primarySort = primarySort;
+        this.sortKeyComparator = (primarySort == null) ? null : primarySort.getSortKeyComparator();
+        this.searchCriteria = searchCriteria;
+    }
+
+    /**
+     * @return the stores to query for the page the given cursor points to. Stores that have already
+     *         returned all their runs are not included.
+     */
+    public List<IResultArchiveStoreDirectoryService> getStoresToQuery(List<IResultArchiveStoreDirectoryService> directoryServices,
+            String pageCursor) throws ResultArchiveStoreException {
+        List<IResultArchiveStoreDirectoryService> storesToQuery = directoryServices;
+        Map<String, StoreCursor> storeCursors = decodeCursor(pageCursor);
+        if (storeCursors != null) {
+            storesToQuery = new ArrayList<>();
+            for (IResultArchiveStoreDirectoryService directoryService : directoryServices) {
+                if (storeCursors.containsKey(directoryService.getName())) {
+                    storesToQuery.add(directoryService);
+                }
+            }
+        }
+        return storesToQuery;
+    }
+
+    /**
+     * Gets the runs the given store could contribute to the page the given cursor points to.
+     * This is safe to call for several stores at once.
+     */
+    public StorePage getStorePage(IResultArchiveStoreDirectoryService directoryService, String pageCursor)
+            throws ResultArchiveStoreException {
+        String storeName = directoryService.getName();
+
+        // A cursor that we didn't create is passed to every store as it is, as we've always done
+        String cursor = pageCursor;
+        int skip = 0;
+        Map<String, StoreCursor> storeCursors = decodeCursor(pageCursor);
+        if (storeCursors != null) {
+            StoreCursor storeCursor = storeCursors.get(storeName);
+            cursor = storeCursor.cursor;
+            skip = storeCursor.skip;
+        }
+
+        // Keep asking for pages until the store has given us enough runs to fill the merged page, as
+        // some of the runs on the store's page may already have been returned on an earlier merged page
+        StorePage storePage = new StorePage(storeName);
+        boolean isMorePages = true;
+        while (isMorePages && (maxResults <= 0 || storePage.runs.size() < maxResults)) {
+            RasRunResultPage page = directoryService.getRunsPage(maxResults, primarySort, cursor, searchCriteria);
+            List<IRunResult> runs = page.getRuns();
+            for (int i = skip; i < runs.size(); i++) {
+                IRunResult run = runs.get(i);
+                storePage.runs.add(run);
+                if (sortKeyComparator != null) {
+                    // Get the sort keys here, so they are read in parallel and the merge doesn't have to.
+                    // Only the summary of the run is needed, which some stores can read more cheaply.
+                    storePage.sortKeys.add(primarySort.getSortKey(run.getSummaryTestStructure()));
+                }
+                storePage.runPageCursors.add(cursor);
+                storePage.runPageOffsets.add(i);
+            }
+
+            skip = Math.max(0, skip - runs.size());
+            String nextCursor = page.getNextCursor();
+            isMorePages = (nextCursor != null && !nextCursor.equals(cursor));
+            cursor = nextCursor;
+        }
+
+        if (isMorePages) {
+            storePage.nextCursor = cursor;
+        }
+        return storePage;
+    }
+
+    /**
+     * Merges the runs from each store into a single page, and works out where each store
+     * should continue from for the next page.
+     *
+     * @param storePages the runs from each store, in the order the stores are configured
+     */
+    public RasRunResultPage merge(List<StorePage> storePages) {
+        // Each entry is the index of a store and the index of its next run that has not been merged.
+        // Runs that sort equally are taken from the stores in the order they are configured.
+        Comparator<int[]> headComparator = Comparator.comparingInt(head -> 0);
+        if (sortKeyComparator != null) {
+            headComparator = (a, b) -> sortKeyComparator.compare(
+                storePages.get(a[0]).sortKeys.get(a[1]),
+                storePages.get(b[0]).sortKeys.get(b[1]));
+        }
+        headComparator = headComparator.thenComparingInt(head -> head[0]);
+
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, storePages.size()), headComparator);
+        for (int storeIndex = 0; storeIndex < storePages.size(); storeIndex++) {
+            if (!storePages.get(storeIndex).runs.isEmpty()) {
+                heads.add(new int[] { storeIndex, 0 });
+            }
+        }
+
+        List<IRunResult> mergedRuns = new ArrayList<>();
+        int[] mergedCounts = new int[storePages.size()];
+        while (!heads.isEmpty() && (maxResults <= 0 || mergedRuns.size() < maxResults)) {
+            int[] head = heads.poll();
+            StorePage storePage = storePages.get(head[0]);
+            mergedRuns.add(storePage.runs.get(head[1]));
+            mergedCounts[head[0]]++;
+
+            if (head[1] + 1 < storePage.runs.size()) {
+                heads.add(new int[] { head[0], head[1] + 1 });
+            }
+        }
+
+        MergedCursor nextCursor = new MergedCursor();
+        for (int storeIndex = 0; storeIndex < storePages.size(); storeIndex++) {
+            StorePage storePage = storePages.get(storeIndex);
+            StoreCursor storeCursor = null;
+            int nextRunIndex = mergedCounts[storeIndex];
+            if (nextRunIndex < storePage.runs.size()) {
+                // Continue part way through a page this store gave us
+                storeCursor = new StoreCursor();
+                storeCursor.cursor = storePage.runPageCursors.get(nextRunIndex);
+                storeCursor.skip = storePage.runPageOffsets.get(nextRunIndex);
+            } else if (storePage.nextCursor != null) {
+                storeCursor = new StoreCursor();
+                storeCursor.cursor = storePage.nextCursor;
+            }
+
+            if (storeCursor != null) {
+                storeCursor.store = storePage.storeName;
+                nextCursor.stores.add(storeCursor);
+            }
+        }
+
+        return new RasRunResultPage(mergedRuns, encodeCursor(nextCursor));
+    }
+
+    private String encodeCursor(MergedCursor mergedCursor) {
+        String encodedCursor = null;
+        if (!mergedCursor.stores.isEmpty()) {
+            byte[] cursorBytes = gson.toJson(mergedCursor).getBytes(StandardCharsets.UTF_8);
+            encodedCursor = CURSOR_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(cursorBytes);
+        }
+        return encodedCursor;
+    }
+
+    /**
+     * @return the cursor for each store keyed by the name of the store, or null if the given
+     *         cursor is not one that was created by merging pages
+     */
+    private Map<String, StoreCursor> decodeCursor(String pageCursor) throws ResultArchiveStoreException {
+        Map<String, StoreCursor> storeCursors = null;
+        if (pageCursor != null && pageCursor.startsWith(CURSOR_PREFIX)) {
+            try {
+                byte[] cursorBytes = Base64.getUrlDecoder().decode(pageCursor.substring(CURSOR_PREFIX.length()));
+                MergedCursor mergedCursor = gson.fromJson(new String(cursorBytes, StandardCharsets.UTF_8), MergedCursor.class);
+                if (mergedCursor != null && mergedCursor.stores != null) {
+                    storeCursors = new HashMap<>();
+                    for (StoreCursor storeCursor : mergedCursor.stores) {
+                        storeCursors.put(storeCursor.store, storeCursor);
+                    }
+                }
+            } catch (IllegalArgumentException | JsonParseException e) {
+                throw new ResultArchiveStoreException("Invalid page cursor '" + pageCursor + "'", e);
+            }
+
+            if (storeCursors == null) {
+                throw new ResultArchiveStoreException("Invalid page cursor '" + pageCursor + "'");
+            }
+        }
+        return storeCursors;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.api.common.Environment;
+import dev.galasa.framework.api.common.EnvironmentVariables;
+import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+/**
+ * Runs the work needed to answer a query for runs concurrently, so that the time taken
+ * is that of the slowest RAS store rather than the sum of them all.
+ *
+ * The queries to each RAS store run in parallel, as do the conversions of the runs they
+ * return, on a bounded pool of threads shared by every request. When the pool is busy,
+ * the thread handling the request does the work itself. A request stops waiting for the
+ * work it has handed to the pool once the query timeout has passed, which is read from
+ * the GALASA_RAS_QUERY_TIMEOUT_MILLIS environment variable. How long each query and
+ * conversion took is logged at debug level.
+ */
+public class RasQueryExecutor {
+
+    public static final long DEFAULT_QUERY_TIMEOUT_MILLIS = 60000;
+
+    private static final int MAX_THREADS = 16;
+    private static final int MAX_QUEUED_TASKS = 256;
+
+    private static final ExecutorService sharedExecutor = createSharedExecutor();
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final long queryTimeoutNanos;
+
+    public interface DirectoryServiceQuery<T> {
+        T query(IResultArchiveStoreDirectoryService directoryService) throws ResultArchiveStoreException;
+    }
+
+    public interface RunConverter<T> {
+        T convert(IRunResult run) throws ResultArchiveStoreException;
+    }
+
+    public RasQueryExecutor(Environment env) {
+        this(sharedExecutor, MAX_THREADS, getQueryTimeoutMillis(env));
+    }
+
+    public RasQueryExecutor(ExecutorService executor, int parallelism, long queryTimeoutMillis) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.queryTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queryTimeoutMillis);
+    }
+
+    /**
+     * @return the time, as given by System.nanoTime(), by which all the work for a request
+     *         that starts now must be finished
+     */
+    public long getDeadlineNanos() {
+        return System.nanoTime() + queryTimeoutNanos;
+    }
+
+    /**
+     * Runs a query against each of the given RAS stores in parallel.
+     *
+     * @return the result of the query for each store, in the same order as the stores
+     * @throws ResultArchiveStoreException if any of the queries failed, or they did not all finish before the deadline
+     */
+    public <T> List<T> queryAll(List<IResultArchiveStoreDirectoryService> directoryServices,
+            DirectoryServiceQuery<T> query, long deadlineNanos) throws ResultArchiveStoreException {
+
+        List<T> results = new ArrayList<>();
+        if (directoryServices.size() == 1) {
+            // There's nothing to gain by handing a single query to another thread
+            results.add(timedQuery(directoryServices.get(0), query));
+        } else {
+            List<Future<T>> futures = new ArrayList<>();
+            List<String> storeNames = new ArrayList<>();
+            for (IResultArchiveStoreDirectoryService directoryService : directoryServices) {
+                futures.add(executor.submit(() -> timedQuery(directoryService, query)));
+                storeNames.add(directoryService.getName());
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(waitFor(futures, i, deadlineNanos, "the RAS store '" + storeNames.get(i) + "'"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Converts each of the given runs in parallel.
+     *
+     * @return the converted runs, in the same order as the given runs
+     * @throws ResultArchiveStoreException if any of the conversions failed, or they did not all finish before the deadline
+     */
+    public <T> List<T> convertAll(List<IRunResult> runs, RunConverter<T> converter, long deadlineNanos)
+            throws ResultArchiveStoreException {
+
+        // Hand the runs out in batches, so we don't pay for a task per run when there are lots of them
+        int batchSize = Math.max(1, (runs.size() + parallelism - 1) / parallelism);
+
+        List<T> convertedRuns = new ArrayList<>();
+        if (runs.size() <= batchSize) {
+            convertedRuns.addAll(timedConversion(runs, converter));
+        } else {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (int batchStart = 0; batchStart < runs.size(); batchStart += batchSize) {
+                List<IRunResult> batch = runs.subList(batchStart, Math.min(batchStart + batchSize, runs.size()));
+                futures.add(executor.submit(() -> timedConversion(batch, converter)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                convertedRuns.addAll(waitFor(futures, i, deadlineNanos, "runs to be converted"));
+            }
+        }
+        return convertedRuns;
+    }
+
+    private <T> T timedQuery(IResultArchiveStoreDirectoryService directoryService, DirectoryServiceQuery<T> query)
+            throws ResultArchiveStoreException {
+        String storeName = directoryService.getName();
+        long startNanos = System.nanoTime();
+        boolean isFailed = true;
+        try {
+            T result = query.query(directoryService);
+            isFailed = false;
+            return result;
+        } finally {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Query of RAS store '" + storeName + "' " + (isFailed ? "failed after " : "took ")
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + "ms");
+            }
+        }
+    }
+
+    private <T> List<T> timedConversion(List<IRunResult> runs, RunConverter<T> converter) throws ResultArchiveStoreException {
+        long startNanos = System.nanoTime();
+        boolean isFailed = true;
+        try {
+            List<T> convertedRuns = new ArrayList<>();
+            for (IRunResult run : runs) {
+                convertedRuns.add(converter.convert(run));
+            }
+            isFailed = false;
+            return convertedRuns;
+        } finally {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Conversion of " + runs.size() + " runs " + (isFailed ? "failed after " : "took ")
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + "ms");
+            }
+        }
+    }
+
+    private <T> T waitFor(List<Future<T>> futures, int index, long deadlineNanos, String description)
+            throws ResultArchiveStoreException {
+        T result = null;
+        try {
+            result = futures.get(index).get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelAll(futures);
+            logger.warn("Timed out waiting for " + description + " after " + TimeUnit.NANOSECONDS.toMillis(queryTimeoutNanos) + "ms");
+            throw new ResultArchiveStoreException("Timed out waiting for " + description, e);
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            throw new ResultArchiveStoreException("Interrupted while waiting for " + description, e);
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof ResultArchiveStoreException) {
+                throw (ResultArchiveStoreException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ResultArchiveStoreException("Failed waiting for " + description, cause);
+        }
+        return result;
+    }
+
+    private <T> void cancelAll(List<Future<T>> futures) {
+        for (Future<T> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static long getQueryTimeoutMillis(Environment env) {
+        long timeoutMillis = DEFAULT_QUERY_TIMEOUT_MILLIS;
+        String timeoutValue = env.getenv(EnvironmentVariables.GALASA_RAS_QUERY_TIMEOUT_MILLIS);
+        if (timeoutValue != null && !timeoutValue.isBlank()) {
+            try {
+                timeoutMillis = Long.parseLong(timeoutValue.trim());
+            } catch (NumberFormatException e) {
+                LogFactory.getLog(RasQueryExecutor.class).warn("Ignoring the invalid value '" + timeoutValue + "' of "
+                    + EnvironmentVariables.GALASA_RAS_QUERY_TIMEOUT_MILLIS + ", using " + DEFAULT_QUERY_TIMEOUT_MILLIS + "ms");
+            }
+        }
+        return timeoutMillis;
+    }
+
+    private static ExecutorService createSharedExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "galasa-ras-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // Idle threads are allowed to end, as there is nowhere to shut the pool down
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_TASKS), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -16,10 +16,12 @@ import javax.validation.constraints.NotNull;
 import dev.galasa.api.ras.RasArtifact;
 import dev.galasa.api.ras.RasRunResult;
 import dev.galasa.api.ras.RasTestMethod;
+import dev.galasa.api.ras.RasTestPhaseTiming;
 import dev.galasa.api.ras.RasTestStructure;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.framework.spi.teststructure.TestMethod;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.api.common.Environment;
 import dev.galasa.framework.api.common.SystemEnvironment;
@@ -47,6 +49,7 @@ public class RunResultUtility {
 
 		if (isMethodDetailsExcluded) {
 			structure.setMethods(null);
+			structure.setPhaseTimings(null);
 			artifacts = null;
 		} else {
 			artifacts = getArtifacts(artifactsPath);
@@ -89,8 +92,24 @@ public class RunResultUtility {
 		List<RasTestMethod> rasMethods = convertMethods(methods);
 		Set<String> tags = struc.getTags();
 
-		return new RasTestStructure(runName, bundle, testName, testShortName, requestor, user, status, result, 
+		RasTestStructure rasStructure = new RasTestStructure(runName, bundle, testName, testShortName, requestor, user, status, result, 
 				queued, startTime, endTime, rasMethods, group, submissionId, tags);
+		rasStructure.setPhaseTimings(convertPhaseTimings(struc.getPhaseTimings()));
+		return rasStructure;
+	}
+
+	private List<RasTestPhaseTiming> convertPhaseTimings(List<TestPhaseTiming> phaseTimings) {
+		List<RasTestPhaseTiming> rasPhaseTimings = null;
+
+		if (phaseTimings != null) {
+			rasPhaseTimings = new ArrayList<>();
+			for (TestPhaseTiming phaseTiming : phaseTimings) {
+				rasPhaseTimings.add(new RasTestPhaseTiming(phaseTiming.getPhase(), phaseTiming.getManager(),
+						phaseTiming.getMethod(), phaseTiming.getStartTime(), phaseTiming.getDurationMillis(), phaseTiming.isFailed()));
+			}
+		}
+
+		return rasPhaseTimings;
 	}
 
 	private List<RasTestMethod> convertMethods(List<TestMethod> methods) {
@@ -0,0 +1,281 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.routes;
+
+import static dev.galasa.framework.api.common.ServletErrorMessage.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.IFileSystem;
+import dev.galasa.framework.api.common.HttpRequestContext;
+import dev.galasa.framework.api.common.InternalServletException;
+import dev.galasa.framework.api.common.QueryParameters;
+import dev.galasa.framework.api.common.ResponseBuilder;
+import dev.galasa.framework.api.common.ServletError;
+import dev.galasa.framework.api.ras.internal.common.IRunRootArtifact;
+import dev.galasa.framework.api.ras.internal.common.RunLogArtifact;
+import dev.galasa.framework.api.ras.internal.common.StructureJsonArtifact;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IFramework;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.rbac.RBACException;
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+/**
+ * Implementation to download a run as a single zip file, containing the run's structure,
+ * its run log and all of its stored artifacts.
+ *
+ * The zip file is written to the response as each artifact is read from the RAS, so nothing
+ * is held in memory or staged on disk. While one artifact is being copied into the zip file,
+ * the next few are opened in the background, so that the time spent waiting for the RAS to
+ * start sending each artifact overlaps with the copying of the one before it.
+ *
+ * An artifact that has been opened holds a connection to the RAS until it is copied, so the
+ * number of artifacts opened ahead is limited across all the downloads, to fewer than the
+ * connections the RAS has. Otherwise concurrent downloads could take every connection with
+ * artifacts opened ahead, leaving none to open the artifacts they are waiting for.
+ */
+public class RunArchiveRoute extends RunArtifactsRoute {
+
+    // The number of artifacts that are opened ahead of the one being copied into the zip file
+    static final int ARTIFACT_READ_AHEAD = 4;
+
+    // The number of artifacts that can be opened ahead across all the downloads, which is kept
+    // below the 5 connections to each server that the CouchDB RAS http client allows
+    static final int MAX_ARTIFACTS_OPENED_AHEAD = 3;
+
+    private static final Semaphore artifactsOpenedAheadPermits = new Semaphore(MAX_ARTIFACTS_OPENED_AHEAD);
+
+    // Only ever has as many tasks as there are permits, so it doesn't need to be any bigger
+    private static final ExecutorService artifactOpenExecutor = createArtifactOpenExecutor();
+
+    private static final Log logger = LogFactory.getLog(RunArchiveRoute.class);
+
+    static final GalasaGson gson = new GalasaGson();
+
+    // The regex pattern for the "/ras/runs/{run-id}/archive" endpoint
+    protected static final String path = "\\/runs\\/" + RUN_ID_PATTERN + "\\/archive\\/?";
+
+    private final IRunRootArtifact structureJsonArtifact = new StructureJsonArtifact();
+    private final IRunRootArtifact runLogArtifact = new RunLogArtifact();
+
+    public RunArchiveRoute(ResponseBuilder responseBuilder, IFileSystem fileSystem, IFramework framework) throws RBACException {
+        super(responseBuilder, path, fileSystem, framework);
+    }
+
+    @Override
+    public HttpServletResponse handleGetRequest(String pathInfo, QueryParameters queryParams, HttpRequestContext requestContext, HttpServletResponse res) throws ServletException, IOException, FrameworkException {
+        Matcher matcher = this.getPathRegex().matcher(pathInfo);
+        matcher.matches();
+        String runId = matcher.group(1);
+
+        IRunResult run = null;
+        String runName = "";
+        try {
+            run = getRunByRunId(runId);
+            runName = run.getTestStructure().getRunName();
+        } catch (ResultArchiveStoreException e) {
+            ServletError error = new ServletError(GAL5002_INVALID_RUN_ID, runId);
+            throw new InternalServletException(error, HttpServletResponse.SC_NOT_FOUND, e);
+        }
+
+        // List the artifacts before anything is sent, so a RAS that can't be read gives a proper error
+        List<Path> artifactPaths = null;
+        byte[] artifactsJson = null;
+        try {
+            run.loadArtifacts();
+            artifactPaths = getArtifactPaths(run.getArtifactsRoot(), new ArrayList<>());
+            artifactsJson = gson.toJson(getArtifactsAsJson(artifactPaths)).getBytes(StandardCharsets.UTF_8);
+        } catch (ResultArchiveStoreException | IOException e) {
+            ServletError error = new ServletError(GAL5007_ERROR_RETRIEVING_ARTIFACTS_LIST, runId);
+            throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e);
+        }
+
+        res = getResponseBuilder().buildResponse(requestContext.getRequest(), res, "application/zip", HttpServletResponse.SC_OK);
+        res.setHeader("Content-Disposition", "attachment; filename=\"" + runName + ".zip\"");
+
+        OutputStream outStream = res.getOutputStream();
+        try {
+            ZipOutputStream zipStream = new ZipOutputStream(outStream);
+            writeArchive(zipStream, run, runName + "/", artifactPaths, artifactsJson);
+
+            // Only a complete archive gets its central directory written, so a client is never
+            // handed a zip file that looks valid but is missing some of the run's artifacts
+            zipStream.finish();
+        } catch (ResultArchiveStoreException | IOException e) {
+            ServletError error = new ServletError(GAL5473_ERROR_ARCHIVING_RUN, runId);
+            throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e);
+        } finally {
+            outStream.close();
+        }
+        return res;
+    }
+
+    private void writeArchive(ZipOutputStream zipStream, IRunResult run, String entryPrefix, List<Path> artifactPaths, byte[] artifactsJson)
+            throws ResultArchiveStoreException, IOException {
+
+        zipStream.putNextEntry(new ZipEntry(entryPrefix + "structure.json"));
+        zipStream.write(structureJsonArtifact.getContent(run));
+        zipStream.closeEntry();
+
+        zipStream.putNextEntry(new ZipEntry(entryPrefix + "artifacts.json"));
+        zipStream.write(artifactsJson);
+        zipStream.closeEntry();
+
+        zipStream.putNextEntry(new ZipEntry(entryPrefix + "run.log"));
+        if (!runLogArtifact.streamContent(run, new EntryOutputStream(zipStream))) {
+            zipStream.write(runLogArtifact.getContent(run));
+        }
+        zipStream.closeEntry();
+
+        writeStoredArtifacts(zipStream, entryPrefix + "artifacts", artifactPaths);
+    }
+
+    private void writeStoredArtifacts(ZipOutputStream zipStream, String entryPrefix, List<Path> artifactPaths) throws IOException {
+        Deque<Future<InputStream>> openingArtifacts = new ArrayDeque<>();
+        int nextArtifactToOpen = 0;
+        try {
+            for (Path artifactPath : artifactPaths) {
+                // Artifacts are only opened ahead while there are permits to spare, the rest are opened as they are needed
+                while (nextArtifactToOpen < artifactPaths.size() && openingArtifacts.size() < ARTIFACT_READ_AHEAD
+                        && artifactsOpenedAheadPermits.tryAcquire()) {
+                    Path pathToOpen = artifactPaths.get(nextArtifactToOpen);
+                    openingArtifacts.add(artifactOpenExecutor.submit(() -> Files.newInputStream(pathToOpen)));
+                    nextArtifactToOpen++;
+                }
+
+                InputStream openedArtifactStream;
+                if (openingArtifacts.isEmpty()) {
+                    openedArtifactStream = Files.newInputStream(artifactPath);
+                    nextArtifactToOpen++;
+                } else {
+                    try {
+                        openedArtifactStream = waitForArtifact(openingArtifacts.poll(), artifactPath);
+                    } finally {
+                        artifactsOpenedAheadPermits.release();
+                    }
+                }
+
+                try (InputStream artifactStream = openedArtifactStream) {
+                    zipStream.putNextEntry(new ZipEntry(entryPrefix + artifactPath.toString()));
+                    artifactStream.transferTo(zipStream);
+                    zipStream.closeEntry();
+                }
+            }
+        } finally {
+            closeOpenedArtifacts(openingArtifacts);
+        }
+    }
+
+    private InputStream waitForArtifact(Future<InputStream> openingArtifact, Path artifactPath) throws IOException {
+        try {
+            return openingArtifact.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while opening artifact " + artifactPath);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Unable to open artifact " + artifactPath, cause);
+        }
+    }
+
+    /**
+     * Closes the artifacts that were opened ahead but never copied because the archive failed.
+     * The opens that are still running are waited for, as cancelling them would leak their streams.
+     */
+    private void closeOpenedArtifacts(Deque<Future<InputStream>> openingArtifacts) {
+        for (Future<InputStream> openingArtifact : openingArtifacts) {
+            try {
+                openingArtifact.get().close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | IOException e) {
+                logger.debug("Ignoring failure of an artifact that was opened ahead of an archive that failed", e);
+            } finally {
+                artifactsOpenedAheadPermits.release();
+            }
+        }
+    }
+
+    private static ExecutorService createArtifactOpenExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "galasa-ras-archive-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // Idle threads are allowed to end, as there is nowhere to shut the pool down
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_ARTIFACTS_OPENED_AHEAD, MAX_ARTIFACTS_OPENED_AHEAD, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Lets content be streamed into the current zip entry by code that closes the stream it is given,
+     * without closing the zip file as well
+     */
+    private static class EntryOutputStream extends OutputStream {
+        private final OutputStream zipStream;
+
+        EntryOutputStream(OutputStream zipStream) {
+            this.zipStream = zipStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            zipStream.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            zipStream.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            zipStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            zipStream.flush();
+        }
+    }
+}
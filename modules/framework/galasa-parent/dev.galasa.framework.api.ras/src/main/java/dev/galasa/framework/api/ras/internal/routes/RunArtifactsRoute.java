@@ -82,9 +82,19 @@ public abstract class RunArtifactsRoute extends RunsRoute {
     public JsonArray getArtifacts(IRunResult run) throws ResultArchiveStoreException, IOException {
         run.loadArtifacts();
 
-        JsonArray artifactRecords = new JsonArray();
         List<Path> artifactPaths = getArtifactPaths(run.getArtifactsRoot(), new ArrayList<>());
+        return getArtifactsAsJson(artifactPaths);
+    }
 
+    /**
+     * Gets a JsonArray describing the given artifacts, in the same format as {@link #getArtifacts(IRunResult)}
+     *
+     * @param artifactPaths - the paths of artifacts that have already been listed
+     * @return a JSON array describing the artifacts
+     * @throws IOException
+     */
+    protected JsonArray getArtifactsAsJson(List<Path> artifactPaths) throws IOException {
+        JsonArray artifactRecords = new JsonArray();
         for (Path artifactPath : artifactPaths) {
 
             String contentType = fileSystem.probeContentType(artifactPath);
@@ -20,6 +20,7 @@ import dev.galasa.framework.api.common.InternalServletException;
 import dev.galasa.framework.api.common.QueryParameters;
 import dev.galasa.framework.api.common.ResponseBuilder;
 import dev.galasa.framework.api.common.ServletError;
+import dev.galasa.framework.api.common.SupportedQueryParameterNames;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IRunResult;
@@ -28,9 +29,17 @@ import dev.galasa.framework.spi.rbac.RBACException;
 
 /**
  * Implementation to retrieve the run log for a given run based on its runId.
+ *
+ * The optional 'tail' query parameter asks for only the last N lines of the log,
+ * so that the end of a long or still running test can be shown cheaply.
  */
 public class RunLogRoute extends RunsRoute {
 
+    public static final String QUERY_PARAMETER_TAIL = "tail";
+    public static final SupportedQueryParameterNames SUPPORTED_QUERY_PARAMETER_NAMES = new SupportedQueryParameterNames(
+        QUERY_PARAMETER_TAIL
+    );
+
     protected static final String path = "\\/runs\\/([A-Za-z0-9.\\-=]+)\\/runlog\\/?";
 
     public RunLogRoute(ResponseBuilder responseBuilder, IFramework framework) throws RBACException {
@@ -38,6 +47,11 @@ public class RunLogRoute extends RunsRoute {
         super(responseBuilder, path, framework);
     }
 
+    @Override
+    public SupportedQueryParameterNames getSupportedQueryParameterNames() {
+        return SUPPORTED_QUERY_PARAMETER_NAMES;
+    }
+
     @Override
     public HttpServletResponse handleGetRequest(String pathInfo, QueryParameters queryParams, HttpRequestContext requestContext, HttpServletResponse res) throws ServletException, IOException, FrameworkException {
         HttpServletRequest request = requestContext.getRequest();
@@ -45,8 +59,10 @@ public class RunLogRoute extends RunsRoute {
         matcher.matches();
         String runId = matcher.group(1);
 
+        int tailLineCount = getTailLineCount(queryParams);
+
         try {
-            streamRunlog(runId, request, res);
+            streamRunlog(runId, tailLineCount, request, res);
             return res;
         } catch (ResultArchiveStoreException e) {
             ServletError error = new ServletError(GAL5002_INVALID_RUN_ID, runId);
@@ -54,18 +70,31 @@ public class RunLogRoute extends RunsRoute {
         }
     }
 
+    private int getTailLineCount(QueryParameters queryParams) throws InternalServletException {
+        int tailLineCount = 0;
+        if (queryParams.isParameterPresent(QUERY_PARAMETER_TAIL)) {
+            tailLineCount = queryParams.getSingleInt(QUERY_PARAMETER_TAIL, 0);
+            if (tailLineCount <= 0) {
+                ServletError error = new ServletError(GAL5472_INVALID_RUN_LOG_TAIL_LINE_COUNT, Integer.toString(tailLineCount));
+                throw new InternalServletException(error, HttpServletResponse.SC_BAD_REQUEST);
+            }
+        }
+        return tailLineCount;
+    }
+
     /**
      * Stream the run log directly to the response output stream.
      * This avoids loading the entire log into memory, which is critical for large logs.
      *
      * @param runId The ID of the run to get the log for
+     * @param tailLineCount The number of lines to return from the end of the log, or 0 for the whole log
      * @param request The HTTP request
      * @param res The HTTP response to stream to
      * @throws ResultArchiveStoreException if there's an error accessing the log
      * @throws InternalServletException if the run is not found
      * @throws IOException if there's an error writing to the response
      */
-    private void streamRunlog(String runId, HttpServletRequest request, HttpServletResponse res)
+    private void streamRunlog(String runId, int tailLineCount, HttpServletRequest request, HttpServletResponse res)
     		throws ResultArchiveStoreException, InternalServletException, IOException {
 
     	IRunResult run = getRunByRunId(runId);
@@ -84,7 +113,11 @@ public class RunLogRoute extends RunsRoute {
 
     	// Stream the log content directly to the response
     	try (OutputStream outStream = res.getOutputStream()) {
-    		run.streamLog(outStream);
+    		if (tailLineCount > 0) {
+    			run.streamLogTail(outStream, tailLineCount);
+    		} else {
+    			run.streamLog(outStream);
+    		}
     	}
     }
 }
\ No newline at end of file
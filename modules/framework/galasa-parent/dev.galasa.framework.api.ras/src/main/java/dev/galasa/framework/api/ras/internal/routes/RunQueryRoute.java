@@ -17,7 +17,9 @@ import dev.galasa.framework.api.common.SupportedQueryParameterNames;
 import dev.galasa.framework.api.common.Environment;
 import dev.galasa.framework.api.common.QueryParameters;
 import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.api.ras.internal.common.MergedRunsPageQuery;
 import dev.galasa.framework.api.ras.internal.common.RasDetailsQueryParams;
+import dev.galasa.framework.api.ras.internal.common.RasQueryExecutor;
 import dev.galasa.framework.api.ras.internal.common.RasQueryParameters;
 import dev.galasa.framework.api.ras.internal.common.RunResultUtility;
 import dev.galasa.framework.api.ras.internal.common.UserQueryContext;
@@ -101,7 +103,13 @@ public class RunQueryRoute extends RunsRoute {
 
 	private final RunResultUtility runResultUtility;
 
+	private final RasQueryExecutor queryExecutor;
+
 	public RunQueryRoute(ResponseBuilder responseBuilder, IFramework framework, Environment env) throws RBACException {
+		this(responseBuilder, framework, env, new RasQueryExecutor(env));
+	}
+
+	public RunQueryRoute(ResponseBuilder responseBuilder, IFramework framework, Environment env, RasQueryExecutor queryExecutor) throws RBACException {
 		/*
 		 * Regex to match endpoints:
 		 * -> /ras/runs
@@ -111,6 +119,7 @@ public class RunQueryRoute extends RunsRoute {
 		super(responseBuilder, path, framework);
 
 		this.runResultUtility = new RunResultUtility(env);
+		this.queryExecutor = queryExecutor;
 	}
 
 	@Override
@@ -158,8 +167,7 @@ public class RunQueryRoute extends RunsRoute {
 	
 				// Return empty results page if no matching requestor/user was found
 				if (userQueryContext.shouldReturnEmptyResultsPage()) {
-					RasRunResultPage emptyPage = new RasRunResultPage(new ArrayList<>());
-					responseJson = buildResponseBody(emptyPage, queryParams.getPageSize(), isMethodDetailsExcluded);
+					responseJson = buildResponseBody(new ArrayList<>(), queryParams.getPageSize(), null);
 				} else {
 					// Handle criteria-based queries
 					responseJson = getRunsJsonByCriteria(queryParams, userQueryContext, isMethodDetailsExcluded, sortValue);
@@ -318,55 +326,57 @@ public class RunQueryRoute extends RunsRoute {
         return gson.toJson(pageJson);
 	}
 
-	private String buildResponseBody(RasRunResultPage runsPage, int pageSize, boolean isMethodDetailsExcluded) throws ResultArchiveStoreException {
-        List<RasRunResult> runs = convertRunsToRunResults(runsPage.getRuns(), isMethodDetailsExcluded);
+	private String buildResponseBody(RasRunResultPage runsPage, int pageSize, boolean isMethodDetailsExcluded, long deadlineNanos) throws ResultArchiveStoreException {
+        List<RasRunResult> runs = convertRunsToRunResults(runsPage.getRuns(), isMethodDetailsExcluded, deadlineNanos);
         return buildResponseBody(runs, pageSize, runsPage.getNextCursor());
 	}
 
 	private RasRunResultPage getRunsPage(String pageCursor, int maxResults, RasSortField primarySort,
-			List<IRasSearchCriteria> critList) throws ResultArchiveStoreException {
+			List<IRasSearchCriteria> critList, long deadlineNanos) throws ResultArchiveStoreException {
 
 		IRasSearchCriteria[] criteria = new IRasSearchCriteria[critList.size()];
 
 		critList.toArray(criteria);
 
-		// Collect all the runs from all the RAS stores into a single list
-		List<IRunResult> runs = new ArrayList<>();
-		String nextCursor = null;
-		for (IResultArchiveStoreDirectoryService directoryService : getFramework().getResultArchiveStore()
-				.getDirectoryServices()) {
-			RasRunResultPage runsPage = directoryService.getRunsPage(maxResults, primarySort, pageCursor, criteria);
-			runs.addAll(runsPage.getRuns());
-
-			String nextRunsToken = runsPage.getNextCursor();
-			if (nextRunsToken != null) {
-				nextCursor = nextRunsToken;
-			}
-		}
+		List<IResultArchiveStoreDirectoryService> directoryServices = getFramework().getResultArchiveStore().getDirectoryServices();
 
-		return new RasRunResultPage(runs, nextCursor);
+		RasRunResultPage runsPage;
+		if (directoryServices.size() == 1) {
+			// A single store's page is already sorted and its cursor can be handed straight back
+			runsPage = queryExecutor.queryAll(directoryServices,
+				directoryService -> directoryService.getRunsPage(maxResults, primarySort, pageCursor, criteria),
+				deadlineNanos).get(0);
+		} else {
+			// Query all the stores at once and merge their pages into one
+			MergedRunsPageQuery mergedQuery = new MergedRunsPageQuery(maxResults, primarySort, criteria);
+			List<MergedRunsPageQuery.StorePage> storePages = queryExecutor.queryAll(
+				mergedQuery.getStoresToQuery(directoryServices, pageCursor),
+				directoryService -> mergedQuery.getStorePage(directoryService, pageCursor),
+				deadlineNanos);
+			runsPage = mergedQuery.merge(storePages);
+		}
+		return runsPage;
 	}
 
-	private List<IRunResult> getRunsByRunName(String runName) throws ResultArchiveStoreException {
+	private List<IRunResult> getRunsByRunName(String runName, long deadlineNanos) throws ResultArchiveStoreException {
 
 		List<IRunResult> runs = new ArrayList<>();
-		for (IResultArchiveStoreDirectoryService directoryService : getFramework().getResultArchiveStore()
-				.getDirectoryServices()) {
-			List<IRunResult> matchingRuns = directoryService.getRunsByRunName(runName);
+		List<List<IRunResult>> runsFromEachStore = queryExecutor.queryAll(
+			getFramework().getResultArchiveStore().getDirectoryServices(),
+			directoryService -> directoryService.getRunsByRunName(runName),
+			deadlineNanos);
+
+		for (List<IRunResult> matchingRuns : runsFromEachStore) {
 			runs.addAll(matchingRuns);
 		}
 		return runs;
 	}
 
-	private List<RasRunResult> convertRunsToRunResults(List<IRunResult> runs, boolean isMethodDetailsExcluded)
+	private List<RasRunResult> convertRunsToRunResults(List<IRunResult> runs, boolean isMethodDetailsExcluded, long deadlineNanos)
 			throws ResultArchiveStoreException {
 
 		// Convert each result to the required format
-		List<RasRunResult> runResults = new ArrayList<>();
-		for (IRunResult run : runs) {
-			runResults.add(runResultUtility.toRunResult(run, isMethodDetailsExcluded));
-		}
-		return runResults;
+		return queryExecutor.convertAll(runs, run -> runResultUtility.toRunResult(run, isMethodDetailsExcluded), deadlineNanos);
 	}
 
 	private String getRunsJsonByRunIds(List<String> runIds, boolean isMethodDetailsExcluded,
@@ -431,16 +441,19 @@ public class RunQueryRoute extends RunsRoute {
 
 		String responseJson = null;
 
+		// All the work to answer the query has to fit within the query timeout
+		long deadlineNanos = queryExecutor.getDeadlineNanos();
+
 		// Handle runName as a special case
 		if (runName != null) {
-			List<RasRunResult> runs = convertRunsToRunResults(getRunsByRunName(runName), isMethodDetailsExcluded);
+			List<RasRunResult> runs = convertRunsToRunResults(getRunsByRunName(runName, deadlineNanos), isMethodDetailsExcluded, deadlineNanos);
 			runs = sortResults(runs, queryParams, sortValue);
 			responseJson = buildResponseBody(runs, pageSize, null);
 		} else {
 			// Handle general criteria-based queries
 			List<IRasSearchCriteria> criteria = getCriteria(queryParams, userQueryContext.getMatchedRequestor(), userQueryContext.getMatchedUser());
-			RasRunResultPage runsPage = getRunsPage(pageCursor, pageSize, formatSortField(sortValue), criteria);
-			responseJson = buildResponseBody(runsPage, pageSize, isMethodDetailsExcluded);
+			RasRunResultPage runsPage = getRunsPage(pageCursor, pageSize, formatSortField(sortValue), criteria, deadlineNanos);
+			responseJson = buildResponseBody(runsPage, pageSize, isMethodDetailsExcluded, deadlineNanos);
 		}
 
 		return responseJson;
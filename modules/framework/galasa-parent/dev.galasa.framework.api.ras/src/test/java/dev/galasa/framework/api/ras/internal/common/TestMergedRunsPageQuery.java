@@ -0,0 +1,256 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockResultArchiveStoreDirectoryService;
+import dev.galasa.framework.mocks.MockRunResult;
+import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.IRasSearchCriteria;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSortField;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+
+public class TestMergedRunsPageQuery {
+
+    /**
+     * A store that hands out its runs a page at a time, in the order they were given,
+     * using the position of the next run as its cursor
+     */
+    class MockPagingDirectoryService extends MockResultArchiveStoreDirectoryService {
+
+        private final List<IRunResult> runs;
+        public List<String> requestedCursors = new ArrayList<>();
+
+        public MockPagingDirectoryService(String name, List<IRunResult> runs) {
+            super(runs);
+            this.runs = runs;
+            setName(name);
+        }
+
+        @Override
+        public @NotNull RasRunResultPage getRunsPage(int maxResults, RasSortField primarySort, String pageCursor,
+                @NotNull IRasSearchCriteria... searchCriterias) throws ResultArchiveStoreException {
+            requestedCursors.add(pageCursor);
+            int pageStart = (pageCursor == null) ? 0 : Integer.parseInt(pageCursor);
+            int pageEnd = Math.min(pageStart + maxResults, runs.size());
+
+            String nextCursor = null;
+            if (pageEnd < runs.size()) {
+                nextCursor = Integer.toString(pageEnd);
+            }
+            return new RasRunResultPage(new ArrayList<>(runs.subList(pageStart, pageEnd)), nextCursor);
+        }
+    }
+
+    /**
+     * A run whose summary can be read without reading its full test structure
+     */
+    class MockSummarisedRunResult extends MockRunResult {
+
+        private final TestStructure summary;
+        public int testStructureReadCount = 0;
+
+        public MockSummarisedRunResult(String runId, TestStructure summary) {
+            super(runId, summary, null, "");
+            this.summary = summary;
+        }
+
+        @Override
+        public TestStructure getTestStructure() throws ResultArchiveStoreException {
+            testStructureReadCount++;
+            return super.getTestStructure();
+        }
+
+        @Override
+        public TestStructure getSummaryTestStructure() {
+            return summary;
+        }
+    }
+
+    private MockSummarisedRunResult createSummarisedRun(int queuedSecond) {
+        TestStructure summary = new TestStructure();
+        summary.setQueued(Instant.ofEpochSecond(queuedSecond));
+        return new MockSummarisedRunResult("run" + queuedSecond, summary);
+    }
+
+    private List<IRunResult> createRuns(String runNamePrefix, int... queuedSeconds) {
+        List<IRunResult> runs = new ArrayList<>();
+        for (int queuedSecond : queuedSeconds) {
+            TestStructure testStructure = new TestStructure();
+            testStructure.setRunName(runNamePrefix + queuedSecond);
+            testStructure.setQueued(Instant.ofEpochSecond(queuedSecond));
+            runs.add(new MockRunResult(runNamePrefix + queuedSecond, testStructure, null, ""));
+        }
+        return runs;
+    }
+
+    private List<String> getRunNames(RasRunResultPage page) throws ResultArchiveStoreException {
+        List<String> runNames = new ArrayList<>();
+        for (IRunResult run : page.getRuns()) {
+            runNames.add(run.getTestStructure().getRunName());
+        }
+        return runNames;
+    }
+
+    private RasRunResultPage getMergedPage(List<IResultArchiveStoreDirectoryService> stores, int maxResults,
+            RasSortField sortField, String pageCursor) throws ResultArchiveStoreException {
+        MergedRunsPageQuery query = new MergedRunsPageQuery(maxResults, sortField);
+        List<MergedRunsPageQuery.StorePage> storePages = new ArrayList<>();
+        for (IResultArchiveStoreDirectoryService store : query.getStoresToQuery(stores, pageCursor)) {
+            storePages.add(query.getStorePage(store, pageCursor));
+        }
+        return query.merge(storePages);
+    }
+
+    @Test
+    public void testPagesFromEachStoreAreMergedInSortOrder() throws Exception {
+        // Given...
+        List<IResultArchiveStoreDirectoryService> stores = List.of(
+            new MockPagingDirectoryService("couchdb", createRuns("C", 9, 6, 5, 1)),
+            new MockPagingDirectoryService("local", createRuns("L", 8, 7, 4, 3)));
+        RasSortField sortField = new RasSortField("queued", "desc");
+
+        // When...
+        RasRunResultPage page = getMergedPage(stores, 3, sortField, null);
+
+        // Then...
+        assertThat(getRunNames(page)).containsExactly("C9", "L8", "L7");
+        assertThat(page.getNextCursor()).startsWith(MergedRunsPageQuery.CURSOR_PREFIX);
+    }
+
+    @Test
+    public void testPagesAreMergedWithoutReadingTheFullTestStructureOfTheRuns() throws Exception {
+        // Given...
+        List<MockSummarisedRunResult> couchdbRuns = List.of(createSummarisedRun(9), createSummarisedRun(6));
+        List<MockSummarisedRunResult> localRuns = List.of(createSummarisedRun(8), createSummarisedRun(7));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(
+            new MockPagingDirectoryService("couchdb", new ArrayList<>(couchdbRuns)),
+            new MockPagingDirectoryService("local", new ArrayList<>(localRuns)));
+
+        // When...
+        RasRunResultPage page = getMergedPage(stores, 3, new RasSortField("queued", "desc"), null);
+
+        // Then...
+        List<String> runIds = new ArrayList<>();
+        for (IRunResult run : page.getRuns()) {
+            runIds.add(run.getRunId());
+        }
+        assertThat(runIds).containsExactly("run9", "run8", "run7");
+        assertThat(couchdbRuns).allMatch(run -> run.testStructureReadCount == 0);
+        assertThat(localRuns).allMatch(run -> run.testStructureReadCount == 0);
+    }
+
+    @Test
+    public void testFollowingTheCursorReturnsEveryRunOnceInSortOrder() throws Exception {
+        // Given...
+        MockPagingDirectoryService couchdbStore = new MockPagingDirectoryService("couchdb", createRuns("C", 9, 6, 5, 1));
+        MockPagingDirectoryService localStore = new MockPagingDirectoryService("local", createRuns("L", 8, 7, 4, 3));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(couchdbStore, localStore);
+        RasSortField sortField = new RasSortField("queued", "desc");
+
+        // When...
+        List<String> runNames = new ArrayList<>();
+        int pageCount = 0;
+        String pageCursor = null;
+        do {
+            RasRunResultPage page = getMergedPage(stores, 3, sortField, pageCursor);
+            runNames.addAll(getRunNames(page));
+            pageCursor = page.getNextCursor();
+            pageCount++;
+        } while (pageCursor != null);
+
+        // Then...
+        assertThat(runNames).containsExactly("C9", "L8", "L7", "C6", "C5", "L4", "L3", "C1");
+        assertThat(pageCount).isEqualTo(3);
+    }
+
+    @Test
+    public void testStoresWithNoMoreRunsAreNotQueriedAgain() throws Exception {
+        // Given...
+        MockPagingDirectoryService couchdbStore = new MockPagingDirectoryService("couchdb", createRuns("C", 9, 8, 7, 6));
+        MockPagingDirectoryService localStore = new MockPagingDirectoryService("local", createRuns("L", 10));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(couchdbStore, localStore);
+        RasSortField sortField = new RasSortField("queued", "desc");
+
+        RasRunResultPage firstPage = getMergedPage(stores, 2, sortField, null);
+
+        // When...
+        RasRunResultPage secondPage = getMergedPage(stores, 2, sortField, firstPage.getNextCursor());
+
+        // Then...
+        assertThat(getRunNames(firstPage)).containsExactly("L10", "C9");
+        assertThat(getRunNames(secondPage)).containsExactly("C8", "C7");
+        assertThat(localStore.requestedCursors).containsExactly((String) null);
+
+        // The rest of the store's first page didn't fill the second merged page, so its next page was fetched too
+        assertThat(couchdbStore.requestedCursors).containsExactly(null, null, "2");
+    }
+
+    @Test
+    public void testAllRunsAreReturnedWhenThePageSizeShrinksBetweenPages() throws Exception {
+        // Given...
+        MockPagingDirectoryService couchdbStore = new MockPagingDirectoryService("couchdb", createRuns("C", 9, 7, 5, 3));
+        MockPagingDirectoryService localStore = new MockPagingDirectoryService("local", createRuns("L", 8, 6));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(couchdbStore, localStore);
+        RasSortField sortField = new RasSortField("queued", "desc");
+
+        RasRunResultPage firstPage = getMergedPage(stores, 4, sortField, null);
+
+        // When...
+        RasRunResultPage secondPage = getMergedPage(stores, 1, sortField, firstPage.getNextCursor());
+        RasRunResultPage thirdPage = getMergedPage(stores, 1, sortField, secondPage.getNextCursor());
+
+        // Then...
+        assertThat(getRunNames(firstPage)).containsExactly("C9", "L8", "C7", "L6");
+        assertThat(getRunNames(secondPage)).containsExactly("C5");
+        assertThat(getRunNames(thirdPage)).containsExactly("C3");
+        assertThat(thirdPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testCursorNotCreatedByMergingIsPassedToEveryStore() throws Exception {
+        // Given...
+        MockPagingDirectoryService couchdbStore = new MockPagingDirectoryService("couchdb", createRuns("C", 9, 6));
+        MockPagingDirectoryService localStore = new MockPagingDirectoryService("local", createRuns("L", 8, 7));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(couchdbStore, localStore);
+
+        // When...
+        RasRunResultPage page = getMergedPage(stores, 10, new RasSortField("queued", "desc"), "1");
+
+        // Then...
+        assertThat(getRunNames(page)).containsExactly("L7", "C6");
+        assertThat(couchdbStore.requestedCursors).containsExactly("1");
+        assertThat(localStore.requestedCursors).containsExactly("1");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testInvalidMergedCursorThrowsError() throws Exception {
+        // Given...
+        List<IResultArchiveStoreDirectoryService> stores = List.of(
+            new MockPagingDirectoryService("couchdb", createRuns("C", 9)),
+            new MockPagingDirectoryService("local", createRuns("L", 8)));
+        MergedRunsPageQuery query = new MergedRunsPageQuery(10, null);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> query.getStoresToQuery(stores, MergedRunsPageQuery.CURSOR_PREFIX + "not*base64"));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ResultArchiveStoreException.class).hasMessageContaining("Invalid page cursor");
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockResultArchiveStoreDirectoryService;
+import dev.galasa.framework.mocks.MockRunResult;
+import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+
+public class TestRasQueryExecutor {
+
+    private ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    private MockResultArchiveStoreDirectoryService createStore(String name) {
+        MockResultArchiveStoreDirectoryService store = new MockResultArchiveStoreDirectoryService(new ArrayList<>());
+        store.setName(name);
+        return store;
+    }
+
+    private List<IRunResult> createRuns(int runCount) {
+        List<IRunResult> runs = new ArrayList<>();
+        for (int i = 0; i < runCount; i++) {
+            TestStructure testStructure = new TestStructure();
+            testStructure.setRunName("U" + i);
+            runs.add(new MockRunResult("run" + i, testStructure, null, ""));
+        }
+        return runs;
+    }
+
+    @Test
+    public void testQueriesRunAtTheSameTimeAndResultsAreInStoreOrder() throws Exception {
+        // Given...
+        RasQueryExecutor queryExecutor = new RasQueryExecutor(executor, 4, 10000);
+        List<IResultArchiveStoreDirectoryService> stores = List.of(createStore("store1"), createStore("store2"), createStore("store3"));
+
+        // Each query waits until all the queries have started, so they can only finish if they run at the same time
+        CountDownLatch allStarted = new CountDownLatch(stores.size());
+
+        // When...
+        List<String> results = queryExecutor.queryAll(stores, store -> {
+            allStarted.countDown();
+            try {
+                allStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return store.getName();
+        }, queryExecutor.getDeadlineNanos());
+
+        // Then...
+        assertThat(allStarted.getCount()).isEqualTo(0);
+        assertThat(results).containsExactly("store1", "store2", "store3");
+    }
+
+    @Test
+    public void testQueryThatTakesTooLongThrowsError() throws Exception {
+        // Given...
+        RasQueryExecutor queryExecutor = new RasQueryExecutor(executor, 4, 50);
+        List<IResultArchiveStoreDirectoryService> stores = List.of(createStore("fast"), createStore("slow"));
+        CountDownLatch neverReleased = new CountDownLatch(1);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> queryExecutor.queryAll(stores, store -> {
+            if (store.getName().equals("slow")) {
+                try {
+                    neverReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return store.getName();
+        }, queryExecutor.getDeadlineNanos()));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ResultArchiveStoreException.class).hasMessageContaining("'slow'");
+    }
+
+    @Test
+    public void testQueryThatFailsThrowsTheStoreError() throws Exception {
+        // Given...
+        RasQueryExecutor queryExecutor = new RasQueryExecutor(executor, 4, 10000);
+        List<IResultArchiveStoreDirectoryService> stores = List.of(createStore("good"), createStore("bad"));
+
+        // When...
+        Throwable thrown = catchThrowable(() -> queryExecutor.queryAll(stores, store -> {
+            if (store.getName().equals("bad")) {
+                throw new ResultArchiveStoreException("simulated RAS failure");
+            }
+            return store.getName();
+        }, queryExecutor.getDeadlineNanos()));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ResultArchiveStoreException.class).hasMessage("simulated RAS failure");
+    }
+
+    @Test
+    public void testConvertedRunsAreInTheSameOrderAsTheRuns() throws Exception {
+        // Given...
+        RasQueryExecutor queryExecutor = new RasQueryExecutor(executor, 4, 10000);
+        List<IRunResult> runs = createRuns(10);
+
+        // When...
+        List<String> runNames = queryExecutor.convertAll(runs, run -> run.getTestStructure().getRunName(),
+            queryExecutor.getDeadlineNanos());
+
+        // Then...
+        assertThat(runNames).containsExactly("U0", "U1", "U2", "U3", "U4", "U5", "U6", "U7", "U8", "U9");
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.routes;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.framework.api.common.mocks.MockFramework;
+import dev.galasa.framework.api.common.mocks.MockHttpServletRequest;
+import dev.galasa.framework.api.common.mocks.MockServletOutputStream;
+import dev.galasa.framework.api.ras.internal.RasServlet;
+import dev.galasa.framework.api.ras.internal.RasServletTest;
+import dev.galasa.framework.api.ras.internal.mocks.MockRasServletEnvironment;
+import dev.galasa.framework.mocks.MockFileSystem;
+import dev.galasa.framework.mocks.MockFileSystemProvider;
+import dev.galasa.framework.mocks.MockPath;
+import dev.galasa.framework.spi.IRunResult;
+
+public class TestRunArchiveRoute extends RasServletTest {
+
+	@Before
+	public void setUp() {
+		mockFileSystem = new MockFileSystem();
+	}
+
+	/**
+	 * A file system which, like the CouchDB RAS, can only have a few artifacts open at once,
+	 * and fails to open an artifact if it has to wait too long for one of them to be closed
+	 */
+	class ConnectionLimitedFileSystem extends MockFileSystem {
+		static final int MAX_CONNECTIONS = 5;
+
+		private final Semaphore connections = new Semaphore(MAX_CONNECTIONS);
+
+		@Override
+		public FileSystemProvider provider() {
+			return new MockFileSystemProvider(this) {
+				@Override
+				public InputStream newInputStream(Path path, OpenOption... options) throws IOException {
+					try {
+						if (!connections.tryAcquire(5, TimeUnit.SECONDS)) {
+							throw new IOException("Timed out waiting for a connection to open " + path);
+						}
+						// The time taken for the RAS to start sending the artifact
+						Thread.sleep(5);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException();
+					}
+					return new FilterInputStream(super.newInputStream(path, options)) {
+						@Override
+						public void close() throws IOException {
+							super.close();
+							connections.release();
+						}
+					};
+				}
+			};
+		}
+	}
+
+	private Map<String, String> readZipEntries(ServletOutputStream outStream) throws Exception {
+		Map<String, String> zipEntries = new LinkedHashMap<>();
+		byte[] zipBytes = ((MockServletOutputStream) outStream).toByteArray();
+		try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
+			ZipEntry entry = zipStream.getNextEntry();
+			while (entry != null) {
+				zipEntries.put(entry.getName(), new String(zipStream.readAllBytes(), StandardCharsets.UTF_8));
+				entry = zipStream.getNextEntry();
+			}
+		}
+		return zipEntries;
+	}
+
+	@Test
+	public void testPathRegexExpectedPathReturnsTrue() throws Exception {
+		//Given...
+		MockFramework mockFramework = new MockFramework();
+		Pattern expectedPath = new RunArchiveRoute(null, null, mockFramework).getPathRegex();
+
+		//Then...
+		assertThat(expectedPath.matcher("/runs/cdb-efgh_5678.run/archive").matches()).isTrue();
+		assertThat(expectedPath.matcher("/runs/cdb-efgh_5678.run/archive/").matches()).isTrue();
+		assertThat(expectedPath.matcher("/runs/cdb-efgh_5678.run/archive/run.log").matches()).isFalse();
+		assertThat(expectedPath.matcher("/runs//archive").matches()).isFalse();
+	}
+
+	@Test
+	public void testRunArchiveContainsStructureLogAndAllArtifacts() throws Exception {
+		//Given...
+		String runId = "xxxxx678xxxxx";
+		String runName = "testA";
+		MockPath mockArtifactsPath = new MockPath("/" + runName, mockFileSystem);
+		List<Path> artifactPaths = List.of(
+			new MockPath(mockArtifactsPath + "/term001.txt", mockFileSystem),
+			new MockPath(mockArtifactsPath + "/term002.txt", mockFileSystem),
+			new MockPath(mockArtifactsPath + "/term003.txt", mockFileSystem),
+			new MockPath(mockArtifactsPath + "/term004.txt", mockFileSystem),
+			new MockPath(mockArtifactsPath + "/term005.txt", mockFileSystem),
+			new MockPath(mockArtifactsPath + "/term006.txt", mockFileSystem)
+		);
+
+		// More artifacts than are read ahead, so some are only opened once earlier ones are copied
+		assertThat(artifactPaths.size()).isGreaterThan(RunArchiveRoute.ARTIFACT_READ_AHEAD);
+
+		mockFileSystem.createDirectories(mockArtifactsPath);
+		for (Path artifactPath : artifactPaths) {
+			mockFileSystem.createFile(artifactPath);
+			mockFileSystem.setFileContents(artifactPath, "contents of " + artifactPath.getFileName());
+		}
+
+		List<IRunResult> mockInputRunResults = generateTestData(runId, runName, "line 1\nline 2");
+
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(new HashMap<>(), "/runs/" + runId + "/archive");
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req, resp);
+
+		//Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getContentType()).isEqualTo("application/zip");
+		assertThat(resp.getHeader("Content-Disposition")).isEqualTo("attachment; filename=\"testA.zip\"");
+
+		Map<String, String> zipEntries = readZipEntries(outStream);
+		// The root files come first, then the artifacts in the order the RAS lists them
+		List<String> entryNames = List.copyOf(zipEntries.keySet());
+		assertThat(entryNames.subList(0, 3)).containsExactly("testA/structure.json", "testA/artifacts.json", "testA/run.log");
+		assertThat(entryNames.subList(3, entryNames.size())).containsExactlyInAnyOrder(
+			"testA/artifacts/testA/term001.txt",
+			"testA/artifacts/testA/term002.txt",
+			"testA/artifacts/testA/term003.txt",
+			"testA/artifacts/testA/term004.txt",
+			"testA/artifacts/testA/term005.txt",
+			"testA/artifacts/testA/term006.txt"
+		);
+		assertThat(zipEntries.get("testA/structure.json")).contains("\"runName\": \"testA\"");
+		assertThat(zipEntries.get("testA/artifacts.json")).contains("\"path\": \"/artifacts/testA/term006.txt\"");
+		assertThat(zipEntries.get("testA/run.log")).isEqualTo("line 1\nline 2");
+		assertThat(zipEntries.get("testA/artifacts/testA/term001.txt")).isEqualTo("contents of term001.txt");
+		assertThat(zipEntries.get("testA/artifacts/testA/term006.txt")).isEqualTo("contents of term006.txt");
+	}
+
+	@Test
+	public void testConcurrentRunArchivesDoNotUseUpTheRasConnections() throws Exception {
+		//Given...
+		mockFileSystem = new ConnectionLimitedFileSystem();
+		String runId = "xxxxx678xxxxx";
+		String runName = "testC";
+		MockPath mockArtifactsPath = new MockPath("/" + runName, mockFileSystem);
+		mockFileSystem.createDirectories(mockArtifactsPath);
+		for (int i = 1; i <= 8; i++) {
+			Path artifactPath = new MockPath(mockArtifactsPath + "/term00" + i + ".txt", mockFileSystem);
+			mockFileSystem.createFile(artifactPath);
+			mockFileSystem.setFileContents(artifactPath, "contents of " + artifactPath.getFileName());
+		}
+		List<IRunResult> mockInputRunResults = generateTestData(runId, runName, "line 1");
+
+		// More downloads than the RAS has connections, each reading ahead as far as it can
+		int downloadCount = ConnectionLimitedFileSystem.MAX_CONNECTIONS + 1;
+		List<MockRasServletEnvironment> downloads = new ArrayList<>();
+		for (int i = 0; i < downloadCount; i++) {
+			MockHttpServletRequest mockRequest = new MockHttpServletRequest(new HashMap<>(), "/runs/" + runId + "/archive");
+			downloads.add(new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem));
+		}
+
+		//When...
+		ExecutorService downloadExecutor = Executors.newFixedThreadPool(downloadCount);
+		try {
+			CountDownLatch startLatch = new CountDownLatch(1);
+			List<Future<?>> downloadFutures = new ArrayList<>();
+			for (MockRasServletEnvironment download : downloads) {
+				downloadFutures.add(downloadExecutor.submit(() -> {
+					startLatch.await();
+					RasServlet servlet = download.getServlet();
+					servlet.init();
+					servlet.doGet(download.getRequest(), download.getResponse());
+					return null;
+				}));
+			}
+			startLatch.countDown();
+			for (Future<?> downloadFuture : downloadFutures) {
+				downloadFuture.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			downloadExecutor.shutdownNow();
+		}
+
+		//Then...
+		for (MockRasServletEnvironment download : downloads) {
+			HttpServletResponse resp = download.getResponse();
+			assertThat(resp.getStatus()).isEqualTo(200);
+			Map<String, String> zipEntries = readZipEntries(resp.getOutputStream());
+			assertThat(zipEntries).hasSize(3 + 8);
+			assertThat(zipEntries.get("testC/artifacts/testC/term008.txt")).isEqualTo("contents of term008.txt");
+		}
+	}
+
+	@Test
+	public void testRunArchiveForRunWithNoArtifactsContainsRootFiles() throws Exception {
+		//Given...
+		String runId = "xxxxx678xxxxx";
+		String runName = "testB";
+		mockFileSystem.createDirectories(new MockPath("/" + runName, mockFileSystem));
+		List<IRunResult> mockInputRunResults = generateTestData(runId, runName, "only line");
+
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(new HashMap<>(), "/runs/" + runId + "/archive");
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req, resp);
+
+		//Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		Map<String, String> zipEntries = readZipEntries(outStream);
+		assertThat(zipEntries.keySet()).containsExactly("testB/structure.json", "testB/artifacts.json", "testB/run.log");
+		assertThat(zipEntries.get("testB/artifacts.json")).isEqualTo("[]");
+		assertThat(zipEntries.get("testB/run.log")).isEqualTo("only line");
+	}
+
+	@Test
+	public void testRunArchiveForUnknownRunReturnsNotFound() throws Exception {
+		//Given...
+		List<IRunResult> mockInputRunResults = generateTestData("xxxxx678xxxxx", "testA", null);
+
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(new HashMap<>(), "/runs/badRunId/archive");
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req, resp);
+
+		//Then...
+		assertThat(resp.getStatus()).isEqualTo(404);
+		assertThat(resp.getContentType()).isEqualTo("application/json");
+		checkErrorStructure(outStream.toString(), 5002, "GAL5002E", "badRunId");
+	}
+}
@@ -7,6 +7,10 @@ package dev.galasa.framework.api.ras.internal.routes;
 
 import org.junit.Test;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
 import dev.galasa.framework.api.ras.internal.RasServlet;
 import dev.galasa.framework.api.ras.internal.RasServletTest;
 import dev.galasa.framework.api.ras.internal.mocks.MockArchiveStore;
@@ -32,6 +36,7 @@ import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.rbac.Action;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.api.ras.internal.common.RunActionJson;
 
@@ -39,6 +44,7 @@ import static org.assertj.core.api.Assertions.*;
 import static dev.galasa.framework.spi.rbac.BuiltInAction.*;
 
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -349,6 +355,54 @@ public class TestRunDetailsRoute extends RasServletTest {
 		assertThat(resp.getContentType()).isEqualTo("application/json");
 	}
 
+	@Test
+    public void testRunWithPhaseTimingsReturnsTheTimings() throws Exception {
+		//Given..
+		String runId = "xx12345xx";
+		String runName = "U123";
+
+		TestStructure testStructure = new TestStructure();
+		testStructure.setRunName(runName);
+		testStructure.addPhaseTiming(new TestPhaseTiming(TestPhaseTiming.PHASE_BUNDLE_LOAD, null, Instant.EPOCH, 250, false));
+		TestPhaseTiming methodTiming = new TestPhaseTiming("Test", null, Instant.EPOCH, 1200, true);
+		methodTiming.setMethod("testCoreManager");
+		testStructure.addPhaseTiming(methodTiming);
+		testStructure.addPhaseTiming(new TestPhaseTiming(TestPhaseTiming.PHASE_PROVISION_GENERATE, "dev.galasa.core.manager.internal.CoreManagerImpl", Instant.EPOCH, 40, false));
+
+		List<IRunResult> mockInputRunResults = generateTestData(runId, testStructure, null);
+
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(new HashMap<String,String[]>(), "/runs/" + runId);
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req,resp);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		JsonArray phaseTimings = JsonParser.parseString(outStream.toString()).getAsJsonObject()
+			.getAsJsonObject("testStructure").getAsJsonArray("phaseTimings");
+		assertThat(phaseTimings).hasSize(3);
+
+		JsonObject bundleLoadTiming = phaseTimings.get(0).getAsJsonObject();
+		assertThat(bundleLoadTiming.get("phase").getAsString()).isEqualTo("bundleLoad");
+		assertThat(bundleLoadTiming.get("durationMillis").getAsLong()).isEqualTo(250);
+		assertThat(bundleLoadTiming.has("manager")).isFalse();
+
+		JsonObject methodJsonTiming = phaseTimings.get(1).getAsJsonObject();
+		assertThat(methodJsonTiming.get("method").getAsString()).isEqualTo("testCoreManager");
+		assertThat(methodJsonTiming.get("failed").getAsBoolean()).isTrue();
+
+		JsonObject managerTiming = phaseTimings.get(2).getAsJsonObject();
+		assertThat(managerTiming.get("phase").getAsString()).isEqualTo("provisionGenerate");
+		assertThat(managerTiming.get("manager").getAsString()).isEqualTo("dev.galasa.core.manager.internal.CoreManagerImpl");
+	}
+
     @Test
     public void testBadRunIdReturnsError() throws Exception {
 		//Given..
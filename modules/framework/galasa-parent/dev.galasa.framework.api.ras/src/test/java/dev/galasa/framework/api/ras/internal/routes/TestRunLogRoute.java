@@ -371,4 +371,80 @@ public class TestRunLogRoute extends RasServletTest {
 		checkErrorStructure(outStream.toString() , ServletErrorMessage.GAL5091_ERROR_RUN_NOT_FOUND_BY_ID.getTemplateNumber() , "GAL5091E", "badRunId" );
 		assertThat(resp.getContentType()).isEqualTo("application/json");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testRunLogWithTailQueryParameterReturnsLastLinesOK() throws Exception {
+		//Given..
+		String runId = "runA";
+		String runLog = "line1\nline2\nline3\nline4";
+		List<IRunResult> mockRunResults = generateTestData(runId, "testName", runLog);
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		parameterMap.put("tail", new String[] { "2" });
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parameterMap, "/runs/" + runId + "/runlog");
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockRunResults, mockRequest);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req,resp);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(outStream.toString()).isEqualTo("line3\nline4");
+		assertThat(resp.getContentType()).isEqualTo("text/plain");
+	}
+
+	@Test
+	public void testRunLogWithTailLongerThanLogReturnsWholeLogOK() throws Exception {
+		//Given..
+		String runId = "runA";
+		String runLog = "line1\nline2";
+		List<IRunResult> mockRunResults = generateTestData(runId, "testName", runLog);
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		parameterMap.put("tail", new String[] { "100" });
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parameterMap, "/runs/" + runId + "/runlog");
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockRunResults, mockRequest);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req,resp);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(outStream.toString()).isEqualTo(runLog);
+	}
+
+	@Test
+	public void testRunLogWithNegativeTailReturnsBadRequestError() throws Exception {
+		//Given..
+		String runId = "runA";
+		List<IRunResult> mockRunResults = generateTestData(runId, "testName", "line1");
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		parameterMap.put("tail", new String[] { "-5" });
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parameterMap, "/runs/" + runId + "/runlog");
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockRunResults, mockRequest);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+		ServletOutputStream outStream = resp.getOutputStream();
+
+		//When...
+		servlet.init();
+		servlet.doGet(req,resp);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(400);
+		checkErrorStructure(outStream.toString() , 5472 , "GAL5472E", "-5");
+		assertThat(resp.getContentType()).isEqualTo("application/json");
+	}
+}
@@ -56,5 +56,11 @@ public interface ISettings {
     public long getAllocatedTestRunTimeoutMinutes();
 
     public boolean isIstioEnabled();
+
+    /**
+     * @return the maximum number of test pods to create at the same time, or 0 to
+     * create them one at a time with the kube launch interval between each one
+     */
+    public int getMaxConcurrentPodLaunches();
 }
 
@@ -21,9 +21,9 @@ import dev.galasa.framework.k8s.controller.api.IKubernetesApiClient;
 import dev.galasa.framework.k8s.controller.api.KubernetesApiClient;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
 import dev.galasa.framework.k8s.controller.interruptedruns.RunInterruptHandler;
-import dev.galasa.framework.k8s.controller.scheduling.IPrioritySchedulingService;
 import dev.galasa.framework.k8s.controller.scheduling.PrioritySchedulingService;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.Environment;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
@@ -69,6 +69,7 @@ public class K8sController {
     private Health                   healthServer;
 
     private TestPodScheduler podScheduler;
+    private PrioritySchedulingService prioritySchedulingService;
     private ScheduledFuture<?> pollFuture;
 
     private RunPodCleanup runCleanup;
@@ -186,6 +187,9 @@ public class K8sController {
             // *** shutdown the scheduler
             shutdownExecutorService();
 
+            // *** Stop watching the DSS for queued runs
+            stopWatchingQueuedRuns();
+
             // *** Stop the metics server
             stopMetricsServer(metricsPort);
 
@@ -225,7 +229,12 @@ public class K8sController {
         runCleanup = new RunPodCleanup(kubeEngineFacade, frameworkRuns);
         schedulePodCleanup();
 
-        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(frameworkRuns, cps, rbacService, timeService, tagsService);
+        prioritySchedulingService = new PrioritySchedulingService(frameworkRuns, cps, rbacService, timeService, tagsService);
+        try {
+            prioritySchedulingService.startWatching(dss);
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to watch the DSS for queued runs, the queued runs will be re-read on every poll until it can be watched", e);
+        }
 
         podScheduler = new TestPodScheduler(env, dss, settings, kubeEngineFacade, timeService, prioritySchedulingService);
         schedulePoll();
@@ -245,6 +254,16 @@ public class K8sController {
         }
     }
 
+    private void stopWatchingQueuedRuns() {
+        if (this.prioritySchedulingService != null) {
+            try {
+                this.prioritySchedulingService.stopWatching();
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to stop watching the DSS for queued runs", e);
+            }
+        }
+    }
+
     private void stopHealthServer(int healthPort) {
         if (healthPort > 0) {
             this.healthServer.shutdown();
@@ -37,6 +37,9 @@ public class Settings implements Runnable, ISettings {
 
     public static final String IS_ISTIO_ENABLED_PROPERTY_NAME = "is_istio_enabled";
 
+    public static final int MAX_CONCURRENT_POD_LAUNCHES_DEFAULT = 0;
+    public static final String MAX_CONCURRENT_POD_LAUNCHES_PROPERTY_NAME = "max_concurrent_pod_launches";
+
     private final Log         logger                      = LogFactory.getLog(getClass());
 
     private final K8sController controller;
@@ -65,6 +68,10 @@ public class Settings implements Runnable, ISettings {
     // this number  of times.
     private int maxTestPodRetryLimit = MAX_TEST_POD_RETRY_LIMIT_DEFAULT ;
 
+    // How many test pods can be created at the same time. 0 launches the pods one at a time,
+    // with the kube launch interval between each one.
+    private int maxConcurrentPodLaunches = MAX_CONCURRENT_POD_LAUNCHES_DEFAULT;
+
     private String            encryptionKeysSecretName;
 
     private HashSet<String>   requiredCapabilities        = new HashSet<>();
@@ -234,6 +241,7 @@ public class Settings implements Runnable, ISettings {
 
         this.maxTestPodRetryLimit = updateProperty(configMapData, MAX_TEST_POD_RETRY_LIMIT_CONFIG_MAP_PROPERTY_NAME, MAX_TEST_POD_RETRY_LIMIT_DEFAULT, this.maxTestPodRetryLimit);
         this.isIstioEnabled = updateProperty(configMapData, IS_ISTIO_ENABLED_PROPERTY_NAME, false, this.isIstioEnabled);
+        this.maxConcurrentPodLaunches = updateProperty(configMapData, MAX_CONCURRENT_POD_LAUNCHES_PROPERTY_NAME, MAX_CONCURRENT_POD_LAUNCHES_DEFAULT, this.maxConcurrentPodLaunches);
     }
 
     private void setRunPoll(Map<String,String> configMapData) throws K8sControllerException {
@@ -423,4 +431,8 @@ public class Settings implements Runnable, ISettings {
     public boolean isIstioEnabled() {
         return this.isIstioEnabled;
     }
+
+    public int getMaxConcurrentPodLaunches() {
+        return this.maxConcurrentPodLaunches;
+    }
 }
@@ -12,6 +12,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,6 +35,7 @@ import io.kubernetes.client.openapi.models.V1Affinity;
 import io.kubernetes.client.openapi.models.V1ConfigMapVolumeSource;
 import io.kubernetes.client.openapi.models.V1Container;
 import io.kubernetes.client.openapi.models.V1EnvVar;
+import io.kubernetes.client.openapi.models.V1LabelSelector;
 import io.kubernetes.client.openapi.models.V1NodeAffinity;
 import io.kubernetes.client.openapi.models.V1NodeSelector;
 import io.kubernetes.client.openapi.models.V1NodeSelectorRequirement;
@@ -41,6 +47,7 @@ import io.kubernetes.client.openapi.models.V1PreferredSchedulingTerm;
 import io.kubernetes.client.openapi.models.V1ResourceRequirements;
 import io.kubernetes.client.openapi.models.V1SecretVolumeSource;
 import io.kubernetes.client.openapi.models.V1Toleration;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
 import io.kubernetes.client.openapi.models.V1Volume;
 import io.kubernetes.client.openapi.models.V1VolumeMount;
 import io.prometheus.client.Counter;
@@ -63,6 +70,8 @@ public class TestPodScheduler implements Runnable {
     private static final String CREDS_ENV_VAR = "GALASA_CREDENTIALS_STORE";
     private static final String EXTRA_BUNDLES_ENV_VAR = "GALASA_EXTRA_BUNDLES";
 
+    private static final String NODE_HOSTNAME_TOPOLOGY_KEY = "kubernetes.io/hostname";
+
     private final Log                        logger           = LogFactory.getLog(getClass());
 
     private final ISettings                   settings;
@@ -82,6 +91,11 @@ public class TestPodScheduler implements Runnable {
 
     private IPrioritySchedulingService prioritySchedulingService;
 
+    // The number of test pods that are being created by the concurrent launch mode and
+    // have not been created yet, so would not be in a list of the test pods.
+    private final AtomicInteger inFlightPodLaunches = new AtomicInteger();
+    private Executor podLaunchExecutor;
+
     public TestPodScheduler( 
         Environment env, 
         IDynamicStatusStoreService dss, 
@@ -105,6 +119,8 @@ public class TestPodScheduler implements Runnable {
             this.cacertsConfigMapName = this.kubeEngineFacade.getGalasaServiceInstallName() + "-cacerts";
         }
 
+        this.podLaunchExecutor = createPodLaunchExecutor();
+
         // *** Create metrics
 
         this.submittedRuns = Counter.build().name("galasa_k8s_controller_submitted_runs")
@@ -118,41 +134,10 @@ public class TestPodScheduler implements Runnable {
         } else {
             
             try {
-                // Check we are not at max engines
-                if (isMaximumEngineLimitReached()) {
-                    logger.info("Not looking for runs, currently at maximum engines (" + settings.getMaxEngines() + ")");
+                if (settings.getMaxConcurrentPodLaunches() > 0) {
+                    launchPodsConcurrently();
                 } else {
-                    logger.info("Looking for new runs");
-                    List<IRun> prioritisedQueuedRuns = prioritySchedulingService.getPrioritisedTestRunsToSchedule();
-        
-                    while (!prioritisedQueuedRuns.isEmpty()) {    
-                        IRun selectedRun = prioritisedQueuedRuns.remove(0);
-        
-                        startPod(selectedRun);
-        
-                        if (!prioritisedQueuedRuns.isEmpty()) {
-                            // Slight delay to allow Kubernetes to catch up....
-                            //
-                            // Why do this ? 
-                            //
-                            // If we don't do this, then all the tests get scheduled on the same node, and the 
-                            // node will run out of memory.
-                            //
-                            // We assume that's because the usage statistics on a pod are not synchronized totally at
-                            // real-time, but have a lag in which they catch up. Hopefully this delay is greater
-                            // than the lag and when we actually schedule the next pod it gets evenly distributed over
-                            // the nodes which are available.
-                            //
-                            // This may or may not be necessary if the scheduling policies in the cluster are changed. Not sure.
-                            long launchIntervalMilliseconds = settings.getKubeLaunchIntervalMillisecs();
-                            timeService.sleepMillis(launchIntervalMilliseconds); 
-                        }
-
-                        if (isMaximumEngineLimitReached()) {
-                            logger.info("Not scheduling any more runs, currently at maximum engines (" + settings.getMaxEngines() + ")");
-                            break;
-                        }
-                    }
+                    launchPodsSequentially();
                 }
             } catch (Exception e) {
                 logger.error("Unable to poll for new runs", e);
@@ -160,6 +145,109 @@ public class TestPodScheduler implements Runnable {
         }
     }
 
+    private void launchPodsSequentially() throws Exception {
+        // Check we are not at max engines
+        if (isMaximumEngineLimitReached()) {
+            logger.info("Not looking for runs, currently at maximum engines (" + settings.getMaxEngines() + ")");
+        } else {
+            logger.info("Looking for new runs");
+            List<IRun> prioritisedQueuedRuns = prioritySchedulingService.getPrioritisedTestRunsToSchedule();
+    
+            while (!prioritisedQueuedRuns.isEmpty()) {    
+                IRun selectedRun = prioritisedQueuedRuns.remove(0);
+    
+                startPod(selectedRun);
+    
+                if (!prioritisedQueuedRuns.isEmpty()) {
+                    // Slight delay to allow Kubernetes to catch up....
+                    //
+                    // Why do this ? 
+                    //
+                    // If we don't do this, then all the tests get scheduled on the same node, and the 
+                    // node will run out of memory.
+                    //
+                    // We assume that's because the usage statistics on a pod are not synchronized totally at
+                    // real-time, but have a lag in which they catch up. Hopefully this delay is greater
+                    // than the lag and when we actually schedule the next pod it gets evenly distributed over
+                    // the nodes which are available.
+                    //
+                    // This may or may not be necessary if the scheduling policies in the cluster are changed. Not sure.
+                    long launchIntervalMilliseconds = settings.getKubeLaunchIntervalMillisecs();
+                    timeService.sleepMillis(launchIntervalMilliseconds); 
+                }
+
+                if (isMaximumEngineLimitReached()) {
+                    logger.info("Not scheduling any more runs, currently at maximum engines (" + settings.getMaxEngines() + ")");
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Launch as many of the queued runs as there is free capacity for, creating their pods
+     * at the same time rather than one by one with a sleep between each one.
+     *
+     * The test pods are only listed once per poll. Pods which are still being created are
+     * counted locally, so the next poll doesn't schedule more runs than there are engines
+     * for, and the pods are spread over the nodes using a topology spread constraint.
+     */
+    private void launchPodsConcurrently() throws Exception {
+        // Read the launches in flight before listing the pods, so a launch which finishes
+        // in between is counted twice rather than not at all.
+        int inFlightLaunches = inFlightPodLaunches.get();
+        int activePods = kubeEngineFacade.getActivePods(kubeEngineFacade.getTestPods()).size();
+        int maxEngines = settings.getMaxEngines();
+
+        logger.info("Active runs=" + activePods + ",launching=" + inFlightLaunches + ",max=" + maxEngines);
+
+        int freeCapacity = maxEngines - activePods - inFlightLaunches;
+        int freeLaunchSlots = Math.min(freeCapacity, settings.getMaxConcurrentPodLaunches() - inFlightLaunches);
+        if (freeLaunchSlots <= 0) {
+            logger.info("Not looking for runs, no free capacity to launch engines (max=" + maxEngines + ")");
+        } else {
+            logger.info("Looking for new runs");
+            List<IRun> prioritisedQueuedRuns = prioritySchedulingService.getPrioritisedTestRunsToSchedule(freeLaunchSlots);
+            for (IRun run : prioritisedQueuedRuns) {
+                launchPodInBackground(run);
+            }
+        }
+    }
+
+    private void launchPodInBackground(IRun run) {
+        inFlightPodLaunches.incrementAndGet();
+        try {
+            podLaunchExecutor.execute(() -> {
+                try {
+                    startPod(run);
+                } finally {
+                    inFlightPodLaunches.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightPodLaunches.decrementAndGet();
+            logger.error("Unable to launch a pod for run " + run.getName(), e);
+        }
+    }
+
+    private ExecutorService createPodLaunchExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "galasa-pod-launch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Unit tests can supply their own executor so they can control when the pods are created.
+    void setPodLaunchExecutor(Executor podLaunchExecutor) {
+        this.podLaunchExecutor = podLaunchExecutor;
+    }
+
+    int getInFlightPodLaunches() {
+        return inFlightPodLaunches.get();
+    }
+
     private boolean isMaximumEngineLimitReached() throws K8sControllerException {
         List<V1Pod> pods = this.kubeEngineFacade.getTestPods();
         pods = kubeEngineFacade.getActivePods(pods);
@@ -282,6 +370,12 @@ public class TestPodScheduler implements Runnable {
 
         addNodeAffinityIfRequested(podSpec);
 
+        // Pods launched at the same time are spread over the nodes by Kubernetes,
+        // rather than by waiting between launches
+        if (settings.getMaxConcurrentPodLaunches() > 0) {
+            podSpec.addTopologySpreadConstraintsItem(createNodeSpreadConstraint());
+        }
+
         String nodeTolerations = this.settings.getNodeTolerations();
         if(!nodeTolerations.isEmpty()) {
             List<V1Toleration> tolerationsList = createNodeTolerations(nodeTolerations);
@@ -295,6 +389,19 @@ public class TestPodScheduler implements Runnable {
         return newPod;
     }
 
+    private V1TopologySpreadConstraint createNodeSpreadConstraint() {
+        V1LabelSelector engineLabelSelector = new V1LabelSelector();
+        engineLabelSelector.putMatchLabelsItem(TestPodKubeLabels.ENGINE_CONTROLLER.toString(), this.settings.getEngineLabel());
+        engineLabelSelector.putMatchLabelsItem(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), kubeEngineFacade.getGalasaServiceInstallName());
+
+        V1TopologySpreadConstraint constraint = new V1TopologySpreadConstraint();
+        constraint.setMaxSkew(1);
+        constraint.setTopologyKey(NODE_HOSTNAME_TOPOLOGY_KEY);
+        constraint.setWhenUnsatisfiable("ScheduleAnyway");
+        constraint.setLabelSelector(engineLabelSelector);
+        return constraint;
+    }
+
     private void addNodeAffinityIfRequested(V1PodSpec podSpec) {
         String nodePreferredAffinity = this.settings.getNodePreferredAffinity();
         String nodeRequiredAffinity = this.settings.getNodeRequiredAffinity();
@@ -22,4 +22,13 @@ public interface IPrioritySchedulingService {
      * @throws FrameworkException if there was an issue accessing the framework
      */
     List<IRun> getPrioritisedTestRunsToSchedule() throws FrameworkException;
+
+    /**
+     * Get the highest priority test runs that have not been scheduled yet.
+     * 
+     * @param maxRuns             the maximum number of test runs to return
+     * @return                    a list of at most maxRuns test runs, ordered by priority
+     * @throws FrameworkException if there was an issue accessing the framework
+     */
+    List<IRun> getPrioritisedTestRunsToSchedule(int maxRuns) throws FrameworkException;
 }
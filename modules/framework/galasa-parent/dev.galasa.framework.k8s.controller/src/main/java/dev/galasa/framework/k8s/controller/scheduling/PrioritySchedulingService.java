@@ -7,25 +7,34 @@ package dev.galasa.framework.k8s.controller.scheduling;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
 import dev.galasa.framework.spi.IFrameworkRuns;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.rbac.RBACException;
 import dev.galasa.framework.spi.rbac.RBACService;
 import dev.galasa.framework.spi.tags.ITagsService;
 import dev.galasa.framework.spi.tags.Tag;
+import dev.galasa.framework.spi.utils.DssPrefixWatch;
 import dev.galasa.framework.spi.utils.ITimeService;
 
 /**
@@ -38,8 +47,16 @@ import dev.galasa.framework.spi.utils.ITimeService;
  * 
  * The queued test runs are then ordered so that the test run with the most priority 
  * points comes first and the one with the fewest points comes last.
+ * 
+ * Once watching the DSS, the queued runs are kept in a {@link QueuedRunPriorityQueue}
+ * which is built from the DSS once, and then updated as runs are queued and allocated,
+ * so a poll only has to score the runs that have changed since the last poll.
+ * The queue is rebuilt when the DSS watch is interrupted, on every poll until the watch
+ * has been registered again, and every
+ * {@value #QUEUE_REBUILD_INTERVAL_MINUTES} minutes so that changes to the priority of
+ * users and tags are picked up. When not watching, the queue is rebuilt on every poll.
  */
-public class PrioritySchedulingService implements IPrioritySchedulingService {
+public class PrioritySchedulingService implements IPrioritySchedulingService, IDynamicStatusStoreWatcher {
 
     public static final double DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN = 1;
 
@@ -48,6 +65,14 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
     private static final String RUNS_PRIORITY_GROWTH_RATE_CPS_PROPERTY_KEY =
         "framework." + RUNS_PRIORITY_GROWTH_RATE_CPS_PROPERTY_PREFIX + "." + RUNS_PRIORITY_GROWTH_RATE_CPS_PROPERTY_SUFFIX;
 
+    public static final long QUEUE_REBUILD_INTERVAL_MINUTES = 5;
+
+    private static final String RUN_PREFIX = "run.";
+
+    // The keys we get from the DSS are something like this:
+    // run.U4657.status
+    private final Pattern runPropertyPattern = Pattern.compile("^run[.](\\w+)[.](.*)$");
+
     private final Log logger = LogFactory.getLog(getClass());
 
     private IFrameworkRuns frameworkRuns;
@@ -55,6 +80,17 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
     private ITimeService timeService;
     private RBACService rbacService;
     private ITagsService tagsService;
+
+    // Only accessed while holding the lock on this service.
+    private final QueuedRunPriorityQueue queue = new QueuedRunPriorityQueue(DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN);
+    private Instant lastRebuildTime;
+
+    // The names of runs whose status may have changed, added by the DSS watch thread
+    // and applied to the queue on the next poll.
+    private final Set<String> changedRunNames = ConcurrentHashMap.newKeySet();
+
+    private volatile DssPrefixWatch runPropertiesWatch;
+    private volatile boolean isRebuildRequired = true;
     
     public PrioritySchedulingService(
         IFrameworkRuns frameworkRuns,
@@ -70,24 +106,125 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
         this.tagsService = tagsService;
     }
 
+    /**
+     * Start watching the DSS for queued runs. If the watch can't be registered, it is tried
+     * again on each poll, and the queue is rebuilt on each poll until it is registered.
+     */
+    public synchronized void startWatching(IDynamicStatusStoreService dss) throws DynamicStatusStoreException {
+        this.isRebuildRequired = true;
+        this.runPropertiesWatch = new DssPrefixWatch(dss, RUN_PREFIX, this);
+        this.runPropertiesWatch.start();
+        logger.info("Priority scheduling service is watching the DSS for queued runs");
+    }
+
+    public synchronized void stopWatching() throws DynamicStatusStoreException {
+        DssPrefixWatch currentWatch = this.runPropertiesWatch;
+        this.runPropertiesWatch = null;
+        if (currentWatch != null) {
+            currentWatch.stop();
+        }
+    }
+
+    public boolean isWatching() {
+        DssPrefixWatch currentWatch = this.runPropertiesWatch;
+        return currentWatch != null && currentWatch.isWatching();
+    }
+
     @Override
-    public List<IRun> getPrioritisedTestRunsToSchedule() throws FrameworkException {
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        if (key != null) {
+            Matcher matcher = runPropertyPattern.matcher(key);
+            if (matcher.find()) {
+                // Only a change of status or an interrupt can add a run to, or remove a run from,
+                // the queue. Ignoring the other properties means heartbeats from running tests
+                // don't cause any work.
+                String propertyName = matcher.group(2);
+                if (DssPropertyKeyRunNameSuffix.STATUS.toString().equals(propertyName)
+                    || DssPropertyKeyRunNameSuffix.INTERRUPT_REASON.toString().equals(propertyName)) {
+                    changedRunNames.add(matcher.group(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void watchInterrupted(Throwable cause) {
+        logger.warn("The DSS watch on run properties was interrupted, the queued runs will be re-read", cause);
+        this.isRebuildRequired = true;
+    }
+
+    @Override
+    public synchronized List<IRun> getPrioritisedTestRunsToSchedule() throws FrameworkException {
+        refreshQueue();
+        return queue.getAll();
+    }
+
+    @Override
+    public synchronized List<IRun> getPrioritisedTestRunsToSchedule(int maxRuns) throws FrameworkException {
+        refreshQueue();
+        return queue.peekTop(maxRuns);
+    }
+
+    private void refreshQueue() throws FrameworkException {
+        queue.setGrowthRatePerMin(getPriorityGrowthRatePerMin());
+
+        if (runPropertiesWatch != null && runPropertiesWatch.rewatchIfLost()) {
+            isRebuildRequired = true;
+        }
+
+        // While the watch can't be registered again, changes can't be relied on, so keep rebuilding
+        if (!isWatching() || isRebuildRequired || isRebuildIntervalExceeded()) {
+            rebuildQueue();
+        } else {
+            applyChangedRuns();
+        }
+    }
+
+    private boolean isRebuildIntervalExceeded() {
+        Instant now = timeService.now();
+        return lastRebuildTime == null || Duration.between(lastRebuildTime, now).toMinutes() >= QUEUE_REBUILD_INTERVAL_MINUTES;
+    }
+
+    private void rebuildQueue() throws FrameworkException {
+        // Reset these first, so that changes from now on are applied on top of the runs read below.
+        isRebuildRequired = false;
+        changedRunNames.clear();
+
         List<IRun> queuedRuns = getQueuedRemoteRuns();
 
         // Collect all tags for queued runs from the CPS now so that we don't need to
-        // repeatedly query the CPS when sorting the queued runs.
+        // repeatedly query the CPS for runs with the same tags.
         Map<String, Tag> queuedRunTags = getAllQueuedRunTagsFromCps(queuedRuns);
 
-        // Pre-compute each run's total priority score once, before sorting begins.
-        Map<String, Double> queuedRunScores = new HashMap<>();
+        queue.clear();
         for (IRun run : queuedRuns) {
-            double score = getQueuedRunTotalPriorityPoints(run, queuedRunTags);
-            queuedRunScores.put(run.getName(), score);
-            logger.trace("Scheduling: run '" + run.getName() + "' pre-computed priority score: " + score);
+            queue.add(run, getQueuedRunFixedPriorityPoints(run, queuedRunTags));
         }
 
-        queuedRuns.sort(getPriorityComparator(queuedRunScores));
-        return queuedRuns;
+        lastRebuildTime = timeService.now();
+        logger.trace("Scheduling: rebuilt the queue of runs to schedule, " + queue.size() + " runs queued");
+    }
+
+    private void applyChangedRuns() throws FrameworkException {
+        List<String> runNames = new ArrayList<>(changedRunNames);
+        changedRunNames.removeAll(runNames);
+
+        List<IRun> newlyQueuedRuns = new ArrayList<>();
+        for (String runName : runNames) {
+            IRun run = frameworkRuns.getRun(runName);
+            if (run != null && isRunToSchedule(run)) {
+                newlyQueuedRuns.add(run);
+            } else if (queue.remove(runName)) {
+                logger.trace("Scheduling: run '" + runName + "' is no longer queued");
+            }
+        }
+
+        if (!newlyQueuedRuns.isEmpty()) {
+            Map<String, Tag> queuedRunTags = getAllQueuedRunTagsFromCps(newlyQueuedRuns);
+            for (IRun run : newlyQueuedRuns) {
+                queue.add(run, getQueuedRunFixedPriorityPoints(run, queuedRunTags));
+            }
+        }
     }
 
     private Map<String, Tag> getAllQueuedRunTagsFromCps(List<IRun> queuedRuns) {
@@ -110,44 +247,36 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
         return tagsFromCps;
     }
 
-    private Comparator<IRun> getPriorityComparator(Map<String, Double> queuedRunScores) {
-        return (a, b) -> Double.compare(queuedRunScores.get(b.getName()), queuedRunScores.get(a.getName()));
-    }
-
     private List<IRun> getQueuedRemoteRuns() throws FrameworkException {
         List<IRun> queuedRuns = this.frameworkRuns.getQueuedRuns();
 
         Iterator<IRun> queuedRunsIterator = queuedRuns.iterator();
         while (queuedRunsIterator.hasNext()) {
             IRun run = queuedRunsIterator.next();
-            if (run.isLocal() || run.getInterruptReason() != null) {
+            if (!isRunToSchedule(run)) {
                 queuedRunsIterator.remove();
             }
         }
         return queuedRuns;
     }
 
-    double getQueuedRunTotalPriorityPoints(IRun run, Map<String, Tag> queuedRunTags) {
-        double timePoints = getPriorityPointsFromQueuedTime(run.getQueued());
+    private boolean isRunToSchedule(IRun run) {
+        return TestRunLifecycleStatus.QUEUED.toString().equals(run.getStatus())
+            && !run.isLocal()
+            && run.getInterruptReason() == null;
+    }
+
+    private double getQueuedRunFixedPriorityPoints(IRun run, Map<String, Tag> queuedRunTags) {
         double requestorPoints = getRequestorPriorityPoints(run.getRequestor());
         double tagPoints = getPriorityPointsFromTags(run.getTags(), queuedRunTags);
-        double totalPriorityPoints = timePoints + requestorPoints + tagPoints;
+        double fixedPriorityPoints = requestorPoints + tagPoints;
 
-        logger.trace("Scheduling: run '" + run.getName() + "' score breakdown:"
-            + " time=" + timePoints
+        logger.trace("Scheduling: run '" + run.getName() + "' fixed priority points:"
             + " requestor=" + requestorPoints
             + " tags=" + tagPoints
-            + " total=" + totalPriorityPoints);
-
-        return totalPriorityPoints;
-    }
+            + " total=" + fixedPriorityPoints);
 
-    private double getPriorityPointsFromQueuedTime(Instant queuedTime) {
-        double priorityGrowthRatePerMin = getPriorityGrowthRatePerMin();
-        Instant currentTime = timeService.now();
-
-        double minutesElapsedSinceQueued = getMinutesBetween(queuedTime, currentTime);
-        return minutesElapsedSinceQueued * priorityGrowthRatePerMin;
+        return fixedPriorityPoints;
     }
 
     private double getPriorityPointsFromTags(Set<String> runTags, Map<String, Tag> collectedQueuedRunTags) {
@@ -163,10 +292,6 @@ public class PrioritySchedulingService implements IPrioritySchedulingService {
         return priorityPointsFromTags;
     }
 
-    private double getMinutesBetween(Instant startTime, Instant endTime) {
-        return Duration.between(startTime, endTime).toMillis() / (60 * 1000.0);
-    }
-
     private int getRequestorPriorityPoints(String requestor) {
         int requestorPriority = 0;
         try {
@@ -0,0 +1,177 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import dev.galasa.framework.spi.IRun;
+
+/**
+ * The queued test runs, kept in priority order.
+ *
+ * A run's priority points are its fixed points, from its requestor and tags, plus points
+ * which grow at the same rate for every run from the time it was queued. As every run gains
+ * time points at the same rate, the order of two runs never changes as time passes, so each
+ * run is given a static sort key when it is added:
+ *
+ *   key = fixed points - (growth rate per minute * minutes from the epoch to when the run was queued)
+ *
+ * The key differs from the run's priority points at any moment by the same amount for every
+ * run, so runs never need to be re-scored or re-sorted to find the highest priority ones.
+ * Only a change to the growth rate re-keys the runs.
+ *
+ * Runs with the same key stay in the order they were added.
+ *
+ * This class is not thread-safe.
+ */
+class QueuedRunPriorityQueue {
+
+    private static final double MILLISECONDS_PER_MINUTE = 60 * 1000.0;
+
+    private final TreeSet<QueuedRun> orderedRuns = new TreeSet<>(
+        Comparator.comparingDouble(QueuedRun::getSortKey).reversed()
+            .thenComparingLong(QueuedRun::getSequence)
+    );
+
+    private final Map<String, QueuedRun> runsByName = new HashMap<>();
+
+    private double growthRatePerMin;
+    private long nextSequence = 0;
+
+    QueuedRunPriorityQueue(double growthRatePerMin) {
+        this.growthRatePerMin = growthRatePerMin;
+    }
+
+    /**
+     * Add a run to the queue, replacing the run with the same name if there is one
+     *
+     * @param run         the queued run
+     * @param fixedPoints the run's priority points which don't depend on how long it has been queued
+     */
+    void add(IRun run, double fixedPoints) {
+        long sequence;
+        QueuedRun existingRun = runsByName.remove(run.getName());
+        if (existingRun != null) {
+            // Keep the run's place amongst runs with the same key
+            orderedRuns.remove(existingRun);
+            sequence = existingRun.getSequence();
+        } else {
+            sequence = nextSequence++;
+        }
+
+        QueuedRun queuedRun = new QueuedRun(run, fixedPoints, sequence);
+        queuedRun.calculateSortKey(growthRatePerMin);
+        orderedRuns.add(queuedRun);
+        runsByName.put(run.getName(), queuedRun);
+    }
+
+    /**
+     * @param runName the name of the run to remove
+     * @return true if the run was in the queue
+     */
+    boolean remove(String runName) {
+        boolean isRemoved = false;
+        QueuedRun queuedRun = runsByName.remove(runName);
+        if (queuedRun != null) {
+            orderedRuns.remove(queuedRun);
+            isRemoved = true;
+        }
+        return isRemoved;
+    }
+
+    boolean contains(String runName) {
+        return runsByName.containsKey(runName);
+    }
+
+    void clear() {
+        orderedRuns.clear();
+        runsByName.clear();
+        nextSequence = 0;
+    }
+
+    int size() {
+        return runsByName.size();
+    }
+
+    double getGrowthRatePerMin() {
+        return growthRatePerMin;
+    }
+
+    /**
+     * Change how quickly runs gain priority points while they are queued, re-keying every run
+     *
+     * @param newGrowthRatePerMin the number of points a run gains for each minute it is queued
+     */
+    void setGrowthRatePerMin(double newGrowthRatePerMin) {
+        if (newGrowthRatePerMin != growthRatePerMin) {
+            growthRatePerMin = newGrowthRatePerMin;
+
+            List<QueuedRun> runs = new ArrayList<>(orderedRuns);
+            orderedRuns.clear();
+            for (QueuedRun queuedRun : runs) {
+                queuedRun.calculateSortKey(growthRatePerMin);
+                orderedRuns.add(queuedRun);
+            }
+        }
+    }
+
+    /**
+     * @param maxRuns the maximum number of runs to return
+     * @return the highest priority runs, highest first. The runs stay in the queue.
+     */
+    List<IRun> peekTop(int maxRuns) {
+        List<IRun> topRuns = new ArrayList<>(Math.min(Math.max(maxRuns, 0), orderedRuns.size()));
+        Iterator<QueuedRun> iterator = orderedRuns.iterator();
+        while (topRuns.size() < maxRuns && iterator.hasNext()) {
+            topRuns.add(iterator.next().getRun());
+        }
+        return topRuns;
+    }
+
+    /**
+     * @return every run in the queue, highest priority first
+     */
+    List<IRun> getAll() {
+        return peekTop(orderedRuns.size());
+    }
+
+    private static class QueuedRun {
+        private final IRun run;
+        private final double fixedPoints;
+        private final double queuedMinutesSinceEpoch;
+        private final long sequence;
+        private double sortKey;
+
+        QueuedRun(IRun run, double fixedPoints, long sequence) {
+            this.run = run;
+            this.fixedPoints = fixedPoints;
+            this.queuedMinutesSinceEpoch = run.getQueued().toEpochMilli() / MILLISECONDS_PER_MINUTE;
+            this.sequence = sequence;
+        }
+
+        void calculateSortKey(double growthRatePerMin) {
+            this.sortKey = fixedPoints - (growthRatePerMin * queuedMinutesSinceEpoch);
+        }
+
+        IRun getRun() {
+            return run;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        double getSortKey() {
+            return sortKey;
+        }
+    }
+}
@@ -192,4 +192,33 @@ public class SettingsTest {
 
         assertThat(gotBack).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUsesDefaultMaxConcurrentPodLaunchesIfMissingFromConfigMap() throws Exception {
+        K8sController controller = new K8sController();
+        KubernetesEngineFacade kube = null;
+        Settings settings = new Settings(controller, kube, "myPod", "myConfigMapName");
+        Map<String, String> configMap = new HashMap<String, String>();
+
+        settings.updateConfigMapProperties(configMap);
+
+        int gotBack = settings.getMaxConcurrentPodLaunches();
+
+        assertThat(gotBack).isEqualTo(Settings.MAX_CONCURRENT_POD_LAUNCHES_DEFAULT);
+    }
+
+    @Test
+    public void testCanReadMaxConcurrentPodLaunchesIfPresentInConfigMap() throws Exception {
+        K8sController controller = new K8sController();
+        KubernetesEngineFacade kube = null;
+        Settings settings = new Settings(controller, kube, "myPod", "myConfigMapName");
+        Map<String, String> configMap = new HashMap<String, String>();
+        configMap.put(Settings.MAX_CONCURRENT_POD_LAUNCHES_PROPERTY_NAME, "10");
+
+        settings.updateConfigMapProperties(configMap);
+
+        int gotBack = settings.getMaxConcurrentPodLaunches();
+
+        assertThat(gotBack).isEqualTo(10);
+    }
+}
@@ -47,6 +47,7 @@ import io.kubernetes.client.openapi.models.V1PodSpec;
 import io.kubernetes.client.openapi.models.V1PodStatus;
 import io.kubernetes.client.openapi.models.V1PreferredSchedulingTerm;
 import io.kubernetes.client.openapi.models.V1Toleration;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
 import io.kubernetes.client.openapi.models.V1Volume;
 import io.kubernetes.client.openapi.models.V1VolumeMount;
 import io.prometheus.client.CollectorRegistry;
@@ -1144,4 +1145,175 @@ public class TestPodSchedulerTest {
         // Then...
         assertThat(api.podsLaunched).hasSize(1);
     }
+
+    private V1Pod createRunningTestPod(String podName, String galasaServiceInstallName) {
+        V1ObjectMeta podMetadata = new V1ObjectMeta();
+        podMetadata.setName(podName);
+        podMetadata.putLabelsItem(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), galasaServiceInstallName);
+
+        V1Pod pod = new V1Pod();
+        pod.setMetadata(podMetadata);
+        pod.setStatus(new V1PodStatus().phase("running"));
+        return pod;
+    }
+
+    private long countTestPodLists(MockKubernetesApiClient api) {
+        return api.labelSelectorsRequested.stream()
+            .filter(selector -> selector.startsWith(TestPodKubeLabels.GALASA_SERVICE_NAME.toString()))
+            .count();
+    }
+
+    @Test
+    public void testConcurrentLaunchesFillFreeCapacityWithOneListOfTestPods() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+
+        List<IRun> runs = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            String testRunName = "U" + i;
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+        mockPods.add(createRunningTestPod("alreadyRunningPod", galasaServiceInstallName));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxEngines(4);
+        settings.setMaxConcurrentPodLaunches(10);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        Instant startTime = Instant.now();
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        // Hold on to the launches so we can see what is in flight
+        List<Runnable> pendingLaunches = new ArrayList<>();
+        podScheduler.setPodLaunchExecutor(pendingLaunches::add);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        // There is room for 3 more engines, and the test pods were only listed once
+        assertThat(pendingLaunches).hasSize(3);
+        assertThat(podScheduler.getInFlightPodLaunches()).isEqualTo(3);
+        assertThat(countTestPodLists(api)).isEqualTo(1);
+
+        // When...
+        // Another poll while the launches are still in flight
+        podScheduler.run();
+
+        // Then...
+        // The in-flight launches use up the free capacity
+        assertThat(pendingLaunches).hasSize(3);
+        assertThat(countTestPodLists(api)).isEqualTo(2);
+
+        // When...
+        for (Runnable launch : pendingLaunches) {
+            launch.run();
+        }
+
+        // Then...
+        assertThat(api.podsLaunched).hasSize(3);
+        assertThat(podScheduler.getInFlightPodLaunches()).isEqualTo(0);
+        assertThat(mockTimeService.now()).isEqualTo(startTime);
+    }
+
+    @Test
+    public void testConcurrentLaunchesAreLimitedByMaxConcurrentPodLaunches() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+
+        List<IRun> runs = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            String testRunName = "U" + i;
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxEngines(10);
+        settings.setMaxConcurrentPodLaunches(2);
+
+        MockCPSStore mockCPS = new MockCPSStore(new HashMap<>());
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+
+        MockTagsService mockTagsService = new MockTagsService();
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCPS, mockRBACService, mockTimeService, mockTagsService);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, settings, kubeEngineFacade, mockTimeService, prioritySchedulingService);
+
+        List<Runnable> pendingLaunches = new ArrayList<>();
+        podScheduler.setPodLaunchExecutor(pendingLaunches::add);
+
+        // When...
+        podScheduler.run();
+        for (Runnable launch : pendingLaunches) {
+            launch.run();
+        }
+
+        // Then...
+        assertThat(pendingLaunches).hasSize(2);
+        assertThat(api.podsLaunched).hasSize(2);
+    }
+
+    @Test
+    public void testCanCreateTestPodWithNodeSpreadConstraintWhenLaunchingConcurrently() throws Exception {
+        // Given...
+        String galasaServiceInstallName = "myGalasaService";
+        KubernetesEngineFacade facade = new KubernetesEngineFacade(null, "mynamespace", galasaServiceInstallName);
+
+        MockISettings settings = new MockISettings();
+        settings.setMaxConcurrentPodLaunches(5);
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(new ArrayList<>());
+        IPrioritySchedulingService prioritySchedulingService = new PrioritySchedulingService(mockFrameworkRuns, new MockCPSStore(null), FilledMockRBACService.createTestRBACService(), mockTimeService, new MockTagsService());
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), new MockIDynamicStatusStoreService(), settings, facade, mockTimeService, prioritySchedulingService);
+
+        // When...
+        V1Pod pod = podScheduler.createTestPodDefinition("myRunName", "myEngineName", false);
+
+        // Then...
+        List<V1TopologySpreadConstraint> constraints = pod.getSpec().getTopologySpreadConstraints();
+        assertThat(constraints).hasSize(1);
+
+        V1TopologySpreadConstraint constraint = constraints.get(0);
+        assertThat(constraint.getTopologyKey()).isEqualTo("kubernetes.io/hostname");
+        assertThat(constraint.getMaxSkew()).isEqualTo(1);
+        assertThat(constraint.getWhenUnsatisfiable()).isEqualTo("ScheduleAnyway");
+        assertThat(constraint.getLabelSelector().getMatchLabels()).containsOnly(
+            entry(TestPodKubeLabels.ENGINE_CONTROLLER.toString(), MockISettings.ENGINE_LABEL),
+            entry(TestPodKubeLabels.GALASA_SERVICE_NAME.toString(), galasaServiceInstallName)
+        );
+    }
 }
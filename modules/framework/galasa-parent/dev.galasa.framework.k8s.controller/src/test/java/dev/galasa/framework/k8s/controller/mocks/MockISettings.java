@@ -14,6 +14,7 @@ public class MockISettings implements ISettings {
     private String nodeRequiredAffinity = "MyNodeRequiredAffinity=MyNodeRequiredAffinityValue:23";
     private String nodePreferredAffinity = "MyNodePreferredAffinity=MyNodePreferredAffinityValue:23";
     private boolean isIstioEnabled = true;
+    private int maxConcurrentPodLaunches = 0;
 
     @Override
     public String getEngineLabel() {
@@ -136,6 +137,15 @@ public class MockISettings implements ISettings {
         this.isIstioEnabled = isIstioEnabled;
     }
 
+    @Override
+    public int getMaxConcurrentPodLaunches() {
+        return maxConcurrentPodLaunches;
+    }
+
+    public void setMaxConcurrentPodLaunches(int maxConcurrentPodLaunches) {
+        this.maxConcurrentPodLaunches = maxConcurrentPodLaunches;
+    }
+
     @Override
     public List<String> getRequestorsByGroup() {
         throw new UnsupportedOperationException("Unimplemented method 'getRequestorsByGroup'");
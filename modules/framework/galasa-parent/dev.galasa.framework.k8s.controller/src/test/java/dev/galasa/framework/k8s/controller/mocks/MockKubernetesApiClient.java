@@ -25,6 +25,9 @@ public class MockKubernetesApiClient implements IKubernetesApiClient {
 
     public List<V1Pod> podsLaunched = new ArrayList<>();
 
+    // The label selectors of every list of pods that has been requested, in order.
+    public List<String> labelSelectorsRequested = new ArrayList<>();
+
     // The mock fails to launch pods this number of times, before letting one launch.
     public int failToLaunchPodCount = 0;
 
@@ -54,6 +57,7 @@ public class MockKubernetesApiClient implements IKubernetesApiClient {
     @Override
     public List<V1Pod> getPods(String namespace, String labelSelector) throws ApiException {
         List<V1Pod> matchingPods = new ArrayList<>();
+        labelSelectorsRequested.add(labelSelector);
 
         // Label selectors can be in the form <key>=<value>
         // or <key1>=<value1>,<key2>=<value2> for multiple selectors
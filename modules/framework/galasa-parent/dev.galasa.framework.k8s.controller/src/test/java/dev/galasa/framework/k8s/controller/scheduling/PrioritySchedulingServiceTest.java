@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
@@ -22,18 +23,98 @@ import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.mocks.FilledMockRBACService;
 import dev.galasa.framework.mocks.MockFrameworkRuns;
 import dev.galasa.framework.mocks.MockIConfigurationPropertyStoreService;
+import dev.galasa.framework.mocks.MockIDynamicStatusStoreService;
 import dev.galasa.framework.mocks.MockRBACService;
 import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.mocks.MockTagsService;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.mocks.MockUser;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.rbac.BuiltInAction;
+import dev.galasa.framework.spi.rbac.RBACException;
 import dev.galasa.framework.spi.tags.Tag;
 import dev.galasa.framework.spi.utils.ITimeService;
 
 public class PrioritySchedulingServiceTest {
 
+    class MockWatchableDss extends MockIDynamicStatusStoreService {
+
+        public IDynamicStatusStoreWatcher watcher;
+        public int watchPrefixCallCount = 0;
+        public boolean isWatchFailing = false;
+
+        @Override
+        public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
+            watchPrefixCallCount++;
+            if (isWatchFailing) {
+                throw new DynamicStatusStoreException("simulated watch failure");
+            }
+            this.watcher = watcher;
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void unwatch(UUID watchId) throws DynamicStatusStoreException {
+            this.watcher = null;
+        }
+    }
+
+    class MockCountingFrameworkRuns extends MockFrameworkRuns {
+
+        public int getQueuedRunsCallCount = 0;
+        public int getRunCallCount = 0;
+
+        public MockCountingFrameworkRuns(List<IRun> runs) {
+            super(runs);
+        }
+
+        @Override
+        public List<IRun> getQueuedRuns() throws FrameworkException {
+            getQueuedRunsCallCount++;
+            return super.getQueuedRuns();
+        }
+
+        @Override
+        public IRun getRun(String runname) throws DynamicStatusStoreException {
+            getRunCallCount++;
+            return super.getRun(runname);
+        }
+    }
+
+    class MockCountingRBACService extends MockRBACService {
+
+        public int getUserPriorityCallCount = 0;
+
+        public MockCountingRBACService() {
+            super(new ArrayList<>(), new ArrayList<>(), null);
+        }
+
+        @Override
+        public int getUserPriority(String loginId) throws RBACException {
+            getUserPriorityCallCount++;
+            return 0;
+        }
+    }
+
+    private MockRun createQueuedRun(String runName, Instant queuedTime) {
+        MockRun run = new MockRun(null, null, runName, null, null, null, null, false);
+        run.setQueued(queuedTime);
+        run.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        return run;
+    }
+
+    private List<String> getRunNames(List<IRun> runs) {
+        List<String> runNames = new ArrayList<>();
+        for (IRun run : runs) {
+            runNames.add(run.getName());
+        }
+        return runNames;
+    }
+
     @Test
     public void testOlderRunsHaveHigherPriorityOverNewRuns() throws Exception {
         // Given...
@@ -112,89 +193,6 @@ public class PrioritySchedulingServiceTest {
         assertThat(runsGotBack.get(2)).isEqualTo(newRun);
     }
 
-    @Test
-    public void testRunsIncreaseInPriorityUsingGrowthRateCPSProperty() throws Exception {
-        // Given...
-        Instant now = Instant.now();
-        long priorityGrowthRatePerMin = 10;
-
-        List<IRun> runs = new ArrayList<>();
-        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
-
-        // Set the queued time to be 2 minutes before now
-        run1.setQueued(now.minus(2, ChronoUnit.MINUTES));
-        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
-        
-        MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
-
-        // Set the queued time to be 7 minutes before now
-        run2.setQueued(now.minus(7, ChronoUnit.MINUTES));
-        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
-
-        runs.add(run1);
-        runs.add(run2);
-
-        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
-        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
-        mockCps.setProperty("runs.priority.growth.rate.per.min", Long.toString(priorityGrowthRatePerMin));
-
-        MockTimeService mockTimeService = new MockTimeService(now);
-        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
-        MockTagsService mockTagsService = new MockTagsService();
-
-        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
-
-        // When...
-        double run1Priority = schedulingService.getQueuedRunTotalPriorityPoints(run1, new HashMap<>());
-        double run2Priority = schedulingService.getQueuedRunTotalPriorityPoints(run2, new HashMap<>());
-
-        // Then...
-        assertThat(run1Priority).isEqualTo(2 * priorityGrowthRatePerMin);
-        assertThat(run2Priority).isEqualTo(7 * priorityGrowthRatePerMin);
-    }
-
-    @Test
-    public void testRunsIncreaseInPriorityUsingDefaultGrowthRateIfCPSPropertyIsBlank() throws Exception {
-        // Given...
-        Instant now = Instant.now();
-
-        List<IRun> runs = new ArrayList<>();
-        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
-
-        // Set the queued time to be 2 minutes before now
-        run1.setQueued(now.minus(2, ChronoUnit.MINUTES));
-        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
-        
-        MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
-
-        // Set the queued time to be 7 minutes before now
-        run2.setQueued(now.minus(7, ChronoUnit.MINUTES));
-        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
-
-        runs.add(run1);
-        runs.add(run2);
-
-        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
-        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
-
-        // Set a blank value for the growth rate CPS property
-        mockCps.setProperty("runs.priority.growth.rate.per.min", "     ");
-
-        MockTimeService mockTimeService = new MockTimeService(now);
-        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
-        MockTagsService mockTagsService = new MockTagsService();
-
-        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
-
-        // When...
-        double run1Priority = schedulingService.getQueuedRunTotalPriorityPoints(run1, new HashMap<>());
-        double run2Priority = schedulingService.getQueuedRunTotalPriorityPoints(run2, new HashMap<>());
-
-        // Then...
-        assertThat(run1Priority).isEqualTo(2 * PrioritySchedulingService.DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN);
-        assertThat(run2Priority).isEqualTo(7 * PrioritySchedulingService.DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN);
-    }
-
     @Test
     public void testRunsQueuedAtTheSameTimeMaintainExistingOrdering() throws Exception {
         // Given...
@@ -370,10 +368,6 @@ public class PrioritySchedulingServiceTest {
         tag2.setPriority(20);
         tags.put(tag2.getName(), tag2);
 
-        Map<String, Tag> tagsMap = new HashMap<>();
-        tagsMap.put(tag1.getName(), tag1);
-        tagsMap.put(tag2.getName(), tag2);
-
         Instant now = Instant.now();
         List<IRun> runs = new ArrayList<>();
         MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
@@ -405,55 +399,155 @@ public class PrioritySchedulingServiceTest {
 
         // When...
         List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
-        double run3Priority = schedulingService.getQueuedRunTotalPriorityPoints(run3, tagsMap);
 
         // Then...
         assertThat(runsGotBack).hasSize(3);
         assertThat(runsGotBack.get(0)).isEqualTo(run3);
         assertThat(runsGotBack.get(1)).isEqualTo(run1);
         assertThat(runsGotBack.get(2)).isEqualTo(run2);
+    }
+
+    @Test
+    public void testRunsIncreaseInPriorityUsingGrowthRateCPSProperty() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        long priorityGrowthRatePerMin = 10;
+
+        Map<String, Tag> tags = new HashMap<>();
+        Tag tag = new Tag("some-priority-tag");
+        tag.setPriority(40);
+        tags.put(tag.getName(), tag);
+
+        List<IRun> runs = new ArrayList<>();
+        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
+
+        // Set the queued time to be 2 minutes before now, so run1 has 40 + (2 * 10) = 60 points
+        run1.setQueued(now.minus(2, ChronoUnit.MINUTES));
+        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        run1.setTags(Set.of("some-priority-tag"));
+
+        MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
 
-        // Check that both tag priorities have been added to the run's total priority
-        assertThat(run3Priority).isEqualTo(220);
+        // Set the queued time to be 7 minutes before now, so run2 has (7 * 10) = 70 points
+        run2.setQueued(now.minus(7, ChronoUnit.MINUTES));
+        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        runs.add(run1);
+        runs.add(run2);
+
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        mockCps.setProperty("runs.priority.growth.rate.per.min", Long.toString(priorityGrowthRatePerMin));
+
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService(tags);
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+
+        // When...
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        // With the default growth rate, run1's tag would put it first
+        assertThat(runsGotBack).containsExactly(run2, run1);
+    }
+
+    @Test
+    public void testRunsIncreaseInPriorityUsingDefaultGrowthRateIfCPSPropertyIsBlank() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+
+        Map<String, Tag> tags = new HashMap<>();
+        Tag tag = new Tag("some-priority-tag");
+        tag.setPriority(40);
+        tags.put(tag.getName(), tag);
+
+        List<IRun> runs = new ArrayList<>();
+        MockRun run1 = new MockRun(null, null, "run1", null, null, null, null, false);
+
+        // Set the queued time to be 2 minutes before now, so run1 has 40 + (2 * 1) = 42 points
+        run1.setQueued(now.minus(2, ChronoUnit.MINUTES));
+        run1.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        run1.setTags(Set.of("some-priority-tag"));
+
+        MockRun run2 = new MockRun(null, null, "run2", null, null, null, null, false);
+
+        // Set the queued time to be 7 minutes before now, so run2 has (7 * 1) = 7 points
+        run2.setQueued(now.minus(7, ChronoUnit.MINUTES));
+        run2.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        runs.add(run1);
+        runs.add(run2);
+
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+
+        // Set a blank value for the growth rate CPS property
+        mockCps.setProperty("runs.priority.growth.rate.per.min", "     ");
+
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService(tags);
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+
+        // When...
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(PrioritySchedulingService.DEFAULT_TEST_RUN_PRIORITY_POINTS_GROWTH_RATE_PER_MIN).isEqualTo(1);
+        assertThat(runsGotBack).containsExactly(run1, run2);
     }
 
     @Test
     public void testTagPriorityIsAddedToRunPriorityCorrectly() throws Exception {
         // Given...
+        Map<String, Tag> tags = new HashMap<>();
         Tag tag1 = new Tag("high-priority-tag");
         tag1.setPriority(200);
+        tags.put(tag1.getName(), tag1);
 
         Tag tag2 = new Tag("another-tag");
         tag2.setPriority(20);
-
-        Map<String, Tag> tagsMap = new HashMap<>();
-        tagsMap.put(tag1.getName(), tag1);
-        tagsMap.put(tag2.getName(), tag2);
+        tags.put(tag2.getName(), tag2);
 
         Instant now = Instant.now();
         List<IRun> runs = new ArrayList<>();
-        MockRun run = new MockRun(null, null, "run3", null, null, null, null, false);
-        run.setQueued(now);
-        run.setStatus(TestRunLifecycleStatus.QUEUED.toString());
-        run.setTags(Set.of("high-priority-tag", "another-tag"));
 
-        runs.add(run);
+        // Both tag priorities should be added to run3's priority, giving it 220 points
+        MockRun run3 = new MockRun(null, null, "run3", null, null, null, null, false);
+        run3.setQueued(now);
+        run3.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        run3.setTags(Set.of("high-priority-tag", "another-tag"));
+
+        // The other runs get their points from the default growth rate of 1 point per minute
+        MockRun runWith219Points = new MockRun(null, null, "run219", null, null, null, null, false);
+        runWith219Points.setQueued(now.minus(219, ChronoUnit.MINUTES));
+        runWith219Points.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        MockRun runWith221Points = new MockRun(null, null, "run221", null, null, null, null, false);
+        runWith221Points.setQueued(now.minus(221, ChronoUnit.MINUTES));
+        runWith221Points.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        runs.add(runWith219Points);
+        runs.add(run3);
+        runs.add(runWith221Points);
 
         MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
         MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
         MockTimeService mockTimeService = new MockTimeService(now);
 
         MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
-        MockTagsService mockTagsService = new MockTagsService();
+        MockTagsService mockTagsService = new MockTagsService(tags);
 
         PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
 
         // When...
-        double runPriority = schedulingService.getQueuedRunTotalPriorityPoints(run, tagsMap);
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
 
         // Then...
-        // Check that both tag priorities have been added to the run's total priority
-        assertThat(runPriority).isEqualTo(220);
+        assertThat(runsGotBack).containsExactly(runWith221Points, run3, runWith219Points);
     }
 
     @Test
@@ -499,4 +593,222 @@ public class PrioritySchedulingServiceTest {
         // run9 was queued latest so has the least elapsed time and lowest priority
         assertThat(runsGotBack.get(9).getName()).isEqualTo("run9");
     }
+
+    @Test
+    public void testWatchingServiceOnlyReadsRunsWhoseStatusHasChanged() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("run1", now.minusSeconds(60)));
+        runs.add(createQueuedRun("run2", now.minusSeconds(30)));
+
+        MockCountingFrameworkRuns mockFrameworkRuns = new MockCountingFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService();
+        MockWatchableDss mockDss = new MockWatchableDss();
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatching(mockDss);
+
+        List<IRun> initialRuns = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // When...
+        // A run older than the others is queued, and run1 is allocated
+        runs.add(createQueuedRun("run0", now.minusSeconds(120)));
+        mockDss.watcher.propertyModified("run.run0.status", Event.NEW, null, "queued");
+
+        ((MockRun) runs.get(0)).setStatus(TestRunLifecycleStatus.ALLOCATED.toString());
+        mockDss.watcher.propertyModified("run.run1.status", Event.MODIFIED, "queued", "allocated");
+
+        // Heartbeats from running tests are ignored
+        mockDss.watcher.propertyModified("run.run1.heartbeat", Event.MODIFIED, null, now.toString());
+
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(getRunNames(initialRuns)).containsExactly("run1", "run2");
+        assertThat(getRunNames(runsGotBack)).containsExactly("run0", "run2");
+        assertThat(mockFrameworkRuns.getQueuedRunsCallCount).isEqualTo(1);
+        assertThat(mockFrameworkRuns.getRunCallCount).isEqualTo(2);
+    }
+
+    @Test
+    public void testWatchingServiceRereadsQueuedRunsWhenWatchIsInterrupted() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("run1", now.minusSeconds(60)));
+
+        MockCountingFrameworkRuns mockFrameworkRuns = new MockCountingFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService();
+        MockWatchableDss mockDss = new MockWatchableDss();
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatching(mockDss);
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // When...
+        // A run is queued while the watch is down, so we never hear about it
+        runs.add(createQueuedRun("run2", now.minusSeconds(30)));
+        mockDss.watcher.watchInterrupted(new DynamicStatusStoreException("connection lost"));
+
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(getRunNames(runsGotBack)).containsExactly("run1", "run2");
+        assertThat(mockFrameworkRuns.getQueuedRunsCallCount).isEqualTo(2);
+    }
+
+    @Test
+    public void testWatchingServiceRegistersTheWatchAgainAfterItIsInterrupted() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("run1", now.minusSeconds(60)));
+
+        MockCountingFrameworkRuns mockFrameworkRuns = new MockCountingFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService();
+        MockWatchableDss mockDss = new MockWatchableDss();
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatching(mockDss);
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // When...
+        mockDss.watcher.watchInterrupted(new DynamicStatusStoreException("connection lost"));
+        boolean isWatchingAfterInterrupt = schedulingService.isWatching();
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        runs.add(createQueuedRun("run2", now.minusSeconds(30)));
+        mockDss.watcher.propertyModified("run.run2.status", Event.NEW, null, "queued");
+        List<IRun> runsGotBack = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(isWatchingAfterInterrupt).isFalse();
+        assertThat(schedulingService.isWatching()).isTrue();
+        assertThat(mockDss.watchPrefixCallCount).isEqualTo(2);
+        assertThat(getRunNames(runsGotBack)).containsExactly("run1", "run2");
+        // The queue is rebuilt once after the interrupt, and the new run is picked up by the watch
+        assertThat(mockFrameworkRuns.getQueuedRunsCallCount).isEqualTo(2);
+        assertThat(mockFrameworkRuns.getRunCallCount).isEqualTo(1);
+    }
+
+    @Test
+    public void testWatchingServiceRereadsQueuedRunsOnEveryPollUntilTheWatchIsRegisteredAgain() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("run1", now.minusSeconds(60)));
+
+        MockCountingFrameworkRuns mockFrameworkRuns = new MockCountingFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService();
+        MockWatchableDss mockDss = new MockWatchableDss();
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatching(mockDss);
+        schedulingService.getPrioritisedTestRunsToSchedule();
+        mockDss.isWatchFailing = true;
+        mockDss.watcher.watchInterrupted(new DynamicStatusStoreException("connection lost"));
+
+        // When...
+        schedulingService.getPrioritisedTestRunsToSchedule();
+        runs.add(createQueuedRun("run2", now.minusSeconds(30)));
+        List<IRun> runsWhileWatchFails = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        mockDss.isWatchFailing = false;
+        schedulingService.getPrioritisedTestRunsToSchedule();
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(getRunNames(runsWhileWatchFails)).containsExactly("run1", "run2");
+        assertThat(mockDss.watchPrefixCallCount).isEqualTo(4);
+        assertThat(mockFrameworkRuns.getQueuedRunsCallCount).isEqualTo(4);
+        assertThat(schedulingService.isWatching()).isTrue();
+    }
+
+    @Test
+    public void testWatchingServiceRereadsQueuedRunsAfterRebuildInterval() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("run1", now.minusSeconds(60)));
+
+        MockCountingFrameworkRuns mockFrameworkRuns = new MockCountingFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockRBACService mockRBACService = FilledMockRBACService.createTestRBACService();
+        MockTagsService mockTagsService = new MockTagsService();
+        MockWatchableDss mockDss = new MockWatchableDss();
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatching(mockDss);
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // When...
+        mockTimeService.setCurrentTime(now.plus(1, ChronoUnit.MINUTES));
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        mockTimeService.setCurrentTime(now.plus(PrioritySchedulingService.QUEUE_REBUILD_INTERVAL_MINUTES, ChronoUnit.MINUTES));
+        schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(mockFrameworkRuns.getQueuedRunsCallCount).isEqualTo(2);
+    }
+
+    @Test
+    public void testWatchingServiceWith50kQueuedRunsOnlyScoresNewRuns() throws Exception {
+        // Given...
+        int queuedRunCount = 50000;
+        Instant now = Instant.now();
+        List<IRun> runs = new ArrayList<>();
+        for (int i = 0; i < queuedRunCount; i++) {
+            // Run names are in queued order, oldest first
+            runs.add(createQueuedRun(String.format("U%06d", i), now.minusSeconds(queuedRunCount - i)));
+        }
+
+        MockCountingFrameworkRuns mockFrameworkRuns = new MockCountingFrameworkRuns(runs);
+        MockIConfigurationPropertyStoreService mockCps = new MockIConfigurationPropertyStoreService();
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockCountingRBACService mockRBACService = new MockCountingRBACService();
+        MockTagsService mockTagsService = new MockTagsService();
+        MockWatchableDss mockDss = new MockWatchableDss();
+
+        PrioritySchedulingService schedulingService = new PrioritySchedulingService(mockFrameworkRuns, mockCps, mockRBACService, mockTimeService, mockTagsService);
+        schedulingService.startWatching(mockDss);
+
+        List<IRun> initialTopRuns = schedulingService.getPrioritisedTestRunsToSchedule(3);
+
+        // When...
+        // Every poll after the first only has to score the runs which were queued since the last poll
+        int pollCount = 100;
+        for (int i = 0; i < pollCount; i++) {
+            String runName = "N" + i;
+            runs.add(createQueuedRun(runName, now.plusSeconds(i)));
+            mockDss.watcher.propertyModified("run." + runName + ".status", Event.NEW, null, "queued");
+
+            mockTimeService.setCurrentTime(now.plusSeconds(i));
+            schedulingService.getPrioritisedTestRunsToSchedule(3);
+        }
+
+        List<IRun> allRuns = schedulingService.getPrioritisedTestRunsToSchedule();
+
+        // Then...
+        assertThat(getRunNames(initialTopRuns)).containsExactly("U000000", "U000001", "U000002");
+        assertThat(allRuns).hasSize(queuedRunCount + pollCount);
+        assertThat(allRuns.get(queuedRunCount + pollCount - 1).getName()).isEqualTo("N" + (pollCount - 1));
+
+        assertThat(mockFrameworkRuns.getQueuedRunsCallCount).isEqualTo(1);
+        assertThat(mockRBACService.getUserPriorityCallCount).isEqualTo(queuedRunCount + pollCount);
+    }
 }
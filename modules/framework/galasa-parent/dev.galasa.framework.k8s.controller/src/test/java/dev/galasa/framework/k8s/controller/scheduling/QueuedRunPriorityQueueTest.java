@@ -0,0 +1,91 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller.scheduling;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockRun;
+import dev.galasa.framework.spi.IRun;
+
+public class QueuedRunPriorityQueueTest {
+
+    private MockRun createRun(String runName, Instant queuedTime) {
+        MockRun run = new MockRun(null, null, runName, null, null, null, null, false);
+        run.setQueued(queuedTime);
+        return run;
+    }
+
+    private List<String> getRunNames(List<IRun> runs) {
+        List<String> runNames = new ArrayList<>();
+        for (IRun run : runs) {
+            runNames.add(run.getName());
+        }
+        return runNames;
+    }
+
+    @Test
+    public void testPeekTopReturnsHighestPriorityRunsWithoutRemovingThem() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        QueuedRunPriorityQueue queue = new QueuedRunPriorityQueue(1);
+        queue.add(createRun("newRun", now), 0);
+        queue.add(createRun("oldRun", now.minus(10, ChronoUnit.MINUTES)), 0);
+        queue.add(createRun("importantRun", now), 20);
+
+        // When...
+        List<IRun> topRuns = queue.peekTop(2);
+
+        // Then...
+        assertThat(getRunNames(topRuns)).containsExactly("importantRun", "oldRun");
+        assertThat(queue.size()).isEqualTo(3);
+        assertThat(getRunNames(queue.getAll())).containsExactly("importantRun", "oldRun", "newRun");
+    }
+
+    @Test
+    public void testChangingGrowthRateReordersRuns() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        QueuedRunPriorityQueue queue = new QueuedRunPriorityQueue(1);
+
+        // 10 minutes of queueing is worth 10 points at first, so the run with 5 fixed points comes second
+        queue.add(createRun("oldRun", now.minus(10, ChronoUnit.MINUTES)), 0);
+        queue.add(createRun("priorityRun", now), 5);
+
+        // When...
+        queue.setGrowthRatePerMin(0.1);
+
+        // Then...
+        // 10 minutes of queueing is now only worth 1 point
+        assertThat(getRunNames(queue.getAll())).containsExactly("priorityRun", "oldRun");
+    }
+
+    @Test
+    public void testRunsWithTheSameKeyStayInTheOrderTheyWereAdded() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+        QueuedRunPriorityQueue queue = new QueuedRunPriorityQueue(1);
+        queue.add(createRun("run2", now), 0);
+        queue.add(createRun("run1", now), 0);
+        queue.add(createRun("run3", now), 0);
+
+        // When...
+        // Replacing a run keeps its place
+        queue.add(createRun("run2", now), 0);
+        boolean isRemoved = queue.remove("run3");
+
+        // Then...
+        assertThat(isRemoved).isTrue();
+        assertThat(queue.contains("run3")).isFalse();
+        assertThat(getRunNames(queue.getAll())).containsExactly("run2", "run1");
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.maven.repository.spi;
+
+import java.util.List;
+
+public interface IMavenArtifactPrefetcher {
+
+    /**
+     * Download a set of artifacts into the local repository at the same time, so
+     * installing them afterwards doesn't have to download them one by one.
+     *
+     * Locations that are not mvn: URLs are ignored. An artifact that can't be
+     * downloaded is logged and skipped, it will be tried again when it is installed.
+     *
+     * @param bundleLocations the locations of the bundles, for example mvn:dev.galasa/dev.galasa.zos.manager/0.1.0/jar
+     * @return the number of artifacts that are now in the local repository
+     */
+    int prefetchArtifacts(List<String> bundleLocations);
+
+}
@@ -7,6 +7,7 @@ package dev.galasa.framework.maven.repository.internal;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
@@ -14,15 +15,28 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,10 +51,11 @@ import org.osgi.service.url.AbstractURLStreamHandlerService;
 import org.osgi.service.url.URLConstants;
 import org.osgi.service.url.URLStreamHandlerService;
 
+import dev.galasa.framework.maven.repository.spi.IMavenArtifactPrefetcher;
 import dev.galasa.framework.maven.repository.spi.IMavenRepository;
 
-@Component(service = { URLStreamHandlerService.class }, property = { URLConstants.URL_HANDLER_PROTOCOL + "=mvn" })
-public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerService {
+@Component(service = { URLStreamHandlerService.class, IMavenArtifactPrefetcher.class }, property = { URLConstants.URL_HANDLER_PROTOCOL + "=mvn" })
+public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerService implements IMavenArtifactPrefetcher {
 
     private static final Log               logger                = LogFactory
             .getLog(GalasaMavenUrlHandlerService.class);
@@ -48,9 +63,15 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
 
     private static final int FIVE_MINUTES_IN_MS_UNITS = 3000000;
 
+    private static final String MVN_URL_PREFIX = "mvn:";
+
+    private static final int DEFAULT_PREFETCH_THREADS = 8;
+
     @Reference
     private IMavenRepository               galasaRepository;
 
+    private int prefetchThreads = DEFAULT_PREFETCH_THREADS;
+
     public GalasaMavenUrlHandlerService() {
     }
 
@@ -58,6 +79,11 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
         this.galasaRepository = mavenRepository;
     }
 
+    public GalasaMavenUrlHandlerService(IMavenRepository mavenRepository, int prefetchThreads) {
+        this.galasaRepository = mavenRepository;
+        this.prefetchThreads = Math.max(1, prefetchThreads);
+    }
+
     /**
      * Adds Basic Authentication header to URLConnection if credentials are available
      *
@@ -79,9 +105,90 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
     @Override
     public URLConnection openConnection(URL arg0) throws IOException {
 
-        String[] parts = arg0.getPath().split("/");
+        String[] parts = splitArtifactPath(arg0.getPath(), arg0.toString());
+
+        URL result = fetchArtifact(parts[0], parts[1], parts[2], parts[3]);
+        if (result == null) {
+            throw new IOException("Unable to locate maven artifact " + arg0);
+        }
+
+        return result.openConnection();
+    }
+
+    /**
+     * Download the artifacts for a set of mvn: bundle locations on a pool of threads.
+     * The JVM keeps the HTTP connections to the remote repositories alive between
+     * downloads, so the threads reuse them rather than connecting for every artifact.
+     */
+    @Override
+    public int prefetchArtifacts(List<String> bundleLocations) {
+        Set<String> artifactReferences = new LinkedHashSet<>();
+        for (String bundleLocation : bundleLocations) {
+            if (bundleLocation != null && bundleLocation.startsWith(MVN_URL_PREFIX)) {
+                artifactReferences.add(bundleLocation);
+            }
+        }
+        if (artifactReferences.isEmpty()) {
+            return 0;
+        }
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = createPrefetchExecutor(Math.min(prefetchThreads, artifactReferences.size()));
+        int fetchedCount = 0;
+        try {
+            List<Future<URL>> fetches = new ArrayList<>();
+            for (String artifactReference : artifactReferences) {
+                fetches.add(executor.submit(() -> {
+                    String[] parts = splitArtifactPath(artifactReference.substring(MVN_URL_PREFIX.length()), artifactReference);
+                    return fetchArtifact(parts[0], parts[1], parts[2], parts[3]);
+                }));
+            }
+
+            int index = 0;
+            for (String artifactReference : artifactReferences) {
+                try {
+                    if (fetches.get(index).get() != null) {
+                        fetchedCount++;
+                    } else {
+                        logger.warn("Unable to locate maven artifact " + artifactReference + " to prefetch");
+                    }
+                } catch (ExecutionException e) {
+                    logger.warn("Unable to prefetch maven artifact " + artifactReference, e.getCause());
+                }
+                index++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while prefetching maven artifacts");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.debug("Prefetched " + fetchedCount + " of " + artifactReferences.size() + " maven artifacts in "
+                + (System.currentTimeMillis() - startTime) + "ms");
+        return fetchedCount;
+    }
+
+    private ExecutorService createPrefetchExecutor(int threadCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "galasa-maven-prefetch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threadCount, threadFactory);
+    }
+
+    /**
+     * @param path      the groupId/artifactId/version/packaging part of a mvn: URL
+     * @param reference the whole reference, for error messages
+     * @return the groupId, artifactId, version and packaging
+     * @throws MalformedURLException if any part is missing
+     */
+    private String[] splitArtifactPath(String path, String reference) throws MalformedURLException {
+        String[] parts = path.split("/");
         if (parts.length != 4) {
-            throw new MalformedURLException("Must have 4 parts in the maven artifact reference - " + arg0);
+            throw new MalformedURLException("Must have 4 parts in the maven artifact reference - " + reference);
         }
 
         String groupId = parts[0].trim();
@@ -90,24 +197,19 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
         String packaging = parts[3].trim();
 
         if (groupId.isEmpty()) {
-            throw new MalformedURLException("groupId is missing - " + arg0);
+            throw new MalformedURLException("groupId is missing - " + reference);
         }
         if (artifactId.isEmpty()) {
-            throw new MalformedURLException("artifactId is missing - " + arg0);
+            throw new MalformedURLException("artifactId is missing - " + reference);
         }
         if (version.isEmpty()) {
-            throw new MalformedURLException("version is missing - " + arg0);
+            throw new MalformedURLException("version is missing - " + reference);
         }
         if (packaging.isEmpty()) {
-            throw new MalformedURLException("packaging is missing - " + arg0);
+            throw new MalformedURLException("packaging is missing - " + reference);
         }
 
-        URL result = fetchArtifact(groupId, artifactId, version, packaging);
-        if (result == null) {
-            throw new IOException("Unable to locate maven artifact " + arg0);
-        }
-
-        return result.openConnection();
+        return new String[] { groupId, artifactId, version, packaging };
     }
 
     private URL fetchArtifact(String groupid, String artifactid, String version,
@@ -170,9 +272,9 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
         }
         String resolvedVersion = null;
         if (tempMetadata != null) {        
-            try {
+            try (InputStream metadataStream = Files.newInputStream(tempMetadata)) {
                 MetadataXpp3Reader reader = new MetadataXpp3Reader();
-                Metadata metadata = reader.read(Files.newInputStream(tempMetadata));
+                Metadata metadata = reader.read(metadataStream);
     
                 Versioning versioning = metadata.getVersioning();
                 if (versioning != null) {
@@ -247,9 +349,9 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
 
         String snapshotSuffix = null;
         long updatedTime = 0;
-        try {
+        try (InputStream metadataStream = Files.newInputStream(tempMetadata)) {
             MetadataXpp3Reader reader = new MetadataXpp3Reader();
-            Metadata metadata = reader.read(Files.newInputStream(tempMetadata));
+            Metadata metadata = reader.read(metadataStream);
 
             Versioning versioning = metadata.getVersioning();
             if (versioning != null) {
@@ -284,18 +386,13 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
                 buildArtifactFilename(artifactid, snapshotSuffix, type));
         logger.debug("Attempting to download snapshot" + urlRemoteFile);
 
-        URLConnection connection = createConnection(urlRemoteFile);
-        connection.connect();
-
-        try {
-            Files.copy(connection.getInputStream(), localArtifact, StandardCopyOption.REPLACE_EXISTING);
-        } catch (FileNotFoundException e) {
+        if (!downloadArtifact(urlRemoteFile, localArtifact)) {
             return null;
         }
 
         logger.trace("Snapshot artifact downloaded from " + urlRemoteFile);
 
-        Files.write(localTimestamp, Long.toString(Instant.now().getEpochSecond()).getBytes());
+        writeAtomically(localTimestamp, Long.toString(Instant.now().getEpochSecond()).getBytes(StandardCharsets.UTF_8));
 
         return localArtifact.toUri().toURL();
     }
@@ -308,7 +405,9 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
 
           URLConnection connection = createConnection(urlRemoteFile);
           connection.connect();
-          Files.copy(connection.getInputStream(), tempMetadata, StandardCopyOption.REPLACE_EXISTING);
+          try (InputStream metadataStream = connection.getInputStream()) {
+              Files.copy(metadataStream, tempMetadata, StandardCopyOption.REPLACE_EXISTING);
+          }
       } catch (FileNotFoundException e) {
           Files.delete(tempMetadata);
           return null;
@@ -357,16 +456,11 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
                     " with connection timeout of "+Integer.toString(connectionTimeoutMilliSecs)+"ms "+
                     "and read timeout of "+Integer.toString(readTimeoutMilliSecs)+"ms "
                     );
-        URLConnection connection = createConnection(urlRemoteFile);
-
         try {
-            logger.debug("Connecting now...");
-            connection.connect();
-            logger.debug("Connected OK...");
-            Files.copy(connection.getInputStream(), localArtifact, StandardCopyOption.REPLACE_EXISTING);
-        } catch (FileNotFoundException e) {
-            logger.trace("Release artifact "+ urlRemoteFile+" failed to download. File not found." );
-            return false;
+            if (!downloadArtifact(urlRemoteFile, localArtifact)) {
+                logger.trace("Release artifact "+ urlRemoteFile+" failed to download. File not found." );
+                return false;
+            }
         } catch (Exception e) {
             // Re-throw any exception after tracing it.
             logger.trace("Release artifact "+ urlRemoteFile+" failed to download.",e );
@@ -378,6 +472,95 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
         return true;
     }
 
+    /**
+     * Download an artifact to a temporary file next to where it belongs, check it against
+     * the SHA-1 checksum published with it, then move it into place. Several pods can share
+     * the local repository, so a partly downloaded or corrupt file must never appear there.
+     *
+     * @return true if the artifact was downloaded, false if the repository doesn't have it
+     * @throws IOException if the download fails or the checksum doesn't match
+     */
+    boolean downloadArtifact(URL urlRemoteFile, Path localArtifact) throws IOException {
+        Path tempArtifact = Files.createTempFile(localArtifact.getParent(), localArtifact.getFileName().toString(), ".part");
+        try {
+            MessageDigest digest = newSha1Digest();
+            try {
+                logger.debug("Connecting now...");
+                URLConnection connection = createConnection(urlRemoteFile);
+                connection.connect();
+                logger.debug("Connected OK...");
+                try (InputStream artifactStream = new DigestInputStream(connection.getInputStream(), digest)) {
+                    Files.copy(artifactStream, tempArtifact, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (FileNotFoundException e) {
+                return false;
+            }
+
+            verifyChecksum(urlRemoteFile, toHex(digest.digest()));
+
+            moveAtomically(tempArtifact, localArtifact);
+            return true;
+        } finally {
+            Files.deleteIfExists(tempArtifact);
+        }
+    }
+
+    private void verifyChecksum(URL urlRemoteFile, String actualChecksum) throws IOException {
+        URL urlChecksum = new URL(urlRemoteFile.toExternalForm() + ".sha1");
+        String expectedChecksum;
+        try {
+            URLConnection connection = createConnection(urlChecksum);
+            connection.connect();
+            try (InputStream checksumStream = connection.getInputStream()) {
+                expectedChecksum = new String(checksumStream.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+        } catch (FileNotFoundException e) {
+            logger.debug("No checksum published for " + urlRemoteFile + ", unable to verify it");
+            return;
+        }
+
+        // Some repositories follow the checksum with the file name
+        String[] checksumParts = expectedChecksum.split("\\s+");
+        if (checksumParts.length == 0 || !checksumParts[0].equalsIgnoreCase(actualChecksum)) {
+            throw new IOException("Checksum of " + urlRemoteFile + " does not match, expected " + expectedChecksum + " but was " + actualChecksum);
+        }
+        logger.trace("Checksum verified for " + urlRemoteFile);
+    }
+
+    private void writeAtomically(Path file, byte[] content) throws IOException {
+        Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+        try {
+            Files.write(tempFile, content);
+            moveAtomically(tempFile, file);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newSha1Digest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-1 is not available to verify maven artifacts", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            stringBuilder.append(String.format("%02x", b));
+        }
+        return stringBuilder.toString();
+    }
+
     public URL buildArtifactUrl(URL repository, String groupid, String artifactid, String version,
             String filename) throws IOException {
         String groupidDirectory = groupid.replaceAll("\\.", "/");
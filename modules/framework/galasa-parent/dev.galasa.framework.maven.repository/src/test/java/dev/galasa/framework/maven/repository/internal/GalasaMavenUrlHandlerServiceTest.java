@@ -8,16 +8,28 @@ package dev.galasa.framework.maven.repository.internal;
 import static org.assertj.core.api.Assertions.*;
 
 import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import dev.galasa.framework.maven.repository.internal.mocks.MockURLConnection;
 import dev.galasa.framework.mocks.MockMavenRepository;
 
 public class GalasaMavenUrlHandlerServiceTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     
     @Test
     public void TestCanCreateHandlerServiceObject() {
@@ -181,4 +193,122 @@ public class GalasaMavenUrlHandlerServiceTest {
         String decoded = new String(Base64.getDecoder().decode(encodedPart), StandardCharsets.UTF_8);
         assertThat(decoded).isEqualTo(username + ":" + password);
     }
+
+    private Path createRemoteArtifact(Path remoteRepository, String artifactId, String version, String content, String sha1) throws Exception {
+        Path artifactDirectory = remoteRepository.resolve("dev/galasa/" + artifactId + "/" + version);
+        Files.createDirectories(artifactDirectory);
+        Path artifact = artifactDirectory.resolve(artifactId + "-" + version + ".jar");
+        Files.write(artifact, content.getBytes(StandardCharsets.UTF_8));
+        if (sha1 != null) {
+            Files.write(artifactDirectory.resolve(artifact.getFileName() + ".sha1"), sha1.getBytes(StandardCharsets.UTF_8));
+        }
+        return artifact;
+    }
+
+    private String sha1Of(String content) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(content.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private URL createMvnUrl(String spec) throws Exception {
+        // The mvn: protocol is only registered inside an OSGi framework
+        return new URL(null, spec, new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) {
+                throw new UnsupportedOperationException();
+            }
+        });
+    }
+
+    private GalasaMavenUrlHandlerService createServiceWithRepositories(Path localRepository, Path remoteRepository) throws Exception {
+        MockMavenRepository mockRepo = new MockMavenRepository();
+        mockRepo.setRepositories(localRepository.toUri().toURL(), List.of(remoteRepository.toUri().toURL()));
+        return new GalasaMavenUrlHandlerService(mockRepo, 4);
+    }
+
+    @Test
+    public void testPrefetchDownloadsAllArtifactsIntoTheLocalRepository() throws Exception {
+        // Given...
+        Path localRepository = temporaryFolder.newFolder("local").toPath();
+        Path remoteRepository = temporaryFolder.newFolder("remote").toPath();
+
+        List<String> bundleLocations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String content = "bundle content " + i;
+            createRemoteArtifact(remoteRepository, "bundle" + i, "0.1.0", content, sha1Of(content) + "  bundle" + i + "-0.1.0.jar");
+            bundleLocations.add("mvn:dev.galasa/bundle" + i + "/0.1.0/jar");
+        }
+        bundleLocations.add("reference:file:/not/a/maven/artifact.jar");
+
+        GalasaMavenUrlHandlerService service = createServiceWithRepositories(localRepository, remoteRepository);
+
+        // When...
+        int fetchedCount = service.prefetchArtifacts(bundleLocations);
+
+        // Then...
+        assertThat(fetchedCount).isEqualTo(10);
+        for (int i = 0; i < 10; i++) {
+            Path localArtifact = localRepository.resolve("dev/galasa/bundle" + i + "/0.1.0/bundle" + i + "-0.1.0.jar");
+            assertThat(localArtifact).hasContent("bundle content " + i);
+            assertThat(localArtifact.getParent().toFile().list()).containsExactly(localArtifact.getFileName().toString());
+        }
+    }
+
+    @Test
+    public void testArtifactWithWrongChecksumIsNotMovedIntoTheLocalRepository() throws Exception {
+        // Given...
+        Path localRepository = temporaryFolder.newFolder("local").toPath();
+        Path remoteRepository = temporaryFolder.newFolder("remote").toPath();
+
+        createRemoteArtifact(remoteRepository, "good", "0.1.0", "good content", sha1Of("good content"));
+        createRemoteArtifact(remoteRepository, "corrupt", "0.1.0", "truncated cont", sha1Of("corrupt content"));
+
+        GalasaMavenUrlHandlerService service = createServiceWithRepositories(localRepository, remoteRepository);
+
+        // When...
+        int fetchedCount = service.prefetchArtifacts(List.of("mvn:dev.galasa/good/0.1.0/jar", "mvn:dev.galasa/corrupt/0.1.0/jar"));
+
+        // Then...
+        assertThat(fetchedCount).isEqualTo(1);
+        assertThat(localRepository.resolve("dev/galasa/good/0.1.0/good-0.1.0.jar")).exists();
+        assertThat(localRepository.resolve("dev/galasa/corrupt/0.1.0").toFile().list()).isEmpty();
+    }
+
+    @Test
+    public void testArtifactWithoutAChecksumIsStillDownloaded() throws Exception {
+        // Given...
+        Path localRepository = temporaryFolder.newFolder("local").toPath();
+        Path remoteRepository = temporaryFolder.newFolder("remote").toPath();
+
+        createRemoteArtifact(remoteRepository, "unchecked", "0.1.0", "unchecked content", null);
+
+        GalasaMavenUrlHandlerService service = createServiceWithRepositories(localRepository, remoteRepository);
+
+        // When...
+        URLConnection connection = service.openConnection(createMvnUrl("mvn:dev.galasa/unchecked/0.1.0/jar"));
+
+        // Then...
+        Path localArtifact = localRepository.resolve("dev/galasa/unchecked/0.1.0/unchecked-0.1.0.jar");
+        assertThat(localArtifact).hasContent("unchecked content");
+        assertThat(connection.getURL()).isEqualTo(localArtifact.toUri().toURL());
+    }
+
+    @Test
+    public void testPrefetchOfMissingArtifactIsNotCounted() throws Exception {
+        // Given...
+        Path localRepository = temporaryFolder.newFolder("local").toPath();
+        Path remoteRepository = temporaryFolder.newFolder("remote").toPath();
+
+        GalasaMavenUrlHandlerService service = createServiceWithRepositories(localRepository, remoteRepository);
+
+        // When...
+        int fetchedCount = service.prefetchArtifacts(List.of("mvn:dev.galasa/missing/0.1.0/jar", "mvn:dev.galasa/bad-reference"));
+
+        // Then...
+        assertThat(fetchedCount).isEqualTo(0);
+    }
 }
@@ -33,6 +33,7 @@ public class RunDeadHeartbeatMonitor implements Runnable {
     private final IResourceManagement                resourceManagement;
     private final IConfigurationPropertyStoreService cps;
     private final IFrameworkRuns                     frameworkRuns;
+    private final RunStateIndex                      runStateIndex;
     private final Log                                logger ;
     private final ITimeService                       timeService ;
 
@@ -54,11 +55,33 @@ public class RunDeadHeartbeatMonitor implements Runnable {
         );
     }
 
+    protected RunDeadHeartbeatMonitor(
+        IFramework framework, IResourceManagement resourceManagement,
+        IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
+        IConfigurationPropertyStoreService cps, RunStateIndex runStateIndex) throws FrameworkException {
+
+        this(framework, resourceManagement, dss, 
+            runResourceManagement, cps, 
+            LogFactory.getLog(RunDeadHeartbeatMonitor.class),
+            new SystemTimeService(),
+            runStateIndex
+        );
+    }
+
     protected RunDeadHeartbeatMonitor(IFramework framework, IResourceManagement resourceManagement,
             IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
             IConfigurationPropertyStoreService cps, Log logger, ITimeService timeService) throws FrameworkException {
+        this(framework, resourceManagement, dss, runResourceManagement, cps, logger, timeService,
+            new RunStateIndex(framework.getFrameworkRuns(), dss));
+    }
+
+    protected RunDeadHeartbeatMonitor(IFramework framework, IResourceManagement resourceManagement,
+            IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
+            IConfigurationPropertyStoreService cps, Log logger, ITimeService timeService,
+            RunStateIndex runStateIndex) throws FrameworkException {
         this.resourceManagement = resourceManagement;
         this.frameworkRuns = framework.getFrameworkRuns();
+        this.runStateIndex = runStateIndex;
         this.cps = cps;
         this.logger = logger;
         this.logger.info("Run Dead Heartbeat Monitor initialised");
@@ -73,7 +96,7 @@ public class RunDeadHeartbeatMonitor implements Runnable {
         logger.info("Starting Run Dead Heartbeat search");
         try {
             logger.trace("Fetching list of Active Runs");
-            List<IRun> runs = frameworkRuns.getActiveRuns();
+            List<IRun> runs = runStateIndex.getActiveRuns();
             logger.trace("Active Run count = " + runs.size());
             for (IRun run : runs) {
                 if (run.isSharedEnvironment()) {
@@ -29,6 +29,7 @@ public class RunFinishedRuns implements Runnable {
     private final IResourceManagement                resourceManagement;
     private final IConfigurationPropertyStoreService cps;
     private final IFrameworkRuns                     frameworkRuns;
+    private final RunStateIndex                      runStateIndex;
     private final Log                                logger = LogFactory.getLog(this.getClass());
 
     private final DateTimeFormatter                  dtf    = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm:ss")
@@ -37,8 +38,16 @@ public class RunFinishedRuns implements Runnable {
     protected RunFinishedRuns(IFramework framework, IResourceManagement resourceManagement,
             IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
             IConfigurationPropertyStoreService cps) throws FrameworkException {
+        this(framework, resourceManagement, dss, runResourceManagement, cps,
+            new RunStateIndex(framework.getFrameworkRuns(), dss));
+    }
+
+    protected RunFinishedRuns(IFramework framework, IResourceManagement resourceManagement,
+            IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
+            IConfigurationPropertyStoreService cps, RunStateIndex runStateIndex) throws FrameworkException {
         this.resourceManagement = resourceManagement;
         this.frameworkRuns = framework.getFrameworkRuns();
+        this.runStateIndex = runStateIndex;
         this.cps = cps;
         this.logger.info("Finished Runs Monitor initialised");
     }
@@ -58,7 +67,7 @@ public class RunFinishedRuns implements Runnable {
 
         logger.info("Starting search for finished runs");
         try {
-            List<IRun> runs = frameworkRuns.getAllRuns();
+            List<IRun> runs = runStateIndex.getAllRuns();
             for (IRun run : runs) {
                 String runName = run.getName();
 
@@ -11,6 +11,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.annotations.Component;
 
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
@@ -32,6 +33,7 @@ public class RunResourceManagement implements IResourceManagementProvider {
     private RunFinishedRuns                    runFinishedRuns;
     private RunInactiveRunCleanup              runInactiveRunCleanup;
     private RunWaitingRuns                     runWaitingRuns;
+    private RunStateIndex                      runStateIndex;
 
     @Override
     public boolean initialise(IFramework framework, IResourceManagement resourceManagement)
@@ -46,19 +48,25 @@ public class RunResourceManagement implements IResourceManagementProvider {
         }
 
         try {
-            this.deadHeartbeatMonitor = new RunDeadHeartbeatMonitor(this.framework, this.resourceManagement, this.dss, this, cps);
+            this.runStateIndex = new RunStateIndex(this.framework.getFrameworkRuns(), this.dss);
+        } catch (FrameworkException e) {
+            throw new ResourceManagerException("Unable to initialise the run state index", e);
+        }
+
+        try {
+            this.deadHeartbeatMonitor = new RunDeadHeartbeatMonitor(this.framework, this.resourceManagement, this.dss, this, cps, this.runStateIndex);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise Run Dead Heartbeat monitor", e);
         }
 
         try {
-            this.runExpiredSharedEnvironment = new RunExpiredSharedEnvironment(this.framework, this.resourceManagement, this.dss, this, cps);
+            this.runExpiredSharedEnvironment = new RunExpiredSharedEnvironment(this.framework, this.resourceManagement, this.dss, this, cps, this.runStateIndex);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise Run expired shared environment monitor", e);
         }
 
         try {
-            this.runFinishedRuns = new RunFinishedRuns(this.framework, this.resourceManagement, this.dss, this, cps);
+            this.runFinishedRuns = new RunFinishedRuns(this.framework, this.resourceManagement, this.dss, this, cps, this.runStateIndex);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise Finished Run monitor", e);
         }
@@ -71,7 +79,7 @@ public class RunResourceManagement implements IResourceManagementProvider {
         }
 
         try {
-            this.runWaitingRuns = new RunWaitingRuns(this.framework, this.resourceManagement, this.dss, this, cps);
+            this.runWaitingRuns = new RunWaitingRuns(this.framework, this.resourceManagement, this.dss, this, cps, this.runStateIndex);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise waiting run monitor", e);
         }
@@ -81,6 +89,14 @@ public class RunResourceManagement implements IResourceManagementProvider {
 
     @Override
     public void start() {
+        // The monitors are going to run repeatedly, so keep an index of the runs up to date
+        // with a DSS watch rather than having each monitor re-read every run on each cycle.
+        try {
+            this.runStateIndex.startWatching();
+        } catch (DynamicStatusStoreException e) {
+            logger.error("Unable to watch the DSS for run changes, the run state index will be rebuilt on every query until it can be watched", e);
+        }
+
         if (this.deadHeartbeatMonitor != null) {
             this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
                     this.deadHeartbeatMonitor,
@@ -143,6 +159,13 @@ public class RunResourceManagement implements IResourceManagementProvider {
 
     @Override
     public void shutdown() {
+        if (this.runStateIndex != null) {
+            try {
+                this.runStateIndex.stopWatching();
+            } catch (DynamicStatusStoreException e) {
+                logger.error("Unable to stop watching the DSS for run changes", e);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,279 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.RunImpl;
+import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IFrameworkRuns;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.utils.DssPrefixWatch;
+
+/**
+ * An in-memory index of the runs in the DSS, shared by the run monitors.
+ *
+ * Once watching, the index is built from a single scan of the DSS and then kept up to date
+ * by a watch on the run properties, so a monitor cycle only has to process the runs that
+ * have changed since the last cycle rather than re-reading every run from the DSS.
+ *
+ * The index is only rebuilt from a full scan when it starts watching, or when the DSS
+ * tells us that the watch was interrupted and some changes may have been missed. The
+ * watch is registered again before the rebuild, and until that succeeds the index is
+ * rebuilt on every query.
+ *
+ * When the index is not watching the DSS, all queries are passed through to the framework runs.
+ */
+public class RunStateIndex implements IDynamicStatusStoreWatcher {
+
+    private static final String RUN_PREFIX = "run.";
+
+    // The keys we get from the DSS are something like this:
+    // run.U4657.status
+    private final Pattern runPropertyPattern = Pattern.compile("^run[.](\\w+)[.].*$");
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final IFrameworkRuns frameworkRuns;
+    private final IDynamicStatusStoreService dss;
+    private final DssPrefixWatch runPropertiesWatch;
+
+    // Changes are queued up by the DSS watch thread and applied to the index on the next query,
+    // so that the watch thread is never blocked by a monitor.
+    private final Queue<RunPropertyChange> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    // Only accessed while holding the lock on this index.
+    private final Map<String, Map<String, String>> propertiesByRunName = new HashMap<>();
+    private final Map<String, IRun> runsByName = new HashMap<>();
+
+    private volatile boolean isRebuildRequired = true;
+    private long rebuildCount = 0;
+
+    public RunStateIndex(IFrameworkRuns frameworkRuns, IDynamicStatusStoreService dss) {
+        this.frameworkRuns = frameworkRuns;
+        this.dss = dss;
+        this.runPropertiesWatch = new DssPrefixWatch(dss, RUN_PREFIX, this);
+    }
+
+    /**
+     * Start watching the DSS for run changes. If the watch can't be registered, it is tried
+     * again on each query, and the index is rebuilt on each query until it is registered.
+     */
+    public synchronized void startWatching() throws DynamicStatusStoreException {
+        this.isRebuildRequired = true;
+        this.runPropertiesWatch.start();
+        logger.info("Run state index is watching the DSS for run changes");
+    }
+
+    public synchronized void stopWatching() throws DynamicStatusStoreException {
+        this.runPropertiesWatch.stop();
+    }
+
+    public boolean isWatching() {
+        return this.runPropertiesWatch.isStarted();
+    }
+
+    /**
+     * @return the number of times the index has been rebuilt from a full scan of the DSS
+     */
+    public synchronized long getRebuildCount() {
+        return this.rebuildCount;
+    }
+
+    @Override
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        if (event != null && key != null) {
+            Matcher matcher = runPropertyPattern.matcher(key);
+            if (matcher.find()) {
+                String runName = matcher.group(1);
+                pendingChanges.add(new RunPropertyChange(runName, key, event, newValue));
+            }
+        }
+    }
+
+    @Override
+    public void watchInterrupted(Throwable cause) {
+        logger.warn("The DSS watch on run properties was interrupted, the run state index will be rebuilt", cause);
+        this.isRebuildRequired = true;
+    }
+
+    public synchronized List<IRun> getAllRuns() throws FrameworkException {
+        List<IRun> runs;
+        if (isWatching()) {
+            refresh();
+            runs = new ArrayList<>();
+            for (String runName : propertiesByRunName.keySet()) {
+                runs.add(getIndexedRun(runName));
+            }
+        } else {
+            runs = frameworkRuns.getAllRuns();
+        }
+        return runs;
+    }
+
+    /**
+     * Gets the runs which have a heartbeat, or are shared environments, in the same
+     * way as {@link IFrameworkRuns#getActiveRuns()}
+     */
+    public synchronized List<IRun> getActiveRuns() throws FrameworkException {
+        List<IRun> activeRuns;
+        if (isWatching()) {
+            activeRuns = new ArrayList<>();
+            for (IRun run : getAllRuns()) {
+                if (run.getHeartbeat() != null || run.isSharedEnvironment()) {
+                    activeRuns.add(run);
+                }
+            }
+        } else {
+            activeRuns = frameworkRuns.getActiveRuns();
+        }
+        return activeRuns;
+    }
+
+    public synchronized List<IRun> getRunsByStatus(TestRunLifecycleStatus... statuses) throws FrameworkException {
+        List<IRun> matchingRuns;
+        if (isWatching()) {
+            Set<String> statusesToMatch = new HashSet<>();
+            for (TestRunLifecycleStatus status : statuses) {
+                statusesToMatch.add(status.toString());
+            }
+
+            matchingRuns = new ArrayList<>();
+            for (IRun run : getAllRuns()) {
+                if (statusesToMatch.contains(run.getStatus())) {
+                    matchingRuns.add(run);
+                }
+            }
+        } else {
+            matchingRuns = frameworkRuns.getRunsByStatus(statuses);
+        }
+        return matchingRuns;
+    }
+
+    private void refresh() throws DynamicStatusStoreException {
+        if (runPropertiesWatch.rewatchIfLost()) {
+            isRebuildRequired = true;
+        }
+
+        // While the watch can't be registered again, changes can't be relied on, so keep rescanning
+        if (isRebuildRequired || !runPropertiesWatch.isWatching()) {
+            rebuild();
+        }
+
+        RunPropertyChange change = pendingChanges.poll();
+        while (change != null) {
+            applyChange(change);
+            change = pendingChanges.poll();
+        }
+    }
+
+    private void rebuild() throws DynamicStatusStoreException {
+        logger.info("Rebuilding the run state index from the DSS");
+
+        // Reset the flag first, so that an interruption during the scan causes another rebuild.
+        // Changes already queued are covered by the scan, and any arriving from now on will be
+        // applied on top of it.
+        isRebuildRequired = false;
+        pendingChanges.clear();
+
+        Map<String, String> runProperties = dss.getPrefix(RUN_PREFIX);
+
+        propertiesByRunName.clear();
+        runsByName.clear();
+        for (Map.Entry<String, String> entry : runProperties.entrySet()) {
+            Matcher matcher = runPropertyPattern.matcher(entry.getKey());
+            if (matcher.find()) {
+                getOrCreateRunProperties(matcher.group(1)).put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        rebuildCount++;
+        logger.info("Run state index rebuilt, " + propertiesByRunName.size() + " runs found");
+    }
+
+    private void applyChange(RunPropertyChange change) {
+        String runName = change.getRunName();
+
+        // The run has changed, so its cached run object is now stale.
+        runsByName.remove(runName);
+
+        if (change.getEvent() == Event.DELETE) {
+            Map<String, String> properties = propertiesByRunName.get(runName);
+            if (properties != null) {
+                properties.remove(change.getKey());
+                if (properties.isEmpty()) {
+                    propertiesByRunName.remove(runName);
+                }
+            }
+        } else {
+            getOrCreateRunProperties(runName).put(change.getKey(), change.getNewValue());
+        }
+    }
+
+    private Map<String, String> getOrCreateRunProperties(String runName) {
+        Map<String, String> properties = propertiesByRunName.get(runName);
+        if (properties == null) {
+            properties = new HashMap<>();
+            propertiesByRunName.put(runName, properties);
+        }
+        return properties;
+    }
+
+    private IRun getIndexedRun(String runName) {
+        IRun run = runsByName.get(runName);
+        if (run == null) {
+            run = new RunImpl(runName, new HashMap<>(propertiesByRunName.get(runName)));
+            runsByName.put(runName, run);
+        }
+        return run;
+    }
+
+    private static class RunPropertyChange {
+        private final String runName;
+        private final String key;
+        private final Event event;
+        private final String newValue;
+
+        public RunPropertyChange(String runName, String key, Event event, String newValue) {
+            this.runName = runName;
+            this.key = key;
+            this.event = event;
+            this.newValue = newValue;
+        }
+
+        public String getRunName() {
+            return runName;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Event getEvent() {
+            return event;
+        }
+
+        public String getNewValue() {
+            return newValue;
+        }
+    }
+}
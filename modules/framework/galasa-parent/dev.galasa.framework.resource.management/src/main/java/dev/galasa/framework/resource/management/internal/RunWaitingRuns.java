@@ -27,15 +27,24 @@ public class RunWaitingRuns implements Runnable {
 
     private final IResourceManagement        resourceManagement;
     private final IFrameworkRuns             frameworkRuns;
+    private final RunStateIndex              runStateIndex;
     private final IDynamicStatusStoreService dss;
     private final Log                        logger = LogFactory.getLog(this.getClass());
 
     protected RunWaitingRuns(IFramework framework, IResourceManagement resourceManagement,
             IDynamicStatusStoreService dss, RunResourceManagement runResourceManagement,
             IConfigurationPropertyStoreService cps) throws FrameworkException {
+        this(framework, resourceManagement, dss, runResourceManagement, cps,
+            new RunStateIndex(framework.getFrameworkRuns(), dss));
+    }
+
+    protected RunWaitingRuns(IFramework framework, IResourceManagement resourceManagement,
+            IDynamicStatusStoreService dss, RunResourceManagement runResourceManagement,
+            IConfigurationPropertyStoreService cps, RunStateIndex runStateIndex) throws FrameworkException {
         this.resourceManagement = resourceManagement;
         this.dss = dss;
         this.frameworkRuns = framework.getFrameworkRuns();
+        this.runStateIndex = runStateIndex;
         this.logger.info("Waiting Runs Monitor initialised");
     }
 
@@ -43,7 +52,7 @@ public class RunWaitingRuns implements Runnable {
     public void run() {
         logger.info("Starting Waiting Run search");
         try {
-            List<IRun> runs = frameworkRuns.getAllRuns();
+            List<IRun> runs = runStateIndex.getRunsByStatus(TestRunLifecycleStatus.WAITING);
             for (IRun run : runs) {
                 String runName = run.getName();
 
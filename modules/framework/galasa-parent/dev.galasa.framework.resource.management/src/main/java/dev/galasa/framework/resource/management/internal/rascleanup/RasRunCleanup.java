@@ -8,10 +8,15 @@ package dev.galasa.framework.resource.management.internal.rascleanup;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -23,9 +28,17 @@ import dev.galasa.framework.spi.IResultArchiveStore;
 import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ras.IRasSearchCriteria;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSearchCriteriaQueuedFrom;
 import dev.galasa.framework.spi.ras.RasSearchCriteriaQueuedTo;
+import dev.galasa.framework.spi.ras.RasSortField;
 import dev.galasa.framework.spi.utils.ITimeService;
 
+/**
+ * Deletes old runs from the RAS. The matching runs are read a page at a time from each
+ * RAS store, and each page is deleted in one batch while the next page is being read, so
+ * only a few pages of runs are ever held in memory however many runs are being deleted.
+ */
 public class RasRunCleanup implements Runnable {
 
     private final Log logger = LogFactory.getLog(getClass());
@@ -34,12 +47,29 @@ public class RasRunCleanup implements Runnable {
     private static final String TEST_RUN_MAX_DAYS_CPS_PROPERTY = "test.run.age.max.days";
     private static final String TEST_RUN_EXCLUDE_PREFIX = TEST_RUN_CLEANUP_CPS_PREFIX + ".test.run.exclude.";
 
+    // The number of runs read from the RAS and deleted in each batch
+    private static final String PAGE_SIZE_CPS_PROPERTY = "page.size";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    // The most batches of runs that are being deleted at the same time
+    private static final String DELETE_CONCURRENCY_CPS_PROPERTY = "delete.concurrency";
+    private static final int DEFAULT_DELETE_CONCURRENCY = 4;
+
+    // The most runs deleted each second, so a sweep doesn't overload the RAS. 0 means no limit
+    private static final String DELETE_MAX_RUNS_PER_SECOND_CPS_PROPERTY = "delete.max.runs.per.second";
+    private static final int DEFAULT_DELETE_MAX_RUNS_PER_SECOND = 0;
+
+    private static final RasSortField SORT_BY_QUEUED_TIME = new RasSortField("queued", "asc");
+
     private final int initialRunCleanupMaxAgeDays;
 
     private IResultArchiveStore rasService;
     private IConfigurationPropertyStoreService cpsService;
     private ITimeService timeService;
 
+    private final RasRunCleanupMetrics.Collectors metricsCollectors;
+    private volatile RasRunCleanupMetrics lastSweepMetrics;
+
     public RasRunCleanup(
         IConfigurationPropertyStoreService cpsService,
         IResultArchiveStore rasService,
@@ -50,79 +80,199 @@ public class RasRunCleanup implements Runnable {
         this.cpsService = cpsService;
         this.timeService = timeService;
         this.initialRunCleanupMaxAgeDays = initialRunCleanupMaxAgeDays;
+        this.metricsCollectors = new RasRunCleanupMetrics.Collectors();
     }
 
     @Override
     public void run() {
         logger.info("Starting scan for runs to clean up from the RAS");
 
-        List<IRunResult> runs = new ArrayList<>();
+        RasRunCleanupMetrics metrics = new RasRunCleanupMetrics(metricsCollectors, timeService.now());
         try {
-            runs = getRunsToCleanUp();
+            List<IRasSearchCriteria> searchCriteria = buildSearchCriteria();
+            if (searchCriteria != null && !searchCriteria.isEmpty()) {
+                cleanUpRuns(searchCriteria.toArray(new IRasSearchCriteria[0]), metrics);
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while cleaning up runs from the RAS");
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             logger.error("Error while scanning for runs to clean up", e);
         }
 
-        for (IRunResult run : runs) {
-            String runId = run.getRunId();
-
-            try {
-                logger.trace("Deleting run " + runId);
-                run.discard();
-                logger.trace("Deleted run " + runId);
-            } catch (Exception e) {
-                logger.error("Error while deleting run " + runId, e);
-            }
-        }
+        metrics.finish(timeService.now());
+        lastSweepMetrics = metrics;
+        logger.info("Finished scan for runs to clean up from the RAS. " + metrics);
+    }
 
-        logger.info("Finished scan for runs to clean up from the RAS");
+    RasRunCleanupMetrics getLastSweepMetrics() {
+        return lastSweepMetrics;
     }
 
-    private List<IRunResult> getRunsToCleanUp() throws FrameworkException {
-        List<IRunResult> runs = new ArrayList<>();
-        List<IRasSearchCriteria> searchCriteria = buildSearchCriteria();
+    private void cleanUpRuns(IRasSearchCriteria[] searchCriteria, RasRunCleanupMetrics metrics) throws FrameworkException, InterruptedException {
+        int pageSize = getPositiveIntProperty(PAGE_SIZE_CPS_PROPERTY, DEFAULT_PAGE_SIZE);
+        int deleteConcurrency = getPositiveIntProperty(DELETE_CONCURRENCY_CPS_PROPERTY, DEFAULT_DELETE_CONCURRENCY);
+        int maxRunsPerSecond = getIntProperty(DELETE_MAX_RUNS_PER_SECOND_CPS_PROPERTY, DEFAULT_DELETE_MAX_RUNS_PER_SECOND);
+
+        List<ParsedExcludeCriteria> excludeCriteria = buildExcludeCriteria(cpsService.getPrefixedProperties(TEST_RUN_EXCLUDE_PREFIX));
+        RasRunCleanupRateLimiter rateLimiter = new RasRunCleanupRateLimiter(timeService, maxRunsPerSecond);
+
+        // Reading the next page blocks while the most batches allowed are still being deleted,
+        // so the RAS is never read much further ahead than it can be deleted from
+        Semaphore batchesInFlight = new Semaphore(deleteConcurrency);
+        ExecutorService deleteExecutor = Executors.newFixedThreadPool(deleteConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "galasa-ras-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        if (searchCriteria != null && !searchCriteria.isEmpty()) {
+        try {
             for (IResultArchiveStoreDirectoryService directoryService : rasService.getDirectoryServices()) {
-                runs.addAll(directoryService.getRuns(searchCriteria.toArray(new IRasSearchCriteria[0])));
+                try {
+                    cleanUpRuns(directoryService, searchCriteria, pageSize, excludeCriteria, rateLimiter,
+                        batchesInFlight, deleteExecutor, metrics);
+                } catch (FrameworkException e) {
+                    logger.error("Error while scanning for runs to clean up from RAS store " + directoryService.getName(), e);
+                }
             }
-            logger.info("Found " + runs.size() + " run(s) matching cleanup criteria");
 
-            // Filter out excluded runs - returns only runs that should still be cleaned up
-            runs = filterOutRunsToKeep(runs);
-            logger.info(runs.size() + " run(s) will be deleted from the RAS");
+            // Wait for the last batches to be deleted
+            batchesInFlight.acquire(deleteConcurrency);
+            batchesInFlight.release(deleteConcurrency);
+        } finally {
+            deleteExecutor.shutdownNow();
         }
-        return runs;
     }
 
-    private List<IRunResult> filterOutRunsToKeep(List<IRunResult> runsToCleanUp) throws FrameworkException {
-        Set<IRunResult> runsToKeep = new HashSet<>();
+    /**
+     * Pages through the runs in a RAS store that match the search criteria, deleting each page of
+     * runs that are not excluded from the cleanup.
+     *
+     * The runs are paged by their queued time rather than with the store's page cursor, as a cursor
+     * which is a position in the list of matching runs would skip over runs as the runs before them
+     * are deleted. Each page starts at the queued time of the last run on the page before, so the
+     * runs queued at that time are read again, and are skipped as they have already been seen. The
+     * page is made larger by the number of runs that are read again, so it still holds a full page
+     * of new runs.
+     */
+    private void cleanUpRuns(IResultArchiveStoreDirectoryService directoryService, IRasSearchCriteria[] searchCriteria,
+            int pageSize, List<ParsedExcludeCriteria> excludeCriteria, RasRunCleanupRateLimiter rateLimiter,
+            Semaphore batchesInFlight, ExecutorService deleteExecutor, RasRunCleanupMetrics metrics)
+            throws FrameworkException, InterruptedException {
+
+        Instant pageQueuedFrom = null;
+        Set<String> runIdsSeenAtPageQueuedFrom = new HashSet<>();
+        boolean isLastPage = false;
+        while (!isLastPage) {
+            IRasSearchCriteria[] pageSearchCriteria = searchCriteria;
+            if (pageQueuedFrom != null) {
+                pageSearchCriteria = Arrays.copyOf(searchCriteria, searchCriteria.length + 1);
+                pageSearchCriteria[searchCriteria.length] = new RasSearchCriteriaQueuedFrom(pageQueuedFrom);
+            }
+            int maxResults = pageSize + runIdsSeenAtPageQueuedFrom.size();
+            RasRunResultPage page = directoryService.getRunsPage(maxResults, SORT_BY_QUEUED_TIME, null, pageSearchCriteria);
 
-        // Get all the properties in the form framework.ras.cleanup.test.run.exclude.<field>=<comma-separated-values-to-exclude>
-        Map<String, String> excludeProperties = cpsService.getPrefixedProperties(TEST_RUN_EXCLUDE_PREFIX);
+            List<IRunResult> newRuns = new ArrayList<>();
+            for (IRunResult run : page.getRuns()) {
+                if (!runIdsSeenAtPageQueuedFrom.contains(run.getRunId())) {
+                    newRuns.add(run);
+                }
+            }
+            List<IRunResult> runsToDelete = filterOutRunsToKeep(newRuns, excludeCriteria);
+
+            metrics.addScannedRuns(newRuns.size());
+            metrics.addExcludedRuns(newRuns.size() - runsToDelete.size());
+
+            if (!runsToDelete.isEmpty()) {
+                rateLimiter.acquire(runsToDelete.size());
+                batchesInFlight.acquire();
+                try {
+                    deleteExecutor.execute(() -> {
+                        try {
+                            deleteRuns(directoryService, runsToDelete, metrics);
+                        } finally {
+                            batchesInFlight.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    batchesInFlight.release();
+                    throw e;
+                }
+            }
 
-        if (!excludeProperties.isEmpty()) {
+            // Stop at a page with no new runs, some stores return a cursor after their last page of runs
+            isLastPage = page.getNextCursor() == null || newRuns.isEmpty();
+            if (!isLastPage) {
+                Instant lastQueued = page.getRuns().get(page.getRuns().size() - 1).getTestStructure().getQueued();
+                if (lastQueued == null) {
+                    isLastPage = true;
+                } else {
+                    if (!lastQueued.equals(pageQueuedFrom)) {
+                        runIdsSeenAtPageQueuedFrom.clear();
+                    }
+                    pageQueuedFrom = lastQueued;
+                    for (IRunResult run : page.getRuns()) {
+                        if (lastQueued.equals(run.getTestStructure().getQueued())) {
+                            runIdsSeenAtPageQueuedFrom.add(run.getRunId());
+                        }
+                    }
+                }
+            }
+        }
+    }
 
-            // Build a list of exclude criteria
-            List<ParsedExcludeCriteria> criteriaList = buildExcludeCriteria(excludeProperties);
+    private void deleteRuns(IResultArchiveStoreDirectoryService directoryService, List<IRunResult> runs, RasRunCleanupMetrics metrics) {
+        int deletedCount = 0;
+        try {
+            logger.trace("Deleting " + runs.size() + " run(s) from RAS store " + directoryService.getName());
+            deletedCount = directoryService.discardRuns(runs);
+            logger.trace("Deleted " + deletedCount + " run(s) from RAS store " + directoryService.getName());
+        } catch (Exception e) {
+            logger.error("Error while deleting " + runs.size() + " run(s) from RAS store " + directoryService.getName(), e);
+        }
+        metrics.addDeletedRuns(deletedCount);
+        metrics.addFailedRuns(runs.size() - deletedCount);
+    }
 
-            // Build a list of runs to keep
-            for (IRunResult run : runsToCleanUp) {
-                for (ParsedExcludeCriteria parsedCriteria : criteriaList) {
-                    if (parsedCriteria.getCriteria().shouldRunBeKept(run.getTestStructure(), parsedCriteria.getValues())) {
-                        runsToKeep.add(run);
-                        logger.trace("Run " + run.getRunId() + " excluded from cleanup by " + parsedCriteria.getRunFieldName() + " criteria");
-                        break;
-                    }
+    private List<IRunResult> filterOutRunsToKeep(List<IRunResult> runsToCleanUp, List<ParsedExcludeCriteria> criteriaList) throws FrameworkException {
+        List<IRunResult> runsToDelete = new ArrayList<>();
+        for (IRunResult run : runsToCleanUp) {
+            boolean isRunKept = false;
+            for (ParsedExcludeCriteria parsedCriteria : criteriaList) {
+                if (parsedCriteria.getCriteria().shouldRunBeKept(run.getTestStructure(), parsedCriteria.getValues())) {
+                    isRunKept = true;
+                    logger.trace("Run " + run.getRunId() + " excluded from cleanup by " + parsedCriteria.getRunFieldName() + " criteria");
+                    break;
                 }
             }
-            logger.trace("Excluded " + runsToKeep.size() + " run(s) from cleanup");
 
-            // Remove the runs to keep from the list of runs that should be cleaned up
-            runsToCleanUp.removeAll(runsToKeep);
+            if (!isRunKept) {
+                runsToDelete.add(run);
+            }
+        }
+        return runsToDelete;
+    }
+
+    private int getPositiveIntProperty(String propertyName, int defaultValue) throws ConfigurationPropertyStoreException {
+        int value = getIntProperty(propertyName, defaultValue);
+        if (value <= 0) {
+            logger.warn("Invalid CPS property value provided. A positive value is expected for '" + propertyName + "'.");
+            value = defaultValue;
         }
+        return value;
+    }
 
-        return runsToCleanUp;
+    private int getIntProperty(String propertyName, int defaultValue) throws ConfigurationPropertyStoreException {
+        int value = defaultValue;
+        try {
+            String valueStr = cpsService.getProperty(TEST_RUN_CLEANUP_CPS_PREFIX, propertyName);
+            if (valueStr != null) {
+                value = Integer.parseInt(valueStr.trim());
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid CPS property value provided. A numeric value is expected for '" + propertyName + "'.");
+        }
+        return value;
     }
 
     private List<ParsedExcludeCriteria> buildExcludeCriteria(Map<String, String> excludeProperties) {
@@ -0,0 +1,124 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal.rascleanup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+/**
+ * The number of runs scanned and deleted by one sweep of the RAS cleanup. The totals across
+ * all sweeps, and the throughput of the last sweep, are published as Prometheus metrics.
+ */
+class RasRunCleanupMetrics {
+
+    /**
+     * The Prometheus metrics published by the RAS cleanup, registered once by each {@link RasRunCleanup}
+     */
+    static class Collectors {
+
+        private final Counter scannedRunsCounter;
+        private final Counter excludedRunsCounter;
+        private final Counter deletedRunsCounter;
+        private final Counter failedRunsCounter;
+        private final Gauge lastSweepDurationGauge;
+        private final Gauge lastSweepRateGauge;
+
+        Collectors() {
+            this.scannedRunsCounter = Counter.build().name("galasa_ras_cleanup_scanned_runs")
+                .help("The number of runs read from the RAS by the RAS cleanup").register();
+            this.excludedRunsCounter = Counter.build().name("galasa_ras_cleanup_excluded_runs")
+                .help("The number of runs kept by the RAS cleanup because they matched an exclude criteria").register();
+            this.deletedRunsCounter = Counter.build().name("galasa_ras_cleanup_deleted_runs")
+                .help("The number of runs deleted from the RAS by the RAS cleanup").register();
+            this.failedRunsCounter = Counter.build().name("galasa_ras_cleanup_failed_runs")
+                .help("The number of runs the RAS cleanup failed to delete").register();
+            this.lastSweepDurationGauge = Gauge.build().name("galasa_ras_cleanup_last_sweep_duration_seconds")
+                .help("How long the last sweep of the RAS cleanup took").register();
+            this.lastSweepRateGauge = Gauge.build().name("galasa_ras_cleanup_last_sweep_deleted_runs_per_second")
+                .help("The number of runs deleted each second by the last sweep of the RAS cleanup").register();
+        }
+    }
+
+    private final Collectors collectors;
+    private final Instant startTime;
+    private Duration duration = Duration.ZERO;
+
+    private final AtomicLong scannedRuns = new AtomicLong();
+    private final AtomicLong excludedRuns = new AtomicLong();
+    private final AtomicLong deletedRuns = new AtomicLong();
+    private final AtomicLong failedRuns = new AtomicLong();
+
+    RasRunCleanupMetrics(Collectors collectors, Instant startTime) {
+        this.collectors = collectors;
+        this.startTime = startTime;
+    }
+
+    void addScannedRuns(long count) {
+        scannedRuns.addAndGet(count);
+        collectors.scannedRunsCounter.inc(count);
+    }
+
+    void addExcludedRuns(long count) {
+        excludedRuns.addAndGet(count);
+        collectors.excludedRunsCounter.inc(count);
+    }
+
+    void addDeletedRuns(long count) {
+        deletedRuns.addAndGet(count);
+        collectors.deletedRunsCounter.inc(count);
+    }
+
+    void addFailedRuns(long count) {
+        failedRuns.addAndGet(count);
+        collectors.failedRunsCounter.inc(count);
+    }
+
+    void finish(Instant endTime) {
+        duration = Duration.between(startTime, endTime);
+        collectors.lastSweepDurationGauge.set(duration.toMillis() / 1000.0);
+        collectors.lastSweepRateGauge.set(getDeletedRunsPerSecond());
+    }
+
+    long getScannedRuns() {
+        return scannedRuns.get();
+    }
+
+    long getExcludedRuns() {
+        return excludedRuns.get();
+    }
+
+    long getDeletedRuns() {
+        return deletedRuns.get();
+    }
+
+    long getFailedRuns() {
+        return failedRuns.get();
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    double getDeletedRunsPerSecond() {
+        double rate = 0;
+        long durationMillis = duration.toMillis();
+        if (durationMillis > 0) {
+            rate = deletedRuns.get() * 1000.0 / durationMillis;
+        }
+        return rate;
+    }
+
+    @Override
+    public String toString() {
+        return "Scanned " + getScannedRuns() + " run(s), excluded " + getExcludedRuns() + ", deleted " + getDeletedRuns()
+            + ", failed to delete " + getFailedRuns() + " in " + duration.toMillis() + "ms ("
+            + String.format("%.1f", getDeletedRunsPerSecond()) + " runs/second)";
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal.rascleanup;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Limits the rate at which runs are deleted from the RAS. Each batch of runs may start as soon
+ * as the batches before it would have finished at the maximum rate, so the first batch never waits.
+ */
+class RasRunCleanupRateLimiter {
+
+    private final ITimeService timeService;
+    private final int maxRunsPerSecond;
+
+    private Instant nextAllowedTime;
+
+    /**
+     * @param maxRunsPerSecond the most runs to delete each second, or 0 or less for no limit
+     */
+    RasRunCleanupRateLimiter(ITimeService timeService, int maxRunsPerSecond) {
+        this.timeService = timeService;
+        this.maxRunsPerSecond = maxRunsPerSecond;
+    }
+
+    /**
+     * Waits until a batch of runs can be deleted without going over the maximum rate
+     */
+    void acquire(int runCount) throws InterruptedException {
+        if (maxRunsPerSecond > 0) {
+            Instant now = timeService.now();
+            if (nextAllowedTime == null || nextAllowedTime.isBefore(now)) {
+                nextAllowedTime = now;
+            }
+
+            long millisToWait = Duration.between(now, nextAllowedTime).toMillis();
+            if (millisToWait > 0) {
+                timeService.sleepMillis(millisToWait);
+            }
+
+            long batchMillis = (runCount * 1000L) / maxRunsPerSecond;
+            nextAllowedTime = nextAllowedTime.plusMillis(batchMillis);
+        }
+    }
+}
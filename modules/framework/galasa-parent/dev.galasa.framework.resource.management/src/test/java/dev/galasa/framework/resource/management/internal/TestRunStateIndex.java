@@ -0,0 +1,258 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.mocks.MockDSSStore;
+import dev.galasa.framework.mocks.MockFrameworkRuns;
+import dev.galasa.framework.mocks.MockRun;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
+import dev.galasa.framework.spi.IRun;
+
+public class TestRunStateIndex {
+
+    class MockWatchableDSSStore extends MockDSSStore {
+
+        public IDynamicStatusStoreWatcher watcher;
+        public int getPrefixCallCount = 0;
+        public int watchPrefixCallCount = 0;
+        public boolean isWatchFailing = false;
+
+        public MockWatchableDSSStore(Map<String, String> valueMap) {
+            super(valueMap);
+        }
+
+        @Override
+        public Map<String, String> getPrefix(String keyPrefix) throws DynamicStatusStoreException {
+            getPrefixCallCount++;
+            return super.getPrefix(keyPrefix);
+        }
+
+        @Override
+        public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
+            watchPrefixCallCount++;
+            if (isWatchFailing) {
+                throw new DynamicStatusStoreException("simulated watch failure");
+            }
+            this.watcher = watcher;
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void unwatch(UUID watchId) throws DynamicStatusStoreException {
+            this.watcher = null;
+        }
+    }
+
+    private List<String> getRunNames(List<IRun> runs) {
+        List<String> runNames = new ArrayList<>();
+        for (IRun run : runs) {
+            runNames.add(run.getName());
+        }
+        return runNames;
+    }
+
+    @Test
+    public void testIndexPassesQueriesToFrameworkRunsWhenNotWatching() throws Exception {
+        // Given...
+        List<IRun> runs = new ArrayList<>();
+        MockRun run = new MockRun("bundle", "testclass", "U1", "stream", "obr", "repo", "requestor", false);
+        run.setStatus(TestRunLifecycleStatus.WAITING.toString());
+        runs.add(run);
+        MockFrameworkRuns frameworkRuns = new MockFrameworkRuns(runs);
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(new HashMap<>());
+        RunStateIndex index = new RunStateIndex(frameworkRuns, dss);
+
+        // When...
+        List<IRun> waitingRuns = index.getRunsByStatus(TestRunLifecycleStatus.WAITING);
+
+        // Then...
+        assertThat(getRunNames(waitingRuns)).containsExactly("U1");
+        assertThat(dss.getPrefixCallCount).isEqualTo(0);
+    }
+
+    @Test
+    public void testIndexIsBuiltFromASingleScanWhenWatchingStarts() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.WAITING.toString());
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.RUNNING.toString());
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProps);
+        RunStateIndex index = new RunStateIndex(new MockFrameworkRuns(new ArrayList<>()), dss);
+
+        // When...
+        index.startWatching();
+        List<IRun> allRuns = index.getAllRuns();
+        List<IRun> waitingRuns = index.getRunsByStatus(TestRunLifecycleStatus.WAITING);
+
+        // Then...
+        assertThat(getRunNames(allRuns)).containsExactlyInAnyOrder("U1", "U2");
+        assertThat(getRunNames(waitingRuns)).containsExactly("U1");
+        assertThat(dss.getPrefixCallCount).isEqualTo(1);
+        assertThat(index.getRebuildCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIndexAppliesWatchedChangesWithoutRescanningTheDss() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.RUNNING.toString());
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.FINISHED.toString());
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProps);
+        RunStateIndex index = new RunStateIndex(new MockFrameworkRuns(new ArrayList<>()), dss);
+        index.startWatching();
+        index.getAllRuns();
+
+        // When...
+        dss.watcher.propertyModified("run.U1.status", Event.MODIFIED, "running", "waiting");
+        dss.watcher.propertyModified("run.U2.status", Event.DELETE, null, null);
+        dss.watcher.propertyModified("run.U3.status", Event.NEW, null, "queued");
+        dss.watcher.propertyModified("not.a.run.property", Event.NEW, null, "ignored");
+
+        List<IRun> allRuns = index.getAllRuns();
+        List<IRun> waitingRuns = index.getRunsByStatus(TestRunLifecycleStatus.WAITING);
+
+        // Then...
+        assertThat(getRunNames(allRuns)).containsExactlyInAnyOrder("U1", "U3");
+        assertThat(getRunNames(waitingRuns)).containsExactly("U1");
+        assertThat(dss.getPrefixCallCount).isEqualTo(1);
+    }
+
+    @Test
+    public void testIndexIsRebuiltAfterTheWatchIsInterrupted() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.RUNNING.toString());
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProps);
+        RunStateIndex index = new RunStateIndex(new MockFrameworkRuns(new ArrayList<>()), dss);
+        index.startWatching();
+        index.getAllRuns();
+
+        // A change happens in the DSS, but the watch is lost before we hear about it
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.QUEUED.toString());
+
+        // When...
+        dss.watcher.watchInterrupted(new Exception("connection lost"));
+        List<IRun> allRuns = index.getAllRuns();
+
+        // Then...
+        assertThat(getRunNames(allRuns)).containsExactlyInAnyOrder("U1", "U2");
+        assertThat(dss.getPrefixCallCount).isEqualTo(2);
+        assertThat(index.getRebuildCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testWatchIsRegisteredAgainAfterItIsInterrupted() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.RUNNING.toString());
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProps);
+        RunStateIndex index = new RunStateIndex(new MockFrameworkRuns(new ArrayList<>()), dss);
+        index.startWatching();
+        index.getAllRuns();
+
+        // When...
+        dss.watcher.watchInterrupted(new Exception("connection lost"));
+        index.getAllRuns();
+        dss.watcher.propertyModified("run.U2.status", Event.NEW, null, "queued");
+        List<IRun> allRuns = index.getAllRuns();
+
+        // Then...
+        assertThat(index.isWatching()).isTrue();
+        assertThat(dss.watchPrefixCallCount).isEqualTo(2);
+        assertThat(getRunNames(allRuns)).containsExactlyInAnyOrder("U1", "U2");
+        assertThat(dss.getPrefixCallCount).isEqualTo(2);
+    }
+
+    @Test
+    public void testIndexIsRebuiltOnEveryQueryUntilTheWatchIsRegisteredAgain() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.RUNNING.toString());
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProps);
+        RunStateIndex index = new RunStateIndex(new MockFrameworkRuns(new ArrayList<>()), dss);
+        index.startWatching();
+        index.getAllRuns();
+        dss.isWatchFailing = true;
+        dss.watcher.watchInterrupted(new Exception("connection lost"));
+
+        // When...
+        index.getAllRuns();
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.QUEUED.toString());
+        List<IRun> runsWhileWatchFails = index.getAllRuns();
+
+        dss.isWatchFailing = false;
+        index.getAllRuns();
+        index.getAllRuns();
+
+        // Then...
+        assertThat(getRunNames(runsWhileWatchFails)).containsExactlyInAnyOrder("U1", "U2");
+        assertThat(dss.watchPrefixCallCount).isEqualTo(4);
+        assertThat(dss.getPrefixCallCount).isEqualTo(4);
+        assertThat(index.isWatching()).isTrue();
+    }
+
+    @Test
+    public void testActiveRunsAreRunsWithAHeartbeatOrSharedEnvironments() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.RUNNING.toString());
+        dssProps.put("run.U1.heartbeat", "2024-01-01T00:00:00Z");
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U3.status", TestRunLifecycleStatus.UP.toString());
+        dssProps.put("run.U3.shared.environment", "true");
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProps);
+        RunStateIndex index = new RunStateIndex(new MockFrameworkRuns(new ArrayList<>()), dss);
+        index.startWatching();
+
+        // When...
+        List<IRun> activeRuns = index.getActiveRuns();
+
+        // Then...
+        assertThat(getRunNames(activeRuns)).containsExactlyInAnyOrder("U1", "U3");
+    }
+
+    @Test
+    public void testIndexPassesQueriesToFrameworkRunsAfterWatchingStops() throws Exception {
+        // Given...
+        List<IRun> runs = new ArrayList<>();
+        runs.add(new MockRun("bundle", "testclass", "U9", "stream", "obr", "repo", "requestor", false));
+
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.RUNNING.toString());
+
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProps);
+        RunStateIndex index = new RunStateIndex(new MockFrameworkRuns(runs), dss);
+        index.startWatching();
+
+        // When...
+        index.stopWatching();
+        List<IRun> allRuns = index.getAllRuns();
+
+        // Then...
+        assertThat(index.isWatching()).isFalse();
+        assertThat(getRunNames(allRuns)).containsExactly("U9");
+    }
+}
@@ -10,12 +10,14 @@ import static org.assertj.core.api.Assertions.*;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.junit.After;
 import org.junit.Test;
 
 import dev.galasa.framework.mocks.MockCPSStore;
@@ -25,10 +27,20 @@ import dev.galasa.framework.mocks.MockRunResult;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.Result;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.IRasSearchCriteria;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSortField;
 import dev.galasa.framework.spi.teststructure.TestStructure;
+import io.prometheus.client.CollectorRegistry;
 
 public class TestRasRunCleanup {
 
+    @After
+    public void clearMetrics() {
+        CollectorRegistry.defaultRegistry.clear();
+    }
+
     @Test
     public void testCanInstantiateRasRunCleanup() throws Exception {
         // Given...
@@ -336,8 +348,257 @@ public class TestRasRunCleanup {
         assertThat(run2.isDiscarded()).as("Whitespace should be trimmed, run should be excluded").isFalse();
     }
 
+    @Test
+    public void testRunPagesThroughRunsAndDeletesEachPageInABatch() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("ras.cleanup.test.run.age.max.days", "30");
+        cpsProperties.put("ras.cleanup.page.size", "2");
+        cpsProperties.put("ras.cleanup.test.run.exclude.tags", "production");
+        MockCPSStore cps = createMockCPSStore(cpsProperties);
+
+        List<IRunResult> runs = new ArrayList<>();
+        runs.add(createMockRun("run1", now.minus(40, ChronoUnit.DAYS)));
+        runs.add(createMockRun("run2", now.minus(39, ChronoUnit.DAYS)));
+        runs.add(createMockRunWithTags("run3", now.minus(38, ChronoUnit.DAYS), "production"));
+        runs.add(createMockRun("run4", now.minus(37, ChronoUnit.DAYS)));
+        runs.add(createMockRun("run5", now.minus(36, ChronoUnit.DAYS)));
+        runs.add(createMockRun("run6", now.minus(10, ChronoUnit.DAYS)));
+
+        MockPagedDirectoryService directoryService = new MockPagedDirectoryService(runs);
+        MockIResultArchiveStore ras = new MockIResultArchiveStore();
+        ras.addDirectoryService(directoryService);
+
+        RasRunCleanup cleanup = new RasRunCleanup(cps, ras, new MockTimeService(now), 10);
+
+        // When...
+        cleanup.run();
+
+        // Then...
+        // The 5 old runs are read in 3 pages, each page after the first starting with the last run of
+        // the page before, and the excluded run isn't deleted
+        assertThat(directoryService.getRequestedPageSizes()).containsExactly(2, 3, 3);
+        assertThat(directoryService.getDeletedBatchSizes()).containsExactlyInAnyOrder(2, 1, 1);
+        assertThat(getDiscardedRunIds(runs)).containsExactlyInAnyOrder("run1", "run2", "run4", "run5");
+
+        RasRunCleanupMetrics metrics = cleanup.getLastSweepMetrics();
+        assertThat(metrics.getScannedRuns()).isEqualTo(5);
+        assertThat(metrics.getExcludedRuns()).isEqualTo(1);
+        assertThat(metrics.getDeletedRuns()).isEqualTo(4);
+        assertThat(metrics.getFailedRuns()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRunWithMaxRunsPerSecondWaitsBetweenBatches() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("ras.cleanup.test.run.age.max.days", "30");
+        cpsProperties.put("ras.cleanup.page.size", "2");
+        cpsProperties.put("ras.cleanup.delete.max.runs.per.second", "2");
+        MockCPSStore cps = createMockCPSStore(cpsProperties);
+
+        List<IRunResult> runs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            runs.add(createMockRun("run" + i, now.minus(40, ChronoUnit.DAYS).plusSeconds(i)));
+        }
+
+        MockPagedDirectoryService directoryService = new MockPagedDirectoryService(runs);
+        MockIResultArchiveStore ras = new MockIResultArchiveStore();
+        ras.addDirectoryService(directoryService);
+
+        MockTimeService timeService = new MockTimeService(now);
+        RasRunCleanup cleanup = new RasRunCleanup(cps, ras, timeService, 10);
+
+        // When...
+        cleanup.run();
+
+        // Then...
+        // The first batch of 2 runs is deleted straight away, and each following batch waits a second
+        assertThat(getDiscardedRunIds(runs)).hasSize(6);
+        assertThat(timeService.now()).isEqualTo(now.plusSeconds(2));
+        assertThat(cleanup.getLastSweepMetrics().getDeletedRunsPerSecond()).isEqualTo(3.0);
+    }
+
+    @Test
+    public void testRunWithBatchThatFailsToDeleteCountsFailedRunsAndCarriesOn() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("ras.cleanup.test.run.age.max.days", "30");
+        cpsProperties.put("ras.cleanup.page.size", "2");
+        MockCPSStore cps = createMockCPSStore(cpsProperties);
+
+        List<IRunResult> runs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            runs.add(createMockRun("run" + i, now.minus(40, ChronoUnit.DAYS).plusSeconds(i)));
+        }
+
+        MockPagedDirectoryService directoryService = new MockPagedDirectoryService(runs);
+        directoryService.setFailingRunId("run1");
+        MockIResultArchiveStore ras = new MockIResultArchiveStore();
+        ras.addDirectoryService(directoryService);
+
+        RasRunCleanup cleanup = new RasRunCleanup(cps, ras, new MockTimeService(now), 10);
+
+        // When...
+        cleanup.run();
+
+        // Then...
+        assertThat(getDiscardedRunIds(runs)).containsExactlyInAnyOrder("run2", "run3");
+        assertThat(cleanup.getLastSweepMetrics().getDeletedRuns()).isEqualTo(2);
+        assertThat(cleanup.getLastSweepMetrics().getFailedRuns()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRunDoesNotSkipRunsAsTheRunsBeforeThemAreDeleted() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("ras.cleanup.test.run.age.max.days", "30");
+        cpsProperties.put("ras.cleanup.page.size", "2");
+        MockCPSStore cps = createMockCPSStore(cpsProperties);
+
+        List<IRunResult> runs = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            runs.add(createMockRun("run" + i, now.minus(40, ChronoUnit.DAYS).plusSeconds(i)));
+        }
+
+        // Deleted runs are no longer returned, so a page cursor that is a position in the matching runs would skip runs
+        MockPagedDirectoryService directoryService = new MockPagedDirectoryService(runs);
+        directoryService.setDiscardedRunsHidden(true);
+        MockIResultArchiveStore ras = new MockIResultArchiveStore();
+        ras.addDirectoryService(directoryService);
+
+        RasRunCleanup cleanup = new RasRunCleanup(cps, ras, new MockTimeService(now), 10);
+
+        // When...
+        cleanup.run();
+
+        // Then...
+        assertThat(getDiscardedRunIds(runs)).hasSize(7);
+        assertThat(cleanup.getLastSweepMetrics().getScannedRuns()).isEqualTo(7);
+        assertThat(cleanup.getLastSweepMetrics().getDeletedRuns()).isEqualTo(7);
+    }
+
+    @Test
+    public void testRunDeletesMoreRunsQueuedAtTheSameTimeThanFitOnAPage() throws Exception {
+        // Given...
+        Instant now = Instant.now();
+
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put("ras.cleanup.test.run.age.max.days", "30");
+        cpsProperties.put("ras.cleanup.page.size", "2");
+        MockCPSStore cps = createMockCPSStore(cpsProperties);
+
+        List<IRunResult> runs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            runs.add(createMockRun("run" + i, now.minus(40, ChronoUnit.DAYS)));
+        }
+
+        MockPagedDirectoryService directoryService = new MockPagedDirectoryService(runs);
+        MockIResultArchiveStore ras = new MockIResultArchiveStore();
+        ras.addDirectoryService(directoryService);
+
+        RasRunCleanup cleanup = new RasRunCleanup(cps, ras, new MockTimeService(now), 10);
+
+        // When...
+        cleanup.run();
+
+        // Then...
+        assertThat(getDiscardedRunIds(runs)).hasSize(5);
+        assertThat(directoryService.getDeletedBatchSizes()).containsExactlyInAnyOrder(2, 2, 1);
+        assertThat(cleanup.getLastSweepMetrics().getScannedRuns()).isEqualTo(5);
+    }
+
     // Helper methods
 
+    /**
+     * A RAS store that returns the matching runs a page at a time, using the position of the
+     * next page as the page cursor, and records the batches of runs it is asked to discard.
+     * The runs are expected to be in the order they were queued.
+     */
+    private class MockPagedDirectoryService extends MockResultArchiveStoreDirectoryService {
+
+        private final List<IRunResult> runs;
+        private final List<Integer> requestedPageSizes = new ArrayList<>();
+        private final List<Integer> deletedBatchSizes = Collections.synchronizedList(new ArrayList<>());
+        private String failingRunId;
+        private boolean isDiscardedRunsHidden = false;
+
+        MockPagedDirectoryService(List<IRunResult> runs) {
+            super(runs);
+            this.runs = runs;
+        }
+
+        @Override
+        public RasRunResultPage getRunsPage(int maxResults, RasSortField primarySort, String pageCursor, IRasSearchCriteria... searchCriteria)
+                throws ResultArchiveStoreException {
+            requestedPageSizes.add(maxResults);
+
+            List<IRunResult> matchingRuns = new ArrayList<>();
+            for (IRunResult run : runs) {
+                boolean isMatch = !(isDiscardedRunsHidden && ((MockRunResult) run).isDiscarded());
+                for (IRasSearchCriteria criteria : searchCriteria) {
+                    isMatch = isMatch && criteria.criteriaMatched(run.getTestStructure());
+                }
+                if (isMatch) {
+                    matchingRuns.add(run);
+                }
+            }
+
+            int pageStart = (pageCursor == null) ? 0 : Integer.parseInt(pageCursor);
+            int pageEnd = Math.min(pageStart + maxResults, matchingRuns.size());
+            String nextCursor = (pageEnd < matchingRuns.size()) ? String.valueOf(pageEnd) : null;
+            return new RasRunResultPage(new ArrayList<>(matchingRuns.subList(pageStart, pageEnd)), nextCursor);
+        }
+
+        @Override
+        public int discardRuns(List<IRunResult> runsToDiscard) throws ResultArchiveStoreException {
+            deletedBatchSizes.add(runsToDiscard.size());
+            for (IRunResult run : runsToDiscard) {
+                if (run.getRunId().equals(failingRunId)) {
+                    throw new ResultArchiveStoreException("simulated bulk delete failure");
+                }
+            }
+            for (IRunResult run : runsToDiscard) {
+                run.discard();
+            }
+            return runsToDiscard.size();
+        }
+
+        public void setFailingRunId(String failingRunId) {
+            this.failingRunId = failingRunId;
+        }
+
+        public void setDiscardedRunsHidden(boolean isDiscardedRunsHidden) {
+            this.isDiscardedRunsHidden = isDiscardedRunsHidden;
+        }
+
+        public List<Integer> getRequestedPageSizes() {
+            return requestedPageSizes;
+        }
+
+        public List<Integer> getDeletedBatchSizes() {
+            return deletedBatchSizes;
+        }
+    }
+
+    private List<String> getDiscardedRunIds(List<IRunResult> runs) {
+        List<String> discardedRunIds = new ArrayList<>();
+        for (IRunResult run : runs) {
+            if (((MockRunResult) run).isDiscarded()) {
+                discardedRunIds.add(run.getRunId());
+            }
+        }
+        return discardedRunIds;
+    }
+
     private MockCPSStore createMockCPSStore(Map<String, String> properties) {
         return new MockCPSStore(properties) {
             @Override
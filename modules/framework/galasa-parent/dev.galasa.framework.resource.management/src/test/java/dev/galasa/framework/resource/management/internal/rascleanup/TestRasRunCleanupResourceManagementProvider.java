@@ -10,6 +10,7 @@ import static org.assertj.core.api.Assertions.*;
 import java.time.Instant;
 import java.util.HashMap;
 
+import org.junit.After;
 import org.junit.Test;
 
 import dev.galasa.framework.mocks.MockCPSStore;
@@ -20,9 +21,15 @@ import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.resource.management.internal.mocks.MockResourceManagement;
 import dev.galasa.framework.resource.management.internal.mocks.MockScheduledExecutorService;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import io.prometheus.client.CollectorRegistry;
 
 public class TestRasRunCleanupResourceManagementProvider {
 
+    @After
+    public void clearMetrics() {
+        CollectorRegistry.defaultRegistry.clear();
+    }
+
     @Test
     public void testCanInstantiateProvider() throws Exception {
         // Given...
@@ -11,6 +11,7 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.junit.After;
 import org.junit.Test;
 
 import dev.galasa.framework.mocks.MockCPSStore;
@@ -20,9 +21,15 @@ import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.resource.management.internal.mocks.MockScheduledExecutorService;
 import dev.galasa.framework.resource.management.internal.mocks.MockScheduledFuture;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import io.prometheus.client.CollectorRegistry;
 
 public class TestRasRunCleanupScheduler {
 
+    @After
+    public void clearMetrics() {
+        CollectorRegistry.defaultRegistry.clear();
+    }
+
     @Test
     public void testCanInstantiateScheduler() throws Exception {
         // Given...
@@ -38,6 +38,7 @@ import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.framework.spi.creds.ICredentialsService;
 import dev.galasa.framework.spi.streams.IStreamsService;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.spi.utils.DssUtils;
 import dev.galasa.framework.spi.utils.GalasaGson;
@@ -81,6 +82,8 @@ public class BaseTestRunner {
 
     protected static final GalasaGson gson = new GalasaGson();
 
+    protected static final String BOOT_PHASE_TIMINGS_PROPERTY = "framework.boot.phase.timings";
+
     private InterruptedMonitor interruptedMonitor;
 
     protected void init(ITestRunnerDataProvider dataProvider) throws TestRunException {
@@ -222,10 +225,74 @@ public class BaseTestRunner {
     protected TestStructure createNewTestStructure(IRun run) {
         TestStructure testStructure = run.toTestStructure();
         testStructure.setStartTime(Instant.now());
+        testStructure.addPhaseTimings(getBootPhaseTimings(this.overrideProperties));
 
         return testStructure;
     }
 
+    /**
+     * Get the timings galasa-boot recorded while starting the framework. They are passed in the
+     * framework.boot.phase.timings override as phase=startEpochMillis:durationMillis,...
+     *
+     * @param overrideProperties
+     * @return the boot phase timings, empty if there aren't any or they can't be parsed
+     */
+    protected List<TestPhaseTiming> getBootPhaseTimings(Properties overrideProperties) {
+        List<TestPhaseTiming> bootPhaseTimings = new ArrayList<>();
+        if (overrideProperties == null) {
+            return bootPhaseTimings;
+        }
+
+        String timings = overrideProperties.getProperty(BOOT_PHASE_TIMINGS_PROPERTY);
+        if (timings == null || timings.trim().isEmpty()) {
+            return bootPhaseTimings;
+        }
+
+        try {
+            for (String timing : timings.split(",")) {
+                String[] phaseAndValues = timing.split("=", 2);
+                String[] values = phaseAndValues[1].split(":", 2);
+                Instant startTime = Instant.ofEpochMilli(Long.parseLong(values[0].trim()));
+                long durationMillis = Long.parseLong(values[1].trim());
+                bootPhaseTimings.add(new TestPhaseTiming(phaseAndValues[0].trim(), null, startTime, durationMillis, false));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring invalid boot phase timings '" + timings + "'");
+            bootPhaseTimings.clear();
+        }
+        return bootPhaseTimings;
+    }
+
+    /**
+     * Adds how long each manager took in the phase that has just finished to the test structure
+     */
+    protected void recordManagerPhaseTimings(ITestRunManagers managers) {
+        try {
+            this.testStructure.addPhaseTimings(managers.takePhaseTimings());
+        } catch (Exception e) {
+            logger.warn("Unable to record the manager phase timings", e);
+        }
+    }
+
+    protected void recordPhaseTiming(PhaseTimer timer, boolean isFailed) {
+        this.testStructure.addPhaseTiming(timer.stop(isFailed));
+    }
+
+    /**
+     * Saves the CPS properties and overrides used by the test as artifacts, and flushes the RAS
+     */
+    protected void flushRunArtifacts() {
+        PhaseTimer timer = new PhaseTimer(TestPhaseTiming.PHASE_RAS_FLUSH);
+
+        // Record all the CPS properties that were accessed
+        saveUsedCPSPropertiesToArtifact(this.framework.getRecordProperties(), this.fileSystem, this.ras);
+        // And all the overrides the test was passed.
+        saveAllOverridesPassedToArtifact(overrideProperties, this.fileSystem , this.ras);
+        this.ras.flush();
+
+        recordPhaseTiming(timer, false);
+    }
+
     protected void writeTestStructure() {
         try {
             this.ras.updateTestStructure(testStructure);
@@ -238,12 +305,16 @@ public class BaseTestRunner {
 
         IRun run = framework.getTestRun();
 
+        PhaseTimer timer = new PhaseTimer(TestPhaseTiming.PHASE_DSS_CLEANUP);
+        boolean isFailed = false;
         try {
             logger.debug("Deleting run from dss: "+testStructure.getStatus()+" result:"+testStructure.getResult());
             framework.getFrameworkRuns().delete(run.getName());
         } catch (FrameworkException e) {
             logger.error("Failed to delete run properties");
+            isFailed = true;
         }
+        recordPhaseTiming(timer, isFailed);
     }
 
     // method to replace repeating "run." + run.getName() + "."... where ... is the key suffix to be passed
@@ -258,10 +329,6 @@ public class BaseTestRunner {
         }
 
         heartbeat.shutdown();
-        try {
-            heartbeat.join(THREAD_SHUTDOWN_TIMEOUT_MS);
-        } catch (Exception e) {
-        }
 
         try {
             dss.delete("run." + run.getName() + "." + DssPropertyKeyRunNameSuffix.HEARTBEAT);
@@ -5,10 +5,14 @@
  */
 package dev.galasa.framework;
 
+import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.text.*;
 
 import org.apache.commons.io.IOUtils;
@@ -23,13 +27,20 @@ import org.apache.felix.bundlerepository.Resource;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
 
+import dev.galasa.framework.maven.repository.spi.IMavenArtifactPrefetcher;
 import dev.galasa.framework.spi.FrameworkException;
 
 public class BundleManagement {
 
     private static final Log logger = LogFactory.getLog(BundleManagement.class);
 
+    /** Set by galasa-boot to the directory of the OBR resolution cache, if the cache is enabled */
+    public static final String OBR_RESOLUTION_CACHE_DIR_PROP = "dev.galasa.obr.resolution.cache.dir";
+
+    private static ObrResolutionCache obrResolutionCache;
+
     /**
      * Load a bundle from the OSGi Bundle Repository
      * @param repositoryAdmin
@@ -39,6 +50,15 @@ public class BundleManagement {
      */
     public static void loadBundle(RepositoryAdmin repositoryAdmin, BundleContext bundleContext, String bundleSymbolicName) throws FrameworkException {
 
+        ObrResolutionCache resolutionCache = getObrResolutionCache(bundleContext);
+        String cacheKey = null;
+        if (resolutionCache != null) {
+            cacheKey = resolutionCache.calculateKey(repositoryAdmin.listRepositories(), bundleContext.getBundles(), bundleSymbolicName);
+            if (loadCachedBundles(bundleContext, bundleSymbolicName, resolutionCache, cacheKey)) {
+                return;
+            }
+        }
+
         logger.trace("Installing bundle " + bundleSymbolicName);
         Resolver resolver = repositoryAdmin.resolver();
         String filterString = "(symbolicname=" + bundleSymbolicName + ")";
@@ -53,7 +73,7 @@ public class BundleManagement {
                 throw new FrameworkException("Unable to locate bundle \"" + bundleSymbolicName + "\" in OBR repository");
             }
             // *** Only load the first one
-            addResource(bundleContext, bundleSymbolicName, resolver, resources[0]);
+            addResource(bundleContext, bundleSymbolicName, resolver, resources[0], resolutionCache, cacheKey);
         } catch (FrameworkException e) {
             throw new FrameworkException("Unable to install bundle \"" + bundleSymbolicName + "\" from OBR repository",
                     e);
@@ -90,7 +110,7 @@ public class BundleManagement {
                 }
                 if(gherkinSupport) {
                     if (!isBundleActive(bundleContext, resource.getSymbolicName())) {
-                        addResource(bundleContext, resource.getSymbolicName(), resolver, resource);
+                        addResource(bundleContext, resource.getSymbolicName(), resolver, resource, null, null);
                     }
                 }
             }
@@ -100,15 +120,60 @@ public class BundleManagement {
         }
     }
 
+    private static synchronized ObrResolutionCache getObrResolutionCache(BundleContext bundleContext) {
+        String cacheDirectory = bundleContext.getProperty(OBR_RESOLUTION_CACHE_DIR_PROP);
+        if (cacheDirectory == null || cacheDirectory.isEmpty()) {
+            return null;
+        }
+
+        File cacheDirectoryFile = new File(cacheDirectory);
+        if (obrResolutionCache == null || !obrResolutionCache.getCacheDirectory().equals(cacheDirectoryFile)) {
+            obrResolutionCache = new ObrResolutionCache(cacheDirectoryFile);
+        }
+        return obrResolutionCache;
+    }
+
+    /**
+     * Install and start the bundles recorded in the OBR resolution cache
+     * 
+     * @return true if the bundle was loaded from the cache, false if it needs to be resolved
+     */
+    private static boolean loadCachedBundles(BundleContext bundleContext, String bundleSymbolicName, ObrResolutionCache resolutionCache, String cacheKey) {
+        List<String> bundleLocations = resolutionCache.getBundleLocations(cacheKey);
+        if (bundleLocations == null) {
+            logger.debug("OBR resolution cache miss for bundle " + bundleSymbolicName);
+            return false;
+        }
+
+        prefetchArtifacts(bundleContext, bundleLocations);
+        try {
+            installAndStartBundles(bundleContext, bundleLocations);
+        } catch (FrameworkException e) {
+            logger.warn("Unable to install the cached bundles for " + bundleSymbolicName + ", resolving instead", e);
+        }
+
+        if (!isBundleActive(bundleContext, bundleSymbolicName)) {
+            resolutionCache.remove(cacheKey);
+            return false;
+        }
+
+        logger.debug("Installed bundle " + bundleSymbolicName + " from the OBR resolution cache");
+        printBundles(bundleContext);
+        return true;
+    }
+
     /**
      * Add the Resource to the Resolver and resolve
      * 
      * @param bundleSymbolicName
      * @param resolver
      * @param resource
+     * @param resolutionCache the cache to record the resolution in, or null if it is not to be cached
+     * @param cacheKey
      * @throws LauncherException
      */
-    private static void addResource(BundleContext bundleContext, String bundleSymbolicName, Resolver resolver, Resource resource) throws FrameworkException {
+    private static void addResource(BundleContext bundleContext, String bundleSymbolicName, Resolver resolver, Resource resource,
+            ObrResolutionCache resolutionCache, String cacheKey) throws FrameworkException {
         logger.trace("Resource: " + resource);
         resolver.add(resource);
 
@@ -138,6 +203,9 @@ public class BundleManagement {
                 }
             }
 
+            // The bundles in the order they are installed, which is what the cache records
+            List<String> bundleLocations = getBundleLocations(requiredResources, optionalResources, resource);
+            prefetchArtifacts(bundleContext, bundleLocations);
 
             if (!resourceHasReferenceUrl) {
                 resolver.deploy(Resolver.START);
@@ -145,34 +213,7 @@ public class BundleManagement {
                 // *** The Resolver can't cope with reference: URIs which is valid for Felix.
                 // *** So we have to manually install and start the bundles if ANY bundle
                 // *** is a reference
-                ArrayList<Bundle> bundlesToStart = new ArrayList<>();
-                try {
-
-                    Resource[] startRequiredResources = resolver.getRequiredResources();
-                    for (Resource requiredResource : startRequiredResources) {
-                        if (logger.isTraceEnabled()) {
-                            logger.trace("  startRequiredResource: adding resource" +requiredResource.getURI().toString());
-                        }
-                        bundlesToStart.add(bundleContext.installBundle(requiredResource.getURI().toString()));
-                    }
-                    Resource[] startOptionalResources = resolver.getOptionalResources();
-                    for (Resource optionalResource : startOptionalResources) {
-                        if (logger.isTraceEnabled()) {
-                            logger.trace("  getOptionalResources: adding resource" +optionalResource.getURI().toString());
-                        }
-                        bundlesToStart.add(bundleContext.installBundle(optionalResource.getURI().toString()));
-                    }
-
-                    bundlesToStart.add(bundleContext.installBundle(resource.getURI().toString()));
-                    for (Bundle bundle : bundlesToStart) {
-                        if (logger.isTraceEnabled()) {
-                            logger.trace("  bundlesToStart: starting" +bundle.getClass().toString());
-                        }
-                        bundle.start();
-                    }
-                } catch (Exception e) {
-                    throw new FrameworkException("Unable to install bundles outside of resolver", e);
-                }
+                installAndStartBundles(bundleContext, bundleLocations);
             }
 
             if (!isBundleActive(bundleContext, bundleSymbolicName)) {
@@ -180,6 +221,10 @@ public class BundleManagement {
                 throw new FrameworkException(msg);
             }
 
+            if (resolutionCache != null) {
+                resolutionCache.putBundleLocations(cacheKey, bundleLocations);
+            }
+
             printBundles(bundleContext);
         } else {
             logger.error("Unable to resolve " + resource.toString());
@@ -192,6 +237,63 @@ public class BundleManagement {
 
     }
 
+    private static List<String> getBundleLocations(Resource[] requiredResources, Resource[] optionalResources, Resource resource) {
+        Set<String> bundleLocations = new LinkedHashSet<>();
+        for (Resource requiredResource : requiredResources) {
+            bundleLocations.add(requiredResource.getURI());
+        }
+        for (Resource optionalResource : optionalResources) {
+            bundleLocations.add(optionalResource.getURI());
+        }
+        bundleLocations.add(resource.getURI());
+        return new ArrayList<>(bundleLocations);
+    }
+
+    /**
+     * Download the maven artifacts for the bundles about to be installed at the same time.
+     * Any that fail are downloaded again when the bundle is installed.
+     */
+    private static void prefetchArtifacts(BundleContext bundleContext, List<String> bundleLocations) {
+        if (bundleLocations.size() < 2) {
+            return;
+        }
+        ServiceReference<IMavenArtifactPrefetcher> serviceReference = bundleContext.getServiceReference(IMavenArtifactPrefetcher.class);
+        if (serviceReference == null) {
+            return;
+        }
+        IMavenArtifactPrefetcher prefetcher = bundleContext.getService(serviceReference);
+        if (prefetcher != null) {
+            try {
+                prefetcher.prefetchArtifacts(bundleLocations);
+            } finally {
+                bundleContext.ungetService(serviceReference);
+            }
+        }
+    }
+
+    /**
+     * Install all the bundles before starting any of them, so they can be wired to each other
+     */
+    private static void installAndStartBundles(BundleContext bundleContext, List<String> bundleLocations) throws FrameworkException {
+        ArrayList<Bundle> bundlesToStart = new ArrayList<>();
+        try {
+            for (String bundleLocation : bundleLocations) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("  installing bundle " + bundleLocation);
+                }
+                bundlesToStart.add(bundleContext.installBundle(bundleLocation));
+            }
+            for (Bundle bundle : bundlesToStart) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("  bundlesToStart: starting " + bundle.getSymbolicName());
+                }
+                bundle.start();
+            }
+        } catch (Exception e) {
+            throw new FrameworkException("Unable to install bundles outside of resolver", e);
+        }
+    }
+
     /**
      * Is the supplied active in the OSGi framework
      * @param bundleContext
@@ -414,10 +414,17 @@ public class Framework implements IFramework, IShuttableFramework {
             return;
         }
 
-        this.testRunLogCapture = new TestRunLogCapture(this);
+        this.testRunLogCapture = new TestRunLogCapture(this, this.env);
 
     }
 
+    @Override
+    public void flushRunLog() {
+        if (this.testRunLogCapture != null) {
+            this.testRunLogCapture.flush();
+        }
+    }
+
     @Override
     public void shutdown() throws FrameworkException {
         shutdown(null);
@@ -472,6 +479,25 @@ public class Framework implements IFramework, IShuttableFramework {
             }
         }
 
+        // *** Write out the rest of the run log before the Result Archive Store goes
+        if (this.testRunLogCapture != null) {
+            try {
+                TestRunLogShipper shipper = this.testRunLogCapture.getShipper();
+                this.testRunLogCapture.flush();
+                shutdownLogger.debug("Run log shipping: batches=" + shipper.getBatchCount()
+                    + " failedBatches=" + shipper.getFailedBatchCount()
+                    + " shippedMessages=" + shipper.getShippedMessageCount()
+                    + " droppedMessages=" + shipper.getDroppedMessageCount()
+                    + " maxQueueDepth=" + shipper.getMaxQueueDepth()
+                    + " totalBatchMillis=" + shipper.getTotalBatchMillis()
+                    + " maxBatchMillis=" + shipper.getMaxBatchMillis());
+                this.testRunLogCapture.shutdown();
+            } catch (Throwable t) {
+                error = true;
+                shutdownLogger.error("Failed to shutdown the run log capture", t);
+            }
+        }
+
         // *** Shutdown the Result Archive Store
         if (this.rasService != null) {
             try {
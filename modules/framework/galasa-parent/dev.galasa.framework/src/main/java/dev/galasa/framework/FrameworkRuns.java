@@ -104,12 +104,22 @@ public class FrameworkRuns implements IFrameworkRuns {
 
     @Override
     public @NotNull List<IRun> getQueuedRuns() throws FrameworkException {
+        return getRunsByStatus(TestRunLifecycleStatus.QUEUED);
+    }
+
+    @Override
+    public @NotNull List<IRun> getRunsByStatus(@NotNull TestRunLifecycleStatus... statuses) throws FrameworkException {
+        Set<String> statusesToMatch = new HashSet<>();
+        for (TestRunLifecycleStatus status : statuses) {
+            statusesToMatch.add(status.toString());
+        }
+
         List<IRun> runs = getAllRuns();
         Iterator<IRun> iruns = runs.iterator();
         while (iruns.hasNext()) {
             IRun run = iruns.next();
 
-            if (!"queued".equals(run.getStatus())) {
+            if (!statusesToMatch.contains(run.getStatus())) {
                 iruns.remove();
             }
         }
@@ -117,25 +127,38 @@ public class FrameworkRuns implements IFrameworkRuns {
         return runs;
     }
 
+    /**
+     * Gets a snapshot of all the runs in the DSS.
+     *
+     * All the run properties are fetched in a single DSS scan and grouped by run name,
+     * rather than fetching the run names first and then going back to the DSS for each
+     * run's properties.
+     */
     @Override
     public List<IRun> getAllRuns() throws FrameworkException {
-        HashMap<String, IRun> runs = new HashMap<>();
+        Map<String, Map<String, String>> propertiesByRunName = new HashMap<>();
 
-        logger.trace("Fetching all run keys from DSS");
-        Collection<String> runPropertiesKeys = dss.getPrefixKeysOnly(RUN_PREFIX);
-        logger.trace("Fetched all run keys from DSS");
-        for (String key : runPropertiesKeys) {
-            Matcher matcher = runPattern.matcher(key);
+        logger.trace("Fetching all run properties from DSS");
+        Map<String, String> runProperties = dss.getPrefix(RUN_PREFIX);
+        logger.trace("Fetched all run properties from DSS");
+        for (Map.Entry<String, String> entry : runProperties.entrySet()) {
+            Matcher matcher = runPattern.matcher(entry.getKey());
             if (matcher.find()) {
                 String runName = matcher.group(1);
 
-                if (!runs.containsKey(runName)) {
-                    runs.put(runName, new RunImpl(runName, this.dss));
+                Map<String, String> propertiesForRun = propertiesByRunName.get(runName);
+                if (propertiesForRun == null) {
+                    propertiesForRun = new HashMap<>();
+                    propertiesByRunName.put(runName, propertiesForRun);
                 }
+                propertiesForRun.put(entry.getKey(), entry.getValue());
             }
         }
 
-        LinkedList<IRun> returnRuns = new LinkedList<>(runs.values());
+        LinkedList<IRun> returnRuns = new LinkedList<>();
+        for (Map.Entry<String, Map<String, String>> entry : propertiesByRunName.entrySet()) {
+            returnRuns.add(new RunImpl(entry.getKey(), entry.getValue()));
+        }
 
         return returnRuns;
     }
@@ -21,6 +21,7 @@ import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.TestMethodResult;
 import dev.galasa.framework.spi.language.GalasaMethod;
 import dev.galasa.framework.spi.teststructure.TestMethod;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 
 public class GenericMethodWrapper {
 
@@ -74,6 +75,7 @@ public class GenericMethodWrapper {
      */
     public void invoke(@NotNull ITestRunManagers managers, Object testClassObject, GenericMethodWrapper testMethod, TestClassWrapper testClassWrapper) throws TestRunException {
 
+        PhaseTimer methodTimer = new PhaseTimer(this.type.toString(), null, this.executionMethod.getName());
         long runLogStart = testClassWrapper.getRunLogLineCount();
         
         try {
@@ -144,14 +146,18 @@ public class GenericMethodWrapper {
             this.genericMethodStructure.setEndTime(Instant.now());
             this.genericMethodStructure.setStatus("finished");
         } catch (FrameworkException e) {
+            testClassWrapper.addPhaseTiming(methodTimer.stop(true));
             throw new TestRunException("There was a problem with the framework: "+e.getMessage(), e);
         }
+        testClassWrapper.addPhaseTiming(methodTimer.stop(this.result.isFailed()));
 
         ITestMethodResult testMethodResult = new TestMethodResult(
             this.executionMethod.getName(), this.result.isPassed(), this.result.isFailed(), this.result.getThrowable());
         testClassWrapper.addTestMethodResult(testMethodResult, managers);
 
+        PhaseTimer runLogFlushTimer = new PhaseTimer(TestPhaseTiming.PHASE_RUN_LOG_FLUSH, null, this.executionMethod.getName());
         long runLogEnd = testClassWrapper.getRunLogLineCount();
+        testClassWrapper.addPhaseTiming(runLogFlushTimer.stop(false));
         saveRunLogStartAndEnd(runLogStart, runLogEnd);
 
         return;
@@ -28,6 +28,7 @@ import dev.galasa.framework.spi.language.GalasaTest;
 import dev.galasa.framework.spi.language.gherkin.GherkinMethod;
 import dev.galasa.framework.spi.language.gherkin.GherkinTest;
 import dev.galasa.framework.spi.streams.IStream;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 
 /**
  * Run the supplied test class
@@ -76,6 +77,7 @@ public class GherkinTestRunner extends BaseTestRunner {
             String rasRunId = this.ras.calculateRasRunId();
             storeRasRunIdInDss(dss, rasRunId);
 
+            PhaseTimer bundleLoadTimer = new PhaseTimer(TestPhaseTiming.PHASE_BUNDLE_LOAD);
             try {
                 String streamName = AbstractManager.nulled(run.getStream());
                 IStream stream = streamsService.getStreamByName(streamName);
@@ -87,6 +89,7 @@ public class GherkinTestRunner extends BaseTestRunner {
 
                 // This is gherkin-test-runner-specific
                 loadGherkinManagerBundles(repositoryAdmin, bundleContext);
+                recordPhaseTiming(bundleLoadTimer, false);
                 validateGherkinFeature(gherkinTest);
                 logger.info("Run test: " + gherkinTest.getName());
 
@@ -105,8 +108,11 @@ public class GherkinTestRunner extends BaseTestRunner {
 
             // *** Initialise the Managers ready for the test run
             ITestRunManagers managers = null;
+            PhaseTimer managerInitialiseTimer = new PhaseTimer(TestPhaseTiming.PHASE_MANAGER_INITIALISE);
             try {
                 managers = dataProvider.createTestRunManagers(new GalasaTest(gherkinTest));
+                recordPhaseTiming(managerInitialiseTimer, false);
+                recordManagerPhaseTimings(managers);
             } catch (TestRunException e) {
                 String msg = "Exception Exception caught. "+e.getMessage()+" Shutting down and Re-throwing.";
                 logger.error(msg);
@@ -153,15 +159,7 @@ public class GherkinTestRunner extends BaseTestRunner {
 
             stopHeartbeat();
 
-            // Record all the CPS properties that were accessed
-            saveUsedCPSPropertiesToArtifact(this.framework.getRecordProperties(), this.fileSystem, this.ras);
-            // And all the overrides the test was passed.
-            saveAllOverridesPassedToArtifact(overrideProperties, this.fileSystem , this.ras);
-
-            // Process any RAS actions that were defined for this test run
-            if (!markedWaiting) {
-                rasActionProcessor.processRasActions(this.run.getName(), this.run.getRasActions());
-            }
+            flushRunArtifacts();
 
             // *** If this was a local run, then we will want to remove the run properties
             // from the DSS immediately
@@ -176,6 +174,14 @@ public class GherkinTestRunner extends BaseTestRunner {
                 deleteRunProperties(framework);
             }
 
+            // Save the timings of the phases since the run finished, before any RAS actions update the RAS records
+            writeTestStructure();
+
+            // Process any RAS actions that were defined for this test run
+            if (!markedWaiting) {
+                rasActionProcessor.processRasActions(this.run.getName(), this.run.getRasActions());
+            }
+
             managers.shutdown();
         } finally {
             shutdownFramework(framework);
@@ -205,7 +211,11 @@ public class GherkinTestRunner extends BaseTestRunner {
             try {
                 updateStatus(TestRunLifecycleStatus.GENERATING, null);
                 logger.info("Starting Provision Generate phase");
-                managers.provisionGenerate();
+                try {
+                    managers.provisionGenerate();
+                } finally {
+                    recordManagerPhaseTimings(managers);
+                }
                 createEnvironment(testObject, managers);
             } catch (Exception e) { 
                 logger.error("Provision Generate failed", e);
@@ -229,7 +239,11 @@ public class GherkinTestRunner extends BaseTestRunner {
             try {
                 updateStatus(TestRunLifecycleStatus.BUILDING, null);
                 logger.info("Starting Provision Build phase");
-                managers.provisionBuild();
+                try {
+                    managers.provisionBuild();
+                } finally {
+                    recordManagerPhaseTimings(managers);
+                }
             } catch (FrameworkException e) {
                 this.isRunOK = false;
                 logger.error("Provision build failed",e);
@@ -250,7 +264,11 @@ public class GherkinTestRunner extends BaseTestRunner {
 
     private void discardEnvironment(ITestRunManagers managers) {
         logger.info("Starting Provision Discard phase");
-        managers.provisionDiscard();
+        try {
+            managers.provisionDiscard();
+        } finally {
+            recordManagerPhaseTimings(managers);
+        }
     }
 
 
@@ -260,7 +278,11 @@ public class GherkinTestRunner extends BaseTestRunner {
                 try {
                     updateStatus(TestRunLifecycleStatus.PROVSTART, null);
                     logger.info("Starting Provision Start phase");
-                    managers.provisionStart();
+                    try {
+                        managers.provisionStart();
+                    } finally {
+                        recordManagerPhaseTimings(managers);
+                    }
                 } catch (FrameworkException e) {
                     this.isRunOK = false;
                     logger.error("Provision start failed",e);
@@ -281,7 +303,11 @@ public class GherkinTestRunner extends BaseTestRunner {
 
     private void stopEnvironment(ITestRunManagers managers) {
         logger.info("Starting Provision Stop phase");
-        managers.provisionStop();
+        try {
+            managers.provisionStop();
+        } finally {
+            recordManagerPhaseTimings(managers);
+        }
     }
 
 
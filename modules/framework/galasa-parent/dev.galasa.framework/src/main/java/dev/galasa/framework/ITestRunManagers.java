@@ -5,6 +5,7 @@
  */
 package dev.galasa.framework;
 
+import java.util.Collections;
 import java.util.List;
 
 import javax.validation.constraints.NotNull;
@@ -13,6 +14,7 @@ import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.language.GalasaMethod;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 
 public interface ITestRunManagers {
     public boolean anyReasonTestClassShouldBeIgnored() throws FrameworkException ;
@@ -58,4 +60,12 @@ public interface ITestRunManagers {
      * @since 0.43.0
      */
     default void addTestMethodResult(ITestMethodResult newTestMethodResult) {}
+
+    /**
+     * Gets how long each manager took to initialise and in the provisioning phases that have
+     * finished since this was last called, so they can be recorded in the test structure. Each timing is returned once.
+     */
+    default List<TestPhaseTiming> takePhaseTimings() {
+        return Collections.emptyList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IManager;
+
+/**
+ * <p>
+ * Runs a provisioning phase across the active Managers on a bounded pool of threads,
+ * starting each Manager as soon as every Manager it is provisionally dependent on has
+ * finished the phase. Managers that do not depend on each other are provisioned at the
+ * same time.
+ * </p>
+ *
+ * <p>
+ * When a Manager fails during provision generate, build or start, no more Managers are
+ * started, the Managers that are already running are allowed to finish, and the first
+ * failure is thrown. Provision stop and discard run in reverse, so a Manager is only torn
+ * down once every Manager that depends on it has been, and every Manager is torn down even
+ * if another one fails.
+ * </p>
+ */
+class ManagerProvisioningScheduler {
+
+    interface ManagerPhase {
+        void run(IManager manager) throws FrameworkException;
+    }
+
+    interface ManagerTeardownPhase {
+        void run(IManager manager);
+    }
+
+    private final Log logger = LogFactory.getLog(ManagerProvisioningScheduler.class);
+
+    private final List<IManager> sortedManagers;
+    private final List<IManager> sortedManagersReversed;
+
+    // The Managers each Manager is provisionally dependent on, and the Managers that depend on each Manager
+    private final Map<IManager, Set<IManager>> dependencies = new HashMap<>();
+    private final Map<IManager, Set<IManager>> dependents = new HashMap<>();
+
+    private final ExecutorService executor;
+
+    /**
+     * @param sortedManagers the active Managers, already sorted into provisioning order
+     * @param threadCount the maximum number of Managers to provision at the same time
+     */
+    ManagerProvisioningScheduler(List<IManager> sortedManagers, int threadCount) {
+        this(sortedManagers, createExecutor(threadCount));
+    }
+
+    ManagerProvisioningScheduler(List<IManager> sortedManagers, ExecutorService executor) {
+        this.sortedManagers = new ArrayList<>(sortedManagers);
+        this.sortedManagersReversed = new ArrayList<>(sortedManagers);
+        Collections.reverse(this.sortedManagersReversed);
+        this.executor = executor;
+
+        for (IManager manager : sortedManagers) {
+            dependencies.put(manager, new LinkedHashSet<>());
+            dependents.put(manager, new LinkedHashSet<>());
+        }
+
+        for (IManager manager : sortedManagers) {
+            for (IManager otherManager : sortedManagers) {
+                if (manager != otherManager && manager.areYouProvisionalDependentOn(otherManager)) {
+                    dependencies.get(manager).add(otherManager);
+                    dependents.get(otherManager).add(manager);
+                }
+            }
+        }
+    }
+
+    Set<IManager> getDependencies(IManager manager) {
+        return Collections.unmodifiableSet(dependencies.get(manager));
+    }
+
+    /**
+     * Runs a provision generate, build or start phase, stopping at the first failure
+     *
+     * @throws FrameworkException the first failure of any Manager
+     */
+    void runPhase(String phaseName, ManagerPhase phase) throws FrameworkException {
+        Throwable failure = run(phaseName, phase, sortedManagers, dependencies, dependents, true);
+        if (failure instanceof FrameworkException) {
+            throw (FrameworkException) failure;
+        }
+        rethrowUnchecked(failure);
+        if (failure != null) {
+            throw new FrameworkException("Problem in " + phaseName, failure);
+        }
+    }
+
+    /**
+     * Runs a provision stop or discard phase, in reverse dependency order, across every Manager
+     */
+    void runTeardownPhase(String phaseName, ManagerTeardownPhase phase) {
+        Throwable failure = run(phaseName, manager -> phase.run(manager), sortedManagersReversed, dependents, dependencies, false);
+        rethrowUnchecked(failure);
+        if (failure != null) {
+            logger.warn("Problem in " + phaseName, failure);
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param order the order to start Managers in when more than one is ready
+     * @param waitsFor the Managers that must finish before each Manager can start
+     * @param releases the Managers that are waiting for each Manager to finish
+     * @param isFailFast whether to stop starting Managers after one has failed
+     * @return the first failure, or null if every Manager succeeded
+     */
+    private Throwable run(String phaseName, ManagerPhase phase, List<IManager> order,
+            Map<IManager, Set<IManager>> waitsFor, Map<IManager, Set<IManager>> releases, boolean isFailFast) {
+
+        Map<IManager, Integer> outstandingCounts = new HashMap<>();
+        for (IManager manager : order) {
+            outstandingCounts.put(manager, waitsFor.get(manager).size());
+        }
+
+        CompletionService<IManager> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<IManager>, IManager> running = new HashMap<>();
+        Set<IManager> started = new HashSet<>();
+        Throwable firstFailure = null;
+
+        try {
+            startReadyManagers(phase, order, outstandingCounts, started, running, completionService);
+
+            while (!running.isEmpty()) {
+                Future<IManager> finished = completionService.take();
+                IManager manager = running.remove(finished);
+
+                boolean isFailed = false;
+                try {
+                    finished.get();
+                } catch (ExecutionException e) {
+                    isFailed = true;
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                    logger.error("Manager " + manager.getClass().getName() + " failed in " + phaseName, e.getCause());
+                }
+
+                if (!isFailed || !isFailFast) {
+                    for (IManager waitingManager : releases.get(manager)) {
+                        outstandingCounts.merge(waitingManager, -1, Integer::sum);
+                    }
+                }
+
+                if (firstFailure == null || !isFailFast) {
+                    startReadyManagers(phase, order, outstandingCounts, started, running, completionService);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<IManager> future : running.keySet()) {
+                future.cancel(true);
+            }
+            firstFailure = new FrameworkException("Interrupted while waiting for the Managers to finish " + phaseName, e);
+        }
+
+        if (firstFailure == null && started.size() < order.size()) {
+            // Can't happen once the Managers have been sorted, as that fails if there is a circular dependency
+            firstFailure = new FrameworkException("Unable to run " + phaseName + " for all Managers, there is a circular dependency");
+        }
+        return firstFailure;
+    }
+
+    private void startReadyManagers(ManagerPhase phase, List<IManager> order, Map<IManager, Integer> outstandingCounts,
+            Set<IManager> started, Map<Future<IManager>, IManager> running, CompletionService<IManager> completionService) {
+        for (IManager manager : order) {
+            if (!started.contains(manager) && outstandingCounts.get(manager) == 0) {
+                started.add(manager);
+                running.put(completionService.submit(() -> {
+                    phase.run(manager);
+                    return manager;
+                }), manager);
+            }
+        }
+    }
+
+    private void rethrowUnchecked(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    private static ExecutorService createExecutor(int threadCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "galasa-manager-provisioning-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, threadCount), threadFactory);
+    }
+}
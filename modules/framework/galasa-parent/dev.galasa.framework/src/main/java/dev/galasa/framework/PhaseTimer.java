@@ -0,0 +1,42 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
+
+/**
+ * Times one phase of a test run. The wall-clock start time is kept for the
+ * record, but the duration is measured with the monotonic clock.
+ */
+class PhaseTimer {
+
+    private final String  phase;
+    private final String  manager;
+    private final String  method;
+
+    private final Instant startTime  = Instant.now();
+    private final long    startNanos = System.nanoTime();
+
+    PhaseTimer(String phase) {
+        this(phase, null, null);
+    }
+
+    PhaseTimer(String phase, String manager, String method) {
+        this.phase = phase;
+        this.manager = manager;
+        this.method = method;
+    }
+
+    TestPhaseTiming stop(boolean isFailed) {
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        TestPhaseTiming phaseTiming = new TestPhaseTiming(phase, manager, startTime, durationMillis, isFailed);
+        phaseTiming.setMethod(method);
+        return phaseTiming;
+    }
+}
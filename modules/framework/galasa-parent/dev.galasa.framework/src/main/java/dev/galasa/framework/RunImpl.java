@@ -68,12 +68,21 @@ public class RunImpl implements IRun {
     private static final GalasaGson gson = new GalasaGson();
 
     public RunImpl(String name, IDynamicStatusStoreService dss) throws DynamicStatusStoreException {
+        this(name, dss.getPrefix("run." + name));
+    }
+
+    /**
+     * Creates a run from DSS properties that have already been fetched, so that callers
+     * which have scanned many runs at once do not need to go back to the DSS for each run.
+     *
+     * @param name the name of the run
+     * @param runProperties the DSS properties of the run, keyed by their full "run.[name].*" DSS key
+     */
+    public RunImpl(String name, Map<String, String> runProperties) {
         this.name = name;
 
         String prefix = "run." + name + ".";
 
-        Map<String, String> runProperties = dss.getPrefix("run." + this.name);
-
         String sHeartbeat = runProperties.get(prefix + DssPropertyKeyRunNameSuffix.HEARTBEAT);
         if (sHeartbeat != null) {
             this.heartbeat = Instant.parse(sHeartbeat);
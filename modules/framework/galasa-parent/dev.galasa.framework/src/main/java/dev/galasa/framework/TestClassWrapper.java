@@ -34,6 +34,7 @@ import dev.galasa.framework.spi.IDynamicStatusStoreService;
 import dev.galasa.framework.spi.IResultArchiveStore;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.teststructure.TestMethod;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 
 /**
@@ -73,6 +74,9 @@ public class TestClassWrapper {
     private final IResultArchiveStore ras;
     private final InterruptedMonitor interruptedMonitor;
 
+    // Makes sure everything logged so far has reached the RAS before we read its run log line count
+    private Runnable runLogFlusher = () -> {};
+
     /**
      * Constructor
      * 
@@ -606,7 +610,16 @@ public class TestClassWrapper {
         return isContinueOnTestFailureSet;
     }
 
+    public void setRunLogFlusher(Runnable runLogFlusher) {
+        this.runLogFlusher = runLogFlusher;
+    }
+
+    protected void addPhaseTiming(TestPhaseTiming phaseTiming) {
+        this.testStructure.addPhaseTiming(phaseTiming);
+    }
+
     protected long getRunLogLineCount() {
+        this.runLogFlusher.run();
         long runLogLineCount = this.ras.retrieveRunLogLineCount();
         return runLogLineCount;
     }
@@ -18,78 +18,94 @@ import dev.galasa.framework.spi.IDynamicStatusStoreService;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IResultArchiveStore;
 
-public class TestRunHeartbeat extends Thread {
+/**
+ * The heartbeat of a test run. Once started, the heartbeat is written by the
+ * {@link TestRunHeartbeatService} shared by all the test runs in the JVM.
+ */
+public class TestRunHeartbeat {
 
     private final Log                        logger        = LogFactory.getLog(this.getClass());
 
-    private final IFramework                 framework;
     private final IDynamicStatusStoreService dss;
     private final IResultArchiveStore        ras;
     private final String                     key;
+    private final TestRunHeartbeatService    heartbeatService;
 
+    // Only accessed while holding the lock on the heartbeat service, once the heartbeat has started.
     private String                           lastHeartbeat = null;
-
-    private boolean                          shutdown      = false;
+    private Instant                          nextHeartbeatDue;
 
     protected TestRunHeartbeat(@NotNull IFramework framework) throws DynamicStatusStoreException {
-        this.framework = framework;
-        this.dss = this.framework.getDynamicStatusStoreService("framework");
-        this.ras = this.framework.getResultArchiveStore();
+        this(framework, TestRunHeartbeatService.getSharedService());
+    }
+
+    protected TestRunHeartbeat(@NotNull IFramework framework, @NotNull TestRunHeartbeatService heartbeatService) throws DynamicStatusStoreException {
+        this.dss = framework.getDynamicStatusStoreService("framework");
+        this.ras = framework.getResultArchiveStore();
         this.key = "run." + framework.getTestRunName() + "." + DssPropertyKeyRunNameSuffix.HEARTBEAT;
+        this.heartbeatService = heartbeatService;
 
         // *** Set the initial
         setHeartbeat();
     }
 
     private void setHeartbeat() throws DynamicStatusStoreException {
-        String newHeartbeat = Instant.now().toString();
+        String newHeartbeat = heartbeatService.getTimeService().now().toString();
 
         if (!dss.putSwap(key, lastHeartbeat, newHeartbeat)) {
-            // ***
-            // *** Error condition, must be another engine on this run, so we must
-            // immediately terminate
-            // *** Do not allow privision discard or anything else to run as this could
-            // affect
-            // *** the other engine
-            // ***
-            logger.fatal("The run heartbeat has been updated by something else");
-            logger.fatal("Cannot allow provision discard to run as this could affect the other engine");
-            System.exit(0);
+            heartbeatLost();
         }
 
-        this.lastHeartbeat = newHeartbeat;
+        heartbeatWritten(newHeartbeat);
+        flushResultArchiveStore();
+    }
 
-        this.ras.flush();
+    public void start() {
+        heartbeatService.register(this);
     }
 
     public void shutdown() {
-        this.shutdown = true;
+        heartbeatService.deregister(this);
     }
 
-    @Override
-    public void run() {
-
-        long nextHeartbeat = 0;
-        while (!shutdown) {
-            if (System.currentTimeMillis() >= nextHeartbeat) {
-                nextHeartbeat = System.currentTimeMillis() + 20000; // TODO do we been to parameterise this?
-
-                try {
-                    setHeartbeat();
-                } catch (DynamicStatusStoreException e) {
-                    logger.error("Heartbeat failed", e);
-                    nextHeartbeat = System.currentTimeMillis() + 2000;
-                }
-            }
-
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                shutdown = true;
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
+    IDynamicStatusStoreService getDss() {
+        return dss;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+
+    Instant getNextHeartbeatDue() {
+        return nextHeartbeatDue;
+    }
+
+    void setNextHeartbeatDue(Instant nextHeartbeatDue) {
+        this.nextHeartbeatDue = nextHeartbeatDue;
+    }
+
+    void heartbeatWritten(String newHeartbeat) {
+        this.lastHeartbeat = newHeartbeat;
+    }
+
+    void flushResultArchiveStore() {
+        this.ras.flush();
+    }
 
+    protected void heartbeatLost() {
+        // ***
+        // *** Error condition, must be another engine on this run, so we must
+        // immediately terminate
+        // *** Do not allow privision discard or anything else to run as this could
+        // affect
+        // *** the other engine
+        // ***
+        logger.fatal("The run heartbeat has been updated by something else");
+        logger.fatal("Cannot allow provision discard to run as this could affect the other engine");
+        System.exit(0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.DssSwap;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
+import dev.galasa.framework.spi.IDssAction;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.utils.DssUtils;
+import dev.galasa.framework.spi.utils.ITimeService;
+import dev.galasa.framework.spi.utils.SystemTimeService;
+
+/**
+ * Beats the hearts of all the test runs in this JVM from a single thread.
+ *
+ * Every {@value #TICK_INTERVAL_MS}ms, the heartbeats which are due, or will be due within
+ * the next {@value #COALESCE_WINDOW_MS}ms, are written to the DSS together in one transaction
+ * for each DSS. The runs are given their own instance of the DSS service, so heartbeats are
+ * grouped by the services being equal rather than being the same instance. Each heartbeat is
+ * a swap from the run's last heartbeat, so if any run's heartbeat has been changed by something
+ * else the transaction fails, and the heartbeats are written one at a time to find out which
+ * runs have lost their heartbeat.
+ *
+ * Heartbeats which could not be written, and heartbeats written more than
+ * {@value #LATE_THRESHOLD_MS}ms after they were due, are counted in the
+ * {@value #MISSED_HEARTBEATS_METRIC} and {@value #LATE_HEARTBEATS_METRIC} DSS metrics.
+ * The metrics are updated, and the RAS of each run is flushed, after the lock on the service
+ * has been released, so runs starting and stopping their heartbeats don't wait for them.
+ */
+public class TestRunHeartbeatService {
+
+    public static final long HEARTBEAT_INTERVAL_MS = 20000;
+    public static final long RETRY_INTERVAL_MS     = 2000;
+    public static final long TICK_INTERVAL_MS      = 500;
+    public static final long COALESCE_WINDOW_MS    = 1000;
+    public static final long LATE_THRESHOLD_MS     = 5000;
+
+    public static final String MISSED_HEARTBEATS_METRIC = "metrics.heartbeats.missed";
+    public static final String LATE_HEARTBEATS_METRIC   = "metrics.heartbeats.late";
+
+    private static TestRunHeartbeatService sharedService;
+
+    private final Log logger = LogFactory.getLog(this.getClass());
+
+    private final ITimeService timeService;
+
+    // Only accessed while holding the lock on this service.
+    private final Set<TestRunHeartbeat> heartbeats = new LinkedHashSet<>();
+    private long missedHeartbeatCount = 0;
+    private long lateHeartbeatCount = 0;
+
+    /**
+     * @return the heartbeat service shared by every test run in this JVM
+     */
+    public static synchronized TestRunHeartbeatService getSharedService() {
+        if (sharedService == null) {
+            sharedService = new TestRunHeartbeatService(new SystemTimeService(), true);
+        }
+        return sharedService;
+    }
+
+    protected TestRunHeartbeatService(ITimeService timeService, boolean isScheduled) {
+        this.timeService = timeService;
+
+        if (isScheduled) {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "galasa-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::tick, TICK_INTERVAL_MS, TICK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public ITimeService getTimeService() {
+        return timeService;
+    }
+
+    /**
+     * Start beating the heart of a test run. The run's first heartbeat must already have been written.
+     */
+    public synchronized void register(TestRunHeartbeat heartbeat) {
+        heartbeat.setNextHeartbeatDue(timeService.now().plusMillis(HEARTBEAT_INTERVAL_MS));
+        heartbeats.add(heartbeat);
+    }
+
+    /**
+     * Stop beating the heart of a test run. If its heartbeat is being written, this waits for the DSS
+     * write to finish, but not for the run's RAS to be flushed, which happens after the lock is released.
+     */
+    public synchronized void deregister(TestRunHeartbeat heartbeat) {
+        heartbeats.remove(heartbeat);
+    }
+
+    public synchronized int getRegisteredCount() {
+        return heartbeats.size();
+    }
+
+    public synchronized long getMissedHeartbeatCount() {
+        return missedHeartbeatCount;
+    }
+
+    public synchronized long getLateHeartbeatCount() {
+        return lateHeartbeatCount;
+    }
+
+    private void tick() {
+        // Catch everything, an exception escaping would stop the scheduler for every run
+        try {
+            beatDueHeartbeats();
+        } catch (Exception e) {
+            logger.error("Heartbeat failed", e);
+        }
+    }
+
+    /**
+     * The outcome of writing the heartbeats which are due, to be acted on once the lock on the service is released
+     */
+    private static class HeartbeatOutcomes {
+        private final List<TestRunHeartbeat> writtenHeartbeats = new ArrayList<>();
+        private final List<TestRunHeartbeat> lostHeartbeats = new ArrayList<>();
+        private final List<IDynamicStatusStoreService> lateHeartbeatDsses = new ArrayList<>();
+        private final List<IDynamicStatusStoreService> missedHeartbeatDsses = new ArrayList<>();
+    }
+
+    void beatDueHeartbeats() {
+        HeartbeatOutcomes outcomes = writeDueHeartbeats();
+
+        for (TestRunHeartbeat heartbeat : outcomes.writtenHeartbeats) {
+            heartbeat.flushResultArchiveStore();
+        }
+        for (IDynamicStatusStoreService dss : outcomes.lateHeartbeatDsses) {
+            DssUtils.incrementMetric(dss, LATE_HEARTBEATS_METRIC);
+        }
+        for (IDynamicStatusStoreService dss : outcomes.missedHeartbeatDsses) {
+            DssUtils.incrementMetric(dss, MISSED_HEARTBEATS_METRIC);
+        }
+
+        // The runs are told about lost heartbeats last, as they terminate the JVM
+        for (TestRunHeartbeat heartbeat : outcomes.lostHeartbeats) {
+            heartbeat.heartbeatLost();
+        }
+    }
+
+    private synchronized HeartbeatOutcomes writeDueHeartbeats() {
+        Instant now = timeService.now();
+        Instant coalesceUntil = now.plusMillis(COALESCE_WINDOW_MS);
+
+        Map<IDynamicStatusStoreService, List<TestRunHeartbeat>> dueHeartbeatsByDss = new LinkedHashMap<>();
+        for (TestRunHeartbeat heartbeat : heartbeats) {
+            if (!heartbeat.getNextHeartbeatDue().isAfter(coalesceUntil)) {
+                dueHeartbeatsByDss.computeIfAbsent(heartbeat.getDss(), dss -> new ArrayList<>()).add(heartbeat);
+            }
+        }
+
+        HeartbeatOutcomes outcomes = new HeartbeatOutcomes();
+        for (Map.Entry<IDynamicStatusStoreService, List<TestRunHeartbeat>> entry : dueHeartbeatsByDss.entrySet()) {
+            writeHeartbeats(entry.getKey(), entry.getValue(), now, outcomes);
+        }
+
+        heartbeats.removeAll(outcomes.lostHeartbeats);
+        return outcomes;
+    }
+
+    private void writeHeartbeats(IDynamicStatusStoreService dss, List<TestRunHeartbeat> dueHeartbeats, Instant now, HeartbeatOutcomes outcomes) {
+        String newHeartbeat = now.toString();
+
+        IDssAction[] actions = new IDssAction[dueHeartbeats.size()];
+        for (int i = 0; i < actions.length; i++) {
+            TestRunHeartbeat heartbeat = dueHeartbeats.get(i);
+            actions[i] = new DssSwap(heartbeat.getKey(), heartbeat.getLastHeartbeat(), newHeartbeat);
+        }
+
+        try {
+            dss.performActions(actions);
+            for (TestRunHeartbeat heartbeat : dueHeartbeats) {
+                heartbeatWritten(dss, heartbeat, newHeartbeat, now, outcomes);
+            }
+        } catch (DynamicStatusStoreMatchException e) {
+            // At least one of the heartbeats has been changed by something else, so find out which
+            for (TestRunHeartbeat heartbeat : dueHeartbeats) {
+                if (!writeHeartbeat(dss, heartbeat, newHeartbeat, now, outcomes)) {
+                    outcomes.lostHeartbeats.add(heartbeat);
+                }
+            }
+        } catch (DynamicStatusStoreException e) {
+            logger.error("Heartbeat failed for " + dueHeartbeats.size() + " run(s)", e);
+            for (TestRunHeartbeat heartbeat : dueHeartbeats) {
+                heartbeatMissed(dss, heartbeat, now, outcomes);
+            }
+        }
+    }
+
+    /**
+     * @return false if the heartbeat has been changed by something else
+     */
+    private boolean writeHeartbeat(IDynamicStatusStoreService dss, TestRunHeartbeat heartbeat, String newHeartbeat, Instant now, HeartbeatOutcomes outcomes) {
+        boolean isHeartbeatOwned = true;
+        try {
+            if (dss.putSwap(heartbeat.getKey(), heartbeat.getLastHeartbeat(), newHeartbeat)) {
+                heartbeatWritten(dss, heartbeat, newHeartbeat, now, outcomes);
+            } else {
+                isHeartbeatOwned = false;
+            }
+        } catch (DynamicStatusStoreException e) {
+            logger.error("Heartbeat failed for " + heartbeat.getKey(), e);
+            heartbeatMissed(dss, heartbeat, now, outcomes);
+        }
+        return isHeartbeatOwned;
+    }
+
+    private void heartbeatWritten(IDynamicStatusStoreService dss, TestRunHeartbeat heartbeat, String newHeartbeat, Instant now, HeartbeatOutcomes outcomes) {
+        long lateMillis = Duration.between(heartbeat.getNextHeartbeatDue(), now).toMillis();
+        if (lateMillis > LATE_THRESHOLD_MS) {
+            logger.warn("Heartbeat " + heartbeat.getKey() + " was written " + lateMillis + "ms late");
+            lateHeartbeatCount++;
+            outcomes.lateHeartbeatDsses.add(dss);
+        }
+
+        heartbeat.setNextHeartbeatDue(now.plusMillis(HEARTBEAT_INTERVAL_MS));
+        heartbeat.heartbeatWritten(newHeartbeat);
+        outcomes.writtenHeartbeats.add(heartbeat);
+    }
+
+    private void heartbeatMissed(IDynamicStatusStoreService dss, TestRunHeartbeat heartbeat, Instant now, HeartbeatOutcomes outcomes) {
+        missedHeartbeatCount++;
+        outcomes.missedHeartbeatDsses.add(dss);
+
+        heartbeat.setNextHeartbeatDue(now.plusMillis(RETRY_INTERVAL_MS));
+    }
+}
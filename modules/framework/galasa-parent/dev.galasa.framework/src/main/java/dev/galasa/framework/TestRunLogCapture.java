@@ -6,8 +6,9 @@
 package dev.galasa.framework;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
@@ -19,25 +20,55 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 
-import dev.galasa.framework.spi.IResultArchiveStore;
-import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.TestRunLogShipper.OverflowPolicy;
+import dev.galasa.framework.spi.Environment;
+import dev.galasa.framework.spi.SystemEnvironment;
 
+/**
+ * Captures everything logged during a test run, and ships it to the run log in the RAS.
+ *
+ * Messages are formatted on the thread that logged them, then written to the RAS in batches
+ * by a {@link TestRunLogShipper}, which can be tuned with these environment variables:
+ * <ul>
+ * <li>GALASA_RUN_LOG_QUEUE_SIZE - the most messages that can be waiting to be shipped</li>
+ * <li>GALASA_RUN_LOG_BATCH_SIZE - the number of waiting messages that causes a batch to be shipped</li>
+ * <li>GALASA_RUN_LOG_BATCH_DELAY_MILLIS - the longest a message waits before it is shipped</li>
+ * <li>GALASA_RUN_LOG_OVERFLOW_POLICY - "block" to make the logging thread wait when the queue is full, or "drop" to drop the message</li>
+ * </ul>
+ */
 public class TestRunLogCapture implements Appender {
 
+    public static final String QUEUE_SIZE_ENV_VAR         = "GALASA_RUN_LOG_QUEUE_SIZE";
+    public static final String BATCH_SIZE_ENV_VAR         = "GALASA_RUN_LOG_BATCH_SIZE";
+    public static final String BATCH_DELAY_MILLIS_ENV_VAR = "GALASA_RUN_LOG_BATCH_DELAY_MILLIS";
+    public static final String OVERFLOW_POLICY_ENV_VAR    = "GALASA_RUN_LOG_OVERFLOW_POLICY";
+
+    private final Log               logger = LogFactory.getLog(getClass());
+
     private final Framework         framework;
 
-    private IResultArchiveStore     ras;
+    private final TestRunLogShipper shipper;
 
-    private final ArrayList<String> startupCache = new ArrayList<>();
     private PatternLayout           layout       = PatternLayout.newBuilder().withPattern("%d{HH:mm:ss} %p [%t] %c - %m%n").build();
     private Level                   minimumLevel = Level.ALL;
 
-    private boolean                 shutdown     = false;
+    private volatile boolean        shutdown     = false;
 
     private State                   state        = State.STOPPED;
 
     public TestRunLogCapture(Framework framework) {
+        this(framework, new SystemEnvironment());
+    }
+
+    public TestRunLogCapture(Framework framework, Environment env) {
         this.framework = framework;
+        this.shipper = new TestRunLogShipper(
+            () -> this.framework.isInitialised() ? this.framework.getResultArchiveStore() : null,
+            getIntFromEnv(env, QUEUE_SIZE_ENV_VAR, TestRunLogShipper.DEFAULT_QUEUE_CAPACITY),
+            getIntFromEnv(env, BATCH_SIZE_ENV_VAR, TestRunLogShipper.DEFAULT_BATCH_SIZE),
+            getIntFromEnv(env, BATCH_DELAY_MILLIS_ENV_VAR, (int) TestRunLogShipper.DEFAULT_BATCH_DELAY_MILLIS),
+            getOverflowPolicyFromEnv(env)
+        );
 
         LoggerContext ctx = (LoggerContext) LogManager.getContext();
         Configuration config = ctx.getConfiguration();
@@ -56,8 +87,54 @@ public class TestRunLogCapture implements Appender {
         }
     }
 
+    private int getIntFromEnv(Environment env, String envVar, int defaultValue) {
+        int value = defaultValue;
+        String valueStr = env.getenv(envVar);
+        if (valueStr != null && !valueStr.isBlank()) {
+            try {
+                value = Integer.parseInt(valueStr.trim());
+            } catch (NumberFormatException e) {
+                value = -1;
+            }
+            if (value <= 0) {
+                logger.warn("Invalid value '" + valueStr + "' for environment variable " + envVar + ", using " + defaultValue);
+                value = defaultValue;
+            }
+        }
+        return value;
+    }
+
+    private OverflowPolicy getOverflowPolicyFromEnv(Environment env) {
+        OverflowPolicy policy = OverflowPolicy.BLOCK;
+        String policyStr = env.getenv(OVERFLOW_POLICY_ENV_VAR);
+        if (policyStr != null && !policyStr.isBlank()) {
+            try {
+                policy = OverflowPolicy.valueOf(policyStr.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid value '" + policyStr + "' for environment variable " + OVERFLOW_POLICY_ENV_VAR
+                    + ", expected 'block' or 'drop', using 'block'");
+            }
+        }
+        return policy;
+    }
+
+    /**
+     * Waits for everything logged so far to be written to the run log
+     */
+    public void flush() {
+        this.shipper.flush();
+    }
+
+    /**
+     * Writes out everything logged so far and stops capturing the log
+     */
     public void shutdown() {
         this.shutdown = true;
+        this.shipper.shutdown();
+    }
+
+    public TestRunLogShipper getShipper() {
+        return this.shipper;
     }
 
 
@@ -78,37 +155,9 @@ public class TestRunLogCapture implements Appender {
             throwable = event.getThrownProxy().getExtendedStackTraceAsString();
         }
 
-        if (ras == null) {
-            if (framework.isInitialised()) {
-                this.ras = framework.getResultArchiveStore();
-            } else {
-                startupCache.add(message);
-                if (throwable != null) {
-                    startupCache.add(throwable);
-                }
-                return;
-            }
-        }
-
-        if (!startupCache.isEmpty()) {
-            try {
-                this.ras.writeLog(startupCache);
-                this.startupCache.clear();
-            } catch (ResultArchiveStoreException e) {
-                e.printStackTrace(); // *** Do not use logger, will cause a loop //NOSONAR
-                startupCache.add(message);
-                return;
-            }
-        }
-
-        try {
-            this.ras.writeLog(message);
-            if (throwable != null) {
-                this.ras.writeLog(throwable);
-            }
-        } catch (ResultArchiveStoreException e) {
-            e.printStackTrace(); // *** Do not use logger, will cause a loop //NOSONAR
-            startupCache.add(message);
+        this.shipper.add(message);
+        if (throwable != null) {
+            this.shipper.add(throwable);
         }
     }
 
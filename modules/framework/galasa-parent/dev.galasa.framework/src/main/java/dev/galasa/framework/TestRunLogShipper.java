@@ -0,0 +1,446 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.IResultArchiveStore;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+/**
+ * Ships captured run log messages to the Result Archive Store on a background thread.
+ *
+ * Messages are added to a bounded queue by the threads that are logging, and a single
+ * shipper thread writes them to the RAS in batches, so a slow RAS does not hold up the test.
+ * A batch is written when the queue holds a batch's worth of messages, when the oldest
+ * queued message has waited for the batch delay, or when someone asks for a flush.
+ *
+ * When the queue is full, the logging thread either waits for space or the message is dropped
+ * and counted, depending on the overflow policy. The shipper thread never waits on its own queue,
+ * so anything it logs while writing to the RAS is dropped rather than deadlocking.
+ *
+ * Until the RAS is available, messages are held by the shipper thread, in the same way the log
+ * capture has always cached the messages logged during framework startup. While writing to the
+ * RAS fails, the messages are retried after the batch delay, and the shipper holds no more of them
+ * than the queue capacity. Once it is holding that many, the queue fills up and the overflow
+ * policy applies to the messages that are logged after that.
+ *
+ * Anything this class logs is captured and shipped by itself, so it only logs from the shipper
+ * thread, and reports failures to write to the RAS at most once a minute.
+ */
+public class TestRunLogShipper implements Runnable {
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_BATCH_DELAY_MILLIS = 500;
+
+    // How long a flush will wait for the shipper thread before giving up
+    private static final long FLUSH_TIMEOUT_MILLIS = 30000;
+
+    // How often a RAS that keeps failing is reported
+    private static final long FAILURE_WARNING_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final Supplier<IResultArchiveStore> rasSupplier;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long batchDelayNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition messagesQueued = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final Condition flushCompleted = lock.newCondition();
+
+    // Guarded by the lock
+    private final ArrayDeque<String> queue;
+    private long oldestQueuedNanos;
+    private boolean isFlushRequested = false;
+    private long startedFlushCount = 0;
+    private long completedFlushCount = 0;
+    private boolean isShutdown = false;
+    private int maxQueueDepth = 0;
+    private long droppedMessageCount = 0;
+
+    // Only used by the shipper thread
+    private final List<String> unshippedMessages = new ArrayList<>();
+    private IResultArchiveStore ras;
+    private long nextRetryNanos;
+    private long lastFailureWarningNanos;
+    private boolean isFailureWarned = false;
+    private int failuresSinceWarning = 0;
+
+    // Written by the shipper thread, read by anyone
+    private volatile long shippedMessageCount = 0;
+    private volatile long batchCount = 0;
+    private volatile long failedBatchCount = 0;
+    private volatile long lastBatchNanos = 0;
+    private volatile long maxBatchNanos = 0;
+    private volatile long totalBatchNanos = 0;
+
+    private final Thread shipperThread;
+
+    /**
+     * @param rasSupplier supplies the RAS to write to, or null if it is not available yet
+     */
+    public TestRunLogShipper(Supplier<IResultArchiveStore> rasSupplier) {
+        this(rasSupplier, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_DELAY_MILLIS, OverflowPolicy.BLOCK);
+    }
+
+    public TestRunLogShipper(Supplier<IResultArchiveStore> rasSupplier, int queueCapacity, int batchSize,
+            long batchDelayMillis, OverflowPolicy overflowPolicy) {
+        this.rasSupplier = rasSupplier;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = Math.min(batchSize, queueCapacity);
+        this.batchDelayNanos = TimeUnit.MILLISECONDS.toNanos(batchDelayMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new ArrayDeque<>(queueCapacity);
+
+        this.shipperThread = new Thread(this, "galasa-run-log-shipper");
+        this.shipperThread.setDaemon(true);
+        this.shipperThread.start();
+    }
+
+    /**
+     * Queues a message to be written to the run log.
+     *
+     * @param message the formatted log message
+     * @return true if the message was queued, false if it was dropped
+     */
+    public boolean add(String message) {
+        boolean isQueued = false;
+        lock.lock();
+        try {
+            boolean isDropped = isShutdown;
+            while (!isDropped && queue.size() >= queueCapacity) {
+                if (overflowPolicy == OverflowPolicy.DROP || Thread.currentThread() == shipperThread) {
+                    isDropped = true;
+                } else {
+                    try {
+                        spaceAvailable.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        isDropped = true;
+                    }
+                    isDropped = isDropped || isShutdown;
+                }
+            }
+
+            if (isDropped) {
+                droppedMessageCount++;
+            } else {
+                if (queue.isEmpty()) {
+                    oldestQueuedNanos = System.nanoTime();
+                }
+                queue.add(message);
+                maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+                // Wake the shipper when it needs to start timing a new batch, or when the batch is full
+                if (queue.size() == 1 || queue.size() == batchSize) {
+                    messagesQueued.signal();
+                }
+                isQueued = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return isQueued;
+    }
+
+    /**
+     * Waits until every message queued before this call has been written to the RAS,
+     * or the shipper has tried and failed to write them.
+     */
+    public void flush() {
+        if (Thread.currentThread() == shipperThread) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (isShutdown) {
+                return;
+            }
+
+            // A flush the shipper has already started may have drained the queue before our messages were
+            // added, so we wait for the next one to start, which might have been requested by someone else.
+            long flushCountToWaitFor = startedFlushCount + 1;
+            isFlushRequested = true;
+            messagesQueued.signal();
+
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(FLUSH_TIMEOUT_MILLIS);
+            while (completedFlushCount < flushCountToWaitFor && !isShutdown && remainingNanos > 0) {
+                remainingNanos = flushCompleted.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes out everything that has been queued and stops the shipper thread.
+     * Messages added after this are dropped.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (isShutdown) {
+                return;
+            }
+            isShutdown = true;
+            messagesQueued.signal();
+            spaceAvailable.signalAll();
+            flushCompleted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (Thread.currentThread() != shipperThread) {
+            try {
+                shipperThread.join(FLUSH_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean isFinished = false;
+        while (!isFinished) {
+            boolean isFlushing;
+            lock.lock();
+            try {
+                waitForBatch();
+
+                isFlushing = isFlushRequested;
+                if (isFlushing) {
+                    isFlushRequested = false;
+                    startedFlushCount++;
+                }
+                isFinished = isShutdown;
+            } catch (InterruptedException e) {
+                isFlushing = false;
+                isFinished = true;
+            } finally {
+                lock.unlock();
+            }
+
+            boolean isQueueEmpty = takeQueuedMessages();
+            boolean isShipped = writeBatch();
+
+            // After the RAS has been failing, the queued messages might not all have fitted in the batch,
+            // so a flush or shutdown carries on until they have all been shipped or the RAS fails again
+            while ((isFlushing || isFinished) && isShipped && !isQueueEmpty) {
+                isQueueEmpty = takeQueuedMessages();
+                isShipped = writeBatch();
+            }
+
+            if (isFinished) {
+                dropQueuedMessages();
+            }
+
+            if (isFlushing) {
+                lock.lock();
+                try {
+                    completedFlushCount++;
+                    flushCompleted.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Must be called holding the lock
+     */
+    private void waitForBatch() throws InterruptedException {
+        while (!isShutdown && !isFlushRequested) {
+            boolean isRetryBufferFull = isRetryBufferFull();
+            long waitNanos;
+            if (!isRetryBufferFull && queue.size() >= batchSize) {
+                break;
+            } else if (!isRetryBufferFull && !queue.isEmpty()) {
+                waitNanos = oldestQueuedNanos + batchDelayNanos - System.nanoTime();
+            } else if (!unshippedMessages.isEmpty()) {
+                // Nothing new can be shipped, but we wait to retry the messages we have not managed to ship
+                waitNanos = nextRetryNanos - System.nanoTime();
+            } else {
+                messagesQueued.await();
+                continue;
+            }
+
+            if (waitNanos <= 0) {
+                break;
+            }
+            messagesQueued.awaitNanos(waitNanos);
+        }
+    }
+
+    /**
+     * Only the shipper thread knows whether the RAS is available, so this must be called from it
+     */
+    private boolean isRetryBufferFull() {
+        return ras != null && unshippedMessages.size() >= queueCapacity;
+    }
+
+    /**
+     * Moves as many queued messages as the shipper can hold into the next batch.
+     *
+     * @return true if there are no messages left in the queue
+     */
+    private boolean takeQueuedMessages() {
+        lock.lock();
+        try {
+            int messagesToTake = queue.size();
+            if (ras != null) {
+                messagesToTake = Math.min(messagesToTake, queueCapacity - unshippedMessages.size());
+            }
+            for (int i = 0; i < messagesToTake; i++) {
+                unshippedMessages.add(queue.poll());
+            }
+
+            if (messagesToTake > 0) {
+                spaceAvailable.signalAll();
+            }
+            return queue.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dropQueuedMessages() {
+        lock.lock();
+        try {
+            droppedMessageCount += queue.size();
+            queue.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if there are no messages left to ship
+     */
+    private boolean writeBatch() {
+        if (unshippedMessages.isEmpty()) {
+            return true;
+        }
+
+        nextRetryNanos = System.nanoTime() + batchDelayNanos;
+        if (ras == null) {
+            ras = rasSupplier.get();
+            if (ras == null) {
+                // The framework has not been initialised yet, so hold on to the messages until it has
+                return false;
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        boolean isShipped = false;
+        try {
+            ras.writeLog(unshippedMessages);
+            shippedMessageCount += unshippedMessages.size();
+            unshippedMessages.clear();
+            isShipped = true;
+        } catch (ResultArchiveStoreException | RuntimeException e) {
+            failedBatchCount++;
+            warnOfFailure(e);
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        batchCount++;
+        lastBatchNanos = elapsedNanos;
+        totalBatchNanos += elapsedNanos;
+        if (elapsedNanos > maxBatchNanos) {
+            maxBatchNanos = elapsedNanos;
+        }
+        return isShipped;
+    }
+
+    private void warnOfFailure(Exception e) {
+        failuresSinceWarning++;
+        long nowNanos = System.nanoTime();
+        if (!isFailureWarned || nowNanos - lastFailureWarningNanos >= FAILURE_WARNING_INTERVAL_NANOS) {
+            logger.warn("Unable to write the run log to the RAS, failed " + failuresSinceWarning
+                    + " times since the last warning, " + unshippedMessages.size() + " messages are waiting to be retried", e);
+            isFailureWarned = true;
+            lastFailureWarningNanos = nowNanos;
+            failuresSinceWarning = 0;
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxQueueDepth() {
+        lock.lock();
+        try {
+            return maxQueueDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedMessageCount() {
+        lock.lock();
+        try {
+            return droppedMessageCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getShippedMessageCount() {
+        return shippedMessageCount;
+    }
+
+    /**
+     * @return the number of times a batch of messages has been written, or has failed to be written, to the RAS
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount;
+    }
+
+    public long getLastBatchMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastBatchNanos);
+    }
+
+    public long getMaxBatchMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBatchNanos);
+    }
+
+    public long getTotalBatchMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalBatchNanos);
+    }
+}
@@ -30,22 +30,35 @@ import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 
 import dev.galasa.ManagerException;
+import dev.galasa.framework.ManagerProvisioningScheduler.ManagerPhase;
+import dev.galasa.framework.ManagerProvisioningScheduler.ManagerTeardownPhase;
+import dev.galasa.framework.spi.AbstractManager;
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.FrameworkResourceUnavailableException;
+import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.ResourceUnavailableException;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.language.GalasaMethod;
 import dev.galasa.framework.spi.language.GalasaTest;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 
 public class TestRunManagers implements ITestRunManagers {
 
+    public static final int DEFAULT_PROVISIONING_THREADS = 4;
+
     private final List<IManager>  activeManagers         = new ArrayList<>();
     private final List<IManager>  activeManagersReversed = new ArrayList<>();
     private final Log             logger                 = LogFactory.getLog(TestRunManagers.class);
     private final IFramework      framework;
 
+    private final List<TestPhaseTiming> phaseTimings     = Collections.synchronizedList(new ArrayList<>());
+
+    // Only set when the managers are to be provisioned in parallel
+    private ManagerProvisioningScheduler provisioningScheduler;
+
     private final BundleContext   bundleContext;
 
     private final RepositoryAdmin repositoryAdmin;
@@ -69,6 +82,40 @@ public class TestRunManagers implements ITestRunManagers {
         logger.debug("The following Managers are sorted in provisioning order:-");
         reportManagers(false);
 
+        createProvisioningScheduler();
+    }
+
+    /**
+     * Provisioning the managers in parallel is opt-in, with the CPS property
+     * framework.manager.provisioning.parallel=true. The number of managers that can
+     * be provisioned at the same time is set by framework.manager.provisioning.threads.
+     */
+    private void createProvisioningScheduler() throws FrameworkException {
+        boolean isParallel = false;
+        int threadCount = DEFAULT_PROVISIONING_THREADS;
+        try {
+            IConfigurationPropertyStoreService cps = framework.getConfigurationPropertyService("framework");
+            isParallel = Boolean.parseBoolean(AbstractManager.nulled(cps.getProperty("manager.provisioning", "parallel")));
+
+            String threads = AbstractManager.nulled(cps.getProperty("manager.provisioning", "threads"));
+            if (threads != null) {
+                threadCount = Integer.parseInt(threads);
+            }
+        } catch (ConfigurationPropertyStoreException e) {
+            throw new FrameworkException("Unable to read the manager provisioning properties from the CPS", e);
+        } catch (NumberFormatException e) {
+            throw new FrameworkException("Invalid value for the CPS property framework.manager.provisioning.threads", e);
+        }
+
+        if (isParallel && activeManagers.size() > 1) {
+            provisioningScheduler = new ManagerProvisioningScheduler(activeManagers, threadCount);
+            logger.info("Managers will be provisioned in parallel, up to " + threadCount + " at a time");
+            if (logger.isDebugEnabled()) {
+                for (IManager manager : activeManagers) {
+                    logger.debug("   " + manager.getClass().getName() + " waits for " + provisioningScheduler.getDependencies(manager).size() + " other Managers");
+                }
+            }
+        }
     }
 
     /**
@@ -158,10 +205,15 @@ public class TestRunManagers implements ITestRunManagers {
         // *** Ask each one to initialise itself if required and chain request other
         // managers
         for (IManager manager : allManagers) {
+            PhaseTimer timer = new PhaseTimer(TestPhaseTiming.PHASE_MANAGER_INITIALISE, manager.getClass().getName(), null);
+            boolean isFailed = true;
             try {
                 manager.initialise(framework, allManagers, activeManagers, galasaTest);
+                isFailed = false;
             } catch (Exception e) {
                 throw new FrameworkException("Unable to initialise Manager " + manager.getClass().getName(), e);
+            } finally {
+                phaseTimings.add(timer.stop(isFailed));
             }
         }
     }
@@ -474,7 +526,7 @@ public class TestRunManagers implements ITestRunManagers {
 
     @Override
     public void provisionGenerate() throws FrameworkException {
-        for (IManager manager : activeManagers) {
+        runProvisioningPhase(TestPhaseTiming.PHASE_PROVISION_GENERATE, manager -> {
             try {
                 manager.provisionGenerate();
             } catch (ResourceUnavailableException e) {
@@ -483,45 +535,91 @@ public class TestRunManagers implements ITestRunManagers {
                 throw new FrameworkException(
                         "Problem in provision generate for manager " + manager.getClass().getName(), e);
             }
-        }
+        });
     }
 
     @Override
     public void provisionBuild() throws FrameworkException {
-        for (IManager manager : activeManagers) {
+        runProvisioningPhase(TestPhaseTiming.PHASE_PROVISION_BUILD, manager -> {
             try {
                 manager.provisionBuild();
             } catch (ManagerException e) {
                 throw new FrameworkException("Problem in provision build for manager " + manager.getClass().getName(),
                         e);
             }
-        }
+        });
     }
 
     @Override
     public void provisionStart() throws FrameworkException {
-        for (IManager manager : activeManagers) {
+        runProvisioningPhase(TestPhaseTiming.PHASE_PROVISION_START, manager -> {
             try {
                 manager.provisionStart();
             } catch (ManagerException e) {
                 throw new FrameworkException("Problem in provision start for manager " + manager.getClass().getName(),
                         e);
             }
-
-        }
+        });
     }
 
     @Override
     public void provisionStop() {
-        for (IManager manager : activeManagersReversed) {
-            manager.provisionStop();
-        }
+        runTeardownPhase(TestPhaseTiming.PHASE_PROVISION_STOP, IManager::provisionStop);
     }
 
     @Override
     public void provisionDiscard() {
-        for (IManager manager : activeManagersReversed) {
-            manager.provisionDiscard();
+        runTeardownPhase(TestPhaseTiming.PHASE_PROVISION_DISCARD, IManager::provisionDiscard);
+    }
+
+    private void runProvisioningPhase(String phaseName, ManagerPhase phase) throws FrameworkException {
+        ManagerPhase timedPhase = manager -> {
+            PhaseTimer timer = new PhaseTimer(phaseName, manager.getClass().getName(), null);
+            boolean isFailed = true;
+            try {
+                phase.run(manager);
+                isFailed = false;
+            } finally {
+                phaseTimings.add(timer.stop(isFailed));
+            }
+        };
+
+        if (provisioningScheduler != null) {
+            provisioningScheduler.runPhase(phaseName, timedPhase);
+        } else {
+            for (IManager manager : activeManagers) {
+                timedPhase.run(manager);
+            }
+        }
+    }
+
+    private void runTeardownPhase(String phaseName, ManagerTeardownPhase phase) {
+        ManagerTeardownPhase timedPhase = manager -> {
+            PhaseTimer timer = new PhaseTimer(phaseName, manager.getClass().getName(), null);
+            boolean isFailed = true;
+            try {
+                phase.run(manager);
+                isFailed = false;
+            } finally {
+                phaseTimings.add(timer.stop(isFailed));
+            }
+        };
+
+        if (provisioningScheduler != null) {
+            provisioningScheduler.runTeardownPhase(phaseName, timedPhase);
+        } else {
+            for (IManager manager : activeManagersReversed) {
+                timedPhase.run(manager);
+            }
+        }
+    }
+
+    @Override
+    public List<TestPhaseTiming> takePhaseTimings() {
+        synchronized (phaseTimings) {
+            List<TestPhaseTiming> timings = new ArrayList<>(phaseTimings);
+            phaseTimings.clear();
+            return timings;
         }
     }
 
@@ -636,8 +734,14 @@ public class TestRunManagers implements ITestRunManagers {
     
     @Override
     public void shutdown() {
-        for (IManager manager : activeManagersReversed) {
-            manager.shutdown();
+        try {
+            for (IManager manager : activeManagersReversed) {
+                manager.shutdown();
+            }
+        } finally {
+            if (provisioningScheduler != null) {
+                provisioningScheduler.shutdown();
+            }
         }
     }
     
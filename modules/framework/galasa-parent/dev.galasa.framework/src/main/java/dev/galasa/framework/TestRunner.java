@@ -37,6 +37,7 @@ import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.language.GalasaTest;
 import dev.galasa.framework.spi.streams.IStream;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 
 /**
@@ -91,6 +92,7 @@ public class TestRunner extends BaseTestRunner {
 
             Class<?> testClass ;
 
+            PhaseTimer bundleLoadTimer = new PhaseTimer(TestPhaseTiming.PHASE_BUNDLE_LOAD);
             try {
                 String streamName = AbstractManager.nulled(run.getStream());
                 IStream stream = streamsService.getStreamByName(streamName);
@@ -104,8 +106,9 @@ public class TestRunner extends BaseTestRunner {
                 loadTestBundle(repositoryAdmin, bundleContext, testBundleName);
                 testClass = getTestClass(bundleContext, testBundleName, testClassName);
 
-
+                recordPhaseTiming(bundleLoadTimer, false);
             } catch (Exception ex) {
+                recordPhaseTiming(bundleLoadTimer, true);
                 this.testStructure.setResult(Result.envfail(ex).getName());
                 updateStatus(TestRunLifecycleStatus.FINISHED, "finished");
                 throw new TestRunException(ex.getMessage(),ex);
@@ -213,11 +216,15 @@ public class TestRunner extends BaseTestRunner {
         } else {
             if (this.runType == RunType.SHARED_ENVIRONMENT_DISCARD) {
                 this.testStructure.setResult("Discarded");
+                PhaseTimer timer = new PhaseTimer(TestPhaseTiming.PHASE_DSS_CLEANUP);
+                boolean isFailed = false;
                 try {
                     this.dss.deletePrefix("run." + this.run.getName() + "." + DssPropertyKeyRunNameSuffix.SHARED_ENVIRONMENT);
                 } catch (DynamicStatusStoreException e) {
                     logger.error("Problem cleaning shared environment properties", e);
+                    isFailed = true;
                 }
+                recordPhaseTiming(timer, isFailed);
             }
             updateStatus(TestRunLifecycleStatus.FINISHED, "finished");
         }
@@ -228,15 +235,7 @@ public class TestRunner extends BaseTestRunner {
         logger.debug("Stopping timeout monitor...");
         stopTimeoutMonitor();
 
-        // Record all the CPS properties that were accessed
-        saveUsedCPSPropertiesToArtifact(this.framework.getRecordProperties(), this.fileSystem, this.ras);
-        // And all the overrides the test was passed.
-        saveAllOverridesPassedToArtifact(overrideProperties, this.fileSystem , this.ras);
-
-        // Process any RAS actions that were defined for this test run
-        if (!markedWaiting) {
-            rasActionProcessor.processRasActions(this.run.getName(), this.run.getRasActions());
-        }
+        flushRunArtifacts();
 
         // *** If this was a local run, then we will want to remove the run properties
         // from the DSS immediately
@@ -251,13 +250,17 @@ public class TestRunner extends BaseTestRunner {
             deleteRunProperties(this.framework);
         }
 
+        // Save the timings of the phases since the run finished, before any RAS actions update the RAS records
+        writeTestStructure();
+
+        // Process any RAS actions that were defined for this test run
+        if (!markedWaiting) {
+            rasActionProcessor.processRasActions(this.run.getName(), this.run.getRasActions());
+        }
     }
 
     private void saveSharedBuildEnvironmentState() throws TestRunException {
-        // Record all the CPS properties that were accessed
-        saveUsedCPSPropertiesToArtifact(this.framework.getRecordProperties(), this.fileSystem, this.ras);
-        // And all the overrides the test was passed.
-        saveAllOverridesPassedToArtifact(overrideProperties, this.fileSystem , this.ras);
+        flushRunArtifacts();
 
         updateStatus(TestRunLifecycleStatus.UP, "built");
     }
@@ -288,11 +291,15 @@ public class TestRunner extends BaseTestRunner {
         // *** Try to load the Core Manager bundle, even if the test doesn't use it, and
         // if not already active
         if (!bundleManager.isBundleActive(bundleContext, "dev.galasa.core.manager")) {
+            PhaseTimer timer = new PhaseTimer(TestPhaseTiming.PHASE_BUNDLE_LOAD);
+            boolean isFailed = false;
             try {
                 bundleManager.loadBundle(repositoryAdmin, bundleContext, "dev.galasa.core.manager");
             } catch (FrameworkException e) {
                 logger.warn("Tried to load the Core Manager bundle, but failed, test can continue without it", e);
+                isFailed = true;
             }
+            recordPhaseTiming(timer, isFailed);
         }
         logger.debug("Core Manager Bundle is loaded ok.");
     }
@@ -318,6 +325,7 @@ public class TestRunner extends BaseTestRunner {
                 testBundleName, testClass, testStructure, this.getContinueOnTestFailureFromCPS(), 
                 this.getFramework().getResultArchiveStore(), getInterruptedMonitor()
             );
+            testClassWrapper.setRunLogFlusher(this.framework::flushRunLog);
         } catch (Exception e) {
             String msg = "Problem with the CPS when adding a wrapper";
             logger.error(msg + " " + e.getMessage());
@@ -350,10 +358,14 @@ public class TestRunner extends BaseTestRunner {
             throws TestRunException {
         // *** Initialise the Managers ready for the test run
         ITestRunManagers managers;
+        PhaseTimer timer = new PhaseTimer(TestPhaseTiming.PHASE_MANAGER_INITIALISE);
         try {
             GalasaTest galasaTest = new GalasaTest(testClass);
             managers = dataProvider.createTestRunManagers(galasaTest);
+            recordPhaseTiming(timer, false);
+            recordManagerPhaseTimings(managers);
         } catch (Exception e) {
+            recordPhaseTiming(timer, true);
             // Managers are custom code, may be prone to failure if they are immature...
             // so catch any exception and turn it into a TestRunException.
             String msg = "Exception caught. " + e.getMessage() + " Shutting down and Re-throwing.";
@@ -396,7 +408,11 @@ public class TestRunner extends BaseTestRunner {
             try {
                 updateStatus(TestRunLifecycleStatus.GENERATING, null);
                 logger.info("Starting Provision Generate phase");
-                managers.provisionGenerate();
+                try {
+                    managers.provisionGenerate();
+                } finally {
+                    recordManagerPhaseTimings(managers);
+                }
                 createEnvironment(testClassWrapper, managers, dss, runName, isRunOK);
             } catch (Exception e) {
                 logger.error("Provision Generate failed", e);
@@ -428,7 +444,11 @@ public class TestRunner extends BaseTestRunner {
                     try {
                         updateStatus(TestRunLifecycleStatus.BUILDING, null);
                         logger.info("Starting Provision Build phase");
-                        managers.provisionBuild();
+                        try {
+                            managers.provisionBuild();
+                        } finally {
+                            recordManagerPhaseTimings(managers);
+                        }
                     } catch (FrameworkException e) {
                         this.isRunOK = false;
                         logger.error("Provision build failed", e);
@@ -454,7 +474,11 @@ public class TestRunner extends BaseTestRunner {
     private void discardEnvironment(ITestRunManagers managers) {
         if (this.runType != RunType.SHARED_ENVIRONMENT_BUILD) {
             logger.info("Starting Provision Discard phase");
-            managers.provisionDiscard();
+            try {
+                managers.provisionDiscard();
+            } finally {
+                recordManagerPhaseTimings(managers);
+            }
         }
     }
 
@@ -466,7 +490,11 @@ public class TestRunner extends BaseTestRunner {
                     try {
                         updateStatus(TestRunLifecycleStatus.PROVSTART, null);
                         logger.info("Starting Provision Start phase");
-                        managers.provisionStart();
+                        try {
+                            managers.provisionStart();
+                        } finally {
+                            recordManagerPhaseTimings(managers);
+                        }
                     } catch (FrameworkException e) {
                         this.isRunOK = false;
                         logger.error("Provision start failed", e);
@@ -490,7 +518,11 @@ public class TestRunner extends BaseTestRunner {
     private void stopEnvironment(ITestRunManagers managers) {
         if (this.runType != RunType.SHARED_ENVIRONMENT_BUILD) {
             logger.info("Starting Provision Stop phase");
-            managers.provisionStop();
+            try {
+                managers.provisionStop();
+            } finally {
+                recordManagerPhaseTimings(managers);
+            }
         }
     }
 
@@ -13,8 +13,10 @@ import javax.validation.constraints.NotNull;
 import org.osgi.service.component.annotations.Component;
 
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.Environment;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreRegistration;
 import dev.galasa.framework.spi.IFrameworkInitialisation;
+import dev.galasa.framework.spi.SystemEnvironment;
 
 /**
  * 
@@ -24,6 +26,21 @@ import dev.galasa.framework.spi.IFrameworkInitialisation;
 @Component(service = { IConfigurationPropertyStoreRegistration.class })
 public class FpfConfigurationPropertyRegistration implements IConfigurationPropertyStoreRegistration {
 
+    // How often, in milliseconds, reads from the CPS file check whether it has been edited.
+    // Set to 0 to check on every read.
+    public static final String CPS_FILE_CHECK_INTERVAL_ENV_VAR = "GALASA_CONFIG_STORE_FILE_CHECK_INTERVAL_MILLIS";
+    public static final long DEFAULT_CPS_FILE_CHECK_INTERVAL_MILLIS = 1000;
+
+    private Environment env;
+
+    public FpfConfigurationPropertyRegistration() {
+        this(new SystemEnvironment());
+    }
+
+    public FpfConfigurationPropertyRegistration(Environment env) {
+        this.env = env;
+    }
+
     /**
      * <p>
      * This method checks that the CPS is a local file, and if true registers this
@@ -48,8 +65,22 @@ public class FpfConfigurationPropertyRegistration implements IConfigurationPrope
             throw new ConfigurationPropertyStoreException("CPS file does not exist");
         }
         if (isFileUri(cps)) {
-            frameworkInitialisation.registerConfigurationPropertyStore(new FpfConfigurationPropertyStore(cps));
+            frameworkInitialisation.registerConfigurationPropertyStore(new FpfConfigurationPropertyStore(cps, getFileCheckInterval()));
+        }
+    }
+
+    long getFileCheckInterval() throws ConfigurationPropertyStoreException {
+        long fileCheckInterval = DEFAULT_CPS_FILE_CHECK_INTERVAL_MILLIS;
+        String intervalStr = env.getenv(CPS_FILE_CHECK_INTERVAL_ENV_VAR);
+        if (intervalStr != null && !intervalStr.isBlank()) {
+            try {
+                fileCheckInterval = Long.parseLong(intervalStr.trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationPropertyStoreException("Invalid value '" + intervalStr + "' for environment variable "
+                    + CPS_FILE_CHECK_INTERVAL_ENV_VAR + ", expected a number of milliseconds", e);
+            }
         }
+        return fileCheckInterval;
     }
 
     /**
@@ -33,8 +33,19 @@ public class FpfConfigurationPropertyStore implements IConfigurationPropertyStor
     private FrameworkPropertyFile fpf;
 
     public FpfConfigurationPropertyStore(URI file) throws ConfigurationPropertyStoreException {
+        this(file, FrameworkPropertyFile.DEFAULT_FILE_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param file                    - URI of the CPS properties file
+     * @param fileCheckIntervalMillis - the minimum time between checks for changes made
+     *                                to the file by someone else, 0 to check on every read
+     * @throws ConfigurationPropertyStoreException
+     */
+    public FpfConfigurationPropertyStore(URI file, long fileCheckIntervalMillis) throws ConfigurationPropertyStoreException {
         try {
             fpf = new FrameworkPropertyFile(file);
+            fpf.setFileCheckInterval(fileCheckIntervalMillis);
         } catch (FrameworkPropertyFileException e) {
             throw new ConfigurationPropertyStoreException("Failed to create Framework property file", e);
         }
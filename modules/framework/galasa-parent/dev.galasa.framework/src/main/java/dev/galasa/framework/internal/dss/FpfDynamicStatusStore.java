@@ -36,8 +36,18 @@ public class FpfDynamicStatusStore implements IDynamicStatusStore {
     private FrameworkPropertyFile fpf;
 
     public FpfDynamicStatusStore(URI file) throws DynamicStatusStoreException {
+        this(file, false);
+    }
+
+    /**
+     * @param file         - URI of the DSS properties file
+     * @param isJournalled - true to append updates to a journal rather than
+     *                     rewriting the whole file on every update
+     * @throws DynamicStatusStoreException
+     */
+    public FpfDynamicStatusStore(URI file, boolean isJournalled) throws DynamicStatusStoreException {
         try {
-            fpf = new FrameworkPropertyFile(file);
+            fpf = new FrameworkPropertyFile(file, isJournalled);
         } catch (FrameworkPropertyFileException e) {
             throw new DynamicStatusStoreException("Failed to create Framework property file", e);
         }
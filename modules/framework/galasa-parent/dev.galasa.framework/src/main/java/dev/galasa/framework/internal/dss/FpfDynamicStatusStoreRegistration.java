@@ -12,8 +12,10 @@ import javax.validation.constraints.NotNull;
 import org.osgi.service.component.annotations.Component;
 
 import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.Environment;
 import dev.galasa.framework.spi.IDynamicStatusStoreRegistration;
 import dev.galasa.framework.spi.IFrameworkInitialisation;
+import dev.galasa.framework.spi.SystemEnvironment;
 
 /**
  * 
@@ -23,6 +25,19 @@ import dev.galasa.framework.spi.IFrameworkInitialisation;
 @Component(service = { IDynamicStatusStoreRegistration.class })
 public class FpfDynamicStatusStoreRegistration implements IDynamicStatusStoreRegistration {
 
+    // Set to "true" to append DSS updates to a journal, rather than rewriting the whole DSS file on every update
+    public static final String DSS_JOURNAL_ENV_VAR = "GALASA_DYNAMICSTATUS_STORE_JOURNAL";
+
+    private Environment env;
+
+    public FpfDynamicStatusStoreRegistration() {
+        this(new SystemEnvironment());
+    }
+
+    public FpfDynamicStatusStoreRegistration(Environment env) {
+        this.env = env;
+    }
+
     /**
      * <p>
      * This method registers this as the only DSS Store.
@@ -36,7 +51,8 @@ public class FpfDynamicStatusStoreRegistration implements IDynamicStatusStoreReg
             throws DynamicStatusStoreException {
         URI dss = frameworkInitialisation.getDynamicStatusStoreUri();
         if (isFileUri(dss)) {
-            frameworkInitialisation.registerDynamicStatusStore(new FpfDynamicStatusStore(dss));
+            boolean isJournalled = Boolean.parseBoolean(env.getenv(DSS_JOURNAL_ENV_VAR));
+            frameworkInitialisation.registerDynamicStatusStore(new FpfDynamicStatusStore(dss, isJournalled));
         }
     }
 
@@ -85,4 +85,25 @@ public class FrameworkDynamicStatusStoreService extends FrameworkDynamicStoreKey
     public IDynamicRun getDynamicRun() throws DynamicStatusStoreException {
         return new FrameworkDynamicRun();
     }
+
+    /**
+     * A new instance is returned each time the framework is asked for the DSS of a namespace,
+     * so instances are equal when they use the same store for the same namespace
+     */
+    @Override
+    public boolean equals(Object other) {
+        boolean isEqual = false;
+        if (this == other) {
+            isEqual = true;
+        } else if (other != null && getClass() == other.getClass()) {
+            FrameworkDynamicStatusStoreService otherService = (FrameworkDynamicStatusStoreService) other;
+            isEqual = getDssStore() == otherService.getDssStore() && this.namespace.equals(otherService.namespace);
+        }
+        return isEqual;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(getDssStore()), this.namespace);
+    }
 }
@@ -292,6 +292,11 @@ public class FrameworkDynamicStoreKeyAccess implements IDynamicStatusStoreKeyAcc
             key = key.substring(this.offset);
             watcher.propertyModified(key, event, oldValue, newValue);
         }
+
+        @Override
+        public void watchInterrupted(Throwable cause) {
+            watcher.watchInterrupted(cause);
+        }
     }
 
     @Override
@@ -12,9 +12,12 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Base64.Encoder;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -37,18 +40,34 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
     public final static String ID_PREFIX = "local-";
 
+    // Page cursors handed out by this service look like local-page:100
+    private static final String PAGE_CURSOR_PREFIX = "local-page:";
+
     private final Path baseDirectory;
     private final GalasaGson gson;
+    private final DirectoryRASRunIndex runIndex;
 
     protected DirectoryRASDirectoryService(@NotNull Path baseDirectory, GalasaGson gson) {
+        this(baseDirectory, gson, null);
+    }
+
+    /**
+     * @param runIndex - the index to answer queries from, or null to read every run's structure.json for each query
+     */
+    protected DirectoryRASDirectoryService(@NotNull Path baseDirectory, GalasaGson gson, DirectoryRASRunIndex runIndex) {
         this.baseDirectory = baseDirectory;
         this.gson = gson;
+        this.runIndex = runIndex;
     }
 
     @Override
     public @NotNull List<IRunResult> getRuns(@NotNull IRasSearchCriteria... searchCriteria) throws ResultArchiveStoreException{
+        return new ArrayList<>(getMatchingRuns(searchCriteria));
+    }
 
-        ArrayList<IRunResult> runs = new ArrayList<>();
+    private List<DirectoryRASRunResult> getMatchingRuns(IRasSearchCriteria... searchCriteria) throws ResultArchiveStoreException {
+
+        ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
 
         List<DirectoryRASRunResult> allRuns = getAllRuns();
 
@@ -57,7 +76,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
         for(DirectoryRASRunResult run : allRuns) {
             matched = true;
             for(IRasSearchCriteria criteria : searchCriteria) {
-                if(!criteria.criteriaMatched(run.getTestStructure())) {
+                if(!criteria.criteriaMatched(run.getSummaryTestStructure())) {
                     matched = false;
                     break;
                 }
@@ -77,17 +96,69 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         List<IRunResult> matchingRuns = new ArrayList<>();
         for (DirectoryRASRunResult run : allRuns) {
-            if (runName.equals(run.getTestStructure().getRunName())) {
+            if (runName.equals(run.getSummaryTestStructure().getRunName())) {
                 matchingRuns.add(run);
             }
         }
         return matchingRuns;
     }
 
+    /**
+     * Returns a page of the matching runs, sorted by the primary sort field if one is given.
+     *
+     * The page cursor is the position of the next page in the sorted list of matching runs.
+     * A cursor from another RAS means its runs are being paged through, and all of ours have
+     * already been returned on the first page, so an empty page is returned.
+     */
     @Override
     public @NotNull RasRunResultPage getRunsPage(int maxResults, RasSortField primarySort, String pageToken, @NotNull IRasSearchCriteria... searchCriteria)
             throws ResultArchiveStoreException {
-        return new RasRunResultPage(getRuns(searchCriteria));
+
+        int pageStart = 0;
+        if (pageToken != null) {
+            if (!pageToken.startsWith(PAGE_CURSOR_PREFIX)) {
+                return new RasRunResultPage(new ArrayList<>());
+            }
+            try {
+                pageStart = Integer.parseInt(pageToken.substring(PAGE_CURSOR_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                throw new ResultArchiveStoreException("Invalid page cursor '" + pageToken + "'", e);
+            }
+        }
+
+        List<DirectoryRASRunResult> matchingRuns = getMatchingRuns(searchCriteria);
+        if (primarySort != null) {
+            sortRuns(matchingRuns, primarySort);
+        }
+
+        int pageEnd = matchingRuns.size();
+        if (maxResults > 0) {
+            pageEnd = (int) Math.min((long) pageStart + maxResults, matchingRuns.size());
+        }
+
+        List<IRunResult> page = new ArrayList<>();
+        String nextCursor = null;
+        if (pageStart < pageEnd) {
+            page.addAll(matchingRuns.subList(pageStart, pageEnd));
+            if (pageEnd < matchingRuns.size()) {
+                nextCursor = PAGE_CURSOR_PREFIX + pageEnd;
+            }
+        }
+        return new RasRunResultPage(page, nextCursor);
+    }
+
+    private void sortRuns(List<DirectoryRASRunResult> runs, RasSortField primarySort) throws ResultArchiveStoreException {
+        // Get the test structures up front, as the comparator can't throw checked exceptions
+        Map<DirectoryRASRunResult, TestStructure> testStructures = new IdentityHashMap<>();
+        for (DirectoryRASRunResult run : runs) {
+            testStructures.put(run, run.getSummaryTestStructure());
+        }
+
+        // Fields we can't sort by leave the runs in the order they were stored
+        Comparator<TestStructure> comparator = primarySort.getTestStructureComparator();
+        if (comparator != null) {
+            runs.sort((a, b) -> comparator.compare(testStructures.get(a), testStructures.get(b)));
+        }
     }
 
     @Override
@@ -107,7 +178,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result!=null) {
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getSummaryTestStructure();
                 if(testStructure != null && testStructure.getTestName()!=null) {
                     requestors.add(testStructure.getRequestor());
                 }
@@ -125,7 +196,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result != null) {
 
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getSummaryTestStructure();
                 if(testStructure != null && testStructure.getTestName()!=null) {
                     key = testStructure.getBundle()+"/"+testStructure.getTestName();
                     if(!tests.containsKey(key)){
@@ -144,7 +215,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result!=null) {
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getSummaryTestStructure();
                 if(testStructure != null  ) {
                     if(testStructure.getResult()==null) {
                         results.add("UNKNOWN");
@@ -160,6 +231,9 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
     }
 
     protected @NotNull List<DirectoryRASRunResult> getAllRuns() throws ResultArchiveStoreException {
+        if (runIndex != null) {
+            return getAllIndexedRuns();
+        }
 
         try {
             ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
@@ -176,6 +250,16 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
     }
 
+    private List<DirectoryRASRunResult> getAllIndexedRuns() throws ResultArchiveStoreException {
+        Encoder encoder = Base64.getEncoder();
+        ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
+        for (Map.Entry<String, TestStructure> indexedRun : runIndex.getRuns().entrySet()) {
+            String id = ID_PREFIX + encoder.encodeToString(indexedRun.getKey().getBytes(StandardCharsets.UTF_8));
+            runs.add(new DirectoryRASRunResult(baseDirectory.resolve(indexedRun.getKey()), gson, id, indexedRun.getValue()));
+        }
+        return runs;
+    }
+
     private static class ConsumeRuns implements Consumer<Path> {
 
         private final Path                        base;
@@ -249,7 +333,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         List<IRunResult> matchingRuns = new ArrayList<>();
         for (DirectoryRASRunResult run : allRuns) {
-            if (groupName.equals(run.getTestStructure().getGroup())) {
+            if (groupName.equals(run.getSummaryTestStructure().getGroup())) {
                 matchingRuns.add(run);
             }
         }
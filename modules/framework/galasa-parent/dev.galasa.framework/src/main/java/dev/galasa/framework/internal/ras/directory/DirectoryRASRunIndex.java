@@ -0,0 +1,330 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.GalasaGson;
+import dev.galasa.framework.spi.utils.GalasaGsonBuilder;
+
+/**
+ * <p>
+ * An on-disk index of the runs held in a directory RAS, so that queries can be
+ * answered without reading every run's structure.json file.
+ * </p>
+ *
+ * <p>
+ * The index is a UTF-8 text file in the base directory of the RAS, which looks
+ * like this:
+ * </p>
+ *
+ * <pre>
+ * # galasa run index 5c1b7a4e-8f0e-4c1a-9a5d-2f6a0d8a1b3c
+ * {"path":"U123","run":{"runName":"U123","status":"queued",...}}
+ * {"path":"U123","run":{"runName":"U123","status":"finished",...}}
+ * </pre>
+ *
+ * <p>
+ * Each record holds a run's test structure without its methods, and the last
+ * record for a run directory replaces the ones before it. Records are appended
+ * as runs update their test structure, and the file is compacted to one record
+ * per run when it holds too many replaced records. The header line holds a
+ * generation id, which changes every time the index is rewritten, so that other
+ * processes sharing the RAS know they must read it again from the start.
+ * </p>
+ *
+ * <p>
+ * If the index is missing or unreadable, or the base directory has changed since
+ * the index was last written, for example because a run directory was copied in or
+ * deleted by hand, it is rebuilt by reading every run's structure.json file, so
+ * deleting it is always safe. Runs whose directory has gone are left out of the
+ * runs returned.
+ * </p>
+ */
+public class DirectoryRASRunIndex {
+
+    public static final String INDEX_FILE_NAME = "runs.index";
+
+    private static final String HEADER_PREFIX = "# galasa run index ";
+
+    // Don't bother compacting the index until it holds at least this many replaced records
+    private static final int COMPACTION_MIN_REPLACED_RECORDS = 1000;
+
+    // File locks are held by the JVM, so threads in the same JVM must also take turns
+    private static final Map<Path, Object> jvmLocks = new ConcurrentHashMap<>();
+
+    private final Log        logger = LogFactory.getLog(getClass());
+
+    private final Path       baseDirectory;
+    private final Path       indexPath;
+    private final GalasaGson gson;
+    private final Object     jvmLock;
+
+    // Guarded by the JVM lock
+    private final Map<String, TestStructure> runs = new LinkedHashMap<>();
+    private String generation;
+    private long   offset;
+    private int    recordCount;
+
+    private static class IndexRecord {
+        private String        path;
+        private TestStructure run;
+    }
+
+    private interface IndexOperation<T> {
+        T apply(FileChannel indexChannel) throws IOException;
+    }
+
+    public DirectoryRASRunIndex(Path baseDirectory) {
+        this.baseDirectory = baseDirectory;
+        this.indexPath = baseDirectory.resolve(INDEX_FILE_NAME);
+        this.jvmLock = jvmLocks.computeIfAbsent(indexPath.toAbsolutePath().normalize(), path -> new Object());
+
+        // The index holds one record per line, so it must not be pretty printed
+        this.gson = new GalasaGson();
+        this.gson.setGsonBuilder(new GalasaGsonBuilder(false));
+    }
+
+    public Path getIndexPath() {
+        return indexPath;
+    }
+
+    /**
+     * Adds a run to the index, or replaces the run's existing entry.
+     *
+     * @param runDirectory  - the directory the run is stored in
+     * @param testStructure - the run's latest test structure
+     * @throws ResultArchiveStoreException if the index could not be updated
+     */
+    public void update(Path runDirectory, TestStructure testStructure) throws ResultArchiveStoreException {
+        String runPath = baseDirectory.relativize(runDirectory).toString();
+        TestStructure summary = summarise(testStructure);
+
+        withLockedIndex(indexChannel -> {
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            writeRecord(record, runPath, summary);
+
+            // Anything after our offset is a partial record left by a process that failed part way through writing it
+            indexChannel.truncate(offset);
+            offset = write(indexChannel, offset, record.toByteArray());
+            recordCount++;
+            runs.put(runPath, summary);
+            return null;
+        });
+    }
+
+    /**
+     * @return the indexed runs, keyed by their directory relative to the base
+     *         directory of the RAS, in the order they were first indexed. The test
+     *         structures do not include the test methods.
+     * @throws ResultArchiveStoreException if the index could not be read
+     */
+    public Map<String, TestStructure> getRuns() throws ResultArchiveStoreException {
+        return withLockedIndex(indexChannel -> {
+            // The dropped records are removed from the file the next time it is compacted
+            runs.keySet().removeIf(runPath -> !Files.isDirectory(baseDirectory.resolve(runPath)));
+            return new LinkedHashMap<>(runs);
+        });
+    }
+
+    private <T> T withLockedIndex(IndexOperation<T> operation) throws ResultArchiveStoreException {
+        synchronized (jvmLock) {
+            try (FileChannel indexChannel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+                 FileLock lock = indexChannel.lock()) {
+                refresh(indexChannel);
+                return operation.apply(indexChannel);
+            } catch (IOException e) {
+                throw new ResultArchiveStoreException("Unable to use the run index '" + indexPath + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Brings our copy of the index up to date with the records other processes have appended,
+     * reading it from the start if it has been rewritten, and rebuilding it if it is missing or out of date.
+     */
+    private void refresh(FileChannel indexChannel) throws IOException {
+        String currentGeneration = readGeneration(indexChannel);
+        if (currentGeneration == null || isOlderThanBaseDirectory()) {
+            rebuild(indexChannel);
+        } else {
+            if (!currentGeneration.equals(generation)) {
+                generation = currentGeneration;
+                offset = 0;
+                recordCount = 0;
+                runs.clear();
+            }
+            readNewRecords(indexChannel);
+
+            int replacedRecordCount = recordCount - runs.size();
+            if (replacedRecordCount > Math.max(COMPACTION_MIN_REPLACED_RECORDS, runs.size())) {
+                compact(indexChannel);
+            }
+        }
+    }
+
+    private void readNewRecords(FileChannel indexChannel) throws IOException {
+        long size = indexChannel.size();
+        if (size <= offset) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - offset));
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int bytesRead = indexChannel.read(buffer, position);
+            if (bytesRead < 0) {
+                break;
+            }
+            position += bytesRead;
+        }
+        byte[] bytes = buffer.array();
+        int length = buffer.position();
+
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            // A newline byte never appears inside a multi-byte UTF-8 character, so it is safe to split on
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            lineStart = i + 1;
+
+            if (!line.startsWith(HEADER_PREFIX) && !line.isBlank()) {
+                try {
+                    IndexRecord record = gson.fromJson(line, IndexRecord.class);
+                    if (record != null && record.path != null && record.run != null) {
+                        runs.put(record.path, record.run);
+                        recordCount++;
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Ignoring an unreadable record in the run index '" + indexPath + "'", e);
+                }
+            }
+        }
+
+        // Leave any partial record at the end to be read once it has been completed
+        offset += lineStart;
+    }
+
+    private void rebuild(FileChannel indexChannel) throws IOException {
+        logger.info("Building the run index '" + indexPath + "'");
+        runs.clear();
+
+        try (Stream<Path> stream = Files.list(baseDirectory)) {
+            stream.sorted().forEach(runDirectory -> {
+                Path structureFile = runDirectory.resolve("structure.json");
+                if (Files.isDirectory(runDirectory) && Files.exists(structureFile)) {
+                    try (InputStreamReader in = new InputStreamReader(Files.newInputStream(structureFile), StandardCharsets.UTF_8)) {
+                        TestStructure testStructure = gson.fromJson(in, TestStructure.class);
+                        if (testStructure != null) {
+                            runs.put(baseDirectory.relativize(runDirectory).toString(), summarise(testStructure));
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        logger.trace("Unable to index the run in " + runDirectory, e);
+                    }
+                }
+            });
+        }
+
+        compact(indexChannel);
+
+        // Make sure the new index doesn't look out of date, even if the base directory's time is ahead of ours
+        FileTime baseDirectoryModified = Files.getLastModifiedTime(baseDirectory);
+        if (baseDirectoryModified.compareTo(Files.getLastModifiedTime(indexPath)) > 0) {
+            Files.setLastModifiedTime(indexPath, baseDirectoryModified);
+        }
+    }
+
+    /**
+     * Run directories are created before their first record is appended to the index, so the base
+     * directory only changes after the index is written if a run directory was added or removed
+     * without updating the index.
+     */
+    private boolean isOlderThanBaseDirectory() throws IOException {
+        return Files.getLastModifiedTime(baseDirectory).compareTo(Files.getLastModifiedTime(indexPath)) > 0;
+    }
+
+    /**
+     * Rewrites the index with a single record for each run whose directory still exists.
+     */
+    private void compact(FileChannel indexChannel) throws IOException {
+        runs.keySet().removeIf(runPath -> !Files.isDirectory(baseDirectory.resolve(runPath)));
+
+        generation = UUID.randomUUID().toString();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        content.write((HEADER_PREFIX + generation + "\n").getBytes(StandardCharsets.UTF_8));
+        for (Map.Entry<String, TestStructure> run : runs.entrySet()) {
+            writeRecord(content, run.getKey(), run.getValue());
+        }
+
+        indexChannel.truncate(0);
+        offset = write(indexChannel, 0, content.toByteArray());
+        recordCount = runs.size();
+    }
+
+    private String readGeneration(FileChannel indexChannel) throws IOException {
+        String readGeneration = null;
+        int headerLength = HEADER_PREFIX.length() + 36 + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(headerLength);
+        indexChannel.read(buffer, 0);
+        String header = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        if (header.startsWith(HEADER_PREFIX) && header.endsWith("\n")) {
+            readGeneration = header.substring(HEADER_PREFIX.length(), header.length() - 1);
+        }
+        return readGeneration;
+    }
+
+    private void writeRecord(ByteArrayOutputStream out, String runPath, TestStructure summary) throws IOException {
+        IndexRecord record = new IndexRecord();
+        record.path = runPath;
+        record.run = summary;
+        out.write(gson.toJson(record).getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+    }
+
+    private long write(FileChannel indexChannel, long position, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += indexChannel.write(buffer, position);
+        }
+        return position;
+    }
+
+    /**
+     * The test methods make up most of a test structure and are not needed to answer queries,
+     * so they are left out of the index.
+     */
+    private TestStructure summarise(TestStructure testStructure) {
+        TestStructure summary = new TestStructure(testStructure);
+        summary.setStartTime(testStructure.getStartTime());
+        summary.setMethods(null);
+        summary.setGherkinMethods(null);
+        summary.setLogRecordIds(null);
+        summary.setArtifactRecordIds(null);
+        return summary;
+    }
+}
@@ -27,8 +27,10 @@ public class DirectoryRASRunResult implements IRunResult {
     private static final int LOG_STREAM_BUFFER_BYTES = 8 * 1024;
 
     private final Path                           runDirectory;
-    private final TestStructure                  testStructure;
-    private final DirectoryRASFileSystemProvider fileSystemProvider;
+    private final GalasaGson                     gson;
+    private volatile TestStructure               testStructure;
+    private final TestStructure                  indexedTestStructure;
+    private volatile DirectoryRASFileSystemProvider fileSystemProvider;
     private final String                         id;
     private final IFileSystem                    fileSystem;
 
@@ -46,34 +48,81 @@ public class DirectoryRASRunResult implements IRunResult {
     )
             throws JsonSyntaxException, JsonIOException, IOException {
         this.runDirectory = runDirectory;
+        this.gson         = gson;
         this.id           = id;
         this.fileSystem   = fileSystem;
+        this.indexedTestStructure = null;
 
-        Path structureFile = this.runDirectory.resolve("structure.json");
-        
-        try (InputStreamReader in = new InputStreamReader(fileSystem.newInputStream(structureFile))){
-           this.testStructure = gson.fromJson(in, TestStructure.class);
-        }
+        this.testStructure = readTestStructure();
 
         this.fileSystemProvider = fileSystemProvider;
     }
+
+    /**
+     * Creates a run result from an entry in the run index. The run's full test structure is
+     * only read from its structure.json file when it is asked for.
+     */
+    protected DirectoryRASRunResult(Path runDirectory, GalasaGson gson, String id, TestStructure indexedTestStructure) {
+        this.runDirectory = runDirectory;
+        this.gson         = gson;
+        this.id           = id;
+        this.fileSystem   = new FileSystem();
+        this.indexedTestStructure = indexedTestStructure;
+    }
     
     //for testing purposes
     protected DirectoryRASRunResult() {
     	this.testStructure = null;
+    	this.indexedTestStructure = null;
     	this.runDirectory = null;
+    	this.gson = null;
     	this.fileSystemProvider = null;
     	this.id                 = null;
         this.fileSystem = null;
     }
 
+    private TestStructure readTestStructure() throws IOException {
+        Path structureFile = this.runDirectory.resolve("structure.json");
+
+        try (InputStreamReader in = new InputStreamReader(fileSystem.newInputStream(structureFile))){
+           return gson.fromJson(in, TestStructure.class);
+        }
+    }
+
     @Override
     public TestStructure getTestStructure() throws ResultArchiveStoreException {
+        if (this.testStructure == null && this.indexedTestStructure != null) {
+            try {
+                this.testStructure = readTestStructure();
+            } catch (IOException | JsonSyntaxException | JsonIOException e) {
+                throw new ResultArchiveStoreException("Unable to read the test structure in " + this.runDirectory, e);
+            }
+        }
         return this.testStructure;
     }
 
+    /**
+     * @return the test structure held in the run index, which does not include the test methods,
+     *         or the full test structure if this run result did not come from the index
+     */
+    @Override
+    public TestStructure getSummaryTestStructure() throws ResultArchiveStoreException {
+        TestStructure indexed = this.indexedTestStructure;
+        if (indexed == null) {
+            indexed = getTestStructure();
+        }
+        return indexed;
+    }
+
     @Override
     public Path getArtifactsRoot() throws ResultArchiveStoreException {
+        if (this.fileSystemProvider == null && this.indexedTestStructure != null) {
+            try {
+                this.fileSystemProvider = new DirectoryRASFileSystemProvider(this.runDirectory);
+            } catch (IOException e) {
+                throw new ResultArchiveStoreException("Unable to read the artifacts in " + this.runDirectory, e);
+            }
+        }
         return this.fileSystemProvider.getActualFileSystem().getPath("/");
     }
 
@@ -114,8 +163,9 @@ public class DirectoryRASRunResult implements IRunResult {
         long size = 0;
         
         // First try to get size from TestStructure metadata
-        if (testStructure != null) {
-            Long logSize = testStructure.getLogSize();
+        TestStructure structure = getSummaryTestStructure();
+        if (structure != null) {
+            Long logSize = structure.getLogSize();
             if (logSize != null) {
                 size = logSize.longValue();
             } else {
@@ -20,6 +20,8 @@ import java.util.Objects;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.annotations.Component;
 
 import dev.galasa.framework.spi.IFramework;
@@ -40,6 +42,8 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
 
     private static final Charset           UTF8     = Charset.forName("utf-8");
 
+    private final Log                      logger   = LogFactory.getLog(getClass());
+
     private final IFramework               framework;                           // NOSONAR
     private final URI                      rasUri;
     private final Path                     baseDirectory;
@@ -54,6 +58,8 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
 
     private DirectoryRASFileSystemProvider provider;
 
+    private final DirectoryRASRunIndex     runIndex;
+
     private long                           runLogLineCount;
 
     public DirectoryResultArchiveStoreService(IFramework framework, URI rasUri) throws ResultArchiveStoreException {
@@ -68,6 +74,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
             throw new ResultArchiveStoreException(
                     "Unable to create the RAS base directory '" + this.baseDirectory + "'", e);
         }
+        this.runIndex = new DirectoryRASRunIndex(this.baseDirectory);
 
         // *** Get the runname to create the directory
         final String runName = this.framework.getTestRunName();
@@ -116,6 +123,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
                     movePath = this.runDirectory.resolveSibling(runname + "-" + Integer.toString(i));
                     if (!Files.exists(movePath)) {
                         Files.move(runDirectory, movePath);
+                        indexMovedRun(movePath);
                         break;
                     }
                 }
@@ -134,6 +142,23 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
         }
     }
 
+    /**
+     * Make sure the run index points at the new directory of a run that has been moved out of the way
+     *
+     * @param movedRunDirectory - the directory the run has been moved to
+     */
+    private void indexMovedRun(Path movedRunDirectory) {
+        Path movedStructureFile = movedRunDirectory.resolve("structure.json");
+        if (Files.exists(movedStructureFile)) {
+            try {
+                TestStructure movedTestStructure = this.gson.fromJson(new String(Files.readAllBytes(movedStructureFile), UTF8), TestStructure.class);
+                this.runIndex.update(movedRunDirectory, movedTestStructure);
+            } catch (IOException | ResultArchiveStoreException | RuntimeException e) {
+                logger.warn("Unable to update the run index for the run moved to '" + movedRunDirectory + "'", e);
+            }
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -207,6 +232,13 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
         } catch (final Exception e) {
             throw new ResultArchiveStoreException("Unable to write the test structure", e);
         }
+
+        // The run index can be rebuilt from the test structure files, so a failure to update it should not stop the run
+        try {
+            this.runIndex.update(this.runDirectory, testStructure);
+        } catch (final ResultArchiveStoreException e) {
+            logger.warn("Unable to update the run index", e);
+        }
     }
 
     /*
@@ -235,7 +267,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
     @Override
     public @NotNull List<IResultArchiveStoreDirectoryService> getDirectoryServices() {
         ArrayList<IResultArchiveStoreDirectoryService> dirs = new ArrayList<>(1);
-        dirs.add(new DirectoryRASDirectoryService(this.baseDirectory, gson));
+        dirs.add(new DirectoryRASDirectoryService(this.baseDirectory, gson, this.runIndex));
         return dirs;
     }
 
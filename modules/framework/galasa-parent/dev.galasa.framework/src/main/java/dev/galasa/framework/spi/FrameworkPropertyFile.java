@@ -18,12 +18,22 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
@@ -48,18 +58,61 @@ import dev.galasa.framework.spi.IFrameworkPropertyFileWatcher.Event;
  * and the watchng of values inside the properties.
  * </p>
  * 
+ * <p>
+ * By default every update rewrites the whole properties file. In journalled
+ * mode, updates are instead appended to a journal file alongside the properties
+ * file, and the journal is compacted back into the properties file in the
+ * background, after a number of updates, and on shutdown. The properties file
+ * stays in the normal java properties format, but may lag behind the journal
+ * until it is compacted, so all the processes sharing the file should use the
+ * same mode. See {@link FrameworkPropertyFileJournal} for the journal format.
+ * </p>
  *  
+ * <p>
+ * Reads run concurrently with each other. Updates are serialised for each
+ * properties file, so instances using different files do not block each other.
+ * Watchers are told about an update once it has been saved and the locks have
+ * been released.
+ * </p>
  *
  */
 
 public class FrameworkPropertyFile implements FileAlterationListener {
-    private Properties             currentProperties = new Properties();
-    private HashMap<UUID, Watch>   watches           = new HashMap<>();
+
+    public static final String JOURNAL_FILE_SUFFIX                        = ".journal";
+    public static final int    DEFAULT_JOURNAL_COMPACTION_THRESHOLD       = 5000;
+    public static final long   DEFAULT_JOURNAL_COMPACTION_INTERVAL_MILLIS = 5000;
+    public static final long   DEFAULT_FILE_CHECK_INTERVAL_MILLIS         = 0;
+
+    // A lock for each properties file, shared by all the instances in this JVM which use that file.
+    // Java file locks are held by the whole JVM, so two instances must not try to lock the same file at once.
+    private static final Map<Path, Object> fileLocks = new ConcurrentHashMap<>();
+
+    // Replaced by each update rather than changed in place, so it can be read while an update is saved
+    private TreeMap<String, String> currentProperties = new TreeMap<>();
+    private Map<UUID, Watch>        watches           = new ConcurrentHashMap<>();
     private URI                    file;
     private File                   propertyFile;
     private String                 parent;
     private FileAlterationObserver observer;
     private FileAlterationMonitor  monitor;
+
+    private final ReentrantReadWriteLock propertiesLock = new ReentrantReadWriteLock();
+    private final ReentrantLock          fileCheckLock  = new ReentrantLock();
+    private final Object                 fileLock;
+
+    private FrameworkPropertyFileJournal journal;
+    private int                          journalCompactionThreshold;
+    private ScheduledExecutorService     journalCompactionScheduler;
+    private volatile long                fileCheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_FILE_CHECK_INTERVAL_MILLIS);
+    private volatile long                lastFileCheckNanos;
+
+    private final LongAdder lookupCount           = new LongAdder();
+    private final LongAdder lookupHitCount        = new LongAdder();
+    private final LongAdder prefixScanCount       = new LongAdder();
+    private final LongAdder prefixScannedKeyCount = new LongAdder();
+    private final LongAdder fileCheckCount        = new LongAdder();
+    private final LongAdder skippedFileCheckCount = new LongAdder();
     private static Log             fpfLog            = LogFactory.getLog(FrameworkPropertyFile.class);
 
     /**
@@ -74,13 +127,48 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      */
 
     public FrameworkPropertyFile(URI file) throws FrameworkPropertyFileException {
+        this(file, false);
+    }
+
+    /**
+     * <p>
+     * This constructor loads the properties store in the file into memory, and
+     * optionally keeps a journal of the updates rather than rewriting the file on
+     * every update.
+     * </p>
+     *
+     * @param file          - URI of the java properties file
+     * @param isJournalled  - true to append updates to a journal
+     * @throws FrameworkPropertyFileException
+     */
+    public FrameworkPropertyFile(URI file, boolean isJournalled) throws FrameworkPropertyFileException {
+        this(file, isJournalled, DEFAULT_JOURNAL_COMPACTION_THRESHOLD, DEFAULT_JOURNAL_COMPACTION_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param file                          - URI of the java properties file
+     * @param isJournalled                  - true to append updates to a journal
+     * @param journalCompactionThreshold    - the number of journal records which causes the journal to be compacted
+     * @param journalCompactionIntervalMillis - how often the journal is compacted in the background
+     * @throws FrameworkPropertyFileException
+     */
+    public FrameworkPropertyFile(URI file, boolean isJournalled, int journalCompactionThreshold,
+            long journalCompactionIntervalMillis) throws FrameworkPropertyFileException {
         this.file = file;
         this.propertyFile = new File(file);
         this.parent = propertyFile.getParent();
+        this.fileLock = fileLocks.computeIfAbsent(propertyFile.getAbsoluteFile().toPath().normalize(), path -> new Object());
+
+        IOFileFilter filter = FileFilterUtils.nameFileFilter(propertyFile.getName());
+        if (isJournalled) {
+            this.journal = new FrameworkPropertyFileJournal(Paths.get(propertyFile.getPath() + JOURNAL_FILE_SUFFIX));
+            this.journalCompactionThreshold = journalCompactionThreshold;
+            filter = FileFilterUtils.or(filter, FileFilterUtils.nameFileFilter(journal.getPath().getFileName().toString()));
+        }
 
         load();
+        lastFileCheckNanos = System.nanoTime();
 
-        IOFileFilter filter = FileFilterUtils.nameFileFilter(propertyFile.getName());
         try {
             observer = new FileAlterationObserver(FileUtils.getFile(parent), filter);
             observer.addListener(this);
@@ -88,6 +176,16 @@ public class FrameworkPropertyFile implements FileAlterationListener {
         } catch (Exception e) {
             throw new FrameworkPropertyFileException("Problem starting observer", e);
         }
+
+        if (isJournalled) {
+            journalCompactionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fpf-journal-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            journalCompactionScheduler.scheduleWithFixedDelay(this::compactJournalInBackground,
+                    journalCompactionIntervalMillis, journalCompactionIntervalMillis, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
@@ -98,10 +196,19 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param key
      * @return - corresponding value from the key, null if non-exsisting
      */
-    public synchronized String get(final String key) {
-        observer.checkAndNotify();
-        return currentProperties.getProperty(key);
-
+    public String get(final String key) {
+        checkForFileChanges(false);
+        propertiesLock.readLock().lock();
+        try {
+            String value = currentProperties.get(key);
+            lookupCount.increment();
+            if (value != null) {
+                lookupHitCount.increment();
+            }
+            return value;
+        } finally {
+            propertiesLock.readLock().unlock();
+        }
     }
 
     /**
@@ -114,16 +221,16 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      *                  store.
      * @return A map of any size or null. The key is a string which starts with the specified prefix.
      */
-    public synchronized Map<String, String> getPrefix(String keyPrefix) {
-        Map<String, String> values = new HashMap<>();
-        observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(keyPrefix)) {
-                values.put(key, currentProperties.getProperty(key));
-            }
+    public Map<String, String> getPrefix(String keyPrefix) {
+        checkForFileChanges(false);
+        propertiesLock.readLock().lock();
+        try {
+            Map<String, String> values = new HashMap<>(getPrefixView(currentProperties, keyPrefix));
+            recordPrefixScan(values.size());
+            return values;
+        } finally {
+            propertiesLock.readLock().unlock();
         }
-        return values;
     }
 
     /**
@@ -134,16 +241,16 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param keyPrefix A common key prefix to a number of keys in the property store.
      * @return A collection of any size or null of keys which start with the specified prefix.
      */
-    public synchronized Collection<String> getPrefixKeysOnly(String keyPrefix) {
-        Collection<String> keys = new ArrayList<>();
-        observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(keyPrefix)) {
-                keys.add(key);
-            }
+    public Collection<String> getPrefixKeysOnly(String keyPrefix) {
+        checkForFileChanges(false);
+        propertiesLock.readLock().lock();
+        try {
+            Collection<String> keys = new ArrayList<>(getPrefixView(currentProperties, keyPrefix).keySet());
+            recordPrefixScan(keys.size());
+            return keys;
+        } finally {
+            propertiesLock.readLock().unlock();
         }
-        return keys;
     }
 
     /**
@@ -154,18 +261,95 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * 
      * @return - List of namespaces
      */
-    public synchronized List<String> getNamespaces() {
+    public List<String> getNamespaces() {
         List<String> namespaces = new ArrayList<>();
-        observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String name = ((String)k).substring(0,((String)k).indexOf("."));
-            if(!namespaces.contains(name)) {
-                namespaces.add(name);
+        checkForFileChanges(false);
+        propertiesLock.readLock().lock();
+        try {
+            // The keys are sorted, so all the keys in a namespace are next to each other.
+            // Once we have found a namespace we can skip straight past the rest of its keys,
+            // to the first key that sorts after "namespace/", as '/' comes after '.'
+            int scannedKeyCount = 0;
+            String key = currentProperties.isEmpty() ? null : currentProperties.firstKey();
+            while (key != null) {
+                scannedKeyCount++;
+                int dotIndex = key.indexOf(".");
+                if (dotIndex < 0) {
+                    key = currentProperties.higherKey(key);
+                } else {
+                    String name = key.substring(0, dotIndex);
+                    namespaces.add(name);
+                    key = currentProperties.ceilingKey(name + (char) ('.' + 1));
+                }
             }
+            recordPrefixScan(scannedKeyCount);
+        } finally {
+            propertiesLock.readLock().unlock();
         }
         return namespaces;
     }
 
+    /**
+     * <p>
+     * Sets how often reads check whether the file has been changed by someone else.
+     * Reads between checks return what is in memory, which will include any updates
+     * made through this instance. Updates always check the file first.
+     * </p>
+     *
+     * @param intervalMillis - the minimum time between checks, 0 to check on every read
+     */
+    public void setFileCheckInterval(long intervalMillis) {
+        this.fileCheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * @return the number of times get has been called
+     */
+    public long getLookupCount() {
+        return lookupCount.sum();
+    }
+
+    /**
+     * @return the number of times get has found a value
+     */
+    public long getLookupHitCount() {
+        return lookupHitCount.sum();
+    }
+
+    /**
+     * @return the number of prefix and namespace queries made
+     */
+    public long getPrefixScanCount() {
+        return prefixScanCount.sum();
+    }
+
+    /**
+     * @return the total number of keys visited by prefix and namespace queries
+     */
+    public long getPrefixScannedKeyCount() {
+        return prefixScannedKeyCount.sum();
+    }
+
+    /**
+     * @return the number of times the file has been checked for changes
+     */
+    public long getFileCheckCount() {
+        return fileCheckCount.sum();
+    }
+
+    /**
+     * @return the number of reads which did not check the file for changes, because
+     *         it had been checked recently
+     */
+    public long getSkippedFileCheckCount() {
+        return skippedFileCheckCount.sum();
+    }
+
+    private void recordPrefixScan(int scannedKeyCount) {
+        prefixScanCount.increment();
+        prefixScannedKeyCount.add(scannedKeyCount);
+    }
+
     /**
      * <p>
      * This method deletes a k-v pair from the property store. As the properties
@@ -176,25 +360,21 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      *            properties.
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void delete(String key) throws FrameworkPropertyFileException {
+    public void delete(String key) throws FrameworkPropertyFileException {
         // Make the current properties as close to the values in the file as 
         // we can. So when we write they are up-to-date.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
+        checkForFileChanges(true);
 
         // There is a small window here when another JVM may write to the file,
         // which will get lost when we over-write it.
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                this.currentProperties.remove(key);
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to delete the key: " + key, e);
-                throw new FrameworkPropertyFileException("Unable to delete key: " + key, e);
-            }
+        try {
+            updateProperties(properties -> {
+                properties.remove(key);
+                return true;
+            });
+        } catch (IOException | DynamicStatusStoreMatchException e) {
+            fpfLog.error("Unable to delete the key: " + key, e);
+            throw new FrameworkPropertyFileException("Unable to delete key: " + key, e);
         }
     }
 
@@ -205,28 +385,23 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param keys - a set of string keys to remove from properties
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void delete(Set<String> keys) throws FrameworkPropertyFileException {
+    public void delete(Set<String> keys) throws FrameworkPropertyFileException {
         // Make the current properties as close to the values in the file as 
         // we can. So when we write they are up-to-date.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
+        checkForFileChanges(true);
+
         // There is a small window here when another JVM may write to the file,
         // which will get lost when we over-write it.
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
+        try {
+            updateProperties(properties -> {
                 for (String key : keys) {
-                    this.currentProperties.remove(key);
+                    properties.remove(key);
                 }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to delete keys", e);
-                throw new FrameworkPropertyFileException("Unable to delete keys.", e);
-            }
+                return true;
+            });
+        } catch (IOException | DynamicStatusStoreMatchException e) {
+            fpfLog.error("Unable to delete keys", e);
+            throw new FrameworkPropertyFileException("Unable to delete keys.", e);
         }
     }
 
@@ -236,141 +411,103 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param prefix - a prefix of keys to remove from properties
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void deletePrefix(String prefix) throws FrameworkPropertyFileException {
-        Set<String> deleteKeys = new HashSet<>();
-
+    public void deletePrefix(String prefix) throws FrameworkPropertyFileException {
         // refresh our cache of properties from the file contents.
         // Note that we can't do this while holding a write lock as the check
         // attempts to get a read lock which fails, as the write lock is held.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
+        checkForFileChanges(true);
+
         // There is a small timing window here where another JVM will enter and write a
         // new set of properties to the file. We have no lock protecting it, so are 
         // likely to over-write the file with our property cache values...
         // Meaning this code is not able to protect itself from other JVMs interfering, and 
         // vice-versa.
-
-        synchronized (FrameworkPropertyFile.class) {
-            try {
-                // Block other JVMs from writing to the property file while we delete things.
-                try (FileChannel fileChannel = getWriteChannel(false)) {
-
-                    // Gather the list of keys to be deleted.
-                    for (Object k : currentProperties.keySet()) {
-                        String key = (String) k;
-                        if (key.startsWith(prefix)) {
-                            deleteKeys.add(key);
-                        }
-                    }
-
-                    // Make a note of the current property values, so we retain a before... and after...
-                    // set to be used later notifying any observers of property changes.
-                    Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                    // Now delete the keys
-                    for (String key : deleteKeys) {
-                        this.currentProperties.remove(key);
-                    }
-
-                    write(fileChannel, this.currentProperties);
-                    fileModified(this.currentProperties, oldProperties);
-                }
-            } catch (IOException e) {
-                fpfLog.error("Failed to update file with DSS actions", e);
-                throw new FrameworkPropertyFileException("Unable to delete key prefix: " + prefix, e);
-            }
+        try {
+            updateProperties(properties -> {
+                removePrefix(properties, prefix);
+                return true;
+            });
+        } catch (IOException | DynamicStatusStoreMatchException e) {
+            fpfLog.error("Failed to update file with DSS actions", e);
+            throw new FrameworkPropertyFileException("Unable to delete key prefix: " + prefix, e);
         }
     }
 
-    public synchronized void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
+    public void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
+        try {
+            updateProperties(properties -> {
                 for(IDssAction action : actions) {
                     if (action instanceof DssAdd) {
-                        performActionsAdd((DssAdd) action);
+                        performActionsAdd(properties, (DssAdd) action);
                     } else if (action instanceof DssDelete) {
-                        performActionsDelete((DssDelete) action);
+                        performActionsDelete(properties, (DssDelete) action);
                     } else if (action instanceof DssDeletePrefix) {
-                        performActionsDeletePrefix((DssDeletePrefix) action);
+                        performActionsDeletePrefix(properties, (DssDeletePrefix) action);
                     } else if (action instanceof DssUpdate) {
-                        performActionsUpdate((DssUpdate) action);
+                        performActionsUpdate(properties, (DssUpdate) action);
                     } else if (action instanceof DssSwap) {
-                        performActionsSwap((DssSwap) action);
+                        performActionsSwap(properties, (DssSwap) action);
                     } else {
-                        throw new DynamicStatusStoreException("Unrecognised DSS Action - " + action.getClass().getName());
+                        throw new UnrecognisedActionException("Unrecognised DSS Action - " + action.getClass().getName());
                     }
                 }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Failed to update file with DSS actions", e);
-                throw new DynamicStatusStoreException("Failed to update file with DSS actions", e);
-            }
+                return true;
+            });
+        } catch (UnrecognisedActionException e) {
+            throw new DynamicStatusStoreException(e.getMessage());
+        } catch (IOException e) {
+            fpfLog.error("Failed to update file with DSS actions", e);
+            throw new DynamicStatusStoreException("Failed to update file with DSS actions", e);
         }
     }
 
-    private void performActionsAdd(DssAdd dssAdd) throws DynamicStatusStoreMatchException {
+    private void performActionsAdd(Map<String, String> properties, DssAdd dssAdd) throws DynamicStatusStoreMatchException {
         String key = dssAdd.getKey();
         String value = dssAdd.getValue();
 
-        String currentValue = this.currentProperties.getProperty(key);
+        String currentValue = properties.get(key);
         if (currentValue != null) {
             throw new DynamicStatusStoreMatchException("Attempt to add new property '" + key + "' but it already exists");
         }
 
-        this.currentProperties.put(key, value);
+        properties.put(key, value);
     }
 
 
-    private void performActionsDelete(DssDelete dssDelete) throws DynamicStatusStoreMatchException {
+    private void performActionsDelete(Map<String, String> properties, DssDelete dssDelete) throws DynamicStatusStoreMatchException {
         String key = dssDelete.getKey();
         String oldValue = dssDelete.getOldValue();
 
         if (oldValue != null) {
-            String currentValue = this.currentProperties.getProperty(key);
+            String currentValue = properties.get(key);
             if (!oldValue.equals(currentValue)) {
                 throw new DynamicStatusStoreMatchException("Attempt to delete property '" + key + "', but current value '" + currentValue + "' does not match required value '" +oldValue + "'");
             }
         }
 
-        this.currentProperties.remove(key);
+        properties.remove(key);
     }
 
 
-    private void performActionsDeletePrefix(DssDeletePrefix dssDeletePrefix) {
-        ArrayList<String> toBeDeleted = new ArrayList<>();
-        for (Object k : this.currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(dssDeletePrefix.getPrefix())) {
-                toBeDeleted.add(key);
-            }
-        }
-        
-        for(String key : toBeDeleted) {
-            this.currentProperties.remove(key);
-        }
-        
+    private void performActionsDeletePrefix(TreeMap<String, String> properties, DssDeletePrefix dssDeletePrefix) {
+        removePrefix(properties, dssDeletePrefix.getPrefix());
     }
 
 
-    private void performActionsUpdate(DssUpdate dssUpdate) {
+    private void performActionsUpdate(Map<String, String> properties, DssUpdate dssUpdate) {
         String key   = dssUpdate.getKey();
         String value = dssUpdate.getValue();
 
-        this.currentProperties.put(key, value);
+        properties.put(key, value);
     }
 
 
-    private void performActionsSwap(DssSwap dssSwap) throws DynamicStatusStoreMatchException {
+    private void performActionsSwap(Map<String, String> properties, DssSwap dssSwap) throws DynamicStatusStoreMatchException {
         String key      = dssSwap.getKey();
         String newValue = dssSwap.getNewValue();
         String oldValue = dssSwap.getOldValue();
         
-        String currentValue = this.currentProperties.getProperty(key);
+        String currentValue = properties.get(key);
 
         if (oldValue == null) {
             if (currentValue != null) {
@@ -382,7 +519,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
             }
         }
         
-        this.currentProperties.put(key, newValue);
+        properties.put(key, newValue);
     }
 
 
@@ -396,7 +533,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param newProperties - the most up to date properties in memory
      * @throws IOException
      */
-    public synchronized void write(FileChannel fileChannel, Properties newProperties) throws IOException {
+    public void write(FileChannel fileChannel, Properties newProperties) throws IOException {
         fileChannel.truncate(0);
         OutputStream out = Channels.newOutputStream(fileChannel);
         newProperties.store(out, null);
@@ -414,24 +551,18 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param value - String value
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void set(String key, String value) throws FrameworkPropertyFileException {
+    public void set(String key, String value) throws FrameworkPropertyFileException {
 
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
+        checkForFileChanges(true);
 
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                this.currentProperties.put(key, value);
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to set key value pair: " + key + ":" + value, e);
-                throw new FrameworkPropertyFileException("Failed Setting value: " + key + "=" + value, e);
-            }
+        try {
+            updateProperties(properties -> {
+                properties.put(key, value);
+                return true;
+            });
+        } catch (IOException | DynamicStatusStoreMatchException e) {
+            fpfLog.error("Unable to set key value pair: " + key + ":" + value, e);
+            throw new FrameworkPropertyFileException("Failed Setting value: " + key + "=" + value, e);
         }
     }
 
@@ -446,22 +577,17 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws FrameworkPropertyFileException
      * @throws IOException
      */
-    public synchronized void set(Map<String, String> values) throws FrameworkPropertyFileException, IOException {
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                this.currentProperties.putAll(values);
+    public void set(Map<String, String> values) throws FrameworkPropertyFileException, IOException {
+        checkForFileChanges(true);
 
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to set values", e);
-                throw new FrameworkPropertyFileException("Unable to set values", e);
-            }
+        try {
+            updateProperties(properties -> {
+                properties.putAll(values);
+                return true;
+            });
+        } catch (IOException | DynamicStatusStoreMatchException e) {
+            fpfLog.error("Unable to set values", e);
+            throw new FrameworkPropertyFileException("Unable to set values", e);
         }
     }
 
@@ -577,35 +703,9 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return returns a boolean which informs if the set took place.
      * @throws FrameworkPropertyFileException
      */
-    public synchronized boolean setAtomic(String key, String oldValue, String newValue)
+    public boolean setAtomic(String key, String oldValue, String newValue)
             throws FrameworkPropertyFileException {
-
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                if (oldValue == null && oldProperties.get(key) == null) {
-                    this.currentProperties.put(key, newValue);
-                } else {
-                    if (oldValue == null) {
-                        return false;
-                    }
-                    if (!this.currentProperties.replace(key, oldValue, newValue)) {
-                        return false;
-                    }
-                }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-                return true;
-            } catch (IOException e) {
-                fpfLog.error("Failed to set Atomically", e);
-                throw new FrameworkPropertyFileException("Failed to set atomically", e);
-            }
-        }
+        return setAtomic(key, oldValue, newValue, null);
     }
 
     /**
@@ -632,37 +732,31 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return - boolean for if the atomic set was done
      * @throws FrameworkPropertyFileException
      */
-    public synchronized boolean setAtomic(String key, String oldValue, String newValue, Map<String, String> otherValues)
+    public boolean setAtomic(String key, String oldValue, String newValue, Map<String, String> otherValues)
             throws FrameworkPropertyFileException {
 
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
+        checkForFileChanges(true);
 
-                if (oldValue == null && oldProperties.get(key) == null) {
-                    this.currentProperties.put(key, newValue);
-                } else {
-                    if (oldValue == null) {
-                        return false;
-                    }
-                    if (!this.currentProperties.replace(key, oldValue, newValue)) {
+        try {
+            return updateProperties(properties -> {
+                String currentValue = properties.get(key);
+                if (oldValue == null) {
+                    if (currentValue != null) {
                         return false;
                     }
+                } else if (!oldValue.equals(currentValue)) {
+                    return false;
                 }
 
-                this.currentProperties.putAll(otherValues);
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
+                properties.put(key, newValue);
+                if (otherValues != null) {
+                    properties.putAll(otherValues);
+                }
                 return true;
-            } catch (IOException e) {
-                fpfLog.error("Failed to set Atomically", e);
-                throw new FrameworkPropertyFileException("Failed to set atomically", e);
-            }
+            });
+        } catch (IOException | DynamicStatusStoreMatchException e) {
+            fpfLog.error("Failed to set Atomically", e);
+            throw new FrameworkPropertyFileException("Failed to set atomically", e);
         }
     }
 
@@ -673,15 +767,24 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * 
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void destroy() throws FrameworkPropertyFileException {
-        currentProperties = null;
-        observer = null;
-        try {
-            if (monitor != null) {
-                monitor.stop();
+    public void destroy() throws FrameworkPropertyFileException {
+        stopJournalCompaction();
+
+        synchronized (this) {
+            propertiesLock.writeLock().lock();
+            try {
+                currentProperties = null;
+                observer = null;
+            } finally {
+                propertiesLock.writeLock().unlock();
+            }
+            try {
+                if (monitor != null) {
+                    monitor.stop();
+                }
+            } catch (Exception e) {
+                throw new FrameworkPropertyFileException("Unable to stop the monitor.", e);
             }
-        } catch (Exception e) {
-            throw new FrameworkPropertyFileException("Unable to stop the monitor.", e);
         }
     }
 
@@ -693,38 +796,315 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * property modified method
      * </p>
      * 
-     * @param newProperties - loaded from file
-     * @param oldProperties - in memory currently
+     * @param key      - the key of the property which has changed
+     * @param oldValue - the value before the change, null if the property is new
+     * @param newValue - the value after the change, null if the property was deleted
      */
-    private synchronized void fileModified(Properties newProperties, Properties oldProperties) {
-        // Checks a list of Strings that are keys to watch. Compares file to loaded.
+    private void fileModified(String key, String oldValue, String newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+
+        Event event;
+        if (oldValue == null) {
+            event = Event.NEW;
+        } else if (newValue == null) {
+            event = Event.DELETE;
+        } else {
+            event = Event.MODIFIED;
+        }
+
         for (Watch watch : this.watches.values()) {
-            for (Object oNewKey : newProperties.keySet()) {
-                String newKey = (String) oNewKey;
-                String newValue = newProperties.getProperty(newKey);
-                if (watch.matchKey(newKey)) {
-                    String oldValue = oldProperties.getProperty(newKey);
-                    if (oldValue == null) {
-                        watch.watcher.propertyModified(newKey, Event.NEW, oldValue, newValue);
-                    } else if (!oldValue.equals(newValue)) {
-                        watch.watcher.propertyModified(newKey, Event.MODIFIED, oldValue, newValue);
+            if (watch.matchKey(key)) {
+                watch.watcher.propertyModified(key, event, oldValue, newValue);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Applies an update to a copy of the properties and saves the result, either by
+     * rewriting the properties file, or by appending the changes to the journal.
+     * If the update fails, the properties are left as they were.
+     * </p>
+     *
+     * <p>
+     * The watchers are told about the changes once the locks have been released,
+     * so a slow watcher, or one which makes updates itself, does not hold up other
+     * updates.
+     * </p>
+     *
+     * @param update - the update to make
+     * @return - false if the update decided not to make any changes
+     * @throws IOException
+     * @throws DynamicStatusStoreMatchException
+     */
+    private boolean updateProperties(PropertyUpdate update) throws IOException, DynamicStatusStoreMatchException {
+        PropertyEvents events = new PropertyEvents();
+        boolean isUpdated;
+        try {
+            synchronized (fileLock) {
+                if (journal == null) {
+                    isUpdated = updatePropertyFile(update, events);
+                } else {
+                    isUpdated = updateJournal(update, events);
+                    if (journal.getRecordCount() >= journalCompactionThreshold) {
+                        compactJournal(events);
                     }
                 }
             }
+        } finally {
+            events.notifyWatchers();
+        }
+        return isUpdated;
+    }
+
+    private boolean updatePropertyFile(PropertyUpdate update, PropertyEvents events) throws IOException, DynamicStatusStoreMatchException {
+        try (FileChannel fileChannel = getWriteChannel(false)) {
+            TreeMap<String, String> oldProperties = this.currentProperties;
+            TreeMap<String, String> newProperties = new TreeMap<>(oldProperties);
+            if (!update.apply(newProperties)) {
+                return false;
+            }
+
+            write(fileChannel, toProperties(newProperties));
+            setCurrentProperties(newProperties);
+            events.addDifferences(oldProperties, newProperties);
+            return true;
+        }
+    }
+
+    private boolean updateJournal(PropertyUpdate update, PropertyEvents events) throws IOException, DynamicStatusStoreMatchException {
+        try (FileChannel journalChannel = journal.openLocked()) {
+            // Pick up anything other processes have added to the journal, as the update may depend on it
+            catchUpWithJournal(journalChannel, events);
+
+            TreeMap<String, String> oldProperties = this.currentProperties;
+            TreeMap<String, String> newProperties = new TreeMap<>(oldProperties);
+            if (!update.apply(newProperties)) {
+                return false;
+            }
 
-            // Check for deleted properties
-            for (Object oOldKey : oldProperties.keySet()) {
-                String oldKey = (String) oOldKey;
-                String oldValue = oldProperties.getProperty(oldKey);
+            Map<String, String> changedValues = getChangedValues(oldProperties, newProperties);
+            journal.append(journalChannel, changedValues);
+            setCurrentProperties(newProperties);
+            events.addChanges(oldProperties, changedValues);
+            return true;
+        }
+    }
 
-                if (watch.matchKey(oldKey)) {
-                    String newValue = newProperties.getProperty(oldKey);
-                    if (newValue == null) {
-                        watch.watcher.propertyModified(oldKey, Event.DELETE, oldValue, newValue);
+    /**
+     * <p>
+     * Brings the properties up to date with the changes made to the journal by
+     * other processes. If the journal has been compacted by another process, the
+     * properties are reloaded from the properties file.
+     * </p>
+     *
+     * <p>
+     * The caller must hold the file lock.
+     * </p>
+     */
+    private void catchUpWithJournal(FileChannel journalChannel, PropertyEvents events) throws IOException {
+        TreeMap<String, String> oldProperties = this.currentProperties;
+        TreeMap<String, String> newProperties;
+        if (journal.isNewGeneration(journalChannel)) {
+            try {
+                newProperties = readPropertyFile();
+            } catch (FrameworkPropertyFileException e) {
+                throw new IOException(e);
+            }
+            applyJournalChanges(newProperties, journal.readAll(journalChannel));
+            events.addDifferences(oldProperties, newProperties);
+        } else {
+            Map<String, String> journalChanges = journal.readNew(journalChannel);
+            if (journalChanges.isEmpty()) {
+                return;
+            }
+            newProperties = new TreeMap<>(oldProperties);
+            applyJournalChanges(newProperties, journalChanges);
+            events.addChanges(oldProperties, journalChanges);
+        }
+        setCurrentProperties(newProperties);
+    }
+
+    private void applyJournalChanges(Map<String, String> properties, Map<String, String> journalChanges) {
+        for (Map.Entry<String, String> change : journalChanges.entrySet()) {
+            if (change.getValue() == null) {
+                properties.remove(change.getKey());
+            } else {
+                properties.put(change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Writes the current properties to the properties file and empties the journal.
+     * The properties are never changed in place, so readers can carry on while the
+     * file is being written, but updates wait until it is done.
+     * </p>
+     *
+     * @throws IOException
+     */
+    private void compactJournal(PropertyEvents events) throws IOException {
+        synchronized (fileLock) {
+            try (FileChannel journalChannel = journal.openLocked()) {
+                catchUpWithJournal(journalChannel, events);
+
+                try (FileChannel fileChannel = getWriteChannel(false)) {
+                    write(fileChannel, toProperties(this.currentProperties));
+                    journal.reset(journalChannel);
+                }
+            }
+        }
+    }
+
+    private void compactJournal() throws IOException {
+        PropertyEvents events = new PropertyEvents();
+        try {
+            compactJournal(events);
+        } finally {
+            events.notifyWatchers();
+        }
+    }
+
+    private void compactJournalInBackground() {
+        try {
+            if (journal.getRecordCount() > 0 && currentProperties != null) {
+                compactJournal();
+            }
+        } catch (Exception e) {
+            fpfLog.error("Unable to compact the journal into the property file: " + propertyFile.toString(), e);
+        }
+    }
+
+    private void stopJournalCompaction() throws FrameworkPropertyFileException {
+        if (journalCompactionScheduler != null) {
+            // Let any compaction in progress finish, rather than interrupting it part way through writing the file
+            journalCompactionScheduler.shutdown();
+            try {
+                journalCompactionScheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            journalCompactionScheduler = null;
+
+            try {
+                if (currentProperties != null) {
+                    compactJournal();
+                }
+            } catch (IOException e) {
+                throw new FrameworkPropertyFileException("Unable to compact the journal into the property file", e);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Checks whether the file has been changed by anyone else, and if so reloads
+     * it and updates any watchers. Unless the check is forced, it is skipped if the
+     * file was checked within the file check interval.
+     * </p>
+     *
+     * <p>
+     * If another thread is already checking, we don't wait for it, as the
+     * properties will be as up to date as they would be if we did the check
+     * ourselves. This also means a watcher can read properties while it is being
+     * notified of a change.
+     * </p>
+     *
+     * @param isForced - true to check the file even if it was checked recently
+     */
+    private void checkForFileChanges(boolean isForced) {
+        FileAlterationObserver currentObserver = this.observer;
+        if (currentObserver == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (!isForced && fileCheckIntervalNanos > 0 && (now - lastFileCheckNanos) < fileCheckIntervalNanos) {
+            skippedFileCheckCount.increment();
+            return;
+        }
+
+        if (fileCheckLock.tryLock()) {
+            try {
+                lastFileCheckNanos = now;
+                fileCheckCount.increment();
+                currentObserver.checkAndNotify();
+            } finally {
+                fileCheckLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the part of a sorted map containing the keys which start with a prefix.
+     * Every key which starts with the prefix sorts at or after the prefix itself,
+     * and before the prefix with its last character incremented.
+     * </p>
+     */
+    static SortedMap<String, String> getPrefixView(TreeMap<String, String> properties, String keyPrefix) {
+        SortedMap<String, String> view;
+        if (keyPrefix.isEmpty()) {
+            view = properties;
+        } else {
+            char lastChar = keyPrefix.charAt(keyPrefix.length() - 1);
+            if (lastChar == Character.MAX_VALUE) {
+                view = new TreeMap<>();
+                for (Map.Entry<String, String> entry : properties.tailMap(keyPrefix).entrySet()) {
+                    if (!entry.getKey().startsWith(keyPrefix)) {
+                        break;
                     }
+                    view.put(entry.getKey(), entry.getValue());
                 }
+            } else {
+                String upperBound = keyPrefix.substring(0, keyPrefix.length() - 1) + (char) (lastChar + 1);
+                view = properties.subMap(keyPrefix, upperBound);
             }
         }
+        return view;
+    }
+
+    private static void removePrefix(TreeMap<String, String> properties, String prefix) {
+        List<String> keysToRemove = new ArrayList<>(getPrefixView(properties, prefix).keySet());
+        for (String key : keysToRemove) {
+            properties.remove(key);
+        }
+    }
+
+    /**
+     * @return the new value of each property which is different, null if it has been deleted
+     */
+    private static Map<String, String> getChangedValues(Map<String, String> oldProperties, Map<String, String> newProperties) {
+        Map<String, String> changedValues = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : newProperties.entrySet()) {
+            if (!entry.getValue().equals(oldProperties.get(entry.getKey()))) {
+                changedValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String key : oldProperties.keySet()) {
+            if (!newProperties.containsKey(key)) {
+                changedValues.put(key, null);
+            }
+        }
+        return changedValues;
+    }
+
+    private void setCurrentProperties(TreeMap<String, String> newProperties) {
+        propertiesLock.writeLock().lock();
+        try {
+            this.currentProperties = newProperties;
+        } finally {
+            propertiesLock.writeLock().unlock();
+        }
+    }
+
+    private Properties toProperties(Map<String, String> properties) {
+        Properties newProperties = new Properties();
+        newProperties.putAll(properties);
+        return newProperties;
     }
 
     /**
@@ -737,7 +1117,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return - a read file channel
      * @throws IOException
      */
-    private synchronized FileChannel getReadChannel(boolean shared) throws IOException {
+    private FileChannel getReadChannel(boolean shared) throws IOException {
         Path path = Paths.get(file);
         FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
         try {
@@ -759,7 +1139,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return - a write file channel
      * @throws IOException
      */
-    private synchronized FileChannel getWriteChannel(boolean shared) throws IOException {
+    private FileChannel getWriteChannel(boolean shared) throws IOException {
         Path path = Paths.get(file);
         FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.WRITE);
         try {
@@ -774,20 +1154,44 @@ public class FrameworkPropertyFile implements FileAlterationListener {
     /**
      * <p>
      * This method is used for loading the properties from the java properties file
-     * in a memory loaded properties
+     * in a memory loaded properties. In journalled mode, the journal is replayed on
+     * top of the properties from the file.
      * </p>
      * 
      * *
      * <p>
-     * This method is sycnronized on the class to ensure all values are set before
+     * This method is sycnronized on the file to ensure all values are set before
      * any other work is completed
      * </p>
      * 
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void load() throws FrameworkPropertyFileException {
+    public void load() throws FrameworkPropertyFileException {
+        synchronized (fileLock) {
+            setCurrentProperties(readProperties());
+        }
+    }
+
+    private TreeMap<String, String> readProperties() throws FrameworkPropertyFileException {
+        TreeMap<String, String> newProperties;
+        if (journal == null) {
+            newProperties = readPropertyFile();
+        } else {
+            try (FileChannel journalChannel = journal.openLocked()) {
+                newProperties = readPropertyFile();
+                applyJournalChanges(newProperties, journal.readAll(journalChannel));
+            } catch (IOException e) {
+                fpfLog.error("Unable to load the property file journal", e);
+                throw new FrameworkPropertyFileException(
+                        "Unable to load the property file journal: " + journal.getPath().toString(), e);
+            }
+        }
+        return newProperties;
+    }
+
+    private TreeMap<String, String> readPropertyFile() throws FrameworkPropertyFileException {
         Properties newProperties = new Properties();
-        synchronized (FrameworkPropertyFile.class) {
+        synchronized (fileLock) {
             try (FileChannel fileChannel = getReadChannel(true)) {
                 InputStream in = Channels.newInputStream(fileChannel);
                 newProperties.load(in);
@@ -798,7 +1202,12 @@ public class FrameworkPropertyFile implements FileAlterationListener {
                         "Unable to Load Property from file: " + propertyFile.toString(), e);
             }
         }
-        this.currentProperties = newProperties;
+
+        TreeMap<String, String> sortedProperties = new TreeMap<>();
+        for (String key : newProperties.stringPropertyNames()) {
+            sortedProperties.put(key, newProperties.getProperty(key));
+        }
+        return sortedProperties;
     }
 
     /**
@@ -830,16 +1239,28 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * exception is logged
      * </p>
      */
-    public synchronized void onFileChange(File file) {
-        synchronized (FrameworkPropertyFile.class) {
+    public void onFileChange(File file) {
+        PropertyEvents events = new PropertyEvents();
+        synchronized (fileLock) {
             try {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                load();
-                fileModified(this.currentProperties, oldProperties);
-            } catch (FrameworkPropertyFileException e) {
+                TreeMap<String, String> oldProperties = this.currentProperties;
+                if (oldProperties == null) {
+                    return;
+                }
+
+                if (journal != null && !file.getName().equals(propertyFile.getName())) {
+                    try (FileChannel journalChannel = journal.openLocked()) {
+                        catchUpWithJournal(journalChannel, events);
+                    }
+                } else {
+                    load();
+                    events.addDifferences(oldProperties, this.currentProperties);
+                }
+            } catch (FrameworkPropertyFileException | IOException e) {
                 fpfLog.error("Error encounted loading file changes", e);
             }
         }
+        events.notifyWatchers();
     }
 
     /**
@@ -887,6 +1308,76 @@ public class FrameworkPropertyFile implements FileAlterationListener {
         // Method not used for fpf
     }
 
+    /**
+     * <p>
+     * An update to the properties, made to a copy of them so that nothing changes
+     * if the update fails.
+     * </p>
+     */
+    private interface PropertyUpdate {
+        /**
+         * @return false if no changes should be saved
+         */
+        boolean apply(TreeMap<String, String> properties) throws DynamicStatusStoreMatchException;
+    }
+
+    private static class UnrecognisedActionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UnrecognisedActionException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * <p>
+     * The changes made to the properties while the locks are held, which the
+     * watchers are told about once the locks have been released.
+     * </p>
+     */
+    private class PropertyEvents {
+
+        private final List<PropertyEvent> events = new ArrayList<>();
+
+        private void addDifferences(Map<String, String> oldProperties, Map<String, String> newProperties) {
+            if (!watches.isEmpty()) {
+                addChanges(oldProperties, getChangedValues(oldProperties, newProperties));
+            }
+        }
+
+        /**
+         * @param changedValues - the new value of each changed property, null if it has been deleted
+         */
+        private void addChanges(Map<String, String> oldProperties, Map<String, String> changedValues) {
+            if (watches.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, String> change : changedValues.entrySet()) {
+                events.add(new PropertyEvent(change.getKey(), oldProperties.get(change.getKey()), change.getValue()));
+            }
+        }
+
+        private void notifyWatchers() {
+            for (PropertyEvent event : events) {
+                fileModified(event.key, event.oldValue, event.newValue);
+            }
+            events.clear();
+        }
+    }
+
+    private static class PropertyEvent {
+
+        private final String key;
+        private final String oldValue;
+        private final String newValue;
+
+        private PropertyEvent(String key, String oldValue, String newValue) {
+            this.key = key;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+
     /**
      * <p>
      * This class defines a watch, and the variables required to detect changes to
@@ -936,17 +1427,31 @@ public class FrameworkPropertyFile implements FileAlterationListener {
         }
     }
 
-    public synchronized void shutdown() throws FrameworkPropertyFileException {
-        if (this.monitor != null) {
-            try {
-                this.monitor.removeObserver(this.observer);
-                this.monitor.stop();
-                this.monitor = null;
-            } catch (Throwable t) {
-                throw new FrameworkPropertyFileException("Problem stopping the file monitor", t);
-            }
+    public void shutdown() throws FrameworkPropertyFileException {
+        stopJournalCompaction();
+
+        if (fpfLog.isDebugEnabled()) {
+            fpfLog.debug("Property file " + propertyFile.toString() + " statistics:"
+                    + " lookups=" + getLookupCount()
+                    + " lookupHits=" + getLookupHitCount()
+                    + " prefixScans=" + getPrefixScanCount()
+                    + " prefixScannedKeys=" + getPrefixScannedKeyCount()
+                    + " fileChecks=" + getFileCheckCount()
+                    + " skippedFileChecks=" + getSkippedFileCheckCount());
         }
 
-        this.watches.clear();
+        synchronized (this) {
+            if (this.monitor != null) {
+                try {
+                    this.monitor.removeObserver(this.observer);
+                    this.monitor.stop();
+                    this.monitor = null;
+                } catch (Throwable t) {
+                    throw new FrameworkPropertyFileException("Problem stopping the file monitor", t);
+                }
+            }
+
+            this.watches.clear();
+        }
     }
 }
\ No newline at end of file
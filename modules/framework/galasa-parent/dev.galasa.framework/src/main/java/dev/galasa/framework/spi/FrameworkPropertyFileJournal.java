@@ -0,0 +1,359 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * <p>
+ * An append-only journal of the changes made to a framework property file.
+ * </p>
+ *
+ * <p>
+ * Each update to the properties is appended to the journal as a batch of
+ * records, rather than rewriting the whole property file. The journal is
+ * replayed on top of the property file when it is loaded, and is periodically
+ * compacted back into the property file, which keeps its normal java properties
+ * format throughout.
+ * </p>
+ *
+ * <p>
+ * The journal is a UTF-8 text file which looks like this:
+ * </p>
+ *
+ * <pre>
+ * # galasa property file journal 5c1b7a4e-8f0e-4c1a-9a5d-2f6a0d8a1b3c
+ * S run.U123.status=allocated
+ * S run.U123.heartbeat=2024-01-01T00:00:00Z
+ * C
+ * D run.U122.status
+ * C
+ * </pre>
+ *
+ * <p>
+ * The header line holds a generation id, which changes every time the journal
+ * is compacted, so that other processes sharing the files know they must reload
+ * the property file. "S" records set a property, "D" records delete one, and a
+ * "C" record commits the batch of records before it. A batch without a commit
+ * record, left behind by a process that stopped part way through writing it,
+ * is ignored.
+ * </p>
+ *
+ * <p>
+ * Callers must hold an exclusive lock on the journal file, obtained through
+ * {@link #openLocked()}, while calling any of the other methods.
+ * </p>
+ */
+class FrameworkPropertyFileJournal {
+
+    private static final String HEADER_PREFIX = "# galasa property file journal ";
+    private static final String SET_RECORD    = "S ";
+    private static final String DELETE_RECORD = "D ";
+    private static final String COMMIT_RECORD = "C";
+
+    private final Path journalPath;
+
+    private String       generation;
+    private long         offset;
+    private volatile int recordCount;
+
+    FrameworkPropertyFileJournal(Path journalPath) {
+        this.journalPath = journalPath;
+    }
+
+    Path getPath() {
+        return journalPath;
+    }
+
+    /**
+     * @return the number of records in the journal that have not yet been
+     *         compacted into the property file
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * <p>
+     * Opens the journal, creating it if it does not exist, and locks it
+     * exclusively so no other process can update it.
+     * </p>
+     *
+     * @return a file channel holding an exclusive lock on the journal
+     * @throws IOException
+     */
+    FileChannel openLocked() throws IOException {
+        FileChannel journalChannel = FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        try {
+            journalChannel.lock();
+            return journalChannel;
+        } catch (IOException e) {
+            journalChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * <p>
+     * Checks whether the journal has been compacted, or removed, by someone else
+     * since we last read it. If it has, the property file has been rewritten and
+     * the whole journal must be replayed with {@link #readAll}.
+     * </p>
+     *
+     * @param journalChannel - a locked journal channel
+     * @return true if the journal is not the one we last read
+     * @throws IOException
+     */
+    boolean isNewGeneration(FileChannel journalChannel) throws IOException {
+        String currentGeneration = readGeneration(journalChannel);
+        if (currentGeneration == null) {
+            return generation != null;
+        }
+        return !currentGeneration.equals(generation);
+    }
+
+    /**
+     * <p>
+     * Reads every committed change in the journal, ready to be applied on top of
+     * the contents of the property file.
+     * </p>
+     *
+     * @param journalChannel - a locked journal channel
+     * @return the changes in the order they were made, a null value means the
+     *         property was deleted
+     * @throws IOException
+     */
+    Map<String, String> readAll(FileChannel journalChannel) throws IOException {
+        this.generation = readGeneration(journalChannel);
+        this.offset = 0;
+        this.recordCount = 0;
+        return readNew(journalChannel);
+    }
+
+    /**
+     * <p>
+     * Reads the committed changes that have been appended to the journal by
+     * other processes since we last read or wrote it.
+     * </p>
+     *
+     * @param journalChannel - a locked journal channel
+     * @return the changes in the order they were made, a null value means the
+     *         property was deleted
+     * @throws IOException
+     */
+    Map<String, String> readNew(FileChannel journalChannel) throws IOException {
+        Map<String, String> changes = new LinkedHashMap<>();
+        long size = journalChannel.size();
+        if (size <= offset) {
+            return changes;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - offset));
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int bytesRead = journalChannel.read(buffer, position);
+            if (bytesRead < 0) {
+                break;
+            }
+            position += bytesRead;
+        }
+        byte[] bytes = buffer.array();
+        int length = buffer.position();
+
+        Map<String, String> batch = new LinkedHashMap<>();
+        int batchRecordCount = 0;
+        int lineStart = 0;
+        int committedLength = 0;
+        for (int i = 0; i < length; i++) {
+            // A newline byte never appears inside a multi-byte UTF-8 character, so it is safe to split on
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            lineStart = i + 1;
+
+            if (line.startsWith(HEADER_PREFIX)) {
+                committedLength = lineStart;
+            } else if (line.startsWith(SET_RECORD)) {
+                int separator = indexOfSeparator(line, SET_RECORD.length());
+                if (separator > 0) {
+                    batch.put(unescape(line.substring(SET_RECORD.length(), separator)),
+                            unescape(line.substring(separator + 1)));
+                    batchRecordCount++;
+                }
+            } else if (line.startsWith(DELETE_RECORD)) {
+                batch.put(unescape(line.substring(DELETE_RECORD.length())), null);
+                batchRecordCount++;
+            } else if (line.equals(COMMIT_RECORD)) {
+                for (Map.Entry<String, String> change : batch.entrySet()) {
+                    // Re-insert so the map keeps the order in which the changes were last made
+                    changes.remove(change.getKey());
+                    changes.put(change.getKey(), change.getValue());
+                }
+                batch.clear();
+                recordCount += batchRecordCount;
+                batchRecordCount = 0;
+                committedLength = lineStart;
+            }
+        }
+
+        offset += committedLength;
+        return changes;
+    }
+
+    /**
+     * <p>
+     * Appends a committed batch of changes to the end of the journal.
+     * </p>
+     *
+     * @param journalChannel - a locked journal channel that has been read up to
+     *                       date with {@link #readNew}
+     * @param changes        - the changes to append, a null value means the
+     *                       property was deleted
+     * @throws IOException
+     */
+    void append(FileChannel journalChannel, Map<String, String> changes) throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        if (offset == 0) {
+            generation = UUID.randomUUID().toString();
+            writeLine(batch, HEADER_PREFIX + generation);
+        }
+
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                writeLine(batch, DELETE_RECORD + escape(change.getKey()));
+            } else {
+                writeLine(batch, SET_RECORD + escape(change.getKey()) + "=" + escape(change.getValue()));
+            }
+        }
+        writeLine(batch, COMMIT_RECORD);
+
+        // Anything after our offset is an uncommitted batch left by a process that failed part way through
+        // writing it, so it is overwritten.
+        journalChannel.truncate(offset);
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += journalChannel.write(buffer, position);
+        }
+
+        offset = position;
+        recordCount += changes.size();
+    }
+
+    /**
+     * <p>
+     * Empties the journal once its changes have been compacted into the property
+     * file, and starts a new generation so that other processes reload the
+     * property file.
+     * </p>
+     *
+     * @param journalChannel - a locked journal channel
+     * @throws IOException
+     */
+    void reset(FileChannel journalChannel) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        generation = UUID.randomUUID().toString();
+        writeLine(header, HEADER_PREFIX + generation);
+
+        journalChannel.truncate(0);
+        ByteBuffer buffer = ByteBuffer.wrap(header.toByteArray());
+        long position = 0;
+        while (buffer.hasRemaining()) {
+            position += journalChannel.write(buffer, position);
+        }
+
+        offset = position;
+        recordCount = 0;
+    }
+
+    private String readGeneration(FileChannel journalChannel) throws IOException {
+        String readGeneration = null;
+        int headerLength = HEADER_PREFIX.length() + 36 + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(headerLength);
+        journalChannel.read(buffer, 0);
+        String header = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        if (header.startsWith(HEADER_PREFIX) && header.endsWith("\n")) {
+            readGeneration = header.substring(HEADER_PREFIX.length(), header.length() - 1);
+        }
+        return readGeneration;
+    }
+
+    private void writeLine(ByteArrayOutputStream out, String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+    }
+
+    private int indexOfSeparator(String line, int start) {
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '=') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                case '=':
+                    escaped.append("\\=");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    static String unescape(String value) {
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                i++;
+                char escapedChar = value.charAt(i);
+                if (escapedChar == 'n') {
+                    unescaped.append('\n');
+                } else if (escapedChar == 'r') {
+                    unescaped.append('\r');
+                } else {
+                    unescaped.append(escapedChar);
+                }
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+}
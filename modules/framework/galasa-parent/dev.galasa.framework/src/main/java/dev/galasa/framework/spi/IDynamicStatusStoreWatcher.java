@@ -15,4 +15,14 @@ public interface IDynamicStatusStoreWatcher {
 
     void propertyModified(String key, Event event, String oldValue, String newValue);
 
+    /**
+     * Called when the store can no longer guarantee that every change has been passed to this watcher,
+     * for example because the connection to the store was lost.
+     * 
+     * Watchers which keep their own copy of the watched properties should re-read them from the store.
+     * 
+     * @param cause the reason the watch was interrupted, or null if it is not known
+     */
+    default void watchInterrupted(Throwable cause) {}
+
 }
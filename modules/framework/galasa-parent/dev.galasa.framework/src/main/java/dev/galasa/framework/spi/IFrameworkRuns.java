@@ -31,6 +31,19 @@ public interface IFrameworkRuns {
     @NotNull
     List<IRun> getAllRuns() throws FrameworkException;
 
+    /**
+     * Gets all the runs in the DSS that are in one of the given lifecycle states.
+     * 
+     * The runs are read from the DSS in a single scan, so this should be preferred over
+     * getting all the runs and then looking each of them up individually.
+     * 
+     * @param statuses the lifecycle states of the runs to return
+     * @return the runs that are in one of the given states, or an empty list if there are none
+     * @throws FrameworkException if there was an issue accessing the DSS
+     */
+    @NotNull
+    List<IRun> getRunsByStatus(@NotNull TestRunLifecycleStatus... statuses) throws FrameworkException;
+
     @NotNull
     List<IRun> getAllGroupedRuns(@NotNull String groupName) throws FrameworkException;
 
@@ -9,6 +9,8 @@ import java.util.List;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.logging.LogFactory;
+
 import dev.galasa.framework.spi.ras.IRasSearchCriteria;
 import dev.galasa.framework.spi.ras.RasRunResultPage;
 import dev.galasa.framework.spi.ras.RasSortField;
@@ -50,6 +52,30 @@ public interface IResultArchiveStoreDirectoryService {
     
     IRunResult getRunById(@NotNull String runId) throws ResultArchiveStoreException;
 
+    /**
+     * Discard a batch of runs from this store.
+     *
+     * The default implementation discards the runs one at a time, stores that can delete
+     * many runs in one request should override it.
+     *
+     * @param runs the runs to discard, all of which were returned by this store
+     * @return the number of runs that were discarded. Runs that could not be discarded are
+     *         logged and not counted, so they can be retried later.
+     * @throws ResultArchiveStoreException if the store could not be accessed at all
+     */
+    default int discardRuns(@NotNull List<IRunResult> runs) throws ResultArchiveStoreException {
+        int discardedCount = 0;
+        for (IRunResult run : runs) {
+            try {
+                run.discard();
+                discardedCount++;
+            } catch (ResultArchiveStoreException e) {
+                LogFactory.getLog(getClass()).error("Error while deleting run " + run.getRunId(), e);
+            }
+        }
+        return discardedCount;
+    }
+
     List<IRunResult> getRunsByRunName(@NotNull String runName) throws ResultArchiveStoreException;
 
     List<IRunResult> getRunsByGroupName(@NotNull String groupName) throws ResultArchiveStoreException;
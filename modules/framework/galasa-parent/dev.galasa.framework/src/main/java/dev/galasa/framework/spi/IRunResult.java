@@ -5,7 +5,9 @@
  */
 package dev.galasa.framework.spi;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
 import dev.galasa.framework.spi.teststructure.TestStructure;
@@ -16,6 +18,20 @@ public interface IRunResult {
 
     TestStructure getTestStructure() throws ResultArchiveStoreException;
 
+    /**
+     * Get the parts of the test structure that runs are searched and sorted by. This may leave out
+     * other parts of the test structure, such as the test methods.
+     *
+     * The default implementation returns the full test structure, stores that keep a summary of
+     * each run apart from its test structure should override it so runs can be sorted cheaply.
+     *
+     * @return The summary of the run's test structure
+     * @throws ResultArchiveStoreException if there's an error reading the summary
+     */
+    default TestStructure getSummaryTestStructure() throws ResultArchiveStoreException {
+        return getTestStructure();
+    }
+
     Path getArtifactsRoot() throws ResultArchiveStoreException;
 
     String getLog() throws ResultArchiveStoreException;
@@ -29,6 +45,38 @@ public interface IRunResult {
      */
     void streamLog(OutputStream outputStream) throws ResultArchiveStoreException;
 
+    /**
+     * Stream the last few lines of the run log directly to an OutputStream.
+     * This lets clients show the end of a long, or still running, test without reading the whole log.
+     *
+     * The default implementation loads the whole log, stores that can read the end of a log more
+     * cheaply should override it.
+     *
+     * @param outputStream The stream to write log content to
+     * @param lineCount The number of lines to write from the end of the log
+     * @throws ResultArchiveStoreException if there's an error accessing the log
+     */
+    default void streamLogTail(OutputStream outputStream, int lineCount) throws ResultArchiveStoreException {
+        String log = getLog();
+        if (log == null || log.isEmpty() || lineCount <= 0) {
+            return;
+        }
+
+        String[] lines = log.split("\n");
+        int firstLine = Math.max(0, lines.length - lineCount);
+        try {
+            for (int i = firstLine; i < lines.length; i++) {
+                if (i > firstLine) {
+                    outputStream.write('\n');
+                }
+                outputStream.write(lines[i].getBytes(StandardCharsets.UTF_8));
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new ResultArchiveStoreException("Error streaming the end of the run log", e);
+        }
+    }
+
     /**
      * Get the size of the run log in bytes without loading it into memory.
      * This is useful for setting Content-Length headers without reading the entire log.
@@ -7,4 +7,10 @@ package dev.galasa.framework.spi;
 
 public interface IShuttableFramework extends IFramework {
     public void shutdown() throws FrameworkException ;
+
+    /**
+     * Waits for anything logged so far in this test run to be written to the run log in the RAS,
+     * so the RAS run log line count is up to date.
+     */
+    public void flushRunLog();
 }
@@ -5,8 +5,16 @@
  */
 package dev.galasa.framework.spi.ras;
 
+import java.util.Comparator;
+import java.util.Set;
+
+import dev.galasa.framework.spi.teststructure.TestStructure;
+
 public class RasSortField {
 
+    private static final Set<String> TEST_STRUCTURE_SORT_FIELDS = Set.of(
+        "queued", "starttime", "endtime", "runname", "testname", "bundle", "requestor", "status", "result");
+
     private String fieldName;
     private String sortDirection;
 
@@ -30,4 +38,85 @@ public class RasSortField {
     public void setSortDirection(String sortOrder) {
         this.sortDirection = sortOrder;
     }
+
+    public boolean isDescending() {
+        return "desc".equalsIgnoreCase(sortDirection);
+    }
+
+    /**
+     * @return the value of this sort field in the given test structure, or null if the test structure
+     *         has no value for it or the field is not one that test structures can be sorted by
+     */
+    public Comparable<?> getSortKey(TestStructure testStructure) {
+        Comparable<?> sortKey;
+        switch (getLowerCaseFieldName()) {
+            case "queued":
+                sortKey = testStructure.getQueued();
+                break;
+            case "starttime":
+                sortKey = testStructure.getStartTime();
+                break;
+            case "endtime":
+                sortKey = testStructure.getEndTime();
+                break;
+            case "runname":
+                sortKey = testStructure.getRunName();
+                break;
+            case "testname":
+                sortKey = testStructure.getTestName();
+                break;
+            case "bundle":
+                sortKey = testStructure.getBundle();
+                break;
+            case "requestor":
+                sortKey = testStructure.getRequestor();
+                break;
+            case "status":
+                sortKey = testStructure.getStatus();
+                break;
+            case "result":
+                sortKey = testStructure.getResult();
+                break;
+            default:
+                sortKey = null;
+        }
+        return sortKey;
+    }
+
+    /**
+     * @return a comparator that orders the sort keys of test structures in this sort direction, with
+     *         missing values ordered before all others when ascending, or null if the field is not
+     *         one that test structures can be sorted by
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Comparator<Comparable<?>> getSortKeyComparator() {
+        Comparator<Comparable<?>> comparator = null;
+        if (TEST_STRUCTURE_SORT_FIELDS.contains(getLowerCaseFieldName())) {
+            // The sort keys of a field are all of the same type, so can be compared with each other
+            Comparator<Comparable> naturalOrder = Comparator.naturalOrder();
+            comparator = (Comparator) Comparator.nullsFirst(naturalOrder);
+            if (isDescending()) {
+                comparator = comparator.reversed();
+            }
+        }
+        return comparator;
+    }
+
+    /**
+     * @return a comparator that orders test structures by this sort field in this sort direction,
+     *         with missing values ordered before all others when ascending, or null if the field
+     *         is not one that test structures can be sorted by
+     */
+    public Comparator<TestStructure> getTestStructureComparator() {
+        Comparator<TestStructure> comparator = null;
+        Comparator<Comparable<?>> sortKeyComparator = getSortKeyComparator();
+        if (sortKeyComparator != null) {
+            comparator = Comparator.comparing(this::getSortKey, sortKeyComparator);
+        }
+        return comparator;
+    }
+
+    private String getLowerCaseFieldName() {
+        return (fieldName == null) ? "" : fieldName.toLowerCase();
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.teststructure;
+
+import java.time.Instant;
+
+/**
+ * How long one phase of a test run took. Phases that are run by a Manager,
+ * such as provisioning, also record the name of the Manager, and phases that
+ * run a test method record the name of the method.
+ */
+public class TestPhaseTiming {
+
+    public static final String PHASE_BUNDLE_LOAD        = "bundleLoad";
+    public static final String PHASE_MANAGER_INITIALISE = "managerInitialise";
+    public static final String PHASE_PROVISION_GENERATE = "provisionGenerate";
+    public static final String PHASE_PROVISION_BUILD    = "provisionBuild";
+    public static final String PHASE_PROVISION_START    = "provisionStart";
+    public static final String PHASE_PROVISION_STOP     = "provisionStop";
+    public static final String PHASE_PROVISION_DISCARD  = "provisionDiscard";
+    public static final String PHASE_RUN_LOG_FLUSH      = "runLogFlush";
+    public static final String PHASE_RAS_FLUSH          = "rasFlush";
+    public static final String PHASE_DSS_CLEANUP        = "dssCleanup";
+
+    // Recorded by galasa-boot while it starts the framework, before the test runner is called
+    public static final String PHASE_BOOT_FRAMEWORK_START = "bootFrameworkStart";
+    public static final String PHASE_BOOT_REPOSITORY_LOAD = "bootRepositoryLoad";
+    public static final String PHASE_BOOT_BUNDLE_LOAD     = "bootBundleLoad";
+
+    private String  phase;
+    private String  manager;
+    private String  method;
+
+    private Instant startTime;
+    private long    durationMillis;
+
+    private boolean failed;
+
+    public TestPhaseTiming() {
+    }
+
+    public TestPhaseTiming(String phase, String manager, Instant startTime, long durationMillis, boolean failed) {
+        this.phase = phase;
+        this.manager = manager;
+        this.startTime = startTime;
+        this.durationMillis = durationMillis;
+        this.failed = failed;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public String getManager() {
+        return manager;
+    }
+
+    public void setManager(String manager) {
+        this.manager = manager;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
@@ -47,6 +47,8 @@ public class TestStructure {
     
     private Long             logSize;
 
+    private List<TestPhaseTiming> phaseTimings;
+
     private Set<String>      tags = new HashSet<String>();
 
     public TestStructure() {
@@ -87,6 +89,10 @@ public class TestStructure {
                 this.artifactRecordIds.addAll(source.artifactRecordIds);
             }
             this.logSize = source.logSize;
+            if (source.phaseTimings != null) {
+                this.phaseTimings = new ArrayList<TestPhaseTiming>();
+                this.phaseTimings.addAll(source.phaseTimings);
+            }
             if (source.tags != null ) {
                 this.tags = new HashSet<String>();
                 this.tags.addAll(source.tags);
@@ -317,6 +323,30 @@ public class TestStructure {
         this.logSize = logSize;
     }
 
+    public List<TestPhaseTiming> getPhaseTimings() {
+        return phaseTimings;
+    }
+
+    public void setPhaseTimings(List<TestPhaseTiming> phaseTimings) {
+        this.phaseTimings = phaseTimings;
+    }
+
+    public void addPhaseTiming(TestPhaseTiming phaseTiming) {
+        if (this.phaseTimings == null) {
+            this.phaseTimings = new ArrayList<TestPhaseTiming>();
+        }
+        this.phaseTimings.add(phaseTiming);
+    }
+
+    public void addPhaseTimings(List<TestPhaseTiming> additionalPhaseTimings) {
+        if (additionalPhaseTimings != null && !additionalPhaseTimings.isEmpty()) {
+            if (this.phaseTimings == null) {
+                this.phaseTimings = new ArrayList<TestPhaseTiming>();
+            }
+            this.phaseTimings.addAll(additionalPhaseTimings);
+        }
+    }
+
     public void normalise() {
         if (this.status == null) {
             this.status = "unknown";
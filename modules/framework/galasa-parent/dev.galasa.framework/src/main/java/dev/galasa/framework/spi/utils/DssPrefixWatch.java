@@ -0,0 +1,131 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.utils;
+
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+
+/**
+ * A watch on the DSS properties which start with a prefix, for services that keep their
+ * own copy of those properties up to date from the changes they are told about.
+ *
+ * The DSS closes a watch when it is interrupted, and any changes made until the watch is
+ * registered again are missed. So the owner of the watch calls {@link #rewatchIfLost()}
+ * before using the changes it has been told about, and re-reads the properties from the
+ * DSS when that returns true, and for as long as {@link #isWatching()} returns false.
+ * If the watch can't be registered when it is started, it is treated as being lost, so
+ * it is tried again in the same way.
+ *
+ * Changes and interruptions are passed on to the given watcher, on the DSS watch thread.
+ */
+public class DssPrefixWatch implements IDynamicStatusStoreWatcher {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final IDynamicStatusStoreService dss;
+    private final String keyPrefix;
+    private final IDynamicStatusStoreWatcher watcher;
+
+    private volatile boolean isStarted = false;
+    private volatile boolean isWatchLost = false;
+    private volatile UUID watchId;
+
+    public DssPrefixWatch(IDynamicStatusStoreService dss, String keyPrefix, IDynamicStatusStoreWatcher watcher) {
+        this.dss = dss;
+        this.keyPrefix = keyPrefix;
+        this.watcher = watcher;
+    }
+
+    /**
+     * Start watching the DSS. If the watch can't be registered, the exception is thrown and
+     * the watch is tried again the next time {@link #rewatchIfLost()} is called.
+     */
+    public synchronized void start() throws DynamicStatusStoreException {
+        this.isStarted = true;
+        this.isWatchLost = false;
+        try {
+            this.watchId = dss.watchPrefix(this, keyPrefix);
+        } catch (DynamicStatusStoreException e) {
+            this.isWatchLost = true;
+            throw e;
+        }
+    }
+
+    public synchronized void stop() throws DynamicStatusStoreException {
+        UUID currentWatchId = this.watchId;
+        this.isStarted = false;
+        this.isWatchLost = false;
+        this.watchId = null;
+        if (currentWatchId != null) {
+            dss.unwatch(currentWatchId);
+        }
+    }
+
+    /**
+     * @return true if the watch has been started and not stopped, even if it is currently lost
+     */
+    public boolean isStarted() {
+        return this.isStarted;
+    }
+
+    /**
+     * @return true if the watch is registered with the DSS and has not been interrupted since,
+     *         so the changes passed on to the watcher can be relied on
+     */
+    public boolean isWatching() {
+        return this.isStarted && this.watchId != null && !this.isWatchLost;
+    }
+
+    /**
+     * Register the watch again if it has been interrupted, or could not be registered before.
+     *
+     * @return true if the watch was lost, so changes may have been missed and the owner of the
+     *         watch should re-read the properties from the DSS
+     */
+    public synchronized boolean rewatchIfLost() {
+        boolean isLost = this.isStarted && this.isWatchLost;
+        if (isLost) {
+            // Reset the flag first, so that an interruption of the new watch is not missed. Changes made
+            // before the new watch is registered are picked up by the owner re-reading the properties.
+            this.isWatchLost = false;
+
+            UUID lostWatchId = this.watchId;
+            if (lostWatchId != null) {
+                try {
+                    dss.unwatch(lostWatchId);
+                } catch (DynamicStatusStoreException e) {
+                    logger.debug("Unable to remove the interrupted DSS watch on '" + keyPrefix + "' properties", e);
+                }
+            }
+
+            try {
+                this.watchId = dss.watchPrefix(this, keyPrefix);
+                logger.info("Watching the DSS for changes to '" + keyPrefix + "' properties again");
+            } catch (DynamicStatusStoreException e) {
+                logger.warn("Unable to watch the DSS for changes to '" + keyPrefix + "' properties again, it will be tried again later", e);
+                this.isWatchLost = true;
+            }
+        }
+        return isLost;
+    }
+
+    @Override
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        watcher.propertyModified(key, event, oldValue, newValue);
+    }
+
+    @Override
+    public void watchInterrupted(Throwable cause) {
+        this.isWatchLost = true;
+        watcher.watchInterrupted(cause);
+    }
+}
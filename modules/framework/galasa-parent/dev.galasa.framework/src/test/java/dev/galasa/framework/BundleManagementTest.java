@@ -0,0 +1,266 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.felix.bundlerepository.Requirement;
+import org.apache.felix.bundlerepository.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Version;
+
+import dev.galasa.framework.mocks.MockBundle;
+import dev.galasa.framework.mocks.MockBundleContext;
+import dev.galasa.framework.mocks.MockRepository;
+import dev.galasa.framework.mocks.MockRepositoryAdmin;
+import dev.galasa.framework.mocks.MockResolver;
+import dev.galasa.framework.mocks.MockResource;
+
+public class BundleManagementTest {
+
+    private static final String BUNDLE_NAME = "dev.galasa.example.manager";
+
+    // Reference URIs are installed by BundleManagement itself rather than by the resolver
+    private static final String BUNDLE_LOCATION = "reference:file:/bundles/dev.galasa.example.manager-0.2.0.jar";
+
+    private Path cacheDirectory;
+
+    class MockInstallableBundle extends MockBundle {
+
+        private int state = Bundle.INSTALLED;
+        private final boolean isStartable;
+
+        public MockInstallableBundle(String symbolicName, boolean isStartable) {
+            super(new HashMap<>(), symbolicName);
+            this.isStartable = isStartable;
+        }
+
+        @Override
+        public int getState() {
+            return state;
+        }
+
+        @Override
+        public void start() throws BundleException {
+            if (isStartable) {
+                state = Bundle.ACTIVE;
+            }
+        }
+
+        @Override
+        public Version getVersion() {
+            return Version.emptyVersion;
+        }
+    }
+
+    class MockInstallingBundleContext extends MockBundleContext {
+
+        private final Map<String, String> properties = new HashMap<>();
+        private final List<Bundle> loadedBundles;
+        private final List<String> unstartableLocations = new ArrayList<>();
+        private final List<String> installedLocations = new ArrayList<>();
+
+        public MockInstallingBundleContext() {
+            this(new ArrayList<>());
+        }
+
+        private MockInstallingBundleContext(List<Bundle> loadedBundles) {
+            super(new HashMap<>(), loadedBundles);
+            this.loadedBundles = loadedBundles;
+            properties.put(BundleManagement.OBR_RESOLUTION_CACHE_DIR_PROP, cacheDirectory.toString());
+        }
+
+        @Override
+        public String getProperty(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Bundle installBundle(String location) throws BundleException {
+            installedLocations.add(location);
+
+            // The bundles in this test are installed from locations that contain the bundle's name
+            String symbolicName = location.contains(BUNDLE_NAME) ? BUNDLE_NAME : location;
+            Bundle bundle = new MockInstallableBundle(symbolicName, !unstartableLocations.contains(location));
+            loadedBundles.add(bundle);
+            return bundle;
+        }
+    }
+
+    class MockObrResource extends MockResource {
+
+        private final String id;
+
+        public MockObrResource(String id, String uri) {
+            super(uri);
+            this.id = id;
+            setSymbolicName(id);
+            setCapabilities(new ArrayList<>());
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Requirement[] getRequirements() {
+            return new Requirement[0];
+        }
+    }
+
+    class MockObrRepository extends MockRepository {
+
+        public MockObrRepository(Resource resource) {
+            super("file:/obr/repository.obr");
+            addResource(resource);
+        }
+
+        @Override
+        public long getLastModified() {
+            return 0;
+        }
+    }
+
+    class MockObrRepositoryAdmin extends MockRepositoryAdmin {
+
+        private final Resource resource;
+        public int discoverResourcesCallCount = 0;
+
+        public MockObrRepositoryAdmin(MockResolver resolver, String bundleLocation) {
+            this(resolver, new MockObrResource(BUNDLE_NAME, bundleLocation));
+        }
+
+        private MockObrRepositoryAdmin(MockResolver resolver, Resource resource) {
+            super(List.of(new MockObrRepository(resource)), resolver);
+            this.resource = resource;
+        }
+
+        @Override
+        public Resource[] discoverResources(String filterExpr) {
+            discoverResourcesCallCount++;
+            return new Resource[] { resource };
+        }
+    }
+
+    @Before
+    public void before() throws IOException {
+        this.cacheDirectory = Files.createTempDirectory("galasa_junit_obr_resolution_");
+    }
+
+    @After
+    public void after() throws IOException {
+        if (this.cacheDirectory != null && Files.exists(this.cacheDirectory)) {
+            FileUtils.deleteDirectory(this.cacheDirectory.toFile());
+        }
+    }
+
+    private List<String> readCacheEntries() throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (var cacheFiles = Files.list(cacheDirectory)) {
+            for (Path cacheFile : (Iterable<Path>) cacheFiles::iterator) {
+                entries.add(new String(Files.readAllBytes(cacheFile), StandardCharsets.UTF_8).trim());
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    public void testLoadBundleResolvesAndRecordsTheResolutionOnACacheMiss() throws Exception {
+        // Given...
+        MockInstallingBundleContext bundleContext = new MockInstallingBundleContext();
+        MockResolver resolver = new MockResolver(true);
+        MockObrRepositoryAdmin repositoryAdmin = new MockObrRepositoryAdmin(resolver, BUNDLE_LOCATION);
+
+        // When...
+        BundleManagement.loadBundle(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // Then...
+        assertThat(repositoryAdmin.discoverResourcesCallCount).isEqualTo(1);
+        assertThat(bundleContext.installedLocations).containsExactly(BUNDLE_LOCATION);
+        assertThat(BundleManagement.isBundleActive(bundleContext, BUNDLE_NAME)).isTrue();
+        assertThat(readCacheEntries()).containsExactly(BUNDLE_LOCATION);
+    }
+
+    @Test
+    public void testLoadBundleInstallsCachedResolutionWithoutResolving() throws Exception {
+        // Given...
+        // A first run resolves the bundle and records the resolution
+        BundleManagement.loadBundle(new MockObrRepositoryAdmin(new MockResolver(true), BUNDLE_LOCATION),
+            new MockInstallingBundleContext(), BUNDLE_NAME);
+
+        MockInstallingBundleContext bundleContext = new MockInstallingBundleContext();
+        MockResolver resolver = new MockResolver(true);
+        MockObrRepositoryAdmin repositoryAdmin = new MockObrRepositoryAdmin(resolver, BUNDLE_LOCATION);
+
+        // When...
+        BundleManagement.loadBundle(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // Then...
+        assertThat(repositoryAdmin.discoverResourcesCallCount).isEqualTo(0);
+        assertThat(resolver.getRequiredResources()).isEmpty();
+        assertThat(bundleContext.installedLocations).containsExactly(BUNDLE_LOCATION);
+        assertThat(BundleManagement.isBundleActive(bundleContext, BUNDLE_NAME)).isTrue();
+    }
+
+    @Test
+    public void testLoadBundleResolvesAgainWhenTheObrContentsChange() throws Exception {
+        // Given...
+        BundleManagement.loadBundle(new MockObrRepositoryAdmin(new MockResolver(true), BUNDLE_LOCATION),
+            new MockInstallingBundleContext(), BUNDLE_NAME);
+
+        String newBundleLocation = "reference:file:/bundles/dev.galasa.example.manager-0.3.0.jar";
+        MockInstallingBundleContext bundleContext = new MockInstallingBundleContext();
+        MockObrRepositoryAdmin repositoryAdmin = new MockObrRepositoryAdmin(new MockResolver(true), newBundleLocation);
+
+        // When...
+        BundleManagement.loadBundle(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // Then...
+        assertThat(repositoryAdmin.discoverResourcesCallCount).isEqualTo(1);
+        assertThat(bundleContext.installedLocations).containsExactly(newBundleLocation);
+        assertThat(readCacheEntries()).containsExactlyInAnyOrder(BUNDLE_LOCATION, newBundleLocation);
+    }
+
+    @Test
+    public void testLoadBundleResolvesAgainWhenCachedBundlesDoNotActivate() throws Exception {
+        // Given...
+        MockInstallingBundleContext bundleContext = new MockInstallingBundleContext();
+        MockObrRepositoryAdmin repositoryAdmin = new MockObrRepositoryAdmin(new MockResolver(true), BUNDLE_LOCATION);
+
+        // The cache has an entry for the bundle whose bundles don't become active
+        String staleBundleLocation = "reference:file:/bundles/dev.galasa.example.manager-0.1.0.jar";
+        bundleContext.unstartableLocations.add(staleBundleLocation);
+        ObrResolutionCache resolutionCache = new ObrResolutionCache(cacheDirectory.toFile());
+        String cacheKey = resolutionCache.calculateKey(repositoryAdmin.listRepositories(), bundleContext.getBundles(), BUNDLE_NAME);
+        resolutionCache.putBundleLocations(cacheKey, List.of(staleBundleLocation));
+
+        // When...
+        BundleManagement.loadBundle(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // Then...
+        assertThat(repositoryAdmin.discoverResourcesCallCount).isEqualTo(1);
+        assertThat(bundleContext.installedLocations).containsExactly(staleBundleLocation, BUNDLE_LOCATION);
+        assertThat(BundleManagement.isBundleActive(bundleContext, BUNDLE_NAME)).isTrue();
+
+        // The stale entry has been replaced by the new resolution
+        assertThat(resolutionCache.getBundleLocations(cacheKey)).containsExactly(BUNDLE_LOCATION);
+    }
+}
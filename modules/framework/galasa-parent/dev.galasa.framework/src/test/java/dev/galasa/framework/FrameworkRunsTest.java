@@ -11,6 +11,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +32,7 @@ import dev.galasa.framework.mocks.MockFramework;
 import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.Result;
@@ -1419,4 +1421,101 @@ public class FrameworkRunsTest {
         assertThat(dssProps).hasSize(1);
         assertThat(dssProps.get("run." + runName + ".status")).isEqualTo(TestRunLifecycleStatus.RUNNING.toString());
     }
+
+    @Test
+    public void testGetAllRunsReadsAllRunsInASingleDssScan() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        int runCount = 10000;
+        for (int i = 1; i <= runCount; i++) {
+            String runName = "U" + i;
+            dssProps.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.STATUS, TestRunLifecycleStatus.QUEUED.toString());
+            dssProps.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.TEST, "mybundle/mytest" + i);
+            dssProps.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.GROUP, "group" + i);
+        }
+
+        List<String> prefixesRead = new ArrayList<>();
+        MockDSSStore mockDss = new MockDSSStore(dssProps) {
+            @Override
+            public Map<String, String> getPrefix(String keyPrefix) throws DynamicStatusStoreException {
+                prefixesRead.add(keyPrefix);
+                return super.getPrefix(keyPrefix);
+            }
+
+            @Override
+            public Collection<String> getPrefixKeysOnly(String keyPrefix) throws DynamicStatusStoreException {
+                prefixesRead.add(keyPrefix);
+                return super.getPrefixKeysOnly(keyPrefix);
+            }
+        };
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getAllRuns();
+
+        // Then...
+        assertThat(runs).hasSize(runCount);
+        assertThat(prefixesRead).containsExactly("run.");
+
+        IRun run = null;
+        for (IRun possibleRun : runs) {
+            if (possibleRun.getName().equals("U10")) {
+                run = possibleRun;
+            }
+        }
+        assertThat(run).isNotNull();
+        assertThat(run.getTestBundleName()).isEqualTo("mybundle");
+        assertThat(run.getTestClassName()).isEqualTo("mytest10");
+        assertThat(run.getGroup()).isEqualTo("group10");
+    }
+
+    @Test
+    public void testGetRunsByStatusReturnsOnlyRunsInTheGivenStatuses() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.RUNNING.toString());
+        dssProps.put("run.U3.status", TestRunLifecycleStatus.WAITING.toString());
+        dssProps.put("run.U4.status", TestRunLifecycleStatus.FINISHED.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getRunsByStatus(TestRunLifecycleStatus.QUEUED, TestRunLifecycleStatus.WAITING);
+
+        // Then...
+        List<String> runNames = new ArrayList<>();
+        for (IRun run : runs) {
+            runNames.add(run.getName());
+        }
+        assertThat(runNames).containsExactlyInAnyOrder("U1", "U3");
+    }
+
+    @Test
+    public void testGetQueuedRunsReturnsOnlyQueuedRuns() throws Exception {
+        // Given...
+        Map<String, String> dssProps = new HashMap<>();
+        dssProps.put("run.U1.status", TestRunLifecycleStatus.QUEUED.toString());
+        dssProps.put("run.U2.status", TestRunLifecycleStatus.RUNNING.toString());
+
+        MockDSSStore mockDss = new MockDSSStore(dssProps);
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.getQueuedRuns();
+
+        // Then...
+        assertThat(runs).hasSize(1);
+        assertThat(runs.get(0).getName()).isEqualTo("U1");
+    }
 }
@@ -9,11 +9,13 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.*;
 
 import org.junit.Test;
 
 import dev.galasa.framework.mocks.*;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 
 public class TestBaseTestRunner {
     
@@ -45,4 +47,38 @@ public class TestBaseTestRunner {
         assertThat(lines.get(2)).contains("my.prop1","hello");
         assertThat(lines.get(3)).contains("my.prop2","world");
     }
+
+    @Test
+    public void testBootPhaseTimingsArePassedInTheOverrides() throws Exception {
+        // Given...
+        BaseTestRunner runner = new BaseTestRunner();
+
+        Properties overrides = new Properties();
+        overrides.put("framework.boot.phase.timings", "bootFrameworkStart=1000:250,bootRepositoryLoad=1250:40,bootBundleLoad=1290:600");
+
+        // When...
+        List<TestPhaseTiming> timings = runner.getBootPhaseTimings(overrides);
+
+        // Then...
+        assertThat(timings).extracting(TestPhaseTiming::getPhase)
+            .containsExactly(TestPhaseTiming.PHASE_BOOT_FRAMEWORK_START, TestPhaseTiming.PHASE_BOOT_REPOSITORY_LOAD, TestPhaseTiming.PHASE_BOOT_BUNDLE_LOAD);
+        assertThat(timings.get(0).getStartTime()).isEqualTo(Instant.ofEpochMilli(1000));
+        assertThat(timings.get(2).getDurationMillis()).isEqualTo(600);
+        assertThat(timings).noneMatch(TestPhaseTiming::isFailed);
+    }
+
+    @Test
+    public void testInvalidBootPhaseTimingsAreIgnored() throws Exception {
+        // Given...
+        BaseTestRunner runner = new BaseTestRunner();
+
+        Properties overrides = new Properties();
+        overrides.put("framework.boot.phase.timings", "bootFrameworkStart=1000:250,bootRepositoryLoad");
+
+        // When...
+        List<TestPhaseTiming> timings = runner.getBootPhaseTimings(overrides);
+
+        // Then...
+        assertThat(timings).isEmpty();
+    }
 }
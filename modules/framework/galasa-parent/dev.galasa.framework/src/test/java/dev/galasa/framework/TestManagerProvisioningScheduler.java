@@ -0,0 +1,146 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.After;
+import org.junit.Test;
+
+import dev.galasa.framework.spi.AbstractManager;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IManager;
+
+public class TestManagerProvisioningScheduler {
+
+    class MockDependentManager extends AbstractManager {
+
+        private final String name;
+        private final List<IManager> dependencies;
+
+        MockDependentManager(String name, IManager... dependencies) {
+            this.name = name;
+            this.dependencies = List.of(dependencies);
+        }
+
+        @Override
+        public boolean areYouProvisionalDependentOn(@NotNull IManager otherManager) {
+            return dependencies.contains(otherManager);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private ManagerProvisioningScheduler scheduler;
+
+    private List<String> calledManagers = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void after() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testManagersThatDoNotDependOnEachOtherAreProvisionedAtTheSameTime() throws Exception {
+        // Given...
+        IManager manager1 = new MockDependentManager("manager1");
+        IManager manager2 = new MockDependentManager("manager2");
+        IManager manager3 = new MockDependentManager("manager3");
+        scheduler = new ManagerProvisioningScheduler(List.of(manager1, manager2, manager3), 3);
+
+        // Each manager waits until all the managers have started, so they can only finish if they run at the same time
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        // When...
+        scheduler.runPhase("provision build", manager -> {
+            allStarted.countDown();
+            try {
+                allStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            calledManagers.add(manager.toString());
+        });
+
+        // Then...
+        assertThat(allStarted.getCount()).isEqualTo(0);
+        assertThat(calledManagers).containsExactlyInAnyOrder("manager1", "manager2", "manager3");
+    }
+
+    @Test
+    public void testManagerIsOnlyProvisionedAfterTheManagersItDependsOn() throws Exception {
+        // Given...
+        IManager zosManager = new MockDependentManager("zos");
+        IManager httpManager = new MockDependentManager("http");
+        IManager cicsManager = new MockDependentManager("cics", zosManager, httpManager);
+        IManager cicsTerminalManager = new MockDependentManager("cicsterminal", cicsManager);
+        scheduler = new ManagerProvisioningScheduler(List.of(zosManager, httpManager, cicsManager, cicsTerminalManager), 4);
+
+        // When...
+        scheduler.runPhase("provision generate", manager -> calledManagers.add(manager.toString()));
+
+        // Then...
+        assertThat(calledManagers).hasSize(4);
+        assertThat(calledManagers.indexOf("cics")).isGreaterThan(calledManagers.indexOf("zos"));
+        assertThat(calledManagers.indexOf("cics")).isGreaterThan(calledManagers.indexOf("http"));
+        assertThat(calledManagers.indexOf("cicsterminal")).isGreaterThan(calledManagers.indexOf("cics"));
+        assertThat(scheduler.getDependencies(cicsManager)).containsExactlyInAnyOrder(zosManager, httpManager);
+    }
+
+    @Test
+    public void testFailingManagerStopsDependentManagersAndThrowsTheFailure() throws Exception {
+        // Given...
+        IManager failingManager = new MockDependentManager("failing");
+        IManager dependentManager = new MockDependentManager("dependent", failingManager);
+        scheduler = new ManagerProvisioningScheduler(List.of(failingManager, dependentManager), 2);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> scheduler.runPhase("provision start", manager -> {
+            calledManagers.add(manager.toString());
+            if (manager == failingManager) {
+                throw new FrameworkException("simulated provisioning failure");
+            }
+        }));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(FrameworkException.class).hasMessage("simulated provisioning failure");
+        assertThat(calledManagers).containsExactly("failing");
+    }
+
+    @Test
+    public void testTeardownRunsInReverseOrderAndContinuesAfterAFailure() throws Exception {
+        // Given...
+        IManager zosManager = new MockDependentManager("zos");
+        IManager cicsManager = new MockDependentManager("cics", zosManager);
+        IManager cicsTerminalManager = new MockDependentManager("cicsterminal", cicsManager);
+        scheduler = new ManagerProvisioningScheduler(List.of(zosManager, cicsManager, cicsTerminalManager), 3);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> scheduler.runTeardownPhase("provision discard", manager -> {
+            calledManagers.add(manager.toString());
+            if (manager == cicsManager) {
+                throw new IllegalStateException("simulated discard failure");
+            }
+        }));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(IllegalStateException.class).hasMessage("simulated discard failure");
+        assertThat(calledManagers).containsExactly("cicsterminal", "cics", "zos");
+    }
+}
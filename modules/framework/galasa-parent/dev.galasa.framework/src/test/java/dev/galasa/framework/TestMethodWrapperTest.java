@@ -27,6 +27,7 @@ import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.language.GalasaMethod;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 
 public class TestMethodWrapperTest {
@@ -83,6 +84,10 @@ public class TestMethodWrapperTest {
     }
 
     private TestClassWrapper createTestClassWrapper() throws Exception {
+        return createTestClassWrapper(new TestStructure());
+    }
+
+    private TestClassWrapper createTestClassWrapper(TestStructure testStructure) throws Exception {
 
         IConfigurationPropertyStoreService cps = new MockIConfigurationPropertyStoreService();
         MockIDynamicStatusStoreService dss = new MockIDynamicStatusStoreService();
@@ -94,8 +99,6 @@ public class TestMethodWrapperTest {
 
 
 
-        TestStructure testStructure = new TestStructure();
-
         String testBundle = "my/testbundle";
         String runName = "U12345";
         TestClassWrapper testClassWrapper = new TestClassWrapper(
@@ -196,6 +199,48 @@ public class TestMethodWrapperTest {
         assertThat(mockTestClass.afterMethodCallCount).isEqualTo(1);
     }
 
+    @Test
+    public void testInvokedMethodsAreTimedInTheTestStructure() throws Exception {
+        // Given...
+        Class<?> mockClass = MockTestClass.class;
+        Method beforeMethod = mockClass.getMethod("MockBeforeMethod");
+        Method testMethod = mockClass.getMethod("MockTestMethod");
+        Method afterMethod = mockClass.getMethod("MockAfterMethod");
+
+        ArrayList<GenericMethodWrapper> beforeMethods = new ArrayList<>();
+        beforeMethods.add(new GenericMethodWrapper(beforeMethod, mockClass, Type.Before));
+
+        ArrayList<GenericMethodWrapper> afterMethods = new ArrayList<>();
+        afterMethods.add(new GenericMethodWrapper(afterMethod, mockClass, Type.After));
+
+        TestMethodWrapper testMethodWrapper = new TestMethodWrapper(testMethod, MockTestClass.class, beforeMethods, afterMethods);
+        TestStructure testStructure = new TestStructure();
+        TestClassWrapper testClassWrapper = createTestClassWrapper(testStructure);
+
+        MockTestRunManagersExtended mockTestRunManagers = new MockTestRunManagersExtended(false, null);
+        mockTestRunManagers.setTestMethodResultToReturn(Result.passed());
+
+        MockTestClass mockTestClass = new MockTestClass(new ArrayList<String>());
+
+        // When...
+        testMethodWrapper.initialiseTestMethodStructure();
+        testMethodWrapper.invoke(mockTestRunManagers, mockTestClass, false, testClassWrapper);
+
+        // Then...
+        assertThat(testStructure.getPhaseTimings()).extracting("phase", "method", "failed")
+            .containsExactly(
+                tuple("Before", "MockBeforeMethod", false),
+                tuple(TestPhaseTiming.PHASE_RUN_LOG_FLUSH, "MockBeforeMethod", false),
+                tuple("Test", "MockTestMethod", false),
+                tuple(TestPhaseTiming.PHASE_RUN_LOG_FLUSH, "MockTestMethod", false),
+                tuple("After", "MockAfterMethod", false),
+                tuple(TestPhaseTiming.PHASE_RUN_LOG_FLUSH, "MockAfterMethod", false));
+        assertThat(testStructure.getPhaseTimings()).allSatisfy(phaseTiming -> {
+            assertThat(phaseTiming.getStartTime()).isNotNull();
+            assertThat(phaseTiming.getDurationMillis()).isGreaterThanOrEqualTo(0);
+        });
+    }
+
     @Test
     public void testCheckForReasonToIgnoreTestMethodOnlyRunsOnce() throws Exception {
         // Given...
@@ -0,0 +1,332 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.Test;
+
+import dev.galasa.framework.internal.dss.FrameworkDynamicStatusStoreService;
+import dev.galasa.framework.mocks.MockFileSystem;
+import dev.galasa.framework.mocks.MockFramework;
+import dev.galasa.framework.mocks.MockIDynamicStatusStoreService;
+import dev.galasa.framework.mocks.MockIResultArchiveStore;
+import dev.galasa.framework.mocks.MockTimeService;
+import dev.galasa.framework.spi.DssSwap;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
+import dev.galasa.framework.spi.IDssAction;
+import dev.galasa.framework.spi.IDynamicStatusStore;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IResultArchiveStore;
+
+public class TestRunHeartbeatServiceTest {
+
+    class MockHeartbeatDss extends MockIDynamicStatusStoreService implements IDynamicStatusStore {
+        private int performActionsCallCount = 0;
+        private boolean isFailing = false;
+
+        @Override
+        public boolean putSwap(@NotNull String key, String oldValue, @NotNull String newValue) {
+            boolean isSwapped = false;
+            if (Objects.equals(data.get(key), oldValue)) {
+                data.put(key, newValue);
+                isSwapped = true;
+            }
+            return isSwapped;
+        }
+
+        @Override
+        public void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
+            performActionsCallCount++;
+            if (isFailing) {
+                throw new DynamicStatusStoreException("simulating an unavailable DSS");
+            }
+
+            for (IDssAction action : actions) {
+                DssSwap swap = (DssSwap) action;
+                if (!Objects.equals(data.get(swap.getKey()), swap.getOldValue())) {
+                    throw new DynamicStatusStoreMatchException("simulating a swap mismatch");
+                }
+            }
+
+            for (IDssAction action : actions) {
+                DssSwap swap = (DssSwap) action;
+                data.put(swap.getKey(), swap.getNewValue());
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+
+    class MockLockCheckingResultArchiveStore extends MockIResultArchiveStore {
+        private final Object lock;
+        private int flushCallCount = 0;
+        private boolean isFlushedWhileLocked = false;
+
+        MockLockCheckingResultArchiveStore(Object lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void flush() {
+            flushCallCount++;
+            isFlushedWhileLocked = isFlushedWhileLocked || Thread.holdsLock(lock);
+        }
+    }
+
+    class MockHeartbeatFramework extends MockFramework {
+        private final IDynamicStatusStoreService dss;
+        private final IResultArchiveStore ras;
+
+        MockHeartbeatFramework(IDynamicStatusStoreService dss, String runName) throws Exception {
+            this(dss, new MockIResultArchiveStore(runName, new MockFileSystem()), runName);
+        }
+
+        MockHeartbeatFramework(IDynamicStatusStoreService dss, IResultArchiveStore ras, String runName) throws Exception {
+            this.dss = dss;
+            this.ras = ras;
+            setTestRunName(runName);
+        }
+
+        @Override
+        public @NotNull IDynamicStatusStoreService getDynamicStatusStoreService(@NotNull String namespace) {
+            return dss;
+        }
+
+        @Override
+        public @NotNull IResultArchiveStore getResultArchiveStore() {
+            return ras;
+        }
+    }
+
+    class MockTestRunHeartbeat extends TestRunHeartbeat {
+        private boolean isHeartbeatLost = false;
+
+        MockTestRunHeartbeat(IDynamicStatusStoreService dss, String runName, TestRunHeartbeatService heartbeatService) throws Exception {
+            super(new MockHeartbeatFramework(dss, runName), heartbeatService);
+        }
+
+        MockTestRunHeartbeat(MockHeartbeatFramework framework, TestRunHeartbeatService heartbeatService) throws Exception {
+            super(framework, heartbeatService);
+        }
+
+        @Override
+        protected void heartbeatLost() {
+            isHeartbeatLost = true;
+        }
+    }
+
+    private MockTestRunHeartbeat startHeartbeat(MockHeartbeatDss dss, String runName, TestRunHeartbeatService heartbeatService) throws Exception {
+        MockTestRunHeartbeat heartbeat = new MockTestRunHeartbeat(dss, runName, heartbeatService);
+        heartbeat.start();
+        return heartbeat;
+    }
+
+    @Test
+    public void testHeartbeatsDueTogetherAreWrittenInOneTransaction() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dss = new MockHeartbeatDss();
+
+        startHeartbeat(dss, "U1", heartbeatService);
+        startHeartbeat(dss, "U2", heartbeatService);
+
+        // Started half a second later, but within the coalescing window of the others
+        mockTimeService.setCurrentTime(startTime.plusMillis(500));
+        startHeartbeat(dss, "U3", heartbeatService);
+
+        // When...
+        mockTimeService.setCurrentTime(startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        String expectedHeartbeat = mockTimeService.now().toString();
+        assertThat(dss.performActionsCallCount).isEqualTo(1);
+        assertThat(dss.data)
+            .containsEntry("run.U1.heartbeat", expectedHeartbeat)
+            .containsEntry("run.U2.heartbeat", expectedHeartbeat)
+            .containsEntry("run.U3.heartbeat", expectedHeartbeat);
+        assertThat(heartbeatService.getMissedHeartbeatCount()).isZero();
+        assertThat(heartbeatService.getLateHeartbeatCount()).isZero();
+    }
+
+    @Test
+    public void testHeartbeatsOfRunsWithTheirOwnDssServiceForTheSameStoreAreWrittenInOneTransaction() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dssStore = new MockHeartbeatDss();
+
+        // Like the framework, each run is given a new DSS service for the same store and namespace
+        for (String runName : new String[] { "U1", "U2", "U3" }) {
+            IDynamicStatusStoreService dss = new FrameworkDynamicStatusStoreService(null, dssStore, "framework");
+            new MockTestRunHeartbeat(dss, runName, heartbeatService).start();
+        }
+
+        // When...
+        mockTimeService.setCurrentTime(startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        String expectedHeartbeat = mockTimeService.now().toString();
+        assertThat(dssStore.performActionsCallCount).isEqualTo(1);
+        assertThat(dssStore.data)
+            .containsEntry("dss.framework.run.U1.heartbeat", expectedHeartbeat)
+            .containsEntry("dss.framework.run.U2.heartbeat", expectedHeartbeat)
+            .containsEntry("dss.framework.run.U3.heartbeat", expectedHeartbeat);
+    }
+
+    @Test
+    public void testRasIsFlushedWithoutHoldingTheLockOnTheService() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dss = new MockHeartbeatDss();
+        MockLockCheckingResultArchiveStore ras = new MockLockCheckingResultArchiveStore(heartbeatService);
+
+        new MockTestRunHeartbeat(new MockHeartbeatFramework(dss, ras, "U1"), heartbeatService).start();
+
+        // When...
+        mockTimeService.setCurrentTime(startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        assertThat(dss.data).containsEntry("run.U1.heartbeat", mockTimeService.now().toString());
+        assertThat(ras.flushCallCount).isEqualTo(2);
+        assertThat(ras.isFlushedWhileLocked).isFalse();
+    }
+
+    @Test
+    public void testHeartbeatsNotYetDueAreNotWritten() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dss = new MockHeartbeatDss();
+
+        startHeartbeat(dss, "U1", heartbeatService);
+
+        // When...
+        mockTimeService.setCurrentTime(startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS / 2));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        assertThat(dss.performActionsCallCount).isZero();
+        assertThat(dss.data).containsEntry("run.U1.heartbeat", startTime.toString());
+    }
+
+    @Test
+    public void testHeartbeatChangedBySomethingElseIsLostWithoutAffectingOtherRuns() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dss = new MockHeartbeatDss();
+
+        MockTestRunHeartbeat heartbeat1 = startHeartbeat(dss, "U1", heartbeatService);
+        MockTestRunHeartbeat heartbeat2 = startHeartbeat(dss, "U2", heartbeatService);
+
+        // Another engine has taken over U2
+        dss.data.put("run.U2.heartbeat", "another engine's heartbeat");
+
+        // When...
+        mockTimeService.setCurrentTime(startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        assertThat(heartbeat1.isHeartbeatLost).isFalse();
+        assertThat(heartbeat2.isHeartbeatLost).isTrue();
+        assertThat(dss.data)
+            .containsEntry("run.U1.heartbeat", mockTimeService.now().toString())
+            .containsEntry("run.U2.heartbeat", "another engine's heartbeat");
+        assertThat(heartbeatService.getRegisteredCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedHeartbeatIsCountedAsMissedAndRetriedSoon() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dss = new MockHeartbeatDss();
+
+        MockTestRunHeartbeat heartbeat = startHeartbeat(dss, "U1", heartbeatService);
+
+        Instant dueTime = startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS);
+        mockTimeService.setCurrentTime(dueTime);
+        dss.isFailing = true;
+
+        // When...
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        assertThat(heartbeatService.getMissedHeartbeatCount()).isEqualTo(1);
+        assertThat(dss.data).containsEntry(TestRunHeartbeatService.MISSED_HEARTBEATS_METRIC, "1");
+        assertThat(heartbeat.getNextHeartbeatDue()).isEqualTo(dueTime.plusMillis(TestRunHeartbeatService.RETRY_INTERVAL_MS));
+        assertThat(heartbeat.isHeartbeatLost).isFalse();
+
+        // When...
+        dss.isFailing = false;
+        mockTimeService.setCurrentTime(dueTime.plusMillis(TestRunHeartbeatService.RETRY_INTERVAL_MS));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        assertThat(dss.data).containsEntry("run.U1.heartbeat", mockTimeService.now().toString());
+        assertThat(heartbeatService.getMissedHeartbeatCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testHeartbeatWrittenLateIsCounted() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dss = new MockHeartbeatDss();
+
+        startHeartbeat(dss, "U1", heartbeatService);
+
+        // When...
+        mockTimeService.setCurrentTime(startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS + TestRunHeartbeatService.LATE_THRESHOLD_MS + 1));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        assertThat(heartbeatService.getLateHeartbeatCount()).isEqualTo(1);
+        assertThat(dss.data).containsEntry(TestRunHeartbeatService.LATE_HEARTBEATS_METRIC, "1");
+        assertThat(dss.data).containsEntry("run.U1.heartbeat", mockTimeService.now().toString());
+    }
+
+    @Test
+    public void testShutdownHeartbeatIsNoLongerWritten() throws Exception {
+        // Given...
+        Instant startTime = Instant.EPOCH;
+        MockTimeService mockTimeService = new MockTimeService(startTime);
+        TestRunHeartbeatService heartbeatService = new TestRunHeartbeatService(mockTimeService, false);
+        MockHeartbeatDss dss = new MockHeartbeatDss();
+
+        MockTestRunHeartbeat heartbeat = startHeartbeat(dss, "U1", heartbeatService);
+
+        // When...
+        heartbeat.shutdown();
+        mockTimeService.setCurrentTime(startTime.plusMillis(TestRunHeartbeatService.HEARTBEAT_INTERVAL_MS));
+        heartbeatService.beatDueHeartbeats();
+
+        // Then...
+        assertThat(heartbeatService.getRegisteredCount()).isZero();
+        assertThat(dss.performActionsCallCount).isZero();
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.Test;
+
+import dev.galasa.framework.TestRunLogShipper.OverflowPolicy;
+import dev.galasa.framework.mocks.MockIResultArchiveStore;
+import dev.galasa.framework.spi.IResultArchiveStore;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+public class TestRunLogShipperTest {
+
+    // Long enough that batches are never shipped because of the delay unless a test asks for it
+    private static final long NO_BATCH_DELAY = 3600000;
+
+    class MockBatchRecordingRas extends MockIResultArchiveStore {
+
+        public List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        public CountDownLatch writeLatch = new CountDownLatch(0);
+        public int failuresToThrow = 0;
+
+        @Override
+        public void writeLog(@NotNull List<String> messages) throws ResultArchiveStoreException {
+            try {
+                writeLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failuresToThrow > 0) {
+                failuresToThrow--;
+                throw new ResultArchiveStoreException("simulated RAS failure");
+            }
+            batches.add(new ArrayList<>(messages));
+        }
+
+        public List<String> getAllMessages() {
+            List<String> messages = new ArrayList<>();
+            synchronized (batches) {
+                for (List<String> batch : batches) {
+                    messages.addAll(batch);
+                }
+            }
+            return messages;
+        }
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).as("timed out waiting for the shipper").isTrue();
+    }
+
+    @Test
+    public void testBatchIsShippedWhenItIsFull() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 100, 3, NO_BATCH_DELAY, OverflowPolicy.BLOCK);
+
+        // When...
+        shipper.add("line1");
+        shipper.add("line2");
+        shipper.add("line3");
+
+        // Then...
+        waitFor(() -> !ras.batches.isEmpty());
+        assertThat(ras.batches).containsExactly(List.of("line1", "line2", "line3"));
+        assertThat(shipper.getBatchCount()).isEqualTo(1);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testBatchIsShippedAfterTheBatchDelay() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 100, 50, 20, OverflowPolicy.BLOCK);
+
+        // When...
+        shipper.add("line1");
+
+        // Then...
+        waitFor(() -> !ras.batches.isEmpty());
+        assertThat(ras.getAllMessages()).containsExactly("line1");
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testFlushWaitsForQueuedMessagesToBeShipped() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 100, 50, NO_BATCH_DELAY, OverflowPolicy.BLOCK);
+        shipper.add("line1");
+        shipper.add("line2");
+
+        // When...
+        shipper.flush();
+
+        // Then...
+        assertThat(ras.getAllMessages()).containsExactly("line1", "line2");
+        assertThat(shipper.getQueueDepth()).isEqualTo(0);
+        assertThat(shipper.getShippedMessageCount()).isEqualTo(2);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testMessagesAreHeldUntilTheRasIsAvailable() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        AtomicReference<IResultArchiveStore> availableRas = new AtomicReference<>();
+        TestRunLogShipper shipper = new TestRunLogShipper(availableRas::get, 100, 50, NO_BATCH_DELAY, OverflowPolicy.BLOCK);
+        shipper.add("startup1");
+        shipper.flush();
+
+        // When...
+        availableRas.set(ras);
+        shipper.add("line1");
+        shipper.flush();
+
+        // Then...
+        assertThat(ras.batches).containsExactly(List.of("startup1", "line1"));
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        ras.failuresToThrow = 1;
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 100, 50, NO_BATCH_DELAY, OverflowPolicy.BLOCK);
+        shipper.add("line1");
+        shipper.flush();
+
+        // When...
+        shipper.add("line2");
+        shipper.flush();
+
+        // Then...
+        assertThat(ras.getAllMessages()).containsExactly("line1", "line2");
+        assertThat(shipper.getFailedBatchCount()).isEqualTo(1);
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testMessagesAreDroppedWhileTheRasIsFailingAndThePolicyIsDrop() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        ras.failuresToThrow = Integer.MAX_VALUE;
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 2, 1, NO_BATCH_DELAY, OverflowPolicy.DROP);
+
+        // The shipper holds on to the first two messages to retry them, which is as many as the queue holds
+        shipper.add("line1");
+        waitFor(() -> shipper.getFailedBatchCount() == 1);
+        shipper.add("line2");
+        waitFor(() -> shipper.getFailedBatchCount() == 2);
+
+        // When...
+        boolean isLine3Queued = shipper.add("line3");
+        boolean isLine4Queued = shipper.add("line4");
+        boolean isLine5Queued = shipper.add("line5");
+        ras.failuresToThrow = 0;
+        shipper.flush();
+
+        // Then...
+        assertThat(isLine3Queued).isTrue();
+        assertThat(isLine4Queued).isTrue();
+        assertThat(isLine5Queued).isFalse();
+        assertThat(shipper.getDroppedMessageCount()).isEqualTo(1);
+        assertThat(ras.getAllMessages()).containsExactly("line1", "line2", "line3", "line4");
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testLoggingThreadWaitsWhileTheRasIsFailingAndThePolicyIsBlock() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        ras.failuresToThrow = Integer.MAX_VALUE;
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 2, 1, NO_BATCH_DELAY, OverflowPolicy.BLOCK);
+        shipper.add("line1");
+        waitFor(() -> shipper.getFailedBatchCount() == 1);
+        shipper.add("line2");
+        waitFor(() -> shipper.getFailedBatchCount() == 2);
+        shipper.add("line3");
+        shipper.add("line4");
+
+        // When...
+        Thread loggingThread = new Thread(() -> shipper.add("line5"));
+        loggingThread.start();
+        loggingThread.join(100);
+        boolean isBlocked = loggingThread.isAlive();
+
+        ras.failuresToThrow = 0;
+        shipper.flush();
+        loggingThread.join(TimeUnit.SECONDS.toMillis(10));
+        shipper.flush();
+
+        // Then...
+        assertThat(isBlocked).isTrue();
+        assertThat(shipper.getDroppedMessageCount()).isEqualTo(0);
+        assertThat(ras.getAllMessages()).containsExactly("line1", "line2", "line3", "line4", "line5");
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testMessagesAreDroppedWhenTheQueueIsFullAndThePolicyIsDrop() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        ras.writeLatch = new CountDownLatch(1);
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 2, 1, NO_BATCH_DELAY, OverflowPolicy.DROP);
+
+        // The shipper takes the first message and then gets stuck writing it to the RAS
+        shipper.add("line1");
+        waitFor(() -> shipper.getQueueDepth() == 0);
+
+        // When...
+        boolean isLine2Queued = shipper.add("line2");
+        boolean isLine3Queued = shipper.add("line3");
+        boolean isLine4Queued = shipper.add("line4");
+        ras.writeLatch.countDown();
+        shipper.flush();
+
+        // Then...
+        assertThat(isLine2Queued).isTrue();
+        assertThat(isLine3Queued).isTrue();
+        assertThat(isLine4Queued).isFalse();
+        assertThat(shipper.getDroppedMessageCount()).isEqualTo(1);
+        assertThat(shipper.getMaxQueueDepth()).isEqualTo(2);
+        assertThat(ras.getAllMessages()).containsExactly("line1", "line2", "line3");
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testLoggingThreadWaitsWhenTheQueueIsFullAndThePolicyIsBlock() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        ras.writeLatch = new CountDownLatch(1);
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 2, 1, NO_BATCH_DELAY, OverflowPolicy.BLOCK);
+        shipper.add("line1");
+        waitFor(() -> shipper.getQueueDepth() == 0);
+        shipper.add("line2");
+        shipper.add("line3");
+
+        // When...
+        Thread loggingThread = new Thread(() -> shipper.add("line4"));
+        loggingThread.start();
+        loggingThread.join(100);
+        boolean isBlocked = loggingThread.isAlive();
+
+        ras.writeLatch.countDown();
+        loggingThread.join(TimeUnit.SECONDS.toMillis(10));
+        shipper.flush();
+
+        // Then...
+        assertThat(isBlocked).isTrue();
+        assertThat(shipper.getDroppedMessageCount()).isEqualTo(0);
+        assertThat(ras.getAllMessages()).containsExactly("line1", "line2", "line3", "line4");
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testShutdownShipsQueuedMessagesAndDropsLaterOnes() throws Exception {
+        // Given...
+        MockBatchRecordingRas ras = new MockBatchRecordingRas();
+        TestRunLogShipper shipper = new TestRunLogShipper(() -> ras, 100, 50, NO_BATCH_DELAY, OverflowPolicy.BLOCK);
+        shipper.add("line1");
+
+        // When...
+        shipper.shutdown();
+        boolean isQueuedAfterShutdown = shipper.add("line2");
+
+        // Then...
+        assertThat(ras.getAllMessages()).containsExactly("line1");
+        assertThat(isQueuedAfterShutdown).isFalse();
+        assertThat(shipper.getDroppedMessageCount()).isEqualTo(1);
+    }
+}
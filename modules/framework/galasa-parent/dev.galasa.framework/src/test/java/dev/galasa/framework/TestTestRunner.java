@@ -26,6 +26,7 @@ import dev.galasa.framework.spi.*;
 import dev.galasa.framework.spi.creds.ICredentialsService;
 import dev.galasa.framework.spi.language.GalasaTest;
 import dev.galasa.framework.spi.streams.IStreamsService;
+import dev.galasa.framework.spi.teststructure.TestPhaseTiming;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 
 public class TestTestRunner {
@@ -176,9 +177,9 @@ public class TestTestRunner {
         /// Then...
 
         // Check the RAS history
-        // We expect started->generating->building->provstart->running->rundone->ending->finished
+        // We expect started->generating->building->provstart->running->rundone->ending->finished->finished with the final phase timings
         List<TestStructure> rasHistory = ras.getTestStructureHistory();
-        assertThat(rasHistory).hasSize(9);
+        assertThat(rasHistory).hasSize(10);
 
         // initial setup.
         assertThat(rasHistory.get(0)).extracting("runName","bundle", "testName", "testShortName", "requestor", "status", "result")
@@ -219,7 +220,16 @@ public class TestTestRunner {
         assertThat(rasHistory.get(8)).extracting("runName","bundle", "testName", "testShortName", "requestor", "status", "result")
             .containsExactly("myTestRun","myTestBundle","dev.galasa.framework.MyActualTestClass", "MyActualTestClass", "daffyduck", "finished","Passed");
 
-        
+        // The timings of the phases after the run finished are written last
+        TestStructure finalTestStructure = rasHistory.get(9);
+        assertThat(finalTestStructure).extracting("status", "result").containsExactly("finished", "Passed");
+        assertThat(finalTestStructure.getPhaseTimings()).extracting("phase", "method")
+            .containsExactly(
+                tuple(TestPhaseTiming.PHASE_BUNDLE_LOAD, null),
+                tuple(TestPhaseTiming.PHASE_BUNDLE_LOAD, null),
+                tuple(TestPhaseTiming.PHASE_MANAGER_INITIALISE, null),
+                tuple(TestPhaseTiming.PHASE_RAS_FLUSH, null),
+                tuple(TestPhaseTiming.PHASE_DSS_CLEANUP, null));
 
         // Check the DSS history
         assertThat(dss.history).as("history of activity within the DSS indicates it was used an unexpected number of times").hasSize(5);
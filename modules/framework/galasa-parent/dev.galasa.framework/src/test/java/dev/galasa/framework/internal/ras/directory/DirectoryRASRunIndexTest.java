@@ -0,0 +1,274 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.framework.spi.IFramework;
+import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSearchCriteriaRequestor;
+import dev.galasa.framework.spi.ras.RasSortField;
+import dev.galasa.framework.spi.teststructure.TestMethod;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+public class DirectoryRASRunIndexTest {
+
+    private Path rasDirectory;
+    private GalasaGson gson = new GalasaGson();
+
+    @Before
+    public void before() throws IOException {
+        this.rasDirectory = Files.createTempDirectory("galasa_junit_ras_index_");
+    }
+
+    @After
+    public void after() throws IOException {
+        if (this.rasDirectory != null && Files.exists(this.rasDirectory)) {
+            FileUtils.deleteDirectory(this.rasDirectory.toFile());
+        }
+    }
+
+    private TestStructure createTestStructure(String runName, String requestor, Instant queued) {
+        TestStructure testStructure = new TestStructure();
+        testStructure.setRunName(runName);
+        testStructure.setRequestor(requestor);
+        testStructure.setTestName("dev.galasa.test.MyTest");
+        testStructure.setBundle("dev.galasa.test");
+        testStructure.setStatus("finished");
+        testStructure.setResult("Passed");
+        testStructure.setQueued(queued);
+        return testStructure;
+    }
+
+    private Path createRunDirectory(TestStructure testStructure) throws IOException {
+        Path runDirectory = rasDirectory.resolve(testStructure.getRunName());
+        Files.createDirectories(runDirectory);
+        Files.write(runDirectory.resolve("structure.json"), gson.toJson(testStructure).getBytes(StandardCharsets.UTF_8));
+        return runDirectory;
+    }
+
+    private DirectoryRASDirectoryService createIndexedDirectoryService(int runCount) throws Exception {
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory);
+        Instant queued = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 1; i <= runCount; i++) {
+            TestStructure testStructure = createTestStructure("U" + i, "user" + (i % 2), queued.plusSeconds(i));
+            runIndex.update(createRunDirectory(testStructure), testStructure);
+        }
+        return new DirectoryRASDirectoryService(rasDirectory, gson, runIndex);
+    }
+
+    private List<String> getRunNames(List<IRunResult> runs) throws Exception {
+        List<String> runNames = new ArrayList<>();
+        for (IRunResult run : runs) {
+            runNames.add(run.getTestStructure().getRunName());
+        }
+        return runNames;
+    }
+
+    @Test
+    public void testIndexIsBuiltFromTheExistingRunsWhenItDoesNotExist() throws Exception {
+        // Given...
+        TestStructure testStructure = createTestStructure("U1", "bob", Instant.now());
+        List<TestMethod> methods = new ArrayList<>();
+        methods.add(new TestMethod(getClass()));
+        testStructure.setMethods(methods);
+        createRunDirectory(testStructure);
+        createRunDirectory(createTestStructure("U2", "jim", Instant.now()));
+
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory);
+
+        // When...
+        Map<String, TestStructure> indexedRuns = runIndex.getRuns();
+
+        // Then...
+        assertThat(indexedRuns).containsOnlyKeys("U1", "U2");
+        assertThat(indexedRuns.get("U1").getRequestor()).isEqualTo("bob");
+        assertThat(indexedRuns.get("U1").getMethods()).isNull();
+        assertThat(runIndex.getIndexPath()).exists();
+    }
+
+    @Test
+    public void testUpdatesMadeByAnotherProcessAreSeenAndTheLatestRecordWins() throws Exception {
+        // Given...
+        TestStructure testStructure = createTestStructure("U1", "bob", Instant.now());
+        testStructure.setStatus("queued");
+        Path runDirectory = createRunDirectory(testStructure);
+
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory);
+        DirectoryRASRunIndex otherProcessRunIndex = new DirectoryRASRunIndex(rasDirectory);
+        otherProcessRunIndex.getRuns();
+
+        // When...
+        runIndex.update(runDirectory, testStructure);
+        testStructure.setStatus("finished");
+        runIndex.update(runDirectory, testStructure);
+
+        // Then...
+        Map<String, TestStructure> indexedRuns = otherProcessRunIndex.getRuns();
+        assertThat(indexedRuns).containsOnlyKeys("U1");
+        assertThat(indexedRuns.get("U1").getStatus()).isEqualTo("finished");
+
+        // The header, the record written when the index was built, and one record for each update
+        assertThat(Files.readAllLines(runIndex.getIndexPath())).hasSize(4);
+    }
+
+    @Test
+    public void testPartialRecordAtTheEndOfTheIndexIsIgnored() throws Exception {
+        // Given...
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory);
+        TestStructure testStructure = createTestStructure("U1", "bob", Instant.now());
+        runIndex.update(createRunDirectory(testStructure), testStructure);
+
+        // A process stopped part way through writing a record
+        Files.write(runIndex.getIndexPath(), "{\"path\":\"U2\",\"run\":{\"runN".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        // When...
+        Map<String, TestStructure> indexedRuns = new DirectoryRASRunIndex(rasDirectory).getRuns();
+
+        // Then...
+        assertThat(indexedRuns).containsOnlyKeys("U1");
+    }
+
+    @Test
+    public void testRunsWhoseDirectoryHasGoneAreLeftOut() throws Exception {
+        // Given...
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory);
+        TestStructure testStructure1 = createTestStructure("U1", "bob", Instant.now());
+        runIndex.update(createRunDirectory(testStructure1), testStructure1);
+        TestStructure testStructure2 = createTestStructure("U2", "jim", Instant.now());
+        Path runDirectory2 = createRunDirectory(testStructure2);
+        runIndex.update(runDirectory2, testStructure2);
+
+        // When...
+        FileUtils.deleteDirectory(runDirectory2.toFile());
+        Map<String, TestStructure> indexedRuns = runIndex.getRuns();
+
+        // Then...
+        assertThat(indexedRuns).containsOnlyKeys("U1");
+    }
+
+    @Test
+    public void testIndexIsRebuiltWhenARunDirectoryIsAddedWithoutUpdatingIt() throws Exception {
+        // Given...
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory);
+        TestStructure testStructure = createTestStructure("U1", "bob", Instant.now());
+        runIndex.update(createRunDirectory(testStructure), testStructure);
+
+        // A run is copied in by hand, after the index was last written
+        createRunDirectory(createTestStructure("U2", "jim", Instant.now()));
+        FileTime indexWritten = FileTime.fromMillis(Files.getLastModifiedTime(rasDirectory).toMillis() - 1000);
+        Files.setLastModifiedTime(runIndex.getIndexPath(), indexWritten);
+
+        // When...
+        Map<String, TestStructure> indexedRuns = new DirectoryRASRunIndex(rasDirectory).getRuns();
+
+        // Then...
+        assertThat(indexedRuns).containsOnlyKeys("U1", "U2");
+        assertThat(Files.getLastModifiedTime(runIndex.getIndexPath())).isGreaterThanOrEqualTo(Files.getLastModifiedTime(rasDirectory));
+    }
+
+    @Test
+    public void testGetRunsPageReturnsSortedPagesWithACursor() throws Exception {
+        // Given...
+        DirectoryRASDirectoryService directoryService = createIndexedDirectoryService(5);
+        RasSortField sortField = new RasSortField("queued", "desc");
+
+        // When...
+        RasRunResultPage firstPage = directoryService.getRunsPage(2, sortField, null);
+        RasRunResultPage secondPage = directoryService.getRunsPage(2, sortField, firstPage.getNextCursor());
+        RasRunResultPage lastPage = directoryService.getRunsPage(2, sortField, secondPage.getNextCursor());
+
+        // Then...
+        assertThat(getRunNames(firstPage.getRuns())).containsExactly("U5", "U4");
+        assertThat(getRunNames(secondPage.getRuns())).containsExactly("U3", "U2");
+        assertThat(getRunNames(lastPage.getRuns())).containsExactly("U1");
+        assertThat(lastPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testGetRunsPageAppliesTheSearchCriteriaBeforePaging() throws Exception {
+        // Given...
+        DirectoryRASDirectoryService directoryService = createIndexedDirectoryService(5);
+
+        // When...
+        RasRunResultPage page = directoryService.getRunsPage(0, new RasSortField("runName", "asc"), null,
+            new RasSearchCriteriaRequestor("user1"));
+
+        // Then...
+        assertThat(getRunNames(page.getRuns())).containsExactly("U1", "U3", "U5");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testGetRunsPageWithACursorFromAnotherRasReturnsAnEmptyPage() throws Exception {
+        // Given...
+        DirectoryRASDirectoryService directoryService = createIndexedDirectoryService(3);
+
+        // When...
+        RasRunResultPage page = directoryService.getRunsPage(2, null, "g1AAAAB4eJzLYWBgYMpgSmHgKy5JLCrJTq2MT8lPzkzJBYqzmxoYGRmZmJoYmCSZWRgaGpoYGZmkGBgYGRubpCQZGBkYWxgaGhsZA");
+
+        // Then...
+        assertThat(page.getRuns()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testQueriesAreAnsweredWithoutReadingTheStructureFiles() throws Exception {
+        // Given...
+        DirectoryRASDirectoryService directoryService = createIndexedDirectoryService(3);
+        for (int i = 1; i <= 3; i++) {
+            Files.delete(rasDirectory.resolve("U" + i).resolve("structure.json"));
+        }
+
+        // When...
+        List<String> requestors = directoryService.getRequestors();
+        List<String> resultNames = directoryService.getResultNames();
+        List<IRunResult> runsByName = directoryService.getRunsByRunName("U2");
+
+        // Then...
+        assertThat(requestors).containsExactlyInAnyOrder("user0", "user1");
+        assertThat(resultNames).containsExactly("Passed");
+        assertThat(runsByName).hasSize(1);
+    }
+
+    @Test
+    public void testUpdatingTheTestStructureOfARunUpdatesTheIndex() throws Exception {
+        // Given...
+        IFramework framework = mock(IFramework.class);
+        when(framework.getTestRunName()).thenReturn("BOB1");
+        DirectoryResultArchiveStoreService rasService = new DirectoryResultArchiveStoreService(framework, rasDirectory.toUri());
+
+        TestStructure testStructure = createTestStructure("BOB1", "bob", Instant.now());
+
+        // When...
+        rasService.updateTestStructure(testStructure);
+
+        // Then...
+        IResultArchiveStoreDirectoryService directoryService = rasService.getDirectoryServices().get(0);
+        assertThat(getRunNames(directoryService.getRuns(new RasSearchCriteriaRequestor("bob")))).containsExactly("BOB1");
+    }
+}
@@ -21,8 +21,10 @@ import java.net.URISyntaxException;
 import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -607,6 +609,121 @@ public class FrameworkPropertyFileTest {
         fpf2.destroy();
     }
 
+    /**
+     * <p>
+     * This tests that the watchers are told about an update after the locks have
+     * been released, so a watcher can wait for another thread to make an update.
+     * </p>
+     */
+    @Test
+    public void testWatcherCanWaitForAnUpdateFromAnotherThread() throws FrameworkPropertyFileException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        boolean[] isCopied = new boolean[1];
+
+        fpf.watch((key, event, oldValue, newValue) -> {
+            Thread copier = new Thread(() -> {
+                try {
+                    fpf.set("watchTest.copy", newValue);
+                } catch (FrameworkPropertyFileException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            copier.start();
+            try {
+                copier.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            isCopied[0] = !copier.isAlive();
+        }, "watchTest");
+
+        fpf.set("watchTest", "copyMe");
+
+        assertTrue("The watcher could not update the properties", isCopied[0]);
+        assertEquals("The update made by the watcher is missing", "copyMe", fpf.get("watchTest.copy"));
+
+        fpf.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that prefix queries only return keys which start with the prefix,
+     * and only visit those keys.
+     * </p>
+     */
+    @Test
+    public void testGetPrefixOnlyScansMatchingKeys() throws FrameworkPropertyFileException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+
+        Map<String, String> values = fpf.getPrefix("prefix.infix.");
+
+        assertEquals("Wrong number of values returned", 2, values.size());
+        assertEquals("Wrong value returned", "SomeString1", values.get("prefix.infix.suffix1"));
+        assertEquals("Wrong number of keys scanned", 2, fpf.getPrefixScannedKeyCount());
+        assertEquals("Wrong number of keys returned", 0, fpf.getPrefixKeysOnly("prefix.infix.suffix3").size());
+        assertEquals("Wrong number of prefix scans", 2, fpf.getPrefixScanCount());
+        fpf.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that each namespace is returned once, without visiting every key
+     * in the namespace.
+     * </p>
+     */
+    @Test
+    public void testGetNamespacesSkipsOverKeysInTheSameNamespace() throws FrameworkPropertyFileException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("framework.a", "1");
+        values.put("framework.b", "2");
+        values.put("framework.c", "3");
+        values.put("framework-extra.a", "4");
+        values.put("zos.a", "5");
+
+        try {
+            fpf.set(values);
+        } catch (IOException e) {
+            throw new FrameworkPropertyFileException(e);
+        }
+
+        List<String> namespaces = fpf.getNamespaces();
+
+        assertEquals("Wrong namespaces returned", Arrays.asList("framework-extra", "framework", "prefix", "zos"), namespaces);
+        // The four keys without a namespace, and the first key in each namespace
+        assertEquals("Wrong number of keys scanned", 8, fpf.getPrefixScannedKeyCount());
+        fpf.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that reads only check the file for changes once in each file check
+     * interval, but updates always check it.
+     * </p>
+     */
+    @Test
+    public void testFileCheckIsRateLimitedForReads() throws FrameworkPropertyFileException, IOException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        FrameworkPropertyFile otherFpf = new FrameworkPropertyFile(testPropUri);
+        fpf.setFileCheckInterval(60000);
+
+        otherFpf.set("Test1", "ChangedByAnotherInstance");
+
+        assertEquals("Read checked the file", "SomeString", fpf.get("Test1"));
+        assertEquals("Read checked the file", "SomeString", fpf.get("Test1"));
+        assertEquals("Wrong number of file checks", 0, fpf.getFileCheckCount());
+        assertEquals("Wrong number of skipped file checks", 2, fpf.getSkippedFileCheckCount());
+        assertEquals("Wrong number of lookups", 2, fpf.getLookupCount());
+        assertEquals("Wrong number of lookup hits", 2, fpf.getLookupHitCount());
+
+        assertFalse("Update did not check the file", fpf.setAtomic("Test1", "SomeString", "NotSet"));
+        assertEquals("Wrong number of file checks", 1, fpf.getFileCheckCount());
+        assertEquals("Update did not load the change", "ChangedByAnotherInstance", fpf.get("Test1"));
+
+        fpf.destroy();
+        otherFpf.destroy();
+    }
+
     /**
      * <p>
      * This callable mehtod is used to detect changes to the file so the await()
@@ -0,0 +1,271 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package test.fpf;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.framework.spi.DssAdd;
+import dev.galasa.framework.spi.DssSwap;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
+import dev.galasa.framework.spi.FrameworkPropertyFile;
+
+public class JournalledFrameworkPropertyFileTest {
+
+    // High enough that the journal is never compacted unless a test asks for it
+    private static final int  NO_COMPACTION_THRESHOLD = 1000000;
+    private static final long NO_COMPACTION_INTERVAL  = 3600000;
+
+    private File testProp;
+    private Path journalPath;
+
+    @Before
+    public void createPropertiesFile() throws IOException {
+        testProp = File.createTempFile("galasafpf_", ".properties");
+        testProp.deleteOnExit();
+        journalPath = new File(testProp.getPath() + FrameworkPropertyFile.JOURNAL_FILE_SUFFIX).toPath();
+
+        Properties testProps = new Properties();
+        testProps.setProperty("Test1", "SomeString");
+        testProps.setProperty("prefix.infix.suffix1", "SomeString1");
+        testProps.setProperty("prefix.infix.suffix2", "SomeString2");
+        testProps.setProperty("prefix.infiy", "NotInThePrefix");
+
+        try (FileOutputStream out = new FileOutputStream(testProp)) {
+            testProps.store(out, null);
+        }
+    }
+
+    @After
+    public void deletePropertiesFile() throws IOException {
+        testProp.delete();
+        Files.deleteIfExists(journalPath);
+    }
+
+    private FrameworkPropertyFile createJournalledFile() throws Exception {
+        return new FrameworkPropertyFile(testProp.toURI(), true, NO_COMPACTION_THRESHOLD, NO_COMPACTION_INTERVAL);
+    }
+
+    private Properties readPropertiesFile() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(testProp)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    @Test
+    public void testUpdatesAreAppendedToTheJournalAndNotThePropertiesFile() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf = createJournalledFile();
+
+        // When...
+        fpf.set("Test2", "NewValue");
+        fpf.delete("Test1");
+
+        // Then...
+        assertThat(fpf.get("Test2")).isEqualTo("NewValue");
+        assertThat(fpf.get("Test1")).isNull();
+
+        assertThat(readPropertiesFile()).containsEntry("Test1", "SomeString").doesNotContainKey("Test2");
+        assertThat(Files.readAllLines(journalPath)).contains("S Test2=NewValue", "D Test1", "C");
+
+        fpf.shutdown();
+    }
+
+    @Test
+    public void testShutdownCompactsTheJournalIntoThePropertiesFile() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf = createJournalledFile();
+        fpf.set("Test2", "NewValue");
+        fpf.delete("Test1");
+
+        // When...
+        fpf.shutdown();
+
+        // Then...
+        assertThat(readPropertiesFile())
+            .containsEntry("Test2", "NewValue")
+            .containsEntry("prefix.infix.suffix1", "SomeString1")
+            .doesNotContainKey("Test1");
+        assertThat(Files.readAllLines(journalPath)).hasSize(1);
+    }
+
+    @Test
+    public void testJournalIsCompactedWhenItReachesTheThreshold() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testProp.toURI(), true, 3, NO_COMPACTION_INTERVAL);
+
+        // When...
+        fpf.set("key1", "value1");
+        fpf.set("key2", "value2");
+        fpf.set("key3", "value3");
+
+        // Then...
+        assertThat(readPropertiesFile()).containsEntry("key1", "value1").containsEntry("key3", "value3");
+        assertThat(Files.readAllLines(journalPath)).hasSize(1);
+
+        fpf.shutdown();
+    }
+
+    @Test
+    public void testJournalIsReplayedWhenTheFileIsLoaded() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf1 = createJournalledFile();
+        Map<String, String> values = new HashMap<>();
+        values.put("key=with=equals", "value\nwith\\newlines");
+        values.put("prefix.infix.suffix1", "Changed");
+        fpf1.set(values);
+
+        // When...
+        FrameworkPropertyFile fpf2 = createJournalledFile();
+
+        // Then...
+        assertThat(fpf2.get("key=with=equals")).isEqualTo("value\nwith\\newlines");
+        assertThat(fpf2.get("prefix.infix.suffix1")).isEqualTo("Changed");
+
+        fpf2.shutdown();
+        fpf1.shutdown();
+    }
+
+    @Test
+    public void testUncommittedJournalRecordsAreIgnored() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf1 = createJournalledFile();
+        fpf1.set("key1", "value1");
+
+        // A process stopped part way through writing a batch of changes
+        Files.write(journalPath, "S key2=value2\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        // When...
+        FrameworkPropertyFile fpf2 = createJournalledFile();
+        fpf2.set("key3", "value3");
+
+        // Then...
+        assertThat(fpf2.get("key1")).isEqualTo("value1");
+        assertThat(fpf2.get("key2")).isNull();
+        assertThat(createJournalledFile().get("key3")).isEqualTo("value3");
+
+        fpf2.shutdown();
+        fpf1.shutdown();
+    }
+
+    @Test
+    public void testAtomicSetSeesChangesMadeByAnotherInstance() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf1 = createJournalledFile();
+        FrameworkPropertyFile fpf2 = createJournalledFile();
+
+        // When...
+        boolean isFirstSwapDone = fpf1.setAtomic("Test1", "SomeString", "fpf1");
+        boolean isSecondSwapDone = fpf2.setAtomic("Test1", "SomeString", "fpf2");
+
+        // Then...
+        assertThat(isFirstSwapDone).isTrue();
+        assertThat(isSecondSwapDone).isFalse();
+        assertThat(fpf2.get("Test1")).isEqualTo("fpf1");
+
+        fpf2.shutdown();
+        fpf1.shutdown();
+    }
+
+    @Test
+    public void testFailedActionsLeaveThePropertiesUnchanged() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf = createJournalledFile();
+
+        // When...
+        Throwable thrown = catchThrowable(() -> {
+            fpf.performActions(new DssAdd("newKey", "newValue"), new DssSwap("Test1", "WrongValue", "NotSet"));
+        });
+
+        // Then...
+        assertThat(thrown).isInstanceOf(DynamicStatusStoreMatchException.class);
+        assertThat(fpf.get("newKey")).isNull();
+        assertThat(fpf.get("Test1")).isEqualTo("SomeString");
+        assertThat(createJournalledFile().get("newKey")).isNull();
+
+        fpf.shutdown();
+    }
+
+    @Test
+    public void testGetPrefixOnlyReturnsKeysStartingWithThePrefix() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf = createJournalledFile();
+
+        // When...
+        Map<String, String> values = fpf.getPrefix("prefix.infix");
+
+        // Then...
+        assertThat(values).containsOnlyKeys("prefix.infix.suffix1", "prefix.infix.suffix2");
+        assertThat(fpf.getPrefixKeysOnly("prefix.infi")).hasSize(3);
+        assertThat(fpf.getPrefixKeysOnly("")).hasSize(4);
+
+        fpf.shutdown();
+    }
+
+    @Test
+    public void testConcurrentAtomicUpdatesAreNotLost() throws Exception {
+        // Given...
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testProp.toURI(), true, 100, 10);
+        int threadCount = 8;
+        int updatesPerThread = 50;
+        fpf.set("counter", "0");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (int update = 0; update < updatesPerThread; update++) {
+                        boolean isUpdated = false;
+                        while (!isUpdated) {
+                            String current = fpf.get("counter");
+                            String next = Integer.toString(Integer.parseInt(current) + 1);
+                            isUpdated = fpf.setAtomic("counter", current, next);
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        // When...
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        fpf.shutdown();
+
+        // Then...
+        String expectedCount = Integer.toString(threadCount * updatesPerThread);
+        assertThat(readPropertiesFile()).containsEntry("counter", expectedCount);
+        assertThat(createJournalledFile().get("counter")).isEqualTo(expectedCount);
+    }
+}
@@ -72,6 +72,20 @@ public class MockFrameworkRuns implements IFrameworkRuns {
         return queuedRuns;
     }
 
+    @Override
+    public @NotNull List<IRun> getRunsByStatus(@NotNull TestRunLifecycleStatus... statuses) throws FrameworkException {
+        List<IRun> matchingRuns = new ArrayList<>();
+        for (IRun run : this.runs) {
+            for (TestRunLifecycleStatus status : statuses) {
+                if (status.toString().equals(run.getStatus())) {
+                    matchingRuns.add(run);
+                    break;
+                }
+            }
+        }
+        return matchingRuns;
+    }
+
     @Override
     public @NotNull List<IRun> getAllGroupedRuns(@NotNull String groupName) throws FrameworkException {
         if(groupName.equals("invalid")){
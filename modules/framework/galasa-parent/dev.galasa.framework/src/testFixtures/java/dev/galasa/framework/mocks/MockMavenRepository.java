@@ -16,11 +16,13 @@ public class MockMavenRepository implements IMavenRepository {
     private String username;
     private String password;
 
+    private URL localRepository;
+
     List<URL> remoteRepoUrls = new ArrayList<>();
 
     @Override
     public URL getLocalRepository() {
-        throw new UnsupportedOperationException("Unimplemented method 'getLocalRepository'");
+        return localRepository;
     }
 
     @Override
@@ -30,7 +32,8 @@ public class MockMavenRepository implements IMavenRepository {
 
     @Override
     public void setRepositories(URL localRepository, List<URL> remoteRepositories) {
-        throw new UnsupportedOperationException("Unimplemented method 'setRepositories'");
+        this.localRepository = localRepository;
+        this.remoteRepoUrls.addAll(remoteRepositories);
     }
 
     @Override
@@ -22,6 +22,7 @@ public class MockResultArchiveStoreDirectoryService implements IResultArchiveSto
     private List<IRunResult> runResults;
     private String nextCursor;
 		private boolean isHealthy;
+	private String name = "mock";
 
     public MockResultArchiveStoreDirectoryService(List<IRunResult> runsResults) {
         this.runResults = runsResults;
@@ -125,7 +126,11 @@ public class MockResultArchiveStoreDirectoryService implements IResultArchiveSto
 
 	@Override
 	public @NotNull String getName() {
-		throw new UnsupportedOperationException("Unimplemented method 'getName'");
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
 	}
 
 	@Override
@@ -70,6 +70,11 @@ public class MockShutableFramework implements IShuttableFramework {
         this.isShutDown = true ;
     }
 
+    @Override
+    public void flushRunLog() {
+        // Nothing is captured asynchronously, so there is nothing to flush
+    }
+
     @Override
     public @NotNull IResultArchiveStore getResultArchiveStore() {
         return this.ras;
@@ -0,0 +1,75 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.api.ras;
+
+import java.time.Instant;
+
+
+public class RasTestPhaseTiming {
+   private String phase;
+   private String manager;
+   private String method;
+   private Instant startTime;
+   private long durationMillis;
+   private boolean failed;
+
+   public RasTestPhaseTiming(String phase, String manager, String method, Instant startTime, long durationMillis, boolean failed) {
+      this.phase = phase;
+      this.manager = manager;
+      this.method = method;
+      this.startTime = startTime;
+      this.durationMillis = durationMillis;
+      this.failed = failed;
+   }
+
+   public String getPhase() {
+      return phase;
+   }
+
+   public void setPhase(String phase) {
+      this.phase = phase;
+   }
+
+   public String getManager() {
+      return manager;
+   }
+
+   public void setManager(String manager) {
+      this.manager = manager;
+   }
+
+   public String getMethod() {
+      return method;
+   }
+
+   public void setMethod(String method) {
+      this.method = method;
+   }
+
+   public Instant getStartTime() {
+      return startTime;
+   }
+
+   public void setStartTime(Instant startTime) {
+      this.startTime = startTime;
+   }
+
+   public long getDurationMillis() {
+      return durationMillis;
+   }
+
+   public void setDurationMillis(long durationMillis) {
+      this.durationMillis = durationMillis;
+   }
+
+   public boolean isFailed() {
+      return failed;
+   }
+
+   public void setFailed(boolean failed) {
+      this.failed = failed;
+   }
+}
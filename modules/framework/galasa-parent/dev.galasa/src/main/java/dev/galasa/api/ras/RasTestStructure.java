@@ -27,6 +27,7 @@ public class RasTestStructure {
    private Instant endTime;
    private List<RasTestMethod> methods;
    private Set<String> tags;
+   private List<RasTestPhaseTiming> phaseTimings;
    
    public RasTestStructure(String runName, String bundle, String testName, String testShortName, String requestor, String user,
          String status, String result, Instant queued, Instant startTime, Instant endTime, List<RasTestMethod> methods,
@@ -161,6 +162,14 @@ public class RasTestStructure {
       this.methods = methods;
    }
    
+   public List<RasTestPhaseTiming> getPhaseTimings() {
+      return phaseTimings;
+   }
+
+   public void setPhaseTimings(List<RasTestPhaseTiming> phaseTimings) {
+      this.phaseTimings = phaseTimings;
+   }
+
    public Set<String> getTags() {
       return this.tags;
    }
@@ -71,6 +71,15 @@ public class BootLogger {
         log(Level.INFO, message);
     }
 
+    /**
+     * Warning message
+     *
+     * @param message
+     */
+    public void warn(String message) {
+        log(Level.WARN, message);
+    }
+
     /**
      * Trace message
      * 
@@ -15,6 +15,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -55,6 +56,11 @@ public class FelixFramework {
 
     private static final String UBER_OBR_ARTIFACT_ID = "dev.galasa.uber.obr";
 
+    private static final String OBR_RESOLUTION_CACHE_PROP = "framework.obr.resolution.cache.enabled";
+
+    /** The Felix framework property that tells the Galasa framework where the OBR resolution cache is */
+    public static final String OBR_RESOLUTION_CACHE_DIR_FRAMEWORK_PROP = "dev.galasa.obr.resolution.cache.dir";
+
     protected Framework framework;
 
     protected RepositoryAdmin repositoryAdmin;
@@ -69,6 +75,14 @@ public class FelixFramework {
         
     private File felixCache;
 
+    protected ObrResolutionCache obrResolutionCache;
+
+    protected StartupPhaseTimings startupPhaseTimings = new StartupPhaseTimings();
+
+    // The IMavenArtifactPrefetcher service, used to download the bundles about to be installed in parallel
+    private Object artifactPrefetcher;
+    private Method prefetchArtifactsMethod;
+
     /**
      * Initialise and start the Felix framework. Install required bundles and the
      * OBRs. Install the Galasa framework bundle
@@ -84,12 +98,19 @@ public class FelixFramework {
     public void buildFramework(List<String> bundleRepositories, Properties boostrapProperties, URL localMavenRepo,
             List<URL> remoteMavenRepos, String galasaHome) throws LauncherException, ClassNotFoundException {
         logger.debug("Building Felix Framework...");
+        StartupPhaseTimings.Timer frameworkStartTimer = startupPhaseTimings.start(StartupPhaseTimings.PHASE_FRAMEWORK_START);
 
         File galasaDirectory = new File(galasaHome);
         File cacheParent = new File(galasaDirectory, "cache");
         String cacheDirectory = "felix-cache-" + UUID.randomUUID().toString();
 
         this.felixCache = new File(cacheParent, cacheDirectory);
+
+        // The resolution cache outlives the Felix cache, so later runs can use it
+        boolean isResolutionCacheEnabled = Boolean.parseBoolean(boostrapProperties.getProperty(OBR_RESOLUTION_CACHE_PROP, "true"));
+        if (isResolutionCacheEnabled) {
+            this.obrResolutionCache = new ObrResolutionCache(new File(cacheParent, "obr-resolution"));
+        }
         try {
             FileUtils.deleteDirectory(felixCache);
             
@@ -104,6 +125,9 @@ public class FelixFramework {
             frameworkProperties.put(Constants.FRAMEWORK_STORAGE_CLEAN, Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT);
             frameworkProperties.put(Constants.FRAMEWORK_SYSTEMPACKAGES_EXTRA,
                     "org.apache.felix.bundlerepository; version=2.1, dev.galasa.framework, sun.misc, com.sun.net.httpserver, com.sun.management, org.xml.sax, sun.nio.ch");
+            if (obrResolutionCache != null) {
+                frameworkProperties.put(OBR_RESOLUTION_CACHE_DIR_FRAMEWORK_PROP, obrResolutionCache.getCacheDirectory().getAbsolutePath());
+            }
             framework = frameworkFactory.newFramework(frameworkProperties);
             logger.debug("Initializing Felix Framework");
             framework.init();
@@ -129,9 +153,12 @@ public class FelixFramework {
 
             // Install and start the Felix OBR bundle
             obrBundle = installBundle("org.apache.felix.bundlerepository.jar", true);
+            frameworkStartTimer.stop();
 
             // Load the OSGi Bundle Repositories
+            StartupPhaseTimings.Timer repositoryLoadTimer = startupPhaseTimings.start(StartupPhaseTimings.PHASE_REPOSITORY_LOAD);
             loadBundleRepositories(bundleRepositories);
+            repositoryLoadTimer.stop();
 
             // Install and start the Felix OSGi console if required
             loadConsole = Boolean.parseBoolean(boostrapProperties.getProperty("dev.galasa.core.load.console", "false"));
@@ -150,6 +177,8 @@ public class FelixFramework {
             if (extraBundles != null) {
                 loadBundlesList(extraBundles);
             }
+
+            logger.info("Felix framework startup phase timings: " + startupPhaseTimings);
         } catch (IOException | BundleException e) {
             throw new LauncherException("Unable to initialise the Felix framework", e);
         }
@@ -210,6 +239,41 @@ public class FelixFramework {
         }
 
         setMavenCredentialsIfProvided(bootstrapProperties, service);
+
+        findArtifactPrefetcher(frameWorkBundle);
+    }
+
+    private void findArtifactPrefetcher(Bundle mavenRepositoryBundle) {
+        String classString = "dev.galasa.framework.maven.repository.spi.IMavenArtifactPrefetcher";
+        try {
+            ServiceReference<?>[] serviceReferences = mavenRepositoryBundle.getBundleContext().getServiceReferences(classString, null);
+            if (serviceReferences != null && serviceReferences.length == 1) {
+                Object service = mavenRepositoryBundle.getBundleContext().getService(serviceReferences[0]);
+                if (service != null) {
+                    prefetchArtifactsMethod = service.getClass().getMethod("prefetchArtifacts", List.class);
+                    artifactPrefetcher = service;
+                }
+            }
+        } catch (InvalidSyntaxException | NoSuchMethodException | SecurityException e) {
+            logger.debug("Maven artifact prefetching is not available, bundles will be downloaded as they are installed");
+        }
+    }
+
+    /**
+     * Download the maven artifacts for the bundles about to be installed at the same time.
+     * Any that fail are downloaded again when the bundle is installed.
+     * 
+     * @param bundleLocations
+     */
+    private void prefetchArtifacts(List<String> bundleLocations) {
+        if (artifactPrefetcher == null || bundleLocations.size() < 2) {
+            return;
+        }
+        try {
+            prefetchArtifactsMethod.invoke(artifactPrefetcher, bundleLocations);
+        } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
+            logger.warn("Unable to prefetch the maven artifacts, they will be downloaded as they are installed");
+        }
     }
 
     private void setMavenCredentialsIfProvided(Properties bootstrapProperties, Object service) throws LauncherException {
@@ -275,6 +339,9 @@ public class FelixFramework {
             throw new LauncherException("Unable to get Framework test runner method", e);
         }
 
+        // Pass the startup timings on, so they are recorded with the rest of the test run
+        overridesProperties.setProperty(StartupPhaseTimings.PHASE_TIMINGS_PROPERTY, startupPhaseTimings.toPropertyValue());
+
         // Invoke the runTest method
         logger.debug("Invoking runTest()");
         try {
@@ -922,12 +989,72 @@ public class FelixFramework {
     }
 
     /**
-     * Load a bundle from the OSGi Bundle Repository
+     * Load a bundle from the OSGi Bundle Repository, installing the bundles
+     * recorded in the OBR resolution cache if the same bundle has been resolved
+     * against the same OBRs before
      * 
      * @param bundleSymbolicName
      * @throws LauncherException
      */
     private void loadBundle(String bundleSymbolicName) throws LauncherException {
+        StartupPhaseTimings.Timer bundleLoadTimer = startupPhaseTimings.start(StartupPhaseTimings.PHASE_BUNDLE_LOAD);
+        try {
+            String cacheKey = null;
+            if (obrResolutionCache != null) {
+                cacheKey = obrResolutionCache.calculateKey(repositoryAdmin.listRepositories(),
+                        framework.getBundleContext().getBundles(), bundleSymbolicName);
+                if (loadCachedBundles(bundleSymbolicName, cacheKey)) {
+                    return;
+                }
+            }
+
+            resolveBundle(bundleSymbolicName, cacheKey);
+        } finally {
+            bundleLoadTimer.stop();
+        }
+    }
+
+    /**
+     * Install and start the bundles recorded in the OBR resolution cache
+     * 
+     * @param bundleSymbolicName
+     * @param cacheKey
+     * @return true if the bundle was loaded from the cache, false if it needs to be resolved
+     */
+    private boolean loadCachedBundles(String bundleSymbolicName, String cacheKey) {
+        List<String> bundleLocations = obrResolutionCache.getBundleLocations(cacheKey);
+        if (bundleLocations == null) {
+            startupPhaseTimings.recordResolutionCacheMiss();
+            return false;
+        }
+
+        logger.trace("Installing bundle " + bundleSymbolicName + " from the OBR resolution cache");
+        prefetchArtifacts(bundleLocations);
+        try {
+            installAndStartBundles(bundleLocations);
+        } catch (LauncherException e) {
+            logger.warn("Unable to install the cached bundles for " + bundleSymbolicName + ", resolving instead. " + e.getCause());
+        }
+
+        if (!isBundleActive(bundleSymbolicName)) {
+            obrResolutionCache.remove(cacheKey);
+            startupPhaseTimings.recordResolutionCacheMiss();
+            return false;
+        }
+
+        startupPhaseTimings.recordResolutionCacheHit();
+        printBundles();
+        return true;
+    }
+
+    /**
+     * Resolve a bundle against the OSGi Bundle Repository
+     * 
+     * @param bundleSymbolicName
+     * @param cacheKey the key to record the resolution under, or null if it is not to be cached
+     * @throws LauncherException
+     */
+    private void resolveBundle(String bundleSymbolicName, String cacheKey) throws LauncherException {
 
         logger.trace("Installing bundle " + bundleSymbolicName);
         Resolver resolver = repositoryAdmin.resolver();
@@ -942,7 +1069,7 @@ public class FelixFramework {
             if (resources.length == 0) {
                 throw new LauncherException("Unable to locate bundle \"" + bundleSymbolicName + "\" in OBR repository");
             }
-            addResource(bundleSymbolicName, resolver, resources[0]); // *** get first resource
+            addResource(bundleSymbolicName, resolver, resources[0], cacheKey); // *** get first resource
         } catch (LauncherException e) {
             throw new LauncherException("Unable to install bundle \"" + bundleSymbolicName + "\" from OBR repository",
                     e);
@@ -955,9 +1082,10 @@ public class FelixFramework {
      * @param bundleSymbolicName
      * @param resolver
      * @param resource
+     * @param cacheKey the key to record the resolution under, or null if it is not to be cached
      * @throws LauncherException
      */
-    private void addResource(String bundleSymbolicName, Resolver resolver, Resource resource) throws LauncherException {
+    private void addResource(String bundleSymbolicName, Resolver resolver, Resource resource, String cacheKey) throws LauncherException {
         logger.trace("Resource: " + resource);
         resolver.add(resource);
 
@@ -986,32 +1114,17 @@ public class FelixFramework {
                 }
             }
 
+            // The bundles in the order they are installed, which is what the cache records
+            List<String> bundleLocations = getBundleLocations(requiredResources, optionalResources, resource);
+            prefetchArtifacts(bundleLocations);
+
             if (!resourceHasReferenceUrl) {
                 resolver.deploy(Resolver.START);
             } else {
                 // *** The Resolver can't cope with reference: URIs which is valid for Felix.
                 // *** So we have to manually install and start the bundles if ANY bundle
                 // *** is a reference
-                ArrayList<Bundle> bundlesToStart = new ArrayList<>();
-                try {
-                    Resource[] startRequiredResources = resolver.getRequiredResources();
-                    for (Resource requiredResource : startRequiredResources) {
-                        bundlesToStart.add(
-                                this.framework.getBundleContext().installBundle(requiredResource.getURI().toString()));
-                    }
-                    Resource[] startOptionalResources = resolver.getOptionalResources();
-                    for (Resource optionalResource : startOptionalResources) {
-                        bundlesToStart.add(
-                                this.framework.getBundleContext().installBundle(optionalResource.getURI().toString()));
-                    }
-
-                    bundlesToStart.add(this.framework.getBundleContext().installBundle(resource.getURI().toString()));
-                    for (Bundle bundle : bundlesToStart) {
-                        bundle.start();
-                    }
-                } catch (Exception e) {
-                    throw new LauncherException("Unable to install bundles outside of resolver", e);
-                }
+                installAndStartBundles(bundleLocations);
             }
 
             if (!isBundleActive(bundleSymbolicName)) {
@@ -1019,6 +1132,10 @@ public class FelixFramework {
                 throw new LauncherException(msg);
             }
 
+            if (cacheKey != null) {
+                obrResolutionCache.putBundleLocations(cacheKey, bundleLocations);
+            }
+
             printBundles();
         } else {
             logger.error("Unable to resolve " + resource.toString());
@@ -1030,6 +1147,38 @@ public class FelixFramework {
         }
     }
 
+    private List<String> getBundleLocations(Resource[] requiredResources, Resource[] optionalResources, Resource resource) {
+        Set<String> bundleLocations = new LinkedHashSet<>();
+        for (Resource requiredResource : requiredResources) {
+            bundleLocations.add(requiredResource.getURI());
+        }
+        for (Resource optionalResource : optionalResources) {
+            bundleLocations.add(optionalResource.getURI());
+        }
+        bundleLocations.add(resource.getURI());
+        return new ArrayList<>(bundleLocations);
+    }
+
+    /**
+     * Install all the bundles before starting any of them, so they can be wired to each other
+     * 
+     * @param bundleLocations
+     * @throws LauncherException
+     */
+    private void installAndStartBundles(List<String> bundleLocations) throws LauncherException {
+        ArrayList<Bundle> bundlesToStart = new ArrayList<>();
+        try {
+            for (String bundleLocation : bundleLocations) {
+                bundlesToStart.add(this.framework.getBundleContext().installBundle(bundleLocation));
+            }
+            for (Bundle bundle : bundlesToStart) {
+                bundle.start();
+            }
+        } catch (Exception e) {
+            throw new LauncherException("Unable to install bundles outside of resolver", e);
+        }
+    }
+
     /**
      * Return the installed Bundle object for the bundle symbolic name
      * 
@@ -0,0 +1,236 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.boot.felix;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.felix.bundlerepository.Capability;
+import org.apache.felix.bundlerepository.Repository;
+import org.apache.felix.bundlerepository.Requirement;
+import org.apache.felix.bundlerepository.Resource;
+import org.osgi.framework.Bundle;
+
+import dev.galasa.boot.BootLogger;
+
+/**
+ * A cache of OBR resolutions that is kept on disk, so it can be reused by later runs.
+ *
+ * Each entry records the locations of the bundles that the resolver chose to
+ * install for a bundle, in the order they were installed. An entry is keyed by
+ * a hash of the contents of the OBRs, the bundles that were already installed
+ * and the bundle being loaded, so a change to any of them is a cache miss rather
+ * than a stale hit.
+ */
+public class ObrResolutionCache {
+
+    private static final String CACHE_FILE_SUFFIX = ".obr";
+
+    private final BootLogger logger = new BootLogger();
+
+    private final File cacheDirectory;
+
+    // The hash of the repository contents only changes when a repository is added
+    private List<Repository> hashedRepositories = new ArrayList<>();
+    private String repositoriesHash;
+
+    public ObrResolutionCache(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Calculate the key of the cache entry for loading a bundle
+     *
+     * @param repositories       the OBRs the bundle would be resolved against
+     * @param installedBundles   the bundles already installed in the framework
+     * @param bundleSymbolicName the bundle being loaded
+     * @return the key, a hex encoded SHA-256 hash
+     */
+    public synchronized String calculateKey(Repository[] repositories, Bundle[] installedBundles, String bundleSymbolicName) {
+        MessageDigest digest = newDigest();
+        update(digest, "repositories:" + getRepositoriesHash(repositories));
+
+        List<String> installed = new ArrayList<>();
+        if (installedBundles != null) {
+            for (Bundle bundle : installedBundles) {
+                installed.add(bundle.getSymbolicName() + ";" + bundle.getVersion());
+            }
+        }
+        installed.sort(null);
+        for (String bundle : installed) {
+            update(digest, "installed:" + bundle);
+        }
+
+        update(digest, "bundle:" + bundleSymbolicName);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @param key the key of the cache entry
+     * @return the bundle locations to install, in order, or null if there is no entry
+     */
+    public List<String> getBundleLocations(String key) {
+        Path cacheFile = getCacheFile(key);
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+
+        try {
+            List<String> bundleLocations = new ArrayList<>();
+            for (String line : Files.readAllLines(cacheFile, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    bundleLocations.add(line);
+                }
+            }
+            if (bundleLocations.isEmpty()) {
+                return null;
+            }
+            return bundleLocations;
+        } catch (IOException e) {
+            logger.warn("Unable to read OBR resolution cache file " + cacheFile + ", " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Record the bundle locations that were installed for a cache entry. The
+     * file is written under a temporary name and moved into place, so other
+     * runs sharing the cache never read a partly written entry.
+     *
+     * @param key             the key of the cache entry
+     * @param bundleLocations the bundle locations, in the order they were installed
+     */
+    public void putBundleLocations(String key, List<String> bundleLocations) {
+        Path cacheFile = getCacheFile(key);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheDirectory.toPath());
+            tempFile = Files.createTempFile(cacheDirectory.toPath(), key, ".tmp");
+            Files.write(tempFile, bundleLocations, StandardCharsets.UTF_8);
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to write OBR resolution cache file " + cacheFile + ", " + e.getMessage());
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * Remove a cache entry, used when the cached bundles could not be installed
+     *
+     * @param key the key of the cache entry
+     */
+    public void remove(String key) {
+        deleteQuietly(getCacheFile(key));
+    }
+
+    private Path getCacheFile(String key) {
+        return new File(cacheDirectory, key + CACHE_FILE_SUFFIX).toPath();
+    }
+
+    private String getRepositoriesHash(Repository[] repositories) {
+        List<Repository> repositoryList = (repositories == null) ? new ArrayList<>() : Arrays.asList(repositories);
+        if (repositoriesHash == null || !hashedRepositories.equals(repositoryList)) {
+            repositoriesHash = hashRepositories(repositoryList);
+            hashedRepositories = new ArrayList<>(repositoryList);
+        }
+        return repositoriesHash;
+    }
+
+    private String hashRepositories(List<Repository> repositories) {
+        List<Repository> sortedRepositories = new ArrayList<>(repositories);
+        sortedRepositories.sort(Comparator.comparing(Repository::getURI, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        MessageDigest digest = newDigest();
+        for (Repository repository : sortedRepositories) {
+            update(digest, "repository:" + repository.getURI() + ";" + repository.getLastModified());
+            Resource[] resources = repository.getResources();
+            if (resources == null) {
+                continue;
+            }
+            for (Resource resource : resources) {
+                update(digest, "resource:" + resource.getId() + ";" + resource.getURI());
+
+                Requirement[] requirements = resource.getRequirements();
+                if (requirements != null) {
+                    for (Requirement requirement : requirements) {
+                        update(digest, "requirement:" + requirement.getFilter() + ";" + requirement.isOptional());
+                    }
+                }
+
+                Capability[] capabilities = resource.getCapabilities();
+                if (capabilities != null) {
+                    for (Capability capability : capabilities) {
+                        Map<?, ?> properties = capability.getPropertiesAsMap();
+                        String sortedProperties = (properties == null) ? "" : toStringMap(properties).toString();
+                        update(digest, "capability:" + capability.getName() + ";" + sortedProperties);
+                    }
+                }
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private Map<String, String> toStringMap(Map<?, ?> properties) {
+        Map<String, String> stringMap = new TreeMap<>();
+        for (Map.Entry<?, ?> entry : properties.entrySet()) {
+            stringMap.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+        }
+        return stringMap;
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Ignore, the entry will be overwritten by the next resolve
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.boot.felix;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long each phase of starting the Felix framework took. A phase that is
+ * entered more than once, such as loading a bundle, adds up its durations and
+ * keeps the time it was first entered.
+ *
+ * The timings are passed on to the test runner as the
+ * {@value #PHASE_TIMINGS_PROPERTY} override, in the form
+ * <code>phase=startEpochMillis:durationMillis,...</code>, so they are
+ * recorded in the test structure with the rest of the phases of the run.
+ */
+public class StartupPhaseTimings {
+
+    public static final String PHASE_TIMINGS_PROPERTY = "framework.boot.phase.timings";
+
+    public static final String PHASE_FRAMEWORK_START = "bootFrameworkStart";
+    public static final String PHASE_REPOSITORY_LOAD = "bootRepositoryLoad";
+    public static final String PHASE_BUNDLE_LOAD     = "bootBundleLoad";
+
+    private final Map<String, long[]> timings = new LinkedHashMap<>();
+
+    private int resolutionCacheHits;
+    private int resolutionCacheMisses;
+
+    /**
+     * A phase that is being timed
+     */
+    public class Timer {
+        private final String phase;
+        private final long startEpochMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+
+        private Timer(String phase) {
+            this.phase = phase;
+        }
+
+        public void stop() {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            record(phase, startEpochMillis, durationMillis);
+        }
+    }
+
+    public Timer start(String phase) {
+        return new Timer(phase);
+    }
+
+    public synchronized void record(String phase, long startEpochMillis, long durationMillis) {
+        long[] timing = timings.get(phase);
+        if (timing == null) {
+            timings.put(phase, new long[] { startEpochMillis, durationMillis });
+        } else {
+            timing[1] += durationMillis;
+        }
+    }
+
+    public synchronized Long getDurationMillis(String phase) {
+        long[] timing = timings.get(phase);
+        return (timing == null) ? null : timing[1];
+    }
+
+    public synchronized void recordResolutionCacheHit() {
+        resolutionCacheHits++;
+    }
+
+    public synchronized void recordResolutionCacheMiss() {
+        resolutionCacheMisses++;
+    }
+
+    public synchronized int getResolutionCacheHits() {
+        return resolutionCacheHits;
+    }
+
+    public synchronized int getResolutionCacheMisses() {
+        return resolutionCacheMisses;
+    }
+
+    /**
+     * @return the timings in the form used by the {@value #PHASE_TIMINGS_PROPERTY} override
+     */
+    public synchronized String toPropertyValue() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : timings.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey());
+            sb.append('=');
+            sb.append(entry.getValue()[0]);
+            sb.append(':');
+            sb.append(entry.getValue()[1]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : timings.entrySet()) {
+            sb.append(entry.getKey());
+            sb.append('=');
+            sb.append(entry.getValue()[1]);
+            sb.append("ms ");
+        }
+        sb.append("obrResolutionCacheHits=");
+        sb.append(resolutionCacheHits);
+        sb.append(" obrResolutionCacheMisses=");
+        sb.append(resolutionCacheMisses);
+        return sb.toString();
+    }
+}
@@ -7,6 +7,7 @@ package dev.galasa.boot.felix;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -16,7 +17,9 @@ import java.util.stream.Collectors;
 
 import org.apache.felix.bundlerepository.Repository;
 import org.apache.felix.bundlerepository.Resource;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.osgi.framework.Bundle;
 
 import dev.galasa.boot.mocks.MockRunnableService;
@@ -35,6 +38,9 @@ import dev.galasa.boot.mocks.MockServiceReference;
 
 public class TestFelixFramework {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testRunWebApiServerLoadsExtraApiBundles() throws Exception {
         // Given...
@@ -378,4 +384,126 @@ public class TestFelixFramework {
         // Then - nothing should have been installed
         assertThat(mockBundleContext.getInstalledBundleLocations()).isEmpty();
     }
+
+    private MockFelixFramework createApiServerFramework(MockBundleContext mockBundleContext, MockRepositoryAdmin mockRepoAdmin, File cacheDirectory) {
+        Map<String, MockServiceReference<?>> services = new HashMap<>();
+        services.put("dev.galasa.framework.api.internal.ApiStartup", new MockServiceReference<>(new MockRunnableService(), null));
+
+        MockFelixFramework felixFramework = new MockFelixFramework(new MockOsgiFramework(mockBundleContext), mockRepoAdmin);
+        felixFramework.obrResolutionCache = new ObrResolutionCache(cacheDirectory);
+        return felixFramework;
+    }
+
+    private Bundle[] getApiServerBundles() {
+        Map<String, MockServiceReference<?>> services = new HashMap<>();
+        services.put("dev.galasa.framework.api.internal.ApiStartup", new MockServiceReference<>(new MockRunnableService(), null));
+
+        return new Bundle[] {
+            new MockBundle("dev.galasa.framework", new MockBundleContext(services)),
+            new MockBundle("org.apache.felix.http.servlet-api"),
+            new MockBundle("org.apache.felix.http.jetty"),
+            new MockBundle("org.apache.felix.fileinstall"),
+            new MockBundle("dev.galasa.framework.api"),
+        };
+    }
+
+    @Test
+    public void testLoadBundleInstallsCachedResolutionWithoutResolving() throws Exception {
+        // Given...
+        File cacheDirectory = temporaryFolder.newFolder("obr-resolution");
+        Repository[] repositories = new Repository[] {
+            new MockRepository(new Resource[] { new MockResource("dependency", "dependency", "mvn:dev.galasa/dependency/0.1.0/jar") })
+        };
+
+        // A first run resolves each bundle and records the resolution
+        MockResolver firstResolver = new MockResolver();
+        firstResolver.add(new MockResource("dependency", "dependency", "mvn:dev.galasa/dependency/0.1.0/jar"));
+        MockBundleContext firstBundleContext = new MockBundleContext(getApiServerBundles());
+        MockFelixFramework firstFramework = createApiServerFramework(firstBundleContext,
+            new MockRepositoryAdmin(firstResolver, repositories), cacheDirectory);
+        firstFramework.runWebApiServer(new Properties(), new Properties(), new ArrayList<>(), 0, 0);
+
+        MockResolver secondResolver = new MockResolver();
+        MockBundleContext secondBundleContext = new MockBundleContext(getApiServerBundles());
+        MockFelixFramework secondFramework = createApiServerFramework(secondBundleContext,
+            new MockRepositoryAdmin(secondResolver, repositories), cacheDirectory);
+
+        // When...
+        secondFramework.runWebApiServer(new Properties(), new Properties(), new ArrayList<>(), 0, 0);
+
+        // Then...
+        assertThat(firstFramework.startupPhaseTimings.getResolutionCacheMisses()).isEqualTo(4);
+        assertThat(cacheDirectory.listFiles()).hasSize(4);
+
+        assertThat(secondResolver.getAllResources()).isEmpty();
+        assertThat(secondBundleContext.getInstalledBundleLocations()).contains("mvn:dev.galasa/dependency/0.1.0/jar", "uri");
+        assertThat(secondFramework.startupPhaseTimings.getResolutionCacheHits()).isEqualTo(4);
+        assertThat(secondFramework.startupPhaseTimings.getResolutionCacheMisses()).isEqualTo(0);
+        assertThat(secondFramework.startupPhaseTimings.getDurationMillis(StartupPhaseTimings.PHASE_BUNDLE_LOAD)).isNotNull();
+    }
+
+    @Test
+    public void testLoadBundleResolvesAgainWhenTheObrContentsChange() throws Exception {
+        // Given...
+        File cacheDirectory = temporaryFolder.newFolder("obr-resolution");
+
+        MockResolver firstResolver = new MockResolver();
+        Repository[] firstRepositories = new Repository[] {
+            new MockRepository(new Resource[] { new MockResource("dependency", "dependency", "mvn:dev.galasa/dependency/0.1.0/jar") })
+        };
+        MockFelixFramework firstFramework = createApiServerFramework(new MockBundleContext(getApiServerBundles()),
+            new MockRepositoryAdmin(firstResolver, firstRepositories), cacheDirectory);
+        firstFramework.runWebApiServer(new Properties(), new Properties(), new ArrayList<>(), 0, 0);
+
+        MockResolver secondResolver = new MockResolver();
+        Repository[] secondRepositories = new Repository[] {
+            new MockRepository(new Resource[] { new MockResource("dependency", "dependency", "mvn:dev.galasa/dependency/0.2.0/jar") })
+        };
+        MockFelixFramework secondFramework = createApiServerFramework(new MockBundleContext(getApiServerBundles()),
+            new MockRepositoryAdmin(secondResolver, secondRepositories), cacheDirectory);
+
+        // When...
+        secondFramework.runWebApiServer(new Properties(), new Properties(), new ArrayList<>(), 0, 0);
+
+        // Then...
+        List<String> resolvedResourceIds = secondResolver.getAllResources()
+            .stream()
+            .map(Resource::getId)
+            .collect(Collectors.toList());
+        assertThat(resolvedResourceIds).contains("org.apache.felix.http.jetty", "dev.galasa.framework.api");
+        assertThat(secondFramework.startupPhaseTimings.getResolutionCacheHits()).isEqualTo(0);
+        assertThat(cacheDirectory.listFiles()).hasSize(8);
+    }
+
+    @Test
+    public void testLoadBundleResolvesAgainWhenCachedBundlesDoNotActivate() throws Exception {
+        // Given...
+        File cacheDirectory = temporaryFolder.newFolder("obr-resolution");
+        Repository[] repositories = new Repository[0];
+
+        MockFelixFramework firstFramework = createApiServerFramework(new MockBundleContext(getApiServerBundles()),
+            new MockRepositoryAdmin(new MockResolver(), repositories), cacheDirectory);
+        firstFramework.runWebApiServer(new Properties(), new Properties(), new ArrayList<>(), 0, 0);
+
+        // The jetty bundle installed from the cache doesn't become active
+        Bundle[] bundles = getApiServerBundles();
+        ((MockBundle) bundles[2]).setState(Bundle.INSTALLED);
+
+        MockResolver secondResolver = new MockResolver();
+        MockFelixFramework secondFramework = createApiServerFramework(new MockBundleContext(bundles),
+            new MockRepositoryAdmin(secondResolver, repositories), cacheDirectory);
+
+        // When...
+        LauncherException err = catchThrowableOfType(LauncherException.class, () -> {
+            secondFramework.runWebApiServer(new Properties(), new Properties(), new ArrayList<>(), 0, 0);
+        });
+
+        // Then...
+        assertThat(err).isNotNull();
+        assertThat(err.getCause().getMessage()).contains("Bundle 'org.apache.felix.http.jetty' failed to install and activate");
+        assertThat(secondResolver.getAllResources()).extracting(Resource::getId).containsExactly("org.apache.felix.http.jetty");
+        assertThat(secondFramework.startupPhaseTimings.getResolutionCacheHits()).isEqualTo(1);
+        assertThat(secondFramework.startupPhaseTimings.getResolutionCacheMisses()).isEqualTo(1);
+        assertThat(cacheDirectory.listFiles()).hasSize(3);
+    }
 }
@@ -67,7 +67,7 @@ public class MockBundle implements Bundle {
 
     @Override
     public void start() throws BundleException {
-        throw new UnsupportedOperationException("Unimplemented method 'start'");
+        // Do nothing...
     }
 
     @Override
@@ -172,7 +172,7 @@ public class MockBundle implements Bundle {
 
     @Override
     public Version getVersion() {
-        throw new UnsupportedOperationException("Unimplemented method 'getVersion'");
+        return Version.emptyVersion;
     }
 
     @Override
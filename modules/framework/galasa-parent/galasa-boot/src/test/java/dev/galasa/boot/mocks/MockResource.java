@@ -67,12 +67,12 @@ public class MockResource implements Resource {
 
     @Override
     public Capability[] getCapabilities() {
-        throw new UnsupportedOperationException("Unimplemented method 'getCapabilities'");
+        return new Capability[0];
     }
 
     @Override
     public Requirement[] getRequirements() {
-        throw new UnsupportedOperationException("Unimplemented method 'getRequirements'");
+        return new Requirement[0];
     }
 
     @Override
@@ -259,6 +259,18 @@ public interface IHttpClient {
      */
     HttpClientResponse<byte[]> putBinary(String url, byte[] binary) throws HttpClientException;
 
+    /**
+     * Issue an HTTP PUT to the provided URL, streaming the request body from the
+     * provided {@link InputStream} and receiving a {@link byte[]} in the response.
+     * The stream is read once, so the request cannot be resent.
+     * 
+     * @param url
+     * @param binary
+     * @return - {@link HttpClientResponse} with a {@link byte[]} content type
+     * @throws HttpClientException
+     */
+    HttpClientResponse<byte[]> putBinary(String url, InputStream binary) throws HttpClientException;
+
     /**
      * Issue an HTTP GET to the provided URL, sending the provided
      * {@link byte[]} and receiving a {@link byte[]} in the response.
@@ -369,6 +369,14 @@ public class HttpClientImpl implements IHttpClient {
         return executeByteRequest(request);
     }
 
+    @Override
+    public HttpClientResponse<byte[]> putBinary(String url, InputStream binary) throws HttpClientException {       
+        HttpClientRequest request = HttpClientRequest.newPutRequest(buildUri(url, null).toString(),
+                new ContentType[] { ContentType.TEXT_PLAIN }, ContentType.TEXT_PLAIN);
+        request.setBody(binary);
+        return executeByteRequest(request);
+    }
+
     @Override
     public HttpClientResponse<byte[]> getBinary(String url, byte[] binary) throws HttpClientException {       
         HttpClientRequest request = HttpClientRequest.newGetRequest(buildUri(url, null).toString(),
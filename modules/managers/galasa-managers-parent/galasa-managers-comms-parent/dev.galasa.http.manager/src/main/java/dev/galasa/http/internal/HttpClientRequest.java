@@ -7,6 +7,7 @@ package dev.galasa.http.internal;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -30,6 +31,7 @@ import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.FileEntity;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.apache.hc.core5.net.URIBuilder;
@@ -193,6 +195,19 @@ public class HttpClientRequest {
         return this;
     }
 
+    /**
+     * Set the body of the request, which is streamed from the
+     * {@link InputStream} when the request is sent
+     * 
+     * @param data
+     * @return - the updated request
+     */
+    public HttpClientRequest setBody(InputStream data) {
+        this.content = new InputStreamEntity(data, null);
+
+        return this;
+    }
+
     /**
      * Set the body of the request
      * 
@@ -8,6 +8,7 @@ package dev.galasa.http.internal;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.validation.constraints.NotNull;
@@ -32,7 +33,8 @@ import dev.galasa.http.spi.IHttpManagerSpi;
 public class HttpManagerImpl extends AbstractManager implements IHttpManagerSpi {
 
     private static final Log  logger              = LogFactory.getLog(HttpManagerImpl.class);
-    private List<IHttpClient> instantiatedClients = new ArrayList<>();
+    // Clients are created by the threads of other managers as well as the test
+    private List<IHttpClient> instantiatedClients = Collections.synchronizedList(new ArrayList<>());
 
     @GenerateAnnotatedField(annotation = HttpClient.class)
     public IHttpClient generateHttpClient(Field field, List<Annotation> annotations) {
@@ -57,8 +59,10 @@ public class HttpManagerImpl extends AbstractManager implements IHttpManagerSpi
 
     @Override
     public void shutdown() {
-        for (IHttpClient client : instantiatedClients) {
-            client.close();
+        synchronized (instantiatedClients) {
+            for (IHttpClient client : instantiatedClients) {
+                client.close();
+            }
         }
     }
 
@@ -79,6 +79,7 @@ import dev.galasa.zosbatch.internal.ZosBatchJobOutputSpoolFileImpl;
 import dev.galasa.zosbatch.internal.ZosBatchJobnameImpl;
 import dev.galasa.zosbatch.internal.properties.BatchRestrictToImage;
 import dev.galasa.zosbatch.internal.properties.JobWaitTimeout;
+import dev.galasa.zosbatch.internal.properties.SpoolRetrievalThreads;
 import dev.galasa.zosbatch.internal.properties.TruncateJCLRecords;
 import dev.galasa.zosbatch.internal.properties.UseSysaff;
 import dev.galasa.zosbatch.internal.properties.ZosBatchPropertiesSingleton;
@@ -87,6 +88,8 @@ import dev.galasa.zosconsole.ZosConsoleManagerException;
 import dev.galasa.zosconsole.internal.properties.ConsoleRestrictToImage;
 import dev.galasa.zosconsole.internal.properties.ZosConsolePropertiesSingleton;
 import dev.galasa.zosfile.ZosFileManagerException;
+import dev.galasa.zosfile.internal.properties.DatasetMemberRetry;
+import dev.galasa.zosfile.internal.properties.DatasetMemberThreads;
 import dev.galasa.zosfile.internal.properties.DirectoryListMaxItems;
 import dev.galasa.zosfile.internal.properties.FileRestrictToImage;
 import dev.galasa.zosfile.internal.properties.UnixFilePermissions;
@@ -587,6 +590,11 @@ public class ZosManagerImpl extends AbstractManager implements IZosManagerSpi {
         return TruncateJCLRecords.get(imageId);
     }
 
+    @Override
+    public int getZosBatchPropertySpoolRetrievalThreads(String imageId) throws ZosBatchManagerException {
+        return SpoolRetrievalThreads.get(imageId);
+    }
+
     @Override
     public IZosBatchJobname newZosBatchJobname(IZosImage image) throws ZosBatchException {
         return new ZosBatchJobnameImpl(image);
@@ -622,6 +630,16 @@ public class ZosManagerImpl extends AbstractManager implements IZosManagerSpi {
         return UnixFilePermissions.get(imageId);
     }
 
+    @Override
+    public int getZosFilePropertyDatasetMemberThreads(String imageId) throws ZosFileManagerException {
+        return DatasetMemberThreads.get(imageId);
+    }
+
+    @Override
+    public int getZosFilePropertyDatasetMemberRetry(String imageId) throws ZosFileManagerException {
+        return DatasetMemberRetry.get(imageId);
+    }
+
     @Override
     public boolean getZosConsolePropertyConsoleRestrictToImage(String imageId) throws ZosConsoleManagerException {
         return ConsoleRestrictToImage.get(imageId);
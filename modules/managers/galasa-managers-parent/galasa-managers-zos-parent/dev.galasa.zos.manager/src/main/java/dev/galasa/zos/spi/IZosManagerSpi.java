@@ -112,6 +112,14 @@ public interface IZosManagerSpi extends IZosManager {
 	 */
 	boolean getZosBatchPropertyTruncateJCLRecords(String imageId) throws ZosBatchManagerException;
 
+	/**
+	 * Provides other managers to the zOS Batch {@code zosbatch.batchjob.[imageid].spool.retrieval.threads} property
+	 * @param imageId
+	 * @return
+	 * @throws ZosBatchManagerException
+	 */
+	int getZosBatchPropertySpoolRetrievalThreads(String imageId) throws ZosBatchManagerException;
+
 	/**
 	 * Provides other managers a {@link IZosBatchJobname} with a prefix defined by the zOS Batch {@code zosbatch.jobname.[imageid].prefix} property
 	 * @param image
@@ -199,6 +207,22 @@ public interface IZosManagerSpi extends IZosManager {
      */
 	String getZosFilePropertyUnixFilePermissions(String imageId) throws ZosFileManagerException;
 	
+    /**
+     * Provides other managers to the zOS File {@code zosfile.dataset.[imageid].member.threads} property
+     * @param imageId
+     * @return
+     * @throws ZosFileManagerException
+     */
+	int getZosFilePropertyDatasetMemberThreads(String imageId) throws ZosFileManagerException;
+	
+    /**
+     * Provides other managers to the zOS File {@code zosfile.dataset.[imageid].member.retry} property
+     * @param imageId
+     * @return
+     * @throws ZosFileManagerException
+     */
+	int getZosFilePropertyDatasetMemberRetry(String imageId) throws ZosFileManagerException;
+	
     /**
      * Provides other managers to the zOS Console {@code zosconsole.console.[imageid].restrict.to.image} property
      * @param imageId
@@ -6,6 +6,7 @@
 package dev.galasa.zosbatch;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 import javax.validation.constraints.NotNull;
 
@@ -49,4 +50,28 @@ public interface IZosBatch {
      * @throws ZosBatchException 
      */
     public List<IZosBatchJob> getJobs(String jobname, String owner) throws ZosBatchException;
+
+    /**
+     * Wait for a set of jobs submitted by this zOS Batch instance to complete, without a thread for each job.
+     * Each job's {@link Future} completes with the highest return code for the job, as {@link IZosBatchJob#waitForJob()}
+     * returns it. The method will wait for the default resource wait time before timing out, the {@link Future}s of the
+     * jobs that have not completed by then return {@link Integer#MIN_VALUE}.
+     * 
+     * @param jobs - The jobs to wait for
+     * @return a {@link List} of {@link Future}s, one for each job in the same order as the jobs
+     * @throws ZosBatchException
+     */
+    public List<Future<Integer>> waitForJobs(@NotNull List<IZosBatchJob> jobs) throws ZosBatchException;
+
+    /**
+     * Wait for a set of jobs submitted by this zOS Batch instance to complete, without a thread for each job.
+     * Each job's {@link Future} completes with the highest return code for the job, as {@link IZosBatchJob#waitForJob()}
+     * returns it. The {@link Future}s of the jobs that have not completed before the timeout return {@link Integer#MIN_VALUE}.
+     * 
+     * @param jobs - The jobs to wait for
+     * @param timeout in seconds
+     * @return a {@link List} of {@link Future}s, one for each job in the same order as the jobs
+     * @throws ZosBatchException
+     */
+    public List<Future<Integer>> waitForJobs(@NotNull List<IZosBatchJob> jobs, long timeout) throws ZosBatchException;
 }
@@ -5,7 +5,12 @@
  */
 package dev.galasa.zosfile;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
 
@@ -258,7 +263,35 @@ public interface IZosDataset {
     public byte[] retrieveAsBinary() throws ZosDatasetException;
 
     /**
-     * Store the content of the data set to the Results Archive Store
+     * Write content to the data set from a stream, in the mode of the data set data type.
+     * The content is streamed to the server rather than held in memory, so it is not retried on failure
+     * <p>See {@link #setDataType(DatasetDataType)}
+     * @param content the stream to read the content from, which is not closed
+     * @throws ZosDatasetException
+     */
+    public void storeFromStream(@NotNull InputStream content) throws ZosDatasetException;
+
+    /**
+     * Retrieve content of the data set to a stream, in the mode of the data set data type.
+     * The content is streamed from the server rather than held in memory
+     * <p>See {@link #setDataType(DatasetDataType)}
+     * @param content the stream to write the content to, which is not closed
+     * @return the number of bytes written
+     * @throws ZosDatasetException
+     */
+    public long retrieveToStream(@NotNull OutputStream content) throws ZosDatasetException;
+
+    /**
+     * Retrieve the records of the data set in Text mode, one record at a time as they are read from the server.
+     * The returned {@link Stream} holds the connection to the server open, so must be closed, e.g. with try-with-resources
+     * @return the records of the data set
+     * @throws ZosDatasetException
+     */
+    public Stream<String> retrieveRecords() throws ZosDatasetException;
+
+    /**
+     * Store the content of the data set to the Results Archive Store. The members of a partitioned data set are stored
+     * at the same time, up to the {@code zosfile.dataset.[imageid].member.threads} CPS property
      * @param rasPath path in Results Archive Store
      * @throws ZosDatasetException
      */
@@ -332,6 +365,34 @@ public interface IZosDataset {
      */
     public  byte[] memberRetrieveAsBinary(@NotNull String memberName) throws ZosDatasetException;
 
+    /**
+     * Write content to the partitioned data set member from a stream, in the mode of the data set data type.
+     * The content is streamed to the server rather than held in memory, so it is not retried on failure
+     * @param memberName
+     * @param content the stream to read the content from, which is not closed
+     * @throws ZosDatasetException
+     */
+    public void memberStoreFromStream(@NotNull String memberName, @NotNull InputStream content) throws ZosDatasetException;
+
+    /**
+     * Retrieve content from the partitioned data set member to a stream, in the mode of the data set data type.
+     * The content is streamed from the server rather than held in memory
+     * @param memberName
+     * @param content the stream to write the content to, which is not closed
+     * @return the number of bytes written
+     * @throws ZosDatasetException
+     */
+    public long memberRetrieveToStream(@NotNull String memberName, @NotNull OutputStream content) throws ZosDatasetException;
+
+    /**
+     * Retrieve the records of the partitioned data set member in Text mode, one record at a time as they are read from the server.
+     * The returned {@link Stream} holds the connection to the server open, so must be closed, e.g. with try-with-resources
+     * @param memberName
+     * @return the records of the member
+     * @throws ZosDatasetException
+     */
+    public Stream<String> memberRetrieveRecords(@NotNull String memberName) throws ZosDatasetException;
+
     /**
      * List the members of the partitioned data set
      * @return
@@ -339,6 +400,54 @@ public interface IZosDataset {
      */
     public Collection<String> memberList() throws ZosDatasetException;
 
+    /**
+     * Write content to several members of the partitioned data set in Text mode. The members are written at the same time,
+     * up to the {@code zosfile.dataset.[imageid].member.threads} CPS property, and a member that fails is retried
+     * @param members the content of each member, by member name
+     * @throws ZosDatasetException naming the members that could not be written
+     */
+    public void membersStoreText(@NotNull Map<String, String> members) throws ZosDatasetException;
+
+    /**
+     * Write content to several members of the partitioned data set in Binary mode. The members are written at the same time,
+     * up to the {@code zosfile.dataset.[imageid].member.threads} CPS property, and a member that fails is retried
+     * @param members the content of each member, by member name
+     * @throws ZosDatasetException naming the members that could not be written
+     */
+    public void membersStoreBinary(@NotNull Map<String, byte[]> members) throws ZosDatasetException;
+
+    /**
+     * Retrieve content from the members of the partitioned data set in Text mode. The members are retrieved at the same time,
+     * up to the {@code zosfile.dataset.[imageid].member.threads} CPS property, and a member that fails is retried
+     * @param memberPattern the members to retrieve, where {@code *} matches any characters and {@code ?} matches one character,
+     *        or null for all the members
+     * @return the content of each member, by member name, in the order of {@link #memberList()}
+     * @throws ZosDatasetException naming the members that could not be retrieved
+     */
+    public Map<String, String> membersRetrieveAsText(String memberPattern) throws ZosDatasetException;
+
+    /**
+     * Retrieve content from the members of the partitioned data set in Binary mode. The members are retrieved at the same time,
+     * up to the {@code zosfile.dataset.[imageid].member.threads} CPS property, and a member that fails is retried
+     * @param memberPattern the members to retrieve, where {@code *} matches any characters and {@code ?} matches one character,
+     *        or null for all the members
+     * @return the content of each member, by member name, in the order of {@link #memberList()}
+     * @throws ZosDatasetException naming the members that could not be retrieved
+     */
+    public Map<String, byte[]> membersRetrieveAsBinary(String memberPattern) throws ZosDatasetException;
+
+    /**
+     * Retrieve content from the members of the partitioned data set to a file for each member in a local directory, in the mode
+     * of the data set data type. The content is streamed to the files rather than held in memory, so use this for partitioned
+     * data sets too large for {@link #membersRetrieveAsText(String)}
+     * @param memberPattern the members to retrieve, where {@code *} matches any characters and {@code ?} matches one character,
+     *        or null for all the members
+     * @param directory the directory to create the files in, which is created if it does not exist
+     * @return the file of each member, by member name, in the order of {@link #memberList()}
+     * @throws ZosDatasetException naming the members that could not be retrieved
+     */
+    public Map<String, Path> membersRetrieveToDirectory(String memberPattern, @NotNull Path directory) throws ZosDatasetException;
+
     /**
      * Store the content of the partitioned data set member to the Results Archive Store
      * @param memberName
@@ -0,0 +1,55 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosfile.internal.properties;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosfile.ZosFileManagerException;
+
+/**
+ * zOS File the number of times to retry a partitioned data set member
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosfile.dataset.[imageid].member.retry
+ * 
+ * @galasa.description The number of times the bulk member methods retry storing, retrieving or archiving a member of a partitioned data set that failed, 
+ * in addition to the retries of each request to the server
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 1
+ * 
+ * @galasa.valid_values 0 to {@link Integer#MAX_VALUE}
+ * 
+ * @galasa.examples 
+ * <code>zosfile.dataset.MVSA.member.retry=2</code><br>
+ * <code>zosfile.dataset.default.member.retry=0</code>
+ *
+ */
+public class DatasetMemberRetry extends CpsProperties {
+
+    private static final int DEFAULT_MEMBER_RETRY = 1;
+
+    public static int get(String imageId) throws ZosFileManagerException {
+        try {
+            String retryString = getStringNulled(ZosFilePropertiesSingleton.cps(), "dataset", "member.retry", imageId);
+
+            if (retryString == null) {
+                return DEFAULT_MEMBER_RETRY;
+            } else {
+                int retry = Integer.parseInt(retryString);
+                if (retry < 0) {
+                    throw new ZosFileManagerException("Data set member retry property must not be negative");
+                }
+                return retry;
+            }
+        } catch (ConfigurationPropertyStoreException | NumberFormatException e) {
+            throw new ZosFileManagerException("Problem asking the CPS for the data set member retry property for zOS image "  + imageId, e);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosfile.internal.properties;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosfile.ZosFileManagerException;
+
+/**
+ * zOS File the number of partitioned data set members to process at the same time
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosfile.dataset.[imageid].member.threads
+ * 
+ * @galasa.description The maximum number of members of a partitioned data set the bulk member methods store, retrieve or archive at the same time
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 4
+ * 
+ * @galasa.valid_values 1 to {@link Integer#MAX_VALUE}
+ * 
+ * @galasa.examples 
+ * <code>zosfile.dataset.MVSA.member.threads=8</code><br>
+ * <code>zosfile.dataset.default.member.threads=1</code>
+ *
+ */
+public class DatasetMemberThreads extends CpsProperties {
+
+    private static final int DEFAULT_MEMBER_THREADS = 4;
+
+    public static int get(String imageId) throws ZosFileManagerException {
+        try {
+            String threadsString = getStringNulled(ZosFilePropertiesSingleton.cps(), "dataset", "member.threads", imageId);
+
+            if (threadsString == null) {
+                return DEFAULT_MEMBER_THREADS;
+            } else {
+                int threads = Integer.parseInt(threadsString);
+                if (threads < 1) {
+                    throw new ZosFileManagerException("Data set member threads property must be greater than 0");
+                }
+                return threads;
+            }
+        } catch (ConfigurationPropertyStoreException | NumberFormatException e) {
+            throw new ZosFileManagerException("Problem asking the CPS for the data set member threads property for zOS image "  + imageId, e);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosfile.spi;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zosfile.ZosDatasetException;
+
+/**
+ * Sends a request for each of a set of partitioned data set members for the bulk member methods of
+ * {@link dev.galasa.zosfile.IZosDataset}.
+ *
+ * The requests are sent on the executor shared by the data sets of the image, which runs up to
+ * {@code threads} requests at a time, and the request for a member that fails is sent again up to
+ * {@code retry} times. A failed member doesn't stop the others, the failures are reported together
+ * once all the members have been tried.
+ */
+public class ZosDatasetMemberExecutor {
+
+    private static final Log logger = LogFactory.getLog(ZosDatasetMemberExecutor.class);
+
+    /**
+     * A request for one member of the partitioned data set
+     */
+    public interface MemberRequest<T> {
+        T send(String memberName) throws ZosDatasetException;
+    }
+
+    private final String dsname;
+    private final ExecutorService executor;
+    private final int threads;
+    private final int retry;
+
+    /**
+     * @param dsname the partitioned data set
+     * @param executor the executor for the member requests of the image, only used when {@code threads} is more than 1
+     * @param threads the number of requests the executor runs at a time
+     * @param retry the number of times to send the request for a member again after it fails
+     */
+    public ZosDatasetMemberExecutor(String dsname, ExecutorService executor, int threads, int retry) {
+        this.dsname = dsname;
+        this.executor = executor;
+        this.threads = threads;
+        this.retry = retry;
+    }
+
+    /**
+     * Send the request for each of the members
+     *
+     * @param action what the request does, for messages, e.g. "retrieve"
+     * @param memberNames the members to send the request for
+     * @param request the request
+     * @return the result of the request for each member, in the order of the member names
+     * @throws ZosDatasetException if the request for any of the members failed, naming all the failed members
+     */
+    public <T> Map<String, T> run(String action, Collection<String> memberNames, MemberRequest<T> request) throws ZosDatasetException {
+        Map<String, T> results = new LinkedHashMap<>();
+        Map<String, ZosDatasetException> failures = new LinkedHashMap<>();
+        long startTime = System.nanoTime();
+
+        if (this.threads <= 1 || memberNames.size() <= 1) {
+            for (String memberName : memberNames) {
+                try {
+                    results.put(memberName, sendWithRetry(action, memberName, request));
+                } catch (ZosDatasetException e) {
+                    failures.put(memberName, e);
+                }
+            }
+        } else {
+            Map<String, Future<T>> futures = new LinkedHashMap<>();
+            try {
+                for (String memberName : memberNames) {
+                    futures.put(memberName, this.executor.submit(() -> sendWithRetry(action, memberName, request)));
+                }
+                for (Entry<String, Future<T>> entry : futures.entrySet()) {
+                    try {
+                        results.put(entry.getKey(), entry.getValue().get());
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof ZosDatasetException) {
+                            failures.put(entry.getKey(), (ZosDatasetException) cause);
+                        } else {
+                            failures.put(entry.getKey(), new ZosDatasetException(cause));
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ZosDatasetException("Interrupted while waiting to " + action + " the members of data set '" + this.dsname + "'", e);
+            } catch (RejectedExecutionException e) {
+                throw new ZosDatasetException("Unable to " + action + " the members of data set '" + this.dsname + "', the test run is ending", e);
+            } finally {
+                // Don't leave requests for the other data sets of the image waiting behind this one
+                for (Future<T> future : futures.values()) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        logger.info("Tried to " + action + " " + memberNames.size() + " members of data set '" + this.dsname + "' in " + elapsedMillis + "ms, " + failures.size() + " failed");
+
+        if (!failures.isEmpty()) {
+            String displayMessage = "Unable to " + action + " " + failures.size() + " of " + memberNames.size() + " members of data set '" + this.dsname + "': " + String.join(", ", failures.keySet());
+            logger.error(displayMessage);
+            throw new ZosDatasetException(displayMessage, failures.values().iterator().next());
+        }
+        return results;
+    }
+
+    protected <T> T sendWithRetry(String action, String memberName, MemberRequest<T> request) throws ZosDatasetException {
+        for (int attempt = 0;; attempt++) {
+            try {
+                return request.send(memberName);
+            } catch (ZosDatasetException e) {
+                if (attempt >= this.retry) {
+                    throw e;
+                }
+                logger.warn("Unable to " + action + " member " + memberName + " of data set '" + this.dsname + "', retrying", e);
+            }
+        }
+    }
+
+    /**
+     * @param memberNames the members of the partitioned data set
+     * @param memberPattern the members to select, where {@code *} matches any characters and {@code ?} matches one character,
+     *        or null to select all the members
+     * @return the members which match the pattern, in the order of the member names
+     */
+    public static List<String> matchingMembers(Collection<String> memberNames, String memberPattern) {
+        if (memberPattern == null) {
+            return new ArrayList<>(memberNames);
+        }
+        StringBuilder regex = new StringBuilder();
+        for (char c : memberPattern.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        Pattern pattern = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+        List<String> matchingMembers = new ArrayList<>();
+        for (String memberName : memberNames) {
+            if (pattern.matcher(memberName).matches()) {
+                matchingMembers.add(memberName);
+            }
+        }
+        return matchingMembers;
+    }
+}
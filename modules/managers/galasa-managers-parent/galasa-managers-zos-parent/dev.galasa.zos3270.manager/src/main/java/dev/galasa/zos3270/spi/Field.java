@@ -56,6 +56,16 @@ public class Field {
         this.highlight = null;
     }
 
+    protected Field(int start, BufferStartOfField sf, char[] text) {
+        this(start, sf);
+        this.text = text;
+    }
+
+    protected Field(char[] text) {
+        this();
+        this.text = text;
+    }
+
     protected void appendChar(char newChar) {
         char[] newText = Arrays.copyOf(this.text, this.text.length + 1);
         newText[newText.length - 1] = newChar;
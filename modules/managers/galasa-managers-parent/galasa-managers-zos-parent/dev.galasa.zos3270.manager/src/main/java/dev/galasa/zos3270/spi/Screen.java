@@ -94,6 +94,7 @@ public class Screen {
 
     private boolean usingAlternate;
     private IBufferHolder[] buffer;
+    private ScreenBufferIndex bufferIndex;
     private int screenSize;
     private int columns;
     private int rows;
@@ -269,6 +270,7 @@ public class Screen {
                 sof.clearFieldModified();
             }
         }
+        this.bufferIndex.fieldAttributesChanged();
     }
 
     private synchronized void processReadBuffer() throws DatastreamException {
@@ -584,7 +586,7 @@ public class Screen {
         }
 
         for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
+            setBufferHolder(i, null);
         }
 
         this.screenCursor = 0;
@@ -607,7 +609,7 @@ public class Screen {
         }
 
         for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
+            setBufferHolder(i, null);
         }
 
         this.screenCursor = 0;
@@ -617,6 +619,16 @@ public class Screen {
     private void allocateBuffer() {
         this.screenSize = this.columns * this.rows;
         this.buffer = new IBufferHolder[this.screenSize];
+        this.bufferIndex = new ScreenBufferIndex(this.buffer);
+    }
+
+    /**
+     * Put a holder in a buffer position, all changes to the buffer must be made
+     * through here to keep the buffer index up to date
+     */
+    private void setBufferHolder(int position, IBufferHolder holder) {
+        this.buffer[position] = holder;
+        this.bufferIndex.set(position, holder);
     }
 
     /**
@@ -647,7 +659,7 @@ public class Screen {
 
         boolean firstPosition = true;
         while (firstPosition || this.workingCursor != endOfRepeat) {
-            this.buffer[this.workingCursor] = new BufferChar(order.getChar());
+            setBufferHolder(this.workingCursor, new BufferChar(order.getChar()));
             if (endOfRepeat == this.screenSize && this.workingCursor == (this.screenSize - 1)) {
                 endOfRepeat = 0;
                 break;
@@ -667,9 +679,9 @@ public class Screen {
     }
 
     private void processSF(OrderStartField order) {
-        this.buffer[this.workingCursor] = new BufferStartOfField(this.workingCursor, order.isFieldProtected(),
+        setBufferHolder(this.workingCursor, new BufferStartOfField(this.workingCursor, order.isFieldProtected(),
                 order.isFieldNumeric(), order.isFieldDisplay(), order.isFieldIntenseDisplay(),
-                order.isFieldSelectorPen(), order.isFieldModifed());
+                order.isFieldSelectorPen(), order.isFieldModifed()));
         incrementWorkingCursor();
     }
 
@@ -687,7 +699,7 @@ public class Screen {
             bsf = new BufferStartOfField(this.workingCursor, false, false, true, false, false, false);
         }
 
-        this.buffer[this.workingCursor] = bsf;
+        setBufferHolder(this.workingCursor, bsf);
         incrementWorkingCursor();
     }
 
@@ -705,7 +717,7 @@ public class Screen {
             bsf = new BufferStartOfField(this.workingCursor, false, false, true, false, false, false);
         }
 
-        this.buffer[this.workingCursor] = bsf;
+        setBufferHolder(this.workingCursor, bsf);
         incrementWorkingCursor();
     }
 
@@ -758,7 +770,7 @@ public class Screen {
                 charProtected = ((BufferStartOfField) bh).isProtected();
             } else {
                 if (!charProtected) {
-                    this.buffer[eraseCursor] = null;
+                    setBufferHolder(eraseCursor, null);
                 }
             }
 
@@ -783,34 +795,34 @@ public class Screen {
     }
 
     private void processNewLine() {
-        this.buffer[this.workingCursor] = new BufferNewLine();
+        setBufferHolder(this.workingCursor, new BufferNewLine());
         incrementWorkingCursor();
     }
 
     private void processFormFeed() {
-        this.buffer[this.workingCursor] = new BufferFormFeed();
+        setBufferHolder(this.workingCursor, new BufferFormFeed());
         incrementWorkingCursor();
     }
 
     private void processCarrageReturn() {
-        this.buffer[this.workingCursor] = new BufferCarrageReturn();
+        setBufferHolder(this.workingCursor, new BufferCarrageReturn());
         incrementWorkingCursor();
     }
 
     private void processEndOfMedium() {
-        this.buffer[this.workingCursor] = new BufferEndOfMedium();
+        setBufferHolder(this.workingCursor, new BufferEndOfMedium());
         incrementWorkingCursor();
     }
 
     private void processGraphicsEscape(OrderGraphicsEscape order) {
-        this.buffer[this.workingCursor] = new BufferGraphicsEscape(order.getByte());
+        setBufferHolder(this.workingCursor, new BufferGraphicsEscape(order.getByte()));
         incrementWorkingCursor();
     }
 
     private void processText(OrderText order) {
         String text = order.getText();
         for (int i = 0; i < text.length(); i++) {
-            this.buffer[this.workingCursor] = new BufferChar(text.charAt(i));
+            setBufferHolder(this.workingCursor, new BufferChar(text.charAt(i)));
             incrementWorkingCursor();
         }
 
@@ -1125,99 +1137,40 @@ public class Screen {
     }
 
     public synchronized @NotNull Field[] calculateFields() {
-        ArrayList<Field> fields = new ArrayList<>();
-
-        Field currentField = null;
-
-        // *** Check to see if the screen is wrapped or unformatted
-        if (!(this.buffer[0] instanceof BufferStartOfField)) {
-            BufferStartOfField wrapSoField = null;
-            for (int i = this.buffer.length - 1; i >= 0; i--) {
-                IBufferHolder bh = this.buffer[i];
-                if (bh instanceof BufferStartOfField) {
-                    wrapSoField = (BufferStartOfField) bh;
-                    break;
-                }
-            }
-
-            if (wrapSoField == null) {
-                currentField = new Field();
-            } else {
-                currentField = new Field(-1, wrapSoField);
-            }
-        }
-
-        for (int i = 0; i < this.buffer.length; i++) {
-            IBufferHolder bh = this.buffer[i];
-            if (bh == null) {
-                currentField.appendChar((char) 0x00); // NOSONAR, can't be null
-            } else if (bh instanceof BufferStartOfField) {
-                if (currentField != null) {
-                    fields.add(currentField);
-                }
-                currentField = new Field(i, (BufferStartOfField) bh);
-            } else if (bh instanceof BufferChar) {
-                currentField.appendChar(((BufferChar) bh).getChar());// NOSONAR, can't be null
-            } else {
-                throw new UnsupportedOperationException("Unrecognised buffer type " + bh.getClass().getName());
-            }
-        }
-        if (currentField != null) {
-            fields.add(currentField);
-        }
-
-        // *** If the SBA were not in order, possibility that the safeguard first field
-        // was left there
-        if (fields.size() >= 2) {
-            if (fields.get(0).getStart() == 0 && fields.get(1).getStart() == 0) {
-                fields.remove(0);
-            }
-        }
-
-        return fields.toArray(new Field[fields.size()]);
+        return this.bufferIndex.getFields().clone();
     }
 
-    public void searchFieldContaining(String text) throws TextNotFoundException {
-        for (Field field : calculateFields()) {
-            if (field.containsText(text)) {
-                return;
-            }
+    public synchronized void searchFieldContaining(String text) throws TextNotFoundException {
+        if (!this.bufferIndex.isTextInField(text)) {
+            throw new TextNotFoundException(CANT_FIND_TEXT + text + "'");
         }
-
-        throw new TextNotFoundException(CANT_FIND_TEXT + text + "'");
     }
 
-    public int searchFieldContaining(@NotNull String[] okText, String[] errorText)
+    public synchronized int searchFieldContaining(@NotNull String[] okText, String[] errorText)
             throws TextNotFoundException, ErrorTextFoundException {
         if (errorText != null) {
             for (int i = 0; i < errorText.length; i++) {
-                for (Field field : calculateFields()) {
-                    if (field.containsText(errorText[i])) {
-                        throw new ErrorTextFoundException("Found error text '" + errorText[i] + "' on screen", i);
-                    }
+                if (this.bufferIndex.isTextInField(errorText[i])) {
+                    throw new ErrorTextFoundException("Found error text '" + errorText[i] + "' on screen", i);
                 }
             }
         }
 
         for (int i = 0; i < okText.length; i++) {
-            for (Field field : calculateFields()) {
-                if (field.containsText(okText[i])) {
-                    return i;
-                }
+            if (this.bufferIndex.isTextInField(okText[i])) {
+                return i;
             }
         }
 
         throw new TextNotFoundException("Unable to locate text on sreen");
     }
 
-    public boolean isTextInField(String text) {
-        for (Field field : calculateFields()) {
-            if (field.containsText(text)) {
-                return true;
-            }
-        }
+    public synchronized boolean isTextInField(String text) {
+        return this.bufferIndex.isTextInField(text);
+    }
 
-        return false;
+    int getFieldMapBuildCount() {
+        return this.bufferIndex.getFieldMapBuildCount();
     }
 
     /**
@@ -1314,7 +1267,7 @@ public class Screen {
                 break;
             }
 
-            buffer[pos] = new BufferChar((char) 0);
+            setBufferHolder(pos, new BufferChar((char) 0));
             pos++;
             if (pos >= this.screenSize) {
                 pos = 0;
@@ -1327,6 +1280,7 @@ public class Screen {
 
         if (sf != null) {
             sf.setFieldModified();
+            this.bufferIndex.fieldAttributesChanged();
         }
     }
 
@@ -1370,7 +1324,7 @@ public class Screen {
                 }
             } else {
                 if (unprotected) {
-                    this.buffer[i] = null;
+                    setBufferHolder(i, null);
                     if (startOfFieldUnprotected != null) {
                         startOfFieldUnprotected.setFieldModified();
                     }
@@ -1655,8 +1609,8 @@ public class Screen {
         }
 
         while (true) {
-            this.buffer[position - 1] = this.buffer[position];
-            this.buffer[position] = null;
+            setBufferHolder(position - 1, this.buffer[position]);
+            setBufferHolder(position, null);
 
             position++;
             if (position >= this.screenSize) {
@@ -1806,7 +1760,7 @@ public class Screen {
                         "Unable to type where the cursor is pointing to - " + position);
             }
 
-            buffer[position] = new BufferChar(text.charAt(i));
+            setBufferHolder(position, new BufferChar(text.charAt(i)));
 
             if (sf != null) {
                 sf.setFieldModified();
@@ -1925,14 +1879,14 @@ public class Screen {
 
     public void setBuffer(IBufferHolder[] newBuffer) {
         for (int i = 0; i < this.buffer.length && i < newBuffer.length; i++) {
-            this.buffer[i] = newBuffer[i];
+            setBufferHolder(i, newBuffer[i]);
         }
     }
 
     public void setBuffer(int col, int row, String text) {
         int pos = (row * columns) + col;
         for (int i = 0; i < text.length(); i++) {
-            buffer[pos] = new BufferChar(text.charAt(i));
+            setBufferHolder(pos, new BufferChar(text.charAt(i)));
             pos++;
         }
     }
@@ -1940,7 +1894,7 @@ public class Screen {
     public void nullify(int col, int row, int len) {
         int pos = (row * columns) + col;
         for (int i = 0; i < len; i++) {
-            buffer[pos] = null;
+            setBufferHolder(pos, null);
             pos++;
         }
     }
@@ -0,0 +1,202 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zos3270.spi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A primitive copy of the screen buffer, kept alongside it, which fields are
+ * calculated from and text is searched in.
+ *
+ * Each buffer position has its field character in a char array and its type
+ * in a byte array, so searching the screen doesn't walk the buffer holders.
+ * The positions of the start of fields are cached in a field map which is only
+ * recalculated when a start of field is written or overwritten, so datastreams
+ * which only change the text of fields don't recalculate it.
+ *
+ * Not thread safe, the Screen synchronizes access to it.
+ */
+class ScreenBufferIndex {
+
+    private static final byte CELL_EMPTY          = 0;
+    private static final byte CELL_CHAR           = 1;
+    private static final byte CELL_START_OF_FIELD = 2;
+
+    private final IBufferHolder[] buffer;
+    private final char[]          chars;
+    private final byte[]          cellTypes;
+
+    private int[]                 fieldStarts;
+    private int                   fieldCount;
+    private boolean               isFieldMapValid     = false;
+    private int                   fieldMapBuildCount  = 0;
+
+    private Field[]               fields;
+
+    ScreenBufferIndex(IBufferHolder[] buffer) {
+        this.buffer = buffer;
+        this.chars = new char[buffer.length];
+        this.cellTypes = new byte[buffer.length];
+        this.fieldStarts = new int[0];
+
+        for (int i = 0; i < buffer.length; i++) {
+            set(i, buffer[i]);
+        }
+    }
+
+    /**
+     * Record the holder that has been put in a buffer position
+     */
+    void set(int position, IBufferHolder holder) {
+        byte newType;
+        char newChar;
+        if (holder == null) {
+            newType = CELL_EMPTY;
+            newChar = 0;
+        } else if (holder instanceof BufferStartOfField) {
+            newType = CELL_START_OF_FIELD;
+            newChar = ' ';
+        } else {
+            newType = CELL_CHAR;
+            newChar = holder.getChar();
+        }
+
+        if (newType == CELL_START_OF_FIELD || cellTypes[position] == CELL_START_OF_FIELD) {
+            this.isFieldMapValid = false;
+        }
+
+        this.cellTypes[position] = newType;
+        this.chars[position] = newChar;
+        this.fields = null;
+    }
+
+    /**
+     * The attributes of a start of field have been changed in place, for
+     * example the modified flag, so the calculated fields are out of date but
+     * the field map is not
+     */
+    void fieldAttributesChanged() {
+        this.fields = null;
+    }
+
+    int getFieldMapBuildCount() {
+        return this.fieldMapBuildCount;
+    }
+
+    private void buildFieldMap() {
+        if (this.isFieldMapValid) {
+            return;
+        }
+
+        int count = 0;
+        for (byte cellType : this.cellTypes) {
+            if (cellType == CELL_START_OF_FIELD) {
+                count++;
+            }
+        }
+
+        int[] starts = new int[count];
+        int index = 0;
+        for (int i = 0; i < this.cellTypes.length; i++) {
+            if (this.cellTypes[i] == CELL_START_OF_FIELD) {
+                starts[index++] = i;
+            }
+        }
+
+        this.fieldStarts = starts;
+        this.fieldCount = count;
+        this.isFieldMapValid = true;
+        this.fieldMapBuildCount++;
+    }
+
+    /**
+     * @return true if the first position is not a start of field, so the screen
+     *         starts with the wrapped end of the last field or is unformatted
+     */
+    private boolean hasLeadingField() {
+        return this.fieldCount == 0 || this.fieldStarts[0] != 0;
+    }
+
+    /**
+     * @return the position after the end of the text of the field starting at
+     *         fieldStarts[index], or of the leading field if index is -1
+     */
+    private int getFieldTextEnd(int index) {
+        int nextIndex = index + 1;
+        if (nextIndex < this.fieldCount) {
+            return this.fieldStarts[nextIndex];
+        }
+        return this.chars.length;
+    }
+
+    Field[] getFields() {
+        if (this.fields != null) {
+            return this.fields;
+        }
+
+        buildFieldMap();
+
+        List<Field> newFields = new ArrayList<>(this.fieldCount + 1);
+        if (this.chars.length > 0 && hasLeadingField()) {
+            char[] text = Arrays.copyOfRange(this.chars, 0, getFieldTextEnd(-1));
+            if (this.fieldCount == 0) {
+                newFields.add(new Field(text));
+            } else {
+                BufferStartOfField wrapSoField = (BufferStartOfField) this.buffer[this.fieldStarts[this.fieldCount - 1]];
+                newFields.add(new Field(-1, wrapSoField, text));
+            }
+        }
+
+        for (int i = 0; i < this.fieldCount; i++) {
+            int start = this.fieldStarts[i];
+            char[] text = Arrays.copyOfRange(this.chars, start + 1, getFieldTextEnd(i));
+            newFields.add(new Field(start, (BufferStartOfField) this.buffer[start], text));
+        }
+
+        this.fields = newFields.toArray(new Field[newFields.size()]);
+        return this.fields;
+    }
+
+    /**
+     * @return true if any field contains the text, without calculating the
+     *         fields
+     */
+    boolean isTextInField(String text) {
+        if (this.chars.length == 0) {
+            return false;
+        }
+
+        buildFieldMap();
+
+        if (hasLeadingField() && regionContains(0, getFieldTextEnd(-1), text)) {
+            return true;
+        }
+
+        for (int i = 0; i < this.fieldCount; i++) {
+            if (regionContains(this.fieldStarts[i] + 1, getFieldTextEnd(i), text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionContains(int from, int to, String text) {
+        int textLength = text.length();
+        int lastStart = to - textLength;
+        for (int start = from; start <= lastStart; start++) {
+            int matched = 0;
+            while (matched < textLength && this.chars[start + matched] == text.charAt(matched)) {
+                matched++;
+            }
+            if (matched == textLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -8,11 +8,23 @@ package dev.galasa.zos3270.spi;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
 import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
 import dev.galasa.zos3270.internal.comms.Network;
+import dev.galasa.zos3270.internal.datastream.AbstractCommandCode;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.CommandWrite;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderStartField;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
 
 public class TestScreen {
 
@@ -85,4 +97,100 @@ public class TestScreen {
         assertThat(row).isEqualTo(0);
     }
 
+    private void writeToScreen(Screen screen, AbstractCommandCode command, List<AbstractOrder> orders) throws Exception {
+        WriteControlCharacter writeControlCharacter = new WriteControlCharacter(false, false, false, false, false, false, true, true);
+        screen.processInboundMessage(new Inbound3270Message(command, writeControlCharacter, orders));
+    }
+
+    @Test
+    public void testTextOnlyUpdateIsFoundWithoutRecalculatingFieldMap() throws Exception {
+        // Given...
+        Charset codePage = Charset.forName("Cp037");
+        TerminalSize primarySize = new TerminalSize(132, 27);
+        Screen testScreen = new Screen(primarySize, new TerminalSize(0, 0), null, codePage);
+
+        List<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText("Status:", codePage));
+        orders.add(new OrderStartField(false, false, true, false, false, false));
+        orders.add(new OrderText("STARTING", codePage));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        writeToScreen(testScreen, new CommandEraseWrite(), orders);
+
+        assertThat(testScreen.isTextInField("STARTING")).isTrue();
+        int fieldMapBuildCount = testScreen.getFieldMapBuildCount();
+
+        // When...
+        orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(9)));
+        orders.add(new OrderText("RUNNING ", codePage));
+        writeToScreen(testScreen, new CommandWrite(), orders);
+
+        // Then...
+        assertThat(testScreen.isTextInField("RUNNING")).isTrue();
+        assertThat(testScreen.isTextInField("STARTING")).isFalse();
+        assertThat(testScreen.calculateFields()[1].getFieldWithoutNulls()).startsWith("RUNNING ");
+        assertThat(testScreen.getFieldMapBuildCount()).isEqualTo(fieldMapBuildCount);
+    }
+
+    @Test
+    public void testNewFieldRecalculatesFieldMap() throws Exception {
+        // Given...
+        Charset codePage = Charset.forName("Cp037");
+        Screen testScreen = new Screen(new TerminalSize(10, 2), new TerminalSize(0, 0), null, codePage);
+
+        List<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(false, false, true, false, false, false));
+        orders.add(new OrderText("HELLO", codePage));
+        writeToScreen(testScreen, new CommandEraseWrite(), orders);
+
+        assertThat(testScreen.isTextInField("HELLO")).isTrue();
+
+        // When...
+        // Split the text into two fields
+        orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(3)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        writeToScreen(testScreen, new CommandWrite(), orders);
+
+        // Then...
+        assertThat(testScreen.isTextInField("HELLO")).isFalse();
+        assertThat(testScreen.isTextInField("HE")).isTrue();
+        assertThat(testScreen.isTextInField("LO")).isTrue();
+
+        Field[] fields = testScreen.calculateFields();
+        assertThat(fields).hasSize(2);
+        assertThat(fields[1].getStart()).isEqualTo(3);
+        assertThat(fields[1].isProtected()).isTrue();
+    }
+
+    @Test
+    public void testWrappedFieldHasAttributesOfLastStartOfField() throws Exception {
+        // Given...
+        Charset codePage = Charset.forName("Cp037");
+        Screen testScreen = new Screen(new TerminalSize(10, 2), new TerminalSize(0, 0), null, codePage);
+
+        List<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderText("WRAP", codePage));
+        orders.add(new OrderSetBufferAddress(new BufferAddress(15)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText("LAST", codePage));
+
+        // When...
+        writeToScreen(testScreen, new CommandEraseWrite(), orders);
+
+        // Then...
+        Field[] fields = testScreen.calculateFields();
+        assertThat(fields).hasSize(2);
+        assertThat(fields[0].isDummyField()).isTrue();
+        assertThat(fields[0].isProtected()).isTrue();
+        assertThat(fields[0].getFieldWithoutNulls()).startsWith("WRAP");
+        assertThat(fields[1].getFieldWithoutNulls()).isEqualTo("LAST");
+
+        testScreen.searchFieldContaining("WRAP");
+        assertThat(testScreen.searchFieldContaining(new String[] { "MISSING", "LAST" }, new String[] { "ERROR" })).isEqualTo(1);
+    }
 }
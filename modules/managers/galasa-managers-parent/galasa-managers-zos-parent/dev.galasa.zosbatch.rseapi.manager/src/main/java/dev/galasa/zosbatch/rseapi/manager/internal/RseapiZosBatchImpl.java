@@ -9,6 +9,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.validation.constraints.NotNull;
 
@@ -93,6 +96,46 @@ public class RseapiZosBatchImpl implements IZosBatch {
         return getBatchJobs(jobname, owner);
     }
 
+    @Override
+    public List<Future<Integer>> waitForJobs(@NotNull List<IZosBatchJob> jobs) throws ZosBatchException {
+        long jobWaitTimeout;
+        try {
+            jobWaitTimeout = this.zosBatchManager.getZosManager().getZosBatchPropertyJobWaitTimeout(this.image.getImageID());
+        } catch (ZosBatchManagerException e) {
+            throw new ZosBatchException("Unable to get job timeout property value", e);
+        }
+        return waitForJobs(jobs, jobWaitTimeout);
+    }
+
+    /**
+     * RSE API has no cheaper way to get the status of many jobs than one at a time, so the jobs
+     * are waited for one after another on a single thread, sharing the one timeout
+     */
+    @Override
+    public List<Future<Integer>> waitForJobs(@NotNull List<IZosBatchJob> jobs, long timeout) throws ZosBatchException {
+        List<IZosBatchJob> jobsToWaitFor = new ArrayList<>(jobs);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < jobsToWaitFor.size(); i++) {
+            futures.add(new CompletableFuture<>());
+        }
+
+        long deadlineMillis = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+        Thread waitThread = new Thread(() -> {
+            for (int i = 0; i < jobsToWaitFor.size(); i++) {
+                long remainingSeconds = Math.max(0, TimeUnit.MILLISECONDS.toSeconds(deadlineMillis - System.currentTimeMillis()));
+                try {
+                    futures.get(i).complete(jobsToWaitFor.get(i).waitForJob(remainingSeconds));
+                } catch (ZosBatchException e) {
+                    futures.get(i).completeExceptionally(e);
+                }
+            }
+        }, "zosbatch-wait-" + this.image.getImageID());
+        waitThread.setDaemon(true);
+        waitThread.start();
+
+        return new ArrayList<>(futures);
+    }
+
     /**
      * Clean up any existing batch jobs
      * @throws ZosBatchException
@@ -10,6 +10,9 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
 import javax.validation.constraints.NotNull;
 
@@ -44,6 +47,8 @@ public class ZosmfZosBatchImpl implements IZosBatch {
     private List<ZosmfZosBatchJobImpl> zosBatchJobs = new ArrayList<>();
 	private ZosmfZosBatchManagerImpl zosBatchManager;
     private IZosImage image;
+    private List<ZosmfZosBatchJobWaiter> jobWaiters = new ArrayList<>();
+    private ScheduledExecutorService jobWaitScheduler;
     private static final Log logger = LogFactory.getLog(ZosmfZosBatchImpl.class);
     
     public ZosmfZosBatchImpl(ZosmfZosBatchManagerImpl zosBatchManager, IZosImage image) {
@@ -94,11 +99,76 @@ public class ZosmfZosBatchImpl implements IZosBatch {
         return getBatchJobs(jobname, owner);
     }
 
+    @Override
+    public List<Future<Integer>> waitForJobs(@NotNull List<IZosBatchJob> jobs) throws ZosBatchException {
+        long jobWaitTimeout;
+        try {
+            jobWaitTimeout = this.zosBatchManager.getZosManager().getZosBatchPropertyJobWaitTimeout(this.image.getImageID());
+        } catch (ZosBatchManagerException e) {
+            throw new ZosBatchException("Unable to get job timeout property value", e);
+        }
+        return waitForJobs(jobs, jobWaitTimeout);
+    }
+
+    @Override
+    public List<Future<Integer>> waitForJobs(@NotNull List<IZosBatchJob> jobs, long timeout) throws ZosBatchException {
+        List<ZosmfZosBatchJobImpl> zosmfJobs = new ArrayList<>();
+        for (IZosBatchJob job : jobs) {
+            if (!(job instanceof ZosmfZosBatchJobImpl) || ((ZosmfZosBatchJobImpl) job).getJobImage() != this.image) {
+                throw new ZosBatchException("Job " + job.getJobname().getName() + " was not submitted on image " + this.image.getImageID());
+            }
+            ZosmfZosBatchJobImpl zosmfJob = (ZosmfZosBatchJobImpl) job;
+            if (!zosmfJob.submitted()) {
+                throw new ZosBatchException("Job " + job.getJobname().getName() + " has not been submitted by manager");
+            }
+            zosmfJobs.add(zosmfJob);
+        }
+        logger.info("Waiting up to " + timeout + " second(s) for " + zosmfJobs.size() + " job(s) to complete");
+
+        IZosmfRestApiProcessor zosmfApiProcessor;
+        try {
+            zosmfApiProcessor = this.zosBatchManager.getZosmfManager().newZosmfRestApiProcessor(image, this.zosBatchManager.getZosManager().getZosBatchPropertyBatchRestrictToImage(image.getImageID()));
+        } catch (ZosmfManagerException | ZosBatchManagerException e) {
+            throw new ZosBatchException(e);
+        }
+
+        ZosmfZosBatchJobWaiter jobWaiter = new ZosmfZosBatchJobWaiter(zosmfApiProcessor, zosmfJobs, timeout);
+        startJobWaiter(jobWaiter);
+        return jobWaiter.getFutures();
+    }
+
+    private synchronized void startJobWaiter(ZosmfZosBatchJobWaiter jobWaiter) {
+        if (this.jobWaitScheduler == null) {
+            this.jobWaitScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "zosbatch-wait-" + this.image.getImageID());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.jobWaiters.removeIf(ZosmfZosBatchJobWaiter::isFinished);
+        this.jobWaiters.add(jobWaiter);
+        jobWaiter.start(this.jobWaitScheduler);
+    }
+
+    private synchronized void stopJobWaiters() {
+        for (ZosmfZosBatchJobWaiter jobWaiter : this.jobWaiters) {
+            jobWaiter.stop();
+        }
+        this.jobWaiters.clear();
+        if (this.jobWaitScheduler != null) {
+            this.jobWaitScheduler.shutdownNow();
+            this.jobWaitScheduler = null;
+        }
+    }
+
     /**
      * Clean up any existing batch jobs
      * @throws ZosBatchException
      */
     public void cleanup(boolean endOfTest) throws ZosBatchException {        
+        if (endOfTest) {
+            stopJobWaiters();
+        }
         Iterator<ZosmfZosBatchJobImpl> iterator = zosBatchJobs.iterator();
         while (iterator.hasNext()) {
             ZosmfZosBatchJobImpl zosBatchJobImpl = iterator.next();
@@ -5,6 +5,10 @@
  */
 package dev.galasa.zosbatch.zosmf.manager.internal;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,6 +17,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -57,6 +66,7 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
     private int intdrLrecl = 80;  
     private String intdrRecfm = "F";    
     private int jobWaitTimeout;
+    private int spoolRetrievalThreads;
     
     private String jobid;         
     private String owner;         
@@ -130,6 +140,11 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
         } catch (ZosBatchManagerException e) {
             throw new ZosBatchException("Unable to get job timeout property value", e);
         }
+        try {
+            this.spoolRetrievalThreads = this.zosBatchManager.getZosManager().getZosBatchPropertySpoolRetrievalThreads(this.jobImage.getImageID());
+        } catch (ZosBatchManagerException e) {
+            throw new ZosBatchException("Unable to get spool retrieval threads property value", e);
+        }
         
         try {
             this.zosmfApiProcessor = this.zosBatchManager.getZosmfManager().newZosmfRestApiProcessor(jobImage, this.zosBatchManager.getZosManager().getZosBatchPropertyBatchRestrictToImage(jobImage.getImageID()));
@@ -266,11 +281,7 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
             }
             try {
                 if (isComplete()) {
-                    String[] rc = this.retcode.split(" ");
-                    if (rc.length == 2) {
-                        return StringUtils.isNumeric(rc[1]) ? Integer.parseInt(rc[1]) : Integer.MIN_VALUE;
-                    }
-                    return Integer.MIN_VALUE;
+                    return getHighestCC();
                 }
                 
                 Thread.sleep(1000);
@@ -340,20 +351,10 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
 
     @Override
     public void saveOutputToResultsArchive(String rasPath) throws ZosBatchException {
-        if(!this.outputComplete){
-            retrieveOutput();
-        }
-
-        Path artifactPath = this.zosBatchManager.getArtifactsRoot().resolve(rasPath).resolve(jobOutput().getJobname());
-		logger.info("Archiving batch job " + this.toString() + " to " + artifactPath.toString());
-        
-        Iterator<IZosBatchJobOutputSpoolFile> iterator = jobOutput().iterator();
-        while (iterator.hasNext()) {
-            saveSpoolFile(iterator.next(), artifactPath);
-        }
-        if (isComplete()) {
-        	this.jobArchived = true;
+        if (!this.outputComplete) {
+            getOutput(false);
         }
+        saveOutput(this.zosBatchManager.getArtifactsRoot().resolve(rasPath));
     }
 
     @Override
@@ -383,7 +384,52 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
 		saveSpoolFile(spoolFile, artifactPath);
 	}
 
-	protected void saveSpoolFile(IZosBatchJobOutputSpoolFile spoolFile, Path artifactPath) throws ZosBatchException {
+	/**
+	 * Save the output of the job to the archive. If the records of the spool files have
+	 * already been retrieved they are saved, otherwise each spool file is streamed from
+	 * zOS/MF into its archive file, without holding the records in memory.
+	 */
+	protected void saveOutput(Path rasPath) throws ZosBatchException {
+        Path artifactPath = rasPath.resolve(jobOutput().getJobname());
+		logger.info("Archiving batch job " + this.toString() + " to " + artifactPath.toString());
+
+        if (this.outputComplete) {
+            Iterator<IZosBatchJobOutputSpoolFile> iterator = jobOutput().iterator();
+            while (iterator.hasNext()) {
+                saveSpoolFile(iterator.next(), artifactPath);
+            }
+        } else {
+            streamSpoolFiles(artifactPath);
+        }
+        if (isComplete()) {
+        	this.jobArchived = true;
+        }
+	}
+
+	protected void streamSpoolFiles(Path artifactPath) throws ZosBatchException {
+        // Create the archive files in turn, so the unique names don't clash
+        List<SpoolFileRequest<Long>> requests = new ArrayList<>();
+        Iterator<IZosBatchJobOutputSpoolFile> iterator = jobOutput().iterator();
+        while (iterator.hasNext()) {
+            IZosBatchJobOutputSpoolFile spoolFile = iterator.next();
+            Path artifactFile = artifactPath.resolve(this.zosBatchManager.getZosManager().buildUniquePathName(artifactPath, spoolFileArtifactName(spoolFile)));
+            try {
+                this.zosBatchManager.getZosManager().storeArtifact(artifactFile, null, ResultArchiveStoreContentType.TEXT);
+            } catch (ZosManagerException e) {
+                throw new ZosBatchException(e);
+            }
+            requests.add(() -> streamSpoolFileContent(spoolFile.getId(), artifactFile));
+        }
+
+        long startTime = System.nanoTime();
+        long bytes = 0;
+        for (long spoolFileBytes : sendSpoolFileRequests(requests)) {
+            bytes += spoolFileBytes;
+        }
+        logSpoolFileThroughput("Archived", requests.size(), bytes, startTime);
+	}
+
+	protected String spoolFileArtifactName(IZosBatchJobOutputSpoolFile spoolFile) {
         StringBuilder name = new StringBuilder();
         name.append(spoolFile.getJobid());
         if (!spoolFile.getStepname().isEmpty()){
@@ -396,7 +442,11 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
         }
         name.append("_");
         name.append(spoolFile.getDdname());
-        String fileName = this.zosBatchManager.getZosManager().buildUniquePathName(artifactPath, name.toString());
+        return name.toString();
+	}
+
+	protected void saveSpoolFile(IZosBatchJobOutputSpoolFile spoolFile, Path artifactPath) throws ZosBatchException {
+        String fileName = this.zosBatchManager.getZosManager().buildUniquePathName(artifactPath, spoolFileArtifactName(spoolFile));
         try {
 			this.zosBatchManager.getZosManager().storeArtifact(artifactPath.resolve(fileName), spoolFile.getRecords(), ResultArchiveStoreContentType.TEXT);
 		} catch (ZosManagerException e) {
@@ -440,15 +490,45 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
             } catch (ZosmfException e) {
                 throw new ZosBatchException(e);
             }
+            List<JsonObject> spoolFiles = new ArrayList<>();
+            List<SpoolFileRequest<String>> requests = new ArrayList<>();
             for (JsonElement jsonElement : jsonArray) {
                 JsonObject responseBody = jsonElement.getAsJsonObject();
+                spoolFiles.add(responseBody);
+                if (retrieveRecords) {
+                    String id = jsonNull(responseBody, PROP_ID);
+                    String stepname = jsonNull(responseBody, "stepname");
+                    String procstep = jsonNull(responseBody, "procstep");
+                    String ddname = responseBody.get("ddname").getAsString();
+                    requests.add(() -> getSpoolFileContent(id, stepname, procstep, ddname));
+                }
+            }
+            // Get the JCLIN along with the spool files
+            if (retrieveRecords) {
+                requests.add(() -> getSpoolFileContent("JCL", null, null, null));
+            }
+
+            long startTime = System.nanoTime();
+            List<String> spoolFileRecords = sendSpoolFileRequests(requests);
+            if (retrieveRecords) {
+                long bytes = 0;
+                for (String records : spoolFileRecords) {
+                    if (records != null) {
+                        bytes += records.length();
+                    }
+                }
+                logSpoolFileThroughput("Retrieved", requests.size(), bytes, startTime);
+            }
+
+            for (int i = 0; i < spoolFiles.size(); i++) {
+                JsonObject responseBody = spoolFiles.get(i);
                 String id = jsonNull(responseBody, PROP_ID);
                 String stepname = jsonNull(responseBody, "stepname");
                 String procstep = jsonNull(responseBody, "procstep");
                 String ddname = responseBody.get("ddname").getAsString();
                 String records = null;
                 if (retrieveRecords) {
-                	records = getSpoolFileContent(id, stepname, procstep, ddname);
+                	records = spoolFileRecords.get(i);
                 }
                 if(this.jobOutput == null) {
                 	this.jobOutput = this.zosBatchManager.getZosManager().newZosBatchJobOutput(this, this.jobname.getName(), this.jobid);
@@ -465,11 +545,6 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
             throw new ZosBatchException(displayMessage);
         }
         
-        // Get the JCLIN
-        if (retrieveRecords) {
-        	getSpoolFileContent("JCL", null, null, null);
-        }
-        
         if (this.jobComplete  && retrieveRecords) {
             this.outputComplete = true;
         }
@@ -551,6 +626,14 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
         return this.jobComplete;
     }
 
+    protected boolean isJobNotFound() {
+        return this.jobNotFound;
+    }
+
+    protected IZosImage getJobImage() {
+        return this.jobImage;
+    }
+
     protected boolean isArchived() {
         return this.jobArchived;
     }
@@ -601,21 +684,7 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
             
         logger.trace(responseBody);
         if (response.getStatusCode() == HttpStatus.SC_OK) {
-            this.jobNotFound = false;
-            this.owner = jsonNull(responseBody, PROP_OWNER);
-            this.type = jsonNull(responseBody, PROP_TYPE);
-            this.statusString = jsonNull(responseBody, PROP_STATUS);
-            if (this.statusString != null && "OUTPUT".equals(this.statusString)) {
-                this.jobComplete = true;
-            }
-            this.status = JobStatus.valueOfLabel(statusString);
-            String retcodeProperty = jsonNull(responseBody, PROP_RETCODE);
-            if (retcodeProperty != null) {
-                this.retcode = retcodeProperty;
-            } else {
-                this.retcode = StringUtils.repeat(QUERY, 4);
-            }
-            logger.trace(jobStatus());
+            updateJobStatus(responseBody);
         } else {
             if (response.getStatusCode() == HttpStatus.SC_BAD_REQUEST &&
                     jsonZero(responseBody, PROP_RC) == 4 &&
@@ -632,9 +701,42 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
         }            
     }
 
+    /**
+     * Update the status of the job from its zOS/MF job document, either from a
+     * request for the job or from an entry in a list of jobs
+     */
+    protected void updateJobStatus(JsonObject jobDocument) {
+        this.jobNotFound = false;
+        this.owner = jsonNull(jobDocument, PROP_OWNER);
+        this.type = jsonNull(jobDocument, PROP_TYPE);
+        this.statusString = jsonNull(jobDocument, PROP_STATUS);
+        if (this.statusString != null && "OUTPUT".equals(this.statusString)) {
+            this.jobComplete = true;
+        }
+        this.status = JobStatus.valueOfLabel(statusString);
+        String retcodeProperty = jsonNull(jobDocument, PROP_RETCODE);
+        if (retcodeProperty != null) {
+            this.retcode = retcodeProperty;
+        } else {
+            this.retcode = StringUtils.repeat(QUERY, 4);
+        }
+        logger.trace(jobStatus());
+    }
+
+    /**
+     * @return the highest CC of a completed job, or {@link Integer#MIN_VALUE} if it is non numeric
+     */
+    protected int getHighestCC() {
+        String[] rc = this.retcode.split(" ");
+        if (rc.length == 2) {
+            return StringUtils.isNumeric(rc[1]) ? Integer.parseInt(rc[1]) : Integer.MIN_VALUE;
+        }
+        return Integer.MIN_VALUE;
+    }
+
     protected String getSpoolFileContent(String id, String stepname, String procstep, String ddname) throws ZosBatchException {
 
-    	String path = this.jobFilesPath + "/" + id + "/records";
+    	String path = spoolFileRecordsPath(id);
         HashMap<String, String> headers = new HashMap<>();
         headers.put(ZosmfCustomHeaders.X_CSRF_ZOSMF_HEADER.toString(), "");
         IZosmfResponse response;
@@ -671,6 +773,112 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
         return fileOutput;
     }
 
+    /**
+     * Stream the records of a spool file into a file, without converting them to a String
+     *
+     * @return the number of bytes written
+     */
+    protected long streamSpoolFileContent(String id, Path file) throws ZosBatchException {
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put(ZosmfCustomHeaders.X_CSRF_ZOSMF_HEADER.toString(), "");
+        IZosmfResponse response;
+        try {
+            response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.GET, spoolFileRecordsPath(id), headers, null, new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_INTERNAL_SERVER_ERROR)), false);
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        }
+
+        if (response.getStatusCode() == HttpStatus.SC_OK) {
+            try (InputStream content = (InputStream) response.getContent();
+                 OutputStream output = Files.newOutputStream(file)) {
+                if (content == null) {
+                    return 0;
+                }
+                return content.transferTo(output);
+            } catch (ZosmfException | IOException e) {
+                throw new ZosBatchException("Unable to archive spool file " + id + " of " + this.toString(), e);
+            }
+        }
+
+        // Error case
+        JsonObject errorResponseBody;
+        try {
+            errorResponseBody = response.getJsonContent();
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        }
+        if (this.jobComplete && spoolFileNotFound(errorResponseBody)) {
+            return 0;
+        }
+        String displayMessage = buildErrorString("Retrieve job output", errorResponseBody);
+        logger.error(displayMessage);
+        throw new ZosBatchException(displayMessage);
+    }
+
+    protected String spoolFileRecordsPath(String id) {
+        return this.jobFilesPath + SLASH + id + "/records";
+    }
+
+    /**
+     * A request for a spool file, which may be sent on another thread
+     */
+    protected interface SpoolFileRequest<T> {
+        T send() throws ZosBatchException;
+    }
+
+    /**
+     * Send the spool file requests, up to the zosbatch.batchjob.[imageid].spool.retrieval.threads
+     * property at a time, through the zOS/MF REST API processor of the job. The requests are sent
+     * on the spool retrieval threads of the image, which the jobs on the image share, so the
+     * limit applies to every job on the image and the threads keep their HTTP clients
+     *
+     * @return the results of the requests, in the order of the requests
+     */
+    protected <T> List<T> sendSpoolFileRequests(List<SpoolFileRequest<T>> requests) throws ZosBatchException {
+        List<T> results = new ArrayList<>(requests.size());
+        int threads = Math.min(this.spoolRetrievalThreads, requests.size());
+        if (threads <= 1) {
+            for (SpoolFileRequest<T> request : requests) {
+                results.add(request.send());
+            }
+            return results;
+        }
+
+        ExecutorService executor = this.zosBatchManager.getSpoolRetrievalExecutor(this.jobImage, this.spoolRetrievalThreads);
+        List<Future<T>> futures = new ArrayList<>(requests.size());
+        try {
+            for (SpoolFileRequest<T> request : requests) {
+                futures.add(executor.submit(request::send));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZosBatchException("Interrupted retrieving the spool files of " + this.toString(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ZosBatchException) {
+                throw (ZosBatchException) e.getCause();
+            }
+            throw new ZosBatchException("Unable to retrieve the spool files of " + this.toString(), e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new ZosBatchException("Unable to retrieve the spool files of " + this.toString() + " after the end of the run", e);
+        } finally {
+            // Don't leave the requests of a failed retrieval using the threads the other jobs share
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+
+    protected void logSpoolFileThroughput(String action, int spoolFiles, long bytes, long startTime) {
+        long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), 1);
+        long kilobytesPerSecond = (bytes * 1000 / elapsedMillis) / 1024;
+        logger.info(action + " " + spoolFiles + " spool files (" + bytes + " bytes) of batch job " + this.toString() + " in " + elapsedMillis + "ms, "
+                + kilobytesPerSecond + " KB/s using up to " + Math.min(this.spoolRetrievalThreads, spoolFiles) + " threads");
+    }
+
     protected boolean spoolFileNotFound(JsonObject errorResponseBody) {
         return (jsonZero(errorResponseBody, PROP_CATEGORY) == 6 &&
                 jsonZero(errorResponseBody, PROP_RC) == 4 &&
@@ -816,10 +1024,12 @@ public class ZosmfZosBatchJobImpl implements IZosBatchJob {
 
     protected void archiveJobOutput() throws ZosBatchException {
     	if (shouldArchive() && getStatus() != JobStatus.NOTFOUND && (!isArchived() || !this.jobComplete)) {
-    		retrieveOutput();
+            if (!this.outputComplete) {
+                getOutput(false);
+            }
             String folderName = this.jobname.getName() + "_" + this.jobid + "_" + getRetcode().replace(" ", "-");
             Path rasPath = this.testMethodArchiveFolder.resolve(this.zosBatchManager.getZosManager().buildUniquePathName(testMethodArchiveFolder, folderName));
-            saveOutputToResultsArchive(rasPath.toString());
+            saveOutput(this.zosBatchManager.getArtifactsRoot().resolve(rasPath.toString()));
         }
     }
 }
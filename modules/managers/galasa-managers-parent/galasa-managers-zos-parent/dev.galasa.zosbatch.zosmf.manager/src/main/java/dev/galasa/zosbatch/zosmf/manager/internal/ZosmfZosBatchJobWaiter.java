@@ -0,0 +1,287 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosbatch.zosmf.manager.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hc.core5.http.HttpStatus;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import dev.galasa.zosbatch.ZosBatchException;
+import dev.galasa.zosmf.IZosmf.ZosmfCustomHeaders;
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.IZosmfRestApiProcessor;
+import dev.galasa.zosmf.ZosmfException;
+
+/**
+ * Waits for a set of zOS/MF batch jobs on one image to complete.
+ *
+ * Each poll lists the jobs still being waited for with one zOS/MF request for each job owner,
+ * rather than one request for each job. Jobs that have completed are no longer polled for.
+ * The time between polls starts at {@value #INITIAL_POLL_INTERVAL_MS}ms and doubles, up to
+ * {@value #MAX_POLL_INTERVAL_MS}ms, while none of the jobs change status.
+ *
+ * The waiter runs on a scheduler shared by all the waits on the image, so it doesn't hold a
+ * thread between polls.
+ */
+public class ZosmfZosBatchJobWaiter implements Runnable {
+
+    protected static final long INITIAL_POLL_INTERVAL_MS = 1000;
+    protected static final long MAX_POLL_INTERVAL_MS     = 16000;
+
+    private static final Log logger = LogFactory.getLog(ZosmfZosBatchJobWaiter.class);
+
+    private final IZosmfRestApiProcessor zosmfApiProcessor;
+    private final long deadlineMillis;
+
+    private final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    private final Map<ZosmfZosBatchJobImpl, CompletableFuture<Integer>> pendingJobs = new LinkedHashMap<>();
+    private final Map<ZosmfZosBatchJobImpl, String> lastStatuses = new HashMap<>();
+
+    private long pollIntervalMillis = INITIAL_POLL_INTERVAL_MS;
+    private ScheduledExecutorService scheduler;
+
+    public ZosmfZosBatchJobWaiter(IZosmfRestApiProcessor zosmfApiProcessor, List<ZosmfZosBatchJobImpl> jobs, long timeoutSeconds) {
+        this.zosmfApiProcessor = zosmfApiProcessor;
+        this.deadlineMillis = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutSeconds);
+
+        for (ZosmfZosBatchJobImpl job : jobs) {
+            CompletableFuture<Integer> future = this.pendingJobs.get(job);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                this.pendingJobs.put(job, future);
+            }
+            this.futures.add(future);
+        }
+    }
+
+    /**
+     * @return a future for each of the jobs, in the order they were supplied, which completes with the
+     *         highest CC of the job as {@link dev.galasa.zosbatch.IZosBatchJob#waitForJob()} would return it
+     */
+    public List<Future<Integer>> getFutures() {
+        return new ArrayList<>(this.futures);
+    }
+
+    /**
+     * Start polling on the scheduler
+     */
+    public synchronized void start(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        schedule(0);
+    }
+
+    /**
+     * Stop waiting, cancelling the futures of the jobs that have not completed
+     */
+    public synchronized void stop() {
+        for (CompletableFuture<Integer> future : this.pendingJobs.values()) {
+            future.cancel(false);
+        }
+        this.pendingJobs.clear();
+    }
+
+    public synchronized boolean isFinished() {
+        return this.pendingJobs.isEmpty();
+    }
+
+    @Override
+    public synchronized void run() {
+        long nextPollMillis = poll();
+        if (nextPollMillis >= 0) {
+            schedule(nextPollMillis);
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        try {
+            this.scheduler.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            stop();
+        }
+    }
+
+    /**
+     * Poll the status of the jobs still being waited for once
+     *
+     * @return the number of milliseconds until the next poll, or -1 if there are no jobs left to wait for
+     */
+    protected synchronized long poll() {
+        if (this.pendingJobs.isEmpty()) {
+            return -1;
+        }
+
+        boolean isStatusChanged;
+        try {
+            isStatusChanged = updateJobStatuses();
+        } catch (ZosBatchException e) {
+            for (CompletableFuture<Integer> future : this.pendingJobs.values()) {
+                future.completeExceptionally(e);
+            }
+            this.pendingJobs.clear();
+            return -1;
+        }
+
+        long millisToDeadline = this.deadlineMillis - System.currentTimeMillis();
+        if (!this.pendingJobs.isEmpty() && millisToDeadline <= 0) {
+            // Timed out, as waitForJob() does
+            for (Entry<ZosmfZosBatchJobImpl, CompletableFuture<Integer>> entry : this.pendingJobs.entrySet()) {
+                logger.info("Timed out waiting for " + entry.getKey().toString() + " to complete");
+                entry.getValue().complete(Integer.MIN_VALUE);
+            }
+            this.pendingJobs.clear();
+        }
+
+        if (this.pendingJobs.isEmpty()) {
+            return -1;
+        }
+
+        if (isStatusChanged) {
+            this.pollIntervalMillis = INITIAL_POLL_INTERVAL_MS;
+        } else {
+            this.pollIntervalMillis = Math.min(this.pollIntervalMillis * 2, MAX_POLL_INTERVAL_MS);
+        }
+        return Math.min(this.pollIntervalMillis, millisToDeadline);
+    }
+
+    /**
+     * @return true if any job changed status
+     */
+    private boolean updateJobStatuses() throws ZosBatchException {
+        Map<String, List<ZosmfZosBatchJobImpl>> jobsByOwner = new LinkedHashMap<>();
+        for (ZosmfZosBatchJobImpl job : this.pendingJobs.keySet()) {
+            jobsByOwner.computeIfAbsent(job.getOwner(), owner -> new ArrayList<>()).add(job);
+        }
+
+        boolean isStatusChanged = false;
+        for (Entry<String, List<ZosmfZosBatchJobImpl>> entry : jobsByOwner.entrySet()) {
+            Map<String, JsonObject> jobDocuments = listJobs(entry.getKey(), entry.getValue());
+
+            for (ZosmfZosBatchJobImpl job : entry.getValue()) {
+                JsonObject jobDocument = jobDocuments.get(job.getJobId());
+                if (jobDocument != null) {
+                    job.updateJobStatus(jobDocument);
+                } else {
+                    // Not in the list, it may have been purged, so ask for the job itself
+                    job.updateJobStatus();
+                }
+
+                String status;
+                if (jobDocument != null) {
+                    status = jsonString(jobDocument, "status");
+                } else {
+                    status = job.isJobNotFound() ? "NOTFOUND" : null;
+                }
+                if (!Objects.equals(status, this.lastStatuses.put(job, status))) {
+                    isStatusChanged = true;
+                }
+            }
+        }
+
+        Iterator<Entry<ZosmfZosBatchJobImpl, CompletableFuture<Integer>>> iterator = this.pendingJobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<ZosmfZosBatchJobImpl, CompletableFuture<Integer>> entry = iterator.next();
+            ZosmfZosBatchJobImpl job = entry.getKey();
+            if (job.isJobNotFound()) {
+                entry.getValue().complete(Integer.MIN_VALUE);
+                iterator.remove();
+            } else if (job.isComplete()) {
+                entry.getValue().complete(job.getHighestCC());
+                iterator.remove();
+            }
+        }
+        return isStatusChanged;
+    }
+
+    private Map<String, JsonObject> listJobs(String owner, List<ZosmfZosBatchJobImpl> jobs) throws ZosBatchException {
+        List<String> jobnames = new ArrayList<>();
+        for (ZosmfZosBatchJobImpl job : jobs) {
+            jobnames.add(job.getJobname().getName());
+        }
+        String path = ZosmfZosBatchJobImpl.RESTJOBS_PATH + "?owner=" + owner + "&prefix=" + getJobnamePrefix(jobnames);
+
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put(ZosmfCustomHeaders.X_CSRF_ZOSMF_HEADER.toString(), "");
+        IZosmfResponse response;
+        try {
+            response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.GET, path, headers, null, new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_INTERNAL_SERVER_ERROR)), true);
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        }
+
+        Map<String, JsonObject> jobDocuments = new HashMap<>();
+        try {
+            if (response.getStatusCode() == HttpStatus.SC_OK) {
+                JsonArray jsonArray = response.getJsonArrayContent();
+                for (JsonElement jsonElement : jsonArray) {
+                    JsonObject jobDocument = jsonElement.getAsJsonObject();
+                    String jobid = jsonString(jobDocument, "jobid");
+                    if (jobid != null) {
+                        jobDocuments.put(jobid, jobDocument);
+                    }
+                }
+            } else {
+                // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
+                String displayMessage = ZosmfZosBatchJobImpl.buildErrorString("List jobs", response.getJsonContent());
+                logger.error(displayMessage);
+                throw new ZosBatchException(displayMessage);
+            }
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        }
+        return jobDocuments;
+    }
+
+    /**
+     * @return the zOS/MF jobname prefix which matches all the jobnames, using the longest prefix they share
+     */
+    protected static String getJobnamePrefix(List<String> jobnames) {
+        String commonPrefix = jobnames.get(0);
+        boolean isAllSame = true;
+        for (String jobname : jobnames) {
+            if (!jobname.equals(commonPrefix)) {
+                isAllSame = false;
+                int length = 0;
+                while (length < commonPrefix.length() && length < jobname.length() && commonPrefix.charAt(length) == jobname.charAt(length)) {
+                    length++;
+                }
+                commonPrefix = commonPrefix.substring(0, length);
+            }
+        }
+
+        if (isAllSame) {
+            return commonPrefix;
+        }
+        return commonPrefix + "*";
+    }
+
+    private static String jsonString(JsonObject jsonObject, String memberName) {
+        JsonElement element = jsonObject.get(memberName);
+        if (element != null && !element.isJsonNull()) {
+            return element.getAsString();
+        }
+        return null;
+    }
+}
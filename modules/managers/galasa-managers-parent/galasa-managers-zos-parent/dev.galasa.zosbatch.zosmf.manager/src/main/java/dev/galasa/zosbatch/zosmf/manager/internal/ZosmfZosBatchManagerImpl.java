@@ -10,7 +10,13 @@ import java.lang.reflect.Field;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.validation.constraints.NotNull;
 
@@ -67,6 +73,9 @@ public class ZosmfZosBatchManagerImpl extends AbstractManager implements IZosBat
     private final HashMap<String, ZosmfZosBatchImpl> taggedZosBatches = new HashMap<>();
     private final HashMap<String, ZosmfZosBatchImpl> zosBatches = new HashMap<>();
 
+    // The threads retrieving spool files for each image, shared by the jobs on the image and shut down at the end of the run
+    private final Map<String, ExecutorService> spoolRetrievalExecutors = new HashMap<>();
+
     private Path artifactsRoot;
     public Path getArtifactsRoot() {
     	return artifactsRoot;
@@ -201,6 +210,30 @@ public class ZosmfZosBatchManagerImpl extends AbstractManager implements IZosBat
         } catch (ZosBatchException e) {
             logger.error("Problem in endOfTestRun()", e);
         }
+        shutdownSpoolRetrievalExecutors();
+    }
+
+    /**
+     * @param image the image the spool files are retrieved from
+     * @param threads the zosbatch.batchjob.[imageid].spool.retrieval.threads property of the image
+     * @return the executor retrieving spool files from the image, which runs up to the given number of requests at a time
+     */
+    public synchronized ExecutorService getSpoolRetrievalExecutor(IZosImage image, int threads) {
+        return this.spoolRetrievalExecutors.computeIfAbsent(image.getImageID(), imageId -> {
+            AtomicInteger threadNumber = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "zosbatch-spool-" + imageId + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+    }
+
+    protected synchronized void shutdownSpoolRetrievalExecutors() {
+        for (ExecutorService executor : this.spoolRetrievalExecutors.values()) {
+            executor.shutdownNow();
+        }
+        this.spoolRetrievalExecutors.clear();
     }
     
     protected void cleanup(boolean endOfTest) throws ZosBatchException {
@@ -0,0 +1,222 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosbatch.zosmf.manager.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.hc.core5.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import dev.galasa.zos.IZosImage;
+import dev.galasa.zos.spi.IZosManagerSpi;
+import dev.galasa.zosbatch.IZosBatchJobOutputSpoolFile;
+import dev.galasa.zosbatch.IZosBatchJobname;
+import dev.galasa.zosbatch.internal.ZosBatchJobOutputImpl;
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.IZosmfRestApiProcessor;
+import dev.galasa.zosmf.spi.IZosmfManagerSpi;
+
+public class TestZosmfZosBatchJobImplSpoolFiles {
+
+    private static final String JOBNAME = "GAL00001";
+    private static final String JOBID = "JOB00001";
+    private static final String JOB_PATH = ZosmfZosBatchJobImpl.RESTJOBS_PATH + "/" + JOBNAME + "/" + JOBID;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ZosmfZosBatchManagerImpl zosBatchManagerMock;
+
+    // Owns the spool retrieval threads, as the mocked manager can't
+    private ZosmfZosBatchManagerImpl spoolRetrievalManager = new ZosmfZosBatchManagerImpl();
+
+    private IZosManagerSpi zosManagerMock;
+
+    private IZosmfRestApiProcessor zosmfApiProcessorMock;
+
+    // The threads the spool file requests were sent on
+    private Set<String> spoolFileThreads = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setup() throws Exception {
+        zosBatchManagerMock = Mockito.mock(ZosmfZosBatchManagerImpl.class);
+        zosManagerMock = Mockito.mock(IZosManagerSpi.class);
+        IZosmfManagerSpi zosmfManagerMock = Mockito.mock(IZosmfManagerSpi.class);
+        zosmfApiProcessorMock = Mockito.mock(IZosmfRestApiProcessor.class);
+
+        Mockito.when(zosBatchManagerMock.getZosManager()).thenReturn(zosManagerMock);
+        Mockito.when(zosBatchManagerMock.getZosmfManager()).thenReturn(zosmfManagerMock);
+        Mockito.when(zosBatchManagerMock.getArtifactsRoot()).thenReturn(temporaryFolder.getRoot().toPath());
+        Mockito.when(zosBatchManagerMock.getSpoolRetrievalExecutor(Mockito.any(), Mockito.anyInt())).thenAnswer(invocation ->
+            spoolRetrievalManager.getSpoolRetrievalExecutor(invocation.getArgument(0), invocation.getArgument(1)));
+        Mockito.when(zosmfManagerMock.newZosmfRestApiProcessor(Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfApiProcessorMock);
+        Mockito.when(zosManagerMock.getZosBatchPropertySpoolRetrievalThreads(Mockito.any())).thenReturn(4);
+        Mockito.when(zosManagerMock.newZosBatchJobOutput(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(invocation ->
+            new ZosBatchJobOutputImpl(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        Mockito.when(zosManagerMock.buildUniquePathName(Mockito.any(), Mockito.anyString())).thenAnswer(invocation -> invocation.getArgument(1));
+        Mockito.doAnswer(invocation -> {
+            Path artifactPath = invocation.getArgument(0);
+            Files.createDirectories(artifactPath.getParent());
+            Files.createFile(artifactPath);
+            return null;
+        }).when(zosManagerMock).storeArtifact(Mockito.any(), Mockito.any(), Mockito.any());
+
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> respond(invocation.getArgument(1), invocation.getArgument(5)));
+    }
+
+    @After
+    public void shutdownSpoolRetrievalThreads() {
+        spoolRetrievalManager.shutdownSpoolRetrievalExecutors();
+    }
+
+    private IZosmfResponse respond(String path, boolean convert) throws Exception {
+        IZosmfResponse response = Mockito.mock(IZosmfResponse.class);
+        Mockito.when(response.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        if (path.equals(JOB_PATH)) {
+            JsonObject jobDocument = new JsonObject();
+            jobDocument.addProperty("jobid", JOBID);
+            jobDocument.addProperty("owner", "USERID");
+            jobDocument.addProperty("status", "OUTPUT");
+            jobDocument.addProperty("retcode", "CC 0000");
+            Mockito.when(response.getJsonContent()).thenReturn(jobDocument);
+        } else if (path.equals(JOB_PATH + "/files")) {
+            JsonArray spoolFiles = new JsonArray();
+            spoolFiles.add(spoolFile("2", "JES2", "JESMSGLG"));
+            spoolFiles.add(spoolFile("3", "JES2", "JESJCL"));
+            spoolFiles.add(spoolFile("102", "STEP1", "SYSOUT"));
+            Mockito.when(response.getContent()).thenReturn(spoolFiles);
+            Mockito.when(response.getJsonArrayContent()).thenReturn(spoolFiles);
+        } else if (path.endsWith("/records")) {
+            spoolFileThreads.add(Thread.currentThread().getName());
+            String records = "records of " + path.split("/")[7];
+            if (convert) {
+                Mockito.when(response.getTextContent()).thenReturn(records);
+            } else {
+                Mockito.when(response.getContent()).thenReturn(new ByteArrayInputStream(records.getBytes(StandardCharsets.UTF_8)));
+            }
+        } else {
+            throw new IllegalArgumentException("Unexpected path " + path);
+        }
+        return response;
+    }
+
+    private JsonObject spoolFile(String id, String stepname, String ddname) {
+        JsonObject spoolFile = new JsonObject();
+        spoolFile.addProperty("id", id);
+        spoolFile.addProperty("stepname", stepname);
+        spoolFile.addProperty("ddname", ddname);
+        return spoolFile;
+    }
+
+    private ZosmfZosBatchJobImpl newJob() throws Exception {
+        IZosImage zosImageMock = Mockito.mock(IZosImage.class);
+        Mockito.when(zosImageMock.getImageID()).thenReturn("IMAGE");
+        IZosBatchJobname jobnameMock = Mockito.mock(IZosBatchJobname.class);
+        Mockito.when(jobnameMock.getName()).thenReturn(JOBNAME);
+
+        ZosmfZosBatchJobImpl job = new ZosmfZosBatchJobImpl(zosBatchManagerMock, zosImageMock, jobnameMock, null, null);
+        job.setJobid(JOBID);
+        return job;
+    }
+
+    @Test
+    public void testRetrieveOutputFetchesSpoolFilesConcurrentlyInOrder() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job = newJob();
+
+        // When...
+        List<IZosBatchJobOutputSpoolFile> spoolFiles = job.retrieveOutput().getSpoolFiles();
+
+        // Then...
+        assertThat(spoolFiles).extracting(IZosBatchJobOutputSpoolFile::getDdname).containsExactly("JESMSGLG", "JESJCL", "SYSOUT");
+        assertThat(spoolFiles).extracting(IZosBatchJobOutputSpoolFile::getRecords).containsExactly("records of 2", "records of 3", "records of 102");
+
+        // The three spool files and the JCL, each on its own thread
+        assertThat(spoolFileThreads).hasSize(4).allMatch(name -> name.startsWith("zosbatch-spool-IMAGE-"));
+    }
+
+    @Test
+    public void testJobsOnTheSameImageShareTheSpoolRetrievalThreads() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job1 = newJob();
+        ZosmfZosBatchJobImpl job2 = newJob();
+
+        // When...
+        job1.retrieveOutput();
+        job2.retrieveOutput();
+
+        // Then...
+        assertThat(spoolFileThreads).hasSize(4).allMatch(name -> name.startsWith("zosbatch-spool-IMAGE-"));
+    }
+
+    @Test
+    public void testSpoolRetrievalThreadsAreShutDownAtTheEndOfTheRun() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job = newJob();
+        job.retrieveOutput();
+        IZosImage zosImageMock = Mockito.mock(IZosImage.class);
+        Mockito.when(zosImageMock.getImageID()).thenReturn("IMAGE");
+        ExecutorService executor = spoolRetrievalManager.getSpoolRetrievalExecutor(zosImageMock, 4);
+
+        // When...
+        spoolRetrievalManager.endOfTestRun();
+
+        // Then...
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(spoolRetrievalManager.getSpoolRetrievalExecutor(zosImageMock, 4)).isNotSameAs(executor);
+    }
+
+    @Test
+    public void testSaveOutputToResultsArchiveStreamsSpoolFilesToFiles() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job = newJob();
+
+        // When...
+        job.saveOutputToResultsArchive("archive");
+
+        // Then...
+        Path artifactPath = temporaryFolder.getRoot().toPath().resolve("archive").resolve(JOBNAME);
+        assertThat(artifactPath.resolve(JOBID + "_JES2_JESMSGLG")).hasContent("records of 2");
+        assertThat(artifactPath.resolve(JOBID + "_JES2_JESJCL")).hasContent("records of 3");
+        assertThat(artifactPath.resolve(JOBID + "_STEP1_SYSOUT")).hasContent("records of 102");
+
+        // The records were streamed rather than converted to Strings, and are not held by the job
+        Mockito.verify(zosmfApiProcessorMock, Mockito.never()).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.endsWith("/records"), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(true));
+        assertThat(job.listSpoolFiles().getSpoolFiles()).extracting(IZosBatchJobOutputSpoolFile::getRecords).containsOnlyNulls();
+    }
+
+    @Test
+    public void testSpoolFilesAreFetchedOnTheCallingThreadWithOneThread() throws Exception {
+        // Given...
+        Mockito.when(zosManagerMock.getZosBatchPropertySpoolRetrievalThreads(Mockito.any())).thenReturn(1);
+        ZosmfZosBatchJobImpl job = newJob();
+
+        // When...
+        job.retrieveOutput();
+
+        // Then...
+        assertThat(spoolFileThreads).containsOnly(Thread.currentThread().getName());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosbatch.zosmf.manager.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import org.apache.hc.core5.http.HttpStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import dev.galasa.zosbatch.IZosBatchJobname;
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.IZosmfRestApiProcessor;
+
+public class TestZosmfZosBatchJobWaiter {
+
+    private static final String OWNER = "USERID";
+
+    private IZosmfRestApiProcessor zosmfApiProcessorMock;
+
+    private IZosmfResponse zosmfResponseMock;
+
+    // The status of each job in the zOS/MF job list, by jobid
+    private Map<String, String> jobStatuses = new HashMap<>();
+
+    @Before
+    public void setup() throws Exception {
+        zosmfApiProcessorMock = Mockito.mock(IZosmfRestApiProcessor.class);
+        zosmfResponseMock = Mockito.mock(IZosmfResponse.class);
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfResponseMock.getJsonArrayContent()).thenAnswer(invocation -> {
+            JsonArray jobList = new JsonArray();
+            for (Map.Entry<String, String> entry : jobStatuses.entrySet()) {
+                JsonObject jobDocument = new JsonObject();
+                jobDocument.addProperty("jobid", entry.getKey());
+                jobDocument.addProperty("owner", OWNER);
+                jobDocument.addProperty("status", entry.getValue());
+                jobList.add(jobDocument);
+            }
+            return jobList;
+        });
+    }
+
+    private ZosmfZosBatchJobImpl mockJob(String jobname, String jobid, int highestCC) {
+        IZosBatchJobname jobnameMock = Mockito.mock(IZosBatchJobname.class);
+        Mockito.when(jobnameMock.getName()).thenReturn(jobname);
+
+        ZosmfZosBatchJobImpl jobMock = Mockito.mock(ZosmfZosBatchJobImpl.class);
+        Mockito.when(jobMock.getJobname()).thenReturn(jobnameMock);
+        Mockito.when(jobMock.getJobId()).thenReturn(jobid);
+        Mockito.when(jobMock.getOwner()).thenReturn(OWNER);
+        Mockito.when(jobMock.getHighestCC()).thenReturn(highestCC);
+        Mockito.when(jobMock.isComplete()).thenAnswer(invocation -> "OUTPUT".equals(jobStatuses.get(jobid)));
+
+        jobStatuses.put(jobid, "INPUT");
+        return jobMock;
+    }
+
+    @Test
+    public void testJobsArePolledWithOneListRequestAndCompletedJobsAreNotPolledAgain() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job1 = mockJob("GAL00001", "JOB00001", 0);
+        ZosmfZosBatchJobImpl job2 = mockJob("GAL00002", "JOB00002", 4);
+        ZosmfZosBatchJobWaiter waiter = new ZosmfZosBatchJobWaiter(zosmfApiProcessorMock, Arrays.asList(job1, job2), 60);
+        List<Future<Integer>> futures = waiter.getFutures();
+
+        // When...
+        jobStatuses.put("JOB00001", "OUTPUT");
+        jobStatuses.put("JOB00002", "ACTIVE");
+        long nextPollMillis = waiter.poll();
+
+        // Then...
+        assertThat(futures.get(0).isDone()).isTrue();
+        assertThat(futures.get(0).get()).isEqualTo(0);
+        assertThat(futures.get(1).isDone()).isFalse();
+        assertThat(nextPollMillis).isEqualTo(ZosmfZosBatchJobWaiter.INITIAL_POLL_INTERVAL_MS);
+
+        ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(zosmfApiProcessorMock, Mockito.times(1)).sendRequest(Mockito.eq(ZosmfRequestType.GET), pathCaptor.capture(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        assertThat(pathCaptor.getValue()).isEqualTo(ZosmfZosBatchJobImpl.RESTJOBS_PATH + "?owner=USERID&prefix=GAL0000*");
+
+        // When...
+        jobStatuses.put("JOB00002", "OUTPUT");
+        nextPollMillis = waiter.poll();
+
+        // Then...
+        assertThat(futures.get(1).get()).isEqualTo(4);
+        assertThat(nextPollMillis).isEqualTo(-1);
+        assertThat(waiter.isFinished()).isTrue();
+        Mockito.verify(job1, Mockito.times(1)).updateJobStatus(Mockito.any(JsonObject.class));
+        Mockito.verify(job2, Mockito.times(2)).updateJobStatus(Mockito.any(JsonObject.class));
+        Mockito.verify(zosmfApiProcessorMock, Mockito.times(2)).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testPollIntervalBacksOffUntilAJobChangesStatus() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job = mockJob("GAL00001", "JOB00001", 0);
+        ZosmfZosBatchJobWaiter waiter = new ZosmfZosBatchJobWaiter(zosmfApiProcessorMock, Arrays.asList(job), 600);
+
+        // When...
+        long firstPollMillis = waiter.poll();
+        long secondPollMillis = waiter.poll();
+        long thirdPollMillis = waiter.poll();
+        for (int i = 0; i < 10; i++) {
+            waiter.poll();
+        }
+        long longestPollMillis = waiter.poll();
+
+        jobStatuses.put("JOB00001", "ACTIVE");
+        long pollAfterChangeMillis = waiter.poll();
+
+        // Then...
+        assertThat(firstPollMillis).isEqualTo(ZosmfZosBatchJobWaiter.INITIAL_POLL_INTERVAL_MS);
+        assertThat(secondPollMillis).isEqualTo(2 * ZosmfZosBatchJobWaiter.INITIAL_POLL_INTERVAL_MS);
+        assertThat(thirdPollMillis).isEqualTo(4 * ZosmfZosBatchJobWaiter.INITIAL_POLL_INTERVAL_MS);
+        assertThat(longestPollMillis).isEqualTo(ZosmfZosBatchJobWaiter.MAX_POLL_INTERVAL_MS);
+        assertThat(pollAfterChangeMillis).isEqualTo(ZosmfZosBatchJobWaiter.INITIAL_POLL_INTERVAL_MS);
+    }
+
+    @Test
+    public void testJobsNotCompleteByTheTimeoutReturnMinValue() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job = mockJob("GAL00001", "JOB00001", 0);
+        ZosmfZosBatchJobWaiter waiter = new ZosmfZosBatchJobWaiter(zosmfApiProcessorMock, Arrays.asList(job), 0);
+
+        // When...
+        long nextPollMillis = waiter.poll();
+
+        // Then...
+        assertThat(nextPollMillis).isEqualTo(-1);
+        assertThat(waiter.getFutures().get(0).get()).isEqualTo(Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void testJobMissingFromListIsAskedForDirectly() throws Exception {
+        // Given...
+        ZosmfZosBatchJobImpl job = mockJob("GAL00001", "JOB00001", 0);
+        jobStatuses.remove("JOB00001");
+        Mockito.when(job.isJobNotFound()).thenReturn(true);
+        ZosmfZosBatchJobWaiter waiter = new ZosmfZosBatchJobWaiter(zosmfApiProcessorMock, Arrays.asList(job), 60);
+
+        // When...
+        waiter.poll();
+
+        // Then...
+        Mockito.verify(job).updateJobStatus();
+        assertThat(waiter.getFutures().get(0).get()).isEqualTo(Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void testJobnamePrefixMatchesAllJobnames() {
+        assertThat(ZosmfZosBatchJobWaiter.getJobnamePrefix(Arrays.asList("GAL00001", "GAL00002", "GAL00110"))).isEqualTo("GAL00*");
+        assertThat(ZosmfZosBatchJobWaiter.getJobnamePrefix(Arrays.asList("GAL00001", "GAL00001"))).isEqualTo("GAL00001");
+        assertThat(ZosmfZosBatchJobWaiter.getJobnamePrefix(Arrays.asList("ABC00001", "XYZ00001"))).isEqualTo("*");
+    }
+}
@@ -5,17 +5,26 @@
  */
 package dev.galasa.zosfile.rseapi.manager.internal;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
 
@@ -34,6 +43,7 @@ import dev.galasa.zosfile.IZosDataset;
 import dev.galasa.zosfile.IZosUNIXFile;
 import dev.galasa.zosfile.ZosDatasetException;
 import dev.galasa.zosfile.ZosFileManagerException;
+import dev.galasa.zosfile.spi.ZosDatasetMemberExecutor;
 import dev.galasa.zosrseapi.IRseapi.RseapiRequestType;
 import dev.galasa.zosrseapi.IRseapiResponse;
 import dev.galasa.zosrseapi.IRseapiRestApiProcessor;
@@ -144,6 +154,7 @@ public class RseapiZosDatasetImpl implements IZosDataset {
     public static final Log logger = LogFactory.getLog(RseapiZosDatasetImpl.class);
 
 	private static final String BINARY_HEADER = "binary";
+	private static final String CONVERT_HEADER = "convert";
 
     public RseapiZosDatasetImpl(RseapiZosFileHandlerImpl zosFileHandler, IZosImage image, String dsname) throws ZosDatasetException {
         this.zosFileHandler = zosFileHandler;
@@ -306,6 +317,32 @@ public class RseapiZosDatasetImpl implements IZosDataset {
         }
         return (byte[]) content;
     }
+
+    @Override
+    public void storeFromStream(@NotNull InputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + " is a partitioned data set. Use memberStoreFromStream(String memberName, InputStream content) method instead");
+        }
+        storeFromStream(content, null);
+    }
+
+    @Override
+    public long retrieveToStream(@NotNull OutputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + " is a partitioned data set. Use memberRetrieveToStream(String memberName, OutputStream content) method instead");
+        }
+        return retrieveToStream(null, this.dataType, content);
+    }
+
+    @Override
+    public Stream<String> retrieveRecords() throws ZosDatasetException {
+        if (isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + " is a partitioned data set. Use memberRetrieveRecords(String memberName) method instead");
+        }
+        return retrieveRecords(null);
+    }
     
     @Override
     public void saveToResultsArchive(String rasPath) throws ZosDatasetException {
@@ -316,15 +353,7 @@ public class RseapiZosDatasetImpl implements IZosDataset {
                 } else {
                     Path artifactPath = this.zosFileHandler.getArtifactsRoot().resolve(rasPath);
             		logger.info("Archiving " + quoted(this.dsname) + " to " + artifactPath.toString());
-                    try {
-                    	if (this.dataType.equals(DatasetDataType.TEXT)) {
-                    		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, retrieveAsText(), ResultArchiveStoreContentType.TEXT);
-                    	} else  {
-                    		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, new String(retrieveAsBinary()), ResultArchiveStoreContentType.TEXT);
-                    	}
-        			} catch (ZosManagerException e) {
-        				throw new ZosDatasetException(e);
-        			}
+                    saveContentToResultsArchive(null, artifactPath);
                 }
             }
         } catch (ZosFileManagerException e) {
@@ -460,6 +489,35 @@ public class RseapiZosDatasetImpl implements IZosDataset {
         return (byte[]) content;
     }
 
+    @Override
+    public void memberStoreFromStream(@NotNull String memberName, @NotNull InputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(memberName, LOG_MEMBER_NAME_MUST_NOT_BE_NULL);
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        storeFromStream(content, memberName);
+    }
+
+    @Override
+    public long memberRetrieveToStream(@NotNull String memberName, @NotNull OutputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(memberName, LOG_MEMBER_NAME_MUST_NOT_BE_NULL);
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        return retrieveToStream(memberName, this.dataType, content);
+    }
+
+    @Override
+    public Stream<String> memberRetrieveRecords(@NotNull String memberName) throws ZosDatasetException {
+    	Objects.requireNonNull(memberName, LOG_MEMBER_NAME_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        return retrieveRecords(memberName);
+    }
+
     @Override
     public Collection<String> memberList() throws ZosDatasetException {
         if (!isPDS()) {
@@ -509,22 +567,82 @@ public class RseapiZosDatasetImpl implements IZosDataset {
             throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
         }
         try {
-            try {
-            	Path artifactPath = this.zosFileHandler.getArtifactsRoot().resolve(rasPath);
-        		logger.info("Archiving " + quoted(this.dsname) + " to " + artifactPath.toString());
-                if (this.dataType.equals(DatasetDataType.TEXT)) {
-            		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, memberRetrieveAsText(memberName), ResultArchiveStoreContentType.TEXT);
-            	} else  {
-            		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, new String(memberRetrieveAsBinary(memberName)), ResultArchiveStoreContentType.TEXT);
-            	}
-			} catch (ZosManagerException e) {
-				throw new ZosDatasetException(e);
-			}
+        	Path artifactPath = this.zosFileHandler.getArtifactsRoot().resolve(rasPath);
+    		logger.info("Archiving " + quoted(this.dsname) + " to " + artifactPath.toString());
+            saveContentToResultsArchive(memberName, artifactPath);
         } catch (ZosFileManagerException e) {
             logger.error("Unable to save data set member to archive", e);
         }
     }
 
+    @Override
+    public void membersStoreText(@NotNull Map<String, String> members) throws ZosDatasetException {
+    	Objects.requireNonNull(members, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        newMemberExecutor().run("store", members.keySet(), memberName -> {
+            putText(Objects.requireNonNull(members.get(memberName), LOG_CONTENT_MUST_NOT_BE_NULL), memberName, true);
+            return null;
+        });
+    }
+
+    @Override
+    public void membersStoreBinary(@NotNull Map<String, byte[]> members) throws ZosDatasetException {
+    	Objects.requireNonNull(members, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        newMemberExecutor().run("store", members.keySet(), memberName -> {
+            putBinary(Objects.requireNonNull(members.get(memberName), LOG_CONTENT_MUST_NOT_BE_NULL), memberName, false);
+            return null;
+        });
+    }
+
+    @Override
+    public Map<String, String> membersRetrieveAsText(String memberPattern) throws ZosDatasetException {
+        Collection<String> memberNames = ZosDatasetMemberExecutor.matchingMembers(memberList(), memberPattern);
+        return newMemberExecutor().run("retrieve", memberNames, memberName -> {
+            Object content = retrieve(memberName);
+            if (content instanceof byte[]) {
+                return new String((byte[]) content);
+            } else if (content instanceof InputStream) {
+                return new String(inputStreamToByteArray((InputStream) content));
+            }
+            return (String) content;
+        });
+    }
+
+    @Override
+    public Map<String, byte[]> membersRetrieveAsBinary(String memberPattern) throws ZosDatasetException {
+        Collection<String> memberNames = ZosDatasetMemberExecutor.matchingMembers(memberList(), memberPattern);
+        return newMemberExecutor().run("retrieve", memberNames, memberName -> {
+            Object content = retrieve(memberName);
+            if (content instanceof String) {
+                return ((String) content).getBytes();
+            } else if (content instanceof InputStream) {
+                return inputStreamToByteArray((InputStream) content);
+            }
+            return (byte[]) content;
+        });
+    }
+
+    @Override
+    public Map<String, Path> membersRetrieveToDirectory(String memberPattern, @NotNull Path directory) throws ZosDatasetException {
+    	Objects.requireNonNull(directory, "directory must not be null");
+        Collection<String> memberNames = ZosDatasetMemberExecutor.matchingMembers(memberList(), memberPattern);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new ZosDatasetException("Unable to create directory " + directory, e);
+        }
+        return newMemberExecutor().run("retrieve", memberNames, memberName -> {
+            Path memberFile = directory.resolve(memberName);
+            retrieveToFile(memberName, memberFile);
+            return memberFile;
+        });
+    }
+
     @Override
 	public String getMemberName() {
 		return this.memberName;
@@ -1008,6 +1126,112 @@ public class RseapiZosDatasetImpl implements IZosDataset {
 	    }
 	}
 
+    /**
+     * Send a request for the raw content of the data set or member which is not converted by the client,
+     * so the response body can be read as it arrives
+     */
+    protected InputStream retrieveStream(String memberName, DatasetDataType streamDataType) throws ZosDatasetException {
+    	Map<String, String> headers = new HashMap<>();
+    	if (streamDataType.equals(DatasetDataType.BINARY)) {
+    		headers.put(BINARY_HEADER, "true");
+    	} else {
+    		headers.put(CONVERT_HEADER, "true");
+    	}
+    	String urlPath = RESTFILES_DATASET_PATH + SLASH + joinDSN(memberName) + RESTFILES_DATASET_PATH_RAW_CONTENT;
+    	IRseapiResponse response;
+        try {
+            response = this.rseapiApiProcessor.sendRequest(RseapiRequestType.GET, urlPath, headers, null, RseapiZosFileHandlerImpl.VALID_STATUS_CODES, false);
+        } catch (RseapiException e) {
+            throw new ZosDatasetException(e);
+        }
+        
+        if (response.getStatusCode() != HttpStatus.SC_OK) {
+        	// Error case
+            String displayMessage = this.zosFileHandler.buildErrorString("retrieve content of data set", response); 
+            logger.error(displayMessage);
+            throw new ZosDatasetException(displayMessage);
+        }
+
+        Object content;
+        try {
+            content = response.getContent();
+        } catch (RseapiException e) {
+            throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(this.dsname) + logOnImage(), e);
+        }
+
+        if (content instanceof InputStream) {
+            return (InputStream) content;
+        } else if (content instanceof byte[]) {
+            return new ByteArrayInputStream((byte[]) content);
+        } else if (content instanceof String) {
+            return new ByteArrayInputStream(((String) content).getBytes());
+        }
+        return new ByteArrayInputStream(new byte[0]);
+    }
+
+    protected long retrieveToStream(String memberName, DatasetDataType streamDataType, OutputStream out) throws ZosDatasetException {
+        long bytes;
+        try (InputStream in = retrieveStream(memberName, streamDataType)) {
+            bytes = in.transferTo(out);
+        } catch (IOException e) {
+            throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
+        }
+        logger.trace("Content of data set " + quoted(joinDSN(memberName)) + " streamed from image " + this.image.getImageID() + ", " + bytes + " bytes");
+        return bytes;
+    }
+
+    protected Stream<String> retrieveRecords(String memberName) throws ZosDatasetException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(retrieveStream(memberName, DatasetDataType.TEXT)));
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Stream the content of the data set or member into a new artifact in the Results Archive Store
+     */
+    protected void saveContentToResultsArchive(String memberName, Path artifactPath) throws ZosDatasetException {
+        try {
+            this.zosFileHandler.getZosManager().storeArtifact(artifactPath, null, ResultArchiveStoreContentType.TEXT);
+        } catch (ZosManagerException e) {
+            throw new ZosDatasetException(e);
+        }
+        retrieveToFile(memberName, artifactPath);
+    }
+
+    /**
+     * Stream the content of the data set or member into a local file, in the mode of the data set data type
+     */
+    protected long retrieveToFile(String memberName, Path file) throws ZosDatasetException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return retrieveToStream(memberName, this.dataType, out);
+        } catch (IOException e) {
+            throw new ZosDatasetException("Unable to write content of data set " + quoted(joinDSN(memberName)) + " to " + file, e);
+        }
+    }
+
+    /**
+     * The executor for the bulk member methods, with the threads and retries for the image, sending the requests
+     * on the threads shared by the data sets of the image
+     */
+    protected ZosDatasetMemberExecutor newMemberExecutor() throws ZosDatasetException {
+        try {
+            int threads = this.zosFileHandler.getZosManager().getZosFilePropertyDatasetMemberThreads(this.image.getImageID());
+            ExecutorService executor = null;
+            if (threads > 1) {
+                executor = this.zosFileHandler.getZosFileManager().getMemberExecutor(this.image, threads);
+            }
+            return new ZosDatasetMemberExecutor(this.dsname, executor, threads,
+                    this.zosFileHandler.getZosManager().getZosFilePropertyDatasetMemberRetry(this.image.getImageID()));
+        } catch (ZosFileManagerException e) {
+            throw new ZosDatasetException(e);
+        }
+    }
+
 	protected byte[] inputStreamToByteArray(InputStream in) throws ZosDatasetException {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         byte[] buffer = new byte[2048];
@@ -1028,7 +1252,10 @@ public class RseapiZosDatasetImpl implements IZosDataset {
         if (!exists()) {
             throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_DOES_NOT_EXIST + logOnImage());
         }
-        
+        putText(content, memberName, convert);
+    }
+
+    protected void putText(String content, String memberName, boolean convert) throws ZosDatasetException {
         JsonObject requestBody = new JsonObject();
         requestBody = addPropertyWhenSet(requestBody, PROP_RECORDS, content);
     
@@ -1056,17 +1283,20 @@ public class RseapiZosDatasetImpl implements IZosDataset {
         	zosFileHandler.getZosManager().createArtifactDirectory(artifactPath);
             Collection<String> memberList = memberList();
             Iterator<String> memberListIterator = memberList.iterator();
+            Map<String, Path> memberFiles = new LinkedHashMap<>();
         
         	while (memberListIterator.hasNext()) {
         		String memberName = memberListIterator.next();
+        		// Create the artifacts in turn, so their unique names can't clash
         		String fileName = zosFileHandler.getZosManager().buildUniquePathName(artifactPath, memberName);
-        		if (this.dataType.equals(DatasetDataType.TEXT)) {
-        			zosFileHandler.getZosManager().storeArtifact(artifactPath.resolve(fileName), memberRetrieveAsText(memberName), ResultArchiveStoreContentType.TEXT);
-        		} else {
-        			zosFileHandler.getZosManager().storeArtifact(artifactPath.resolve(fileName), new String(memberRetrieveAsBinary(memberName)), ResultArchiveStoreContentType.TEXT);
-        		}
-            	logger.info(quoted(joinDSN(memberName)) + LOG_ARCHIVED_TO + artifactPath.resolve(fileName));
+        		zosFileHandler.getZosManager().storeArtifact(artifactPath.resolve(fileName), null, ResultArchiveStoreContentType.TEXT);
+        		memberFiles.put(memberName, artifactPath.resolve(fileName));
         	}
+        	newMemberExecutor().run("archive", memberFiles.keySet(), memberName -> {
+        		retrieveToFile(memberName, memberFiles.get(memberName));
+            	logger.info(quoted(joinDSN(memberName)) + LOG_ARCHIVED_TO + memberFiles.get(memberName));
+            	return null;
+        	});
 		} catch (ZosManagerException e) {
 			throw new ZosDatasetException(e);
 		}
@@ -1076,6 +1306,10 @@ public class RseapiZosDatasetImpl implements IZosDataset {
         if (!exists()) {
             throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_DOES_NOT_EXIST + logOnImage());
         }
+        putBinary(content, memberName, convert);
+    }
+
+    protected void putBinary(byte[] content, String memberName, boolean convert) throws ZosDatasetException {
         Map<String, String> headers = new HashMap<>();
         headers.put(BINARY_HEADER, "true");
     
@@ -1097,6 +1331,35 @@ public class RseapiZosDatasetImpl implements IZosDataset {
         logger.trace(LOG_DATA_SET + quoted(joinDSN(memberName)) + " updated" + logOnImage());
     }
 
+    protected void storeFromStream(InputStream content, String memberName) throws ZosDatasetException {
+        if (!exists()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_DOES_NOT_EXIST + logOnImage());
+        }
+        Map<String, String> headers = new HashMap<>();
+        if (this.dataType.equals(DatasetDataType.BINARY)) {
+        	headers.put(BINARY_HEADER, "true");
+        } else {
+        	headers.put(CONVERT_HEADER, "true");
+        }
+    
+        String urlPath = RESTFILES_DATASET_PATH + SLASH + joinDSN(memberName) + RESTFILES_DATASET_PATH_RAW_CONTENT;
+        IRseapiResponse response;
+        try {
+            response = this.rseapiApiProcessor.sendRequest(RseapiRequestType.PUT_BINARY, urlPath, headers, content, RseapiZosFileHandlerImpl.VALID_STATUS_CODES, false);
+        } catch (RseapiException e) {
+            throw new ZosDatasetException(e);
+        }
+        
+        if (response.getStatusCode() != HttpStatus.SC_OK && response.getStatusCode() != HttpStatus.SC_CREATED) {
+            // Error case
+            String displayMessage = this.zosFileHandler.buildErrorString("write to data set", response); 
+            logger.error(displayMessage);
+            throw new ZosDatasetException(displayMessage);
+        }
+    
+        logger.trace(LOG_DATA_SET + quoted(joinDSN(memberName)) + " updated" + logOnImage());
+    }
+
     protected String emptyStringWhenNull(JsonObject jsonElement, String property) {
         JsonElement element = jsonElement.get(property);
         if (element == null) {
@@ -12,6 +12,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.validation.constraints.NotNull;
 
@@ -61,6 +66,9 @@ public class RseapiZosFileManagerImpl extends AbstractManager implements IZosFil
 
     private final Map<String, RseapiZosFileHandlerImpl> zosFileHandlers = new HashMap<>();
 
+    // The executors for the bulk member methods of the data sets, by image
+    private final Map<String, ExecutorService> memberExecutors = new HashMap<>();
+
     private static final String ZOS_DATASETS = "zOS_Datasets";
     
     private static final String ZOS_VSAM_DATASETS = "zOS_VSAM_Datasets";
@@ -246,6 +254,30 @@ public class RseapiZosFileManagerImpl extends AbstractManager implements IZosFil
         } catch (ZosFileManagerException e) {
             logger.error("Problem in endOfTestRun()", e);
         }
+        shutdownMemberExecutors();
+    }
+
+    /**
+     * @param image the image of the data sets
+     * @param threads the zosfile.dataset.[imageid].member.threads property of the image
+     * @return the executor sending the member requests to the image, which runs up to the given number of requests at a time
+     */
+    public synchronized ExecutorService getMemberExecutor(IZosImage image, int threads) {
+        return this.memberExecutors.computeIfAbsent(image.getImageID(), imageId -> {
+            AtomicInteger threadNumber = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "zosfile-member-" + imageId + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+    }
+
+    protected synchronized void shutdownMemberExecutors() {
+        for (ExecutorService executor : this.memberExecutors.values()) {
+            executor.shutdownNow();
+        }
+        this.memberExecutors.clear();
     }
     
     protected void cleanup() throws ZosFileManagerException {
@@ -5,18 +5,27 @@
  */
 package dev.galasa.zosfile.zosmf.manager.internal;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
 
@@ -34,6 +43,7 @@ import dev.galasa.zos.ZosManagerException;
 import dev.galasa.zosfile.IZosDataset;
 import dev.galasa.zosfile.ZosDatasetException;
 import dev.galasa.zosfile.ZosFileManagerException;
+import dev.galasa.zosfile.spi.ZosDatasetMemberExecutor;
 import dev.galasa.zosmf.IZosmf.ZosmfCustomHeaders;
 import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
 import dev.galasa.zosmf.IZosmfResponse;
@@ -345,6 +355,32 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         }
         return (byte[]) content;
     }
+
+    @Override
+    public void storeFromStream(@NotNull InputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + " is a partitioned data set. Use memberStoreFromStream(String memberName, InputStream content) method instead");
+        }
+        storeFromStream(content, null);
+    }
+
+    @Override
+    public long retrieveToStream(@NotNull OutputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + " is a partitioned data set. Use memberRetrieveToStream(String memberName, OutputStream content) method instead");
+        }
+        return retrieveToStream(null, this.dataType, content);
+    }
+
+    @Override
+    public Stream<String> retrieveRecords() throws ZosDatasetException {
+        if (isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + " is a partitioned data set. Use memberRetrieveRecords(String memberName) method instead");
+        }
+        return retrieveRecords(null);
+    }
     
     @Override
     public void saveToResultsArchive(String rasPath) throws ZosDatasetException {
@@ -355,15 +391,7 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
                 if (isPDS()) {
                     savePDSToResultsArchive(rasPath);
                 } else {
-                    try {
-                    	if (this.dataType.equals(DatasetDataType.TEXT)) {
-                    		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, retrieveAsText(), ResultArchiveStoreContentType.TEXT);
-                    	} else  {
-                    		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, new String(retrieveAsBinary()), ResultArchiveStoreContentType.TEXT);
-                    	}
-        			} catch (ZosManagerException e) {
-        				throw new ZosDatasetException(e);
-        			}
+                    saveContentToResultsArchive(null, artifactPath);
                 }
             }
         } catch (ZosFileManagerException e) {
@@ -529,6 +557,35 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         return (byte[]) content;
     }
 
+    @Override
+    public void memberStoreFromStream(@NotNull String memberName, @NotNull InputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(memberName, LOG_MEMBER_NAME_MUST_NOT_BE_NULL);
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        storeFromStream(content, memberName);
+    }
+
+    @Override
+    public long memberRetrieveToStream(@NotNull String memberName, @NotNull OutputStream content) throws ZosDatasetException {
+    	Objects.requireNonNull(memberName, LOG_MEMBER_NAME_MUST_NOT_BE_NULL);
+    	Objects.requireNonNull(content, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        return retrieveToStream(memberName, this.dataType, content);
+    }
+
+    @Override
+    public Stream<String> memberRetrieveRecords(@NotNull String memberName) throws ZosDatasetException {
+    	Objects.requireNonNull(memberName, LOG_MEMBER_NAME_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        return retrieveRecords(memberName);
+    }
+
     @Override
     public Collection<String> memberList() throws ZosDatasetException {
         if (!isPDS()) {
@@ -579,20 +636,80 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         try {
             Path artifactPath = this.zosFileHandler.getArtifactsRoot().resolve(rasPath);
     		logger.info("Archiving " + quoted(this.dsname) + " to " + artifactPath.toString());
-            try {
-            	if (this.dataType.equals(DatasetDataType.TEXT)) {
-            		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, memberRetrieveAsText(memberName), ResultArchiveStoreContentType.TEXT);
-            	} else  {
-            		this.zosFileHandler.getZosManager().storeArtifact(artifactPath, new String(memberRetrieveAsBinary(memberName)), ResultArchiveStoreContentType.TEXT);
-            	}
-			} catch (ZosManagerException e) {
-				throw new ZosDatasetException(e);
-			}
+            saveContentToResultsArchive(memberName, artifactPath);
         } catch (ZosFileManagerException e) {
             logger.error("Unable to save data set member to archive", e);
         }
     }
 
+    @Override
+    public void membersStoreText(@NotNull Map<String, String> members) throws ZosDatasetException {
+    	Objects.requireNonNull(members, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        newMemberExecutor().run("store", members.keySet(), memberName -> {
+            putText(Objects.requireNonNull(members.get(memberName), LOG_CONTENT_MUST_NOT_BE_NULL), memberName, true);
+            return null;
+        });
+    }
+
+    @Override
+    public void membersStoreBinary(@NotNull Map<String, byte[]> members) throws ZosDatasetException {
+    	Objects.requireNonNull(members, LOG_CONTENT_MUST_NOT_BE_NULL);
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        newMemberExecutor().run("store", members.keySet(), memberName -> {
+            putBinary(Objects.requireNonNull(members.get(memberName), LOG_CONTENT_MUST_NOT_BE_NULL), memberName, false);
+            return null;
+        });
+    }
+
+    @Override
+    public Map<String, String> membersRetrieveAsText(String memberPattern) throws ZosDatasetException {
+        Collection<String> memberNames = ZosDatasetMemberExecutor.matchingMembers(memberList(), memberPattern);
+        return newMemberExecutor().run("retrieve", memberNames, memberName -> {
+            Object content = retrieve(memberName);
+            if (content instanceof byte[]) {
+                return new String((byte[]) content);
+            } else if (content instanceof InputStream) {
+                return new String(inputStreamToByteArray((InputStream) content));
+            }
+            return (String) content;
+        });
+    }
+
+    @Override
+    public Map<String, byte[]> membersRetrieveAsBinary(String memberPattern) throws ZosDatasetException {
+        Collection<String> memberNames = ZosDatasetMemberExecutor.matchingMembers(memberList(), memberPattern);
+        return newMemberExecutor().run("retrieve", memberNames, memberName -> {
+            Object content = retrieve(memberName);
+            if (content instanceof String) {
+                return ((String) content).getBytes();
+            } else if (content instanceof InputStream) {
+                return inputStreamToByteArray((InputStream) content);
+            }
+            return (byte[]) content;
+        });
+    }
+
+    @Override
+    public Map<String, Path> membersRetrieveToDirectory(String memberPattern, @NotNull Path directory) throws ZosDatasetException {
+    	Objects.requireNonNull(directory, "directory must not be null");
+        Collection<String> memberNames = ZosDatasetMemberExecutor.matchingMembers(memberList(), memberPattern);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new ZosDatasetException("Unable to create directory " + directory, e);
+        }
+        return newMemberExecutor().run("retrieve", memberNames, memberName -> {
+            Path memberFile = directory.resolve(memberName);
+            retrieveToFile(memberName, memberFile);
+            return memberFile;
+        });
+    }
+
     @Override
 	public String getMemberName() {
 	    return this.memberName;
@@ -1076,6 +1193,110 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         return content;
     }
 
+    /**
+     * Send a request for the content of the data set or member which is not converted by the client,
+     * so the response body can be read as it arrives
+     */
+    protected InputStream retrieveStream(String memberName, DatasetDataType streamDataType) throws ZosDatasetException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(ZosmfCustomHeaders.X_IBM_DATA_TYPE.toString(), streamDataType.toString());
+        String urlPath = RESTFILES_DATASET_PATH + SLASH + joinDSN(memberName);
+        IZosmfResponse response;
+        try {
+            response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.GET, urlPath, headers, null,
+                    new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_NOT_FOUND, HttpStatus.SC_INTERNAL_SERVER_ERROR)), false);
+        } catch (ZosmfException e) {
+            throw new ZosDatasetException(e);
+        }
+
+        Object content;
+        try {
+            if (response.getStatusCode() != HttpStatus.SC_OK) {
+                JsonObject responseBody = response.getJsonContent();
+                logger.trace(responseBody);
+                // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
+                String displayMessage = buildErrorString(LOG_READING_FROM, responseBody); 
+                logger.error(displayMessage);
+                throw new ZosDatasetException(displayMessage);
+            }
+            content = response.getContent();
+        } catch (ZosmfException e) {
+            throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
+        }
+
+        if (content instanceof InputStream) {
+            return (InputStream) content;
+        } else if (content instanceof byte[]) {
+            return new ByteArrayInputStream((byte[]) content);
+        } else if (content instanceof String) {
+            return new ByteArrayInputStream(((String) content).getBytes());
+        }
+        return new ByteArrayInputStream(new byte[0]);
+    }
+
+    protected long retrieveToStream(String memberName, DatasetDataType streamDataType, OutputStream out) throws ZosDatasetException {
+        long bytes;
+        try (InputStream in = retrieveStream(memberName, streamDataType)) {
+            bytes = in.transferTo(out);
+        } catch (IOException e) {
+            throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
+        }
+        logger.trace("Content of data set " + quoted(joinDSN(memberName)) + " streamed from image " + this.image.getImageID() + ", " + bytes + " bytes");
+        return bytes;
+    }
+
+    protected Stream<String> retrieveRecords(String memberName) throws ZosDatasetException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(retrieveStream(memberName, DatasetDataType.TEXT)));
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Stream the content of the data set or member into a new artifact in the Results Archive Store
+     */
+    protected void saveContentToResultsArchive(String memberName, Path artifactPath) throws ZosDatasetException {
+        try {
+            this.zosFileHandler.getZosManager().storeArtifact(artifactPath, null, ResultArchiveStoreContentType.TEXT);
+        } catch (ZosManagerException e) {
+            throw new ZosDatasetException(e);
+        }
+        retrieveToFile(memberName, artifactPath);
+    }
+
+    /**
+     * Stream the content of the data set or member into a local file, in the mode of the data set data type
+     */
+    protected long retrieveToFile(String memberName, Path file) throws ZosDatasetException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return retrieveToStream(memberName, this.dataType, out);
+        } catch (IOException e) {
+            throw new ZosDatasetException("Unable to write content of data set " + quoted(joinDSN(memberName)) + " to " + file, e);
+        }
+    }
+
+    /**
+     * The executor for the bulk member methods, with the threads and retries for the image, sending the requests
+     * on the threads shared by the data sets of the image
+     */
+    protected ZosDatasetMemberExecutor newMemberExecutor() throws ZosDatasetException {
+        try {
+            int threads = this.zosFileHandler.getZosManager().getZosFilePropertyDatasetMemberThreads(this.image.getImageID());
+            ExecutorService executor = null;
+            if (threads > 1) {
+                executor = this.zosFileHandler.getZosFileManager().getMemberExecutor(this.image, threads);
+            }
+            return new ZosDatasetMemberExecutor(this.dsname, executor, threads,
+                    this.zosFileHandler.getZosManager().getZosFilePropertyDatasetMemberRetry(this.image.getImageID()));
+        } catch (ZosFileManagerException e) {
+            throw new ZosDatasetException(e);
+        }
+    }
+
     protected byte[] inputStreamToByteArray(InputStream in) throws ZosDatasetException {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         byte[] buffer = new byte[2048];
@@ -1096,6 +1317,10 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         if (!exists()) {
             throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_DOES_NOT_EXIST + logOnImage());
         }
+        putText(content, memberName, convert);
+    }
+
+    protected void putText(String content, String memberName, boolean convert) throws ZosDatasetException {
         Map<String, String> headers = new HashMap<>();
         headers.put(ZosmfCustomHeaders.X_IBM_DATA_TYPE.toString(), getDataType().toString());
     
@@ -1131,17 +1356,20 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         	this.zosFileHandler.getZosManager().createArtifactDirectory(artifactPath);
             Collection<String> memberList = memberList();
             Iterator<String> memberListIterator = memberList.iterator();
+            Map<String, Path> memberFiles = new LinkedHashMap<>();
         
         	while (memberListIterator.hasNext()) {
         		String memberName = memberListIterator.next();
+        		// Create the artifacts in turn, so their unique names can't clash
         		String fileName = this.zosFileHandler.getZosManager().buildUniquePathName(artifactPath, memberName);
-        		if (this.dataType.equals(DatasetDataType.TEXT)) {
-        			this.zosFileHandler.getZosManager().storeArtifact(artifactPath.resolve(fileName), memberRetrieveAsText(memberName), ResultArchiveStoreContentType.TEXT);
-        		} else {
-        			this.zosFileHandler.getZosManager().storeArtifact(artifactPath.resolve(fileName), new String(memberRetrieveAsBinary(memberName)), ResultArchiveStoreContentType.TEXT);
-        		}
-            	logger.info(quoted(joinDSN(memberName)) + LOG_ARCHIVED_TO + artifactPath.resolve(fileName));
+        		this.zosFileHandler.getZosManager().storeArtifact(artifactPath.resolve(fileName), null, ResultArchiveStoreContentType.TEXT);
+        		memberFiles.put(memberName, artifactPath.resolve(fileName));
         	}
+        	newMemberExecutor().run("archive", memberFiles.keySet(), memberName -> {
+        		retrieveToFile(memberName, memberFiles.get(memberName));
+            	logger.info(quoted(joinDSN(memberName)) + LOG_ARCHIVED_TO + memberFiles.get(memberName));
+            	return null;
+        	});
 		} catch (ZosManagerException e) {
 			throw new ZosDatasetException(e);
 		}
@@ -1151,6 +1379,10 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         if (!exists()) {
             throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_DOES_NOT_EXIST + logOnImage());
         }
+        putBinary(content, memberName, convert);
+    }
+
+    protected void putBinary(byte[] content, String memberName, boolean convert) throws ZosDatasetException {
         Map<String, String> headers = new HashMap<>();
         headers.put(ZosmfCustomHeaders.X_IBM_DATA_TYPE.toString(), getDataType().toString());
     
@@ -1180,6 +1412,39 @@ public class ZosmfZosDatasetImpl implements IZosDataset {
         logger.trace(LOG_DATA_SET + quoted(joinDSN(memberName)) + " updated" + logOnImage());
     }
 
+    protected void storeFromStream(InputStream content, String memberName) throws ZosDatasetException {
+        if (!exists()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_DOES_NOT_EXIST + logOnImage());
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put(ZosmfCustomHeaders.X_IBM_DATA_TYPE.toString(), getDataType().toString());
+    
+        String urlPath = RESTFILES_DATASET_PATH + SLASH + joinDSN(memberName);
+        IZosmfResponse response;
+        try {
+            response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.PUT_BINARY, urlPath, headers, content, 
+                    new ArrayList<>(Arrays.asList(HttpStatus.SC_NO_CONTENT, HttpStatus.SC_CREATED, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_INTERNAL_SERVER_ERROR)), false);
+        } catch (ZosmfException e) {
+            throw new ZosDatasetException(e);
+        }
+        
+        if (response.getStatusCode() != HttpStatus.SC_NO_CONTENT && response.getStatusCode() != HttpStatus.SC_CREATED) {
+            // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR            
+            JsonObject responseBody;
+            try {
+                responseBody = response.getJsonContent();
+            } catch (ZosmfException e) {
+                throw new ZosDatasetException("Unable to write to data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
+            }
+            logger.trace(responseBody);
+            String displayMessage = buildErrorString(LOG_WRITING_TO, responseBody); 
+            logger.error(displayMessage);
+            throw new ZosDatasetException(displayMessage);
+        }
+    
+        logger.trace(LOG_DATA_SET + quoted(joinDSN(memberName)) + " updated" + logOnImage());
+    }
+
     protected String emptyStringWhenNull(JsonObject jsonElement, String property) {
         JsonElement element = jsonElement.get(property);
         if (element == null) {
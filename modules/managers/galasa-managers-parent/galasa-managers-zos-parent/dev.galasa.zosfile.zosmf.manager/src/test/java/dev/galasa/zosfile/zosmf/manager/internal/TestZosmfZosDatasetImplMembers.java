@@ -0,0 +1,283 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosfile.zosmf.manager.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.core5.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import dev.galasa.zos.IZosImage;
+import dev.galasa.zos.spi.IZosManagerSpi;
+import dev.galasa.zosfile.ZosDatasetException;
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.IZosmfRestApiProcessor;
+import dev.galasa.zosmf.ZosmfException;
+import dev.galasa.zosmf.spi.IZosmfManagerSpi;
+
+public class TestZosmfZosDatasetImplMembers {
+
+    private static final String DSNAME = "GALASA.PDS";
+    private static final String CONTENT_PATH = "/zosmf/restfiles/ds/" + DSNAME;
+    private static final String[] MEMBERS = { "ALPHA", "BETA1", "BETA2", "GAMMA" };
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private IZosManagerSpi zosManagerMock;
+
+    private IZosmfRestApiProcessor zosmfApiProcessorMock;
+
+    private ZosmfZosFileHandlerImpl zosFileHandlerMock;
+
+    // Owns the member request threads, as the real file manager does
+    private ZosmfZosFileManagerImpl memberExecutorManager = new ZosmfZosFileManagerImpl();
+
+    // The threads the member content requests were sent on
+    private Set<String> memberThreads = ConcurrentHashMap.newKeySet();
+
+    // The members whose content requests fail, and the number of times each fails
+    private Map<String, AtomicInteger> failingMembers = new ConcurrentHashMap<>();
+
+    @Before
+    public void setup() throws Exception {
+        zosFileHandlerMock = Mockito.mock(ZosmfZosFileHandlerImpl.class);
+        ZosmfZosFileManagerImpl zosFileManagerMock = Mockito.mock(ZosmfZosFileManagerImpl.class);
+        zosManagerMock = Mockito.mock(IZosManagerSpi.class);
+        IZosmfManagerSpi zosmfManagerMock = Mockito.mock(IZosmfManagerSpi.class);
+        zosmfApiProcessorMock = Mockito.mock(IZosmfRestApiProcessor.class);
+
+        Mockito.when(zosFileHandlerMock.getZosFileManager()).thenReturn(zosFileManagerMock);
+        Mockito.when(zosFileManagerMock.getMemberExecutor(Mockito.any(), Mockito.anyInt())).thenAnswer(invocation ->
+            memberExecutorManager.getMemberExecutor(invocation.getArgument(0), invocation.getArgument(1)));
+        Mockito.when(zosFileHandlerMock.getZosManager()).thenReturn(zosManagerMock);
+        Mockito.when(zosFileHandlerMock.getZosmfManager()).thenReturn(zosmfManagerMock);
+        Mockito.when(zosFileHandlerMock.getArtifactsRoot()).thenReturn(temporaryFolder.getRoot().toPath());
+        Mockito.when(zosmfManagerMock.newZosmfRestApiProcessor(Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfApiProcessorMock);
+        Mockito.when(zosManagerMock.getZosFilePropertyDatasetMemberThreads(Mockito.any())).thenReturn(4);
+        Mockito.when(zosManagerMock.getZosFilePropertyDatasetMemberRetry(Mockito.any())).thenReturn(1);
+        Mockito.when(zosManagerMock.buildUniquePathName(Mockito.any(), Mockito.anyString())).thenAnswer(invocation -> invocation.getArgument(1));
+        Mockito.doAnswer(invocation -> {
+            Path artifactPath = invocation.getArgument(0);
+            Files.createDirectories(artifactPath.getParent());
+            Files.createFile(artifactPath);
+            return null;
+        }).when(zosManagerMock).storeArtifact(Mockito.any(), Mockito.any(), Mockito.any());
+
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> respond(invocation.getArgument(1), invocation.getArgument(5)));
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.PUT_TEXT), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> {
+                memberThreads.add(Thread.currentThread().getName());
+                IZosmfResponse response = Mockito.mock(IZosmfResponse.class);
+                Mockito.when(response.getStatusCode()).thenReturn(HttpStatus.SC_NO_CONTENT);
+                return response;
+            });
+    }
+
+    @After
+    public void shutdownMemberThreads() {
+        memberExecutorManager.shutdownMemberExecutors();
+    }
+
+    private IZosmfResponse respond(String path, boolean convert) throws Exception {
+        IZosmfResponse response = Mockito.mock(IZosmfResponse.class);
+        Mockito.when(response.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        if (path.contains("?dslevel=")) {
+            JsonObject item = new JsonObject();
+            item.addProperty("dsname", DSNAME);
+            item.addProperty("dsorg", "PO");
+            Mockito.when(response.getJsonContent()).thenReturn(list(item));
+        } else if (path.equals(CONTENT_PATH + "/member")) {
+            JsonObject[] items = new JsonObject[MEMBERS.length];
+            for (int i = 0; i < MEMBERS.length; i++) {
+                items[i] = new JsonObject();
+                items[i].addProperty("member", MEMBERS[i]);
+            }
+            Mockito.when(response.getJsonContent()).thenReturn(list(items));
+        } else if (path.startsWith(CONTENT_PATH + "(")) {
+            memberThreads.add(Thread.currentThread().getName());
+            String memberName = path.substring(path.indexOf('(') + 1, path.indexOf(')'));
+            AtomicInteger failures = failingMembers.get(memberName);
+            if (failures != null && failures.getAndDecrement() > 0) {
+                throw new ZosmfException("Unable to get valid response from zOS/MF server");
+            }
+            String content = "content of " + memberName;
+            if (convert) {
+                Mockito.when(response.getContent()).thenReturn(content);
+            } else {
+                Mockito.when(response.getContent()).thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+            }
+        } else {
+            throw new IllegalArgumentException("Unexpected path " + path);
+        }
+        return response;
+    }
+
+    private JsonObject list(JsonObject... items) {
+        JsonArray itemArray = new JsonArray();
+        for (JsonObject item : items) {
+            itemArray.add(item);
+        }
+        JsonObject responseBody = new JsonObject();
+        responseBody.addProperty("returnedRows", items.length);
+        responseBody.add("items", itemArray);
+        return responseBody;
+    }
+
+    private ZosmfZosDatasetImpl newDataset() throws Exception {
+        return new ZosmfZosDatasetImpl(zosFileHandlerMock, newImage(), DSNAME);
+    }
+
+    private IZosImage newImage() {
+        IZosImage zosImageMock = Mockito.mock(IZosImage.class);
+        Mockito.when(zosImageMock.getImageID()).thenReturn("IMAGE");
+        return zosImageMock;
+    }
+
+    @Test
+    public void testMembersRetrieveAsTextReturnsMatchingMembersInOrder() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset = newDataset();
+
+        // When...
+        Map<String, String> members = dataset.membersRetrieveAsText("BETA?");
+
+        // Then...
+        assertThat(members).containsExactly(entry("BETA1", "content of BETA1"), entry("BETA2", "content of BETA2"));
+        assertThat(memberThreads).isNotEmpty().allMatch(name -> name.startsWith("zosfile-member-IMAGE-"));
+    }
+
+    @Test
+    public void testMembersRetrieveAsTextRetriesAFailedMember() throws Exception {
+        // Given...
+        failingMembers.put("GAMMA", new AtomicInteger(1));
+        ZosmfZosDatasetImpl dataset = newDataset();
+
+        // When...
+        Map<String, String> members = dataset.membersRetrieveAsText(null);
+
+        // Then...
+        assertThat(members).containsOnlyKeys(MEMBERS).containsEntry("GAMMA", "content of GAMMA");
+    }
+
+    @Test
+    public void testMembersRetrieveAsTextNamesTheMembersThatStillFail() throws Exception {
+        // Given...
+        failingMembers.put("ALPHA", new AtomicInteger(2));
+        failingMembers.put("GAMMA", new AtomicInteger(2));
+        ZosmfZosDatasetImpl dataset = newDataset();
+
+        // When...
+        Throwable thrown = catchThrowable(() -> dataset.membersRetrieveAsText("*"));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ZosDatasetException.class)
+            .hasMessage("Unable to retrieve 2 of 4 members of data set '" + DSNAME + "': ALPHA, GAMMA");
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.eq(CONTENT_PATH + "(BETA2)"), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testMembersStoreTextStoresEachMemberOnTheCallingThreadWithOneThread() throws Exception {
+        // Given...
+        Mockito.when(zosManagerMock.getZosFilePropertyDatasetMemberThreads(Mockito.any())).thenReturn(1);
+        ZosmfZosDatasetImpl dataset = newDataset();
+        Map<String, String> members = new LinkedHashMap<>();
+        members.put("ALPHA", "content of ALPHA");
+        members.put("BETA1", "content of BETA1");
+
+        // When...
+        dataset.membersStoreText(members);
+
+        // Then...
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.PUT_TEXT), Mockito.eq(CONTENT_PATH + "(ALPHA)"), Mockito.any(), Mockito.eq("content of ALPHA"), Mockito.any(), Mockito.eq(true));
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.PUT_TEXT), Mockito.eq(CONTENT_PATH + "(BETA1)"), Mockito.any(), Mockito.eq("content of BETA1"), Mockito.any(), Mockito.eq(true));
+        assertThat(memberThreads).containsOnly(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void testMembersRetrieveToDirectoryStreamsEachMemberToAFile() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset = newDataset();
+        Path directory = temporaryFolder.getRoot().toPath().resolve("staging");
+
+        // When...
+        Map<String, Path> memberFiles = dataset.membersRetrieveToDirectory("*A", directory);
+
+        // Then...
+        assertThat(memberFiles).containsOnlyKeys("ALPHA", "GAMMA");
+        assertThat(memberFiles.get("ALPHA")).isEqualTo(directory.resolve("ALPHA")).hasContent("content of ALPHA");
+        assertThat(memberFiles.get("GAMMA")).isEqualTo(directory.resolve("GAMMA")).hasContent("content of GAMMA");
+    }
+
+    @Test
+    public void testSaveToResultsArchiveStreamsEveryMemberConcurrently() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset = newDataset();
+
+        // When...
+        dataset.saveToResultsArchive("archive");
+
+        // Then...
+        Path artifactPath = temporaryFolder.getRoot().toPath().resolve("archive");
+        for (String memberName : MEMBERS) {
+            assertThat(artifactPath.resolve(memberName)).hasContent("content of " + memberName);
+        }
+        assertThat(memberThreads).isNotEmpty().allMatch(name -> name.startsWith("zosfile-member-IMAGE-"));
+    }
+
+    @Test
+    public void testDatasetsOnTheSameImageShareTheMemberThreads() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset1 = newDataset();
+        ZosmfZosDatasetImpl dataset2 = newDataset();
+
+        // When...
+        for (int i = 0; i < 3; i++) {
+            dataset1.membersRetrieveAsText(null);
+            dataset2.membersRetrieveAsText(null);
+        }
+
+        // Then...
+        assertThat(memberThreads).hasSize(4).allMatch(name -> name.startsWith("zosfile-member-IMAGE-"));
+    }
+
+    @Test
+    public void testMemberThreadsAreShutDownAtTheEndOfTheRun() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset = newDataset();
+        dataset.membersRetrieveAsText(null);
+        IZosImage zosImageMock = newImage();
+        ExecutorService executor = memberExecutorManager.getMemberExecutor(zosImageMock, 4);
+
+        // When...
+        memberExecutorManager.endOfTestRun();
+
+        // Then...
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(memberExecutorManager.getMemberExecutor(zosImageMock, 4)).isNotSameAs(executor);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosfile.zosmf.manager.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.hc.core5.http.HttpStatus;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import dev.galasa.zos.IZosImage;
+import dev.galasa.zos.spi.IZosManagerSpi;
+import dev.galasa.zosfile.IZosDataset.DatasetDataType;
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.IZosmfRestApiProcessor;
+import dev.galasa.zosmf.spi.IZosmfManagerSpi;
+
+public class TestZosmfZosDatasetImplStreaming {
+
+    private static final String DSNAME = "GALASA.DATA.SET";
+    private static final String CONTENT_PATH = "/zosmf/restfiles/ds/" + DSNAME;
+    private static final String CONTENT = "RECORD 1\nRECORD 2\nRECORD 3\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ZosmfZosFileHandlerImpl zosFileHandlerMock;
+
+    private IZosmfRestApiProcessor zosmfApiProcessorMock;
+
+    // The data set organisation returned by the data set list request
+    private String dsorg = "PS";
+
+    // Whether the stream of the last content response has been closed
+    private boolean contentClosed;
+
+    @Before
+    public void setup() throws Exception {
+        zosFileHandlerMock = Mockito.mock(ZosmfZosFileHandlerImpl.class);
+        ZosmfZosFileManagerImpl zosFileManagerMock = Mockito.mock(ZosmfZosFileManagerImpl.class);
+        IZosManagerSpi zosManagerMock = Mockito.mock(IZosManagerSpi.class);
+        IZosmfManagerSpi zosmfManagerMock = Mockito.mock(IZosmfManagerSpi.class);
+        zosmfApiProcessorMock = Mockito.mock(IZosmfRestApiProcessor.class);
+
+        Mockito.when(zosFileHandlerMock.getZosFileManager()).thenReturn(zosFileManagerMock);
+        Mockito.when(zosFileHandlerMock.getZosManager()).thenReturn(zosManagerMock);
+        Mockito.when(zosFileHandlerMock.getZosmfManager()).thenReturn(zosmfManagerMock);
+        Mockito.when(zosFileHandlerMock.getArtifactsRoot()).thenReturn(temporaryFolder.getRoot().toPath());
+        Mockito.when(zosmfManagerMock.newZosmfRestApiProcessor(Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfApiProcessorMock);
+        Mockito.doAnswer(invocation -> {
+            Path artifactPath = invocation.getArgument(0);
+            Files.createDirectories(artifactPath.getParent());
+            Files.createFile(artifactPath);
+            return null;
+        }).when(zosManagerMock).storeArtifact(Mockito.any(), Mockito.any(), Mockito.any());
+
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> respond(invocation.getArgument(1), invocation.getArgument(5)));
+
+        IZosmfResponse storeResponseMock = Mockito.mock(IZosmfResponse.class);
+        Mockito.when(storeResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_NO_CONTENT);
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.PUT_BINARY), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(storeResponseMock);
+    }
+
+    private IZosmfResponse respond(String path, boolean convert) throws Exception {
+        IZosmfResponse response = Mockito.mock(IZosmfResponse.class);
+        Mockito.when(response.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        if (path.contains("?dslevel=")) {
+            JsonObject item = new JsonObject();
+            item.addProperty("dsname", DSNAME);
+            item.addProperty("dsorg", dsorg);
+            JsonArray items = new JsonArray();
+            items.add(item);
+            JsonObject responseBody = new JsonObject();
+            responseBody.addProperty("returnedRows", 1);
+            responseBody.add("items", items);
+            Mockito.when(response.getJsonContent()).thenReturn(responseBody);
+        } else if (path.startsWith(CONTENT_PATH)) {
+            if (convert) {
+                Mockito.when(response.getContent()).thenReturn(CONTENT);
+            } else {
+                Mockito.when(response.getContent()).thenReturn(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)) {
+                    @Override
+                    public void close() {
+                        contentClosed = true;
+                    }
+                });
+            }
+        } else {
+            throw new IllegalArgumentException("Unexpected path " + path);
+        }
+        return response;
+    }
+
+    private ZosmfZosDatasetImpl newDataset() throws Exception {
+        IZosImage zosImageMock = Mockito.mock(IZosImage.class);
+        Mockito.when(zosImageMock.getImageID()).thenReturn("IMAGE");
+        return new ZosmfZosDatasetImpl(zosFileHandlerMock, zosImageMock, DSNAME);
+    }
+
+    @Test
+    public void testRetrieveToStreamCopiesUnconvertedContent() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset = newDataset();
+        dataset.setDataType(DatasetDataType.BINARY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When...
+        long bytes = dataset.retrieveToStream(out);
+
+        // Then...
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+        assertThat(bytes).isEqualTo(CONTENT.length());
+        assertThat(contentClosed).isTrue();
+        Mockito.verify(zosmfApiProcessorMock, Mockito.never()).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.eq(CONTENT_PATH), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(true));
+    }
+
+    @Test
+    public void testMemberRetrieveRecordsReturnsEachRecordAndClosesTheContent() throws Exception {
+        // Given...
+        dsorg = "PO";
+        ZosmfZosDatasetImpl dataset = newDataset();
+
+        // When...
+        List<String> records;
+        try (Stream<String> recordStream = dataset.memberRetrieveRecords("MEMBER")) {
+            records = recordStream.collect(Collectors.toList());
+            assertThat(contentClosed).isFalse();
+        }
+
+        // Then...
+        assertThat(records).containsExactly("RECORD 1", "RECORD 2", "RECORD 3");
+        assertThat(contentClosed).isTrue();
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.eq(CONTENT_PATH + "(MEMBER)"), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(false));
+    }
+
+    @Test
+    public void testSaveToResultsArchiveStreamsContentToArtifactFile() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset = newDataset();
+
+        // When...
+        dataset.saveToResultsArchive("archive");
+
+        // Then...
+        assertThat(temporaryFolder.getRoot().toPath().resolve("archive")).hasContent(CONTENT);
+        Mockito.verify(zosmfApiProcessorMock, Mockito.never()).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.eq(CONTENT_PATH), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(true));
+    }
+
+    @Test
+    public void testStoreFromStreamSendsTheStreamAsTheRequestBody() throws Exception {
+        // Given...
+        ZosmfZosDatasetImpl dataset = newDataset();
+        InputStream content = new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        // When...
+        dataset.storeFromStream(content);
+
+        // Then...
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.PUT_BINARY), Mockito.eq(CONTENT_PATH), Mockito.any(), Mockito.same(content), Mockito.any(), Mockito.eq(false));
+    }
+}
@@ -5,6 +5,7 @@
  */
 package dev.galasa.zosmf;
 
+import java.io.InputStream;
 import java.util.List;
 
 import javax.validation.constraints.NotNull;
@@ -50,7 +51,8 @@ public interface IZosmf {
          */
         PUT_JSON,
         /**
-         * PUT method with byte[] request body
+         * PUT method with byte[] or {@link java.io.InputStream} request body. A request with an
+         * {@link java.io.InputStream} body is not retried because the stream can only be read once
          */
         PUT_BINARY,
         /**
@@ -185,6 +187,18 @@ public interface IZosmf {
      */
     public @NotNull IZosmfResponse putBinary(String path, byte[] body, List<Integer> validStatusCodes) throws ZosmfException;
 
+    /**
+     * Issue an HTTP PUT request to the zOSMF server with a request body of content type of {@code text/plain}
+     * streamed from an {@link InputStream}
+     * 
+     * @param path identifies the zOSMF REST API
+     * @param body the request body stream, which is read once and not closed
+     * @param validStatusCodes a {@link List} of acceptable HTTP Status codes. Default to {@link HttpStatus#SC_OK} when null
+     * @return the zOSMF server response
+     * @throws ZosmfException
+     */
+    public @NotNull IZosmfResponse putBinary(String path, InputStream body, List<Integer> validStatusCodes) throws ZosmfException;
+
     /**
      * Issue an HTTP DELETE request to the zOSMF server with no request body
      * 
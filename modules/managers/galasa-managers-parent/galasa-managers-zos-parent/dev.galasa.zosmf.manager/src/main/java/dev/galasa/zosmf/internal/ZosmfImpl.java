@@ -5,6 +5,7 @@
  */
 package dev.galasa.zosmf.internal;
 
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -14,6 +15,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.validation.constraints.NotNull;
 
@@ -36,8 +38,11 @@ import dev.galasa.zosmf.ZosmfException;
 import dev.galasa.zosmf.ZosmfManagerException;
 import dev.galasa.zosmf.internal.properties.Https;
 import dev.galasa.zosmf.internal.properties.RequestRetry;
+import dev.galasa.zosmf.internal.properties.ServerCircuitFailures;
+import dev.galasa.zosmf.internal.properties.ServerCircuitReset;
 import dev.galasa.zosmf.internal.properties.ServerCreds;
 import dev.galasa.zosmf.internal.properties.ServerImage;
+import dev.galasa.zosmf.internal.properties.ServerMaxRequests;
 import dev.galasa.zosmf.internal.properties.ServerPort;
 
 /**
@@ -53,11 +58,18 @@ public class ZosmfImpl implements IZosmf {
     private final ZosmfManagerImpl zosmfManager;
     private final String serverId;
     private IZosImage image;
-    private IHttpClient httpClient;
     private String zosmfUrl;
+    private String scheme;
+    private ICredentials creds;
     protected int requestRetry;
+    private ZosmfServerHealth serverHealth;
 
-    private HashMap<String, String> commonHeaders = new HashMap<>();
+    // Each thread sending requests has its own HTTP client and headers, as the HTTP client is not thread safe
+    private final ThreadLocal<IHttpClient> httpClients = new ThreadLocal<>();
+    private final ThreadLocal<HashMap<String, String>> commonHeaders = ThreadLocal.withInitial(HashMap::new);
+
+    // Every HTTP client built for a thread, so they can be closed at the end of the run
+    private final List<IHttpClient> builtHttpClients = new CopyOnWriteArrayList<>();
 
 	private static final String PATH_SERVERDETAILS = "/zosmf/info";
 
@@ -81,13 +93,16 @@ public class ZosmfImpl implements IZosmf {
 
     @Override
     public void setHeader(String key, String value) {
-        this.commonHeaders.put(key, value);
+        this.commonHeaders.get().put(key, value);
     }
 
     @Override
     public void clearHeaders() {
-        this.commonHeaders.clear();
-        this.httpClient.clearCommonHeaders();
+        this.commonHeaders.get().clear();
+        IHttpClient httpClient = this.httpClients.get();
+        if (httpClient != null) {
+            httpClient.clearCommonHeaders();
+        }
     }
 
     @Override
@@ -103,9 +118,9 @@ public class ZosmfImpl implements IZosmf {
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.trace(logRequest(method, zosmfResponse.getRequestUrl()));
             if (convert) {
-                zosmfResponse.setHttpClientresponse(this.httpClient.getText(validPath(path)));
+                zosmfResponse.setHttpClientresponse(getHttpClient().getText(validPath(path)));
             } else {
-                zosmfResponse.setHttpClientresponse(this.httpClient.getFileStream(validPath(path)));
+                zosmfResponse.setHttpClientresponse(getHttpClient().getFileStream(validPath(path)));
             }
             
             logger.trace(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
@@ -133,7 +148,7 @@ public class ZosmfImpl implements IZosmf {
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.trace(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.trace(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.postJson(validPath(path), requestBody));
+            zosmfResponse.setHttpClientresponse(getHttpClient().postJson(validPath(path), requestBody));
             logger.trace(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
                 throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
@@ -159,7 +174,7 @@ public class ZosmfImpl implements IZosmf {
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.trace(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.trace(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.putText(validPath(path), requestBody));
+            zosmfResponse.setHttpClientresponse(getHttpClient().putText(validPath(path), requestBody));
             logger.trace(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
                 throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
@@ -185,7 +200,7 @@ public class ZosmfImpl implements IZosmf {
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.trace(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.trace(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.putJson(validPath(path), requestBody));
+            zosmfResponse.setHttpClientresponse(getHttpClient().putJson(validPath(path), requestBody));
             logger.trace(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
                 throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
@@ -212,7 +227,33 @@ public class ZosmfImpl implements IZosmf {
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.trace(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.trace(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.putBinary(path, requestBody));
+            zosmfResponse.setHttpClientresponse(getHttpClient().putBinary(path, requestBody));
+            logger.trace(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
+            if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
+                throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
+            }
+        } catch (MalformedURLException | HttpClientException  e) {
+            logger.error(e);
+            throw new ZosmfException(logBadRequest(method), e);
+        }
+
+        return zosmfResponse;
+    }
+
+    @Override
+    public @NotNull IZosmfResponse putBinary(String path, InputStream requestBody, List<Integer> validStatusCodes) throws ZosmfException  {
+        String method = ZosmfRequestType.PUT.name();
+        if (validStatusCodes == null) {
+            validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
+        }
+        ZosmfResponseImpl zosmfResponse;
+
+        try {
+            setHeader(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
+            addCommonHeaders();
+            zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
+            logger.trace(logRequest(method, zosmfResponse.getRequestUrl()));
+            zosmfResponse.setHttpClientresponse(getHttpClient().putBinary(path, requestBody));
             logger.trace(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
                 throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
@@ -237,7 +278,7 @@ public class ZosmfImpl implements IZosmf {
             addCommonHeaders();
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.trace(logRequest(method, zosmfResponse.getRequestUrl()));
-            zosmfResponse.setHttpClientresponse(this.httpClient.deleteJson(validPath(path)));
+            zosmfResponse.setHttpClientresponse(getHttpClient().deleteJson(validPath(path)));
             logger.trace(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
                 throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
@@ -282,57 +323,93 @@ public class ZosmfImpl implements IZosmf {
         } catch (ZosmfManagerException e) {
             throw new ZosmfException(e);
         }
-        String scheme = "http";
+        this.scheme = "http";
         try {
             if (Https.get(image.getImageID())) {
-                scheme = "https";
+                this.scheme = "https";
             }
         } catch (ZosmfManagerException e) {
             throw new ZosmfException(e);
         }
         
-        this.zosmfUrl = scheme + "://" + zosmfHostname + ":" + zosmfPort;
+        this.zosmfUrl = this.scheme + "://" + zosmfHostname + ":" + zosmfPort;
 
-        this.httpClient = this.zosmfManager.getHttpManager().newHttpClient();
-        
         try {
-            ICredentials creds = null;
             String credsId = ServerCreds.get(this.serverId);
             if (credsId != null) {
                 try {
-                    creds = this.zosmfManager.getFramework().getCredentialsService().getCredentials(credsId);
+                    this.creds = this.zosmfManager.getFramework().getCredentialsService().getCredentials(credsId);
                 } catch (CredentialsException e) {
                     throw new ZosmfException("Problem accessing credentials store", e);
                 }
             }
             
-            if (creds == null) {
-                creds = image.getDefaultCredentials();
-            }
-
-            this.httpClient.setURI(new URI(this.zosmfUrl));
-            if (creds instanceof ICredentialsUsernamePassword) {
-                this.httpClient.setAuthorisation(((ICredentialsUsernamePassword) creds).getUsername(), ((ICredentialsUsernamePassword) creds).getPassword());
-            }
-            if (scheme.equals("https")) {
-                this.httpClient.setTrustingSSLContext();
+            if (this.creds == null) {
+                this.creds = image.getDefaultCredentials();
             }
-            this.httpClient.build();
-        } catch (HttpClientException | ZosManagerException | URISyntaxException e) {
+        } catch (ZosManagerException e) {
             throw new ZosmfException("Unable to create HTTP Client", e);
         }
+
+        // Create the HTTP client for this thread now, so any problem with it is reported here
+        getHttpClient();
         
         try {
             this.requestRetry = RequestRetry.get(this.serverId);
+            this.serverHealth = new ZosmfServerHealth(this.serverId, ServerMaxRequests.get(this.serverId),
+                    ServerCircuitFailures.get(this.serverId), ServerCircuitReset.get(this.serverId));
         } catch (ZosManagerException e) {
             throw new ZosmfException(e);
         }
     }
 
-    protected void addCommonHeaders() {
-        for (Entry<String, String> entry : this.commonHeaders.entrySet()) {
+    /**
+     * @return the HTTP client for the current thread, creating it if this is the first request
+     *         the thread has sent to this zOS/MF server
+     */
+    protected IHttpClient getHttpClient() throws ZosmfException {
+        IHttpClient httpClient = this.httpClients.get();
+        if (httpClient == null) {
+            httpClient = newHttpClient();
+            this.httpClients.set(httpClient);
+            this.builtHttpClients.add(httpClient);
+        }
+        return httpClient;
+    }
+
+    /**
+     * Close the HTTP clients of every thread which has sent requests to this zOS/MF server
+     */
+    public void closeHttpClients() {
+        for (IHttpClient httpClient : this.builtHttpClients) {
+            httpClient.close();
+        }
+        this.builtHttpClients.clear();
+        this.httpClients.remove();
+    }
+
+    protected IHttpClient newHttpClient() throws ZosmfException {
+        IHttpClient httpClient = this.zosmfManager.getHttpManager().newHttpClient();
+        try {
+            httpClient.setURI(new URI(this.zosmfUrl));
+            if (this.creds instanceof ICredentialsUsernamePassword) {
+                httpClient.setAuthorisation(((ICredentialsUsernamePassword) this.creds).getUsername(), ((ICredentialsUsernamePassword) this.creds).getPassword());
+            }
+            if (this.scheme.equals("https")) {
+                httpClient.setTrustingSSLContext();
+            }
+            httpClient.build();
+        } catch (HttpClientException | URISyntaxException e) {
+            throw new ZosmfException("Unable to create HTTP Client", e);
+        }
+        return httpClient;
+    }
+
+    protected void addCommonHeaders() throws ZosmfException {
+        IHttpClient httpClient = getHttpClient();
+        for (Entry<String, String> entry : this.commonHeaders.get().entrySet()) {
             logger.trace("Adding HTTP header: " + entry.getKey() + ": " + entry.getValue());
-            this.httpClient.addCommonHeader(entry.getKey(), entry.getValue());
+            httpClient.addCommonHeader(entry.getKey(), entry.getValue());
         }
         
     }
@@ -355,5 +432,9 @@ public class ZosmfImpl implements IZosmf {
 
     protected int getRequestRetry() {
         return this.requestRetry;
+    }
+
+    protected ZosmfServerHealth getServerHealth() {
+        return this.serverHealth;
     }    
 }
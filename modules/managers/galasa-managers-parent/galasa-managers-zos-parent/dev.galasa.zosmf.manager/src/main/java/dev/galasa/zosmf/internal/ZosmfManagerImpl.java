@@ -36,6 +36,7 @@ import dev.galasa.zosmf.IZosmfRestApiProcessor;
 import dev.galasa.zosmf.Zosmf;
 import dev.galasa.zosmf.ZosmfException;
 import dev.galasa.zosmf.ZosmfManagerException;
+import dev.galasa.zosmf.internal.properties.ImageRequestRouting;
 import dev.galasa.zosmf.internal.properties.ImageServers;
 import dev.galasa.zosmf.internal.properties.SysplexServers;
 import dev.galasa.zosmf.internal.properties.ZosmfPropertiesSingleton;
@@ -109,6 +110,33 @@ public class ZosmfManagerImpl extends AbstractManager implements IZosmfManagerSp
     }
 
 
+    /* (non-Javadoc)
+     * @see dev.galasa.framework.spi.AbstractManager#endOfTestRun()
+     */
+    @Override
+    public void endOfTestRun() {
+        // Write the request metrics of each zOSMF server used by the test to the run log
+        for (IZosmf zosmf : this.zosmfs.values()) {
+            ZosmfServerHealth serverHealth = ((ZosmfImpl) zosmf).getServerHealth();
+            if (serverHealth != null && serverHealth.getRequests() > 0) {
+                logger.info(serverHealth.getMetricsSummary());
+            }
+        }
+    }
+
+
+    /* (non-Javadoc)
+     * @see dev.galasa.framework.spi.AbstractManager#shutdown()
+     */
+    @Override
+    public void shutdown() {
+        // The other zOS managers use the zOSMF servers until the end of the run, so the HTTP clients are closed last
+        for (IZosmf zosmf : this.zosmfs.values()) {
+            ((ZosmfImpl) zosmf).closeHttpClients();
+        }
+    }
+
+
     /* (non-Javadoc)
      * @see dev.galasa.framework.spi.AbstractManager#provisionGenerate()
      */
@@ -200,12 +228,12 @@ public class ZosmfManagerImpl extends AbstractManager implements IZosmfManagerSp
             Map<String, IZosmf> zosmfMap = getZosmfs(image);
             for(IZosmf zosmf : zosmfMap.values()) {
                 if (zosmf.getImage().getImageID().equals(image.getImageID())) {
-                    return new ZosmfRestApiProcessor(zosmfMap);
+                    return new ZosmfRestApiProcessor(zosmfMap, ImageRequestRouting.get(image));
                 }
             }
             throw new ZosmfManagerException("No zOSMF server configured on " + image.getImageID());
         }
-        return new ZosmfRestApiProcessor(getZosmfs(image));
+        return new ZosmfRestApiProcessor(getZosmfs(image), ImageRequestRouting.get(image));
     }
 
 
@@ -5,14 +5,20 @@
  */
 package dev.galasa.zosmf.internal;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.validation.constraints.NotNull;
 
@@ -32,21 +38,67 @@ import dev.galasa.zosmf.ZosmfException;
 import dev.galasa.zosmf.ZosmfManagerException;
 
 public class ZosmfRestApiProcessor implements IZosmfRestApiProcessor {
-    
+
+    /**
+     * How requests are routed to the zOSMF servers
+     */
+    public enum RequestRouting {
+        /** Send every request to the current server, and move to the next server when a request fails */
+        FAILOVER,
+        /** Send each request to the healthy server with the fewest requests in progress */
+        LEAST_OUTSTANDING,
+        /** Send each request to the healthy server with the lowest recent response time, allowing for its requests in progress */
+        LATENCY
+    }
+
+    /**
+     * An attempt of a request, started on the zOSMF server it is sent to
+     */
+    protected static class StartedRequest {
+        private final IZosmf zosmf;
+        private final ZosmfServerHealth.Request request;
+
+        protected StartedRequest(IZosmf zosmf, ZosmfServerHealth.Request request) {
+            this.zosmf = zosmf;
+            this.request = request;
+        }
+
+        public IZosmf getZosmf() {
+            return this.zosmf;
+        }
+
+        public ZosmfServerHealth.Request getRequest() {
+            return this.request;
+        }
+    }
+
+    // How long to wait for a request to finish before checking the servers again, when every server is at its maximum requests
+    private static final long WAIT_FOR_SERVER_MILLIS = 100;
+
     private IZosmf currentZosmf;
     private String currentZosmfImageId;
-    
+
     private final HashMap<String, IZosmf> zosmfs = new LinkedHashMap<>();
-    
+
+    private final RequestRouting routing;
+
+    // Rotates the order the servers are considered in, so servers which are equally good share the requests
+    private final AtomicInteger nextServer = new AtomicInteger();
+
     private static final Log logger = LogFactory.getLog(ZosmfRestApiProcessor.class);
-    
+
     public ZosmfRestApiProcessor(Map<String, IZosmf> zosmfs) {
+        this(zosmfs, RequestRouting.FAILOVER);
+    }
+
+    public ZosmfRestApiProcessor(Map<String, IZosmf> zosmfs, RequestRouting routing) {
         this.zosmfs.putAll(zosmfs);
         this.currentZosmfImageId = this.zosmfs.entrySet().iterator().next().getKey();
         this.currentZosmf = this.zosmfs.get(this.currentZosmfImageId);
+        this.routing = routing;
     }
-    
-    
+
+
     /**
      * Send zOSMF request
      * @param requestType
@@ -62,9 +114,13 @@ public class ZosmfRestApiProcessor implements IZosmfRestApiProcessor {
             validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
         }
         IZosmfResponse response = null;
+        Set<IZosmf> failedZosmfs = new HashSet<>();
         for (int i = 0; i <= ((ZosmfImpl) currentZosmf).getRequestRetry(); i++) {
+            StartedRequest startedRequest = startRequest(failedZosmfs);
+            IZosmf zosmfServer = startedRequest.getZosmf();
+            long startTime = System.nanoTime();
+            boolean validResponse = false;
             try {
-                IZosmf zosmfServer = getCurrentZosmfServer();
                 if (headers != null) {
                     for (Entry<String, String> entry : headers.entrySet()) {
                         zosmfServer.setHeader(entry.getKey(), entry.getValue());
@@ -85,7 +141,11 @@ public class ZosmfRestApiProcessor implements IZosmfRestApiProcessor {
                     response = zosmfServer.putJson(path, (JsonObject) body, validStatusCodes);
                     break;
                 case PUT_BINARY:
-                    response = zosmfServer.putBinary(path, (byte[]) body, validStatusCodes);
+                    if (body instanceof InputStream) {
+                        response = zosmfServer.putBinary(path, (InputStream) body, validStatusCodes);
+                    } else {
+                        response = zosmfServer.putBinary(path, (byte[]) body, validStatusCodes);
+                    }
                     break;
                 case DELETE:
                     response = zosmfServer.delete(path, validStatusCodes);
@@ -93,28 +153,105 @@ public class ZosmfRestApiProcessor implements IZosmfRestApiProcessor {
                 default:
                     throw new ZosmfException("Invalid request type");
                 }
-    
-                if (validStatusCodes.contains(response.getStatusCode())) {
-                    return response;
-                } else {
+
+                validResponse = validStatusCodes.contains(response.getStatusCode());
+                if (!validResponse) {
                     logger.error("Expected HTTP status codes: " + validStatusCodes);
-                    getNextZosmf();
                 }
             } catch (ZosmfManagerException e) {
                 logger.error("Problem with zOSMF request", e);
+            } finally {
+                getServerHealth(zosmfServer).finishRequest(startedRequest.getRequest(), System.nanoTime() - startTime, validResponse);
+            }
+            if (validResponse) {
+                return response;
+            }
+            failedZosmfs.add(zosmfServer);
+            if (this.routing == RequestRouting.FAILOVER) {
                 getNextZosmf();
             }
+            if (body instanceof InputStream) {
+                // The request body has been read, so it can't be sent again
+                break;
+            }
         }
         throw new ZosmfException("Unable to get valid response from zOS/MF server");
     }
-    
-    protected IZosmf getCurrentZosmfServer() {
+
+    /**
+     * Choose the zOSMF server for the next attempt of a request, and start the request on it
+     * @param failedZosmfs the servers the request has already failed on, which are only used if there is no other choice
+     * @return the server and the request started on it
+     */
+    protected StartedRequest startRequest(Set<IZosmf> failedZosmfs) throws ZosmfException {
+        if (this.routing == RequestRouting.FAILOVER) {
+            IZosmf zosmfServer = getCurrentZosmfServer();
+            return new StartedRequest(zosmfServer, getServerHealth(zosmfServer).startRequest());
+        }
+
+        while (true) {
+            List<IZosmf> candidates = new ArrayList<>(this.zosmfs.values());
+            Collections.rotate(candidates, -Math.floorMod(this.nextServer.getAndIncrement(), candidates.size()));
+
+            List<IZosmf> available = new ArrayList<>();
+            for (IZosmf zosmf : candidates) {
+                if (getServerHealth(zosmf).isAvailable()) {
+                    available.add(zosmf);
+                }
+            }
+            boolean ignoreCircuit = available.isEmpty();
+            if (ignoreCircuit) {
+                logger.debug("No healthy zOSMF server available, trying the servers anyway");
+                available = candidates;
+            }
+
+            // Score the servers first, as their health changes as other requests finish
+            Map<IZosmf, Double> scores = new HashMap<>();
+            for (IZosmf zosmf : available) {
+                scores.put(zosmf, routingScore(getServerHealth(zosmf)));
+            }
+            available.sort(Comparator.comparing((IZosmf zosmf) -> failedZosmfs.contains(zosmf)).thenComparing(scores::get));
+
+            for (IZosmf zosmf : available) {
+                ZosmfServerHealth.Request request = getServerHealth(zosmf).tryStartRequest(ignoreCircuit);
+                if (request != null) {
+                    logger.trace("Using zOSMF on " + zosmf);
+                    zosmf.clearHeaders();
+                    return new StartedRequest(zosmf, request);
+                }
+            }
+
+            // Every server is at its maximum requests
+            try {
+                ZosmfServerHealth.waitForRequestFinished(WAIT_FOR_SERVER_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ZosmfException("Interrupted while waiting for a zOSMF server", e);
+            }
+        }
+    }
+
+    /**
+     * @return the cost of sending the next request to the server, the lowest is chosen
+     */
+    protected double routingScore(ZosmfServerHealth serverHealth) {
+        if (this.routing == RequestRouting.LATENCY) {
+            return serverHealth.getLatencyAverageMillis() * (serverHealth.getOutstandingRequests() + 1);
+        }
+        return serverHealth.getOutstandingRequests();
+    }
+
+    protected ZosmfServerHealth getServerHealth(IZosmf zosmf) {
+        return ((ZosmfImpl) zosmf).getServerHealth();
+    }
+
+    protected synchronized IZosmf getCurrentZosmfServer() {
         logger.trace("Using zOSMF on " + this.currentZosmf);
         this.currentZosmf.clearHeaders();
         return this.currentZosmf;
     }
 
-    protected void getNextZosmf() {
+    protected synchronized void getNextZosmf() {
         if (this.zosmfs.size() == 1) {
             logger.debug("Only one zOSMF server available");
             return;
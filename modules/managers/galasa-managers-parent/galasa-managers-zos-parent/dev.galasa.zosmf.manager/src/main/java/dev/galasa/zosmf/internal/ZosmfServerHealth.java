@@ -0,0 +1,229 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosmf.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The health and request metrics of a zOSMF server, shared by every {@link ZosmfRestApiProcessor} in the test run.
+ *
+ * The LEAST_OUTSTANDING and LATENCY routing use it to choose a server, to limit the requests in progress to the server,
+ * and to stop using the server for a while after several of its requests fail in a row (a circuit breaker).
+ */
+public class ZosmfServerHealth {
+
+    private static final Log logger = LogFactory.getLog(ZosmfServerHealth.class);
+
+    // Weight of the latest response time in the moving average
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    // Upper bounds of the latency histogram buckets, the last bucket counts the slower requests
+    private static final long[] LATENCY_BUCKETS_MILLIS = { 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    // Notified whenever a request to any server finishes, so a request waiting for a server to drop below its maximum can try again
+    private static final Object REQUEST_FINISHED = new Object();
+
+    /**
+     * A request started on the server, which must be finished with {@link ZosmfServerHealth#finishRequest(Request, long, boolean)}
+     */
+    public static final class Request {
+        private final boolean trial;
+
+        private Request(boolean trial) {
+            this.trial = trial;
+        }
+
+        /**
+         * @return true if this is the trial request sent after the circuit breaker has been open long enough
+         */
+        public boolean isTrial() {
+            return this.trial;
+        }
+    }
+
+    private final String serverId;
+    private final int maxRequests;
+    private final int circuitFailures;
+    private final long circuitResetMillis;
+
+    private int outstandingRequests;
+    private double latencyAverageMillis;
+    private int consecutiveFailures;
+    private long circuitOpenUntil;
+    private boolean trialInProgress;
+
+    private long requests;
+    private long errors;
+    private long totalLatencyMillis;
+    private final long[] latencyHistogram = new long[LATENCY_BUCKETS_MILLIS.length + 1];
+
+    public ZosmfServerHealth(String serverId, int maxRequests, int circuitFailures, int circuitResetSeconds) {
+        this.serverId = serverId;
+        this.maxRequests = maxRequests;
+        this.circuitFailures = circuitFailures;
+        this.circuitResetMillis = TimeUnit.SECONDS.toMillis(circuitResetSeconds);
+    }
+
+    /**
+     * @return true if the circuit breaker is closed, or has been open long enough to send a trial request
+     */
+    public synchronized boolean isAvailable() {
+        if (this.consecutiveFailures < this.circuitFailures) {
+            return true;
+        }
+        return !this.trialInProgress && currentTimeMillis() >= this.circuitOpenUntil;
+    }
+
+    /**
+     * Start a request if the server is below its maximum requests and the circuit breaker allows it. When the circuit
+     * breaker has been open long enough, only one trial request is allowed until it finishes
+     * @param ignoreCircuit start the request even if the circuit breaker is open, used when no server is available
+     * @return the started request, which must be finished with {@link #finishRequest(Request, long, boolean)},
+     *         or null if the request has not been started
+     */
+    public synchronized Request tryStartRequest(boolean ignoreCircuit) {
+        if (this.maxRequests > 0 && this.outstandingRequests >= this.maxRequests) {
+            return null;
+        }
+        boolean trial = false;
+        if (!ignoreCircuit && this.consecutiveFailures >= this.circuitFailures) {
+            if (this.trialInProgress || currentTimeMillis() < this.circuitOpenUntil) {
+                return null;
+            }
+            this.trialInProgress = true;
+            trial = true;
+        }
+        this.outstandingRequests++;
+        return new Request(trial);
+    }
+
+    /**
+     * Start a request regardless of the maximum requests and the circuit breaker, used by the FAILOVER routing
+     * @return the started request, which must be finished with {@link #finishRequest(Request, long, boolean)}
+     */
+    public synchronized Request startRequest() {
+        this.outstandingRequests++;
+        return new Request(false);
+    }
+
+    /**
+     * Record the outcome of a started request. Only the trial request allows another trial request to be started
+     * @param request the request returned when it was started
+     * @param elapsedNanos the time the request took
+     * @param succeeded false if the request failed or returned an unexpected status code
+     */
+    public void finishRequest(Request request, long elapsedNanos, boolean succeeded) {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        synchronized (this) {
+            this.outstandingRequests--;
+            this.requests++;
+            this.totalLatencyMillis += latencyMillis;
+            this.latencyHistogram[latencyBucket(latencyMillis)]++;
+            if (this.requests == 1) {
+                this.latencyAverageMillis = latencyMillis;
+            } else {
+                this.latencyAverageMillis = LATENCY_WEIGHT * latencyMillis + (1 - LATENCY_WEIGHT) * this.latencyAverageMillis;
+            }
+            if (request.isTrial()) {
+                this.trialInProgress = false;
+            }
+
+            if (succeeded) {
+                if (this.consecutiveFailures >= this.circuitFailures) {
+                    logger.info("zOSMF server " + this.serverId + " is being used again");
+                }
+                this.consecutiveFailures = 0;
+            } else {
+                this.errors++;
+                this.consecutiveFailures++;
+                if (this.consecutiveFailures >= this.circuitFailures) {
+                    this.circuitOpenUntil = currentTimeMillis() + this.circuitResetMillis;
+                    if (this.consecutiveFailures == this.circuitFailures) {
+                        logger.warn("zOSMF server " + this.serverId + " will not be used for " + TimeUnit.MILLISECONDS.toSeconds(this.circuitResetMillis)
+                                + " seconds after " + this.consecutiveFailures + " requests failed in a row");
+                    }
+                }
+            }
+        }
+        synchronized (REQUEST_FINISHED) {
+            REQUEST_FINISHED.notifyAll();
+        }
+    }
+
+    /**
+     * Wait for a request to any zOSMF server to finish
+     * @param timeoutMillis the longest time to wait
+     */
+    public static void waitForRequestFinished(long timeoutMillis) throws InterruptedException {
+        synchronized (REQUEST_FINISHED) {
+            REQUEST_FINISHED.wait(timeoutMillis);
+        }
+    }
+
+    public String getServerId() {
+        return this.serverId;
+    }
+
+    public synchronized int getOutstandingRequests() {
+        return this.outstandingRequests;
+    }
+
+    /**
+     * @return the moving average of the response time, weighted towards the latest requests
+     */
+    public synchronized double getLatencyAverageMillis() {
+        return this.latencyAverageMillis;
+    }
+
+    public synchronized long getRequests() {
+        return this.requests;
+    }
+
+    public synchronized long getErrors() {
+        return this.errors;
+    }
+
+    /**
+     * @return a single line summary of the requests to the server, for the run log
+     */
+    public synchronized String getMetricsSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("zOSMF server ").append(this.serverId).append(": ");
+        summary.append(this.requests).append(" requests, ");
+        summary.append(this.errors).append(" errors");
+        if (this.requests > 0) {
+            summary.append(String.format(" (%.1f%%)", this.errors * 100.0 / this.requests));
+            summary.append(", mean latency ").append(this.totalLatencyMillis / this.requests).append("ms");
+            summary.append(String.format(", recent latency %.0fms", this.latencyAverageMillis));
+        }
+        summary.append(", latency histogram");
+        for (int i = 0; i < this.latencyHistogram.length; i++) {
+            if (i < LATENCY_BUCKETS_MILLIS.length) {
+                summary.append(" <=").append(LATENCY_BUCKETS_MILLIS[i]);
+            } else {
+                summary.append(" >").append(LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length - 1]);
+            }
+            summary.append("ms:").append(this.latencyHistogram[i]);
+        }
+        return summary.toString();
+    }
+
+    protected int latencyBucket(long latencyMillis) {
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            if (latencyMillis <= LATENCY_BUCKETS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS.length;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos.IZosImage;
+import dev.galasa.zosmf.ZosmfManagerException;
+import dev.galasa.zosmf.internal.ZosmfRestApiProcessor.RequestRouting;
+
+/**
+ * zOSMF Image request routing
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosmf.image.IMAGEID.request.routing
+ * 
+ * @galasa.description How requests for a z/OS Image are routed to its zOSMF servers. FAILOVER sends every request to one server,
+ * and only moves to the next server when a request fails. LEAST_OUTSTANDING sends each request to the healthy server with the fewest requests in progress,
+ * and LATENCY to the healthy server with the lowest recent response time. A server stops being used for a while after several requests to it fail in a row
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default FAILOVER
+ * 
+ * @galasa.valid_values FAILOVER, LEAST_OUTSTANDING, LATENCY
+ * 
+ * @galasa.examples 
+ * <code>zosmf.image.MV2C.request.routing=LEAST_OUTSTANDING</code><br>
+ *
+ */
+public class ImageRequestRouting extends CpsProperties {
+
+    public static RequestRouting get(IZosImage zosImage) throws ZosmfManagerException {
+        String routingString;
+        try {
+            routingString = getStringNulled(ZosmfPropertiesSingleton.cps(), "image", "request.routing", zosImage.getImageID());
+        } catch (ConfigurationPropertyStoreException e) {
+            throw new ZosmfManagerException("Problem asking the CPS for the zOSMF request routing property for zOS image "  + zosImage.getImageID(), e);
+        }
+        if (routingString == null) {
+            return RequestRouting.FAILOVER;
+        }
+        try {
+            return RequestRouting.valueOf(routingString.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ZosmfManagerException("Invalid value given for zosmf.image." + zosImage.getImageID() + ".request.routing '" + routingString + "'", e);
+        }
+    }
+
+}
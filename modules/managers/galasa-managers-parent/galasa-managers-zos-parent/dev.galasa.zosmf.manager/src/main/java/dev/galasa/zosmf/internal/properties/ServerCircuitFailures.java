@@ -0,0 +1,54 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import javax.validation.constraints.NotNull;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+/**
+ * zOSMF Server circuit breaker failures
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosmf.server.[SERVERID].circuit.failures
+ * 
+ * @galasa.description The number of requests in a row which must fail before the zOSMF server stops being used for a while, when the requests for its z/OS Image are routed with LEAST_OUTSTANDING or LATENCY
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 3
+ * 
+ * @galasa.valid_values numerical value > 0
+ * 
+ * @galasa.examples 
+ * <code>zosmf.server.circuit.failures=3</code><br>
+ * <code>zosmf.server.MFSYSA.circuit.failures=5</code>
+ *
+ */
+public class ServerCircuitFailures extends CpsProperties {
+
+    private static final int DEFAULT_CIRCUIT_FAILURES = 3;
+
+    public static int get(@NotNull String serverId) throws ZosmfManagerException {
+        try {
+            String valueString = getStringNulled(ZosmfPropertiesSingleton.cps(), "server", "circuit.failures", serverId);
+            if (valueString == null) {
+                return DEFAULT_CIRCUIT_FAILURES;
+            }
+            int value = Integer.parseInt(valueString);
+            if (value < 1) {
+                throw new ZosmfManagerException("Invalid value given for zosmf.server." + serverId + ".circuit.failures '" + valueString + "', must be greater than zero");
+            }
+            return value;
+        } catch (ConfigurationPropertyStoreException | NumberFormatException e) {
+            throw new ZosmfManagerException("Problem asking the CPS for the zOSMF server circuit breaker failures property for zOSMF server " + serverId, e);
+        }
+    }
+
+}
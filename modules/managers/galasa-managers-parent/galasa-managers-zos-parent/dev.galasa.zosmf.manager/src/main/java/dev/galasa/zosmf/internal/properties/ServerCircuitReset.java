@@ -0,0 +1,54 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import javax.validation.constraints.NotNull;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+/**
+ * zOSMF Server circuit breaker reset
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosmf.server.[SERVERID].circuit.reset
+ * 
+ * @galasa.description The number of seconds the zOSMF server is not used for after too many of its requests fail in a row. A single request is then sent to it, and the server is used again if the request works
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 30
+ * 
+ * @galasa.valid_values 0 or more
+ * 
+ * @galasa.examples 
+ * <code>zosmf.server.circuit.reset=30</code><br>
+ * <code>zosmf.server.MFSYSA.circuit.reset=60</code>
+ *
+ */
+public class ServerCircuitReset extends CpsProperties {
+
+    private static final int DEFAULT_CIRCUIT_RESET = 30;
+
+    public static int get(@NotNull String serverId) throws ZosmfManagerException {
+        try {
+            String valueString = getStringNulled(ZosmfPropertiesSingleton.cps(), "server", "circuit.reset", serverId);
+            if (valueString == null) {
+                return DEFAULT_CIRCUIT_RESET;
+            }
+            int value = Integer.parseInt(valueString);
+            if (value < 0) {
+                throw new ZosmfManagerException("Invalid value given for zosmf.server." + serverId + ".circuit.reset '" + valueString + "', must not be negative");
+            }
+            return value;
+        } catch (ConfigurationPropertyStoreException | NumberFormatException e) {
+            throw new ZosmfManagerException("Problem asking the CPS for the zOSMF server circuit breaker reset property for zOSMF server " + serverId, e);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import javax.validation.constraints.NotNull;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+/**
+ * zOSMF Server maximum requests
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosmf.server.[SERVERID].max.requests
+ * 
+ * @galasa.description The maximum number of requests the test run sends to the zOSMF server at the same time when the requests for its z/OS Image are routed with LEAST_OUTSTANDING or LATENCY. A request waits when every available server is at its maximum. 0 means no maximum
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 10
+ * 
+ * @galasa.valid_values 0 or more
+ * 
+ * @galasa.examples 
+ * <code>zosmf.server.max.requests=10</code><br>
+ * <code>zosmf.server.MFSYSA.max.requests=20</code>
+ *
+ */
+public class ServerMaxRequests extends CpsProperties {
+
+    private static final int DEFAULT_MAX_REQUESTS = 10;
+
+    public static int get(@NotNull String serverId) throws ZosmfManagerException {
+        try {
+            String valueString = getStringNulled(ZosmfPropertiesSingleton.cps(), "server", "max.requests", serverId);
+            if (valueString == null) {
+                return DEFAULT_MAX_REQUESTS;
+            }
+            int value = Integer.parseInt(valueString);
+            if (value < 0) {
+                throw new ZosmfManagerException("Invalid value given for zosmf.server." + serverId + ".max.requests '" + valueString + "', must not be negative");
+            }
+            return value;
+        } catch (ConfigurationPropertyStoreException | NumberFormatException e) {
+            throw new ZosmfManagerException("Problem asking the CPS for the zOSMF server maximum requests property for zOSMF server " + serverId, e);
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.zosmf.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.core5.http.HttpStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import dev.galasa.zosmf.IZosmf;
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.ZosmfException;
+import dev.galasa.zosmf.internal.ZosmfRestApiProcessor.RequestRouting;
+
+public class TestZosmfRestApiProcessorRouting {
+
+    private static final String PATH = "/zosmf/request-path";
+
+    private ZosmfImpl zosmfMock1;
+    private ZosmfImpl zosmfMock2;
+
+    private ZosmfServerHealth serverHealth1;
+    private ZosmfServerHealth serverHealth2;
+
+    private IZosmfResponse okResponseMock;
+    private IZosmfResponse errorResponseMock;
+
+    @Before
+    public void setup() throws Exception {
+        okResponseMock = Mockito.mock(IZosmfResponse.class);
+        Mockito.when(okResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        errorResponseMock = Mockito.mock(IZosmfResponse.class);
+        Mockito.when(errorResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+
+        serverHealth1 = new ZosmfServerHealth("SERVER1", 0, 2, 3600);
+        serverHealth2 = new ZosmfServerHealth("SERVER2", 0, 2, 3600);
+        zosmfMock1 = newZosmfMock(serverHealth1);
+        zosmfMock2 = newZosmfMock(serverHealth2);
+    }
+
+    private ZosmfImpl newZosmfMock(ZosmfServerHealth serverHealth) throws Exception {
+        ZosmfImpl zosmfMock = Mockito.mock(ZosmfImpl.class);
+        Mockito.when(zosmfMock.getRequestRetry()).thenReturn(3);
+        Mockito.when(zosmfMock.getServerHealth()).thenReturn(serverHealth);
+        Mockito.when(zosmfMock.get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean())).thenReturn(okResponseMock);
+        return zosmfMock;
+    }
+
+    private ZosmfRestApiProcessor newProcessor(RequestRouting routing) {
+        Map<String, IZosmf> zosmfs = new LinkedHashMap<>();
+        zosmfs.put("SERVER1", zosmfMock1);
+        zosmfs.put("SERVER2", zosmfMock2);
+        return new ZosmfRestApiProcessor(zosmfs, routing);
+    }
+
+    private IZosmfResponse sendGet(ZosmfRestApiProcessor processor) throws ZosmfException {
+        return processor.sendRequest(ZosmfRequestType.GET, PATH, null, null, null, false);
+    }
+
+    @Test
+    public void testFailoverSendsEveryRequestToTheCurrentServer() throws Exception {
+        // Given...
+        ZosmfRestApiProcessor processor = newProcessor(RequestRouting.FAILOVER);
+
+        // When...
+        for (int i = 0; i < 4; i++) {
+            sendGet(processor);
+        }
+
+        // Then...
+        Mockito.verify(zosmfMock1, Mockito.times(4)).get(Mockito.eq(PATH), Mockito.any(), Mockito.anyBoolean());
+        Mockito.verify(zosmfMock2, Mockito.never()).get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean());
+        assertThat(serverHealth1.getRequests()).isEqualTo(4);
+    }
+
+    @Test
+    public void testLeastOutstandingSpreadsRequestsAcrossTheServers() throws Exception {
+        // Given...
+        ZosmfRestApiProcessor processor = newProcessor(RequestRouting.LEAST_OUTSTANDING);
+
+        // When...
+        for (int i = 0; i < 4; i++) {
+            sendGet(processor);
+        }
+
+        // Then...
+        assertThat(serverHealth1.getRequests()).isEqualTo(2);
+        assertThat(serverHealth2.getRequests()).isEqualTo(2);
+    }
+
+    @Test
+    public void testLeastOutstandingAvoidsTheBusierServer() throws Exception {
+        // Given...
+        ZosmfRestApiProcessor processor = newProcessor(RequestRouting.LEAST_OUTSTANDING);
+        serverHealth1.startRequest();
+
+        // When...
+        for (int i = 0; i < 3; i++) {
+            sendGet(processor);
+        }
+
+        // Then...
+        Mockito.verify(zosmfMock1, Mockito.never()).get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean());
+        assertThat(serverHealth2.getRequests()).isEqualTo(3);
+    }
+
+    @Test
+    public void testLatencyPrefersTheFasterServer() throws Exception {
+        // Given...
+        ZosmfRestApiProcessor processor = newProcessor(RequestRouting.LATENCY);
+        serverHealth1.finishRequest(serverHealth1.startRequest(), TimeUnit.MILLISECONDS.toNanos(500), true);
+        serverHealth2.finishRequest(serverHealth2.startRequest(), TimeUnit.MILLISECONDS.toNanos(20), true);
+
+        // When...
+        for (int i = 0; i < 3; i++) {
+            sendGet(processor);
+        }
+
+        // Then...
+        Mockito.verify(zosmfMock1, Mockito.never()).get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean());
+        Mockito.verify(zosmfMock2, Mockito.times(3)).get(Mockito.eq(PATH), Mockito.any(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testFailingServerIsRetriedElsewhereAndThenNotUsed() throws Exception {
+        // Given...
+        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean())).thenReturn(errorResponseMock);
+        ZosmfRestApiProcessor processor = newProcessor(RequestRouting.LEAST_OUTSTANDING);
+
+        // When...
+        for (int i = 0; i < 6; i++) {
+            assertThat(sendGet(processor).getStatusCode()).isEqualTo(HttpStatus.SC_OK);
+        }
+
+        // Then...
+        // The circuit breaker opens after two failed requests in a row, so the server is not used again
+        Mockito.verify(zosmfMock1, Mockito.times(2)).get(Mockito.eq(PATH), Mockito.any(), Mockito.anyBoolean());
+        assertThat(serverHealth1.isAvailable()).isFalse();
+        assertThat(serverHealth1.getErrors()).isEqualTo(2);
+        assertThat(serverHealth2.getRequests()).isEqualTo(6);
+    }
+
+    @Test
+    public void testServerIsTriedAgainAfterTheCircuitBreakerReset() throws Exception {
+        // Given...
+        serverHealth1 = new ZosmfServerHealth("SERVER1", 0, 1, 0);
+        Mockito.when(zosmfMock1.getServerHealth()).thenReturn(serverHealth1);
+        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean())).thenReturn(errorResponseMock).thenReturn(okResponseMock);
+        ZosmfRestApiProcessor processor = newProcessor(RequestRouting.LEAST_OUTSTANDING);
+
+        // When...
+        sendGet(processor);
+        assertThat(serverHealth1.isAvailable()).isTrue();
+        for (int i = 0; i < 4; i++) {
+            sendGet(processor);
+        }
+
+        // Then...
+        assertThat(serverHealth1.getRequests()).isGreaterThan(1);
+        assertThat(serverHealth1.getErrors()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOnlyTheTrialRequestAllowsAnotherTrialRequest() throws Exception {
+        // Given...
+        ZosmfServerHealth serverHealth = new ZosmfServerHealth("SERVER1", 0, 1, 0);
+        serverHealth.finishRequest(serverHealth.startRequest(), 0, false);
+        ZosmfServerHealth.Request trialRequest = serverHealth.tryStartRequest(false);
+        ZosmfServerHealth.Request otherRequest = serverHealth.tryStartRequest(true);
+
+        // When...
+        serverHealth.finishRequest(otherRequest, 0, false);
+        boolean availableDuringTrial = serverHealth.isAvailable();
+        ZosmfServerHealth.Request secondTrialRequest = serverHealth.tryStartRequest(false);
+        serverHealth.finishRequest(trialRequest, 0, true);
+
+        // Then...
+        assertThat(trialRequest.isTrial()).isTrue();
+        assertThat(otherRequest.isTrial()).isFalse();
+        assertThat(availableDuringTrial).isFalse();
+        assertThat(secondTrialRequest).isNull();
+        assertThat(serverHealth.isAvailable()).isTrue();
+        assertThat(serverHealth.getOutstandingRequests()).isZero();
+    }
+
+    @Test
+    public void testRequestWaitsWhenEveryServerIsAtItsMaximum() throws Exception {
+        // Given...
+        serverHealth1 = new ZosmfServerHealth("SERVER1", 1, 2, 3600);
+        serverHealth2 = new ZosmfServerHealth("SERVER2", 1, 2, 3600);
+        Mockito.when(zosmfMock1.getServerHealth()).thenReturn(serverHealth1);
+        Mockito.when(zosmfMock2.getServerHealth()).thenReturn(serverHealth2);
+        assertThat(serverHealth1.tryStartRequest(false)).isNotNull();
+        ZosmfServerHealth.Request request2 = serverHealth2.tryStartRequest(false);
+        assertThat(request2).isNotNull();
+        ZosmfRestApiProcessor processor = newProcessor(RequestRouting.LEAST_OUTSTANDING);
+
+        // When...
+        CompletableFuture<IZosmfResponse> response = CompletableFuture.supplyAsync(() -> {
+            try {
+                return sendGet(processor);
+            } catch (ZosmfException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(300);
+        assertThat(response).isNotDone();
+        serverHealth2.finishRequest(request2, 0, true);
+
+        // Then...
+        assertThat(response.get(10, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.SC_OK);
+        Mockito.verify(zosmfMock2).get(Mockito.eq(PATH), Mockito.any(), Mockito.anyBoolean());
+        Mockito.verify(zosmfMock1, Mockito.never()).get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testMetricsSummaryCountsRequestsErrorsAndLatency() throws Exception {
+        // Given...
+        ZosmfServerHealth serverHealth = new ZosmfServerHealth("SERVER1", 0, 3, 30);
+
+        // When...
+        serverHealth.finishRequest(serverHealth.startRequest(), TimeUnit.MILLISECONDS.toNanos(5), true);
+        serverHealth.finishRequest(serverHealth.startRequest(), TimeUnit.MILLISECONDS.toNanos(200), true);
+        serverHealth.finishRequest(serverHealth.startRequest(), TimeUnit.MILLISECONDS.toNanos(20000), false);
+        serverHealth.finishRequest(serverHealth.startRequest(), TimeUnit.MILLISECONDS.toNanos(15), true);
+
+        // Then...
+        assertThat(serverHealth.getMetricsSummary())
+            .startsWith("zOSMF server SERVER1: 4 requests, 1 errors (25.0%), mean latency 5055ms")
+            .endsWith("latency histogram <=10ms:1 <=50ms:1 <=100ms:0 <=250ms:1 <=500ms:0 <=1000ms:0 <=2500ms:0 <=5000ms:0 <=10000ms:0 >10000ms:1");
+        assertThat(serverHealth.getOutstandingRequests()).isZero();
+    }
+}
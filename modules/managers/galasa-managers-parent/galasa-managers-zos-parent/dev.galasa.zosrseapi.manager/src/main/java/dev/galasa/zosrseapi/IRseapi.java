@@ -5,6 +5,7 @@
  */
 package dev.galasa.zosrseapi;
 
+import java.io.InputStream;
 import java.util.List;
 
 import javax.validation.constraints.NotNull;
@@ -36,7 +37,8 @@ public interface IRseapi {
          */
         PUT_TEXT("PUT"),
         /**
-         * PUT method with binary request body
+         * PUT method with binary request body, a byte[] or an {@link java.io.InputStream}. A request with an
+         * {@link java.io.InputStream} body is not retried because the stream can only be read once
          */
         PUT_BINARY("PUT"),
         /**
@@ -121,6 +123,18 @@ public interface IRseapi {
     */
    public @NotNull IRseapiResponse putBinary(String path, byte[] body, List<Integer> validStatusCodes) throws RseapiException;
 
+    /**
+    * Issue an HTTP PUT request to the RSE API server with a request body of content type of {@code text/plain}
+    * streamed from an {@link InputStream}
+    * 
+    * @param path identifies the RSE API REST API server
+    * @param body the request body stream, which is read once and not closed
+    * @param validStatusCodes a {@link List} of acceptable HTTP Status codes. Default to {@link HttpStatus#SC_OK} when null
+    * @return the RSE API server response
+    * @throws RseapiException
+    */
+   public @NotNull IRseapiResponse putBinary(String path, InputStream body, List<Integer> validStatusCodes) throws RseapiException;
+
 	/**
      * Issue an HTTP POST request to the RSE API server with no request body
      * 
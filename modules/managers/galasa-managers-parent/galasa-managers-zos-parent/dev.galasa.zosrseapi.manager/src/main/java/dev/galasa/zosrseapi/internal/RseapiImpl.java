@@ -5,6 +5,7 @@
  */
 package dev.galasa.zosrseapi.internal;
 
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -14,6 +15,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.validation.constraints.NotNull;
 
@@ -53,11 +55,15 @@ public class RseapiImpl implements IRseapi {
 	private final RseapiManagerImpl rseapiManager;
 	private String serverId;
     private IZosImage image;
-    private IHttpClient httpClient;
     private String rseapiUrl;
+    private ICredentials creds;
     protected int requestRetry;
 
-    private HashMap<String, String> commonHeaders = new HashMap<>();
+    // Each thread sending requests has its own HTTP client and headers, as the HTTP client is not thread safe
+    private final ThreadLocal<IHttpClient> httpClients = new ThreadLocal<>();
+    private final ThreadLocal<HashMap<String, String>> commonHeaders = ThreadLocal.withInitial(HashMap::new);
+    // Every HTTP client built for a thread, so they can be closed at the end of the run
+    private final List<IHttpClient> builtHttpClients = new CopyOnWriteArrayList<>();
 
 	private static final String PATH_SERVERDETAILS = "/rseapi/api/v1/info/serverdetails";
 
@@ -81,13 +87,16 @@ public class RseapiImpl implements IRseapi {
 
     @Override
     public void setHeader(String key, String value) {
-        this.commonHeaders.put(key, value);
+        this.commonHeaders.get().put(key, value);
     }
 
     @Override
     public void clearHeaders() {
-        this.commonHeaders.clear();
-        this.httpClient.clearCommonHeaders();
+        this.commonHeaders.get().clear();
+        IHttpClient httpClient = this.httpClients.get();
+        if (httpClient != null) {
+            httpClient.clearCommonHeaders();
+        }
     }
 
     @Override
@@ -102,9 +111,9 @@ public class RseapiImpl implements IRseapi {
             rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
             logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
             if (convert) {
-                rseapiResponse.setHttpClientresponse(this.httpClient.getJson(validPath(path)));
+                rseapiResponse.setHttpClientresponse(getHttpClient().getJson(validPath(path)));
             } else {
-                rseapiResponse.setHttpClientresponse(this.httpClient.getFileStream(validPath(path)));
+                rseapiResponse.setHttpClientresponse(getHttpClient().getFileStream(validPath(path)));
             }
             
             logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
@@ -131,7 +140,7 @@ public class RseapiImpl implements IRseapi {
 	        rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
 	        logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
 	        logger.trace(LOG_BODY + requestBody);
-	        rseapiResponse.setHttpClientresponse(this.httpClient.putJson(validPath(path), requestBody));
+	        rseapiResponse.setHttpClientresponse(getHttpClient().putJson(validPath(path), requestBody));
 	        logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
 	        if (!validStatusCodes.contains(rseapiResponse.getStatusCode())) {
 	            throw new RseapiException(logBadStatusCode(rseapiResponse.getStatusCode()));
@@ -156,7 +165,7 @@ public class RseapiImpl implements IRseapi {
 	        rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
 	        logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
 	        logger.trace(LOG_BODY + requestBody);
-	        rseapiResponse.setHttpClientresponse(this.httpClient.putText(validPath(path), requestBody));
+	        rseapiResponse.setHttpClientresponse(getHttpClient().putText(validPath(path), requestBody));
 	        logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
 	        if (!validStatusCodes.contains(rseapiResponse.getStatusCode())) {
 	            throw new RseapiException(logBadStatusCode(rseapiResponse.getStatusCode()));
@@ -180,7 +189,31 @@ public class RseapiImpl implements IRseapi {
 	        addCommonHeaders();
 	        rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
 	        logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
-	        rseapiResponse.setHttpClientresponse(this.httpClient.putBinary(validPath(path), requestBody));
+	        rseapiResponse.setHttpClientresponse(getHttpClient().putBinary(validPath(path), requestBody));
+	        logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
+	        if (!validStatusCodes.contains(rseapiResponse.getStatusCode())) {
+	            throw new RseapiException(logBadStatusCode(rseapiResponse.getStatusCode()));
+	        }
+	    } catch (MalformedURLException | HttpClientException  e) {
+	        logger.error(e);
+	        throw new RseapiException(logBadRequest(method), e);
+	    }
+	    
+	    return rseapiResponse;
+	}
+
+    @Override
+	public @NotNull IRseapiResponse putBinary(String path, InputStream requestBody, List<Integer> validStatusCodes) throws RseapiException {
+	    String method = RseapiRequestType.PUT_BINARY.getRequestType();
+	    if (validStatusCodes == null) {
+	        validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
+	    }
+	    RseapiResponseImpl rseapiResponse;
+	    try {
+	        addCommonHeaders();
+	        rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
+	        logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
+	        rseapiResponse.setHttpClientresponse(getHttpClient().putBinary(validPath(path), requestBody));
 	        logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
 	        if (!validStatusCodes.contains(rseapiResponse.getStatusCode())) {
 	            throw new RseapiException(logBadStatusCode(rseapiResponse.getStatusCode()));
@@ -205,7 +238,7 @@ public class RseapiImpl implements IRseapi {
             rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
             logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
             logger.trace(LOG_BODY + requestBody);
-            rseapiResponse.setHttpClientresponse(this.httpClient.postJson(validPath(path), requestBody));
+            rseapiResponse.setHttpClientresponse(getHttpClient().postJson(validPath(path), requestBody));
             logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
             if (!validStatusCodes.contains(rseapiResponse.getStatusCode())) {
                 throw new RseapiException(logBadStatusCode(rseapiResponse.getStatusCode()));
@@ -229,7 +262,7 @@ public class RseapiImpl implements IRseapi {
             addCommonHeaders();
             rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
             logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
-            rseapiResponse.setHttpClientresponse(this.httpClient.postJson(validPath(path), null));
+            rseapiResponse.setHttpClientresponse(getHttpClient().postJson(validPath(path), null));
             logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
             if (!validStatusCodes.contains(rseapiResponse.getStatusCode())) {
                 throw new RseapiException(logBadStatusCode(rseapiResponse.getStatusCode()));
@@ -253,7 +286,7 @@ public class RseapiImpl implements IRseapi {
             addCommonHeaders();
             rseapiResponse = new RseapiResponseImpl(this.rseapiUrl, validPath(path));
             logger.trace(logRequest(method, rseapiResponse.getRequestUrl()));
-            rseapiResponse.setHttpClientresponse(this.httpClient.deleteJson(validPath(path)));
+            rseapiResponse.setHttpClientresponse(getHttpClient().deleteJson(validPath(path)));
             logger.trace(logResponse(rseapiResponse.getStatusLine(), method, rseapiResponse.getRequestUrl()));
             if (!validStatusCodes.contains(rseapiResponse.getStatusCode())) {
                 throw new RseapiException(logBadStatusCode(rseapiResponse.getStatusCode()));
@@ -308,31 +341,25 @@ public class RseapiImpl implements IRseapi {
         }
         this.rseapiUrl = scheme + "://" + rseapiHostname + ":" + rseapiPort;
 
-        this.httpClient = this.rseapiManager.getHttpManager().newHttpClient();
-        
         try {
-            ICredentials creds = null;
             String credsId = ServerCreds.get(this.serverId);
             if (credsId != null) {
                 try {
-                    creds = this.rseapiManager.getFramework().getCredentialsService().getCredentials(credsId);
+                    this.creds = this.rseapiManager.getFramework().getCredentialsService().getCredentials(credsId);
                 } catch (CredentialsException e) {
                     throw new RseapiException("Problem accessing credentials store", e);
                 }
             }
             
-            if (creds == null) {
-                creds = image.getDefaultCredentials();
-            }
-            this.httpClient.setURI(new URI(this.rseapiUrl));
-            if (creds instanceof ICredentialsUsernamePassword) {
-                this.httpClient.setAuthorisation(((ICredentialsUsernamePassword) creds).getUsername(), ((ICredentialsUsernamePassword) creds).getPassword());
+            if (this.creds == null) {
+                this.creds = image.getDefaultCredentials();
             }
-            this.httpClient.setTrustingSSLContext();
-            this.httpClient.build();
-        } catch (HttpClientException | ZosManagerException | URISyntaxException e) {
+        } catch (ZosManagerException e) {
             throw new RseapiException("Unable to create HTTP Client", e);
         }
+
+        // Create the HTTP client for this thread now, so any problem with it is reported here
+        getHttpClient();
         
         try {
             this.requestRetry = RequestRetry.get(this.serverId);
@@ -341,10 +368,51 @@ public class RseapiImpl implements IRseapi {
         }
     }
 
-    protected void addCommonHeaders() {
-        for (Entry<String, String> entry : this.commonHeaders.entrySet()) {
+    /**
+     * @return the HTTP client for the current thread, creating it if this is the first request
+     *         the thread has sent to this RSE API server
+     */
+    protected IHttpClient getHttpClient() throws RseapiException {
+        IHttpClient httpClient = this.httpClients.get();
+        if (httpClient == null) {
+            httpClient = newHttpClient();
+            this.httpClients.set(httpClient);
+            this.builtHttpClients.add(httpClient);
+        }
+        return httpClient;
+    }
+
+    /**
+     * Close the HTTP clients of every thread which has sent requests to this RSE API server
+     */
+    public void closeHttpClients() {
+        for (IHttpClient httpClient : this.builtHttpClients) {
+            httpClient.close();
+        }
+        this.builtHttpClients.clear();
+        this.httpClients.remove();
+    }
+
+    protected IHttpClient newHttpClient() throws RseapiException {
+        IHttpClient httpClient = this.rseapiManager.getHttpManager().newHttpClient();
+        try {
+            httpClient.setURI(new URI(this.rseapiUrl));
+            if (this.creds instanceof ICredentialsUsernamePassword) {
+                httpClient.setAuthorisation(((ICredentialsUsernamePassword) this.creds).getUsername(), ((ICredentialsUsernamePassword) this.creds).getPassword());
+            }
+            httpClient.setTrustingSSLContext();
+            httpClient.build();
+        } catch (HttpClientException | URISyntaxException e) {
+            throw new RseapiException("Unable to create HTTP Client", e);
+        }
+        return httpClient;
+    }
+
+    protected void addCommonHeaders() throws RseapiException {
+        IHttpClient httpClient = getHttpClient();
+        for (Entry<String, String> entry : this.commonHeaders.get().entrySet()) {
             logger.trace("Adding HTTP header: " + entry.getKey() + ": " + entry.getValue());
-            this.httpClient.addCommonHeader(entry.getKey(), entry.getValue());
+            httpClient.addCommonHeader(entry.getKey(), entry.getValue());
         }
         
     }
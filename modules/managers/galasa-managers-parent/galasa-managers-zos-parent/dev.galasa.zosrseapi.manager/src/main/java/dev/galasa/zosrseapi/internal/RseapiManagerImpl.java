@@ -130,6 +130,18 @@ public class RseapiManagerImpl extends AbstractManager implements IRseapiManager
     public void provisionGenerate() throws ManagerException, ResourceUnavailableException {
         generateAnnotatedFields(RseapiManagerField.class);
     }
+
+
+    /* (non-Javadoc)
+     * @see dev.galasa.framework.spi.AbstractManager#shutdown()
+     */
+    @Override
+    public void shutdown() {
+        // The other zOS managers use the RSE API servers until the end of the run, so the HTTP clients are closed last
+        for (IRseapi rseapi : this.rseapis.values()) {
+            ((RseapiImpl) rseapi).closeHttpClients();
+        }
+    }
     
     @GenerateAnnotatedField(annotation=Rseapi.class)
     public IRseapi generateRseapi(Field field, List<Annotation> annotations) throws RseapiManagerException {
@@ -5,6 +5,7 @@
  */
 package dev.galasa.zosrseapi.internal;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -84,7 +85,11 @@ public class RseapiRestApiProcessor implements IRseapiRestApiProcessor {
 	                    response = rseapiServer.putText(path, (String) body, validStatusCodes);
 	                    break;
 	                case PUT_BINARY:
-	                    response = rseapiServer.putBinary(path, (byte[]) body, validStatusCodes);
+	                    if (body instanceof InputStream) {
+	                        response = rseapiServer.putBinary(path, (InputStream) body, validStatusCodes);
+	                    } else {
+	                        response = rseapiServer.putBinary(path, (byte[]) body, validStatusCodes);
+	                    }
 	                    break;
 	                case POST_JSON:
 	                    response = rseapiServer.postJson(path, (JsonObject) body, validStatusCodes);
@@ -106,6 +111,10 @@ public class RseapiRestApiProcessor implements IRseapiRestApiProcessor {
                 logger.error("Problem with RSE API request", e);
                 getNextRseapi();
             }
+            if (body instanceof InputStream) {
+                // The request body has been read, so it can't be sent again
+                break;
+            }
         }
         throw new RseapiException("Unable to get valid response from RSE API server");
     }